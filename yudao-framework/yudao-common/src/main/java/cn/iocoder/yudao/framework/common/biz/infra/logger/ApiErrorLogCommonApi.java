@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @FeignClient(name = RpcConstants.INFRA_NAME) // TODO 芋艿：fallbackFactory =
 @Tag(name = "RPC 服务 - API 异常日志")
@@ -22,6 +23,10 @@ public interface ApiErrorLogCommonApi {
     @Operation(summary = "创建 API 异常日志")
     CommonResult<Boolean> createApiErrorLog(@Valid @RequestBody ApiErrorLogCreateReqDTO createDTO);
 
+    @PostMapping(PREFIX + "/create-batch")
+    @Operation(summary = "批量创建 API 异常日志")
+    CommonResult<Boolean> createApiErrorLogBatch(@Valid @RequestBody List<ApiErrorLogCreateReqDTO> createDTOs);
+
     /**
      * 【异步】创建 API 异常日志
      *
@@ -17,6 +17,12 @@ public class ApiAccessLogCreateReqDTO {
      * 链路追踪编号
      */
     private String traceId;
+    /**
+     * 租户编号
+     *
+     * 批量创建时使用，用于按照租户分组插入；单条创建时，使用请求上下文中的租户编号
+     */
+    private Long tenantId;
     /**
      * 用户编号
      */
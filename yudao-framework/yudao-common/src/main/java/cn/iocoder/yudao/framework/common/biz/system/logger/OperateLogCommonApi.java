@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @FeignClient(name = RpcConstants.SYSTEM_NAME, primary = false) // TODO 芋艿：fallbackFactory =
 @Tag(name = "RPC 服务 - 操作日志")
@@ -22,6 +23,10 @@ public interface OperateLogCommonApi {
     @Operation(summary = "创建操作日志")
     CommonResult<Boolean> createOperateLog(@Valid @RequestBody OperateLogCreateReqDTO createReqDTO);
 
+    @PostMapping(PREFIX + "/create-batch")
+    @Operation(summary = "批量创建操作日志")
+    CommonResult<Boolean> createOperateLogBatch(@Valid @RequestBody List<OperateLogCreateReqDTO> createReqDTOs);
+
     /**
      * 【异步】创建操作日志
      *
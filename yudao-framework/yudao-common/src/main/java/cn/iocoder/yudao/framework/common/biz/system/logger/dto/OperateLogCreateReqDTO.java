@@ -12,6 +12,8 @@ public class OperateLogCreateReqDTO {
 
     @Schema(description = "链路追踪编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "89aca178-a370-411c-ae02-3f0d672be4ab")
     private String traceId;
+    @Schema(description = "租户编号，批量创建时使用", example = "1")
+    private Long tenantId;
 
     @Schema(description = "用户编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "666")
     @NotNull(message = "用户编号不能为空")
@@ -18,7 +18,9 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -66,6 +68,17 @@ public class JsonUtils {
         return objectMapper.writeValueAsBytes(object);
     }
 
+    /**
+     * 将对象序列化成 JSON，直接写入到输出流，避免创建中间的 byte[]
+     *
+     * @param outputStream 输出流
+     * @param object       对象
+     */
+    @SneakyThrows
+    public static void writeJson(OutputStream outputStream, Object object) {
+        objectMapper.writeValue(outputStream, object);
+    }
+
     @SneakyThrows
     public static String toJsonPrettyString(Object object) {
         return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(object);
@@ -149,6 +162,27 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * 解析 bytes 中指定区间的 JSON，避免拷贝出新的 byte[]
+     *
+     * @param bytes  字节数组
+     * @param offset 开始位置
+     * @param length 长度
+     * @param clazz  类型
+     * @return 对象
+     */
+    public static <T> T parseObject(byte[] bytes, int offset, int length, Class<T> clazz) {
+        if (length <= 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bytes, offset, length, clazz);
+        } catch (IOException e) {
+            log.error("json parse err,json:{}", new String(bytes, offset, length, StandardCharsets.UTF_8), e);
+            throw new RuntimeException(e);
+        }
+    }
+
     public static <T> T parseObject(String text, TypeReference<T> typeReference) {
         try {
             return objectMapper.readValue(text, typeReference);
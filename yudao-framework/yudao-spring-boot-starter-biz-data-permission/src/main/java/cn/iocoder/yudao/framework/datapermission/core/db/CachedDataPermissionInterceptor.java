@@ -0,0 +1,81 @@
+package cn.iocoder.yudao.framework.datapermission.core.db;
+
+import com.baomidou.mybatisplus.extension.plugins.inner.DataPermissionInterceptor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * 带缓存的 {@link DataPermissionInterceptor} 实现类
+ *
+ * 以 Mapper 编号 + 数据权限的指纹 + 原始 SQL 为 key，缓存改写后的 SQL，避免相同权限下，重复解析、改写相同的 SQL
+ *
+ * @author 芋道源码
+ */
+public class CachedDataPermissionInterceptor extends DataPermissionInterceptor {
+
+    /**
+     * 缓存的最大数量
+     */
+    private static final Integer CACHE_MAX_SIZE = 4096;
+
+    private final DataPermissionRuleHandler handler;
+
+    /**
+     * 改写后的 SQL 缓存
+     */
+    private final Cache<String, String> sqlCache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_MAX_SIZE)
+            .build();
+
+    public CachedDataPermissionInterceptor(DataPermissionRuleHandler handler) {
+        super(handler);
+        this.handler = handler;
+    }
+
+    @Override
+    public String parserSingle(String sql, Object obj) {
+        String cacheKey = buildCacheKey(sql, obj);
+        if (cacheKey == null) {
+            return super.parserSingle(sql, obj);
+        }
+        String result = sqlCache.getIfPresent(cacheKey);
+        if (result == null) {
+            result = super.parserSingle(sql, obj);
+            sqlCache.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    @Override
+    public String parserMulti(String sql, Object obj) {
+        String cacheKey = buildCacheKey(sql, obj);
+        if (cacheKey == null) {
+            return super.parserMulti(sql, obj);
+        }
+        String result = sqlCache.getIfPresent(cacheKey);
+        if (result == null) {
+            result = super.parserMulti(sql, obj);
+            sqlCache.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * 构建缓存 key
+     *
+     * @param sql 原始 SQL
+     * @param obj Mapper 编号，即 MappedStatement 的 id
+     * @return 缓存 key；如果为 null，则不进行缓存
+     */
+    private String buildCacheKey(String sql, Object obj) {
+        if (!(obj instanceof String)) {
+            return null;
+        }
+        String fingerprint = handler.getFingerprint((String) obj);
+        if (fingerprint == null) {
+            return null;
+        }
+        return obj + "#" + fingerprint + "#" + sql;
+    }
+
+}
@@ -61,4 +61,34 @@ public class DataPermissionRuleHandler implements MultiDataPermissionHandler {
         return allExpression;
     }
 
+    /**
+     * 获得 Mapper 对应的数据权限的指纹，用于 {@link CachedDataPermissionInterceptor} 缓存改写后的 SQL
+     *
+     * @param mappedStatementId Mapper 编号
+     * @return 指纹；返回 null 时，表示无法确定，不进行缓存
+     */
+    public String getFingerprint(String mappedStatementId) {
+        // 特殊：跨租户访问
+        if (skipPermissionCheck()) {
+            return "skip";
+        }
+
+        // 获得 Mapper 对应的数据权限的规则
+        List<DataPermissionRule> rules = ruleFactory.getDataPermissionRule(mappedStatementId);
+        if (CollUtil.isEmpty(rules)) {
+            return "empty";
+        }
+
+        // 拼接每条规则的指纹
+        StringBuilder fingerprint = new StringBuilder();
+        for (DataPermissionRule rule : rules) {
+            String oneFingerprint = rule.getFingerprint();
+            if (oneFingerprint == null) {
+                return null;
+            }
+            fingerprint.append(rule.getClass().getName()).append('=').append(oneFingerprint).append(';');
+        }
+        return fingerprint.toString();
+    }
+
 }
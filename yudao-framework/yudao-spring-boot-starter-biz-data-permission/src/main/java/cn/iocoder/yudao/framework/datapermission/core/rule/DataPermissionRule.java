@@ -33,4 +33,15 @@ public interface DataPermissionRule {
      */
     Expression getExpression(String tableName, Alias tableAlias);
 
+    /**
+     * 获得当前上下文（例如说登录用户）下，规则的指纹，用于缓存数据权限改写后的 SQL
+     *
+     * 要求：指纹相同时，{@link #getExpression(String, Alias)} 返回的过滤条件必须相同
+     *
+     * @return 指纹；返回 null 时，表示无法确定，不进行缓存
+     */
+    default String getFingerprint() {
+        return null;
+    }
+
 }
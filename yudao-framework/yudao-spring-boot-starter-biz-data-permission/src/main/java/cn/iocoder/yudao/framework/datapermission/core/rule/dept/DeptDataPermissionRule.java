@@ -3,6 +3,7 @@ package cn.iocoder.yudao.framework.datapermission.core.rule.dept;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import cn.iocoder.yudao.framework.common.biz.system.permission.PermissionCommonApi;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
@@ -14,7 +15,8 @@ import cn.iocoder.yudao.framework.security.core.LoginUser;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 import cn.iocoder.yudao.framework.common.biz.system.permission.dto.DeptDataPermissionRespDTO;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jsqlparser.expression.*;
 import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
@@ -22,11 +24,13 @@ import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
 import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
 import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
+import net.sf.jsqlparser.statement.create.table.ColDataType;
 
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * 基于部门的 {@link DataPermissionRule} 数据权限规则实现
@@ -45,7 +49,7 @@ import java.util.Set;
  *
  * @author 芋道源码
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Slf4j
 public class DeptDataPermissionRule implements DataPermissionRule {
 
@@ -53,6 +57,14 @@ public class DeptDataPermissionRule implements DataPermissionRule {
      * LoginUser 的 Context 缓存 Key
      */
     protected static final String CONTEXT_KEY = DeptDataPermissionRule.class.getSimpleName();
+    /**
+     * LoginUser 的 Context 缓存 Key 前缀：表名 + 别名，对应的过滤条件
+     */
+    protected static final String CONTEXT_KEY_EXPRESSION_PREFIX = CONTEXT_KEY + ":expression:";
+    /**
+     * LoginUser 的 Context 缓存 Key：数据权限的指纹
+     */
+    protected static final String CONTEXT_KEY_FINGERPRINT = CONTEXT_KEY + ":fingerprint";
 
     private static final String DEPT_COLUMN_NAME = "dept_id";
     private static final String USER_COLUMN_NAME = "user_id";
@@ -82,6 +94,15 @@ public class DeptDataPermissionRule implements DataPermissionRule {
      */
     private final Set<String> TABLE_NAMES = new HashSet<>();
 
+    /**
+     * 部门编号数量的阈值，超过时使用 dept_id = ANY(CAST('{1,2,3}' AS BIGINT[])) 数组条件，替代 dept_id IN (1, 2, 3) 条件
+     *
+     * 目的：可查看的部门很多时，避免每个部门一个 LongValue 参与 SQL 改写，以及超长的 IN 条件影响执行计划的缓存
+     * 注意：仅 PostgreSQL 等支持数组的数据库可以设置；为 null 时，不开启
+     */
+    @Setter
+    private Integer deptIdsArrayThreshold;
+
     @Override
     public Set<String> getTableNames() {
         return TABLE_NAMES;
@@ -113,6 +134,22 @@ public class DeptDataPermissionRule implements DataPermissionRule {
             loginUser.setContext(CONTEXT_KEY, deptDataPermission);
         }
 
+        // 从上下文中获得已构建的条件，避免同一请求的多条 SQL 重复构建
+        String expressionKey = CONTEXT_KEY_EXPRESSION_PREFIX + tableName
+                + StrUtil.COLON + (tableAlias != null ? tableAlias.getName() : "");
+        Expression expression = loginUser.getContext(expressionKey, Expression.class);
+        if (expression != null) {
+            return expression;
+        }
+        expression = buildExpression(tableName, tableAlias, deptDataPermission, loginUser);
+        if (expression != null) {
+            loginUser.setContext(expressionKey, expression);
+        }
+        return expression;
+    }
+
+    private Expression buildExpression(String tableName, Alias tableAlias,
+                                       DeptDataPermissionRespDTO deptDataPermission, LoginUser loginUser) {
         // 情况一，如果是 ALL 可查看全部，则无需拼接条件
         if (deptDataPermission.getAll()) {
             return null;
@@ -155,6 +192,16 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         if (CollUtil.isEmpty(deptIds)) {
             return null;
         }
+        // 拼接条件（数组）
+        if (deptIdsArrayThreshold != null && deptIds.size() > deptIdsArrayThreshold) {
+            CastExpression array = new CastExpression();
+            array.setLeftExpression(new StringValue("{" + StrUtil.join(StrUtil.COMMA, deptIds) + "}"));
+            array.setColDataType(new ColDataType("BIGINT[]"));
+            Function any = new Function();
+            any.setName("ANY");
+            any.setParameters(array);
+            return new EqualsTo(MyBatisUtils.buildColumn(tableName, tableAlias, columnName), any);
+        }
         // 拼接条件
         return new InExpression(MyBatisUtils.buildColumn(tableName, tableAlias, columnName),
                 // Parenthesis 的目的，是提供 (1,2,3) 的 () 左右括号
@@ -174,6 +221,39 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         return new EqualsTo(MyBatisUtils.buildColumn(tableName, tableAlias, columnName), new LongValue(userId));
     }
 
+    @Override
+    public String getFingerprint() {
+        // 无登录用户、非管理员类型的用户，不进行数据权限的处理
+        LoginUser loginUser = SecurityFrameworkUtils.getLoginUser();
+        if (loginUser == null
+                || ObjectUtil.notEqual(loginUser.getUserType(), UserTypeEnum.ADMIN.getValue())) {
+            return "none";
+        }
+        // 数据权限还未获取时，返回 null 不进行缓存，避免为了计算指纹而额外获取数据权限
+        DeptDataPermissionRespDTO deptDataPermission = loginUser.getContext(CONTEXT_KEY, DeptDataPermissionRespDTO.class);
+        if (deptDataPermission == null) {
+            return null;
+        }
+        String fingerprint = loginUser.getContext(CONTEXT_KEY_FINGERPRINT, String.class);
+        if (fingerprint == null) {
+            fingerprint = buildFingerprint(deptDataPermission, loginUser.getId());
+            loginUser.setContext(CONTEXT_KEY_FINGERPRINT, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private static String buildFingerprint(DeptDataPermissionRespDTO deptDataPermission, Long userId) {
+        if (deptDataPermission.getAll()) {
+            return "all";
+        }
+        // 部门编号排序后摘要，保证相同的部门集合，指纹相同
+        String deptIds = CollUtil.isEmpty(deptDataPermission.getDeptIds()) ? ""
+                : StrUtil.join(StrUtil.COMMA, new TreeSet<>(deptDataPermission.getDeptIds()));
+        // 可查看自己时，条件和用户编号相关
+        String self = Boolean.FALSE.equals(deptDataPermission.getSelf()) ? "false" : "true:" + userId;
+        return DigestUtil.sha256Hex(deptIds) + StrUtil.COLON + self;
+    }
+
     // ==================== 添加配置 ====================
 
     public void addDeptColumn(Class<? extends BaseDO> entityClass) {
@@ -26,8 +26,7 @@ import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomString
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
-import static org.mockito.Mockito.mockStatic;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * {@link DeptDataPermissionRule} 的单元测试
@@ -49,6 +48,7 @@ class DeptDataPermissionRuleTest extends BaseMockitoUnitTest {
         rule.getTableNames().clear();
         ((Map<String, String>) ReflectUtil.getFieldValue(rule, "deptColumns")).clear();
         ((Map<String, String>) ReflectUtil.getFieldValue(rule, "deptColumns")).clear();
+        rule.setDeptIdsArrayThreshold(null);
     }
 
     @Test // 无 LoginUser
@@ -236,4 +236,66 @@ class DeptDataPermissionRuleTest extends BaseMockitoUnitTest {
         }
     }
 
+    @Test // 同一请求多次获取，复用已构建的条件和指纹
+    public void testGetExpression_cached() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock
+                     = mockStatic(SecurityFrameworkUtils.class)) {
+            // 准备参数
+            String tableName = "t_user";
+            Alias tableAlias = new Alias("u");
+            // mock 方法（LoginUser）
+            LoginUser loginUser = randomPojo(LoginUser.class, o -> o.setId(1L)
+                    .setUserType(UserTypeEnum.ADMIN.getValue()));
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUser).thenReturn(loginUser);
+            // mock 方法（DeptDataPermissionRespDTO）
+            DeptDataPermissionRespDTO deptDataPermission = new DeptDataPermissionRespDTO()
+                    .setDeptIds(CollUtil.newLinkedHashSet(20L, 10L));
+            when(permissionApi.getDeptDataPermission(same(1L))).thenReturn(success(deptDataPermission));
+            // 添加 dept 字段配置
+            rule.addDeptColumn("t_user", "dept_id");
+
+            // 调用，数据权限未获取时，不返回指纹
+            assertNull(rule.getFingerprint());
+            Expression expression = rule.getExpression(tableName, tableAlias);
+            Expression expression2 = rule.getExpression(tableName, tableAlias);
+            // 断言
+            assertEquals("u.dept_id IN (20, 10)", expression.toString());
+            assertSame(expression, expression2);
+            verify(permissionApi, times(1)).getDeptDataPermission(eq(1L));
+            // 断言指纹：部门编号顺序不影响指纹
+            String fingerprint = rule.getFingerprint();
+            assertNotNull(fingerprint);
+            loginUser.setContext(DeptDataPermissionRule.CONTEXT_KEY_FINGERPRINT, null);
+            loginUser.setContext(DeptDataPermissionRule.CONTEXT_KEY, new DeptDataPermissionRespDTO()
+                    .setDeptIds(CollUtil.newLinkedHashSet(10L, 20L)));
+            assertEquals(fingerprint, rule.getFingerprint());
+        }
+    }
+
+    @Test // 拼接 Dept 的条件（部门数量超过阈值，使用数组）
+    public void testGetExpression_deptIdsArray() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock
+                     = mockStatic(SecurityFrameworkUtils.class)) {
+            // 准备参数
+            String tableName = "t_user";
+            Alias tableAlias = new Alias("u");
+            // mock 方法（LoginUser）
+            LoginUser loginUser = randomPojo(LoginUser.class, o -> o.setId(1L)
+                    .setUserType(UserTypeEnum.ADMIN.getValue()));
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUser).thenReturn(loginUser);
+            // mock 方法（DeptDataPermissionRespDTO）
+            DeptDataPermissionRespDTO deptDataPermission = new DeptDataPermissionRespDTO()
+                    .setDeptIds(CollUtil.newLinkedHashSet(10L, 20L, 30L));
+            when(permissionApi.getDeptDataPermission(same(1L))).thenReturn(success(deptDataPermission));
+            // 添加 dept 字段配置
+            rule.addDeptColumn("t_user", "dept_id");
+            rule.setDeptIdsArrayThreshold(2);
+
+            // 调用
+            Expression expression = rule.getExpression(tableName, tableAlias);
+            // 断言
+            assertEquals("u.dept_id = ANY(CAST('{10,20,30}' AS BIGINT[]))", expression.toString());
+        }
+    }
+
 }
@@ -2,8 +2,11 @@ package cn.iocoder.yudao.framework.dict.config;
 
 import cn.iocoder.yudao.framework.common.biz.system.dict.DictDataCommonApi;
 import cn.iocoder.yudao.framework.dict.core.DictFrameworkUtils;
+import cn.iocoder.yudao.framework.dict.core.mq.redis.DictDataRefreshConsumer;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 
 @AutoConfiguration
 public class YudaoDictAutoConfiguration {
@@ -15,4 +18,18 @@ public class YudaoDictAutoConfiguration {
         return new DictFrameworkUtils();
     }
 
+    /**
+     * 字典数据变更时，基于 Redis 广播刷新本地缓存的配置类
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate")
+    public static class DictDataRefreshConfiguration {
+
+        @Bean
+        public DictDataRefreshConsumer dictDataRefreshConsumer() {
+            return new DictDataRefreshConsumer();
+        }
+
+    }
+
 }
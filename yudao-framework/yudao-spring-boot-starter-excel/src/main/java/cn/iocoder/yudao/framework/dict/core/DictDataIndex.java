@@ -0,0 +1,97 @@
+package cn.iocoder.yudao.framework.dict.core;
+
+import cn.iocoder.yudao.framework.common.biz.system.dict.dto.DictDataRespDTO;
+
+import java.util.*;
+
+/**
+ * 单个 dictType 的字典数据索引，不可变
+ *
+ * 相比在 List 中逐个查找，通过 value、label 查找的时间复杂度为 O(1)。
+ * 字典数据变更时，整体构建一个新的索引进行替换，而不是修改原索引，从而保证读取时的一致性
+ *
+ * @author 芋道源码
+ */
+public final class DictDataIndex {
+
+    public static final DictDataIndex EMPTY = new DictDataIndex(Collections.emptyList());
+
+    /**
+     * 字典数据列表，保持原有顺序
+     */
+    private final List<DictDataRespDTO> list;
+    /**
+     * 字典值列表，保持原有顺序
+     */
+    private final List<String> values;
+    /**
+     * 字典标签列表，保持原有顺序
+     */
+    private final List<String> labels;
+    /**
+     * value 与字典数据的映射；如果 value 重复，以第一个为准
+     */
+    private final Map<String, DictDataRespDTO> valueMap;
+    /**
+     * label 与字典数据的映射；如果 label 重复，以第一个为准
+     */
+    private final Map<String, DictDataRespDTO> labelMap;
+    /**
+     * 小写的 value 集合，用于忽略大小写的校验
+     */
+    private final Set<String> lowerCaseValues;
+
+    private DictDataIndex(List<DictDataRespDTO> list) {
+        List<String> values = new ArrayList<>(list.size());
+        List<String> labels = new ArrayList<>(list.size());
+        Map<String, DictDataRespDTO> valueMap = new HashMap<>(list.size() * 2);
+        Map<String, DictDataRespDTO> labelMap = new HashMap<>(list.size() * 2);
+        Set<String> lowerCaseValues = new HashSet<>(list.size() * 2);
+        for (DictDataRespDTO dictData : list) {
+            values.add(dictData.getValue());
+            labels.add(dictData.getLabel());
+            valueMap.putIfAbsent(dictData.getValue(), dictData);
+            labelMap.putIfAbsent(dictData.getLabel(), dictData);
+            if (dictData.getValue() != null) {
+                lowerCaseValues.add(dictData.getValue().toLowerCase(Locale.ROOT));
+            }
+        }
+        this.list = Collections.unmodifiableList(new ArrayList<>(list));
+        this.values = Collections.unmodifiableList(values);
+        this.labels = Collections.unmodifiableList(labels);
+        this.valueMap = valueMap;
+        this.labelMap = labelMap;
+        this.lowerCaseValues = lowerCaseValues;
+    }
+
+    public static DictDataIndex of(List<DictDataRespDTO> list) {
+        return list == null || list.isEmpty() ? EMPTY : new DictDataIndex(list);
+    }
+
+    public String getLabel(String value) {
+        DictDataRespDTO dictData = valueMap.get(value);
+        return dictData != null ? dictData.getLabel() : null;
+    }
+
+    public String getValue(String label) {
+        DictDataRespDTO dictData = labelMap.get(label);
+        return dictData != null ? dictData.getValue() : null;
+    }
+
+    public boolean containsValueIgnoreCase(String value) {
+        return value != null && lowerCaseValues.contains(value.toLowerCase(Locale.ROOT));
+    }
+
+    public List<DictDataRespDTO> getList() {
+        return list;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public List<String> getLabels() {
+        return labels;
+    }
+
+}
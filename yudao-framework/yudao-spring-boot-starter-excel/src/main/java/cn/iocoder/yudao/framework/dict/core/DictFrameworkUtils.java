@@ -1,9 +1,7 @@
 package cn.iocoder.yudao.framework.dict.core;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.biz.system.dict.DictDataCommonApi;
 import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
-import cn.iocoder.yudao.framework.common.biz.system.dict.dto.DictDataRespDTO;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import lombok.SneakyThrows;
@@ -11,30 +9,37 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
 import java.util.List;
-import java.util.Objects;
-
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 
 /**
  * 字典工具类
  *
+ * 字典数据按照 dictType 缓存为 {@link DictDataIndex}，变更时由 system 服务广播 DictDataRefreshMessage 消息，
+ * 异步构建新的索引后原子替换；刷新期间，读取的仍是旧索引
+ *
  * @author 芋道源码
  */
 @Slf4j
 public class DictFrameworkUtils {
 
+    /**
+     * 兜底的刷新时间
+     *
+     * 正常情况下，字典数据变更时，通过广播消息刷新；这里只是避免广播消息丢失时，缓存一直不更新
+     */
+    private static final Duration REFRESH_DURATION = Duration.ofMinutes(30L);
+
     private static DictDataCommonApi dictDataApi;
 
     /**
-     * 针对 dictType 的字段数据缓存
+     * 针对 dictType 的字段数据索引缓存
      */
-    private static final LoadingCache<String, List<DictDataRespDTO>> GET_DICT_DATA_CACHE = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
-            new CacheLoader<String, List<DictDataRespDTO>>() {
+    private static final LoadingCache<String, DictDataIndex> GET_DICT_DATA_CACHE = CacheUtils.buildAsyncReloadingCache(
+            REFRESH_DURATION,
+            new CacheLoader<String, DictDataIndex>() {
 
                 @Override
-                public List<DictDataRespDTO> load(String dictType) {
-                    return dictDataApi.getDictDataList(dictType).getCheckedData();
+                public DictDataIndex load(String dictType) {
+                    return DictDataIndex.of(dictDataApi.getDictDataList(dictType).getCheckedData());
                 }
 
             });
@@ -48,7 +53,28 @@ public class DictFrameworkUtils {
         GET_DICT_DATA_CACHE.invalidateAll();
     }
 
+    /**
+     * 刷新指定 dictType 的缓存
+     *
+     * 只刷新已经缓存的 dictType，刷新完成前，读取的仍是旧值
+     *
+     * @param dictType 字典类型；为空时，刷新全部
+     */
+    public static void refreshCache(String dictType) {
+        if (dictType == null) {
+            GET_DICT_DATA_CACHE.asMap().keySet().forEach(GET_DICT_DATA_CACHE::refresh);
+            return;
+        }
+        if (GET_DICT_DATA_CACHE.getIfPresent(dictType) != null) {
+            GET_DICT_DATA_CACHE.refresh(dictType);
+        }
+    }
+
     @SneakyThrows
+    public static DictDataIndex getDictDataIndex(String dictType) {
+        return GET_DICT_DATA_CACHE.get(dictType);
+    }
+
     public static String parseDictDataLabel(String dictType, Integer value) {
         if (value == null) {
             return null;
@@ -56,29 +82,31 @@ public class DictFrameworkUtils {
         return parseDictDataLabel(dictType, String.valueOf(value));
     }
 
-    @SneakyThrows
     public static String parseDictDataLabel(String dictType, String value) {
-        List<DictDataRespDTO> dictDatas = GET_DICT_DATA_CACHE.get(dictType);
-        DictDataRespDTO dictData = CollUtil.findOne(dictDatas, data -> Objects.equals(data.getValue(), value));
-        return dictData != null ? dictData.getLabel(): null;
+        return getDictDataIndex(dictType).getLabel(value);
     }
 
-    @SneakyThrows
     public static List<String> getDictDataLabelList(String dictType) {
-        List<DictDataRespDTO> dictDatas = GET_DICT_DATA_CACHE.get(dictType);
-        return convertList(dictDatas, DictDataRespDTO::getLabel);
+        return getDictDataIndex(dictType).getLabels();
     }
 
-    @SneakyThrows
     public static String parseDictDataValue(String dictType, String label) {
-        List<DictDataRespDTO> dictDatas = GET_DICT_DATA_CACHE.get(dictType);
-        DictDataRespDTO dictData = CollUtil.findOne(dictDatas, data -> Objects.equals(data.getLabel(), label));
-        return dictData!= null ? dictData.getValue(): null;
+        return getDictDataIndex(dictType).getValue(label);
     }
 
-    @SneakyThrows
     public static List<String> getDictDataValueList(String dictType) {
-        List<DictDataRespDTO> dictDatas = GET_DICT_DATA_CACHE.get(dictType);
-        return convertList(dictDatas, DictDataRespDTO::getValue);
+        return getDictDataIndex(dictType).getValues();
     }
+
+    /**
+     * 判断字典值是否存在，忽略大小写
+     *
+     * @param dictType 字典类型
+     * @param value    字典值
+     * @return 是否存在
+     */
+    public static boolean containsDictDataValueIgnoreCase(String dictType, String value) {
+        return getDictDataIndex(dictType).containsValueIgnoreCase(value);
+    }
+
 }
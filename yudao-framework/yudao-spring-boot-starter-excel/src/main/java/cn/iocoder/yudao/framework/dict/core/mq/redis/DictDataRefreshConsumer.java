@@ -0,0 +1,18 @@
+package cn.iocoder.yudao.framework.dict.core.mq.redis;
+
+import cn.iocoder.yudao.framework.dict.core.DictFrameworkUtils;
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+
+/**
+ * {@link DictDataRefreshMessage} 广播消息的消费者，刷新本地缓存的字典数据
+ *
+ * @author 芋道源码
+ */
+public class DictDataRefreshConsumer extends AbstractRedisChannelMessageListener<DictDataRefreshMessage> {
+
+    @Override
+    public void onMessage(DictDataRefreshMessage message) {
+        DictFrameworkUtils.refreshCache(message.getDictType());
+    }
+
+}
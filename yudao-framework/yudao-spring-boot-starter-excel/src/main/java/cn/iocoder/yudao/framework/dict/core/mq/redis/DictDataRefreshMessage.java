@@ -0,0 +1,23 @@
+package cn.iocoder.yudao.framework.dict.core.mq.redis;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 字典数据变更的广播消息
+ *
+ * 例如说，字典数据新增、修改、删除时，由 system 服务发送
+ *
+ * @author 芋道源码
+ */
+@Data
+public class DictDataRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 字典类型
+     *
+     * 为空时，表示刷新全部字典类型
+     */
+    private String dictType;
+
+}
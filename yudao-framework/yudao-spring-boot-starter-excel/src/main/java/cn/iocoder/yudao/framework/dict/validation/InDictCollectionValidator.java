@@ -6,7 +6,6 @@ import cn.iocoder.yudao.framework.dict.core.DictFrameworkUtils;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 import java.util.Collection;
-import java.util.List;
 
 public class InDictCollectionValidator implements ConstraintValidator<InDict, Collection<?>> {
 
@@ -24,9 +23,7 @@ public class InDictCollectionValidator implements ConstraintValidator<InDict, Co
             return true;
         }
         // 校验全部通过
-        List<String> dbValues = DictFrameworkUtils.getDictDataValueList(dictType);
-        boolean match = list.stream().allMatch(v -> dbValues.stream()
-                .anyMatch(dbValue -> dbValue.equalsIgnoreCase(v.toString())));
+        boolean match = list.stream().allMatch(v -> DictFrameworkUtils.containsDictDataValueIgnoreCase(dictType, v.toString()));
         if (match) {
             return true;
         }
@@ -34,7 +31,8 @@ public class InDictCollectionValidator implements ConstraintValidator<InDict, Co
         // 校验不通过，自定义提示语句
         context.disableDefaultConstraintViolation(); // 禁用默认的 message 的值
         context.buildConstraintViolationWithTemplate(
-                context.getDefaultConstraintMessageTemplate().replaceAll("\\{value}", dbValues.toString())
+                context.getDefaultConstraintMessageTemplate().replaceAll("\\{value}",
+                        DictFrameworkUtils.getDictDataValueList(dictType).toString())
         ).addConstraintViolation(); // 重新添加错误提示语句
         return false;
     }
@@ -1,11 +1,9 @@
 package cn.iocoder.yudao.framework.dict.validation;
 
-import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.dict.core.DictFrameworkUtils;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
-import java.util.List;
 
 public class InDictValidator implements ConstraintValidator<InDict, Object> {
 
@@ -23,16 +21,15 @@ public class InDictValidator implements ConstraintValidator<InDict, Object> {
             return true;
         }
         // 校验通过
-        final List<String> values = DictFrameworkUtils.getDictDataValueList(dictType);
-        boolean match = values.stream().anyMatch(v -> StrUtil.equalsIgnoreCase(v, value.toString()));
-        if (match) {
+        if (DictFrameworkUtils.containsDictDataValueIgnoreCase(dictType, value.toString())) {
             return true;
         }
 
         // 校验不通过，自定义提示语句
         context.disableDefaultConstraintViolation(); // 禁用默认的 message 的值
         context.buildConstraintViolationWithTemplate(
-                context.getDefaultConstraintMessageTemplate().replaceAll("\\{value}", values.toString())
+                context.getDefaultConstraintMessageTemplate().replaceAll("\\{value}",
+                        DictFrameworkUtils.getDictDataValueList(dictType).toString())
         ).addConstraintViolation(); // 重新添加错误提示语句
         return false;
     }
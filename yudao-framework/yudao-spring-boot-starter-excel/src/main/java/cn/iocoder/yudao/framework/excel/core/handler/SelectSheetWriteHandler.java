@@ -136,11 +136,24 @@ public class SelectSheetWriteHandler implements SheetWriteHandler {
         List<KeyValue<Integer, List<String>>> keyValues = convertList(selectMap.entrySet(), entry -> new KeyValue<>(entry.getKey(), entry.getValue()));
         keyValues.sort(Comparator.comparing(item -> item.getValue().size())); // 升序不然创建下拉会报错
 
-        // 2. 创建数据字典的 sheet 页
+        // 2. 创建数据字典的 sheet 页。如果已经存在，例如说流式导出时拆分成多个 sheet，则复用
+        if (workbook.getSheet(DICT_SHEET_NAME) == null) {
+            createDictSheet(workbook, keyValues);
+        }
+        // 3. 设置单元格下拉选择
+        for (KeyValue<Integer, List<String>> keyValue : keyValues) {
+            setColumnSelect(writeSheetHolder, helper, keyValue);
+        }
+    }
+
+    /**
+     * 创建数据字典的 sheet 页，并创建可被其他单元格引用的名称
+     */
+    private static void createDictSheet(Workbook workbook, List<KeyValue<Integer, List<String>>> keyValues) {
         Sheet dictSheet = workbook.createSheet(DICT_SHEET_NAME);
         for (KeyValue<Integer, List<String>> keyValue : keyValues) {
             int rowLength = keyValue.getValue().size();
-            // 2.1 设置字典 sheet 页的值，每一列一个字典项
+            // 1. 设置字典 sheet 页的值，每一列一个字典项
             for (int i = 0; i < rowLength; i++) {
                 Row row = dictSheet.getRow(i);
                 if (row == null) {
@@ -148,25 +161,22 @@ public class SelectSheetWriteHandler implements SheetWriteHandler {
                 }
                 row.createCell(keyValue.getKey()).setCellValue(keyValue.getValue().get(i));
             }
-            // 2.2 设置单元格下拉选择
-            setColumnSelect(writeSheetHolder, workbook, helper, keyValue);
+            // 2. 创建可被其他单元格引用的名称
+            Name name = workbook.createName();
+            String excelColumn = ExcelUtil.indexToColName(keyValue.getKey());
+            // 下拉框数据来源 eg:字典sheet!$B1:$B2
+            String refers = DICT_SHEET_NAME + "!$" + excelColumn + "$1:$" + excelColumn + "$" + rowLength;
+            name.setNameName("dict" + keyValue.getKey()); // 设置名称的名字
+            name.setRefersToFormula(refers); // 设置公式
         }
     }
 
     /**
      * 设置单元格下拉选择
      */
-    private static void setColumnSelect(WriteSheetHolder writeSheetHolder, Workbook workbook, DataValidationHelper helper,
+    private static void setColumnSelect(WriteSheetHolder writeSheetHolder, DataValidationHelper helper,
                                         KeyValue<Integer, List<String>> keyValue) {
-        // 1.1 创建可被其他单元格引用的名称
-        Name name = workbook.createName();
-        String excelColumn = ExcelUtil.indexToColName(keyValue.getKey());
-        // 1.2 下拉框数据来源 eg:字典sheet!$B1:$B2
-        String refers = DICT_SHEET_NAME + "!$" + excelColumn + "$1:$" + excelColumn + "$" + keyValue.getValue().size();
-        name.setNameName("dict" + keyValue.getKey()); // 设置名称的名字
-        name.setRefersToFormula(refers); // 设置公式
-
-        // 2.1 设置约束
+        // 1. 设置约束
         DataValidationConstraint constraint = helper.createFormulaListConstraint("dict" + keyValue.getKey()); // 设置引用约束
         // 设置下拉单元格的首行、末行、首列、末列
         CellRangeAddressList rangeAddressList = new CellRangeAddressList(FIRST_ROW, LAST_ROW,
@@ -178,10 +188,10 @@ public class SelectSheetWriteHandler implements SheetWriteHandler {
             validation.setSuppressDropDownArrow(true);
             validation.setShowErrorBox(true);
         }
-        // 2.2 阻止输入非下拉框的值
+        // 2. 阻止输入非下拉框的值
         validation.setErrorStyle(DataValidation.ErrorStyle.STOP);
         validation.createErrorBox("提示", "此值不存在于下拉选择中！");
-        // 2.3 添加下拉框约束
+        // 3. 添加下拉框约束
         writeSheetHolder.getSheet().addValidationData(validation);
     }
 
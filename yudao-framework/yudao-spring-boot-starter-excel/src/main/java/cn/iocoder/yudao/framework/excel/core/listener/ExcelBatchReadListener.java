@@ -0,0 +1,109 @@
+package cn.iocoder.yudao.framework.excel.core.listener;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.lang.Assert;
+import cn.idev.excel.context.AnalysisContext;
+import cn.idev.excel.read.listener.ReadListener;
+import cn.iocoder.yudao.framework.dict.validation.InDict;
+import cn.iocoder.yudao.framework.excel.core.util.ExcelFieldLengthValidator;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Excel 分批读取的监听器
+ *
+ * 1. 每读取一行，先基于 {@link ExcelFieldLengthValidator} 校验字段长度，再基于 javax.validation 校验（包括 {@link InDict} 等注解）
+ * 2. 校验通过的行，每满 batchSize 行，交给 handler 处理一次，例如说通过 BaseMapperX 的 insertBatch 批量插入；处理后即可回收
+ * 3. 校验不通过的行，记录到 {@link #getErrors()} 中，key 为 Excel 的行号（从 1 开始，包括表头）
+ *
+ * 相比 doReadAllSync 一次性读取所有行，内存占用与总行数无关
+ *
+ * @author 芋道源码
+ */
+public class ExcelBatchReadListener<T> implements ReadListener<T> {
+
+    private final int batchSize;
+    private final Consumer<List<T>> handler;
+    private final Validator validator;
+
+    /**
+     * 当前批次，校验通过的行
+     */
+    private List<T> list;
+    /**
+     * 校验失败的行
+     *
+     * key：Excel 行号
+     * value：失败原因
+     */
+    private final Map<Integer, String> errors = new LinkedHashMap<>();
+    /**
+     * 已读取的总行数（不包括表头）
+     */
+    private int total;
+
+    /**
+     * @param batchSize 每批处理的行数
+     * @param handler   每批数据的处理器
+     * @param validator 校验器，由调用方负责其 ValidatorFactory 的关闭
+     */
+    public ExcelBatchReadListener(int batchSize, Consumer<List<T>> handler, Validator validator) {
+        Assert.isTrue(batchSize > 0, "batchSize({}) 需要大于 0", batchSize);
+        this.batchSize = batchSize;
+        this.handler = handler;
+        this.validator = validator;
+        this.list = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void invoke(T data, AnalysisContext context) {
+        total++;
+        // 1. 校验
+        String error = validate(data);
+        if (error != null) {
+            errors.put(context.readRowHolder().getRowIndex() + 1, error);
+            return;
+        }
+
+        // 2. 满一批，交给 handler 处理
+        list.add(data);
+        if (list.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        if (CollUtil.isNotEmpty(list)) {
+            flush();
+        }
+    }
+
+    private String validate(T data) {
+        List<String> messages = new ArrayList<>(ExcelFieldLengthValidator.validate(data));
+        Set<ConstraintViolation<T>> violations = validator.validate(data);
+        violations.forEach(violation -> messages.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+        return CollUtil.isEmpty(messages) ? null : String.join(", ", messages);
+    }
+
+    private void flush() {
+        handler.accept(list);
+        list = new ArrayList<>(batchSize);
+    }
+
+    public Map<Integer, String> getErrors() {
+        return errors;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+}
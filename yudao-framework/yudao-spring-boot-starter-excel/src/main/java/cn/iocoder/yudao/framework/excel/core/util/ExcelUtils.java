@@ -1,16 +1,29 @@
 package cn.iocoder.yudao.framework.excel.core.util;
 
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.hutool.core.lang.Assert;
+import cn.idev.excel.ExcelWriter;
 import cn.idev.excel.FastExcelFactory;
 import cn.idev.excel.converters.longconverter.LongStringConverter;
+import cn.idev.excel.exception.ExcelAnalysisException;
+import cn.idev.excel.write.metadata.WriteSheet;
 import cn.idev.excel.write.style.column.LongestMatchColumnWidthStyleStrategy;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
 import cn.iocoder.yudao.framework.common.util.http.HttpUtils;
 import cn.iocoder.yudao.framework.excel.core.handler.ColumnWidthMatchStyleStrategy;
 import cn.iocoder.yudao.framework.excel.core.handler.SelectSheetWriteHandler;
+import cn.iocoder.yudao.framework.excel.core.listener.ExcelBatchReadListener;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Excel 工具类
@@ -19,6 +32,23 @@ import java.util.List;
  */
 public class ExcelUtils {
 
+    /**
+     * 单个 sheet 的最大行数
+     *
+     * xlsx 单个 sheet 最多 1048576 行，这里取整并预留表头
+     */
+    public static final int SHEET_MAX_ROWS = 1000000;
+
+    /**
+     * 流式写入时，每批写入的行数
+     */
+    public static final int WRITE_BATCH_SIZE = 1000;
+
+    /**
+     * 分批读取时，默认每批处理的行数
+     */
+    public static final int READ_BATCH_SIZE = 1000;
+
     /**
      * 将列表以 Excel 响应给前端
      *
@@ -44,10 +74,162 @@ public class ExcelUtils {
         response.setContentType("application/vnd.ms-excel;charset=UTF-8");
     }
 
+    /**
+     * 将可迭代的数据，以流式的方式写入 Excel 响应给前端
+     *
+     * 适合基于 MyBatis Cursor 游标查询的导出，每 {@link #WRITE_BATCH_SIZE} 条写入一次
+     *
+     * @param response  响应
+     * @param filename  文件名
+     * @param sheetName Excel sheet 名
+     * @param head      Excel head 头
+     * @param data      数据，例如说 Cursor 游标
+     * @param <T>       泛型，保证 head 和 data 类型的一致性
+     * @throws IOException 写入失败的情况
+     */
+    public static <T> void writeIterable(HttpServletResponse response, String filename, String sheetName,
+                                         Class<T> head, Iterable<T> data) throws IOException {
+        write(response, filename, sheetName, head, SHEET_MAX_ROWS, writer -> {
+            List<T> list = new ArrayList<>(WRITE_BATCH_SIZE);
+            for (T item : data) {
+                list.add(item);
+                if (list.size() >= WRITE_BATCH_SIZE) {
+                    writer.accept(list);
+                    list = new ArrayList<>(WRITE_BATCH_SIZE);
+                }
+            }
+            if (CollUtil.isNotEmpty(list)) {
+                writer.accept(list);
+            }
+        });
+    }
+
+    /**
+     * 以流式的方式，将数据分批写入 Excel 响应给前端
+     *
+     * 1. 由 dataLoader 分批加载数据，并调用 writer 写入；每批写入后即可回收，内存占用与总行数无关
+     * 2. 单个 sheet 超过 sheetMaxRows 行时，自动拆分到下一个 sheet，sheet 名为 "sheetName-2"、"sheetName-3" 等
+     *
+     * 注意，由于数据是边加载边写入，所以 header 和 contentType 需要在写入前设置
+     *
+     * @param response     响应
+     * @param filename     文件名
+     * @param sheetName    Excel sheet 名
+     * @param head         Excel head 头
+     * @param sheetMaxRows 单个 sheet 的最大行数（不包括表头）
+     * @param dataLoader   数据加载器，参数为 writer，每加载一批数据，调用一次 writer
+     * @param <T>          泛型，保证 head 和 data 类型的一致性
+     * @throws IOException 写入失败的情况
+     */
+    public static <T> void write(HttpServletResponse response, String filename, String sheetName,
+                                 Class<T> head, int sheetMaxRows, Consumer<Consumer<List<T>>> dataLoader) throws IOException {
+        Assert.isTrue(sheetMaxRows > 0 && sheetMaxRows <= SHEET_MAX_ROWS,
+                "sheetMaxRows({}) 需要在 1 ~ {} 之间", sheetMaxRows, SHEET_MAX_ROWS);
+        response.addHeader("Content-Disposition", "attachment;filename=" + HttpUtils.encodeUtf8(filename));
+        response.setContentType("application/vnd.ms-excel;charset=UTF-8");
+        ExcelWriter excelWriter = FastExcelFactory.write(response.getOutputStream(), head)
+                .autoCloseStream(false) // 不要自动关闭，交给 Servlet 自己处理
+                .registerWriteHandler(new ColumnWidthMatchStyleStrategy()) // 基于 column 长度，自动适配。最大 255 宽度
+                .registerWriteHandler(new SelectSheetWriteHandler(head)) // 基于固定 sheet 实现下拉框
+                .registerConverter(new LongStringConverter()) // 避免 Long 类型丢失精度
+                .build();
+        try {
+            SheetSplitWriter<T> writer = new SheetSplitWriter<>(excelWriter, sheetName, sheetMaxRows);
+            dataLoader.accept(writer);
+            // 无数据时，也需要写入表头
+            writer.finish();
+        } finally {
+            excelWriter.finish();
+        }
+    }
+
     public static <T> List<T> read(MultipartFile file, Class<T> head) throws IOException {
         return FastExcelFactory.read(file.getInputStream(), head, null)
                 .autoCloseStream(false)  // 不要自动关闭，交给 Servlet 自己处理
                 .doReadAllSync();
     }
 
+    /**
+     * 以流式的方式，分批读取 Excel
+     *
+     * 每读取 batchSize 行校验通过的数据，调用一次 handler，例如说通过 BaseMapperX 的 insertBatch 批量插入。
+     * 校验规则、失败行的记录方式，可见 {@link ExcelBatchReadListener} 的说明
+     *
+     * @param file      Excel 文件
+     * @param head      Excel head 头
+     * @param batchSize 每批处理的行数
+     * @param handler   每批数据的处理器
+     * @param <T>       泛型，保证 head 和 data 类型的一致性
+     * @return 读取结果，可通过 {@link ExcelBatchReadListener#getErrors()} 获得校验失败的行
+     * @throws IOException 读取失败的情况
+     */
+    public static <T> ExcelBatchReadListener<T> read(MultipartFile file, Class<T> head, int batchSize,
+                                                    Consumer<List<T>> handler) throws IOException {
+        try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+            ExcelBatchReadListener<T> listener = new ExcelBatchReadListener<>(batchSize, handler,
+                    validatorFactory.getValidator());
+            FastExcelFactory.read(file.getInputStream(), head, listener)
+                    .autoCloseStream(false)  // 不要自动关闭，交给 Servlet 自己处理
+                    .doReadAll();
+            return listener;
+        } catch (ExcelAnalysisException ex) {
+            // handler 抛出的业务异常，会被 FastExcel 包装成 ExcelAnalysisException，这里还原，保证前端提示的是业务错误
+            Throwable cause = ExceptionUtil.getCausedBy(ex, ServiceException.class);
+            if (cause != null) {
+                throw (ServiceException) cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 按照最大行数，自动拆分 sheet 的写入器
+     */
+    private static class SheetSplitWriter<T> implements Consumer<List<T>> {
+
+        private final ExcelWriter excelWriter;
+        private final String sheetName;
+        private final int sheetMaxRows;
+
+        /**
+         * 当前 sheet
+         */
+        private WriteSheet sheet;
+        /**
+         * 当前 sheet 已写入的行数
+         */
+        private int rows;
+
+        private SheetSplitWriter(ExcelWriter excelWriter, String sheetName, int sheetMaxRows) {
+            this.excelWriter = excelWriter;
+            this.sheetName = sheetName;
+            this.sheetMaxRows = sheetMaxRows;
+            this.sheet = FastExcelFactory.writerSheet(0, sheetName).build();
+        }
+
+        @Override
+        public void accept(List<T> list) {
+            int fromIndex = 0;
+            while (fromIndex < list.size()) {
+                // 当前 sheet 已满，创建下一个 sheet
+                if (rows >= sheetMaxRows) {
+                    int sheetNo = sheet.getSheetNo() + 1;
+                    sheet = FastExcelFactory.writerSheet(sheetNo, sheetName + "-" + (sheetNo + 1)).build();
+                    rows = 0;
+                }
+                int toIndex = Math.min(list.size(), fromIndex + sheetMaxRows - rows);
+                excelWriter.write(list.subList(fromIndex, toIndex), sheet);
+                rows += toIndex - fromIndex;
+                fromIndex = toIndex;
+            }
+        }
+
+        private void finish() {
+            if (rows == 0 && sheet.getSheetNo() == 0) {
+                excelWriter.write(Collections.emptyList(), sheet);
+            }
+        }
+
+    }
+
 }
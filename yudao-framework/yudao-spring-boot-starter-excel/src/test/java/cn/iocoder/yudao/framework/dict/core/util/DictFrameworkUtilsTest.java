@@ -9,13 +9,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.time.Duration;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * {@link DictFrameworkUtils} 的单元测试
@@ -59,4 +61,38 @@ public class DictFrameworkUtilsTest extends BaseMockitoUnitTest {
         assertEquals("dog", DictFrameworkUtils.parseDictDataValue("animal", "狗"));
     }
 
+    @Test
+    public void testContainsDictDataValueIgnoreCase() {
+        // mock 数据
+        List<DictDataRespDTO> dictDatas = ListUtil.of(
+                randomPojo(DictDataRespDTO.class, o -> o.setDictType("animal").setValue("cat").setLabel("猫")),
+                randomPojo(DictDataRespDTO.class, o -> o.setDictType("animal").setValue("dog").setLabel("狗"))
+        );
+        // mock 方法
+        when(dictDataApi.getDictDataList(eq("animal"))).thenReturn(success(dictDatas));
+
+        // 断言返回值
+        assertTrue(DictFrameworkUtils.containsDictDataValueIgnoreCase("animal", "DOG"));
+        assertFalse(DictFrameworkUtils.containsDictDataValueIgnoreCase("animal", "pig"));
+        assertEquals(ListUtil.of("cat", "dog"), DictFrameworkUtils.getDictDataValueList("animal"));
+    }
+
+    @Test
+    public void testRefreshCache() {
+        // mock 方法
+        when(dictDataApi.getDictDataList(eq("animal"))).thenReturn(success(ListUtil.of(
+                randomPojo(DictDataRespDTO.class, o -> o.setDictType("animal").setValue("cat").setLabel("猫")))));
+        assertEquals("猫", DictFrameworkUtils.parseDictDataLabel("animal", "cat"));
+        // mock 方法：字典数据变更
+        when(dictDataApi.getDictDataList(eq("animal"))).thenReturn(success(ListUtil.of(
+                randomPojo(DictDataRespDTO.class, o -> o.setDictType("animal").setValue("cat").setLabel("喵")))));
+
+        // 调用
+        DictFrameworkUtils.refreshCache("animal");
+        // 断言：异步刷新完成后，读取到新值
+        await().atMost(Duration.ofSeconds(1L))
+                .until(() -> "喵".equals(DictFrameworkUtils.parseDictDataLabel("animal", "cat")));
+        verify(dictDataApi, times(2)).getDictDataList(eq("animal"));
+    }
+
 }
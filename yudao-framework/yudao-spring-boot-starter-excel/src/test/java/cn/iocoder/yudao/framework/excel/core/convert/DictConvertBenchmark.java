@@ -0,0 +1,109 @@
+package cn.iocoder.yudao.framework.excel.core.convert;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.common.biz.system.dict.dto.DictDataRespDTO;
+import cn.iocoder.yudao.framework.dict.core.DictFrameworkUtils;
+import cn.iocoder.yudao.framework.excel.core.annotations.DictFormat;
+import cn.idev.excel.metadata.property.ExcelContentProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+
+/**
+ * {@link DictConvert} 导出转换的基准测试
+ *
+ * 对比基于 DictDataIndex 的 O(1) 查找，与原先在 List 中逐个查找的性能。
+ * 通过 {@link #main(String[])} 运行，不参与单元测试
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictConvertBenchmark {
+
+    private static final String DICT_TYPE = "benchmark_dict";
+
+    /**
+     * 每次导出的行数
+     */
+    private static final int ROWS = 10000;
+
+    /**
+     * 字典数据的数量
+     */
+    @Param({"10", "100", "1000"})
+    private int dictSize;
+
+    private List<DictDataRespDTO> dictDatas;
+    private Object[] values;
+    private DictConvert convert;
+    private ExcelContentProperty contentProperty;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        dictDatas = new ArrayList<>(dictSize);
+        for (int i = 0; i < dictSize; i++) {
+            dictDatas.add(new DictDataRespDTO().setDictType(DICT_TYPE).setValue(String.valueOf(i)).setLabel("标签" + i));
+        }
+        DictFrameworkUtils.init(dictType -> success(dictDatas));
+        DictFrameworkUtils.clearCache();
+
+        values = new Object[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = i % dictSize;
+        }
+        convert = new DictConvert();
+        contentProperty = new ExcelContentProperty();
+        contentProperty.setField(Row.class.getDeclaredField("status"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void convertToExcelData(Blackhole blackhole) {
+        for (Object value : values) {
+            blackhole.consume(convert.convertToExcelData(value, contentProperty, null));
+        }
+    }
+
+    /**
+     * 原先的实现：每个单元格，都在 List 中逐个查找
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void linearFindOne(Blackhole blackhole) {
+        for (Object value : values) {
+            String strValue = String.valueOf(value);
+            DictDataRespDTO dictData = CollUtil.findOne(dictDatas, data -> Objects.equals(data.getValue(), strValue));
+            blackhole.consume(dictData != null ? dictData.getLabel() : null);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DictConvertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private static class Row {
+
+        @DictFormat(DICT_TYPE)
+        private Integer status;
+
+    }
+
+}
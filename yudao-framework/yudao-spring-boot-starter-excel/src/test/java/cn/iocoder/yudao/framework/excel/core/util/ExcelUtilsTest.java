@@ -0,0 +1,102 @@
+package cn.iocoder.yudao.framework.excel.core.util;
+
+import cn.idev.excel.FastExcelFactory;
+import cn.idev.excel.annotation.ExcelProperty;
+import cn.iocoder.yudao.framework.excel.core.annotations.ExcelFieldLength;
+import cn.iocoder.yudao.framework.excel.core.listener.ExcelBatchReadListener;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ExcelUtils} 的单元测试
+ */
+class ExcelUtilsTest {
+
+    @Test
+    void shouldWriteIterableInBatches() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Sample> data = IntStream.rangeClosed(1, ExcelUtils.WRITE_BATCH_SIZE + 1)
+                .mapToObj(i -> new Sample("name" + i)).collect(Collectors.toList());
+
+        ExcelUtils.writeIterable(response, "test.xls", "数据", Sample.class, data);
+
+        List<Sample> list = FastExcelFactory.read(new ByteArrayInputStream(response.getContentAsByteArray()), Sample.class, null)
+                .sheet(0).doReadSync();
+        assertThat(list).extracting(Sample::getName)
+                .containsExactlyElementsOf(data.stream().map(Sample::getName).collect(Collectors.toList()));
+        assertThat(response.getHeader("Content-Disposition")).contains("test.xls");
+    }
+
+    @Test
+    void shouldSplitSheetWhenExceedMaxRows() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ExcelUtils.<Sample>write(response, "test.xls", "数据", Sample.class, 2, writer -> {
+            writer.accept(Arrays.asList(new Sample("a"), new Sample("b"), new Sample("c")));
+            writer.accept(Arrays.asList(new Sample("d"), new Sample("e")));
+        });
+
+        try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(3);
+            assertThat(workbook.getSheetName(0)).isEqualTo("数据");
+            assertThat(workbook.getSheetName(1)).isEqualTo("数据-2");
+            assertThat(workbook.getSheetName(2)).isEqualTo("数据-3");
+            assertThat(workbook.getSheetAt(0).getLastRowNum()).isEqualTo(2); // 表头 + 2 行
+            assertThat(workbook.getSheetAt(2).getLastRowNum()).isEqualTo(1); // 表头 + 1 行
+        }
+    }
+
+    @Test
+    void shouldReadInBatchesAndCollectRowErrors() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ExcelUtils.write(response, "test.xls", "数据", LimitedSample.class, Arrays.asList(
+                new LimitedSample("a"), new LimitedSample("b"), new LimitedSample("too long"),
+                new LimitedSample("c"), new LimitedSample("d")));
+        MockMultipartFile file = new MockMultipartFile("file", response.getContentAsByteArray());
+
+        List<List<String>> batches = new ArrayList<>();
+        ExcelBatchReadListener<LimitedSample> result = ExcelUtils.read(file, LimitedSample.class, 2,
+                list -> batches.add(list.stream().map(LimitedSample::getName).collect(Collectors.toList())));
+
+        assertThat(batches).containsExactly(Arrays.asList("a", "b"), Arrays.asList("c", "d"));
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getErrors()).containsOnlyKeys(4); // 表头为第 1 行
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LimitedSample {
+
+        @ExcelProperty("名字")
+        @ExcelFieldLength(5)
+        private String name;
+
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Sample {
+
+        @ExcelProperty("名字")
+        private String name;
+
+    }
+
+}
@@ -8,7 +8,9 @@ import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.mq.redis.core.job.RedisPendingMessageResendJob;
 import cn.iocoder.yudao.framework.mq.redis.core.job.RedisStreamMessageCleanupJob;
 import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamBatchMessageListener;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamBatchMessageListenerContainer;
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RedissonClient;
@@ -118,6 +120,12 @@ public class YudaoRedisMQConsumerAutoConfiguration {
             }
             // 设置 listener 对应的 redisTemplate
             listener.setRedisMQTemplate(redisMQTemplate);
+            // 批量消费的监听器，由 RedisStreamBatchMessageListenerContainer 负责拉取
+            if (listener instanceof AbstractRedisStreamBatchMessageListener) {
+                log.info("[redisStreamMessageListenerContainer][StreamKey({}) 对应的监听器({}) 为批量消费，跳过注册]",
+                        listener.getStreamKey(), listener.getClass().getName());
+                return;
+            }
             // 创建 Consumer 对象
             Consumer consumer = Consumer.from(listener.getGroup(), consumerName);
             // 设置 Consumer 消费进度，以最小消费进度为准
@@ -134,6 +142,20 @@ public class YudaoRedisMQConsumerAutoConfiguration {
         return container;
     }
 
+    /**
+     * 创建 Redis Stream 批量消费的容器
+     *
+     * 需要在 {@link #redisStreamMessageListenerContainer(RedisMQTemplate, List)} 之后创建，保证监听器已经设置 RedisMQTemplate
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnBean(AbstractRedisStreamBatchMessageListener.class)
+    public RedisStreamBatchMessageListenerContainer redisStreamBatchMessageListenerContainer(
+            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamBatchMessageListener<?>> listeners,
+            StreamMessageListenerContainer<String, ObjectRecord<String, String>> redisStreamMessageListenerContainer) {
+        return new RedisStreamBatchMessageListenerContainer(redisMQTemplate.getRedisTemplate(), listeners,
+                buildConsumerName());
+    }
+
     /**
      * 构建消费者名字，使用本地 IP + 进程编号的方式。
      * 参考自 RocketMQ clientId 的实现
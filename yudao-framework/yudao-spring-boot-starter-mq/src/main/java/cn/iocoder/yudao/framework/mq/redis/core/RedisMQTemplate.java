@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.mq.redis.core;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageInterceptor;
 import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
@@ -7,12 +8,15 @@ import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessa
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
 import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Redis MQ 操作模板类
@@ -63,6 +67,90 @@ public class RedisMQTemplate {
         }
     }
 
+    /**
+     * 批量发送 Redis 消息，基于 Redis Stream 实现
+     *
+     * 通过 pipeline 批量执行 XADD，只需要 1 次网络往返
+     *
+     * @param messages 消息数组
+     * @return 消息记录的编号对象数组，与 messages 顺序一致
+     */
+    public <T extends AbstractRedisStreamMessage> List<RecordId> sendBatch(List<T> messages) {
+        return sendBatch(messages, null);
+    }
+
+    /**
+     * 批量发送 Redis 消息，基于 Redis Stream 实现
+     *
+     * 通过 pipeline 批量执行 XADD，只需要 1 次网络往返；如果 maxLen 非空，在同一个 pipeline 中执行 XTRIM（近似裁剪）
+     *
+     * @param messages 消息数组
+     * @param maxLen   Stream 保留的最大消息数量；为空时，不裁剪
+     * @return 消息记录的编号对象数组，与 messages 顺序一致
+     */
+    public <T extends AbstractRedisStreamMessage> List<RecordId> sendBatch(List<T> messages, Long maxLen) {
+        if (CollUtil.isEmpty(messages)) {
+            return Collections.emptyList();
+        }
+        List<T> sentMessages = new ArrayList<>(messages.size());
+        try {
+            List<ObjectRecord<String, String>> records = new ArrayList<>(messages.size());
+            messages.forEach(message -> {
+                sentMessages.add(message);
+                sendMessageBefore(message);
+                records.add(StreamRecords.newRecord()
+                        .ofObject(JsonUtils.toJsonString(message)) // 设置内容
+                        .withStreamKey(message.getStreamKey())); // 设置 stream key
+            });
+            // 发送消息
+            return sendRecords(records, maxLen);
+        } finally {
+            for (T message : sentMessages) {
+                sendMessageAfter(message);
+            }
+        }
+    }
+
+    /**
+     * 批量发送 Redis Stream 消息记录
+     *
+     * 与 {@link #sendBatch(List, Long)} 的差异是，不经过拦截器，适用于消息体不是 {@link AbstractRedisStreamMessage} 的场景，
+     * 例如说 IoT 消息总线
+     *
+     * @param records 消息记录数组
+     * @param maxLen  Stream 保留的最大消息数量；为空时，不裁剪
+     * @return 消息记录的编号对象数组，与 records 顺序一致
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<RecordId> sendRecords(List<ObjectRecord<String, String>> records, Long maxLen) {
+        if (CollUtil.isEmpty(records)) {
+            return Collections.emptyList();
+        }
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            public Object execute(RedisOperations operations) {
+                StreamOperations streamOperations = operations.opsForStream();
+                Set<String> streamKeys = new LinkedHashSet<>();
+                records.forEach(record -> {
+                    streamOperations.add(record);
+                    streamKeys.add(record.getStream());
+                });
+                if (maxLen != null) {
+                    streamKeys.forEach(streamKey -> streamOperations.trim(streamKey, maxLen, true));
+                }
+                return null;
+            }
+
+        });
+        // 前 records.size() 个结果，为 XADD 的结果
+        List<RecordId> recordIds = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            recordIds.add((RecordId) results.get(i));
+        }
+        return recordIds;
+    }
+
     /**
      * 添加拦截器
      *
@@ -0,0 +1,107 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Redis Stream 批量消费的监听器抽象类，用于实现集群消费
+ *
+ * 1. 由 {@link RedisStreamBatchMessageListenerContainer} 每次拉取最多 {@link #batchSize} 条消息，调用 {@link #onMessageBatch(List)} 批量处理
+ * 2. 处理完成后，由 {@link RedisStreamBatchMessageListenerContainer} 通过 1 次 XACK 确认整批消息
+ * 3. 拦截器仍然对每条消息执行；为了保证拦截器设置的上下文（例如说租户编号）正确，一批消息会按照 Header 拆分成连续的若干组，
+ *    每组的 Header 相同。某一组消费失败时，不再消费后续的组，保证消息的顺序
+ *
+ * @param <T> 消息类型。一定要填写噢，不然会报错
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public abstract class AbstractRedisStreamBatchMessageListener<T extends AbstractRedisStreamMessage>
+        extends AbstractRedisStreamMessageListener<T> implements RedisStreamRecordsListener {
+
+    /**
+     * 默认每次拉取的最大消息数量
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * 每次拉取的最大消息数量
+     */
+    @Getter
+    private final int batchSize;
+
+    protected AbstractRedisStreamBatchMessageListener() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    protected AbstractRedisStreamBatchMessageListener(int batchSize) {
+        super();
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<RecordId> onMessageRecords(List<ObjectRecord<String, String>> records) {
+        List<T> messages = new ArrayList<>(records.size());
+        records.forEach(record -> messages.add(JsonUtils.parseObject(record.getValue(), getMessageType())));
+        // 按照 Header 拆分成连续的若干组，逐组消费
+        List<RecordId> ackIds = new ArrayList<>(records.size());
+        int fromIndex = 0;
+        while (fromIndex < messages.size()) {
+            int toIndex = fromIndex + 1;
+            while (toIndex < messages.size()
+                    && Objects.equals(messages.get(toIndex).getHeaders(), messages.get(fromIndex).getHeaders())) {
+                toIndex++;
+            }
+            try {
+                consumeMessages(messages.subList(fromIndex, toIndex));
+            } catch (Exception ex) {
+                // 只 ack 已消费完成的消息；消费失败的消息，由 RedisPendingMessageResendJob 重新投递
+                log.error("[onMessageRecords][StreamKey({}) 消费消息({}) 异常]", getStreamKey(),
+                        records.get(fromIndex).getId(), ex);
+                break;
+            }
+            for (int i = fromIndex; i < toIndex; i++) {
+                ackIds.add(records.get(i).getId());
+            }
+            fromIndex = toIndex;
+        }
+        return ackIds;
+    }
+
+    private void consumeMessages(List<T> messages) {
+        int beforeCount = 0;
+        try {
+            for (T message : messages) {
+                consumeMessageBefore(message);
+                beforeCount++;
+            }
+            // 消费消息
+            onMessageBatch(messages);
+        } finally {
+            for (int i = beforeCount - 1; i >= 0; i--) {
+                consumeMessageAfter(messages.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(T message) {
+        onMessageBatch(Collections.singletonList(message));
+    }
+
+    /**
+     * 批量处理消息
+     *
+     * @param messages 消息数组，Header 相同
+     */
+    public abstract void onMessageBatch(List<T> messages);
+
+}
@@ -28,6 +28,7 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
     /**
      * 消息类型
      */
+    @Getter
     private final Class<T> messageType;
     /**
      * Redis Channel
@@ -45,6 +46,7 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
      * RedisMQTemplate
      */
     @Setter
+    @Getter
     private RedisMQTemplate redisMQTemplate;
 
     @SneakyThrows
@@ -100,14 +102,14 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
         return (Class<T>) type;
     }
 
-    private void consumeMessageBefore(AbstractRedisMessage message) {
+    protected void consumeMessageBefore(AbstractRedisMessage message) {
         assert redisMQTemplate != null;
         List<RedisMessageInterceptor> interceptors = redisMQTemplate.getInterceptors();
         // 正序
         interceptors.forEach(interceptor -> interceptor.consumeMessageBefore(message));
     }
 
-    private void consumeMessageAfter(AbstractRedisMessage message) {
+    protected void consumeMessageAfter(AbstractRedisMessage message) {
         assert redisMQTemplate != null;
         List<RedisMessageInterceptor> interceptors = redisMQTemplate.getInterceptors();
         // 倒序
@@ -0,0 +1,140 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.collection.CollUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RedisStreamRecordsListener} 的消费容器
+ *
+ * 1. 每个监听器一个拉取线程，通过 XREADGROUP COUNT batchSize BLOCK 批量拉取消息
+ * 2. 监听器消费完成后，通过 1 次 XACK 确认其返回的消息编号
+ * 3. 支持在 {@link #start()} 之后，通过 {@link #register(RedisStreamRecordsListener)} 动态注册监听器
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class RedisStreamBatchMessageListenerContainer {
+
+    /**
+     * 默认拉取消息时，阻塞等待的时间
+     */
+    public static final Duration DEFAULT_POLL_TIMEOUT = Duration.ofSeconds(2);
+    /**
+     * 拉取异常时，重试的间隔
+     */
+    private static final long ERROR_SLEEP_MILLIS = 1000L;
+
+    private final RedisTemplate<String, ?> redisTemplate;
+    private final String consumerName;
+    private final Duration pollTimeout;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public RedisStreamBatchMessageListenerContainer(RedisTemplate<String, ?> redisTemplate,
+                                                    List<? extends RedisStreamRecordsListener> listeners,
+                                                    String consumerName) {
+        this(redisTemplate, listeners, consumerName, DEFAULT_POLL_TIMEOUT);
+    }
+
+    public RedisStreamBatchMessageListenerContainer(RedisTemplate<String, ?> redisTemplate,
+                                                    List<? extends RedisStreamRecordsListener> listeners,
+                                                    String consumerName, Duration pollTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.consumerName = consumerName;
+        this.pollTimeout = pollTimeout;
+        listeners.forEach(this::register);
+    }
+
+    /**
+     * 注册监听器，并创建其对应的消费者分组
+     *
+     * @param listener 监听器
+     */
+    public synchronized void register(RedisStreamRecordsListener listener) {
+        // 创建 listener 对应的消费者分组
+        try {
+            redisTemplate.opsForStream().createGroup(listener.getStreamKey(), listener.getGroup());
+        } catch (Exception ignore) {
+        }
+        // 创建拉取线程；已经启动时，立即启动
+        Thread thread = new Thread(() -> poll(listener),
+                "redis-stream-batch-" + listener.getGroup() + "-" + listener.getStreamKey());
+        thread.setDaemon(true);
+        threads.add(thread);
+        if (running) {
+            thread.start();
+        }
+    }
+
+    public synchronized void start() {
+        running = true;
+        threads.forEach(Thread::start);
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        List<Thread> stopThreads;
+        synchronized (this) {
+            stopThreads = new ArrayList<>(threads);
+        }
+        for (Thread thread : stopThreads) {
+            thread.join(pollTimeout.toMillis() * 2);
+        }
+    }
+
+    private void poll(RedisStreamRecordsListener listener) {
+        Consumer consumer = Consumer.from(listener.getGroup(), consumerName);
+        StreamReadOptions readOptions = StreamReadOptions.empty().count(listener.getBatchSize()).block(pollTimeout);
+        StreamOffset<String> streamOffset = StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed());
+        while (running) {
+            try {
+                List<ObjectRecord<String, String>> records = redisTemplate.opsForStream()
+                        .read(String.class, consumer, readOptions, streamOffset);
+                if (CollUtil.isEmpty(records)) {
+                    continue;
+                }
+                consume(listener, records);
+            } catch (Exception ex) {
+                log.error("[poll][StreamKey({}) 监听器({}) 消费异常]", listener.getStreamKey(),
+                        listener.getClass().getName(), ex);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * 消费一批消息，并通过 1 次 XACK 确认监听器返回的消息编号
+     *
+     * @param listener 监听器
+     * @param records  消息记录数组
+     */
+    void consume(RedisStreamRecordsListener listener, List<ObjectRecord<String, String>> records) {
+        List<RecordId> ackIds = listener.onMessageRecords(records);
+        if (CollUtil.isNotEmpty(ackIds)) {
+            redisTemplate.opsForStream().acknowledge(listener.getStreamKey(), listener.getGroup(),
+                    ackIds.toArray(new RecordId[0]));
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ERROR_SLEEP_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import java.util.List;
+
+/**
+ * Redis Stream 批量消费的监听器接口，由 {@link RedisStreamBatchMessageListenerContainer} 拉取消息
+ *
+ * 一般情况下，继承 {@link AbstractRedisStreamBatchMessageListener} 即可；
+ * 消息体不是 {@link AbstractRedisStreamMessage} 的场景（例如说 IoT 消息总线），可以直接实现该接口
+ *
+ * @author 芋道源码
+ */
+public interface RedisStreamRecordsListener {
+
+    /**
+     * @return Stream Key
+     */
+    String getStreamKey();
+
+    /**
+     * @return 消费者分组
+     */
+    String getGroup();
+
+    /**
+     * @return 每次拉取的最大消息数量
+     */
+    int getBatchSize();
+
+    /**
+     * 批量消费消息记录
+     *
+     * 返回的消息编号，由 {@link RedisStreamBatchMessageListenerContainer} 通过 1 次 XACK 确认；
+     * 未返回的消息保持 pending 状态，由重新投递的任务处理
+     *
+     * @param records 消息记录数组
+     * @return 消费完成、需要确认的消息编号数组
+     */
+    List<RecordId> onMessageRecords(List<ObjectRecord<String, String>> records);
+
+}
@@ -0,0 +1,106 @@
+package cn.iocoder.yudao.framework.mq.redis.core;
+
+import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageInterceptor;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.TestStreamMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link RedisMQTemplate} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+public class RedisMQTemplateTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private RedisOperations<String, Object> operations;
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+    @Mock
+    private RedisMessageInterceptor interceptor;
+
+    private RedisMQTemplate redisMQTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        redisMQTemplate = new RedisMQTemplate(redisTemplate);
+        redisMQTemplate.addInterceptor(interceptor);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSendBatch() {
+        // 准备参数
+        List<TestStreamMessage> messages = Arrays.asList(new TestStreamMessage().setContent("a"),
+                new TestStreamMessage().setContent("b"));
+        // mock 方法：执行 pipeline 中的操作，并返回 XADD、XTRIM 的结果
+        when(operations.<Object, Object>opsForStream()).thenReturn(streamOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<?>>getArgument(0).execute(operations);
+            return Arrays.asList(RecordId.of("1-0"), RecordId.of("1-1"), 0L);
+        });
+
+        // 调用
+        List<RecordId> recordIds = redisMQTemplate.sendBatch(messages, 100L);
+        // 断言：一个 pipeline 中，执行 2 次 XADD、1 次 XTRIM
+        assertEquals(Arrays.asList(RecordId.of("1-0"), RecordId.of("1-1")), recordIds);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(streamOperations, times(2)).add(argThat((ObjectRecord<String, Object> record) ->
+                "TestStreamMessage".equals(record.getStream())));
+        verify(streamOperations).trim(eq("TestStreamMessage"), eq(100L), eq(true));
+        // 断言：拦截器对每条消息执行
+        verify(interceptor).sendMessageBefore(same(messages.get(0)));
+        verify(interceptor).sendMessageBefore(same(messages.get(1)));
+        verify(interceptor, times(2)).sendMessageAfter(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSendBatch_noMaxLen() {
+        // 准备参数
+        List<TestStreamMessage> messages = Collections.singletonList(new TestStreamMessage().setContent("a"));
+        // mock 方法
+        when(operations.<Object, Object>opsForStream()).thenReturn(streamOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<?>>getArgument(0).execute(operations);
+            return Collections.singletonList(RecordId.of("1-0"));
+        });
+
+        // 调用
+        List<RecordId> recordIds = redisMQTemplate.sendBatch(messages);
+        // 断言：不执行 XTRIM
+        assertEquals(Collections.singletonList(RecordId.of("1-0")), recordIds);
+        verify(streamOperations, never()).trim(anyString(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void testSendBatch_empty() {
+        // 调用
+        List<RecordId> recordIds = redisMQTemplate.sendBatch(Collections.<TestStreamMessage>emptyList());
+        // 断言
+        assertTrue(recordIds.isEmpty());
+        verifyNoInteractions(redisTemplate, interceptor);
+    }
+
+}
@@ -0,0 +1,102 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * {@link AbstractRedisStreamBatchMessageListener} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+public class AbstractRedisStreamBatchMessageListenerTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private RedisMessageInterceptor interceptor;
+
+    private TestBatchMessageListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        RedisMQTemplate redisMQTemplate = new RedisMQTemplate(redisTemplate);
+        redisMQTemplate.addInterceptor(interceptor);
+        listener = new TestBatchMessageListener();
+        listener.setRedisMQTemplate(redisMQTemplate);
+    }
+
+    @Test
+    public void testOnMessageRecords_splitByHeaders() {
+        // 准备参数：前两条消息的 Header 相同，第三条不同
+        List<ObjectRecord<String, String>> records = Arrays.asList(
+                buildRecord("1-0", "a", "1"), buildRecord("1-1", "b", "1"), buildRecord("1-2", "c", "2"));
+
+        // 调用
+        List<RecordId> ackIds = listener.onMessageRecords(records);
+        // 断言：按照 Header 拆分成 2 组消费，全部确认
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")), listener.batches);
+        assertEquals(Arrays.asList(RecordId.of("1-0"), RecordId.of("1-1"), RecordId.of("1-2")), ackIds);
+        // 断言：拦截器对每条消息执行
+        verify(interceptor, times(3)).consumeMessageBefore(any());
+        verify(interceptor, times(3)).consumeMessageAfter(any());
+    }
+
+    @Test
+    public void testOnMessageRecords_partialFailure() {
+        // 准备参数：第二组消费失败
+        List<ObjectRecord<String, String>> records = Arrays.asList(
+                buildRecord("1-0", "a", "1"), buildRecord("1-1", "fail", "2"), buildRecord("1-2", "c", "3"));
+
+        // 调用
+        List<RecordId> ackIds = listener.onMessageRecords(records);
+        // 断言：只确认第一组；失败后不再消费后续的组，保证顺序
+        assertEquals(Arrays.asList(Arrays.asList("a"), Arrays.asList("fail")), listener.batches);
+        assertEquals(Arrays.asList(RecordId.of("1-0")), ackIds);
+        // 断言：失败的组，拦截器仍然执行 after
+        verify(interceptor, times(2)).consumeMessageBefore(any());
+        verify(interceptor, times(2)).consumeMessageAfter(any());
+    }
+
+    private static ObjectRecord<String, String> buildRecord(String id, String content, String tenantId) {
+        TestStreamMessage message = new TestStreamMessage().setContent(content);
+        message.addHeader("tenant-id", tenantId);
+        return StreamRecords.newRecord().in("TestStreamMessage").withId(RecordId.of(id))
+                .ofObject(JsonUtils.toJsonString(message));
+    }
+
+    private static class TestBatchMessageListener extends AbstractRedisStreamBatchMessageListener<TestStreamMessage> {
+
+        private final List<List<String>> batches = new ArrayList<>();
+
+        @Override
+        public void onMessageBatch(List<TestStreamMessage> messages) {
+            batches.add(messages.stream().map(TestStreamMessage::getContent).collect(Collectors.toList()));
+            if (messages.stream().anyMatch(message -> "fail".equals(message.getContent()))) {
+                throw new IllegalStateException("模拟消费失败");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link RedisStreamBatchMessageListenerContainer} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+public class RedisStreamBatchMessageListenerContainerTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+    @Mock
+    private RedisStreamRecordsListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+        lenient().when(listener.getStreamKey()).thenReturn("test-stream");
+        lenient().when(listener.getGroup()).thenReturn("test-group");
+        lenient().when(listener.getBatchSize()).thenReturn(10);
+    }
+
+    @Test
+    public void testRegister_createGroup() {
+        // 调用
+        new RedisStreamBatchMessageListenerContainer(redisTemplate, Collections.singletonList(listener), "consumer");
+        // 断言
+        verify(streamOperations).createGroup(eq("test-stream"), eq("test-group"));
+    }
+
+    @Test
+    public void testConsume_ackReturnedIds() {
+        // 准备参数
+        RedisStreamBatchMessageListenerContainer container = new RedisStreamBatchMessageListenerContainer(
+                redisTemplate, Collections.emptyList(), "consumer");
+        List<ObjectRecord<String, String>> records = Arrays.asList(buildRecord("1-0"), buildRecord("1-1"));
+        // mock 方法：只有第一条消费完成
+        when(listener.onMessageRecords(eq(records))).thenReturn(Collections.singletonList(RecordId.of("1-0")));
+
+        // 调用
+        container.consume(listener, records);
+        // 断言：通过 1 次 XACK 确认
+        verify(streamOperations).acknowledge(eq("test-stream"), eq("test-group"), eq(RecordId.of("1-0")));
+    }
+
+    @Test
+    public void testConsume_nothingToAck() {
+        // 准备参数
+        RedisStreamBatchMessageListenerContainer container = new RedisStreamBatchMessageListenerContainer(
+                redisTemplate, Collections.emptyList(), "consumer");
+        List<ObjectRecord<String, String>> records = Collections.singletonList(buildRecord("1-0"));
+        // mock 方法
+        when(listener.onMessageRecords(eq(records))).thenReturn(Collections.emptyList());
+
+        // 调用
+        container.consume(listener, records);
+        // 断言
+        verifyNoInteractions(streamOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStart_registerAfterStart() throws InterruptedException {
+        // 准备参数
+        RedisStreamBatchMessageListenerContainer container = new RedisStreamBatchMessageListenerContainer(
+                redisTemplate, Collections.emptyList(), "consumer", Duration.ofMillis(10));
+        List<ObjectRecord<String, String>> records = Collections.singletonList(buildRecord("1-0"));
+        // mock 方法：第一次拉取到消息，之后没有消息
+        when(streamOperations.read(eq(String.class), any(Consumer.class), any(StreamReadOptions.class),
+                any(StreamOffset.class))).thenReturn(records).thenReturn(Collections.emptyList());
+        when(listener.onMessageRecords(eq(records))).thenReturn(Collections.singletonList(RecordId.of("1-0")));
+
+        // 调用：启动后，再注册监听器
+        container.start();
+        try {
+            container.register(listener);
+            // 断言
+            verify(listener, timeout(1000L)).onMessageRecords(eq(records));
+            verify(streamOperations, timeout(1000L)).acknowledge(eq("test-stream"), eq("test-group"), eq(RecordId.of("1-0")));
+        } finally {
+            container.stop();
+        }
+    }
+
+    private static ObjectRecord<String, String> buildRecord(String id) {
+        return StreamRecords.newRecord().in("test-stream").withId(RecordId.of(id)).ofObject("{}");
+    }
+
+}
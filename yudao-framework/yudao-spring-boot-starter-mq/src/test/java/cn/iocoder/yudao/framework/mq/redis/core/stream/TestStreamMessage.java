@@ -0,0 +1,15 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import lombok.Data;
+
+/**
+ * 单元测试使用的 {@link AbstractRedisStreamMessage}
+ *
+ * @author 芋道源码
+ */
+@Data
+public class TestStreamMessage extends AbstractRedisStreamMessage {
+
+    private String content;
+
+}
@@ -3,9 +3,12 @@ package cn.iocoder.yudao.framework.ratelimiter.config;
 import cn.iocoder.yudao.framework.ratelimiter.core.aop.RateLimiterAspect;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.RateLimiterKeyResolver;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.impl.*;
+import cn.iocoder.yudao.framework.ratelimiter.core.local.HybridRateLimiter;
 import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.context.annotation.Bean;
 
@@ -15,8 +18,14 @@ import java.util.List;
 public class YudaoRateLimiterConfiguration {
 
     @Bean
-    public RateLimiterAspect rateLimiterAspect(List<RateLimiterKeyResolver> keyResolvers, RateLimiterRedisDAO rateLimiterRedisDAO) {
-        return new RateLimiterAspect(keyResolvers, rateLimiterRedisDAO);
+    public RateLimiterAspect rateLimiterAspect(List<RateLimiterKeyResolver> keyResolvers, HybridRateLimiter hybridRateLimiter) {
+        return new RateLimiterAspect(keyResolvers, hybridRateLimiter);
+    }
+
+    @Bean
+    public HybridRateLimiter hybridRateLimiter(RateLimiterRedisDAO rateLimiterRedisDAO,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new HybridRateLimiter(rateLimiterRedisDAO, meterRegistry.getIfAvailable());
     }
 
     @Bean
@@ -2,6 +2,7 @@ package cn.iocoder.yudao.framework.ratelimiter.core.annotation;
 
 import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants;
 import cn.iocoder.yudao.framework.idempotent.core.keyresolver.impl.ExpressionIdempotentKeyResolver;
+import cn.iocoder.yudao.framework.ratelimiter.core.enums.RateLimiterModeEnum;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.RateLimiterKeyResolver;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.impl.ClientIpRateLimiterKeyResolver;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.impl.DefaultRateLimiterKeyResolver;
@@ -37,6 +38,17 @@ public @interface RateLimiter {
      */
     int count() default 100;
 
+    /**
+     * 限流模式，默认为 STRICT 严格模式
+     */
+    RateLimiterModeEnum mode() default RateLimiterModeEnum.STRICT;
+    /**
+     * APPROXIMATE 近似模式下，每次从 Redis 预取的令牌数
+     *
+     * 小于等于 0 时，使用 {@link #count()} 的 1/10，并且至少为 1
+     */
+    int leasePermits() default 0;
+
     /**
      * 提示信息，请求过快的提示
      *
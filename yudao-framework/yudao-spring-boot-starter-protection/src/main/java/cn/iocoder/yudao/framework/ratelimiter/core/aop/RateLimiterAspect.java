@@ -6,7 +6,7 @@ import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstant
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.ratelimiter.core.annotation.RateLimiter;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.RateLimiterKeyResolver;
-import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
+import cn.iocoder.yudao.framework.ratelimiter.core.local.HybridRateLimiter;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
@@ -30,11 +30,11 @@ public class RateLimiterAspect {
      */
     private final Map<Class<? extends RateLimiterKeyResolver>, RateLimiterKeyResolver> keyResolvers;
 
-    private final RateLimiterRedisDAO rateLimiterRedisDAO;
+    private final HybridRateLimiter hybridRateLimiter;
 
-    public RateLimiterAspect(List<RateLimiterKeyResolver> keyResolvers, RateLimiterRedisDAO rateLimiterRedisDAO) {
+    public RateLimiterAspect(List<RateLimiterKeyResolver> keyResolvers, HybridRateLimiter hybridRateLimiter) {
         this.keyResolvers = CollectionUtils.convertMap(keyResolvers, RateLimiterKeyResolver::getClass);
-        this.rateLimiterRedisDAO = rateLimiterRedisDAO;
+        this.hybridRateLimiter = hybridRateLimiter;
     }
 
     @Before("@annotation(rateLimiter)")
@@ -46,8 +46,7 @@ public class RateLimiterAspect {
         String key = keyResolver.resolver(joinPoint, rateLimiter);
 
         // 获取 1 次限流
-        boolean success = rateLimiterRedisDAO.tryAcquire(key,
-                rateLimiter.count(), rateLimiter.time(), rateLimiter.timeUnit());
+        boolean success = hybridRateLimiter.tryAcquire(key, rateLimiter);
         if (!success) {
             log.info("[beforePointCut][方法({}) 参数({}) 请求过于频繁]", joinPoint.getSignature().toString(), joinPoint.getArgs());
             String message = StrUtil.blankToDefault(rateLimiter.message(),
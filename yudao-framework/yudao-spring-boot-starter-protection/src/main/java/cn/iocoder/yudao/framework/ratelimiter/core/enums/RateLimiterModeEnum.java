@@ -0,0 +1,21 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.enums;
+
+/**
+ * 限流模式的枚举
+ *
+ * @author 芋道源码
+ */
+public enum RateLimiterModeEnum {
+
+    /**
+     * 严格模式：每次请求都从 Redis 获取令牌，保证全局精确
+     */
+    STRICT,
+    /**
+     * 近似模式：从 Redis 批量预取令牌到本地，本地令牌耗尽时才访问 Redis
+     *
+     * 令牌可能滞留在某个节点，导致其它节点提前被限流；适合高并发、允许一定偏差的场景
+     */
+    APPROXIMATE
+
+}
@@ -0,0 +1,127 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import cn.iocoder.yudao.framework.ratelimiter.core.annotation.RateLimiter;
+import cn.iocoder.yudao.framework.ratelimiter.core.enums.RateLimiterModeEnum;
+import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * 混合模式的限流器，在 {@link RateLimiterRedisDAO} 前增加一层本地令牌桶
+ *
+ * 1. {@link RateLimiterModeEnum#STRICT} 严格模式：每次都从 Redis 获取 1 个令牌；rate 速率的配置已在本地缓存，只需要 1 次 Redis 操作
+ * 2. {@link RateLimiterModeEnum#APPROXIMATE} 近似模式：优先从 {@link LocalTokenBucket} 获取；本地令牌耗尽时，
+ *    从 Redis 批量预取 {@link RateLimiter#leasePermits()} 个令牌，预取失败时再尝试获取 1 个
+ * 3. 如果存在 {@link MeterRegistry}，则统计本地、远程的放行与拒绝次数
+ *
+ * 由于令牌都从 Redis 获取，全局放行的总数不会超过限流次数；近似模式的偏差在于，预取的令牌可能滞留在某个节点，
+ * 并且在一个限流周期内都可以使用
+ *
+ * @author 芋道源码
+ */
+public class HybridRateLimiter {
+
+    private static final String METRIC_NAME = "yudao.rate.limiter.acquire";
+
+    private final RateLimiterRedisDAO rateLimiterRedisDAO;
+
+    /**
+     * 本地令牌桶
+     *
+     * key：限流 Key
+     */
+    private final Cache<String, LocalTokenBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    private final Counter strictRemotePass;
+    private final Counter strictRemoteReject;
+    private final Counter approximateLocalPass;
+    private final Counter approximateRemotePass;
+    private final Counter approximateRemoteReject;
+
+    public HybridRateLimiter(RateLimiterRedisDAO rateLimiterRedisDAO, MeterRegistry meterRegistry) {
+        this.rateLimiterRedisDAO = rateLimiterRedisDAO;
+        this.strictRemotePass = buildCounter(meterRegistry, RateLimiterModeEnum.STRICT, "remote", "pass");
+        this.strictRemoteReject = buildCounter(meterRegistry, RateLimiterModeEnum.STRICT, "remote", "reject");
+        this.approximateLocalPass = buildCounter(meterRegistry, RateLimiterModeEnum.APPROXIMATE, "local", "pass");
+        this.approximateRemotePass = buildCounter(meterRegistry, RateLimiterModeEnum.APPROXIMATE, "remote", "pass");
+        this.approximateRemoteReject = buildCounter(meterRegistry, RateLimiterModeEnum.APPROXIMATE, "remote", "reject");
+    }
+
+    private static Counter buildCounter(MeterRegistry meterRegistry, RateLimiterModeEnum mode,
+                                        String source, String result) {
+        if (meterRegistry == null) {
+            return null;
+        }
+        return Counter.builder(METRIC_NAME)
+                .tag("mode", mode.name().toLowerCase())
+                .tag("source", source)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * 尝试获取 1 个令牌
+     *
+     * @param key         限流 Key
+     * @param rateLimiter 限流注解
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(String key, RateLimiter rateLimiter) {
+        if (rateLimiter.mode() == RateLimiterModeEnum.APPROXIMATE) {
+            return tryAcquireApproximate(key, rateLimiter);
+        }
+        boolean success = rateLimiterRedisDAO.tryAcquire(key,
+                rateLimiter.count(), rateLimiter.time(), rateLimiter.timeUnit());
+        increment(success ? strictRemotePass : strictRemoteReject);
+        return success;
+    }
+
+    private boolean tryAcquireApproximate(String key, RateLimiter rateLimiter) {
+        // 1. 优先从本地令牌桶获取
+        LocalTokenBucket bucket = buckets.get(key, k -> new LocalTokenBucket());
+        long now = System.currentTimeMillis();
+        if (bucket.tryAcquire(now)) {
+            increment(approximateLocalPass);
+            return true;
+        }
+
+        // 2.1 本地令牌耗尽，从 Redis 批量预取
+        long leasePermits = getLeasePermits(rateLimiter);
+        if (rateLimiterRedisDAO.tryAcquire(key, leasePermits,
+                rateLimiter.count(), rateLimiter.time(), rateLimiter.timeUnit())) {
+            // 自己使用 1 个，剩余的放入本地令牌桶，在一个限流周期内有效
+            bucket.refill(leasePermits - 1, now + rateLimiter.timeUnit().toMillis(rateLimiter.time()));
+            increment(approximateRemotePass);
+            return true;
+        }
+        // 2.2 预取失败，说明剩余的令牌不足一批，尝试获取 1 个
+        if (leasePermits > 1 && rateLimiterRedisDAO.tryAcquire(key, 1,
+                rateLimiter.count(), rateLimiter.time(), rateLimiter.timeUnit())) {
+            increment(approximateRemotePass);
+            return true;
+        }
+        increment(approximateRemoteReject);
+        return false;
+    }
+
+    private static long getLeasePermits(RateLimiter rateLimiter) {
+        if (rateLimiter.leasePermits() > 0) {
+            return Math.min(rateLimiter.leasePermits(), rateLimiter.count());
+        }
+        return Math.max(1, rateLimiter.count() / 10);
+    }
+
+}
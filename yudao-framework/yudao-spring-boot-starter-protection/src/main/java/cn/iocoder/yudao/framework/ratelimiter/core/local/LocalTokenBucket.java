@@ -0,0 +1,60 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地令牌桶，存放从 Redis 预取的令牌
+ *
+ * 基于 CAS 实现无锁扣减；令牌只在一个限流周期内有效，过期后剩余的令牌直接丢弃
+ *
+ * @author 芋道源码
+ */
+public class LocalTokenBucket {
+
+    /**
+     * 剩余的令牌数
+     */
+    private final AtomicLong permits = new AtomicLong();
+    /**
+     * 令牌的过期时间，单位：毫秒
+     */
+    private volatile long expireTime;
+
+    /**
+     * 尝试从本地获取 1 个令牌
+     *
+     * @param now 当前时间，单位：毫秒
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(long now) {
+        if (now >= expireTime) {
+            return false;
+        }
+        for (;;) {
+            long current = permits.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (permits.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 放入新预取的令牌，替换掉剩余的令牌
+     *
+     * @param leased     令牌数
+     * @param expireTime 过期时间，单位：毫秒
+     */
+    public void refill(long leased, long expireTime) {
+        // 先设置过期时间，避免其它线程读到新令牌、旧过期时间
+        this.expireTime = expireTime;
+        permits.set(leased);
+    }
+
+    public long getPermits() {
+        return permits.get();
+    }
+
+}
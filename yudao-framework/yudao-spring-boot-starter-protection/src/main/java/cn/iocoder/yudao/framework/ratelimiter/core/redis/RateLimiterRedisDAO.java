@@ -1,7 +1,13 @@
 package cn.iocoder.yudao.framework.ratelimiter.core.redis;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.*;
+import org.redisson.client.RedisException;
 
 import java.time.Duration;
 import java.util.Objects;
@@ -12,6 +18,7 @@ import java.util.concurrent.TimeUnit;
  *
  * @author 芋道源码
  */
+@Slf4j
 @AllArgsConstructor
 public class RateLimiterRedisDAO {
 
@@ -26,11 +33,68 @@ public class RateLimiterRedisDAO {
 
     private final RedissonClient redissonClient;
 
+    /**
+     * 本地缓存的最长时间
+     */
+    private static final Duration CONFIGURED_CACHE_MAX_DURATION = Duration.ofMinutes(10);
+
+    /**
+     * 已确认配置过 rate 速率的 Key 缓存
+     *
+     * key：Redis Key
+     * value：rate 速率的配置
+     *
+     * 命中时，不再调用 getConfig、setRate 等方法，每次限流只需要 1 次 Redis 操作。
+     * 缓存的过期时间，与 Redis Key 的剩余过期时间一致，避免 Key 过期后仍命中缓存，导致 tryAcquire 抛出异常
+     */
+    private final Cache<String, ConfiguredRate> configuredCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfter(new Expiry<String, ConfiguredRate>() {
+
+                @Override
+                public long expireAfterCreate(String key, ConfiguredRate value, long currentTime) {
+                    return value.getExpireNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, ConfiguredRate value, long currentTime, long currentDuration) {
+                    return value.getExpireNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String key, ConfiguredRate value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+            })
+            .build();
+
     public Boolean tryAcquire(String key, int count, int time, TimeUnit timeUnit) {
+        return tryAcquire(key, 1, count, time, timeUnit);
+    }
+
+    /**
+     * 尝试获取指定数量的令牌
+     *
+     * @param key      Key
+     * @param permits  获取的令牌数量
+     * @param count    限流次数
+     * @param time     限流的时间
+     * @param timeUnit 时间单位
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(String key, long permits, int count, int time, TimeUnit timeUnit) {
         // 1. 获得 RRateLimiter，并设置 rate 速率
         RRateLimiter rateLimiter = getRRateLimiter(key, count, time, timeUnit);
-        // 2. 尝试获取 1 个
-        return rateLimiter.tryAcquire();
+        // 2. 尝试获取 permits 个
+        try {
+            return rateLimiter.tryAcquire(permits);
+        } catch (RedisException ex) {
+            // 兜底：Key 被提前删除等情况下，缓存的配置已经失效，重新设置 rate 速率后重试
+            log.debug("[tryAcquire][key({}) 获取令牌失败({})，重新设置 rate 速率]", key, ex.getMessage());
+            configuredCache.invalidate(formatKey(key));
+            return getRRateLimiter(key, count, time, timeUnit).tryAcquire(permits);
+        }
     }
 
     private static String formatKey(String key) {
@@ -42,25 +106,64 @@ public class RateLimiterRedisDAO {
         RRateLimiter rateLimiter = redissonClient.getRateLimiter(redisKey);
         long rateInterval = timeUnit.toSeconds(time);
         Duration duration = Duration.ofSeconds(rateInterval);
+        // 0. 如果本地已经确认过相同的配置，则直接返回
+        String configValue = count + ":" + rateInterval;
+        ConfiguredRate configured = configuredCache.getIfPresent(redisKey);
+        if (configured != null && Objects.equals(configured.getConfig(), configValue)) {
+            return rateLimiter;
+        }
         // 1. 如果不存在，设置 rate 速率
         RateLimiterConfig config = rateLimiter.getConfig();
         if (config == null) {
             rateLimiter.trySetRate(RateType.OVERALL, count, duration);
             // 原因参见 https://t.zsxq.com/lcR0W
             rateLimiter.expire(duration);
+            configuredCache.put(redisKey, new ConfiguredRate(configValue, duration.toMillis()));
             return rateLimiter;
         }
         // 2. 如果存在，并且配置相同，则直接返回
         if (config.getRateType() == RateType.OVERALL
                 && Objects.equals(config.getRate(), count)
                 && Objects.equals(config.getRateInterval(), TimeUnit.SECONDS.toMillis(rateInterval))) {
+            configuredCache.put(redisKey, new ConfiguredRate(configValue, rateLimiter.remainTimeToLive()));
             return rateLimiter;
         }
         // 3. 如果存在，并且配置不同，则进行新建
         rateLimiter.setRate(RateType.OVERALL, count, duration);
         // 原因参见 https://t.zsxq.com/lcR0W
         rateLimiter.expire(duration);
+        configuredCache.put(redisKey, new ConfiguredRate(configValue, duration.toMillis()));
         return rateLimiter;
     }
 
+    /**
+     * 已确认的 rate 速率配置
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class ConfiguredRate {
+
+        /**
+         * rate 速率的配置，格式为 "count:rateInterval"
+         */
+        private final String config;
+        /**
+         * Redis Key 的剩余过期时间，单位：毫秒
+         *
+         * 小于 0 时，表示 Key 未设置过期时间（-1）或不存在（-2）
+         */
+        private final long ttlMillis;
+
+        public long getExpireNanos() {
+            if (ttlMillis == -1) {
+                return CONFIGURED_CACHE_MAX_DURATION.toNanos();
+            }
+            if (ttlMillis < 0) {
+                return 0;
+            }
+            return Math.min(TimeUnit.MILLISECONDS.toNanos(ttlMillis), CONFIGURED_CACHE_MAX_DURATION.toNanos());
+        }
+
+    }
+
 }
@@ -0,0 +1,94 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import cn.iocoder.yudao.framework.ratelimiter.core.annotation.RateLimiter;
+import cn.iocoder.yudao.framework.ratelimiter.core.enums.RateLimiterModeEnum;
+import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link HybridRateLimiter} 的单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+public class HybridRateLimiterTest {
+
+    @Mock
+    private RateLimiterRedisDAO rateLimiterRedisDAO;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HybridRateLimiter hybridRateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hybridRateLimiter = new HybridRateLimiter(rateLimiterRedisDAO, meterRegistry);
+    }
+
+    @Test
+    public void testTryAcquire_strict() throws NoSuchMethodException {
+        RateLimiter rateLimiter = getRateLimiter("strict");
+        // mock 方法
+        when(rateLimiterRedisDAO.tryAcquire(eq("key"), eq(100), eq(1), eq(TimeUnit.SECONDS))).thenReturn(true);
+
+        // 调用，并断言
+        assertTrue(hybridRateLimiter.tryAcquire("key", rateLimiter));
+        assertTrue(hybridRateLimiter.tryAcquire("key", rateLimiter));
+        verify(rateLimiterRedisDAO, times(2)).tryAcquire(eq("key"), eq(100), eq(1), eq(TimeUnit.SECONDS));
+        assertEquals(2, meterRegistry.get("yudao.rate.limiter.acquire")
+                .tag("mode", "strict").tag("result", "pass").counter().count());
+    }
+
+    @Test
+    public void testTryAcquire_approximate() throws NoSuchMethodException {
+        RateLimiter rateLimiter = getRateLimiter("approximate");
+        // mock 方法：预取 10 个令牌
+        when(rateLimiterRedisDAO.tryAcquire(eq("key"), eq(10L), eq(100), eq(1), eq(TimeUnit.SECONDS))).thenReturn(true);
+
+        // 调用：1 次远程预取 + 9 次本地
+        for (int i = 0; i < 10; i++) {
+            assertTrue(hybridRateLimiter.tryAcquire("key", rateLimiter));
+        }
+        // 断言
+        verify(rateLimiterRedisDAO, times(1)).tryAcquire(eq("key"), anyLong(), eq(100), eq(1), eq(TimeUnit.SECONDS));
+        assertEquals(9, meterRegistry.get("yudao.rate.limiter.acquire")
+                .tag("source", "local").counter().count());
+        assertEquals(1, meterRegistry.get("yudao.rate.limiter.acquire")
+                .tag("mode", "approximate").tag("source", "remote").tag("result", "pass").counter().count());
+    }
+
+    @Test
+    public void testTryAcquire_approximateReject() throws NoSuchMethodException {
+        RateLimiter rateLimiter = getRateLimiter("approximate");
+        // mock 方法：预取、单个获取都失败
+        when(rateLimiterRedisDAO.tryAcquire(eq("key"), anyLong(), eq(100), eq(1), eq(TimeUnit.SECONDS))).thenReturn(false);
+
+        // 调用，并断言
+        assertFalse(hybridRateLimiter.tryAcquire("key", rateLimiter));
+        verify(rateLimiterRedisDAO).tryAcquire(eq("key"), eq(10L), eq(100), eq(1), eq(TimeUnit.SECONDS));
+        verify(rateLimiterRedisDAO).tryAcquire(eq("key"), eq(1L), eq(100), eq(1), eq(TimeUnit.SECONDS));
+    }
+
+    private static RateLimiter getRateLimiter(String methodName) throws NoSuchMethodException {
+        return HybridRateLimiterTest.class.getDeclaredMethod(methodName).getAnnotation(RateLimiter.class);
+    }
+
+    @RateLimiter
+    private void strict() {
+    }
+
+    @RateLimiter(mode = RateLimiterModeEnum.APPROXIMATE)
+    private void approximate() {
+    }
+
+}
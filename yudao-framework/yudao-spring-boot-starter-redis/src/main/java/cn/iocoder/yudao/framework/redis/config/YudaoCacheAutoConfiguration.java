@@ -2,11 +2,20 @@ package cn.iocoder.yudao.framework.redis.config;
 
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.redis.core.TimeoutRedisCacheManager;
+import cn.iocoder.yudao.framework.redis.core.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
@@ -79,4 +88,40 @@ public class YudaoCacheAutoConfiguration {
         return new TimeoutRedisCacheManager(cacheWriter, redisCacheConfiguration);
     }
 
+    /**
+     * 二级缓存的配置类，使用 yudao.cache.local.enable=true 开启
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "yudao.cache.local", value = "enable", havingValue = "true")
+    public static class TwoLevelCacheConfiguration {
+
+        /**
+         * 包装主 {@link RedisCacheManager} Bean，引入租户时，即为 TenantRedisCacheManager
+         */
+        @Bean
+        public TwoLevelCacheManager twoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                                         RedissonClient redissonClient,
+                                                         YudaoCacheProperties yudaoCacheProperties,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+            return new TwoLevelCacheManager(redisCacheManager, redissonClient,
+                    yudaoCacheProperties.getLocal(), meterRegistry.getIfAvailable());
+        }
+
+        /**
+         * 让 Spring Cache 注解，使用 {@link TwoLevelCacheManager}
+         */
+        @Bean
+        public CachingConfigurer twoLevelCachingConfigurer(TwoLevelCacheManager twoLevelCacheManager) {
+            return new CachingConfigurerSupport() {
+
+                @Override
+                public CacheManager cacheManager() {
+                    return twoLevelCacheManager;
+                }
+
+            };
+        }
+
+    }
+
 }
@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 /**
  * Cache 配置项
  *
@@ -24,4 +26,40 @@ public class YudaoCacheProperties {
      */
     private Integer redisScanBatchSize = REDIS_SCAN_BATCH_SIZE_DEFAULT;
 
+    /**
+     * 本地缓存（二级缓存中的 L1）配置项
+     */
+    private Local local = new Local();
+
+    @Data
+    public static class Local {
+
+        /**
+         * 是否开启
+         *
+         * 开启后，在 Redis 缓存（L2）之前，增加一层基于 Caffeine 的本地缓存（L1）
+         */
+        private boolean enable = false;
+
+        /**
+         * 每个缓存的最大数量
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 默认过期时间
+         *
+         * 可通过 {@link org.springframework.cache.annotation.Cacheable#cacheNames()} 的 "key#ttl#localTtl" 格式，单独设置
+         */
+        private Duration timeToLive = Duration.ofSeconds(30);
+
+        /**
+         * 失效广播的 Redis Topic
+         *
+         * 某个节点 put、evict、clear 缓存时，通过该 Topic 通知其它节点，失效各自的本地缓存
+         */
+        private String topic = "yudao:cache:local-invalidate";
+
+    }
+
 }
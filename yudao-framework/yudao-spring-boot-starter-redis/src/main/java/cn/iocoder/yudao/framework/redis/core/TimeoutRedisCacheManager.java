@@ -16,11 +16,13 @@ import java.time.Duration;
  * 在 {@link Cacheable#cacheNames()} 格式为 "key#ttl" 时，# 后面的 ttl 为过期时间。
  * 单位为最后一个字母（支持的单位有：d 天，h 小时，m 分钟，s 秒），默认单位为 s 秒
  *
+ * 在格式为 "key#ttl#localTtl" 时，第二个 # 后面的 localTtl 为本地缓存的过期时间，由 {@link TwoLevelCacheManager} 解析
+ *
  * @author 芋道源码
  */
 public class TimeoutRedisCacheManager extends RedisCacheManager {
 
-    private static final String SPLIT = "#";
+    static final String SPLIT = "#";
 
     public TimeoutRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration) {
         super(cacheWriter, defaultCacheConfiguration);
@@ -31,11 +33,16 @@ public class TimeoutRedisCacheManager extends RedisCacheManager {
         if (StrUtil.isEmpty(name)) {
             return super.createRedisCache(name, cacheConfig);
         }
-        // 如果使用 # 分隔，大小不为 2，则说明不使用自定义过期时间
+        // 如果使用 # 分隔，大小不为 2 或 3，则说明不使用自定义过期时间
         String[] names = StrUtil.splitToArray(name, SPLIT);
-        if (names.length != 2) {
+        if (names.length != 2 && names.length != 3) {
             return super.createRedisCache(name, cacheConfig);
         }
+        // 如果大小为 3，则移除 localTtl 部分，仅保留它后面的 : 以及后面的内容
+        if (names.length == 3) {
+            String localTtlStr = StrUtil.subBefore(names[2], StrUtil.COLON, false);
+            names[1] = names[1] + StrUtil.removePrefix(names[2], localTtlStr);
+        }
 
         // 核心：通过修改 cacheConfig 的过期时间，实现自定义过期时间
         if (cacheConfig != null) {
@@ -57,7 +64,7 @@ public class TimeoutRedisCacheManager extends RedisCacheManager {
      * @param ttlStr 过期时间字符串
      * @return 过期时间 Duration
      */
-    private Duration parseDuration(String ttlStr) {
+    static Duration parseDuration(String ttlStr) {
         String timeUnit = StrUtil.subSuf(ttlStr, -1);
         switch (timeUnit) {
             case "d":
@@ -79,7 +86,7 @@ public class TimeoutRedisCacheManager extends RedisCacheManager {
      * @param ttlStr 过期时间字符串
      * @return 时间
      */
-    private Long removeDurationSuffix(String ttlStr) {
+    private static Long removeDurationSuffix(String ttlStr) {
         return NumberUtil.parseLong(StrUtil.sub(ttlStr, 0, ttlStr.length() - 1));
     }
 
@@ -0,0 +1,147 @@
+package cn.iocoder.yudao.framework.redis.core;
+
+import cn.hutool.core.util.StrUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 二级缓存的 {@link Cache} 实现类
+ *
+ * 1. L1：本地缓存，基于 Caffeine 实现，避免每次读取都访问 Redis、反序列化 JSON
+ * 2. L2：Redis 缓存，即 {@link TimeoutRedisCacheManager} 创建的 RedisCache
+ *
+ * put、evict、clear 时，除了更新或失效自己的本地缓存，还会通过 {@link TwoLevelCacheManager} 广播给其它节点
+ *
+ * @author 芋道源码
+ */
+public class TwoLevelCache implements Cache {
+
+    /**
+     * Redis 缓存（L2）
+     */
+    private final Cache redisCache;
+    /**
+     * 本地缓存（L1）
+     *
+     * key：{@link #toLocalKey(Object)} 转换后的字符串，保证跨节点失效时，key 一致
+     * value：Redis 缓存的 ValueWrapper，从而支持缓存 null 值
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache;
+
+    private final TwoLevelCacheManager cacheManager;
+
+    public TwoLevelCache(Cache redisCache,
+                         com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache,
+                         TwoLevelCacheManager cacheManager) {
+        this.redisCache = redisCache;
+        this.localCache = localCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return redisCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        // 情况一：本地缓存命中，直接返回
+        ValueWrapper wrapper = localCache.getIfPresent(localKey);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        // 情况二：本地缓存未命中，读取 Redis 缓存，并回填本地缓存
+        wrapper = redisCache.get(key);
+        if (wrapper != null) {
+            localCache.put(localKey, wrapper);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        ValueWrapper wrapper = localCache.getIfPresent(localKey);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = redisCache.get(key, valueLoader);
+        localCache.put(localKey, new SimpleValueWrapper(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        String localKey = toLocalKey(key);
+        localCache.put(localKey, new SimpleValueWrapper(value));
+        // 其它节点的本地缓存是旧值，需要失效，下次读取时从 Redis 回填
+        cacheManager.publishInvalidate(getName(), localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper wrapper = redisCache.putIfAbsent(key, value);
+        // 不确定 Redis 中最终的值，所以直接失效本地缓存，下次读取时回填
+        String localKey = toLocalKey(key);
+        localCache.invalidate(localKey);
+        if (wrapper == null) {
+            cacheManager.publishInvalidate(getName(), localKey);
+        }
+        return wrapper;
+    }
+
+    @Override
+    public void evict(Object key) {
+        // 先失效 Redis 缓存，再失效本地缓存，避免本地缓存被旧值回填
+        redisCache.evict(key);
+        String localKey = toLocalKey(key);
+        localCache.invalidate(localKey);
+        cacheManager.publishInvalidate(getName(), localKey);
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        cacheManager.publishInvalidate(getName(), null);
+    }
+
+    /**
+     * 失效本地缓存，用于处理其它节点的广播
+     *
+     * @param localKey 本地缓存的 key；如果为 null，则失效全部
+     */
+    void invalidateLocal(String localKey) {
+        if (localKey == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    private static String toLocalKey(Object key) {
+        return StrUtil.toString(key);
+    }
+
+}
@@ -0,0 +1,32 @@
+package cn.iocoder.yudao.framework.redis.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 本地缓存失效的广播消息
+ *
+ * @author 芋道源码
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TwoLevelCacheInvalidateMessage {
+
+    /**
+     * 发送节点的编号，用于忽略自己发送的消息
+     */
+    private String nodeId;
+    /**
+     * 缓存名
+     */
+    private String cacheName;
+    /**
+     * 缓存 key
+     *
+     * 如果为 null，则失效该缓存的全部 key
+     */
+    private String key;
+
+}
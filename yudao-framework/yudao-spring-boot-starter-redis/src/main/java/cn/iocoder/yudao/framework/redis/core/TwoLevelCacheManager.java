@@ -0,0 +1,175 @@
+package cn.iocoder.yudao.framework.redis.core;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.redis.config.YudaoCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineStatsCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 二级缓存的 {@link CacheManager} 实现类
+ *
+ * 包装 {@link TimeoutRedisCacheManager}（或其子类 TenantRedisCacheManager），在 Redis 缓存之前增加一层本地缓存：
+ * 1. 在 {@link org.springframework.cache.annotation.Cacheable#cacheNames()} 格式为 "key#ttl#localTtl" 时，localTtl 为本地缓存的过期时间，
+ *    格式同 ttl；未设置时，使用 {@link YudaoCacheProperties.Local#getTimeToLive()} 默认值；设置为 0 时，不使用本地缓存
+ * 2. put、evict、clear 时，通过 Redis Topic 广播给其它节点，失效各自的本地缓存
+ * 3. 如果存在 {@link MeterRegistry}，则按照基础缓存名（不包含租户后缀），统计本地缓存的命中率等指标
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+    /**
+     * 当前节点的编号，用于忽略自己发送的广播消息
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    private final RedisCacheManager redisCacheManager;
+    private final RedissonClient redissonClient;
+    private final YudaoCacheProperties.Local properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 二级缓存的映射
+     *
+     * key：Redis 缓存的名字，例如说多租户时，会带上租户后缀
+     */
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * 本地缓存的统计器的映射
+     *
+     * key：基础缓存名，即 {@link #parseBaseName(String)}
+     */
+    private final Map<String, StatsCounter> statsCounters = new ConcurrentHashMap<>();
+
+    private RTopic topic;
+    private Integer listenerId;
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, RedissonClient redissonClient,
+                                YudaoCacheProperties.Local properties, MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        topic = redissonClient.getTopic(properties.getTopic(), StringCodec.INSTANCE);
+        listenerId = topic.addListener(String.class, (channel, message) -> handleInvalidate(message));
+    }
+
+    @Override
+    public void destroy() {
+        if (topic != null && listenerId != null) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        // 由 Redis CacheManager 解析 ttl、租户后缀等，获得 Redis 缓存
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            return null;
+        }
+        // 如果本地缓存的过期时间为 0，则不使用本地缓存
+        Duration localTtl = parseLocalTtl(name);
+        if (localTtl.isZero() || localTtl.isNegative()) {
+            return redisCache;
+        }
+        return caches.computeIfAbsent(redisCache.getName(), cacheName -> createCache(name, redisCache, localTtl));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(String name, Cache redisCache, Duration localTtl) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(localTtl);
+        if (meterRegistry != null) {
+            // 多租户时，每个租户一个本地缓存，按照基础缓存名合并统计，避免指标的 tag 随着租户数量增长
+            StatsCounter statsCounter = statsCounters.computeIfAbsent(parseBaseName(name),
+                    baseName -> new CaffeineStatsCounter(meterRegistry, baseName));
+            builder.recordStats(() -> statsCounter);
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> localCache = builder.build();
+        return new TwoLevelCache(redisCache, localCache, this);
+    }
+
+    /**
+     * 解析基础缓存名，不包含 ttl、租户后缀
+     *
+     * @param name 缓存名，例如说 "key#ttl#localTtl"
+     * @return 基础缓存名，例如说 "key"
+     */
+    private static String parseBaseName(String name) {
+        return StrUtil.subBefore(name, TimeoutRedisCacheManager.SPLIT, false);
+    }
+
+    /**
+     * 解析本地缓存的过期时间
+     *
+     * @param name 缓存名，例如说 "key#ttl#localTtl"
+     * @return 过期时间
+     */
+    private Duration parseLocalTtl(String name) {
+        String[] names = StrUtil.splitToArray(name, TimeoutRedisCacheManager.SPLIT);
+        if (names.length != 3) {
+            return properties.getTimeToLive();
+        }
+        // 移除 localTtl 后面的 : 以及后面的内容，避免影响解析
+        return TimeoutRedisCacheManager.parseDuration(StrUtil.subBefore(names[2], StrUtil.COLON, false));
+    }
+
+    // ========== 跨节点失效 ==========
+
+    /**
+     * 广播失效其它节点的本地缓存
+     *
+     * @param cacheName 缓存名
+     * @param key 缓存 key；如果为 null，则失效全部
+     */
+    void publishInvalidate(String cacheName, String key) {
+        try {
+            topic.publish(JsonUtils.toJsonString(new TwoLevelCacheInvalidateMessage(nodeId, cacheName, key)));
+        } catch (Exception ex) {
+            // 广播失败时，其它节点的本地缓存依赖过期时间兜底
+            log.error("[publishInvalidate][cacheName({}) key({}) 广播失败]", cacheName, key, ex);
+        }
+    }
+
+    private void handleInvalidate(String text) {
+        TwoLevelCacheInvalidateMessage message = JsonUtils.parseObject(text, TwoLevelCacheInvalidateMessage.class);
+        if (message == null || nodeId.equals(message.getNodeId())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(message.getCacheName());
+        if (cache != null) {
+            cache.invalidateLocal(message.getKey());
+        }
+    }
+
+}
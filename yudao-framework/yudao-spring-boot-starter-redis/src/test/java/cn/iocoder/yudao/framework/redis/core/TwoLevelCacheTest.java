@@ -0,0 +1,182 @@
+package cn.iocoder.yudao.framework.redis.core;
+
+import cn.iocoder.yudao.framework.redis.config.YudaoCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link TwoLevelCache} 的单元测试
+ *
+ * 使用 {@link ConcurrentMapCache} 模拟两个节点共享的 Redis 缓存，使用内存的监听器列表模拟 Redis Topic
+ */
+public class TwoLevelCacheTest {
+
+    private static final String CACHE_NAME = "user";
+
+    /**
+     * 模拟的 Redis 缓存，两个节点共享
+     */
+    private final ConcurrentMapCache redisCache = new ConcurrentMapCache(CACHE_NAME);
+    /**
+     * 模拟的 Redis Topic 的监听器
+     */
+    private final List<MessageListener<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private RedissonClient redissonClient;
+
+    private Cache node01;
+    private Cache node02;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // mock Redis Topic：发布的消息，同步投递给全部节点
+        RTopic topic = mock(RTopic.class);
+        when(topic.addListener(eq(String.class), any(MessageListener.class))).thenAnswer(invocation -> {
+            listeners.add(invocation.getArgument(1));
+            return listeners.size();
+        });
+        when(topic.publish(any())).thenAnswer(invocation -> {
+            listeners.forEach(listener -> listener.onMessage("topic", invocation.getArgument(0)));
+            return (long) listeners.size();
+        });
+        redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(topic);
+
+        // 创建两个节点的二级缓存
+        node01 = createCacheManager(mockRedisCacheManager(redisCache), new SimpleMeterRegistry()).getCache(CACHE_NAME);
+        node02 = createCacheManager(mockRedisCacheManager(redisCache), new SimpleMeterRegistry()).getCache(CACHE_NAME);
+        assertTrue(node01 instanceof TwoLevelCache);
+    }
+
+    @Test
+    public void testGet_localHit() {
+        // 准备参数：读取后，回填本地缓存
+        redisCache.put("1", "v1");
+        assertEquals("v1", node01.get("1", String.class));
+
+        // 调用：直接修改 Redis 缓存，不经过二级缓存
+        redisCache.put("1", "v2");
+        // 断言：命中本地缓存
+        assertEquals("v1", node01.get("1", String.class));
+    }
+
+    @Test
+    public void testGet_redisFallback() {
+        // 准备参数
+        redisCache.put("1", "v1");
+
+        // 调用，并断言：本地缓存未命中，读取 Redis 缓存
+        assertEquals("v1", node01.get("1", String.class));
+        assertNull(node01.get("2"));
+        // 调用，并断言：valueLoader 加载后，同时写入 Redis 缓存
+        assertEquals("v3", node01.get("3", () -> "v3"));
+        assertEquals("v3", redisCache.get("3", String.class));
+    }
+
+    @Test
+    public void testPut_invalidateOtherNodes() {
+        // 准备参数：节点 2 缓存旧值
+        redisCache.put("1", "v1");
+        assertEquals("v1", node02.get("1", String.class));
+
+        // 调用：节点 1 更新
+        node01.put("1", "v2");
+        // 断言：节点 1 直接读取本地缓存，节点 2 的本地缓存失效后，从 Redis 回填新值
+        assertEquals("v2", node01.get("1", String.class));
+        assertEquals("v2", redisCache.get("1", String.class));
+        assertEquals("v2", node02.get("1", String.class));
+    }
+
+    @Test
+    public void testEvict_invalidateOtherNodes() {
+        // 准备参数：两个节点都缓存
+        redisCache.put("1", "v1");
+        assertEquals("v1", node01.get("1", String.class));
+        assertEquals("v1", node02.get("1", String.class));
+
+        // 调用：节点 1 失效
+        node01.evict("1");
+        // 断言
+        assertNull(redisCache.get("1"));
+        assertNull(node01.get("1"));
+        assertNull(node02.get("1"));
+    }
+
+    @Test
+    public void testClear_invalidateOtherNodes() {
+        // 准备参数
+        redisCache.put("1", "v1");
+        redisCache.put("2", "v2");
+        assertEquals("v1", node02.get("1", String.class));
+        assertEquals("v2", node02.get("2", String.class));
+
+        // 调用：节点 1 清空
+        node01.clear();
+        // 断言
+        assertNull(node02.get("1"));
+        assertNull(node02.get("2"));
+    }
+
+    @Test
+    public void testGetCache_localDisabled() {
+        // 调用：本地缓存的过期时间为 0
+        Cache cache = createCacheManager(mockRedisCacheManager(redisCache), null).getCache(CACHE_NAME + "#1d#0");
+        // 断言：直接使用 Redis 缓存
+        assertSame(redisCache, cache);
+    }
+
+    @Test
+    public void testMetrics_baseCacheName() {
+        // 准备参数：多租户时，Redis 缓存名带有租户后缀
+        RedisCacheManager redisCacheManager = mock(RedisCacheManager.class);
+        when(redisCacheManager.getCache(eq(CACHE_NAME + "#1d")))
+                .thenReturn(new ConcurrentMapCache(CACHE_NAME + ":1"), new ConcurrentMapCache(CACHE_NAME + ":2"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TwoLevelCacheManager cacheManager = createCacheManager(redisCacheManager, meterRegistry);
+
+        // 调用：两个租户，各自一个本地缓存
+        Cache tenant01 = cacheManager.getCache(CACHE_NAME + "#1d");
+        Cache tenant02 = cacheManager.getCache(CACHE_NAME + "#1d");
+        assertNotSame(tenant01, tenant02);
+        assertNull(tenant01.get("1"));
+        assertNull(tenant02.get("1"));
+
+        // 断言：指标按照基础缓存名合并
+        assertEquals(Collections.singleton(CACHE_NAME), meterRegistry.getMeters().stream()
+                .map(meter -> meter.getId().getTag("cache")).collect(Collectors.toSet()));
+        assertEquals(2, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    private static RedisCacheManager mockRedisCacheManager(Cache redisCache) {
+        RedisCacheManager redisCacheManager = mock(RedisCacheManager.class);
+        when(redisCacheManager.getCache(anyString())).thenReturn(redisCache);
+        return redisCacheManager;
+    }
+
+    private TwoLevelCacheManager createCacheManager(RedisCacheManager redisCacheManager, SimpleMeterRegistry meterRegistry) {
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, redissonClient,
+                new YudaoCacheProperties.Local(), meterRegistry);
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+
+}
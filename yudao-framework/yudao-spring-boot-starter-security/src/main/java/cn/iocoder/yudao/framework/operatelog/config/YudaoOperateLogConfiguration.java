@@ -1,13 +1,22 @@
 package cn.iocoder.yudao.framework.operatelog.config;
 
+import cn.iocoder.yudao.framework.apilog.config.LogBufferProperties;
+import cn.iocoder.yudao.framework.apilog.core.buffer.BatchLogBuffer;
+import cn.iocoder.yudao.framework.common.biz.system.logger.OperateLogCommonApi;
+import cn.iocoder.yudao.framework.common.biz.system.logger.dto.OperateLogCreateReqDTO;
 import cn.iocoder.yudao.framework.operatelog.core.service.LogRecordServiceImpl;
 import com.mzt.logapi.service.ILogRecordService;
 import com.mzt.logapi.starter.annotation.EnableLogRecord;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 
+import static cn.iocoder.yudao.framework.apilog.config.YudaoApiLogAutoConfiguration.createBatchLogBuffer;
+
 /**
  * 操作日志配置类
  *
@@ -15,13 +24,25 @@ import org.springframework.context.annotation.Primary;
  */
 @EnableLogRecord(tenant = "") // 貌似用不上 tenant 这玩意给个空好啦
 @AutoConfiguration
+@EnableConfigurationProperties(LogBufferProperties.class)
 @Slf4j
 public class YudaoOperateLogConfiguration {
 
     @Bean
     @Primary
-    public ILogRecordService iLogRecordServiceImpl() {
-        return new LogRecordServiceImpl();
+    public ILogRecordService iLogRecordServiceImpl(ObjectProvider<BatchLogBuffer<OperateLogCreateReqDTO>> operateLogBuffer) {
+        return new LogRecordServiceImpl(operateLogBuffer.getIfAvailable());
+    }
+
+    /**
+     * 操作日志的批量缓冲区，开启后批量 RPC 写入操作日志
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "yudao.log-buffer", value = "enable", havingValue = "true")
+    public BatchLogBuffer<OperateLogCreateReqDTO> operateLogBuffer(LogBufferProperties properties,
+                                                                   OperateLogCommonApi operateLogApi) {
+        return createBatchLogBuffer("operate-log", properties,
+                list -> operateLogApi.createOperateLogBatch(list).checkError());
     }
 
 }
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.operatelog.core.service;
 
+import cn.iocoder.yudao.framework.apilog.core.buffer.BatchLogBuffer;
 import cn.iocoder.yudao.framework.common.biz.system.logger.OperateLogCommonApi;
 import cn.iocoder.yudao.framework.common.util.monitor.TracerUtils;
 import cn.iocoder.yudao.framework.common.util.servlet.ServletUtils;
@@ -28,6 +29,21 @@ public class LogRecordServiceImpl implements ILogRecordService {
     @Resource
     private OperateLogCommonApi operateLogApi;
 
+    /**
+     * 操作日志的批量缓冲区
+     *
+     * 如果为 null，则每条操作日志，异步调用一次 {@link OperateLogCommonApi#createOperateLogAsync(OperateLogCreateReqDTO)}
+     */
+    private final BatchLogBuffer<OperateLogCreateReqDTO> operateLogBuffer;
+
+    public LogRecordServiceImpl() {
+        this(null);
+    }
+
+    public LogRecordServiceImpl(BatchLogBuffer<OperateLogCreateReqDTO> operateLogBuffer) {
+        this.operateLogBuffer = operateLogBuffer;
+    }
+
     @Override
     public void record(LogRecord logRecord) {
         OperateLogCreateReqDTO reqDTO = new OperateLogCreateReqDTO();
@@ -41,7 +57,11 @@ public class LogRecordServiceImpl implements ILogRecordService {
             fillRequestFields(reqDTO);
 
             // 2. 异步记录日志
-            operateLogApi.createOperateLogAsync(reqDTO);
+            if (operateLogBuffer != null) {
+                operateLogBuffer.offer(reqDTO);
+            } else {
+                operateLogApi.createOperateLogAsync(reqDTO);
+            }
         } catch (Throwable ex) {
             // 由于 @Async 异步调用，这里打印下日志，更容易跟进
             log.error("[record][url({}) log({}) 发生异常]", reqDTO.getRequestUrl(), reqDTO, ex);
@@ -56,6 +76,7 @@ public class LogRecordServiceImpl implements ILogRecordService {
         }
         reqDTO.setUserId(loginUser.getId());
         reqDTO.setUserType(loginUser.getUserType());
+        reqDTO.setTenantId(loginUser.getTenantId());
     }
 
     public static void fillModuleFields(OperateLogCreateReqDTO reqDTO, LogRecord logRecord) {
@@ -6,6 +6,7 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
@@ -39,6 +40,26 @@ public class SecurityProperties {
     @NotEmpty(message = "mock 模式的密钥不能为空") // 这里设置了一个默认值，因为实际上只有 mockEnable 为 true 时才需要配置。
     private String mockSecret = "test";
 
+    /**
+     * 访问令牌本地缓存的开关
+     *
+     * 开启后，TokenAuthenticationFilter 会在本地缓存访问令牌的校验结果，避免每个请求都 RPC 校验访问令牌
+     */
+    @NotNull(message = "访问令牌本地缓存的开关不能为空")
+    private Boolean tokenCacheEnable = false;
+    /**
+     * 访问令牌本地缓存的过期时间
+     *
+     * 注意，实际过期时间不超过访问令牌自身的过期时间
+     */
+    @NotNull(message = "访问令牌本地缓存的过期时间不能为空")
+    private Duration tokenCacheTimeToLive = Duration.ofMinutes(1);
+    /**
+     * 访问令牌本地缓存的最大数量
+     */
+    @NotNull(message = "访问令牌本地缓存的最大数量不能为空")
+    private Long tokenCacheMaximumSize = 10000L;
+
     /**
      * 免登录的 URL 列表
      */
@@ -6,14 +6,20 @@ import cn.iocoder.yudao.framework.security.core.context.TransmittableThreadLocal
 import cn.iocoder.yudao.framework.security.core.filter.TokenAuthenticationFilter;
 import cn.iocoder.yudao.framework.security.core.handler.AccessDeniedHandlerImpl;
 import cn.iocoder.yudao.framework.security.core.handler.AuthenticationEntryPointImpl;
+import cn.iocoder.yudao.framework.security.core.mq.redis.OAuth2AccessTokenRemoveConsumer;
 import cn.iocoder.yudao.framework.security.core.service.SecurityFrameworkService;
 import cn.iocoder.yudao.framework.security.core.service.SecurityFrameworkServiceImpl;
+import cn.iocoder.yudao.framework.security.core.token.TokenAuthenticationCache;
 import cn.iocoder.yudao.framework.web.core.handler.GlobalExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.MethodInvokingFactoryBean;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -70,8 +76,10 @@ public class YudaoSecurityAutoConfiguration {
      */
     @Bean
     public TokenAuthenticationFilter authenticationTokenFilter(GlobalExceptionHandler globalExceptionHandler,
-                                                               OAuth2TokenCommonApi oauth2TokenApi) {
-        return new TokenAuthenticationFilter(securityProperties, globalExceptionHandler, oauth2TokenApi);
+                                                               OAuth2TokenCommonApi oauth2TokenApi,
+                                                               ObjectProvider<TokenAuthenticationCache> tokenAuthenticationCache) {
+        return new TokenAuthenticationFilter(securityProperties, globalExceptionHandler, oauth2TokenApi,
+                tokenAuthenticationCache.getIfAvailable());
     }
 
     @Bean("ss") // 使用 Spring Security 的缩写，方便使用
@@ -92,4 +100,35 @@ public class YudaoSecurityAutoConfiguration {
         return methodInvokingFactoryBean;
     }
 
+    /**
+     * 访问令牌本地缓存的配置类，使用 yudao.security.token-cache-enable=true 开启
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "yudao.security", value = "token-cache-enable", havingValue = "true")
+    public static class TokenAuthenticationCacheConfiguration {
+
+        @Bean
+        public TokenAuthenticationCache tokenAuthenticationCache(SecurityProperties securityProperties) {
+            return new TokenAuthenticationCache(securityProperties.getTokenCacheTimeToLive(),
+                    securityProperties.getTokenCacheMaximumSize());
+        }
+
+        /**
+         * 访问令牌被删除时，基于 Redis 广播失效本地缓存
+         *
+         * 使用独立的配置类，保证没有引入 MQ 组件时，不会加载 {@link OAuth2AccessTokenRemoveConsumer} 类
+         */
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(name = "cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate")
+        public static class TokenAuthenticationCacheMQConfiguration {
+
+            @Bean
+            public OAuth2AccessTokenRemoveConsumer oauth2AccessTokenRemoveConsumer(TokenAuthenticationCache tokenAuthenticationCache) {
+                return new OAuth2AccessTokenRemoveConsumer(tokenAuthenticationCache);
+            }
+
+        }
+
+    }
+
 }
@@ -10,6 +10,7 @@ import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.common.util.servlet.ServletUtils;
 import cn.iocoder.yudao.framework.security.config.SecurityProperties;
 import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.security.core.token.TokenAuthenticationCache;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 import cn.iocoder.yudao.framework.web.core.handler.GlobalExceptionHandler;
 import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
@@ -43,6 +44,11 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
     private final OAuth2TokenCommonApi oauth2TokenApi;
 
+    /**
+     * 访问令牌的本地缓存；如果为 null，则不使用缓存
+     */
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+
     @Override
     @SuppressWarnings("NullableProblems")
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -83,7 +89,7 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
     private LoginUser buildLoginUserByToken(String token, Integer userType) {
         try {
             // 校验访问令牌
-            OAuth2AccessTokenCheckRespDTO accessToken = oauth2TokenApi.checkAccessToken(token).getCheckedData();
+            OAuth2AccessTokenCheckRespDTO accessToken = checkAccessToken(token);
             if (accessToken == null) {
                 return null;
             }
@@ -105,6 +111,22 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    private OAuth2AccessTokenCheckRespDTO checkAccessToken(String token) {
+        // 情况一：本地缓存命中，直接返回
+        if (tokenAuthenticationCache != null) {
+            OAuth2AccessTokenCheckRespDTO accessToken = tokenAuthenticationCache.get(token);
+            if (accessToken != null) {
+                return accessToken;
+            }
+        }
+        // 情况二：RPC 校验访问令牌，并写入本地缓存
+        OAuth2AccessTokenCheckRespDTO accessToken = oauth2TokenApi.checkAccessToken(token).getCheckedData();
+        if (tokenAuthenticationCache != null) {
+            tokenAuthenticationCache.put(token, accessToken);
+        }
+        return accessToken;
+    }
+
     /**
      * 模拟登录用户，方便日常开发调试
      *
@@ -0,0 +1,22 @@
+package cn.iocoder.yudao.framework.security.core.mq.redis;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.security.core.token.TokenAuthenticationCache;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link OAuth2AccessTokenRemoveMessage} 广播消息的消费者，失效本地缓存的访问令牌
+ *
+ * @author 芋道源码
+ */
+@RequiredArgsConstructor
+public class OAuth2AccessTokenRemoveConsumer extends AbstractRedisChannelMessageListener<OAuth2AccessTokenRemoveMessage> {
+
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+
+    @Override
+    public void onMessage(OAuth2AccessTokenRemoveMessage message) {
+        tokenAuthenticationCache.invalidate(message.getAccessTokens());
+    }
+
+}
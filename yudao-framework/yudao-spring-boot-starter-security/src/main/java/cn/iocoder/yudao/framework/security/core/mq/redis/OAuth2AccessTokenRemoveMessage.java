@@ -0,0 +1,23 @@
+package cn.iocoder.yudao.framework.security.core.mq.redis;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+import java.util.Collection;
+
+/**
+ * 访问令牌被删除的广播消息
+ *
+ * 例如说，用户登出、刷新访问令牌、管理员强退时，由 system 服务发送
+ *
+ * @author 芋道源码
+ */
+@Data
+public class OAuth2AccessTokenRemoveMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 访问令牌数组
+     */
+    private Collection<String> accessTokens;
+
+}
@@ -0,0 +1,87 @@
+package cn.iocoder.yudao.framework.security.core.token;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.iocoder.yudao.framework.common.biz.system.oauth2.dto.OAuth2AccessTokenCheckRespDTO;
+import cn.iocoder.yudao.framework.common.util.date.DateUtils;
+import com.google.common.cache.Cache;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * 访问令牌的本地缓存，避免每个请求都 RPC 调用 OAuth2TokenCommonApi 校验访问令牌
+ *
+ * 1. key 为访问令牌的 SHA-256 摘要，避免内存中长期持有明文的访问令牌
+ * 2. 缓存的有效期，不超过访问令牌自身的过期时间 expiresTime
+ * 3. 访问令牌被删除时，通过 Redis 广播 OAuth2AccessTokenRemoveMessage 消息，失效各个节点的缓存
+ *
+ * @author 芋道源码
+ */
+public class TokenAuthenticationCache {
+
+    private final Cache<String, OAuth2AccessTokenCheckRespDTO> cache;
+
+    public TokenAuthenticationCache(Duration timeToLive, Long maximumSize) {
+        this(timeToLive, maximumSize, Ticker.systemTicker());
+    }
+
+    /**
+     * 构造方法，允许指定时钟，用于单元测试
+     */
+    TokenAuthenticationCache(Duration timeToLive, Long maximumSize, Ticker ticker) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * 获得访问令牌的校验结果
+     *
+     * @param token 访问令牌
+     * @return 校验结果；如果不存在或已过期，则返回 null
+     */
+    public OAuth2AccessTokenCheckRespDTO get(String token) {
+        String key = buildKey(token);
+        OAuth2AccessTokenCheckRespDTO accessToken = cache.getIfPresent(key);
+        if (accessToken == null) {
+            return null;
+        }
+        // 访问令牌已过期，则移除缓存
+        if (DateUtils.isExpired(accessToken.getExpiresTime())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return accessToken;
+    }
+
+    /**
+     * 缓存访问令牌的校验结果
+     *
+     * @param token 访问令牌
+     * @param accessToken 校验结果
+     */
+    public void put(String token, OAuth2AccessTokenCheckRespDTO accessToken) {
+        if (accessToken == null || accessToken.getExpiresTime() == null) {
+            return;
+        }
+        cache.put(buildKey(token), accessToken);
+    }
+
+    /**
+     * 失效访问令牌的缓存
+     *
+     * @param tokens 访问令牌数组
+     */
+    public void invalidate(Collection<String> tokens) {
+        tokens.forEach(token -> cache.invalidate(buildKey(token)));
+    }
+
+    private static String buildKey(String token) {
+        return DigestUtil.sha256Hex(token);
+    }
+
+}
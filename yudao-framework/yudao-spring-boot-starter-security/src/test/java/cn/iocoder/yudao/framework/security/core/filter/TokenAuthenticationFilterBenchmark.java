@@ -0,0 +1,131 @@
+package cn.iocoder.yudao.framework.security.core.filter;
+
+import cn.iocoder.yudao.framework.common.biz.system.oauth2.OAuth2TokenCommonApi;
+import cn.iocoder.yudao.framework.common.biz.system.oauth2.dto.OAuth2AccessTokenCheckRespDTO;
+import cn.iocoder.yudao.framework.common.biz.system.oauth2.dto.OAuth2AccessTokenCreateReqDTO;
+import cn.iocoder.yudao.framework.common.biz.system.oauth2.dto.OAuth2AccessTokenRespDTO;
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.security.config.SecurityProperties;
+import cn.iocoder.yudao.framework.security.core.token.TokenAuthenticationCache;
+import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+
+/**
+ * {@link TokenAuthenticationFilter} 的基准测试
+ *
+ * 对比开启访问令牌本地缓存前后，每个请求的认证耗时；RPC 校验访问令牌的耗时，通过 rpcLatencyMicros 模拟。
+ * 通过 {@link #main(String[])} 运行，不参与单元测试
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenAuthenticationFilterBenchmark {
+
+    private static final String TOKEN = "benchmark_access_token";
+
+    /**
+     * 模拟的 RPC 耗时，单位：微秒
+     */
+    @Param({"0", "500"})
+    private long rpcLatencyMicros;
+
+    private TokenAuthenticationFilter cachedFilter;
+    private TokenAuthenticationFilter uncachedFilter;
+
+    @Setup
+    public void setUp() {
+        OAuth2TokenCommonApi oauth2TokenApi = new MockOAuth2TokenCommonApi(rpcLatencyMicros);
+        cachedFilter = new TokenAuthenticationFilter(new SecurityProperties(), null, oauth2TokenApi,
+                new TokenAuthenticationCache(Duration.ofMinutes(1), 10000L));
+        uncachedFilter = new TokenAuthenticationFilter(new SecurityProperties(), null, oauth2TokenApi, null);
+    }
+
+    @Benchmark
+    public Object cached() throws Exception {
+        return doFilter(cachedFilter);
+    }
+
+    /**
+     * 原先的实现：每个请求都 RPC 校验访问令牌
+     */
+    @Benchmark
+    public Object uncached() throws Exception {
+        return doFilter(uncachedFilter);
+    }
+
+    private static Object doFilter(TokenAuthenticationFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        WebFrameworkUtils.setLoginUserType(request, UserTypeEnum.ADMIN.getValue());
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TokenAuthenticationFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 模拟 RPC 耗时的 {@link OAuth2TokenCommonApi} 实现
+     */
+    private static class MockOAuth2TokenCommonApi implements OAuth2TokenCommonApi {
+
+        private final long latencyNanos;
+
+        private MockOAuth2TokenCommonApi(long latencyMicros) {
+            this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        }
+
+        @Override
+        public CommonResult<OAuth2AccessTokenCheckRespDTO> checkAccessToken(String accessToken) {
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            return success(new OAuth2AccessTokenCheckRespDTO().setUserId(1L).setUserType(UserTypeEnum.ADMIN.getValue())
+                    .setTenantId(1L).setExpiresTime(LocalDateTime.now().plusHours(1)));
+        }
+
+        @Override
+        public CommonResult<OAuth2AccessTokenRespDTO> createAccessToken(OAuth2AccessTokenCreateReqDTO reqDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CommonResult<OAuth2AccessTokenRespDTO> removeAccessToken(String accessToken) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CommonResult<OAuth2AccessTokenRespDTO> refreshAccessToken(String refreshToken, String clientId) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package cn.iocoder.yudao.framework.security.core.filter;
+
+import cn.iocoder.yudao.framework.common.biz.system.oauth2.OAuth2TokenCommonApi;
+import cn.iocoder.yudao.framework.common.biz.system.oauth2.dto.OAuth2AccessTokenCheckRespDTO;
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.security.config.SecurityProperties;
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.security.core.token.TokenAuthenticationCache;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.web.core.handler.GlobalExceptionHandler;
+import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link TokenAuthenticationFilter} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+public class TokenAuthenticationFilterTest {
+
+    private static final String TOKEN = "test_access_token";
+
+    @Mock
+    private GlobalExceptionHandler globalExceptionHandler;
+    @Mock
+    private OAuth2TokenCommonApi oauth2TokenApi;
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testDoFilter_cached() throws Exception {
+        // 准备参数
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(Duration.ofMinutes(1), 100L);
+        TokenAuthenticationFilter filter = buildFilter(cache);
+        // mock 方法
+        when(oauth2TokenApi.checkAccessToken(eq(TOKEN))).thenReturn(success(buildAccessToken()));
+
+        // 调用：两次请求
+        LoginUser loginUser1 = doFilter(filter);
+        LoginUser loginUser2 = doFilter(filter);
+
+        // 断言：第二次请求命中本地缓存，只 RPC 调用一次
+        assertEquals(100L, loginUser1.getId());
+        assertEquals(100L, loginUser2.getId());
+        verify(oauth2TokenApi, times(1)).checkAccessToken(eq(TOKEN));
+    }
+
+    @Test
+    public void testDoFilter_invalidated() throws Exception {
+        // 准备参数
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(Duration.ofMinutes(1), 100L);
+        TokenAuthenticationFilter filter = buildFilter(cache);
+        // mock 方法
+        when(oauth2TokenApi.checkAccessToken(eq(TOKEN))).thenReturn(success(buildAccessToken()));
+
+        // 调用：访问令牌被删除后，失效本地缓存，再次请求
+        doFilter(filter);
+        cache.invalidate(Collections.singletonList(TOKEN));
+        doFilter(filter);
+
+        // 断言：重新 RPC 校验访问令牌
+        verify(oauth2TokenApi, times(2)).checkAccessToken(eq(TOKEN));
+    }
+
+    @Test
+    public void testDoFilter_noCache() throws Exception {
+        // 准备参数
+        TokenAuthenticationFilter filter = buildFilter(null);
+        // mock 方法
+        when(oauth2TokenApi.checkAccessToken(eq(TOKEN))).thenReturn(success(buildAccessToken()));
+
+        // 调用
+        doFilter(filter);
+        doFilter(filter);
+
+        // 断言：未开启本地缓存时，每次请求都 RPC 校验
+        verify(oauth2TokenApi, times(2)).checkAccessToken(eq(TOKEN));
+    }
+
+    private TokenAuthenticationFilter buildFilter(TokenAuthenticationCache cache) {
+        return new TokenAuthenticationFilter(new SecurityProperties(), globalExceptionHandler, oauth2TokenApi, cache);
+    }
+
+    private LoginUser doFilter(TokenAuthenticationFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        WebFrameworkUtils.setLoginUserType(request, UserTypeEnum.ADMIN.getValue());
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        LoginUser loginUser = SecurityFrameworkUtils.getLoginUser();
+        assertNotNull(loginUser);
+        return loginUser;
+    }
+
+    private static OAuth2AccessTokenCheckRespDTO buildAccessToken() {
+        return new OAuth2AccessTokenCheckRespDTO().setUserId(100L).setUserType(UserTypeEnum.ADMIN.getValue())
+                .setTenantId(1L).setExpiresTime(LocalDateTime.now().plusHours(1));
+    }
+
+}
@@ -0,0 +1,102 @@
+package cn.iocoder.yudao.framework.security.core.token;
+
+import cn.iocoder.yudao.framework.common.biz.system.oauth2.dto.OAuth2AccessTokenCheckRespDTO;
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TokenAuthenticationCache} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TokenAuthenticationCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private TokenAuthenticationCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        Ticker ticker = new Ticker() {
+
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+
+        };
+        cache = new TokenAuthenticationCache(Duration.ofMinutes(1), 100L, ticker);
+    }
+
+    @Test
+    public void testGet_hit() {
+        // 准备参数
+        OAuth2AccessTokenCheckRespDTO accessToken = buildAccessToken(LocalDateTime.now().plusHours(1));
+        cache.put("token", accessToken);
+
+        // 调用，并断言
+        assertSame(accessToken, cache.get("token"));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    public void testGet_timeToLiveExpired() {
+        // 准备参数
+        cache.put("token", buildAccessToken(LocalDateTime.now().plusHours(1)));
+
+        // 调用：超过缓存的有效期
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(1) + 1);
+
+        // 断言
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    public void testGet_accessTokenExpired() {
+        // 准备参数：缓存未过期，但访问令牌已经过期
+        cache.put("token", buildAccessToken(LocalDateTime.now().minusSeconds(1)));
+
+        // 调用，并断言
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    public void testPut_noExpiresTime() {
+        // 调用
+        cache.put("token", buildAccessToken(null));
+        cache.put("token2", null);
+
+        // 断言：没有过期时间的访问令牌，不缓存
+        assertNull(cache.get("token"));
+        assertNull(cache.get("token2"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        // 准备参数
+        cache.put("token", buildAccessToken(LocalDateTime.now().plusHours(1)));
+        cache.put("token2", buildAccessToken(LocalDateTime.now().plusHours(1)));
+
+        // 调用
+        cache.invalidate(Collections.singletonList("token"));
+
+        // 断言
+        assertNull(cache.get("token"));
+        assertNotNull(cache.get("token2"));
+    }
+
+    private static OAuth2AccessTokenCheckRespDTO buildAccessToken(LocalDateTime expiresTime) {
+        return new OAuth2AccessTokenCheckRespDTO().setUserId(1L).setUserType(2)
+                .setTenantId(1L).setExpiresTime(expiresTime);
+    }
+
+}
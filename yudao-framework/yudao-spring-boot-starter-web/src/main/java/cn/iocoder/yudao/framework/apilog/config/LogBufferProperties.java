@@ -0,0 +1,53 @@
+package cn.iocoder.yudao.framework.apilog.config;
+
+import cn.iocoder.yudao.framework.apilog.core.buffer.BatchLogBuffer;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * 日志批量缓冲区的配置项
+ *
+ * 开启后，API 访问日志、API 异常日志、操作日志，先写入 {@link BatchLogBuffer}，再批量 RPC 写入
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.log-buffer")
+@Validated
+@Data
+public class LogBufferProperties {
+
+    /**
+     * 是否开启，默认为 false
+     *
+     * 注意，开启前需要保证 infra、system 服务已经提供批量创建日志的 RPC 接口
+     */
+    private boolean enable = false;
+    /**
+     * 队列容量
+     */
+    @NotNull(message = "队列容量不能为空")
+    @Positive(message = "队列容量必须大于 0")
+    private Integer capacity = 10000;
+    /**
+     * 每批写入的最大数量
+     */
+    @NotNull(message = "每批写入的最大数量不能为空")
+    @Positive(message = "每批写入的最大数量必须大于 0")
+    private Integer batchSize = 200;
+    /**
+     * 写入间隔
+     */
+    @NotNull(message = "写入间隔不能为空")
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /**
+     * 队列满时的处理策略
+     */
+    @NotNull(message = "队列满时的处理策略不能为空")
+    private BatchLogBuffer.RejectPolicy rejectPolicy = BatchLogBuffer.RejectPolicy.DROP_NEWEST;
+
+}
@@ -1,22 +1,34 @@
 package cn.iocoder.yudao.framework.apilog.config;
 
+import cn.iocoder.yudao.framework.apilog.core.buffer.BatchLogBuffer;
+import cn.iocoder.yudao.framework.apilog.core.buffer.BatchLogBufferMeterBinder;
 import cn.iocoder.yudao.framework.apilog.core.filter.ApiAccessLogFilter;
 import cn.iocoder.yudao.framework.apilog.core.interceptor.ApiAccessLogInterceptor;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiAccessLogCommonApi;
+import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiErrorLogCommonApi;
+import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiAccessLogCreateReqDTO;
+import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiErrorLogCreateReqDTO;
 import cn.iocoder.yudao.framework.common.enums.WebFilterOrderEnum;
 import cn.iocoder.yudao.framework.web.config.WebProperties;
 import cn.iocoder.yudao.framework.web.config.YudaoWebAutoConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import javax.servlet.Filter;
+import java.util.List;
+import java.util.function.Consumer;
 
 @AutoConfiguration(after = YudaoWebAutoConfiguration.class)
+@EnableConfigurationProperties(LogBufferProperties.class)
 public class YudaoApiLogAutoConfiguration implements WebMvcConfigurer {
 
     /**
@@ -26,8 +38,10 @@ public class YudaoApiLogAutoConfiguration implements WebMvcConfigurer {
     @ConditionalOnProperty(prefix = "yudao.access-log", value = "enable", matchIfMissing = true) // 允许使用 yudao.access-log.enable=false 禁用访问日志
     public FilterRegistrationBean<ApiAccessLogFilter> apiAccessLogFilter(WebProperties webProperties,
                                                                          @Value("${spring.application.name}") String applicationName,
-                                                                         ApiAccessLogCommonApi apiAccessLogApi) {
-        ApiAccessLogFilter filter = new ApiAccessLogFilter(webProperties, applicationName, apiAccessLogApi);
+                                                                         ApiAccessLogCommonApi apiAccessLogApi,
+                                                                         ObjectProvider<BatchLogBuffer<ApiAccessLogCreateReqDTO>> apiAccessLogBuffer) {
+        ApiAccessLogFilter filter = new ApiAccessLogFilter(webProperties, applicationName, apiAccessLogApi,
+                apiAccessLogBuffer.getIfAvailable());
         return createFilterBean(filter, WebFilterOrderEnum.API_ACCESS_LOG_FILTER);
     }
 
@@ -42,4 +56,41 @@ public class YudaoApiLogAutoConfiguration implements WebMvcConfigurer {
         registry.addInterceptor(new ApiAccessLogInterceptor());
     }
 
+    public static <T> BatchLogBuffer<T> createBatchLogBuffer(String name, LogBufferProperties properties,
+                                                             Consumer<List<T>> batchConsumer) {
+        return new BatchLogBuffer<>(name, properties.getCapacity(), properties.getBatchSize(),
+                properties.getFlushInterval(), properties.getRejectPolicy(), batchConsumer);
+    }
+
+    /**
+     * 日志批量缓冲区的配置类
+     *
+     * 开启后，API 访问日志、API 异常日志，不再每条日志一次 RPC，而是批量 RPC 写入
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "yudao.log-buffer", value = "enable", havingValue = "true")
+    public static class LogBufferConfiguration {
+
+        @Bean
+        public BatchLogBuffer<ApiAccessLogCreateReqDTO> apiAccessLogBuffer(LogBufferProperties properties,
+                                                                           ApiAccessLogCommonApi apiAccessLogApi) {
+            return createBatchLogBuffer("api-access-log", properties,
+                    list -> apiAccessLogApi.createApiAccessLogBatch(list).checkError());
+        }
+
+        @Bean
+        public BatchLogBuffer<ApiErrorLogCreateReqDTO> apiErrorLogBuffer(LogBufferProperties properties,
+                                                                         ApiErrorLogCommonApi apiErrorLogApi) {
+            return createBatchLogBuffer("api-error-log", properties,
+                    list -> apiErrorLogApi.createApiErrorLogBatch(list).checkError());
+        }
+
+        @Bean
+        @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+        public BatchLogBufferMeterBinder batchLogBufferMeterBinder(ObjectProvider<BatchLogBuffer<?>> buffers) {
+            return new BatchLogBufferMeterBinder(buffers);
+        }
+
+    }
+
 }
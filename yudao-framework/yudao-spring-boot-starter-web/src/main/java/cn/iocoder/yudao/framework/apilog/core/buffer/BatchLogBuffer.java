@@ -0,0 +1,212 @@
+package cn.iocoder.yudao.framework.apilog.core.buffer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 日志的批量缓冲区
+ *
+ * 1. 请求线程调用 {@link #offer(Object)} 写入有界的无锁队列，不阻塞请求
+ * 2. 后台线程每 {@link #flushInterval} 或者积攒满 {@link #batchSize} 条时，调用 {@link #batchConsumer} 批量写入，
+ *    例如说调用 createApiAccessLogBatch 批量 RPC，从而减少 RPC 和数据库的写入次数
+ * 3. 队列满时，按照 {@link RejectPolicy} 处理，并通过 {@link #getQueueSize()}、{@link #getDroppedCount()} 提供监控指标
+ *
+ * @param <T> 日志类型
+ * @author 芋道源码
+ */
+@Slf4j
+public class BatchLogBuffer<T> implements InitializingBean, DisposableBean {
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum RejectPolicy {
+
+        /**
+         * 丢弃新写入的日志
+         */
+        DROP_NEWEST,
+        /**
+         * 丢弃最老的日志，保留新写入的日志
+         */
+        DROP_OLDEST,
+        /**
+         * 由写入线程同步写入，对请求线程形成背压
+         */
+        CALLER_RUNS
+
+    }
+
+    /**
+     * 缓冲区名字，用于日志、监控指标
+     */
+    @Getter
+    private final String name;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final RejectPolicy rejectPolicy;
+    /**
+     * 批量写入的逻辑
+     */
+    private final Consumer<List<T>> batchConsumer;
+
+    /**
+     * 日志队列
+     *
+     * 使用 {@link ConcurrentLinkedQueue} 实现无锁写入，通过 {@link #size} 计数实现有界
+     */
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread flushThread;
+
+    public BatchLogBuffer(String name, int capacity, int batchSize, Duration flushInterval,
+                          RejectPolicy rejectPolicy, Consumer<List<T>> batchConsumer) {
+        this.name = name;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.rejectPolicy = rejectPolicy;
+        this.batchConsumer = batchConsumer;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        flushThread = new Thread(this::runFlushLoop, "batch-log-buffer-" + name);
+        flushThread.setDaemon(true);
+        flushThread.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (flushThread != null) {
+            LockSupport.unpark(flushThread);
+            flushThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // 关闭前，写入剩余的日志
+        int count;
+        do {
+            count = flush();
+        } while (count > 0);
+    }
+
+    /**
+     * 写入日志
+     *
+     * @param item 日志
+     */
+    public void offer(T item) {
+        // 情况一：队列未满，直接写入
+        if (tryEnqueue(item)) {
+            signalIfNeeded();
+            return;
+        }
+        // 情况二：队列已满，按照策略处理
+        switch (rejectPolicy) {
+            case DROP_OLDEST:
+                T oldest = queue.poll();
+                if (oldest != null) {
+                    size.decrementAndGet();
+                    droppedCount.incrementAndGet();
+                }
+                if (!tryEnqueue(item)) {
+                    droppedCount.incrementAndGet();
+                }
+                break;
+            case CALLER_RUNS:
+                batchConsumer.accept(Collections.singletonList(item));
+                break;
+            default:
+                droppedCount.incrementAndGet();
+        }
+        signalIfNeeded();
+    }
+
+    /**
+     * @return 队列中待写入的日志数量
+     */
+    public int getQueueSize() {
+        return size.get();
+    }
+
+    /**
+     * @return 被丢弃的日志数量，包括队列满、批量写入失败
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private boolean tryEnqueue(T item) {
+        // CAS 占位，保证不超过容量
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        queue.offer(item);
+        return true;
+    }
+
+    private void signalIfNeeded() {
+        if (size.get() >= batchSize && flushThread != null) {
+            LockSupport.unpark(flushThread);
+        }
+    }
+
+    private void runFlushLoop() {
+        while (running) {
+            int count = flush();
+            // 未积攒满一批时，等待下一个周期，或者被 offer 唤醒
+            if (count < batchSize) {
+                LockSupport.parkNanos(this, flushInterval.toNanos());
+            }
+        }
+    }
+
+    /**
+     * 写入一批日志
+     *
+     * @return 写入的数量
+     */
+    int flush() {
+        List<T> batch = new ArrayList<>(Math.min(batchSize, Math.max(size.get(), 1)));
+        T item;
+        while (batch.size() < batchSize && (item = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(item);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            batchConsumer.accept(batch);
+        } catch (Throwable ex) {
+            // 日志写入失败时，不进行重试，避免影响后续的日志
+            droppedCount.addAndGet(batch.size());
+            log.error("[flush][buffer({}) 批量写入 {} 条日志发生异常]", name, batch.size(), ex);
+        }
+        return batch.size();
+    }
+
+}
@@ -0,0 +1,39 @@
+package cn.iocoder.yudao.framework.apilog.core.buffer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * {@link BatchLogBuffer} 的监控指标
+ *
+ * 1. yudao.log.buffer.size：队列中待写入的日志数量
+ * 2. yudao.log.buffer.dropped：被丢弃的日志数量
+ *
+ * @author 芋道源码
+ */
+public class BatchLogBufferMeterBinder implements MeterBinder {
+
+    private final ObjectProvider<BatchLogBuffer<?>> buffers;
+
+    public BatchLogBufferMeterBinder(ObjectProvider<BatchLogBuffer<?>> buffers) {
+        this.buffers = buffers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        buffers.orderedStream().forEach(buffer -> {
+            Gauge.builder("yudao.log.buffer.size", buffer, BatchLogBuffer::getQueueSize)
+                    .tag("name", buffer.getName())
+                    .description("队列中待写入的日志数量")
+                    .register(registry);
+            FunctionCounter.builder("yudao.log.buffer.dropped", buffer, BatchLogBuffer::getDroppedCount)
+                    .tag("name", buffer.getName())
+                    .description("被丢弃的日志数量")
+                    .register(registry);
+        });
+    }
+
+}
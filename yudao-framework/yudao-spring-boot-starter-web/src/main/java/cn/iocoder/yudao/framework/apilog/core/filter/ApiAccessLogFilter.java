@@ -8,6 +8,7 @@ import cn.hutool.core.util.ArrayUtil;
 import cn.hutool.core.util.BooleanUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.apilog.core.annotation.ApiAccessLog;
+import cn.iocoder.yudao.framework.apilog.core.buffer.BatchLogBuffer;
 import cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiAccessLogCommonApi;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiAccessLogCreateReqDTO;
@@ -55,10 +56,19 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
 
     private final ApiAccessLogCommonApi apiAccessLogApi;
 
-    public ApiAccessLogFilter(WebProperties webProperties, String applicationName, ApiAccessLogCommonApi apiAccessLogApi) {
+    /**
+     * 访问日志的批量缓冲区
+     *
+     * 如果为 null，则每条访问日志，异步调用一次 {@link ApiAccessLogCommonApi#createApiAccessLogAsync(ApiAccessLogCreateReqDTO)}
+     */
+    private final BatchLogBuffer<ApiAccessLogCreateReqDTO> apiAccessLogBuffer;
+
+    public ApiAccessLogFilter(WebProperties webProperties, String applicationName, ApiAccessLogCommonApi apiAccessLogApi,
+                              BatchLogBuffer<ApiAccessLogCreateReqDTO> apiAccessLogBuffer) {
         super(webProperties);
         this.applicationName = applicationName;
         this.apiAccessLogApi = apiAccessLogApi;
+        this.apiAccessLogBuffer = apiAccessLogBuffer;
     }
 
     @Override
@@ -91,7 +101,11 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
             if (!enable) {
                 return;
             }
-            apiAccessLogApi.createApiAccessLogAsync(accessLog);
+            if (apiAccessLogBuffer != null) {
+                apiAccessLogBuffer.offer(accessLog);
+            } else {
+                apiAccessLogApi.createApiAccessLogAsync(accessLog);
+            }
         } catch (Throwable th) {
             log.error("[createApiAccessLog][url({}) log({}) 发生异常]", request.getRequestURI(), toJsonString(accessLog), th);
         }
@@ -123,7 +137,8 @@ public class ApiAccessLogFilter extends ApiRequestFilter {
             accessLog.setResultCode(GlobalErrorCodeConstants.SUCCESS.getCode()).setResultMsg("");
         }
         // 设置请求字段
-        accessLog.setTraceId(TracerUtils.getTraceId()).setApplicationName(applicationName)
+        accessLog.setTraceId(TracerUtils.getTraceId()).setTenantId(WebFrameworkUtils.getTenantId(request))
+                .setApplicationName(applicationName)
                 .setRequestUrl(request.getRequestURI()).setRequestMethod(request.getMethod())
                 .setUserAgent(ServletUtils.getUserAgent(request)).setUserIp(ServletUtils.getClientIP(request));
         String[] sanitizeKeys = accessLogAnnotation != null ? accessLogAnnotation.sanitizeKeys() : null;
@@ -5,6 +5,7 @@ import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.ObjUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.apilog.core.buffer.BatchLogBuffer;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiErrorLogCommonApi;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiErrorLogCreateReqDTO;
 import cn.iocoder.yudao.framework.common.exception.ServiceException;
@@ -66,6 +67,13 @@ public class GlobalExceptionHandler {
 
     private final ApiErrorLogCommonApi apiErrorLogApi;
 
+    /**
+     * 异常日志的批量缓冲区
+     *
+     * 如果为 null，则每条异常日志，异步调用一次 {@link ApiErrorLogCommonApi#createApiErrorLogAsync(ApiErrorLogCreateReqDTO)}
+     */
+    private final BatchLogBuffer<ApiErrorLogCreateReqDTO> apiErrorLogBuffer;
+
     /**
      * 处理所有异常，主要是提供给 Filter 使用
      * 因为 Filter 不走 SpringMVC 的流程，但是我们又需要兜底处理异常，所以这里提供一个全量的异常处理过程，保持逻辑统一。
@@ -333,7 +341,11 @@ public class GlobalExceptionHandler {
             // 初始化 errorLog
             buildExceptionLog(errorLog, req, e);
             // 执行插入 errorLog
-            apiErrorLogApi.createApiErrorLogAsync(errorLog);
+            if (apiErrorLogBuffer != null) {
+                apiErrorLogBuffer.offer(errorLog);
+            } else {
+                apiErrorLogApi.createApiErrorLogAsync(errorLog);
+            }
         } catch (Throwable th) {
             log.error("[createExceptionLog][url({}) log({}) 发生异常]", req.getRequestURI(),  JsonUtils.toJsonString(errorLog), th);
         }
@@ -357,6 +369,7 @@ public class GlobalExceptionHandler {
         errorLog.setExceptionLineNumber(stackTraceElement.getLineNumber());
         // 设置其它字段
         errorLog.setTraceId(TracerUtils.getTraceId());
+        errorLog.setTenantId(WebFrameworkUtils.getTenantId(request));
         errorLog.setApplicationName(applicationName);
         errorLog.setRequestUrl(request.getRequestURI());
         Map<String, Object> requestParams = MapUtil.<String, Object>builder()
@@ -0,0 +1,169 @@
+package cn.iocoder.yudao.framework.apilog.core.buffer;
+
+import cn.iocoder.yudao.framework.apilog.core.buffer.BatchLogBuffer.RejectPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link BatchLogBuffer} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class BatchLogBufferTest {
+
+    /**
+     * 批量写入的日志，每个元素是一批
+     */
+    private final BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+
+    private BatchLogBuffer<Integer> buffer;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (buffer != null) {
+            buffer.destroy();
+        }
+    }
+
+    @Test
+    public void testFlush_batchSize() throws InterruptedException {
+        // 准备参数：周期很长，只能按照数量触发
+        buffer = createBuffer(100, 3, Duration.ofHours(1), RejectPolicy.DROP_NEWEST);
+        buffer.afterPropertiesSet();
+        Thread.sleep(100); // 等待后台线程进入等待
+
+        // 调用：积攒满一批
+        buffer.offer(1);
+        buffer.offer(2);
+        buffer.offer(3);
+        // 断言：唤醒后台线程，批量写入
+        assertEquals(asList(1, 2, 3), batches.poll(5, TimeUnit.SECONDS));
+        assertEquals(0, buffer.getQueueSize());
+    }
+
+    @Test
+    public void testFlush_interval() throws InterruptedException {
+        // 准备参数：批量很大，只能按照周期触发
+        buffer = createBuffer(100, 100, Duration.ofMillis(50), RejectPolicy.DROP_NEWEST);
+        buffer.afterPropertiesSet();
+
+        // 调用：未积攒满一批
+        buffer.offer(1);
+        // 断言：到达周期后，写入未满的一批
+        assertEquals(singletonList(1), batches.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFlush_splitBatch() {
+        // 准备参数：不启动后台线程，手动写入
+        buffer = createBuffer(100, 2, Duration.ofHours(1), RejectPolicy.DROP_NEWEST);
+        IntStream.rangeClosed(1, 5).forEach(buffer::offer);
+
+        // 调用，并断言：每次最多写入 batchSize 条
+        assertEquals(2, buffer.flush());
+        assertEquals(2, buffer.flush());
+        assertEquals(1, buffer.flush());
+        assertEquals(0, buffer.flush());
+        assertEquals(asList(asList(1, 2), asList(3, 4), singletonList(5)), new ArrayList<>(batches));
+    }
+
+    @Test
+    public void testOffer_dropNewest() {
+        // 准备参数
+        buffer = createBuffer(2, 10, Duration.ofHours(1), RejectPolicy.DROP_NEWEST);
+
+        // 调用：队列满后继续写入
+        IntStream.rangeClosed(1, 3).forEach(buffer::offer);
+        // 断言：丢弃新写入的日志
+        assertEquals(2, buffer.getQueueSize());
+        assertEquals(1, buffer.getDroppedCount());
+        buffer.flush();
+        assertEquals(asList(1, 2), batches.poll());
+    }
+
+    @Test
+    public void testOffer_dropOldest() {
+        // 准备参数
+        buffer = createBuffer(2, 10, Duration.ofHours(1), RejectPolicy.DROP_OLDEST);
+
+        // 调用：队列满后继续写入
+        IntStream.rangeClosed(1, 3).forEach(buffer::offer);
+        // 断言：丢弃最老的日志
+        assertEquals(2, buffer.getQueueSize());
+        assertEquals(1, buffer.getDroppedCount());
+        buffer.flush();
+        assertEquals(asList(2, 3), batches.poll());
+    }
+
+    @Test
+    public void testOffer_callerRuns() {
+        // 准备参数
+        AtomicReference<Thread> consumeThread = new AtomicReference<>();
+        buffer = new BatchLogBuffer<>("test", 1, 10, Duration.ofHours(1), RejectPolicy.CALLER_RUNS, batch -> {
+            consumeThread.set(Thread.currentThread());
+            batches.add(batch);
+        });
+
+        // 调用：队列满后继续写入
+        buffer.offer(1);
+        buffer.offer(2);
+        // 断言：由写入线程同步写入，不丢弃
+        assertEquals(singletonList(2), batches.poll());
+        assertSame(Thread.currentThread(), consumeThread.get());
+        assertEquals(1, buffer.getQueueSize());
+        assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void testFlush_exception() {
+        // 准备参数
+        buffer = new BatchLogBuffer<>("test", 10, 10, Duration.ofHours(1), RejectPolicy.DROP_NEWEST, batch -> {
+            throw new RuntimeException("写入失败");
+        });
+        buffer.offer(1);
+        buffer.offer(2);
+
+        // 调用：写入失败，不抛出异常
+        assertEquals(2, buffer.flush());
+        // 断言：计入丢弃数量，不重试
+        assertEquals(2, buffer.getDroppedCount());
+        assertEquals(0, buffer.getQueueSize());
+    }
+
+    @Test
+    public void testDestroy_drain() throws InterruptedException {
+        // 准备参数：后台线程运行中，但未到达周期、未积攒满一批
+        buffer = createBuffer(100, 10, Duration.ofHours(1), RejectPolicy.DROP_NEWEST);
+        buffer.afterPropertiesSet();
+        IntStream.rangeClosed(1, 25).forEach(buffer::offer);
+
+        // 调用
+        buffer.destroy();
+        // 断言：关闭前，写入剩余的全部日志
+        List<Integer> items = batches.stream().flatMap(List::stream).sorted().collect(Collectors.toList());
+        assertEquals(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()), items);
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 10));
+        assertEquals(0, buffer.getQueueSize());
+        buffer = null;
+    }
+
+    private BatchLogBuffer<Integer> createBuffer(int capacity, int batchSize, Duration flushInterval,
+                                                 RejectPolicy rejectPolicy) {
+        return new BatchLogBuffer<>("test", capacity, batchSize, flushInterval, rejectPolicy, batches::add);
+    }
+
+}
@@ -1,11 +1,15 @@
 package cn.iocoder.yudao.framework.websocket.config;
 
+import cn.iocoder.yudao.framework.websocket.core.enums.WebSocketOverflowPolicyEnum;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * WebSocket 配置项
@@ -31,4 +35,31 @@ public class WebSocketProperties {
     @NotNull(message = "WebSocket 的消息发送者不能为空")
     private String senderType = "local";
 
+    /**
+     * 消息分发的线程数
+     */
+    @NotNull(message = "WebSocket 的消息分发线程数不能为空")
+    @Min(value = 1, message = "WebSocket 的消息分发线程数不能小于 1")
+    private Integer dispatcherThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * 每个 Session 的发送队列长度
+     */
+    @NotNull(message = "WebSocket 的发送队列长度不能为空")
+    @Min(value = 1, message = "WebSocket 的发送队列长度不能小于 1")
+    private Integer sendQueueCapacity = 256;
+
+    /**
+     * 发送队列满时的处理策略
+     */
+    @NotNull(message = "WebSocket 的发送队列溢出策略不能为空")
+    private WebSocketOverflowPolicyEnum sendQueueOverflowPolicy = WebSocketOverflowPolicyEnum.DROP_OLDEST;
+
+    /**
+     * 可合并的消息类型
+     *
+     * 这些类型的消息，在发送队列中尚未发送时，只保留最新的一条，适合推送“最新状态”的场景
+     */
+    private List<String> coalesceMessageTypes = Collections.emptyList();
+
 }
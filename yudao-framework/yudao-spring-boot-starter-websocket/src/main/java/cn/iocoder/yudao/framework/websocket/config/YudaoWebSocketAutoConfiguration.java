@@ -2,6 +2,7 @@ package cn.iocoder.yudao.framework.websocket.config;
 
 import cn.iocoder.yudao.framework.mq.redis.config.YudaoRedisMQConsumerAutoConfiguration;
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.websocket.core.dispatcher.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.handler.JsonWebSocketMessageHandler;
 import cn.iocoder.yudao.framework.websocket.core.listener.WebSocketMessageListener;
 import cn.iocoder.yudao.framework.websocket.core.security.LoginUserHandshakeInterceptor;
@@ -77,6 +78,13 @@ public class YudaoWebSocketAutoConfiguration {
         return new WebSocketSessionManagerImpl();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public WebSocketMessageDispatcher webSocketMessageDispatcher(WebSocketProperties webSocketProperties) {
+        return new WebSocketMessageDispatcher(webSocketProperties.getDispatcherThreads(),
+                webSocketProperties.getSendQueueCapacity(), webSocketProperties.getSendQueueOverflowPolicy(),
+                webSocketProperties.getCoalesceMessageTypes());
+    }
+
     @Bean
     public WebSocketAuthorizeRequestsCustomizer webSocketAuthorizeRequestsCustomizer(WebSocketProperties webSocketProperties) {
         return new WebSocketAuthorizeRequestsCustomizer(webSocketProperties);
@@ -89,8 +97,9 @@ public class YudaoWebSocketAutoConfiguration {
     public class LocalWebSocketMessageSenderConfiguration {
 
         @Bean
-        public LocalWebSocketMessageSender localWebSocketMessageSender(WebSocketSessionManager sessionManager) {
-            return new LocalWebSocketMessageSender(sessionManager);
+        public LocalWebSocketMessageSender localWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                                                       WebSocketMessageDispatcher dispatcher) {
+            return new LocalWebSocketMessageSender(sessionManager, dispatcher);
         }
 
     }
@@ -101,8 +110,9 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RedisWebSocketMessageSender redisWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                                                       WebSocketMessageDispatcher dispatcher,
                                                                        RedisMQTemplate redisMQTemplate) {
-            return new RedisWebSocketMessageSender(sessionManager, redisMQTemplate);
+            return new RedisWebSocketMessageSender(sessionManager, dispatcher, redisMQTemplate);
         }
 
         @Bean
@@ -119,9 +129,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RocketMQWebSocketMessageSender rocketMQWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, RocketMQTemplate rocketMQTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher dispatcher,
+                RocketMQTemplate rocketMQTemplate,
                 @Value("${yudao.websocket.sender-rocketmq.topic}") String topic) {
-            return new RocketMQWebSocketMessageSender(sessionManager, rocketMQTemplate, topic);
+            return new RocketMQWebSocketMessageSender(sessionManager, dispatcher, rocketMQTemplate, topic);
         }
 
         @Bean
@@ -138,9 +149,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public RabbitMQWebSocketMessageSender rabbitMQWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, RabbitTemplate rabbitTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher dispatcher,
+                RabbitTemplate rabbitTemplate,
                 TopicExchange websocketTopicExchange) {
-            return new RabbitMQWebSocketMessageSender(sessionManager, rabbitTemplate, websocketTopicExchange);
+            return new RabbitMQWebSocketMessageSender(sessionManager, dispatcher, rabbitTemplate, websocketTopicExchange);
         }
 
         @Bean
@@ -167,9 +179,10 @@ public class YudaoWebSocketAutoConfiguration {
 
         @Bean
         public KafkaWebSocketMessageSender kafkaWebSocketMessageSender(
-                WebSocketSessionManager sessionManager, KafkaTemplate<Object, Object> kafkaTemplate,
+                WebSocketSessionManager sessionManager, WebSocketMessageDispatcher dispatcher,
+                KafkaTemplate<Object, Object> kafkaTemplate,
                 @Value("${yudao.websocket.sender-kafka.topic}") String topic) {
-            return new KafkaWebSocketMessageSender(sessionManager, kafkaTemplate, topic);
+            return new KafkaWebSocketMessageSender(sessionManager, dispatcher, kafkaTemplate, topic);
         }
 
         @Bean
@@ -0,0 +1,290 @@
+package cn.iocoder.yudao.framework.websocket.core.dispatcher;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.iocoder.yudao.framework.websocket.core.enums.WebSocketOverflowPolicyEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket 消息分发器
+ *
+ * 每个 Session 拥有一个有界的发送队列，由线程池异步排空，从而：
+ * 1. 调用方（例如说广播）只负责入队，不会被某个慢客户端阻塞
+ * 2. 同一个 Session 同一时刻只有一个线程在发送，保证顺序
+ * 3. 队列满时，按照 {@link WebSocketOverflowPolicyEnum} 丢弃最旧消息或断开连接
+ * 4. 配置为可合并的消息类型，在队列中尚未发送时，只保留最新的一条
+ *
+ * 同一个 {@link WebSocketMessage} 可以分发给多个 Session 共享，不会被重复序列化
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class WebSocketMessageDispatcher {
+
+    /**
+     * Session 发送队列，在 {@link WebSocketSession#getAttributes()} 中的 key
+     *
+     * 放在 Session 属性中，可以随 Session 一起回收，无需额外清理
+     */
+    private static final String ATTRIBUTE_OUTBOUND = "WEBSOCKET_OUTBOUND";
+
+    /**
+     * 单次排空的最大消息数；超过后重新提交任务，避免个别繁忙的 Session 长时间占用线程
+     */
+    private static final int DRAIN_LIMIT = 64;
+
+    private final int queueCapacity;
+    private final WebSocketOverflowPolicyEnum overflowPolicy;
+    /**
+     * 可合并的消息类型
+     */
+    private final Set<String> coalesceMessageTypes;
+
+    private final ExecutorService executor;
+
+    public WebSocketMessageDispatcher(int threads, int queueCapacity,
+                                      WebSocketOverflowPolicyEnum overflowPolicy,
+                                      Collection<String> coalesceMessageTypes) {
+        Assert.isTrue(threads > 0, "threads({}) 需要大于 0", threads);
+        Assert.isTrue(queueCapacity > 0, "queueCapacity({}) 需要大于 0", queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = Assert.notNull(overflowPolicy, "overflowPolicy 不能为空");
+        this.coalesceMessageTypes = CollUtil.isEmpty(coalesceMessageTypes) ? Collections.emptySet()
+                : new HashSet<>(coalesceMessageTypes);
+        // 每个 Session 最多只有一个待执行的任务，所以任务队列的长度不会超过 Session 数量
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("websocket-dispatcher-", true));
+    }
+
+    /**
+     * 分发消息到多个 Session
+     *
+     * @param sessions    Session 列表
+     * @param messageType 消息类型，用于判断是否可合并
+     * @param message     消息，多个 Session 共享
+     */
+    public void dispatch(Collection<WebSocketSession> sessions, String messageType, WebSocketMessage<?> message) {
+        String coalesceKey = messageType != null && coalesceMessageTypes.contains(messageType) ? messageType : null;
+        for (WebSocketSession session : sessions) {
+            if (session == null) {
+                continue;
+            }
+            if (!session.isOpen()) {
+                log.warn("[dispatch][session({}) 已关闭, messageType({})]", session.getId(), messageType);
+                continue;
+            }
+            getOutbound(session).enqueue(coalesceKey, message);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 获得 Session 发送队列中待发送的消息数量
+     *
+     * @param session Session
+     * @return 消息数量
+     */
+    int getQueueSize(WebSocketSession session) {
+        Object outbound = session.getAttributes().get(ATTRIBUTE_OUTBOUND);
+        return outbound != null ? ((SessionOutbound) outbound).size.get() : 0;
+    }
+
+    private SessionOutbound getOutbound(WebSocketSession session) {
+        // AbstractWebSocketSession 的 attributes 是 ConcurrentHashMap，computeIfAbsent 是原子的
+        return (SessionOutbound) session.getAttributes().computeIfAbsent(ATTRIBUTE_OUTBOUND,
+                key -> new SessionOutbound(session));
+    }
+
+    /**
+     * 单个 Session 的发送队列
+     */
+    private final class SessionOutbound implements Runnable {
+
+        private final WebSocketSession session;
+
+        private final Deque<Entry> queue = new ConcurrentLinkedDeque<>();
+        /**
+         * 队列长度；ConcurrentLinkedDeque 的 size 方法是 O(n) 的，所以单独计数
+         */
+        private final AtomicInteger size = new AtomicInteger();
+        /**
+         * 队列中尚未发送的可合并消息
+         *
+         * key：合并的 key，即消息类型
+         */
+        private final Map<String, Entry> pendingEntries = new ConcurrentHashMap<>();
+        /**
+         * 是否已提交排空任务
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        /**
+         * 是否已因为队列溢出而关闭
+         */
+        private volatile boolean closed;
+
+        SessionOutbound(WebSocketSession session) {
+            this.session = session;
+        }
+
+        void enqueue(String coalesceKey, WebSocketMessage<?> message) {
+            if (closed) {
+                return;
+            }
+            // 1. 合并：队列中已有同 key 的消息，直接替换为最新的
+            if (coalesceKey != null) {
+                Entry pending = pendingEntries.get(coalesceKey);
+                if (pending != null) {
+                    pending.message = message;
+                    // 替换后仍在队列中，说明一定会发送新值；否则已经被取走，需要重新入队
+                    if (pendingEntries.get(coalesceKey) == pending) {
+                        return;
+                    }
+                }
+            }
+
+            // 2. 队列已满，按照策略处理
+            if (size.incrementAndGet() > queueCapacity) {
+                if (overflowPolicy == WebSocketOverflowPolicyEnum.DISCONNECT) {
+                    size.decrementAndGet();
+                    disconnect();
+                    return;
+                }
+                Entry oldest = queue.pollFirst();
+                if (oldest != null) {
+                    size.decrementAndGet();
+                    removePending(oldest);
+                    log.warn("[enqueue][session({}) 发送队列已满({})，丢弃最旧的消息]", session.getId(), queueCapacity);
+                }
+            }
+
+            // 3. 入队，并提交排空任务
+            Entry entry = new Entry(coalesceKey, message);
+            if (coalesceKey != null) {
+                pendingEntries.put(coalesceKey, entry);
+            }
+            queue.offerLast(entry);
+            schedule();
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < DRAIN_LIMIT; i++) {
+                    Entry entry = queue.pollFirst();
+                    if (entry == null) {
+                        break;
+                    }
+                    size.decrementAndGet();
+                    // 先移除，再读取 message，保证合并时替换的值不会丢失
+                    removePending(entry);
+                    send(entry.message);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // 还有剩余的消息（包括排空期间新入队的），重新提交
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void send(WebSocketMessage<?> message) {
+            if (!session.isOpen()) {
+                clear();
+                return;
+            }
+            try {
+                session.sendMessage(message);
+                if (log.isDebugEnabled()) {
+                    log.debug("[send][session({}) 发送消息成功，payloadLength({})]", session.getId(), message.getPayloadLength());
+                }
+            } catch (Exception ex) {
+                // 包括 ConcurrentWebSocketSessionDecorator 超时、超出缓冲上限时抛出的 SessionLimitExceededException
+                log.error("[send][session({}) 发送消息失败]", session.getId(), ex);
+            }
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException ex) {
+                scheduled.set(false);
+                log.error("[schedule][session({}) 提交发送任务失败]", session.getId(), ex);
+            }
+        }
+
+        private void disconnect() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            clear();
+            log.warn("[disconnect][session({}) 发送队列已满({})，断开连接]", session.getId(), queueCapacity);
+            try {
+                // 在线程池中关闭，避免阻塞调用方
+                executor.execute(() -> {
+                    try {
+                        session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                    } catch (Exception ex) {
+                        log.error("[disconnect][session({}) 关闭失败]", session.getId(), ex);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                log.error("[disconnect][session({}) 提交关闭任务失败]", session.getId(), ex);
+            }
+        }
+
+        private void clear() {
+            while (queue.pollFirst() != null) {
+                size.decrementAndGet();
+            }
+            pendingEntries.clear();
+        }
+
+        private void removePending(Entry entry) {
+            if (entry.coalesceKey != null) {
+                pendingEntries.remove(entry.coalesceKey, entry);
+            }
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final String coalesceKey;
+        private volatile WebSocketMessage<?> message;
+
+        Entry(String coalesceKey, WebSocketMessage<?> message) {
+            this.coalesceKey = coalesceKey;
+            this.message = message;
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package cn.iocoder.yudao.framework.websocket.core.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * WebSocket Session 发送队列满时的处理策略枚举
+ *
+ * @author 芋道源码
+ */
+@Getter
+@AllArgsConstructor
+public enum WebSocketOverflowPolicyEnum {
+
+    /**
+     * 丢弃队列中最旧的消息，再加入新消息
+     *
+     * 适合推送“最新状态”的场景，慢客户端只会丢失中间状态
+     */
+    DROP_OLDEST("丢弃最旧消息"),
+    /**
+     * 关闭该 Session，由客户端重连后重新拉取数据
+     *
+     * 适合不允许丢消息的场景
+     */
+    DISCONNECT("断开连接");
+
+    /**
+     * 名字
+     */
+    private final String name;
+
+}
@@ -3,6 +3,7 @@ package cn.iocoder.yudao.framework.websocket.core.sender;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.websocket.core.dispatcher.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.message.JsonWebSocketMessage;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
 import lombok.RequiredArgsConstructor;
@@ -10,10 +11,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 /**
  * WebSocketMessageSender 实现类
@@ -25,6 +24,7 @@ import java.util.List;
 public abstract class AbstractWebSocketMessageSender implements WebSocketMessageSender {
 
     private final WebSocketSessionManager sessionManager;
+    private final WebSocketMessageDispatcher dispatcher;
 
     @Override
     public void send(Integer userType, Long userId, String messageType, String messageContent) {
@@ -52,16 +52,16 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
      */
     public void send(String sessionId, Integer userType, Long userId, String messageType, String messageContent) {
         // 1. 获得 Session 列表
-        List<WebSocketSession> sessions = Collections.emptyList();
+        Collection<WebSocketSession> sessions = Collections.emptyList();
         if (StrUtil.isNotEmpty(sessionId)) {
             WebSocketSession session = sessionManager.getSession(sessionId);
             if (session != null) {
                 sessions = Collections.singletonList(session);
             }
         } else if (userType != null && userId != null) {
-            sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType, userId);
+            sessions = sessionManager.getSessionList(userType, userId);
         } else if (userType != null) {
-            sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType);
+            sessions = sessionManager.getSessionList(userType);
         }
         if (CollUtil.isEmpty(sessions)) {
             if (log.isDebugEnabled()) {
@@ -76,31 +76,23 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
     /**
      * 发送消息的具体实现
      *
+     * 消息只序列化一次，构建的 {@link TextMessage} 由所有 Session 共享，再交给 {@link WebSocketMessageDispatcher} 异步发送
+     *
      * @param sessions Session 列表
      * @param messageType 消息类型
      * @param messageContent 消息内容
      */
     public void doSend(Collection<WebSocketSession> sessions, String messageType, String messageContent) {
+        if (CollUtil.isEmpty(sessions)) {
+            return;
+        }
         JsonWebSocketMessage message = new JsonWebSocketMessage().setType(messageType).setContent(messageContent);
-        String payload = JsonUtils.toJsonString(message); // 关键，使用 JSON 序列化
-        sessions.forEach(session -> {
-            // 1. 各种校验，保证 Session 可以被发送
-            if (session == null) {
-                log.error("[doSend][session 为空, message({})]", message);
-                return;
-            }
-            if (!session.isOpen()) {
-                log.error("[doSend][session({}) 已关闭, message({})]", session.getId(), message);
-                return;
-            }
-            // 2. 执行发送
-            try {
-                session.sendMessage(new TextMessage(payload));
-                log.info("[doSend][session({}) 发送消息成功，message({})]", session.getId(), message);
-            } catch (IOException ex) {
-                log.error("[doSend][session({}) 发送消息失败，message({})]", session.getId(), message, ex);
-            }
-        });
+        // 关键，使用 JSON 序列化；使用 byte[] 构建，TextMessage 会缓存编码后的字节，发送给多个 Session 时无需重复编码
+        TextMessage textMessage = new TextMessage(JsonUtils.toJsonByte(message));
+        dispatcher.dispatch(sessions, messageType, textMessage);
+        if (log.isDebugEnabled()) {
+            log.debug("[doSend][sessions({}) 提交发送消息，message({})]", sessions.size(), message);
+        }
     }
 
 }
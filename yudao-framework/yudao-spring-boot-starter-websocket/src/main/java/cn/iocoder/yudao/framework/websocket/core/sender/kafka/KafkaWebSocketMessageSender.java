@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.websocket.core.sender.kafka;
 
+import cn.iocoder.yudao.framework.websocket.core.dispatcher.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.sender.AbstractWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
@@ -21,9 +22,10 @@ public class KafkaWebSocketMessageSender extends AbstractWebSocketMessageSender
     private final String topic;
 
     public KafkaWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                       WebSocketMessageDispatcher dispatcher,
                                        KafkaTemplate<Object, Object> kafkaTemplate,
                                        String topic) {
-        super(sessionManager);
+        super(sessionManager, dispatcher);
         this.kafkaTemplate = kafkaTemplate;
         this.topic = topic;
     }
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.websocket.core.sender.rabbitmq;
 
+import cn.iocoder.yudao.framework.websocket.core.dispatcher.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.sender.AbstractWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
@@ -20,9 +21,10 @@ public class RabbitMQWebSocketMessageSender extends AbstractWebSocketMessageSend
     private final TopicExchange topicExchange;
 
     public RabbitMQWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                          WebSocketMessageDispatcher dispatcher,
                                           RabbitTemplate rabbitTemplate,
                                           TopicExchange topicExchange) {
-        super(sessionManager);
+        super(sessionManager, dispatcher);
         this.rabbitTemplate = rabbitTemplate;
         this.topicExchange = topicExchange;
     }
@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.framework.websocket.core.sender.redis;
 
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.websocket.core.dispatcher.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.sender.AbstractWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
@@ -17,8 +18,9 @@ public class RedisWebSocketMessageSender extends AbstractWebSocketMessageSender
     private final RedisMQTemplate redisMQTemplate;
 
     public RedisWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                       WebSocketMessageDispatcher dispatcher,
                                        RedisMQTemplate redisMQTemplate) {
-        super(sessionManager);
+        super(sessionManager, dispatcher);
         this.redisMQTemplate = redisMQTemplate;
     }
 
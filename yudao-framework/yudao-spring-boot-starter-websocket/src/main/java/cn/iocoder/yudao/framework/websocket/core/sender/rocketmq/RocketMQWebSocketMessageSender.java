@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.framework.websocket.core.sender.rocketmq;
 
+import cn.iocoder.yudao.framework.websocket.core.dispatcher.WebSocketMessageDispatcher;
 import cn.iocoder.yudao.framework.websocket.core.sender.AbstractWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
@@ -19,9 +20,10 @@ public class RocketMQWebSocketMessageSender extends AbstractWebSocketMessageSend
     private final String topic;
 
     public RocketMQWebSocketMessageSender(WebSocketSessionManager sessionManager,
+                                          WebSocketMessageDispatcher dispatcher,
                                           RocketMQTemplate rocketMQTemplate,
                                           String topic) {
-        super(sessionManager);
+        super(sessionManager, dispatcher);
         this.rocketMQTemplate = rocketMQTemplate;
         this.topic = topic;
     }
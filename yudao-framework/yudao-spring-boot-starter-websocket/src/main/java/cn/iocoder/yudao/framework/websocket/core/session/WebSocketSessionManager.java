@@ -36,6 +36,8 @@ public interface WebSocketSessionManager {
     /**
      * 获得指定用户类型的 Session 列表
      *
+     * 如果当前上下文存在租户，则只返回该租户的 Session。返回结果可能是只读的视图，不允许修改
+     *
      * @param userType 用户类型
      * @return Session 列表
      */
@@ -8,8 +8,7 @@ import org.springframework.web.socket.WebSocketSession;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -37,6 +36,25 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
     private final ConcurrentMap<Integer, ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>>> userSessions
             = new ConcurrentHashMap<>();
 
+    /**
+     * userType 与 WebSocketSession 映射，用于按照用户类型广播，无需遍历用户
+     *
+     * key1：用户类型
+     * key2：Session 编号
+     */
+    private final ConcurrentMap<Integer, ConcurrentMap<String, WebSocketSession>> userTypeSessions
+            = new ConcurrentHashMap<>();
+
+    /**
+     * tenant 与 WebSocketSession 映射，用于按照租户广播，无需逐个用户比对租户
+     *
+     * key1：用户类型
+     * key2：租户编号
+     * key3：Session 编号
+     */
+    private final ConcurrentMap<Integer, ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>>> tenantSessions
+            = new ConcurrentHashMap<>();
+
     @Override
     public void addSession(WebSocketSession session) {
         // 添加到 idSessions 中
@@ -61,13 +79,22 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
             }
         }
         sessions.add(session);
+        // 添加到 userTypeSessions、tenantSessions 中
+        userTypeSessions.computeIfAbsent(user.getUserType(), key -> new ConcurrentHashMap<>())
+                .put(session.getId(), session);
+        Long tenantId = WebSocketFrameworkUtils.getTenantId(session);
+        if (tenantId != null) {
+            tenantSessions.computeIfAbsent(user.getUserType(), key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(tenantId, key -> new ConcurrentHashMap<>())
+                    .put(session.getId(), session);
+        }
     }
 
     @Override
     public void removeSession(WebSocketSession session) {
         // 移除从 idSessions 中
         idSessions.remove(session.getId());
-        // 移除从 idSessions 中
+        // 移除从 userSessions 中
         LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
         if (user == null) {
             return;
@@ -77,9 +104,27 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
             return;
         }
         CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(user.getId());
-        sessions.removeIf(session0 -> session0.getId().equals(session.getId()));
-        if (CollUtil.isEmpty(sessions)) {
-            userSessionsMap.remove(user.getId(), sessions);
+        if (sessions != null) {
+            sessions.removeIf(session0 -> session0.getId().equals(session.getId()));
+            if (CollUtil.isEmpty(sessions)) {
+                userSessionsMap.remove(user.getId(), sessions);
+            }
+        }
+        // 移除从 userTypeSessions、tenantSessions 中
+        ConcurrentMap<String, WebSocketSession> typeSessions = userTypeSessions.get(user.getUserType());
+        if (typeSessions != null) {
+            typeSessions.remove(session.getId());
+        }
+        Long tenantId = WebSocketFrameworkUtils.getTenantId(session);
+        ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>> tenantSessionsMap = tenantSessions.get(user.getUserType());
+        if (tenantId != null && tenantSessionsMap != null) {
+            ConcurrentMap<String, WebSocketSession> sessions0 = tenantSessionsMap.get(tenantId);
+            if (sessions0 != null) {
+                sessions0.remove(session.getId());
+                if (sessions0.isEmpty()) {
+                    tenantSessionsMap.remove(tenantId, sessions0);
+                }
+            }
         }
     }
 
@@ -90,26 +135,18 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
 
     @Override
     public Collection<WebSocketSession> getSessionList(Integer userType) {
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(userType);
-        if (CollUtil.isEmpty(userSessionsMap)) {
-            return new ArrayList<>();
-        }
-        LinkedList<WebSocketSession> result = new LinkedList<>(); // 避免扩容
+        // 特殊：如果存在租户，则只返回该租户的 Session
         Long contextTenantId = TenantContextHolder.getTenantId();
-        for (List<WebSocketSession> sessions : userSessionsMap.values()) {
-            if (CollUtil.isEmpty(sessions)) {
-                continue;
-            }
-            // 特殊：如果租户不匹配，则直接排除
-            if (contextTenantId != null) {
-                Long userTenantId = WebSocketFrameworkUtils.getTenantId(sessions.get(0));
-                if (!contextTenantId.equals(userTenantId)) {
-                    continue;
-                }
-            }
-            result.addAll(sessions);
+        ConcurrentMap<String, WebSocketSession> sessions;
+        if (contextTenantId != null) {
+            ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>> tenantSessionsMap = tenantSessions.get(userType);
+            sessions = tenantSessionsMap != null ? tenantSessionsMap.get(contextTenantId) : null;
+        } else {
+            sessions = userTypeSessions.get(userType);
         }
-        return result;
+        // 直接返回只读视图，避免广播时复制整个列表
+        return CollUtil.isNotEmpty(sessions) ? Collections.unmodifiableCollection(sessions.values())
+                : Collections.emptyList();
     }
 
     @Override
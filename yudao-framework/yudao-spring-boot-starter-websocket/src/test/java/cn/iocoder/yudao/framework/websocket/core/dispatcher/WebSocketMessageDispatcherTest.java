@@ -0,0 +1,212 @@
+package cn.iocoder.yudao.framework.websocket.core.dispatcher;
+
+import cn.iocoder.yudao.framework.websocket.core.enums.WebSocketOverflowPolicyEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link WebSocketMessageDispatcher} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class WebSocketMessageDispatcherTest {
+
+    /**
+     * 发送该内容的消息时，阻塞发送线程，直到 {@link TestSession#release} 被释放
+     */
+    private static final String BLOCK = "block";
+
+    private WebSocketMessageDispatcher dispatcher;
+
+    @AfterEach
+    public void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testDispatch_order() throws InterruptedException {
+        // 准备参数：多个线程、多个 Session
+        dispatcher = new WebSocketMessageDispatcher(4, 1000, WebSocketOverflowPolicyEnum.DROP_OLDEST, null);
+        List<TestSession> sessions = asList(new TestSession("1"), new TestSession("2"), new TestSession("3"));
+        List<WebSocketSession> webSocketSessions = sessions.stream().map(session -> session.session)
+                .collect(Collectors.toList());
+        List<String> payloads = IntStream.range(0, 500).mapToObj(String::valueOf).collect(Collectors.toList());
+
+        // 调用
+        payloads.forEach(payload -> dispatcher.dispatch(webSocketSessions, "order", new TextMessage(payload)));
+
+        // 断言：每个 Session 按照分发的顺序收到全部消息
+        for (TestSession session : sessions) {
+            waitUntil(() -> session.sent.size() == payloads.size());
+            assertEquals(payloads, session.sent);
+            assertEquals(0, dispatcher.getQueueSize(session.session));
+        }
+    }
+
+    @Test
+    public void testDispatch_dropOldest() throws Exception {
+        // 准备参数：发送线程阻塞在第一条消息
+        dispatcher = new WebSocketMessageDispatcher(1, 2, WebSocketOverflowPolicyEnum.DROP_OLDEST, null);
+        TestSession session = new TestSession("1");
+        dispatchAndBlock(session);
+
+        // 调用：队列满后继续分发
+        dispatch(session, "other", "a", "b", "c");
+        // 断言：丢弃最旧的消息
+        assertEquals(2, dispatcher.getQueueSize(session.session));
+        session.release.countDown();
+        waitUntil(() -> session.sent.size() == 3);
+        assertEquals(asList(BLOCK, "b", "c"), session.sent);
+        verify(session.session, never()).close(any(CloseStatus.class));
+    }
+
+    @Test
+    public void testDispatch_disconnect() throws Exception {
+        // 准备参数：发送线程阻塞在第一条消息
+        dispatcher = new WebSocketMessageDispatcher(1, 2, WebSocketOverflowPolicyEnum.DISCONNECT, null);
+        TestSession session = new TestSession("1");
+        dispatchAndBlock(session);
+
+        // 调用：队列满后继续分发
+        dispatch(session, "other", "a", "b", "c");
+        // 断言：清空队列，并关闭 Session
+        assertEquals(0, dispatcher.getQueueSize(session.session));
+        session.release.countDown();
+        verify(session.session, timeout(5000)).close(eq(CloseStatus.SESSION_NOT_RELIABLE));
+        assertEquals(Collections.singletonList(BLOCK), session.sent);
+
+        // 调用：关闭后继续分发
+        dispatch(session, "other", "d");
+        // 断言：不再入队
+        assertEquals(0, dispatcher.getQueueSize(session.session));
+    }
+
+    @Test
+    public void testDispatch_coalesce() throws InterruptedException {
+        // 准备参数：price 类型的消息可合并
+        dispatcher = new WebSocketMessageDispatcher(1, 10, WebSocketOverflowPolicyEnum.DROP_OLDEST,
+                Collections.singletonList("price"));
+        TestSession session = new TestSession("1");
+        dispatchAndBlock(session);
+
+        // 调用：发送线程阻塞期间，分发多条同类型的消息
+        dispatch(session, "price", "p1", "p2", "p3");
+        dispatch(session, "other", "o1", "o2");
+        // 断言：可合并的消息只占一个位置
+        assertEquals(3, dispatcher.getQueueSize(session.session));
+        session.release.countDown();
+        waitUntil(() -> session.sent.size() == 4);
+        // 断言：可合并的消息只发送最新的一条，并保持入队的位置；不可合并的消息全部发送
+        assertEquals(asList(BLOCK, "p3", "o1", "o2"), session.sent);
+
+        // 调用：已经发送后，同类型的消息重新入队
+        dispatch(session, "price", "p4");
+        // 断言
+        waitUntil(() -> session.sent.size() == 5);
+        assertEquals("p4", session.sent.get(4));
+    }
+
+    @Test
+    public void testDispatch_sessionClosed() throws InterruptedException {
+        // 准备参数：发送线程阻塞在第一条消息
+        dispatcher = new WebSocketMessageDispatcher(1, 10, WebSocketOverflowPolicyEnum.DROP_OLDEST, null);
+        TestSession session = new TestSession("1");
+        dispatchAndBlock(session);
+        dispatch(session, "other", "a", "b");
+
+        // 调用：发送期间，Session 被关闭
+        session.open.set(false);
+        session.release.countDown();
+        // 断言：清空剩余的消息，不再发送
+        waitUntil(() -> dispatcher.getQueueSize(session.session) == 0);
+        assertEquals(Collections.singletonList(BLOCK), session.sent);
+
+        // 调用：分发给已关闭的 Session
+        dispatch(session, "other", "c");
+        // 断言：直接跳过
+        assertEquals(0, dispatcher.getQueueSize(session.session));
+        assertEquals(Collections.singletonList(BLOCK), session.sent);
+    }
+
+    /**
+     * 分发一条消息，并等待发送线程阻塞在该消息上
+     */
+    private void dispatchAndBlock(TestSession session) throws InterruptedException {
+        dispatch(session, "other", BLOCK);
+        assertTrue(session.blocked.await(5, TimeUnit.SECONDS));
+    }
+
+    private void dispatch(TestSession session, String messageType, String... payloads) {
+        Arrays.stream(payloads).forEach(payload -> dispatcher.dispatch(Collections.singletonList(session.session),
+                messageType, new TextMessage(payload)));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * 记录发送内容的 Session
+     */
+    private static class TestSession {
+
+        private final WebSocketSession session = mock(WebSocketSession.class);
+
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        /**
+         * 发送线程阻塞在 {@link #BLOCK} 消息上
+         */
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        /**
+         * 释放阻塞的发送线程
+         */
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        TestSession(String id) {
+            when(session.getId()).thenReturn(id);
+            when(session.getAttributes()).thenReturn(new ConcurrentHashMap<>());
+            when(session.isOpen()).thenAnswer(invocation -> open.get());
+            try {
+                doAnswer(invocation -> {
+                    String payload = ((TextMessage) invocation.getArgument(0)).getPayload();
+                    sent.add(payload);
+                    if (BLOCK.equals(payload)) {
+                        blocked.countDown();
+                        assertTrue(release.await(5, TimeUnit.SECONDS));
+                    }
+                    return null;
+                }).when(session).sendMessage(any());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+    }
+
+}
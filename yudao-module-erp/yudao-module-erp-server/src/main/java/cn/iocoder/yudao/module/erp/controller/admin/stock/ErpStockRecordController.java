@@ -3,7 +3,6 @@ package cn.iocoder.yudao.module.erp.controller.admin.stock;
 import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.apilog.core.annotation.ApiAccessLog;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
-import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.MapUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
@@ -32,8 +31,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
@@ -78,23 +76,26 @@ public class ErpStockRecordController {
     @ApiAccessLog(operateType = EXPORT)
     public void exportStockRecordExcel(@Valid ErpStockRecordPageReqVO pageReqVO,
               HttpServletResponse response) throws IOException {
-        pageReqVO.setPageSize(PageParam.PAGE_SIZE_NONE);
-        List<ErpStockRecordRespVO> list = buildStockRecrodVOPageResult(stockRecordService.getStockRecordPage(pageReqVO)).getList();
-        // 导出 Excel
-        ExcelUtils.write(response, "产品库存明细.xls", "数据", ErpStockRecordRespVO.class, list);
+        // 导出 Excel：库存明细的数据量较大，基于编号游标分批查询、流式写入，避免一次性加载到内存，也避免深分页和 COUNT 查询
+        ExcelUtils.writeIterable(response, "产品库存明细.xls", "数据", ErpStockRecordRespVO.class,
+                () -> new StockRecordExportIterator(pageReqVO));
     }
 
     private PageResult<ErpStockRecordRespVO> buildStockRecrodVOPageResult(PageResult<ErpStockRecordDO> pageResult) {
         if (CollUtil.isEmpty(pageResult.getList())) {
             return PageResult.empty(pageResult.getTotal());
         }
+        return new PageResult<>(buildStockRecordVOList(pageResult.getList()), pageResult.getTotal());
+    }
+
+    private List<ErpStockRecordRespVO> buildStockRecordVOList(List<ErpStockRecordDO> list) {
         Map<Long, ErpProductRespVO> productMap = productService.getProductVOMap(
-                convertSet(pageResult.getList(), ErpStockRecordDO::getProductId));
+                convertSet(list, ErpStockRecordDO::getProductId));
         Map<Long, ErpWarehouseDO> warehouseMap = warehouseService.getWarehouseMap(
-                convertSet(pageResult.getList(), ErpStockRecordDO::getWarehouseId));
+                convertSet(list, ErpStockRecordDO::getWarehouseId));
         Map<Long, AdminUserRespDTO> userMap = adminUserApi.getUserMap(
-                convertSet(pageResult.getList(), record -> Long.parseLong(record.getCreator())));
-        return BeanUtils.toBean(pageResult, ErpStockRecordRespVO.class, stock -> {
+                convertSet(list, record -> Long.parseLong(record.getCreator())));
+        return BeanUtils.toBean(list, ErpStockRecordRespVO.class, stock -> {
             MapUtils.findAndThen(productMap, stock.getProductId(), product -> stock.setProductName(product.getName())
                     .setCategoryName(product.getCategoryName()).setUnitName(product.getUnitName()));
             MapUtils.findAndThen(warehouseMap, stock.getWarehouseId(), warehouse -> stock.setWarehouseName(warehouse.getName()));
@@ -102,4 +103,47 @@ public class ErpStockRecordController {
         });
     }
 
-}
\ No newline at end of file
+    /**
+     * 导出库存明细的迭代器：按照编号倒序，基于编号游标每次查询 {@link ExcelUtils#WRITE_BATCH_SIZE} 条
+     */
+    private class StockRecordExportIterator implements Iterator<ErpStockRecordRespVO> {
+
+        private final ErpStockRecordPageReqVO reqVO;
+
+        /**
+         * 编号游标：上一批的最小编号
+         */
+        private Long maxId;
+        private Iterator<ErpStockRecordRespVO> current = Collections.emptyIterator();
+        private boolean end;
+
+        private StockRecordExportIterator(ErpStockRecordPageReqVO reqVO) {
+            this.reqVO = reqVO;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && !end) {
+                List<ErpStockRecordDO> list = stockRecordService.getStockRecordListByIdLt(reqVO, maxId, ExcelUtils.WRITE_BATCH_SIZE);
+                if (CollUtil.isEmpty(list)) {
+                    end = true;
+                    break;
+                }
+                maxId = CollUtil.getLast(list).getId();
+                end = list.size() < ExcelUtils.WRITE_BATCH_SIZE;
+                current = buildStockRecordVOList(list).iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public ErpStockRecordRespVO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+    }
+
+}
@@ -7,6 +7,8 @@ import cn.iocoder.yudao.module.erp.controller.admin.stock.vo.record.ErpStockReco
 import cn.iocoder.yudao.module.erp.dal.dataobject.stock.ErpStockRecordDO;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.List;
+
 /**
  * ERP 产品库存明细 Mapper
  *
@@ -16,13 +18,32 @@ import org.apache.ibatis.annotations.Mapper;
 public interface ErpStockRecordMapper extends BaseMapperX<ErpStockRecordDO> {
 
     default PageResult<ErpStockRecordDO> selectPage(ErpStockRecordPageReqVO reqVO) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<ErpStockRecordDO>()
+        return selectPage(reqVO, buildQueryWrapper(reqVO)
+                .orderByDesc(ErpStockRecordDO::getId));
+    }
+
+    /**
+     * 基于编号游标（keyset）查询，按照编号倒序，避免深分页和 COUNT 查询
+     *
+     * @param reqVO 查询条件
+     * @param maxId 编号游标，只查询编号小于它的记录；为空时，从头开始
+     * @param limit 数量
+     * @return 库存明细列表
+     */
+    default List<ErpStockRecordDO> selectListByIdLt(ErpStockRecordPageReqVO reqVO, Long maxId, Integer limit) {
+        return selectList(buildQueryWrapper(reqVO)
+                .ltIfPresent(ErpStockRecordDO::getId, maxId)
+                .orderByDesc(ErpStockRecordDO::getId)
+                .last("LIMIT " + limit));
+    }
+
+    static LambdaQueryWrapperX<ErpStockRecordDO> buildQueryWrapper(ErpStockRecordPageReqVO reqVO) {
+        return new LambdaQueryWrapperX<ErpStockRecordDO>()
                 .eqIfPresent(ErpStockRecordDO::getProductId, reqVO.getProductId())
                 .eqIfPresent(ErpStockRecordDO::getWarehouseId, reqVO.getWarehouseId())
                 .eqIfPresent(ErpStockRecordDO::getBizType, reqVO.getBizType())
                 .likeIfPresent(ErpStockRecordDO::getBizNo, reqVO.getBizNo())
-                .betweenIfPresent(ErpStockRecordDO::getCreateTime, reqVO.getCreateTime())
-                .orderByDesc(ErpStockRecordDO::getId));
+                .betweenIfPresent(ErpStockRecordDO::getCreateTime, reqVO.getCreateTime());
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import cn.iocoder.yudao.module.erp.controller.admin.stock.vo.record.ErpStockReco
 import cn.iocoder.yudao.module.erp.dal.dataobject.stock.ErpStockRecordDO;
 import cn.iocoder.yudao.module.erp.service.stock.bo.ErpStockRecordCreateReqBO;
 import javax.validation.Valid;
+import java.util.List;
 
 /**
  * ERP 产品库存明细 Service 接口
@@ -29,6 +30,16 @@ public interface ErpStockRecordService {
      */
     PageResult<ErpStockRecordDO> getStockRecordPage(ErpStockRecordPageReqVO pageReqVO);
 
+    /**
+     * 基于编号游标，获得产品库存明细列表，按照编号倒序，用于导出
+     *
+     * @param reqVO 查询条件
+     * @param maxId 编号游标，只查询编号小于它的记录；为空时，从头开始
+     * @param limit 数量
+     * @return 产品库存明细列表
+     */
+    List<ErpStockRecordDO> getStockRecordListByIdLt(ErpStockRecordPageReqVO reqVO, Long maxId, Integer limit);
+
     /**
      * 创建库存明细
      *
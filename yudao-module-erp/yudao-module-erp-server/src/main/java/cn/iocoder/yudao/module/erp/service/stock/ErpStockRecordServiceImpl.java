@@ -12,6 +12,7 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * ERP 产品库存明细 Service 实现类
@@ -38,6 +39,11 @@ public class ErpStockRecordServiceImpl implements ErpStockRecordService {
         return stockRecordMapper.selectPage(pageReqVO);
     }
 
+    @Override
+    public List<ErpStockRecordDO> getStockRecordListByIdLt(ErpStockRecordPageReqVO reqVO, Long maxId, Integer limit) {
+        return stockRecordMapper.selectListByIdLt(reqVO, maxId, limit);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void createStockRecord(ErpStockRecordCreateReqBO createReqBO) {
@@ -3,11 +3,13 @@ package cn.iocoder.yudao.module.infra.api.logger;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.ApiErrorLogCommonApi;
 import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiErrorLogCreateReqDTO;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
 import cn.iocoder.yudao.module.infra.service.logger.ApiErrorLogService;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 
@@ -24,4 +26,11 @@ public class ApiErrorLogApiImpl implements ApiErrorLogCommonApi {
         return success(true);
     }
 
+    @Override
+    @TenantIgnore // 批量创建时，日志可能属于不同租户，由 createDTO 的 tenantId 决定
+    public CommonResult<Boolean> createApiErrorLogBatch(List<ApiErrorLogCreateReqDTO> createDTOs) {
+        apiErrorLogService.createApiErrorLogBatch(createDTOs);
+        return success(true);
+    }
+
 }
@@ -15,6 +15,10 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO.REQUEST_PARAMS_MAX_LENGTH;
 import static cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO.RESULT_MSG_MAX_LENGTH;
@@ -34,9 +38,7 @@ public class ApiAccessLogServiceImpl implements ApiAccessLogService {
 
     @Override
     public void createApiAccessLog(ApiAccessLogCreateReqDTO createDTO) {
-        ApiAccessLogDO apiAccessLog = BeanUtils.toBean(createDTO, ApiAccessLogDO.class);
-        apiAccessLog.setRequestParams(StrUtils.maxLength(apiAccessLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
-        apiAccessLog.setResultMsg(StrUtils.maxLength(apiAccessLog.getResultMsg(), RESULT_MSG_MAX_LENGTH));
+        ApiAccessLogDO apiAccessLog = buildApiAccessLog(createDTO);
         if (TenantContextHolder.getTenantId() != null) {
             apiAccessLogMapper.insert(apiAccessLog);
         } else {
@@ -45,6 +47,35 @@ public class ApiAccessLogServiceImpl implements ApiAccessLogService {
         }
     }
 
+    @Override
+    public void createApiAccessLogBatch(List<ApiAccessLogCreateReqDTO> createDTOs) {
+        // 按照租户分组
+        Map<Long, List<ApiAccessLogDO>> tenantApiAccessLogs = new HashMap<>();
+        createDTOs.forEach(createDTO -> tenantApiAccessLogs.computeIfAbsent(createDTO.getTenantId(), key -> new ArrayList<>())
+                .add(buildApiAccessLog(createDTO)));
+        // 逐个租户，批量插入
+        tenantApiAccessLogs.forEach((tenantId, apiAccessLogs) -> {
+            try {
+                if (tenantId != null) {
+                    TenantUtils.execute(tenantId, () -> apiAccessLogMapper.insertBatch(apiAccessLogs));
+                } else {
+                    // 极端情况下，没有租户时，此时忽略租户上下文，避免插入失败！
+                    TenantUtils.executeIgnore(() -> apiAccessLogMapper.insertBatch(apiAccessLogs));
+                }
+            } catch (Exception ex) {
+                // 兜底处理，避免某个租户插入失败，影响其它租户
+                log.error("[createApiAccessLogBatch][租户({}) 记录 {} 条时发生异常]", tenantId, apiAccessLogs.size(), ex);
+            }
+        });
+    }
+
+    private static ApiAccessLogDO buildApiAccessLog(ApiAccessLogCreateReqDTO createDTO) {
+        ApiAccessLogDO apiAccessLog = BeanUtils.toBean(createDTO, ApiAccessLogDO.class);
+        apiAccessLog.setRequestParams(StrUtils.maxLength(apiAccessLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
+        apiAccessLog.setResultMsg(StrUtils.maxLength(apiAccessLog.getResultMsg(), RESULT_MSG_MAX_LENGTH));
+        return apiAccessLog;
+    }
+
     @Override
     public PageResult<ApiAccessLogDO> getApiAccessLogPage(ApiAccessLogPageReqVO pageReqVO) {
         return apiAccessLogMapper.selectPage(pageReqVO);
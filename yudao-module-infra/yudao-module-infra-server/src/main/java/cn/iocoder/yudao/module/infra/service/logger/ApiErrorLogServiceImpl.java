@@ -16,6 +16,10 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiErrorLogDO.REQUEST_PARAMS_MAX_LENGTH;
@@ -37,9 +41,7 @@ public class ApiErrorLogServiceImpl implements ApiErrorLogService {
 
     @Override
     public void createApiErrorLog(ApiErrorLogCreateReqDTO createDTO) {
-        ApiErrorLogDO apiErrorLog = BeanUtils.toBean(createDTO, ApiErrorLogDO.class)
-                .setProcessStatus(ApiErrorLogProcessStatusEnum.INIT.getStatus());
-        apiErrorLog.setRequestParams(StrUtils.maxLength(apiErrorLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
+        ApiErrorLogDO apiErrorLog = buildApiErrorLog(createDTO);
         try {
             if (TenantContextHolder.getTenantId() != null) {
                 apiErrorLogMapper.insert(apiErrorLog);
@@ -53,6 +55,35 @@ public class ApiErrorLogServiceImpl implements ApiErrorLogService {
         }
     }
 
+    @Override
+    public void createApiErrorLogBatch(List<ApiErrorLogCreateReqDTO> createDTOs) {
+        // 按照租户分组
+        Map<Long, List<ApiErrorLogDO>> tenantApiErrorLogs = new HashMap<>();
+        createDTOs.forEach(createDTO -> tenantApiErrorLogs.computeIfAbsent(createDTO.getTenantId(), key -> new ArrayList<>())
+                .add(buildApiErrorLog(createDTO)));
+        // 逐个租户，批量插入
+        tenantApiErrorLogs.forEach((tenantId, apiErrorLogs) -> {
+            try {
+                if (tenantId != null) {
+                    TenantUtils.execute(tenantId, () -> apiErrorLogMapper.insertBatch(apiErrorLogs));
+                } else {
+                    // 极端情况下，没有租户时，此时忽略租户上下文，避免插入失败！
+                    TenantUtils.executeIgnore(() -> apiErrorLogMapper.insertBatch(apiErrorLogs));
+                }
+            } catch (Exception ex) {
+                // 兜底处理，避免某个租户插入失败，影响其它租户
+                log.error("[createApiErrorLogBatch][租户({}) 记录 {} 条时发生异常]", tenantId, apiErrorLogs.size(), ex);
+            }
+        });
+    }
+
+    private static ApiErrorLogDO buildApiErrorLog(ApiErrorLogCreateReqDTO createDTO) {
+        ApiErrorLogDO apiErrorLog = BeanUtils.toBean(createDTO, ApiErrorLogDO.class)
+                .setProcessStatus(ApiErrorLogProcessStatusEnum.INIT.getStatus());
+        apiErrorLog.setRequestParams(StrUtils.maxLength(apiErrorLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
+        return apiErrorLog;
+    }
+
     @Override
     public PageResult<ApiErrorLogDO> getApiErrorLogPage(ApiErrorLogPageReqVO pageReqVO) {
         return apiErrorLogMapper.selectPage(pageReqVO);
@@ -13,8 +13,10 @@ import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.findFirst;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.*;
 import static cn.iocoder.yudao.framework.common.util.object.ObjectUtils.cloneIgnoreId;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEquals;
@@ -107,4 +109,19 @@ public class ApiAccessLogServiceImplTest extends BaseDbUnitTest {
         assertPojoEquals(createDTO, apiAccessLogDO);
     }
 
+    @Test
+    public void testCreateApiAccessLogBatch() {
+        // 准备参数：两个租户
+        ApiAccessLogCreateReqDTO createDTO01 = randomPojo(ApiAccessLogCreateReqDTO.class, o -> o.setTenantId(1L));
+        ApiAccessLogCreateReqDTO createDTO02 = randomPojo(ApiAccessLogCreateReqDTO.class, o -> o.setTenantId(2L));
+
+        // 调用
+        apiAccessLogService.createApiAccessLogBatch(Arrays.asList(createDTO01, createDTO02));
+        // 断言
+        List<ApiAccessLogDO> apiAccessLogs = apiAccessLogMapper.selectList();
+        assertEquals(2, apiAccessLogs.size());
+        assertPojoEquals(createDTO01, findFirst(apiAccessLogs, o -> o.getTraceId().equals(createDTO01.getTraceId())));
+        assertPojoEquals(createDTO02, findFirst(apiAccessLogs, o -> o.getTraceId().equals(createDTO02.getTraceId())));
+    }
+
 }
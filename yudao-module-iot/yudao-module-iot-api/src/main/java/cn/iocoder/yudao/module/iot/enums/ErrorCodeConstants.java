@@ -69,6 +69,8 @@ public interface ErrorCodeConstants {
     // ========== IoT 数据流转目的 1-050-011-000 ==========
     ErrorCode DATA_SINK_NOT_EXISTS = new ErrorCode(1_050_011_000, "数据桥梁不存在");
     ErrorCode DATA_SINK_DELETE_FAIL_USED_BY_RULE = new ErrorCode(1_050_011_001, "数据流转目的正在被数据流转规则使用，无法删除");
+    ErrorCode DATA_SINK_DEAD_LETTER_NOT_EXISTS = new ErrorCode(1_050_011_002, "数据流转目的的死信不存在");
+    ErrorCode DATA_SINK_DEAD_LETTER_REPLAY_FAIL = new ErrorCode(1_050_011_003, "数据流转目的的死信重放失败，原因：{}");
 
     // ========== IoT 场景联动 1-050-012-000 ==========
     ErrorCode RULE_SCENE_NOT_EXISTS = new ErrorCode(1_050_012_000, "场景联动不存在");
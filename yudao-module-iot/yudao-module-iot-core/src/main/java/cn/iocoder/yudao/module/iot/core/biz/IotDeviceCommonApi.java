@@ -3,7 +3,11 @@ package cn.iocoder.yudao.module.iot.core.biz;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceAuthReqDTO;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceGetReqDTO;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceListReqDTO;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceRespDTO;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceScanReqDTO;
+
+import java.util.List;
 
 /**
  * IoT 设备通用 API
@@ -28,4 +32,20 @@ public interface IotDeviceCommonApi {
      */
     CommonResult<IotDeviceRespDTO> getDevice(IotDeviceGetReqDTO infoReqDTO);
 
+    /**
+     * 批量获取设备信息
+     *
+     * @param listReqDTO 批量查询请求
+     * @return 设备信息列表；不存在的设备，不会返回
+     */
+    CommonResult<List<IotDeviceRespDTO>> getDeviceList(IotDeviceListReqDTO listReqDTO);
+
+    /**
+     * 按照设备编号升序，分批遍历设备信息
+     *
+     * @param scanReqDTO 遍历请求
+     * @return 设备信息列表；数量小于 limit 时，说明已经遍历完成
+     */
+    CommonResult<List<IotDeviceRespDTO>> scanDeviceList(IotDeviceScanReqDTO scanReqDTO);
+
 }
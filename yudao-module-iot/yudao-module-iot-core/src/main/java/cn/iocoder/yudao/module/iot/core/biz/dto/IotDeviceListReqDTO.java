@@ -0,0 +1,31 @@
+package cn.iocoder.yudao.module.iot.core.biz.dto;
+
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * IoT 设备信息批量查询 Request DTO
+ *
+ * 两种查询条件可以同时传递，结果合并返回
+ *
+ * @author 芋道源码
+ */
+@Data
+public class IotDeviceListReqDTO {
+
+    /**
+     * 设备编号数组
+     */
+    private List<Long> ids;
+
+    /**
+     * 设备标识数组
+     *
+     * key：产品标识 productKey
+     * value：设备名称 deviceName
+     */
+    private List<KeyValue<String, String>> keys;
+
+}
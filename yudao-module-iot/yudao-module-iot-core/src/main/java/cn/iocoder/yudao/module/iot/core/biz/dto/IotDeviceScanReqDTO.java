@@ -0,0 +1,25 @@
+package cn.iocoder.yudao.module.iot.core.biz.dto;
+
+import lombok.Data;
+
+/**
+ * IoT 设备信息遍历 Request DTO
+ *
+ * 按照设备编号升序，返回编号大于 lastId 的设备，用于分批读取全部设备
+ *
+ * @author 芋道源码
+ */
+@Data
+public class IotDeviceScanReqDTO {
+
+    /**
+     * 上一批的最后一个设备编号；为空时，从头开始
+     */
+    private Long lastId;
+
+    /**
+     * 每批数量
+     */
+    private Integer limit;
+
+}
@@ -1,15 +1,17 @@
 package cn.iocoder.yudao.module.iot.core.messagebus.config;
 
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
-import cn.iocoder.yudao.framework.mq.redis.core.job.RedisPendingMessageResendJob;
 import cn.iocoder.yudao.framework.mq.redis.core.job.RedisStreamMessageCleanupJob;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
 import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageBus;
 import cn.iocoder.yudao.module.iot.core.messagebus.core.local.IotLocalMessageBus;
 import cn.iocoder.yudao.module.iot.core.messagebus.core.redis.IotRedisMessageBus;
+import cn.iocoder.yudao.module.iot.core.messagebus.core.redis.IotRedisMessageBusMeterBinder;
+import cn.iocoder.yudao.module.iot.core.messagebus.core.redis.IotRedisPendingMessageResendJob;
 import cn.iocoder.yudao.module.iot.core.messagebus.core.rocketmq.IotRocketMQMessageBus;
 import cn.iocoder.yudao.module.iot.core.mq.producer.IotDeviceMessageProducer;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.spring.autoconfigure.RocketMQProperties;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
@@ -24,9 +26,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.util.Collections;
 import java.util.List;
-
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * IoT 消息总线自动配置
@@ -86,42 +88,67 @@ public class IotMessageBusAutoConfiguration {
     public static class IotRedisMessageBusConfiguration {
 
         @Bean
-        public IotRedisMessageBus iotRedisMessageBus(StringRedisTemplate redisTemplate) {
+        public IotRedisMessageBus iotRedisMessageBus(StringRedisTemplate redisTemplate,
+                                                     IotMessageBusProperties properties) {
             log.info("[iotRedisMessageBus][创建 IoT Redis 消息总线]");
-            return new IotRedisMessageBus(redisTemplate);
+            return new IotRedisMessageBus(redisTemplate, properties.getRedis());
         }
 
         /**
          * 创建 Redis Stream 重新消费的任务
          */
         @Bean
-        public RedisPendingMessageResendJob iotRedisPendingMessageResendJob(IotRedisMessageBus messageBus,
-                                                                            RedisMQTemplate redisTemplate,
-                                                                            RedissonClient redissonClient) {
-            List<AbstractRedisStreamMessageListener<?>> listeners = getListeners(messageBus);
-            return new RedisPendingMessageResendJob(listeners, redisTemplate, redissonClient);
+        public IotRedisPendingMessageResendJob iotRedisPendingMessageResendJob(IotRedisMessageBus messageBus,
+                                                                               StringRedisTemplate redisTemplate,
+                                                                               RedissonClient redissonClient) {
+            return new IotRedisPendingMessageResendJob(messageBus, redisTemplate, redissonClient);
         }
 
         /**
          * 创建 Redis Stream 消息清理任务
+         *
+         * 配置 maxLen 时，发送消息时已经裁剪，无需定时清理
          */
         @Bean
         public RedisStreamMessageCleanupJob iotRedisStreamMessageCleanupJob(IotRedisMessageBus messageBus,
+                                                                            IotMessageBusProperties properties,
                                                                             RedisMQTemplate redisTemplate,
                                                                             RedissonClient redissonClient) {
-            List<AbstractRedisStreamMessageListener<?>> listeners = getListeners(messageBus);
+            List<AbstractRedisStreamMessageListener<?>> listeners = properties.getRedis().getMaxLen() == null
+                    ? getListeners(messageBus) : Collections.emptyList();
             return new RedisStreamMessageCleanupJob(listeners, redisTemplate, redissonClient);
         }
 
+        /**
+         * 获得每个订阅者、每个分区 Stream 对应的 listener
+         *
+         * 注意：订阅者在 Bean 初始化时注册，所以返回的是延迟填充的列表
+         */
         private List<AbstractRedisStreamMessageListener<?>> getListeners(IotRedisMessageBus messageBus) {
-            return convertList(messageBus.getSubscribers(), subscriber ->
-                    new AbstractRedisStreamMessageListener<AbstractRedisStreamMessage>(subscriber.getTopic(), subscriber.getGroup()) {
+            List<AbstractRedisStreamMessageListener<?>> listeners = new CopyOnWriteArrayList<>();
+            messageBus.addStreamGroupListener(streamGroup -> listeners.add(
+                    new AbstractRedisStreamMessageListener<AbstractRedisStreamMessage>(streamGroup.getStreamKey(), streamGroup.getGroup()) {
 
                         @Override
                         public void onMessage(AbstractRedisStreamMessage message) {
                             throw new UnsupportedOperationException("不应该调用！！！");
                         }
-                    });
+                    }));
+            return listeners;
+        }
+
+        /**
+         * Redis Stream 的监控指标，需要引入 micrometer 依赖
+         */
+        @Configuration
+        @ConditionalOnClass(MeterRegistry.class)
+        public static class IotRedisMessageBusMetricsConfiguration {
+
+            @Bean
+            public IotRedisMessageBusMeterBinder iotRedisMessageBusMeterBinder(IotRedisMessageBus messageBus) {
+                return new IotRedisMessageBusMeterBinder(messageBus);
+            }
+
         }
 
     }
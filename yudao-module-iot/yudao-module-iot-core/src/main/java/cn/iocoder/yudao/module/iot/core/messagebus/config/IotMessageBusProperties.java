@@ -1,10 +1,16 @@
 package cn.iocoder.yudao.module.iot.core.messagebus.config;
 
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * IoT 消息总线配置属性
@@ -24,4 +30,47 @@ public class IotMessageBusProperties {
     @NotNull(message = "IoT 消息总线类型不能为空")
     private String type = "local";
 
-}
\ No newline at end of file
+    /**
+     * Redis 实现的配置
+     */
+    @Valid
+    private Redis redis = new Redis();
+
+    @Data
+    public static class Redis {
+
+        /**
+         * 分区数
+         *
+         * 大于 1 时，{@link #partitionTopics} 中的主题，按照设备编号的 hash 拆分成多个 Stream 并行消费，同一个设备的消息仍然按照顺序消费
+         *
+         * 注意：iot-server 和 iot-gateway 的配置需要保持一致；调整分区数前，需要先消费完存量的消息
+         */
+        @Min(value = 1, message = "分区数不能小于 1")
+        private Integer partitions = 1;
+        /**
+         * 需要分区的主题
+         */
+        private Set<String> partitionTopics = Collections.singleton(IotDeviceMessage.MESSAGE_BUS_DEVICE_MESSAGE_TOPIC);
+
+        /**
+         * 每次拉取的最大消息数量
+         */
+        @Min(value = 1, message = "每次拉取的最大消息数量不能小于 1")
+        private Integer batchSize = 10;
+        /**
+         * 拉取消息时，阻塞等待的时间
+         */
+        @NotNull(message = "拉取消息的阻塞时间不能为空")
+        private Duration pollTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Stream 保留的最大消息数量，发送消息时通过 MAXLEN ~ 近似裁剪
+         *
+         * 为空时，不在发送时裁剪，由 RedisStreamMessageCleanupJob 定时清理
+         */
+        private Long maxLen;
+
+    }
+
+}
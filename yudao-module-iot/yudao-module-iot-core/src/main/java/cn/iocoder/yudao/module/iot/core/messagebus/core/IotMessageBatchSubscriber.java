@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.iot.core.messagebus.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * IoT 消息总线的批量订阅者接口
+ *
+ * 支持批量消费的消息总线（例如说 Redis 实现），一次拉取的多条消息通过 {@link #onMessageBatch(List)} 批量处理；
+ * 其它消息总线，仍然逐条调用 {@link #onMessage(Object)}
+ *
+ * @author 芋道源码
+ */
+public interface IotMessageBatchSubscriber<T> extends IotMessageSubscriber<T> {
+
+    /**
+     * 批量处理接收到的消息
+     *
+     * 注意：抛出异常时，整批消息都不会被确认，后续会被重新投递
+     *
+     * @param messages 消息列表，按照发送顺序
+     */
+    void onMessageBatch(List<T> messages);
+
+    @Override
+    default void onMessage(T message) {
+        onMessageBatch(Collections.singletonList(message));
+    }
+
+}
@@ -1,5 +1,7 @@
 package cn.iocoder.yudao.module.iot.core.messagebus.core;
 
+import java.util.List;
+
 /**
  * IoT 消息总线接口
  *
@@ -17,6 +19,18 @@ public interface IotMessageBus {
      */
     void post(String topic, Object message);
 
+    /**
+     * 批量发布消息到消息总线
+     *
+     * 默认逐条发布，支持批量发送的实现（例如说 Redis 实现）可以重写
+     *
+     * @param topic    主题
+     * @param messages 消息列表
+     */
+    default void postBatch(String topic, List<?> messages) {
+        messages.forEach(message -> post(topic, message));
+    }
+
     /**
      * 注册消息订阅者
      *
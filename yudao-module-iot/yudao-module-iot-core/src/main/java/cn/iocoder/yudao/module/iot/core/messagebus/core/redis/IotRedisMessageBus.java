@@ -1,26 +1,47 @@
 package cn.iocoder.yudao.module.iot.core.messagebus.core.redis;
 
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.hutool.core.util.TypeUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamBatchMessageListenerContainer;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamRecordsListener;
+import cn.iocoder.yudao.module.iot.core.messagebus.config.IotMessageBusProperties;
+import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageBatchSubscriber;
 import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageBus;
 import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageSubscriber;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.connection.stream.*;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.core.StreamOperations;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import static cn.iocoder.yudao.framework.mq.redis.config.YudaoRedisMQConsumerAutoConfiguration.buildConsumerName;
 import static cn.iocoder.yudao.framework.mq.redis.config.YudaoRedisMQConsumerAutoConfiguration.checkRedisVersion;
 
 /**
- * Redis 的 {@link IotMessageBus} 实现类
+ * Redis 的 {@link IotMessageBus} 实现类，基于 {@link RedisMQTemplate} 和 {@link RedisStreamBatchMessageListenerContainer} 实现
+ *
+ * 1. 分区：{@link IotMessageBusProperties.Redis#getPartitionTopics()} 中的主题，按照设备编号的 hash 拆分成多个 Stream，
+ *    每个 Stream 由独立的线程拉取，同一个设备的消息总是在同一个 Stream 中，从而按照顺序消费
+ * 2. 批量：每次通过 XREADGROUP 拉取多条消息；{@link IotMessageBatchSubscriber} 批量处理，其它订阅者逐条处理；
+ *    处理完成后，通过 1 次 XACK 确认整批消息
+ * 3. 裁剪：配置 {@link IotMessageBusProperties.Redis#getMaxLen()} 时，发送消息时在同一个 pipeline 中执行 XTRIM MAXLEN ~
+ *
+ * 消费失败的消息不会被确认，由 {@link IotRedisPendingMessageResendJob} 重新投递
  *
  * @author 芋道源码
  */
@@ -29,71 +50,277 @@ public class IotRedisMessageBus implements IotMessageBus {
 
     private final RedisTemplate<String, ?> redisTemplate;
 
-    private final StreamMessageListenerContainer<String, ObjectRecord<String, String>> redisStreamMessageListenerContainer;
+    private final RedisMQTemplate redisMQTemplate;
+
+    private final IotMessageBusProperties.Redis properties;
+
+    private final RedisStreamBatchMessageListenerContainer container;
 
     @Getter
     private final List<IotMessageSubscriber<?>> subscribers = new ArrayList<>();
+    /**
+     * 订阅者对应的 Stream 和消费者分组
+     */
+    @Getter
+    private final List<StreamGroup> streamGroups = new CopyOnWriteArrayList<>();
+    /**
+     * 注册 Stream 和消费者分组时的回调，例如说注册监控指标
+     */
+    private final List<Consumer<StreamGroup>> streamGroupListeners = new CopyOnWriteArrayList<>();
 
-    public IotRedisMessageBus(RedisTemplate<String, ?> redisTemplate) {
+    public IotRedisMessageBus(RedisTemplate<String, ?> redisTemplate, IotMessageBusProperties.Redis properties) {
         this.redisTemplate = redisTemplate;
+        this.properties = properties;
         checkRedisVersion(redisTemplate);
-        // 创建 options 配置
-        StreamMessageListenerContainer.StreamMessageListenerContainerOptions<String, ObjectRecord<String, String>> containerOptions =
-                StreamMessageListenerContainer.StreamMessageListenerContainerOptions.builder()
-                        .batchSize(10) // 一次性最多拉取多少条消息
-                        .targetType(String.class) // 目标类型。统一使用 String，通过自己封装的 AbstractStreamMessageListener 去反序列化
-                        .build();
-        // 创建 container 对象
-        this.redisStreamMessageListenerContainer =
-                StreamMessageListenerContainer.create(redisTemplate.getRequiredConnectionFactory(), containerOptions);
+        // IoT 消息不是 AbstractRedisStreamMessage，不经过拦截器，所以使用独立的 RedisMQTemplate
+        this.redisMQTemplate = new RedisMQTemplate(redisTemplate);
+        this.container = new RedisStreamBatchMessageListenerContainer(redisTemplate, Collections.emptyList(),
+                buildConsumerName(), properties.getPollTimeout());
     }
 
     @PostConstruct
     public void init() {
-        this.redisStreamMessageListenerContainer.start();
+        container.start();
     }
 
     @PreDestroy
-    public void destroy() {
-        this.redisStreamMessageListenerContainer.stop();
+    public void destroy() throws InterruptedException {
+        container.stop();
     }
 
+    // ========== 发送 ==========
+
     @Override
     public void post(String topic, Object message) {
-        redisTemplate.opsForStream().add(StreamRecords.newRecord()
+        redisMQTemplate.sendRecords(Collections.singletonList(buildRecord(getStreamKey(topic, message), message)),
+                properties.getMaxLen());
+    }
+
+    @Override
+    public void postBatch(String topic, List<?> messages) {
+        if (CollUtil.isEmpty(messages)) {
+            return;
+        }
+        List<ObjectRecord<String, String>> records = new ArrayList<>(messages.size());
+        messages.forEach(message -> records.add(buildRecord(getStreamKey(topic, message), message)));
+        redisMQTemplate.sendRecords(records, properties.getMaxLen());
+    }
+
+    private static ObjectRecord<String, String> buildRecord(String streamKey, Object message) {
+        return StreamRecords.newRecord()
                 .ofObject(JsonUtils.toJsonString(message)) // 设置内容
-                .withStreamKey(topic)); // 设置 stream key
+                .withStreamKey(streamKey); // 设置 stream key
+    }
+
+    // ========== 分区 ==========
+
+    /**
+     * 获得主题对应的所有 Stream
+     *
+     * @param topic 主题
+     * @return Stream 列表；未分区时，只有主题本身
+     */
+    public List<String> getStreamKeys(String topic) {
+        int partitions = getPartitions(topic);
+        if (partitions <= 1) {
+            return Collections.singletonList(topic);
+        }
+        List<String> streamKeys = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            streamKeys.add(buildPartitionStreamKey(topic, i));
+        }
+        return streamKeys;
+    }
+
+    /**
+     * 获得消息发送的 Stream：分区的主题，按照设备编号选择分区
+     *
+     * @param topic   主题
+     * @param message 消息
+     * @return Stream Key
+     */
+    String getStreamKey(String topic, Object message) {
+        int partitions = getPartitions(topic);
+        if (partitions <= 1) {
+            return topic;
+        }
+        Object key = message instanceof IotDeviceMessage ? ((IotDeviceMessage) message).getDeviceId() : null;
+        return buildPartitionStreamKey(topic, partition(key, partitions));
+    }
+
+    private int getPartitions(String topic) {
+        return properties.getPartitionTopics().contains(topic) ? properties.getPartitions() : 1;
+    }
+
+    private static String buildPartitionStreamKey(String topic, int partition) {
+        return topic + StrUtil.COLON + partition;
+    }
+
+    private static int partition(Object key, int partitions) {
+        if (key == null) {
+            return 0;
+        }
+        // 打散 hashCode，避免 Long 等 key 的低位分布不均
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % partitions;
     }
 
+    // ========== 消费 ==========
+
     @Override
-    public void register(IotMessageSubscriber<?> subscriber) {
+    public synchronized void register(IotMessageSubscriber<?> subscriber) {
         Type type = TypeUtil.getTypeArgument(subscriber.getClass(), 0);
         if (type == null) {
             throw new IllegalStateException(String.format("类型(%s) 需要设置消息类型", getClass().getName()));
         }
 
-        // 创建 listener 对应的消费者分组
-        try {
-            redisTemplate.opsForStream().createGroup(subscriber.getTopic(), subscriber.getGroup());
-        } catch (Exception ignore) {
+        for (String streamKey : getStreamKeys(subscriber.getTopic())) {
+            // 每个 Stream 一个拉取线程，由 container 创建消费者分组、拉取并确认消息
+            container.register(new SubscriberStreamListener(subscriber, type, streamKey));
+            // 通知回调
+            StreamGroup streamGroup = new StreamGroup(streamKey, subscriber.getGroup());
+            streamGroups.add(streamGroup);
+            streamGroupListeners.forEach(listener -> listener.accept(streamGroup));
         }
-        // 创建 Consumer 对象
-        String consumerName = buildConsumerName();
-        Consumer consumer = Consumer.from(subscriber.getGroup(), consumerName);
-        // 设置 Consumer 消费进度，以最小消费进度为准
-        StreamOffset<String> streamOffset = StreamOffset.create(subscriber.getTopic(), ReadOffset.lastConsumed());
-        // 设置 Consumer 监听
-        StreamMessageListenerContainer.StreamReadRequestBuilder<String> builder = StreamMessageListenerContainer.StreamReadRequest
-                .builder(streamOffset).consumer(consumer)
-                .autoAcknowledge(false) // 不自动 ack
-                .cancelOnError(throwable -> false); // 默认配置，发生异常就取消消费，显然不符合预期；因此，我们设置为 false
-        redisStreamMessageListenerContainer.register(builder.build(), message -> {
-            // 消费消息
-            subscriber.onMessage(JsonUtils.parseObject(message.getValue(), type));
-            // ack 消息消费完成
-            redisTemplate.opsForStream().acknowledge(subscriber.getGroup(), message);
-        });
         this.subscribers.add(subscriber);
+        log.info("[register][topic({}/{}) 注册消费者({})成功，分区数({})]", subscriber.getTopic(), subscriber.getGroup(),
+                subscriber.getClass().getName(), getPartitions(subscriber.getTopic()));
+    }
+
+    /**
+     * 订阅者在某个 Stream 上的 {@link RedisStreamRecordsListener}
+     */
+    @AllArgsConstructor
+    class SubscriberStreamListener implements RedisStreamRecordsListener {
+
+        private final IotMessageSubscriber<?> subscriber;
+        private final Type type;
+        @Getter
+        private final String streamKey;
+
+        @Override
+        public String getGroup() {
+            return subscriber.getGroup();
+        }
+
+        @Override
+        public int getBatchSize() {
+            return properties.getBatchSize();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<RecordId> onMessageRecords(List<ObjectRecord<String, String>> records) {
+            List<RecordId> ackIds = new ArrayList<>(records.size());
+            // 1. 反序列化。无法反序列化的消息，重试也不会成功，所以直接确认
+            List<Object> messages = new ArrayList<>(records.size());
+            List<RecordId> messageIds = new ArrayList<>(records.size());
+            for (ObjectRecord<String, String> record : records) {
+                try {
+                    messages.add(JsonUtils.parseObject(record.getValue(), type));
+                    messageIds.add(record.getId());
+                } catch (Exception ex) {
+                    log.error("[onMessageRecords][StreamKey({}) 消息({}) 反序列化失败，忽略]", streamKey, record.getValue(), ex);
+                    ackIds.add(record.getId());
+                }
+            }
+            if (messages.isEmpty()) {
+                return ackIds;
+            }
+
+            // 2.1 批量订阅者：整批处理
+            if (subscriber instanceof IotMessageBatchSubscriber) {
+                try {
+                    ((IotMessageBatchSubscriber<Object>) subscriber).onMessageBatch(messages);
+                    ackIds.addAll(messageIds);
+                } catch (Exception ex) {
+                    log.error("[onMessageRecords][StreamKey({}) 订阅者({}) 批量消费({}) 条消息异常]", streamKey,
+                            subscriber.getClass().getName(), messages.size(), ex);
+                }
+                return ackIds;
+            }
+            // 2.2 普通订阅者：逐条处理，只确认处理成功的消息
+            IotMessageSubscriber<Object> messageSubscriber = (IotMessageSubscriber<Object>) subscriber;
+            for (int i = 0; i < messages.size(); i++) {
+                try {
+                    messageSubscriber.onMessage(messages.get(i));
+                    ackIds.add(messageIds.get(i));
+                } catch (Exception ex) {
+                    log.error("[onMessageRecords][StreamKey({}) 订阅者({}) 消费消息({}) 异常]", streamKey,
+                            subscriber.getClass().getName(), messages.get(i), ex);
+                }
+            }
+            return ackIds;
+        }
+
+    }
+
+    // ========== 监控 ==========
+
+    /**
+     * 添加注册 Stream 和消费者分组时的回调；已经注册的，会立即回调
+     *
+     * @param listener 回调
+     */
+    public void addStreamGroupListener(Consumer<StreamGroup> listener) {
+        synchronized (this) {
+            streamGroupListeners.add(listener);
+            streamGroups.forEach(listener);
+        }
+    }
+
+    /**
+     * 获得消费者分组，已经拉取但未确认的消息数量（XPENDING）
+     *
+     * @param streamGroup Stream 和消费者分组
+     * @return 消息数量
+     */
+    public long getPendingCount(StreamGroup streamGroup) {
+        PendingMessagesSummary summary = redisTemplate.opsForStream().pending(streamGroup.getStreamKey(), streamGroup.getGroup());
+        return summary != null ? summary.getTotalPendingMessages() : 0L;
+    }
+
+    /**
+     * 获得消费者分组的消费延迟，即 Stream 最新消息与消费者分组最后拉取消息的时间差
+     *
+     * @param streamGroup Stream 和消费者分组
+     * @return 延迟，单位：毫秒
+     */
+    public long getLagMillis(StreamGroup streamGroup) {
+        StreamOperations<String, Object, Object> ops = redisTemplate.opsForStream();
+        StreamInfo.XInfoStream streamInfo = ops.info(streamGroup.getStreamKey());
+        StreamInfo.XInfoGroup groupInfo = CollUtil.findOne(ops.groups(streamGroup.getStreamKey()),
+                group -> streamGroup.getGroup().equals(group.groupName()));
+        if (streamInfo == null || groupInfo == null) {
+            return 0L;
+        }
+        // Stream 消息编号的格式为 毫秒时间戳-序号
+        long lastGeneratedTime = RecordId.of(streamInfo.lastGeneratedId()).getTimestamp();
+        long lastDeliveredTime = RecordId.of(groupInfo.lastDeliveredId()).getTimestamp();
+        if (lastDeliveredTime == 0L && streamInfo.streamLength() > 0) {
+            // 消费者分组还未拉取过消息，以 Stream 的第一条消息为准
+            lastDeliveredTime = RecordId.of(streamInfo.firstEntryId()).getTimestamp();
+        }
+        return Math.max(lastGeneratedTime - lastDeliveredTime, 0L);
+    }
+
+    /**
+     * Stream 和消费者分组
+     */
+    @Data
+    @AllArgsConstructor
+    public static class StreamGroup {
+
+        /**
+         * Stream Key
+         */
+        private String streamKey;
+        /**
+         * 消费者分组
+         */
+        private String group;
+
     }
 
 }
@@ -0,0 +1,60 @@
+package cn.iocoder.yudao.module.iot.core.messagebus.core.redis;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link IotRedisMessageBus} 的监控指标，按照 stream、group 维度：
+ *
+ * 1. yudao.iot.message-bus.redis.pending：已经拉取但未确认的消息数量（XPENDING）
+ * 2. yudao.iot.message-bus.redis.lag：Stream 最新消息与消费者分组最后拉取消息的时间差，单位：毫秒
+ *
+ * 订阅者可能在指标绑定之后才注册，所以通过 {@link IotRedisMessageBus#addStreamGroupListener} 动态注册
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class IotRedisMessageBusMeterBinder implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "yudao.iot.message-bus.redis";
+
+    private final IotRedisMessageBus messageBus;
+
+    public IotRedisMessageBusMeterBinder(IotRedisMessageBus messageBus) {
+        this.messageBus = messageBus;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        messageBus.addStreamGroupListener(streamGroup -> {
+            Tags tags = Tags.of("stream", streamGroup.getStreamKey(), "group", streamGroup.getGroup());
+            Gauge.builder(METRIC_PREFIX + ".pending", streamGroup, safe(messageBus::getPendingCount))
+                    .tags(tags)
+                    .description("已经拉取但未确认的消息数量")
+                    .register(registry);
+            Gauge.builder(METRIC_PREFIX + ".lag", streamGroup, safe(messageBus::getLagMillis))
+                    .tags(tags)
+                    .description("消费延迟，单位：毫秒")
+                    .register(registry);
+        });
+    }
+
+    private static ToDoubleFunction<IotRedisMessageBus.StreamGroup> safe(
+            ToLongFunction<IotRedisMessageBus.StreamGroup> function) {
+        return streamGroup -> {
+            try {
+                return function.applyAsLong(streamGroup);
+            } catch (Exception ex) {
+                log.warn("[safe][Stream({}) 消费者分组({}) 获取指标失败]", streamGroup.getStreamKey(), streamGroup.getGroup(), ex);
+                return Double.NaN;
+            }
+        };
+    }
+
+}
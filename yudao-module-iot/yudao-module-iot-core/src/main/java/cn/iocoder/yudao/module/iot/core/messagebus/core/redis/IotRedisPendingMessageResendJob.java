@@ -0,0 +1,125 @@
+package cn.iocoder.yudao.module.iot.core.messagebus.core.redis;
+
+import cn.hutool.core.collection.CollUtil;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@link IotRedisMessageBus} 的消息重新投递任务，用于处理消费失败、或者消费者 crash 之后未确认的消息
+ *
+ * 与 RedisPendingMessageResendJob 的差异：
+ * 1. 覆盖 {@link IotRedisMessageBus} 分区后的每一个 Stream
+ * 2. 先通过 XCLAIM 认领超时的消息，避免与仍在消费的消费者、或者其它节点重复投递
+ * 3. 重新投递的 XADD 和 XACK，在同一个 pipeline 中执行
+ *
+ * 注意：重新投递的消息追加在 Stream 的末尾，所以不再保证与同一个设备的其它消息之间的顺序
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@AllArgsConstructor
+public class IotRedisPendingMessageResendJob {
+
+    private static final String LOCK_KEY = "iot:redis:stream:pending-message-resend:lock";
+
+    /**
+     * 认领消息时使用的消费者名字
+     */
+    private static final String RESEND_CONSUMER_NAME = "iot-pending-message-resend";
+
+    /**
+     * 消息超时时间，默认 5 分钟。超时的消息才会被重新投递
+     */
+    private static final Duration EXPIRE_TIME = Duration.ofMinutes(5);
+
+    /**
+     * 每个 Stream 每次最多处理的消息数量
+     */
+    private static final long BATCH_SIZE = 1000;
+
+    private final IotRedisMessageBus messageBus;
+    private final RedisTemplate<String, ?> redisTemplate;
+    private final RedissonClient redissonClient;
+
+    /**
+     * 一分钟执行一次,这里选择每分钟的 35 秒执行，是为了避免整点任务过多的问题
+     */
+    @Scheduled(cron = "35 * * * * ?")
+    public void messageResend() {
+        RLock lock = redissonClient.getLock(LOCK_KEY);
+        // 尝试加锁
+        if (lock.tryLock()) {
+            try {
+                execute();
+            } catch (Exception ex) {
+                log.error("[messageResend][执行异常]", ex);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void execute() {
+        StreamOperations<String, Object, Object> ops = redisTemplate.opsForStream();
+        messageBus.getStreamGroups().forEach(streamGroup -> {
+            try {
+                resend(ops, streamGroup);
+            } catch (Exception ex) {
+                log.error("[execute][Stream({}) 消费者分组({}) 重新投递异常]", streamGroup.getStreamKey(), streamGroup.getGroup(), ex);
+            }
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void resend(StreamOperations<String, Object, Object> ops, IotRedisMessageBus.StreamGroup streamGroup) {
+        String streamKey = streamGroup.getStreamKey();
+        String group = streamGroup.getGroup();
+        // 1. 获得超时的 pending 消息
+        PendingMessages pendingMessages = ops.pending(streamKey, group, Range.unbounded(), BATCH_SIZE);
+        if (pendingMessages == null || pendingMessages.isEmpty()) {
+            return;
+        }
+        RecordId[] expiredIds = pendingMessages.stream()
+                .filter(pendingMessage -> pendingMessage.getElapsedTimeSinceLastDelivery().compareTo(EXPIRE_TIME) >= 0)
+                .map(PendingMessage::getId).toArray(RecordId[]::new);
+        if (expiredIds.length == 0) {
+            return;
+        }
+
+        // 2. 认领消息：只有仍然超时的消息，才会认领成功
+        List<MapRecord<String, Object, Object>> records = ops.claim(streamKey, group, RESEND_CONSUMER_NAME,
+                EXPIRE_TIME, expiredIds);
+        if (CollUtil.isEmpty(records)) {
+            return;
+        }
+
+        // 3. 重新投递，并 ack 原消息
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            public Object execute(RedisOperations operations) {
+                StreamOperations streamOperations = operations.opsForStream();
+                records.forEach(record -> {
+                    streamOperations.add(StreamRecords.newRecord().in(streamKey).ofMap(record.getValue()));
+                    streamOperations.acknowledge(streamKey, group, record.getId());
+                });
+                return null;
+            }
+
+        });
+        log.info("[resend][Stream({}) 消费者分组({}) 重新投递消息数量({})]", streamKey, group, records.size());
+    }
+
+}
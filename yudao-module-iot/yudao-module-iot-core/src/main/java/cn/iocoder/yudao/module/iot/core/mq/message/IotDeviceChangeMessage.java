@@ -0,0 +1,53 @@
+package cn.iocoder.yudao.module.iot.core.mq.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * IoT 设备变更消息，由 iot-biz 广播给所有 iot-gateway，用于失效网关本地的设备缓存
+ *
+ * 1. 设备变更：deviceId、productKey、deviceName 非空
+ * 2. 产品变更：只有 productId 非空，该产品下的所有设备都需要失效
+ *
+ * @author 芋道源码
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IotDeviceChangeMessage {
+
+    /**
+     * 【消息总线】设备变更消息 Topic，由 iot-biz 发送给所有 iot-gateway 进行消费
+     */
+    public static final String MESSAGE_BUS_DEVICE_CHANGE_TOPIC = "iot_device_change";
+
+    /**
+     * 设备编号
+     */
+    private Long deviceId;
+    /**
+     * 产品标识
+     */
+    private String productKey;
+    /**
+     * 设备名称
+     */
+    private String deviceName;
+
+    /**
+     * 产品编号
+     */
+    private Long productId;
+
+    public static IotDeviceChangeMessage ofDevice(Long deviceId, String productKey, String deviceName) {
+        return new IotDeviceChangeMessage().setDeviceId(deviceId).setProductKey(productKey).setDeviceName(deviceName);
+    }
+
+    public static IotDeviceChangeMessage ofProduct(Long productId) {
+        return new IotDeviceChangeMessage().setProductId(productId);
+    }
+
+}
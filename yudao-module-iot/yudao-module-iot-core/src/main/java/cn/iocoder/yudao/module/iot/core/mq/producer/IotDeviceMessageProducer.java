@@ -1,10 +1,13 @@
 package cn.iocoder.yudao.module.iot.core.mq.producer;
 
 import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageBus;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceChangeMessage;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.core.util.IotDeviceMessageUtils;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 /**
  * IoT 设备消息生产者
  *
@@ -34,4 +37,23 @@ public class IotDeviceMessageProducer {
         messageBus.post(IotDeviceMessageUtils.buildMessageBusGatewayDeviceMessageTopic(serverId), message);
     }
 
+    /**
+     * 批量发送网关设备消息
+     *
+     * @param serverId 网关的 serverId 标识
+     * @param messages 设备消息列表
+     */
+    public void sendDeviceMessageListToGateway(String serverId, List<IotDeviceMessage> messages) {
+        messageBus.postBatch(IotDeviceMessageUtils.buildMessageBusGatewayDeviceMessageTopic(serverId), messages);
+    }
+
+    /**
+     * 发送设备变更消息，广播给所有网关
+     *
+     * @param message 设备变更消息
+     */
+    public void sendDeviceChangeMessage(IotDeviceChangeMessage message) {
+        messageBus.post(IotDeviceChangeMessage.MESSAGE_BUS_DEVICE_CHANGE_TOPIC, message);
+    }
+
 }
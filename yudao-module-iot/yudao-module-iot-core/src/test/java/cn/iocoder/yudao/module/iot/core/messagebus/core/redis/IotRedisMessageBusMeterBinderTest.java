@@ -0,0 +1,55 @@
+package cn.iocoder.yudao.module.iot.core.messagebus.core.redis;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link IotRedisMessageBusMeterBinder} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+public class IotRedisMessageBusMeterBinderTest {
+
+    @Mock
+    private IotRedisMessageBus messageBus;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBindTo() {
+        // 准备参数
+        IotRedisMessageBus.StreamGroup streamGroup = new IotRedisMessageBus.StreamGroup("iot_device_message:0", "test-group");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // mock 方法：已经注册的 Stream 和消费者分组，立即回调
+        doAnswer(invocation -> {
+            invocation.<Consumer<IotRedisMessageBus.StreamGroup>>getArgument(0).accept(streamGroup);
+            return null;
+        }).when(messageBus).addStreamGroupListener(any(Consumer.class));
+        when(messageBus.getPendingCount(streamGroup)).thenReturn(3L);
+        when(messageBus.getLagMillis(streamGroup)).thenThrow(new IllegalStateException("Redis 不可用"));
+
+        // 调用
+        new IotRedisMessageBusMeterBinder(messageBus).bindTo(registry);
+        // 断言
+        Gauge pending = registry.get("yudao.iot.message-bus.redis.pending")
+                .tag("stream", "iot_device_message:0").tag("group", "test-group").gauge();
+        assertEquals(3D, pending.value());
+        // 断言：获取指标失败时，返回 NaN，不影响其它指标
+        Gauge lag = registry.get("yudao.iot.message-bus.redis.lag")
+                .tag("stream", "iot_device_message:0").tag("group", "test-group").gauge();
+        assertTrue(Double.isNaN(lag.value()));
+    }
+
+}
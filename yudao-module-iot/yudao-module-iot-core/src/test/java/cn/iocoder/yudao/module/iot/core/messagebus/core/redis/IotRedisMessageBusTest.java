@@ -0,0 +1,296 @@
+package cn.iocoder.yudao.module.iot.core.messagebus.core.redis;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.iot.core.messagebus.config.IotMessageBusProperties;
+import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageBatchSubscriber;
+import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageSubscriber;
+import cn.iocoder.yudao.module.iot.core.messagebus.core.TestMessage;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link IotRedisMessageBus} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+public class IotRedisMessageBusTest {
+
+    private static final String TOPIC = IotDeviceMessage.MESSAGE_BUS_DEVICE_MESSAGE_TOPIC;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private RedisOperations<String, Object> operations;
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    private IotMessageBusProperties.Redis properties;
+
+    private IotRedisMessageBus messageBus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // mock 方法：Redis 版本
+        Properties info = new Properties();
+        info.setProperty("redis_version", "7.2.0");
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(info);
+        // 准备参数
+        properties = new IotMessageBusProperties.Redis();
+        properties.setPartitions(4);
+        properties.setPartitionTopics(Collections.singleton(TOPIC));
+        properties.setMaxLen(1000L);
+        messageBus = new IotRedisMessageBus(redisTemplate, properties);
+    }
+
+    // ========== 分区 ==========
+
+    @Test
+    public void testGetStreamKeys_partitioned() {
+        // 调用
+        List<String> streamKeys = messageBus.getStreamKeys(TOPIC);
+        // 断言
+        assertEquals(Arrays.asList(TOPIC + ":0", TOPIC + ":1", TOPIC + ":2", TOPIC + ":3"), streamKeys);
+    }
+
+    @Test
+    public void testGetStreamKeys_notPartitioned() {
+        // 调用
+        List<String> streamKeys = messageBus.getStreamKeys("other_topic");
+        // 断言
+        assertEquals(Collections.singletonList("other_topic"), streamKeys);
+    }
+
+    @Test
+    public void testGetStreamKey_sameDevice() {
+        // 准备参数
+        IotDeviceMessage message01 = IotDeviceMessage.builder().deviceId(1024L).build();
+        IotDeviceMessage message02 = IotDeviceMessage.builder().deviceId(1024L).build();
+
+        // 调用
+        String streamKey01 = messageBus.getStreamKey(TOPIC, message01);
+        String streamKey02 = messageBus.getStreamKey(TOPIC, message02);
+        // 断言：同一个设备的消息，总是路由到同一个分区
+        assertEquals(streamKey01, streamKey02);
+        assertTrue(messageBus.getStreamKeys(TOPIC).contains(streamKey01));
+    }
+
+    @Test
+    public void testGetStreamKey_spread() {
+        // 调用：连续的设备编号
+        Set<String> streamKeys = new HashSet<>();
+        for (long deviceId = 1; deviceId <= 100; deviceId++) {
+            streamKeys.add(messageBus.getStreamKey(TOPIC, IotDeviceMessage.builder().deviceId(deviceId).build()));
+        }
+        // 断言：分散到所有分区
+        assertEquals(new HashSet<>(messageBus.getStreamKeys(TOPIC)), streamKeys);
+    }
+
+    @Test
+    public void testGetStreamKey_noDevice() {
+        // 调用 + 断言：无设备编号的消息，固定在 0 号分区
+        assertEquals(TOPIC + ":0", messageBus.getStreamKey(TOPIC, new IotDeviceMessage()));
+        assertEquals(TOPIC + ":0", messageBus.getStreamKey(TOPIC, new TestMessage()));
+        // 调用 + 断言：未分区的主题，不拼接分区
+        assertEquals("other_topic", messageBus.getStreamKey("other_topic",
+                IotDeviceMessage.builder().deviceId(1024L).build()));
+    }
+
+    // ========== 发送 ==========
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPostBatch() {
+        // 准备参数
+        List<IotDeviceMessage> messages = Arrays.asList(IotDeviceMessage.builder().deviceId(1L).build(),
+                IotDeviceMessage.builder().deviceId(2L).build(), IotDeviceMessage.builder().deviceId(1L).build());
+        // mock 方法：执行 pipeline 中的操作
+        when(operations.<Object, Object>opsForStream()).thenReturn(streamOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<?>>getArgument(0).execute(operations);
+            return Arrays.asList(RecordId.of("1-0"), RecordId.of("1-1"), RecordId.of("1-2"), 0L, 0L);
+        });
+
+        // 调用
+        messageBus.postBatch(TOPIC, messages);
+        // 断言：一个 pipeline 中，每条消息发送到各自设备的分区，并裁剪涉及的 Stream
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        String streamKey01 = messageBus.getStreamKey(TOPIC, messages.get(0));
+        String streamKey02 = messageBus.getStreamKey(TOPIC, messages.get(1));
+        verify(streamOperations, times(2)).add(argThat((ObjectRecord<String, Object> record) ->
+                streamKey01.equals(record.getStream())));
+        verify(streamOperations, times(1)).add(argThat((ObjectRecord<String, Object> record) ->
+                streamKey02.equals(record.getStream())));
+        verify(streamOperations).trim(streamKey01, 1000L, true);
+        verify(streamOperations).trim(streamKey02, 1000L, true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPostBatch_empty() {
+        // 调用
+        messageBus.postBatch(TOPIC, Collections.emptyList());
+        // 断言
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    // ========== 消费 ==========
+
+    @Test
+    public void testRegister() {
+        // mock 方法
+        when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+
+        // 调用
+        messageBus.register(new TestMessageSubscriber(TOPIC, Collections.emptyList()));
+        // 断言：每个分区，创建消费者分组
+        assertEquals(4, messageBus.getStreamGroups().size());
+        messageBus.getStreamKeys(TOPIC).forEach(streamKey -> verify(streamOperations).createGroup(streamKey, "test-group"));
+        assertEquals(1, messageBus.getSubscribers().size());
+    }
+
+    @Test
+    public void testOnMessageRecords_subscriber() {
+        // 准备参数
+        List<TestMessage> received = new ArrayList<>();
+        TestMessageSubscriber subscriber = new TestMessageSubscriber(TOPIC, received);
+        IotRedisMessageBus.SubscriberStreamListener listener = messageBus.new SubscriberStreamListener(
+                subscriber, TestMessage.class, TOPIC + ":0");
+        List<ObjectRecord<String, String>> records = Arrays.asList(
+                buildRecord("1-0", JsonUtils.toJsonString(buildMessage("ok", 1))),
+                buildRecord("1-1", JsonUtils.toJsonString(buildMessage("fail", 2))),
+                buildRecord("1-2", "not json"),
+                buildRecord("1-3", JsonUtils.toJsonString(buildMessage("ok", 3))));
+
+        // 调用
+        List<RecordId> ackIds = listener.onMessageRecords(records);
+        // 断言：消费失败的消息不确认；无法反序列化的消息直接确认
+        assertEquals(new HashSet<>(Arrays.asList(RecordId.of("1-0"), RecordId.of("1-2"), RecordId.of("1-3"))),
+                new HashSet<>(ackIds));
+        assertEquals(3, received.size());
+    }
+
+    @Test
+    public void testOnMessageRecords_batchSubscriber() {
+        // 准备参数
+        List<List<TestMessage>> batches = new ArrayList<>();
+        IotMessageBatchSubscriber<TestMessage> subscriber = new TestMessageBatchSubscriber(batches, false);
+        IotRedisMessageBus.SubscriberStreamListener listener = messageBus.new SubscriberStreamListener(
+                subscriber, TestMessage.class, TOPIC + ":1");
+        List<ObjectRecord<String, String>> records = Arrays.asList(
+                buildRecord("1-0", JsonUtils.toJsonString(buildMessage("a", 1))),
+                buildRecord("1-1", JsonUtils.toJsonString(buildMessage("b", 2))));
+
+        // 调用
+        List<RecordId> ackIds = listener.onMessageRecords(records);
+        // 断言：整批处理，整批确认
+        assertEquals(Arrays.asList(RecordId.of("1-0"), RecordId.of("1-1")), ackIds);
+        assertEquals(1, batches.size());
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(batches.get(0).get(0).getNickname(),
+                batches.get(0).get(1).getNickname()));
+    }
+
+    @Test
+    public void testOnMessageRecords_batchSubscriberFail() {
+        // 准备参数
+        IotMessageBatchSubscriber<TestMessage> subscriber = new TestMessageBatchSubscriber(new ArrayList<>(), true);
+        IotRedisMessageBus.SubscriberStreamListener listener = messageBus.new SubscriberStreamListener(
+                subscriber, TestMessage.class, TOPIC + ":1");
+        List<ObjectRecord<String, String>> records = Arrays.asList(
+                buildRecord("1-0", JsonUtils.toJsonString(buildMessage("a", 1))),
+                buildRecord("1-1", JsonUtils.toJsonString(buildMessage("b", 2))));
+
+        // 调用
+        List<RecordId> ackIds = listener.onMessageRecords(records);
+        // 断言：批量消费失败，整批都不确认，等待重新投递
+        assertTrue(ackIds.isEmpty());
+    }
+
+    private static ObjectRecord<String, String> buildRecord(String id, String value) {
+        return StreamRecords.newRecord().in(TOPIC).ofObject(value).withId(RecordId.of(id));
+    }
+
+    private static TestMessage buildMessage(String nickname, Integer age) {
+        TestMessage message = new TestMessage();
+        message.setNickname(nickname);
+        message.setAge(age);
+        return message;
+    }
+
+    private static class TestMessageSubscriber implements IotMessageSubscriber<TestMessage> {
+
+        private final String topic;
+        private final List<TestMessage> received;
+
+        TestMessageSubscriber(String topic, List<TestMessage> received) {
+            this.topic = topic;
+            this.received = received;
+        }
+
+        @Override
+        public String getTopic() {
+            return topic;
+        }
+
+        @Override
+        public String getGroup() {
+            return "test-group";
+        }
+
+        @Override
+        public void onMessage(TestMessage message) {
+            received.add(message);
+            if ("fail".equals(message.getNickname())) {
+                throw new IllegalStateException("消费失败");
+            }
+        }
+
+    }
+
+    private static class TestMessageBatchSubscriber implements IotMessageBatchSubscriber<TestMessage> {
+
+        private final List<List<TestMessage>> batches;
+        private final boolean fail;
+
+        TestMessageBatchSubscriber(List<List<TestMessage>> batches, boolean fail) {
+            this.batches = batches;
+            this.fail = fail;
+        }
+
+        @Override
+        public String getTopic() {
+            return TOPIC;
+        }
+
+        @Override
+        public String getGroup() {
+            return "test-batch-group";
+        }
+
+        @Override
+        public void onMessageBatch(List<TestMessage> messages) {
+            if (fail) {
+                throw new IllegalStateException("批量消费失败");
+            }
+            batches.add(messages);
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package cn.iocoder.yudao.module.iot.core.messagebus.core.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link IotRedisPendingMessageResendJob} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@ExtendWith(MockitoExtension.class)
+public class IotRedisPendingMessageResendJobTest {
+
+    private static final String STREAM_KEY = "iot_device_message:1";
+    private static final String GROUP = "test-group";
+
+    @Mock
+    private IotRedisMessageBus messageBus;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private RedisOperations<String, Object> operations;
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RLock lock;
+
+    private IotRedisPendingMessageResendJob job;
+
+    @BeforeEach
+    public void setUp() {
+        job = new IotRedisPendingMessageResendJob(messageBus, redisTemplate, redissonClient);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMessageResend() {
+        // mock 方法：加锁成功
+        when(lock.tryLock()).thenReturn(true);
+        // mock 方法：1 个分区 Stream 的消费者分组
+        when(messageBus.getStreamGroups()).thenReturn(Collections.singletonList(
+                new IotRedisMessageBus.StreamGroup(STREAM_KEY, GROUP)));
+        when(redisTemplate.<Object, Object>opsForStream()).thenReturn(streamOperations);
+        // mock 方法：3 条 pending 消息，其中 1-1 未超时
+        Consumer consumer = Consumer.from(GROUP, "crashed-consumer");
+        when(streamOperations.pending(eq(STREAM_KEY), eq(GROUP), eq(Range.unbounded()), eq(1000L)))
+                .thenReturn(new PendingMessages(GROUP, Arrays.asList(
+                        new PendingMessage(RecordId.of("1-0"), consumer, Duration.ofMinutes(6), 1),
+                        new PendingMessage(RecordId.of("1-1"), consumer, Duration.ofSeconds(10), 1),
+                        new PendingMessage(RecordId.of("1-2"), consumer, Duration.ofMinutes(5), 2))));
+        // mock 方法：认领超时的消息
+        Map<Object, Object> value = Collections.singletonMap("payload", "{\"deviceId\":1}");
+        MapRecord<String, Object, Object> record01 = StreamRecords.newRecord().in(STREAM_KEY).ofMap(value)
+                .withId(RecordId.of("1-0"));
+        MapRecord<String, Object, Object> record02 = StreamRecords.newRecord().in(STREAM_KEY).ofMap(value)
+                .withId(RecordId.of("1-2"));
+        when(streamOperations.claim(eq(STREAM_KEY), eq(GROUP), eq("iot-pending-message-resend"),
+                eq(Duration.ofMinutes(5)), eq(RecordId.of("1-0")), eq(RecordId.of("1-2"))))
+                .thenReturn(Arrays.asList(record01, record02));
+        // mock 方法：执行 pipeline 中的操作
+        when(operations.<Object, Object>opsForStream()).thenReturn(streamOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<?>>getArgument(0).execute(operations);
+            return Collections.emptyList();
+        });
+
+        // 调用
+        job.messageResend();
+        // 断言：只重新投递超时的消息，并 ack 原消息
+        verify(streamOperations, times(2)).add(argThat((MapRecord<String, Object, Object> record) ->
+                STREAM_KEY.equals(record.getStream()) && value.equals(record.getValue())));
+        verify(streamOperations).acknowledge(STREAM_KEY, GROUP, RecordId.of("1-0"));
+        verify(streamOperations).acknowledge(STREAM_KEY, GROUP, RecordId.of("1-2"));
+        verify(streamOperations, never()).acknowledge(STREAM_KEY, GROUP, RecordId.of("1-1"));
+        verify(lock).unlock();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMessageResend_noExpired() {
+        // mock 方法：加锁成功
+        when(lock.tryLock()).thenReturn(true);
+        when(messageBus.getStreamGroups()).thenReturn(Collections.singletonList(
+                new IotRedisMessageBus.StreamGroup(STREAM_KEY, GROUP)));
+        when(redisTemplate.<Object, Object>opsForStream()).thenReturn(streamOperations);
+        // mock 方法：pending 消息都未超时
+        when(streamOperations.pending(eq(STREAM_KEY), eq(GROUP), eq(Range.unbounded()), eq(1000L)))
+                .thenReturn(new PendingMessages(GROUP, Collections.singletonList(
+                        new PendingMessage(RecordId.of("1-0"), Consumer.from(GROUP, "consumer"), Duration.ofSeconds(30), 1))));
+
+        // 调用
+        job.messageResend();
+        // 断言：不认领、不重新投递
+        verify(streamOperations, never()).claim(anyString(), anyString(), anyString(), any(Duration.class), any(RecordId.class));
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+        verify(lock).unlock();
+    }
+
+    @Test
+    public void testMessageResend_lockFail() {
+        // mock 方法：其它节点正在执行
+        when(lock.tryLock()).thenReturn(false);
+
+        // 调用
+        job.messageResend();
+        // 断言
+        verifyNoInteractions(messageBus, redisTemplate);
+        verify(lock, never()).unlock();
+    }
+
+}
@@ -0,0 +1,40 @@
+package cn.iocoder.yudao.module.iot.gateway.codec;
+
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * 基于 Vert.x {@link Buffer} 的 {@link IotDeviceMessage} 编解码器
+ *
+ * 相比 {@link IotDeviceMessageCodec} 的 byte[] 方法：
+ * 1. 解码时，直接读取网络层分帧后的 Buffer 切片，不拷贝出 byte[]
+ * 2. 编码时，直接写入待发送的 Buffer，不创建中间的 Buffer 和 byte[]
+ *
+ * @author 芋道源码
+ */
+public interface IotDeviceMessageBufferCodec extends IotDeviceMessageCodec {
+
+    /**
+     * 编码时，Buffer 的初始容量。Buffer 会按需扩容，只用于减少常见消息的扩容次数
+     */
+    int ENCODE_INITIAL_CAPACITY = 256;
+
+    /**
+     * 编码消息，追加写入到 buffer 中
+     *
+     * 注意：编码失败时，buffer 中可能已经写入部分数据，不应该再使用
+     *
+     * @param message 消息
+     * @param buffer  写入的 Buffer
+     */
+    void encode(IotDeviceMessage message, Buffer buffer);
+
+    /**
+     * 解码消息
+     *
+     * @param buffer 一条完整的消息内容
+     * @return 解码后的消息内容
+     */
+    IotDeviceMessage decode(Buffer buffer);
+
+}
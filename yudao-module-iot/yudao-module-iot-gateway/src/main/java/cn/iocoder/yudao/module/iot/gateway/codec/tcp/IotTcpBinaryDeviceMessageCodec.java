@@ -3,14 +3,19 @@ package cn.iocoder.yudao.module.iot.gateway.codec.tcp;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceMessageMethodEnum;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.core.util.IotDeviceMessageUtils;
-import cn.iocoder.yudao.module.iot.gateway.codec.IotDeviceMessageCodec;
+import cn.iocoder.yudao.module.iot.gateway.codec.IotDeviceMessageBufferCodec;
+import io.netty.buffer.ByteBuf;
 import io.vertx.core.buffer.Buffer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * TCP 二进制格式 {@link IotDeviceMessage} 编解码器
@@ -34,19 +39,23 @@ import java.nio.charset.StandardCharsets;
  * - 响应消息：code (4字节) + msg 长度(2字节) + msg 字符串 + data 数据(JSON)
  * <p>
  * 注意：deviceId 不包含在协议中，由服务器根据连接上下文自动设置
+ * <p>
+ * 编解码直接基于 {@link Buffer} 实现，byte[] 方法只是包装：
+ * 1. 解码：直接读取 Buffer，JSON 从底层数组原地解析；常见的方法名不创建新的 String
+ * 2. 编码：直接写入 Buffer，JSON 通过输出流写入，常见的方法名使用缓存的 byte[]
  *
  * @author 芋道源码
  */
 @Slf4j
 @Component
-public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageCodec {
+public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageBufferCodec {
 
     public static final String TYPE = "TCP_BINARY";
 
     /**
      * 协议魔术字，用于协议识别
      */
-    private static final byte MAGIC_NUMBER = (byte) 0x7E;
+    static final byte MAGIC_NUMBER = (byte) 0x7E;
 
     /**
      * 协议版本号
@@ -66,12 +75,38 @@ public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageCodec {
     /**
      * 协议头部固定长度（魔术字 + 版本号 + 消息类型 + 消息长度）
      */
-    private static final int HEADER_FIXED_LENGTH = 7;
+    static final int HEADER_FIXED_LENGTH = 7;
+
+    /**
+     * 消息长度字段的位置
+     */
+    static final int LENGTH_FIELD_OFFSET = 3;
 
     /**
      * 最小消息长度（头部 + 消息ID长度 + 方法名长度）
      */
-    private static final int MIN_MESSAGE_LENGTH = HEADER_FIXED_LENGTH + 4;
+    static final int MIN_MESSAGE_LENGTH = HEADER_FIXED_LENGTH + 4;
+
+    /**
+     * 常见的方法名，解码时复用 String，编码时复用 byte[]
+     */
+    private static final String[] KNOWN_METHODS;
+    private static final byte[][] KNOWN_METHOD_BYTES;
+    private static final Map<String, byte[]> KNOWN_METHOD_BYTES_MAP = new HashMap<>();
+
+    static {
+        IotDeviceMessageMethodEnum[] methodEnums = IotDeviceMessageMethodEnum.values();
+        KNOWN_METHODS = new String[methodEnums.length + 1];
+        KNOWN_METHOD_BYTES = new byte[KNOWN_METHODS.length][];
+        for (int i = 0; i < methodEnums.length; i++) {
+            KNOWN_METHODS[i] = methodEnums[i].getMethod();
+        }
+        KNOWN_METHODS[methodEnums.length] = "auth"; // 认证请求，见 IotTcpUpstreamHandler
+        for (int i = 0; i < KNOWN_METHODS.length; i++) {
+            KNOWN_METHOD_BYTES[i] = KNOWN_METHODS[i].getBytes(StandardCharsets.UTF_8);
+            KNOWN_METHOD_BYTES_MAP.put(KNOWN_METHODS[i], KNOWN_METHOD_BYTES[i]);
+        }
+    }
 
     @Override
     public String type() {
@@ -80,15 +115,46 @@ public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageCodec {
 
     @Override
     public byte[] encode(IotDeviceMessage message) {
+        Buffer buffer = Buffer.buffer(ENCODE_INITIAL_CAPACITY);
+        encode(message, buffer);
+        return buffer.getBytes();
+    }
+
+    @Override
+    public IotDeviceMessage decode(byte[] bytes) {
+        Assert.notNull(bytes, "待解码数据不能为空");
+        return decode(Buffer.buffer(bytes));
+    }
+
+    @Override
+    public void encode(IotDeviceMessage message, Buffer buffer) {
         Assert.notNull(message, "消息不能为空");
         Assert.notBlank(message.getMethod(), "消息方法不能为空");
         try {
-            // 1. 确定消息类型
+            int startIndex = buffer.length();
+            // 1. 写入协议头部
             byte messageType = determineMessageType(message);
-            // 2. 构建消息体
-            byte[] bodyData = buildMessageBody(message, messageType);
-            // 3. 构建完整消息
-            return buildCompleteMessage(message, messageType, bodyData);
+            buffer.appendByte(MAGIC_NUMBER);
+            buffer.appendByte(PROTOCOL_VERSION);
+            buffer.appendByte(messageType);
+            // 预留消息长度位置（在 5. 更新消息长度）
+            buffer.appendInt(0);
+            // 2. 写入消息 ID
+            String messageId = StrUtil.isNotBlank(message.getRequestId()) ? message.getRequestId()
+                    : IotDeviceMessageUtils.generateMessageId();
+            appendShortString(buffer, messageId);
+            // 3. 写入方法名
+            byte[] methodBytes = KNOWN_METHOD_BYTES_MAP.get(message.getMethod());
+            if (methodBytes != null) {
+                buffer.appendShort((short) methodBytes.length);
+                buffer.appendBytes(methodBytes);
+            } else {
+                appendShortString(buffer, message.getMethod());
+            }
+            // 4. 写入消息体
+            appendMessageBody(buffer, message, messageType);
+            // 5. 更新消息长度
+            buffer.setInt(startIndex + LENGTH_FIELD_OFFSET, buffer.length() - startIndex);
         } catch (Exception e) {
             log.error("[encode][TCP 二进制消息编码失败，消息: {}]", message, e);
             throw new RuntimeException("TCP 二进制消息编码失败: " + e.getMessage(), e);
@@ -96,11 +162,10 @@ public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageCodec {
     }
 
     @Override
-    public IotDeviceMessage decode(byte[] bytes) {
-        Assert.notNull(bytes, "待解码数据不能为空");
-        Assert.isTrue(bytes.length >= MIN_MESSAGE_LENGTH, "数据包长度不足");
+    public IotDeviceMessage decode(Buffer buffer) {
+        Assert.notNull(buffer, "待解码数据不能为空");
+        Assert.isTrue(buffer.length() >= MIN_MESSAGE_LENGTH, "数据包长度不足");
         try {
-            Buffer buffer = Buffer.buffer(bytes);
             // 解析协议头部和消息内容
             int index = 0;
             // 1. 验证魔术字
@@ -132,13 +197,13 @@ public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageCodec {
             // 6. 读取方法名
             short methodLength = buffer.getShort(index);
             index += 2;
-            String method = buffer.getString(index, index + methodLength, StandardCharsets.UTF_8.name());
+            String method = readMethod(buffer, index, methodLength);
             index += methodLength;
 
             // 7. 解析消息体
             return parseMessageBody(buffer, index, messageType, messageId, method);
         } catch (Exception e) {
-            log.error("[decode][TCP 二进制消息解码失败，数据长度: {}]", bytes.length, e);
+            log.error("[decode][TCP 二进制消息解码失败，数据长度: {}]", buffer.length(), e);
             throw new RuntimeException("TCP 二进制消息解码失败: " + e.getMessage(), e);
         }
     }
@@ -157,59 +222,59 @@ public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageCodec {
     }
 
     /**
-     * 构建消息体
+     * 写入消息体
      */
-    private byte[] buildMessageBody(IotDeviceMessage message, byte messageType) {
-        Buffer bodyBuffer = Buffer.buffer();
+    private void appendMessageBody(Buffer buffer, IotDeviceMessage message, byte messageType) {
         if (messageType == RESPONSE) {
             // code
-            bodyBuffer.appendInt(message.getCode() != null ? message.getCode() : 0);
+            buffer.appendInt(message.getCode() != null ? message.getCode() : 0);
             // msg
-            String msg = message.getMsg() != null ? message.getMsg() : "";
-            byte[] msgBytes = StrUtil.utf8Bytes(msg);
-            bodyBuffer.appendShort((short) msgBytes.length);
-            bodyBuffer.appendBytes(msgBytes);
+            appendShortString(buffer, message.getMsg() != null ? message.getMsg() : "");
             // data
             if (message.getData() != null) {
-                bodyBuffer.appendBytes(JsonUtils.toJsonByte(message.getData()));
+                JsonUtils.writeJson(new BufferOutputStream(buffer), message.getData());
             }
         } else {
             // 请求消息只处理 params 参数
             // TODO @haohao：如果为空，是不是得写个长度 0 哈？
             if (message.getParams() != null) {
-                bodyBuffer.appendBytes(JsonUtils.toJsonByte(message.getParams()));
+                JsonUtils.writeJson(new BufferOutputStream(buffer), message.getParams());
             }
         }
-        return bodyBuffer.getBytes();
     }
 
     /**
-     * 构建完整消息
+     * 写入 2 字节长度 + UTF-8 字符串。先预留长度，写入后再回填，避免额外创建 byte[]
      */
-    private byte[] buildCompleteMessage(IotDeviceMessage message, byte messageType, byte[] bodyData) {
-        Buffer buffer = Buffer.buffer();
-        // 1. 写入协议头部
-        buffer.appendByte(MAGIC_NUMBER);
-        buffer.appendByte(PROTOCOL_VERSION);
-        buffer.appendByte(messageType);
-        // 2. 预留消息长度位置（在 5. 更新消息长度）
-        int lengthPosition = buffer.length();
-        buffer.appendInt(0);
-        // 3. 写入消息 ID
-        String messageId = StrUtil.isNotBlank(message.getRequestId()) ? message.getRequestId()
-                : IotDeviceMessageUtils.generateMessageId();
-        byte[] messageIdBytes = StrUtil.utf8Bytes(messageId);
-        buffer.appendShort((short) messageIdBytes.length);
-        buffer.appendBytes(messageIdBytes);
-        // 4. 写入方法名
-        byte[] methodBytes = StrUtil.utf8Bytes(message.getMethod());
-        buffer.appendShort((short) methodBytes.length);
-        buffer.appendBytes(methodBytes);
-        // 5. 写入消息体
-        buffer.appendBytes(bodyData);
-        // 6. 更新消息长度
-        buffer.setInt(lengthPosition, buffer.length());
-        return buffer.getBytes();
+    private static void appendShortString(Buffer buffer, String value) {
+        int lengthIndex = buffer.length();
+        buffer.appendShort((short) 0);
+        buffer.appendString(value);
+        buffer.setShort(lengthIndex, (short) (buffer.length() - lengthIndex - 2));
+    }
+
+    /**
+     * 读取方法名；常见的方法名，直接复用常量，不创建新的 String
+     */
+    private static String readMethod(Buffer buffer, int index, int length) {
+        for (int i = 0; i < KNOWN_METHOD_BYTES.length; i++) {
+            if (equals(buffer, index, length, KNOWN_METHOD_BYTES[i])) {
+                return KNOWN_METHODS[i];
+            }
+        }
+        return buffer.getString(index, index + length, StandardCharsets.UTF_8.name());
+    }
+
+    private static boolean equals(Buffer buffer, int index, int length, byte[] expected) {
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.getByte(index + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -258,15 +323,19 @@ public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageCodec {
     }
 
     /**
-     * 解析 JSON 数据
+     * 解析 JSON 数据。堆内存的 Buffer，直接基于底层数组解析，不拷贝
      */
     private Object parseJsonData(Buffer buffer, int startIndex, int endIndex) {
         if (startIndex >= endIndex) {
             return null;
         }
         try {
-            String jsonStr = buffer.getString(startIndex, endIndex, StandardCharsets.UTF_8.name());
-            return JsonUtils.parseObject(jsonStr, Object.class);
+            ByteBuf byteBuf = buffer.getByteBuf();
+            if (byteBuf.hasArray()) {
+                return JsonUtils.parseObject(byteBuf.array(), byteBuf.arrayOffset() + startIndex,
+                        endIndex - startIndex, Object.class);
+            }
+            return JsonUtils.parseObject(buffer.getBytes(startIndex, endIndex), Object.class);
         } catch (Exception e) {
             log.warn("[parseJsonData][JSON 解析失败，返回原始字符串]", e);
             return buffer.getString(startIndex, endIndex, StandardCharsets.UTF_8.name());
@@ -283,4 +352,37 @@ public class IotTcpBinaryDeviceMessageCodec implements IotDeviceMessageCodec {
         return data != null && data.length >= 1 && data[0] == MAGIC_NUMBER;
     }
 
-}
\ No newline at end of file
+    /**
+     * 快速检测是否为二进制格式
+     *
+     * @param buffer 数据
+     * @return 是否为二进制格式
+     */
+    public static boolean isBinaryFormatQuick(Buffer buffer) {
+        return buffer != null && buffer.length() >= 1 && buffer.getByte(0) == MAGIC_NUMBER;
+    }
+
+    /**
+     * 写入 {@link Buffer} 的输出流，用于 JSON 直接序列化到 Buffer 中
+     */
+    private static final class BufferOutputStream extends OutputStream {
+
+        private final Buffer buffer;
+
+        private BufferOutputStream(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.appendByte((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            buffer.appendBytes(bytes, offset, length);
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package cn.iocoder.yudao.module.iot.gateway.codec.tcp;
+
+import cn.hutool.core.lang.Assert;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+
+import static cn.iocoder.yudao.module.iot.gateway.codec.tcp.IotTcpBinaryDeviceMessageCodec.*;
+
+/**
+ * TCP 二进制协议的分帧器
+ *
+ * TCP 是字节流：一次读取可能包含半条消息，也可能包含多条消息。因此按照头部的「消息长度」字段，切分出完整的消息帧：
+ * 1. 完整的消息帧，使用 {@link Buffer#slice(int, int)} 切片后回调，不拷贝数据
+ * 2. 不完整的剩余数据，暂存到 pending 中，等待下一次读取
+ *
+ * 注意：回调的消息帧与读取的 Buffer 共享内存，只能在回调中同步使用
+ *
+ * 每个连接一个实例，非线程安全（Vert.x 保证同一个连接的回调在同一个 EventLoop 中执行）
+ *
+ * @author 芋道源码
+ */
+public class IotTcpBinaryFrameParser implements Handler<Buffer> {
+
+    /**
+     * 单条消息的最大长度（字节）
+     */
+    private final int maxFrameLength;
+    /**
+     * 消息帧的处理器
+     */
+    private final Handler<Buffer> frameHandler;
+
+    /**
+     * 未处理完的数据
+     */
+    private Buffer pending;
+
+    public IotTcpBinaryFrameParser(int maxFrameLength, Handler<Buffer> frameHandler) {
+        Assert.isTrue(maxFrameLength >= MIN_MESSAGE_LENGTH, "maxFrameLength({}) 不能小于 {}",
+                maxFrameLength, MIN_MESSAGE_LENGTH);
+        this.maxFrameLength = maxFrameLength;
+        this.frameHandler = frameHandler;
+    }
+
+    /**
+     * 处理读取到的数据
+     *
+     * @param buffer 数据
+     * @throws IllegalArgumentException 数据不符合协议时，此时应该关闭连接
+     */
+    @Override
+    public void handle(Buffer buffer) {
+        Buffer data = buffer;
+        if (pending != null) {
+            data = pending.appendBuffer(buffer);
+            pending = null;
+        }
+        int index = 0;
+        int length = data.length();
+        while (length - index >= HEADER_FIXED_LENGTH) {
+            // 1. 校验头部
+            byte magic = data.getByte(index);
+            if (magic != MAGIC_NUMBER) {
+                throw new IllegalArgumentException("无效的协议魔术字: " + magic);
+            }
+            int frameLength = data.getInt(index + LENGTH_FIELD_OFFSET);
+            if (frameLength < MIN_MESSAGE_LENGTH || frameLength > maxFrameLength) {
+                throw new IllegalArgumentException("无效的消息长度: " + frameLength);
+            }
+            // 2. 不完整，等待更多数据
+            if (length - index < frameLength) {
+                break;
+            }
+            // 3. 完整的消息帧，切片回调
+            frameHandler.handle(data.slice(index, index + frameLength));
+            index += frameLength;
+        }
+        // 暂存剩余数据。需要拷贝，因为读取的 Buffer 可能会被复用
+        if (index < length) {
+            pending = data.getBuffer(index, length);
+        }
+    }
+
+}
@@ -14,6 +14,13 @@ import java.util.List;
 @Data
 public class IotGatewayProperties {
 
+    /**
+     * 网关编号，多个网关实例之间唯一，重启后保持不变
+     *
+     * 为空时，使用网关地址 + 第一个开启的协议的监听端口；同一台机器上部署多个未开启协议的网关时，需要配置
+     */
+    private String serverId;
+
     /**
      * 设备 RPC 服务配置
      */
@@ -28,6 +35,11 @@ public class IotGatewayProperties {
      */
     private ProtocolProperties protocol;
 
+    /**
+     * 设备缓存配置
+     */
+    private DeviceCacheProperties deviceCache = new DeviceCacheProperties();
+
     @Data
     public static class RpcProperties {
 
@@ -65,6 +77,34 @@ public class IotGatewayProperties {
 
     }
 
+    @Data
+    public static class DeviceCacheProperties {
+
+        /**
+         * 是否在启动时预热：分批加载全部设备
+         */
+        private Boolean warmUpEnabled = true;
+        /**
+         * 预热时，每批加载的设备数量
+         */
+        private Integer warmUpBatchSize = 1000;
+
+        /**
+         * 缓存的最大设备数量
+         */
+        private Long maximumSize = 1_000_000L;
+
+        /**
+         * 缓存未命中时，合并加载的最大设备数量
+         */
+        private Integer loadBatchSize = 100;
+        /**
+         * 缓存未命中时，合并加载的等待时间：在该时间内的未命中，会合并成一次批量 RPC 调用
+         */
+        private Duration loadBatchDelay = Duration.ofMillis(5);
+
+    }
+
     @Data
     public static class ProtocolProperties {
 
@@ -313,6 +353,13 @@ public class IotGatewayProperties {
          */
         private Integer maxConnections = 1000;
 
+        /**
+         * 最大消息大小（字节）
+         *
+         * 二进制协议分帧时，超过该大小的消息，视为非法数据，关闭连接
+         */
+        private Integer maxMessageSize = 65536;
+
         /**
          * 是否启用SSL
          */
@@ -24,6 +24,7 @@ import javax.annotation.PreDestroy;
 @Slf4j
 public class IotTcpUpstreamProtocol {
 
+    @Getter
     private final IotGatewayProperties.TcpProperties tcpProperties;
 
     private final IotDeviceService deviceService;
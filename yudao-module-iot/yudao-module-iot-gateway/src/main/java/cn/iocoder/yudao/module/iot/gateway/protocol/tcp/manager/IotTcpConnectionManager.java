@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.iot.gateway.protocol.tcp.manager;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.net.NetSocket;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -112,6 +113,13 @@ public class IotTcpConnectionManager {
      * 发送消息到设备
      */
     public boolean sendToDevice(Long deviceId, byte[] data) {
+        return sendToDevice(deviceId, Buffer.buffer(data));
+    }
+
+    /**
+     * 发送消息到设备
+     */
+    public boolean sendToDevice(Long deviceId, Buffer buffer) {
         NetSocket socket = deviceSocketMap.get(deviceId);
         if (socket == null) {
             log.warn("[sendToDevice][设备未连接，设备 ID: {}]", deviceId);
@@ -119,8 +127,8 @@ public class IotTcpConnectionManager {
         }
 
         try {
-            socket.write(io.vertx.core.buffer.Buffer.buffer(data));
-            log.debug("[sendToDevice][发送消息成功，设备 ID: {}，数据长度: {} 字节]", deviceId, data.length);
+            socket.write(buffer);
+            log.debug("[sendToDevice][发送消息成功，设备 ID: {}，数据长度: {} 字节]", deviceId, buffer.length());
             return true;
         } catch (Exception e) {
             log.error("[sendToDevice][发送消息失败，设备 ID: {}]", deviceId, e);
@@ -2,9 +2,11 @@ package cn.iocoder.yudao.module.iot.gateway.protocol.tcp.router;
 
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceRespDTO;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.gateway.codec.IotDeviceMessageBufferCodec;
 import cn.iocoder.yudao.module.iot.gateway.protocol.tcp.manager.IotTcpConnectionManager;
 import cn.iocoder.yudao.module.iot.gateway.service.device.IotDeviceService;
 import cn.iocoder.yudao.module.iot.gateway.service.device.message.IotDeviceMessageService;
+import io.vertx.core.buffer.Buffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,12 +46,13 @@ public class IotTcpDownstreamHandler {
             }
 
             // 2. 根据产品 Key 和设备名称编码消息并发送到设备
-            byte[] bytes = deviceMessageService.encodeDeviceMessage(message, deviceInfo.getProductKey(),
-                    deviceInfo.getDeviceName());
-            boolean success = connectionManager.sendToDevice(message.getDeviceId(), bytes);
+            Buffer buffer = Buffer.buffer(IotDeviceMessageBufferCodec.ENCODE_INITIAL_CAPACITY);
+            deviceMessageService.encodeDeviceMessage(message, deviceInfo.getProductKey(),
+                    deviceInfo.getDeviceName(), buffer);
+            boolean success = connectionManager.sendToDevice(message.getDeviceId(), buffer);
             if (success) {
                 log.info("[handle][下行消息发送成功，设备 ID: {}，方法: {}，消息 ID: {}，数据长度: {} 字节]",
-                        message.getDeviceId(), message.getMethod(), message.getId(), bytes.length);
+                        message.getDeviceId(), message.getMethod(), message.getId(), buffer.length());
             } else {
                 log.error("[handle][下行消息发送失败，设备 ID: {}，方法: {}，消息 ID: {}]",
                         message.getDeviceId(), message.getMethod(), message.getId());
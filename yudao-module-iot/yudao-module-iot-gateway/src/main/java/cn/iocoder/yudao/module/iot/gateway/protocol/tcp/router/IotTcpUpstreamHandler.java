@@ -12,7 +12,9 @@ import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceAuthReqDTO;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceRespDTO;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.core.util.IotDeviceAuthUtils;
+import cn.iocoder.yudao.module.iot.gateway.codec.IotDeviceMessageBufferCodec;
 import cn.iocoder.yudao.module.iot.gateway.codec.tcp.IotTcpBinaryDeviceMessageCodec;
+import cn.iocoder.yudao.module.iot.gateway.codec.tcp.IotTcpBinaryFrameParser;
 import cn.iocoder.yudao.module.iot.gateway.codec.tcp.IotTcpJsonDeviceMessageCodec;
 import cn.iocoder.yudao.module.iot.gateway.protocol.tcp.IotTcpUpstreamProtocol;
 import cn.iocoder.yudao.module.iot.gateway.protocol.tcp.manager.IotTcpConnectionManager;
@@ -26,6 +28,10 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * TCP 上行消息处理器
  *
+ * 每个连接一个实例。根据连接的首个数据包，确定分帧方式：
+ * 1. 二进制格式：使用 {@link IotTcpBinaryFrameParser} 按照消息长度分帧，解决 TCP 粘包、半包的问题
+ * 2. JSON 格式：每次读取的数据，作为一条消息
+ *
  * @author 芋道源码
  */
 @Slf4j
@@ -46,6 +52,13 @@ public class IotTcpUpstreamHandler implements Handler<NetSocket> {
 
     private final String serverId;
 
+    private final int maxMessageSize;
+
+    /**
+     * 消息帧的处理器，在收到首个数据包时初始化
+     */
+    private Handler<Buffer> frameHandler;
+
     public IotTcpUpstreamHandler(IotTcpUpstreamProtocol protocol,
                                  IotDeviceMessageService deviceMessageService,
                                  IotDeviceService deviceService,
@@ -55,6 +68,7 @@ public class IotTcpUpstreamHandler implements Handler<NetSocket> {
         this.connectionManager = connectionManager;
         this.deviceApi = SpringUtil.getBean(IotDeviceCommonApi.class);
         this.serverId = protocol.getServerId();
+        this.maxMessageSize = protocol.getTcpProperties().getMaxMessageSize();
     }
 
     @Override
@@ -75,7 +89,13 @@ public class IotTcpUpstreamHandler implements Handler<NetSocket> {
         // 设置消息处理器
         socket.handler(buffer -> {
             try {
-                processMessage(clientId, buffer, socket);
+                if (frameHandler == null) {
+                    if (buffer.length() == 0) {
+                        return;
+                    }
+                    frameHandler = createFrameHandler(clientId, buffer, socket);
+                }
+                frameHandler.handle(buffer);
             } catch (Exception e) {
                 log.error("[handle][消息解码失败，断开连接，客户端 ID: {}，地址: {}，错误: {}]",
                         clientId, socket.remoteAddress(), e.getMessage());
@@ -85,15 +105,31 @@ public class IotTcpUpstreamHandler implements Handler<NetSocket> {
         });
     }
 
+    /**
+     * 创建消息帧的处理器
+     *
+     * @param clientId 客户端 ID
+     * @param buffer   首个数据包
+     * @param socket   网络连接
+     * @return 消息帧的处理器
+     */
+    private Handler<Buffer> createFrameHandler(String clientId, Buffer buffer, NetSocket socket) {
+        Handler<Buffer> messageHandler = frame -> processMessage(clientId, frame, socket);
+        if (IotTcpBinaryDeviceMessageCodec.isBinaryFormatQuick(buffer)) {
+            return new IotTcpBinaryFrameParser(maxMessageSize, messageHandler);
+        }
+        return messageHandler;
+    }
+
     /**
      * 处理消息
      *
      * @param clientId 客户端 ID
      * @param buffer   消息
      * @param socket   网络连接
-     * @throws Exception 消息解码失败时抛出异常
+     * @throws IllegalStateException 消息解码失败时抛出异常
      */
-    private void processMessage(String clientId, Buffer buffer, NetSocket socket) throws Exception {
+    private void processMessage(String clientId, Buffer buffer, NetSocket socket) {
         // 1. 基础检查
         if (buffer == null || buffer.length() == 0) {
             return;
@@ -105,13 +141,13 @@ public class IotTcpUpstreamHandler implements Handler<NetSocket> {
         // 3. 解码消息
         IotDeviceMessage message;
         try {
-            message = deviceMessageService.decodeDeviceMessage(buffer.getBytes(), codecType);
-            if (message == null) {
-                throw new Exception("解码后消息为空");
-            }
+            message = deviceMessageService.decodeDeviceMessage(buffer, codecType);
         } catch (Exception e) {
             // 消息格式错误时抛出异常，由上层处理连接断开
-            throw new Exception("消息解码失败: " + e.getMessage(), e);
+            throw new IllegalStateException("消息解码失败: " + e.getMessage(), e);
+        }
+        if (message == null) {
+            throw new IllegalStateException("消息解码失败: 解码后消息为空");
         }
 
         // 4. 根据消息类型路由处理
@@ -235,7 +271,7 @@ public class IotTcpUpstreamHandler implements Handler<NetSocket> {
         }
 
         // 2. 未认证时检测消息格式类型
-        return IotTcpBinaryDeviceMessageCodec.isBinaryFormatQuick(buffer.getBytes()) ? CODEC_TYPE_BINARY
+        return IotTcpBinaryDeviceMessageCodec.isBinaryFormatQuick(buffer) ? CODEC_TYPE_BINARY
                 : CODEC_TYPE_JSON;
     }
 
@@ -317,8 +353,9 @@ public class IotTcpUpstreamHandler implements Handler<NetSocket> {
             IotDeviceMessage responseMessage = IotDeviceMessage.replyOf(requestId, AUTH_METHOD, responseData,
                     code, message);
 
-            byte[] encodedData = deviceMessageService.encodeDeviceMessage(responseMessage, codecType);
-            socket.write(Buffer.buffer(encodedData));
+            Buffer buffer = Buffer.buffer(IotDeviceMessageBufferCodec.ENCODE_INITIAL_CAPACITY);
+            deviceMessageService.encodeDeviceMessage(responseMessage, codecType, buffer);
+            socket.write(buffer);
 
         } catch (Exception e) {
             log.error("[sendResponse][发送响应失败，requestId: {}]", requestId, e);
@@ -0,0 +1,140 @@
+package cn.iocoder.yudao.module.iot.gateway.service.device;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * 设备信息的批量加载器：合并并发的缓存未命中，减少远程调用次数
+ *
+ * 1. 相同 key 的并发加载，共享同一个 {@link CompletableFuture}，只加载一次
+ * 2. 不同 key 的加载，在 batchDelay 时间内、或者达到 batchSize 数量时，合并成一次批量加载
+ *
+ * 例如说，网关重启后大量设备同时重连，原先每个设备一次 RPC 调用，现在合并成少量的批量调用
+ *
+ * @param <K> key 类型
+ * @param <V> value 类型
+ * @author 芋道源码
+ */
+@Slf4j
+public class IotDeviceBatchLoader<K, V> {
+
+    private final String name;
+    private final int batchSize;
+    private final long batchDelayNanos;
+    /**
+     * 批量加载函数：返回结果中不存在的 key，加载结果为 null
+     */
+    private final Function<List<K>, Map<K, V>> batchFunction;
+
+    /**
+     * 加载中的 key 与结果
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> pendingFutures = new ConcurrentHashMap<>();
+    /**
+     * 等待加载的 key 队列
+     */
+    private final BlockingQueue<K> pendingKeys = new LinkedBlockingQueue<>();
+
+    /**
+     * 批量加载的执行器。单线程，保证同一时间只有一个批次在加载，由其合并后续的未命中
+     */
+    private final ScheduledExecutorService executor;
+    /**
+     * 是否已经调度了下一次加载
+     */
+    private boolean scheduled;
+
+    public IotDeviceBatchLoader(String name, int batchSize, Duration batchDelay,
+                                Function<List<K>, Map<K, V>> batchFunction) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.batchDelayNanos = batchDelay.toNanos();
+        this.batchFunction = batchFunction;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "iot-device-batch-loader-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 异步加载
+     *
+     * @param key key
+     * @return 加载结果；不存在时，结果为 null
+     */
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future = pendingFutures.get(key);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<V> newFuture = new CompletableFuture<>();
+        future = pendingFutures.putIfAbsent(key, newFuture);
+        if (future != null) {
+            return future;
+        }
+        pendingKeys.add(key);
+        schedule();
+        return newFuture;
+    }
+
+    private synchronized void schedule() {
+        if (pendingKeys.size() >= batchSize) {
+            // 情况一：已经达到批量大小，立即加载
+            executor.execute(this::flush);
+            return;
+        }
+        if (!scheduled) {
+            // 情况二：等待 batchDelay，合并更多的未命中
+            scheduled = true;
+            executor.schedule(this::flush, batchDelayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flush() {
+        synchronized (this) {
+            scheduled = false;
+        }
+        List<K> keys = new ArrayList<>(batchSize);
+        while (pendingKeys.drainTo(keys, batchSize) > 0) {
+            load(keys);
+            keys.clear();
+        }
+    }
+
+    private void load(List<K> keys) {
+        Map<K, V> values;
+        try {
+            values = batchFunction.apply(Collections.unmodifiableList(keys));
+        } catch (Throwable ex) {
+            log.error("[load][{} 批量加载 {} 个失败]", name, keys.size(), ex);
+            keys.forEach(key -> complete(key, null, ex));
+            return;
+        }
+        keys.forEach(key -> complete(key, values != null ? values.get(key) : null, null));
+    }
+
+    private void complete(K key, V value, Throwable ex) {
+        CompletableFuture<V> future = pendingFutures.remove(key);
+        if (future == null) {
+            return;
+        }
+        if (ex != null) {
+            future.completeExceptionally(ex);
+        } else {
+            future.complete(value);
+        }
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,100 @@
+package cn.iocoder.yudao.module.iot.gateway.service.device;
+
+import cn.hutool.core.util.BooleanUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageBus;
+import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageSubscriber;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceChangeMessage;
+import cn.iocoder.yudao.module.iot.core.util.IotDeviceMessageUtils;
+import cn.iocoder.yudao.module.iot.gateway.config.IotGatewayProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+/**
+ * IoT 网关设备变更订阅者：接收 iot-biz 广播的设备、产品变更，失效本地的设备缓存
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class IotDeviceChangeSubscriber implements IotMessageSubscriber<IotDeviceChangeMessage> {
+
+    @Resource
+    private IotDeviceService deviceService;
+
+    @Resource
+    private IotMessageBus messageBus;
+
+    @Resource
+    private IotGatewayProperties gatewayProperties;
+
+    /**
+     * 网关编号，用于构建独立的 Group
+     */
+    private String serverId;
+
+    @PostConstruct
+    public void init() {
+        serverId = buildServerId(gatewayProperties);
+        messageBus.register(this);
+    }
+
+    @Override
+    public String getTopic() {
+        return IotDeviceChangeMessage.MESSAGE_BUS_DEVICE_CHANGE_TOPIC;
+    }
+
+    @Override
+    public String getGroup() {
+        // 保证广播消费，每个网关需要独立的 Group，所以使用 Topic + 网关编号作为 Group
+        return getTopic() + "_" + serverId;
+    }
+
+    /**
+     * 构建网关编号：优先使用配置的网关编号；否则，使用网关地址 + 监听的端口
+     *
+     * 网关编号需要重启后保持不变，否则每次重启都会创建新的 Group，旧的 Group 堆积在消息总线中。
+     * 同一台机器上的多个网关，监听的端口不会相同，所以取第一个开启的协议的监听端口；都未开启时，只使用网关地址
+     *
+     * @param gatewayProperties 网关配置
+     * @return 网关编号
+     */
+    static String buildServerId(IotGatewayProperties gatewayProperties) {
+        if (StrUtil.isNotBlank(gatewayProperties.getServerId())) {
+            return gatewayProperties.getServerId();
+        }
+        IotGatewayProperties.ProtocolProperties protocol = gatewayProperties.getProtocol();
+        Integer port = null;
+        if (protocol != null) {
+            if (protocol.getHttp() != null && BooleanUtil.isTrue(protocol.getHttp().getEnabled())) {
+                port = protocol.getHttp().getServerPort();
+            } else if (protocol.getTcp() != null && BooleanUtil.isTrue(protocol.getTcp().getEnabled())) {
+                port = protocol.getTcp().getPort();
+            } else if (protocol.getMqtt() != null && BooleanUtil.isTrue(protocol.getMqtt().getEnabled())) {
+                port = protocol.getMqtt().getPort();
+            } else if (protocol.getEmqx() != null && BooleanUtil.isTrue(protocol.getEmqx().getEnabled())) {
+                // 注意：mqttPort 是 EMQX Broker 的端口，不是网关监听的端口
+                port = protocol.getEmqx().getHttpPort();
+            }
+        }
+        return IotDeviceMessageUtils.generateServerId(port != null ? port : 0);
+    }
+
+    @Override
+    public void onMessage(IotDeviceChangeMessage message) {
+        try {
+            if (message.getDeviceId() != null) {
+                deviceService.invalidateDeviceCache(message.getDeviceId(), message.getProductKey(), message.getDeviceName());
+            } else if (message.getProductId() != null) {
+                deviceService.invalidateDeviceCacheByProductId(message.getProductId());
+            }
+            log.debug("[onMessage][设备变更({}) 缓存已失效]", message);
+        } catch (Exception e) {
+            log.error("[onMessage][设备变更({}) 处理失败]", message, e);
+        }
+    }
+
+}
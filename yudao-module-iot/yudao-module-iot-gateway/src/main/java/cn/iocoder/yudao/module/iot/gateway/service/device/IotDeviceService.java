@@ -14,7 +14,7 @@ public interface IotDeviceService {
      *
      * @param productKey 产品标识
      * @param deviceName 设备名称
-     * @return 设备信息
+     * @return 设备信息；不存在时返回 null
      */
     IotDeviceRespDTO getDeviceFromCache(String productKey, String deviceName);
 
@@ -22,8 +22,24 @@ public interface IotDeviceService {
      * 根据 id 获取设备信息
      *
      * @param id 设备编号
-     * @return 设备信息
+     * @return 设备信息；不存在时返回 null
      */
     IotDeviceRespDTO getDeviceFromCache(Long id);
 
+    /**
+     * 失效设备的缓存
+     *
+     * @param id         设备编号
+     * @param productKey 产品标识
+     * @param deviceName 设备名称
+     */
+    void invalidateDeviceCache(Long id, String productKey, String deviceName);
+
+    /**
+     * 失效产品下所有设备的缓存
+     *
+     * @param productId 产品编号
+     */
+    void invalidateDeviceCacheByProductId(Long productId);
+
 }
\ No newline at end of file
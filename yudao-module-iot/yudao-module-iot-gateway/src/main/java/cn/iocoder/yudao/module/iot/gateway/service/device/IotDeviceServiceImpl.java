@@ -1,81 +1,194 @@
 package cn.iocoder.yudao.module.iot.gateway.service.device;
 
-import cn.hutool.core.lang.Assert;
+import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.core.KeyValue;
-import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.module.iot.core.biz.IotDeviceCommonApi;
-import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceGetReqDTO;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceListReqDTO;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceRespDTO;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceScanReqDTO;
+import cn.iocoder.yudao.module.iot.gateway.config.IotGatewayProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
-import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static cn.iocoder.yudao.framework.common.util.cache.CacheUtils.buildAsyncReloadingCache;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 
 /**
  * IoT 设备信息 Service 实现类
  *
+ * 设备信息缓存在本地，不再定时过期、重新加载，而是：
+ * 1. 预热：启动时，通过 {@link IotDeviceCommonApi#scanDeviceList(IotDeviceScanReqDTO)} 分批加载全部设备
+ * 2. 未命中：通过 {@link IotDeviceBatchLoader} 合并并发的未命中，调用 {@link IotDeviceCommonApi#getDeviceList(IotDeviceListReqDTO)} 批量加载
+ * 3. 失效：iot-biz 中设备、产品变化时，通过消息总线广播，由 {@link IotDeviceChangeSubscriber} 精确失效
+ *
  * @author 芋道源码
  */
 @Service
 @Slf4j
 public class IotDeviceServiceImpl implements IotDeviceService {
 
-    private static final Duration CACHE_EXPIRE = Duration.ofMinutes(1);
+    @Resource
+    private IotDeviceCommonApi deviceApi;
+
+    @Resource
+    private IotGatewayProperties gatewayProperties;
 
     /**
      * 通过 id 查询设备的缓存
      */
-    private final LoadingCache<Long, IotDeviceRespDTO> deviceCaches = buildAsyncReloadingCache(
-            CACHE_EXPIRE,
-            new CacheLoader<Long, IotDeviceRespDTO>() {
-
-                @Override
-                public IotDeviceRespDTO load(Long id) {
-                    CommonResult<IotDeviceRespDTO> result = deviceApi.getDevice(new IotDeviceGetReqDTO().setId(id));
-                    IotDeviceRespDTO device = result.getCheckedData();
-                    Assert.notNull(device, "设备({}) 不能为空", id);
-                    // 相互缓存
-                    deviceCaches2.put(new KeyValue<>(device.getProductKey(), device.getDeviceName()), device);
-                    return device;
-                }
+    private Cache<Long, IotDeviceRespDTO> deviceCaches;
+    /**
+     * 通过 productKey + deviceName 查询设备的缓存
+     */
+    private Cache<KeyValue<String, String>, IotDeviceRespDTO> deviceCaches2;
 
-            });
+    private IotDeviceBatchLoader<Long, IotDeviceRespDTO> deviceLoader;
+    private IotDeviceBatchLoader<KeyValue<String, String>, IotDeviceRespDTO> deviceLoader2;
 
     /**
-     * 通过 productKey + deviceName 查询设备的缓存
+     * 失效版本号，每次失效时递增
+     *
+     * 加载期间如果发生了失效，加载结果可能是旧数据，此时不写入缓存，避免覆盖失效
      */
-    private final LoadingCache<KeyValue<String, String>, IotDeviceRespDTO> deviceCaches2 = buildAsyncReloadingCache(
-            CACHE_EXPIRE,
-            new CacheLoader<KeyValue<String, String>, IotDeviceRespDTO>() {
-
-                @Override
-                public IotDeviceRespDTO load(KeyValue<String, String> kv) {
-                    CommonResult<IotDeviceRespDTO> result = deviceApi.getDevice(new IotDeviceGetReqDTO()
-                            .setProductKey(kv.getKey()).setDeviceName(kv.getValue()));
-                    IotDeviceRespDTO device = result.getCheckedData();
-                    Assert.notNull(device, "设备({}/{}) 不能为空", kv.getKey(), kv.getValue());
-                    // 相互缓存
-                    deviceCaches.put(device.getId(), device);
-                    return device;
-                }
-            });
+    private final AtomicLong invalidateVersion = new AtomicLong();
 
-    @Resource
-    private IotDeviceCommonApi deviceApi;
+    @PostConstruct
+    public void init() {
+        IotGatewayProperties.DeviceCacheProperties properties = gatewayProperties.getDeviceCache();
+        deviceCaches = CacheBuilder.newBuilder().maximumSize(properties.getMaximumSize()).build();
+        deviceCaches2 = CacheBuilder.newBuilder().maximumSize(properties.getMaximumSize()).build();
+        deviceLoader = new IotDeviceBatchLoader<>("id", properties.getLoadBatchSize(), properties.getLoadBatchDelay(),
+                ids -> convertMap(loadDeviceList(new IotDeviceListReqDTO().setIds(ids)), IotDeviceRespDTO::getId));
+        deviceLoader2 = new IotDeviceBatchLoader<>("key", properties.getLoadBatchSize(), properties.getLoadBatchDelay(),
+                keys -> convertMap(loadDeviceList(new IotDeviceListReqDTO().setKeys(keys)), IotDeviceServiceImpl::buildKey));
+        // 异步预热，不阻塞启动
+        if (Boolean.TRUE.equals(properties.getWarmUpEnabled())) {
+            Thread thread = new Thread(() -> warmUp(properties.getWarmUpBatchSize()), "iot-device-cache-warm-up");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        deviceLoader.close();
+        deviceLoader2.close();
+    }
 
     @Override
     public IotDeviceRespDTO getDeviceFromCache(String productKey, String deviceName) {
-        return deviceCaches2.getUnchecked(new KeyValue<>(productKey, deviceName));
+        KeyValue<String, String> key = new KeyValue<>(productKey, deviceName);
+        IotDeviceRespDTO device = deviceCaches2.getIfPresent(key);
+        return device != null ? device : join(deviceLoader2.load(key));
     }
 
     @Override
     public IotDeviceRespDTO getDeviceFromCache(Long id) {
-        return deviceCaches.getUnchecked(id);
+        IotDeviceRespDTO device = deviceCaches.getIfPresent(id);
+        return device != null ? device : join(deviceLoader.load(id));
+    }
+
+    @Override
+    public void invalidateDeviceCache(Long id, String productKey, String deviceName) {
+        invalidateVersion.incrementAndGet();
+        deviceCaches.invalidate(id);
+        deviceCaches2.invalidate(new KeyValue<>(productKey, deviceName));
+    }
+
+    @Override
+    public void invalidateDeviceCacheByProductId(Long productId) {
+        invalidateVersion.incrementAndGet();
+        deviceCaches.asMap().values().removeIf(device -> Objects.equals(device.getProductId(), productId));
+        deviceCaches2.asMap().values().removeIf(device -> Objects.equals(device.getProductId(), productId));
+    }
+
+    /**
+     * 批量加载设备，并写入缓存
+     *
+     * @param reqDTO 批量查询请求
+     * @return 设备列表
+     */
+    private List<IotDeviceRespDTO> loadDeviceList(IotDeviceListReqDTO reqDTO) {
+        long version = invalidateVersion.get();
+        List<IotDeviceRespDTO> devices = deviceApi.getDeviceList(reqDTO).getCheckedData();
+        putDeviceCache(devices, version);
+        return devices != null ? devices : Collections.emptyList();
+    }
+
+    /**
+     * 预热：按照设备编号升序，分批加载全部设备
+     *
+     * @param batchSize 每批数量
+     */
+    private void warmUp(int batchSize) {
+        long startTime = System.currentTimeMillis();
+        int count = 0;
+        Long lastId = null;
+        try {
+            while (true) {
+                long version = invalidateVersion.get();
+                List<IotDeviceRespDTO> devices = deviceApi.scanDeviceList(
+                        new IotDeviceScanReqDTO().setLastId(lastId).setLimit(batchSize)).getCheckedData();
+                if (CollUtil.isEmpty(devices)) {
+                    break;
+                }
+                putDeviceCache(devices, version);
+                count += devices.size();
+                if (devices.size() < batchSize) {
+                    break;
+                }
+                lastId = CollUtil.getLast(devices).getId();
+            }
+            log.info("[warmUp][预热 {} 个设备完成，耗时 {} ms]", count, System.currentTimeMillis() - startTime);
+        } catch (Exception ex) {
+            // 预热失败不影响使用，未命中时仍然会加载
+            log.error("[warmUp][预热到设备({}) 时失败，已预热 {} 个设备]", lastId, count, ex);
+        }
+    }
+
+    private void putDeviceCache(List<IotDeviceRespDTO> devices, long version) {
+        if (CollUtil.isEmpty(devices)) {
+            return;
+        }
+        // 加载期间发生了失效，不写入缓存
+        if (version != invalidateVersion.get()) {
+            return;
+        }
+        devices.forEach(device -> {
+            deviceCaches.put(device.getId(), device);
+            deviceCaches2.put(buildKey(device), device);
+        });
+        // 写入期间发生了失效，撤销本次写入
+        if (version != invalidateVersion.get()) {
+            devices.forEach(device -> {
+                deviceCaches.invalidate(device.getId());
+                deviceCaches2.invalidate(buildKey(device));
+            });
+        }
+    }
+
+    private static KeyValue<String, String> buildKey(IotDeviceRespDTO device) {
+        return new KeyValue<>(device.getProductKey(), device.getDeviceName());
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.iot.gateway.service.device.message;
 
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * IoT 设备消息 Service 接口
@@ -30,6 +31,29 @@ public interface IotDeviceMessageService {
     byte[] encodeDeviceMessage(IotDeviceMessage message,
                                String codecType);
 
+    /**
+     * 编码消息，追加写入到 buffer 中
+     *
+     * 如果编解码器实现了 IotDeviceMessageBufferCodec 接口，则直接写入，不创建中间的 byte[]
+     *
+     * @param message    消息
+     * @param productKey 产品 Key
+     * @param deviceName 设备名称
+     * @param buffer     写入的 Buffer
+     */
+    void encodeDeviceMessage(IotDeviceMessage message,
+                             String productKey, String deviceName, Buffer buffer);
+
+    /**
+     * 编码消息，追加写入到 buffer 中
+     *
+     * @param message   消息
+     * @param codecType 编解码器类型
+     * @param buffer    写入的 Buffer
+     */
+    void encodeDeviceMessage(IotDeviceMessage message,
+                             String codecType, Buffer buffer);
+
     /**
      * 解码消息
      *
@@ -50,6 +74,17 @@ public interface IotDeviceMessageService {
      */
     IotDeviceMessage decodeDeviceMessage(byte[] bytes, String codecType);
 
+    /**
+     * 解码消息
+     *
+     * 如果编解码器实现了 IotDeviceMessageBufferCodec 接口，则直接读取 buffer，不拷贝出 byte[]
+     *
+     * @param buffer    消息内容
+     * @param codecType 编解码器类型
+     * @return 解码后的消息内容
+     */
+    IotDeviceMessage decodeDeviceMessage(Buffer buffer, String codecType);
+
     /**
      * 发送消息
      *
@@ -6,8 +6,10 @@ import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceRespDTO;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.core.mq.producer.IotDeviceMessageProducer;
 import cn.iocoder.yudao.module.iot.core.util.IotDeviceMessageUtils;
+import cn.iocoder.yudao.module.iot.gateway.codec.IotDeviceMessageBufferCodec;
 import cn.iocoder.yudao.module.iot.gateway.codec.IotDeviceMessageCodec;
 import cn.iocoder.yudao.module.iot.gateway.service.device.IotDeviceService;
+import io.vertx.core.buffer.Buffer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -74,6 +76,36 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
         return codec.encode(message);
     }
 
+    @Override
+    public void encodeDeviceMessage(IotDeviceMessage message,
+                                    String productKey, String deviceName, Buffer buffer) {
+        // 1.1 获取设备信息
+        IotDeviceRespDTO device = deviceService.getDeviceFromCache(productKey, deviceName);
+        if (device == null) {
+            throw exception(DEVICE_NOT_EXISTS, productKey, deviceName);
+        }
+
+        // 2. 编码消息
+        encodeDeviceMessage(message, device.getCodecType(), buffer);
+    }
+
+    @Override
+    public void encodeDeviceMessage(IotDeviceMessage message,
+                                    String codecType, Buffer buffer) {
+        // 1. 获取编解码器
+        IotDeviceMessageCodec codec = codes.get(codecType);
+        if (codec == null) {
+            throw new IllegalArgumentException(StrUtil.format("编解码器({}) 不存在", codecType));
+        }
+
+        // 2. 编码消息
+        if (codec instanceof IotDeviceMessageBufferCodec) {
+            ((IotDeviceMessageBufferCodec) codec).encode(message, buffer);
+            return;
+        }
+        buffer.appendBytes(codec.encode(message));
+    }
+
     @Override
     public IotDeviceMessage decodeDeviceMessage(byte[] bytes,
                                                 String productKey, String deviceName) {
@@ -104,6 +136,21 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
         return codec.decode(bytes);
     }
 
+    @Override
+    public IotDeviceMessage decodeDeviceMessage(Buffer buffer, String codecType) {
+        // 1. 获取编解码器
+        IotDeviceMessageCodec codec = codes.get(codecType);
+        if (codec == null) {
+            throw new IllegalArgumentException(StrUtil.format("编解码器({}) 不存在", codecType));
+        }
+
+        // 2. 解码消息
+        if (codec instanceof IotDeviceMessageBufferCodec) {
+            return ((IotDeviceMessageBufferCodec) codec).decode(buffer);
+        }
+        return codec.decode(buffer.getBytes());
+    }
+
     @Override
     public void sendDeviceMessage(IotDeviceMessage message,
                                   String productKey, String deviceName, String serverId) {
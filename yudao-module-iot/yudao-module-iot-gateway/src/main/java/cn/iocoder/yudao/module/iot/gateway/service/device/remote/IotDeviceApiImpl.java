@@ -5,7 +5,9 @@ import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.module.iot.core.biz.IotDeviceCommonApi;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceAuthReqDTO;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceGetReqDTO;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceListReqDTO;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceRespDTO;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceScanReqDTO;
 import cn.iocoder.yudao.module.iot.gateway.config.IotGatewayProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -18,6 +20,7 @@ import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants.INTERNAL_SERVER_ERROR;
 
@@ -55,6 +58,16 @@ public class IotDeviceApiImpl implements IotDeviceCommonApi {
         return doPost("/get", getReqDTO, new ParameterizedTypeReference<CommonResult<IotDeviceRespDTO>>() { });
     }
 
+    @Override
+    public CommonResult<List<IotDeviceRespDTO>> getDeviceList(IotDeviceListReqDTO listReqDTO) {
+        return doPost("/list", listReqDTO, new ParameterizedTypeReference<CommonResult<List<IotDeviceRespDTO>>>() { });
+    }
+
+    @Override
+    public CommonResult<List<IotDeviceRespDTO>> scanDeviceList(IotDeviceScanReqDTO scanReqDTO) {
+        return doPost("/scan", scanReqDTO, new ParameterizedTypeReference<CommonResult<List<IotDeviceRespDTO>>>() { });
+    }
+
     private <T, R> CommonResult<R> doPost(String url, T body,
                                           ParameterizedTypeReference<CommonResult<R>> responseType) {
         try {
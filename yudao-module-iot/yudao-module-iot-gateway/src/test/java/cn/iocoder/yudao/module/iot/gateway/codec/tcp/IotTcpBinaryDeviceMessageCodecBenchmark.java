@@ -0,0 +1,79 @@
+package cn.iocoder.yudao.module.iot.gateway.codec.tcp;
+
+import cn.hutool.core.map.MapUtil;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceMessageMethodEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IotTcpBinaryDeviceMessageCodec} 编解码的基准测试
+ *
+ * 对比 byte[] 方法（原先的调用方式：Buffer 拷贝出 byte[] 解码，编码出 byte[] 后再包装成 Buffer），
+ * 与直接基于 Buffer 的方法。通过 {@link GCProfiler} 的 gc.alloc.rate.norm 指标，对比每条消息分配的内存。
+ * 通过 {@link #main(String[])} 运行，不参与单元测试
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class IotTcpBinaryDeviceMessageCodecBenchmark {
+
+    private final IotTcpBinaryDeviceMessageCodec codec = new IotTcpBinaryDeviceMessageCodec();
+
+    private IotDeviceMessage message;
+    /**
+     * 模拟网络层读取到的 Buffer
+     */
+    private Buffer frame;
+
+    @Setup
+    public void setUp() {
+        message = IotDeviceMessage.requestOf("1024", IotDeviceMessageMethodEnum.PROPERTY_POST.getMethod(),
+                MapUtil.builder().put("temperature", (Object) 25.5).put("humidity", 60).put("voltage", 220).build());
+        frame = Buffer.buffer(codec.encode(message));
+    }
+
+    @Benchmark
+    public void decodeBytes(Blackhole blackhole) {
+        blackhole.consume(codec.decode(frame.getBytes()));
+    }
+
+    @Benchmark
+    public void decodeBuffer(Blackhole blackhole) {
+        blackhole.consume(codec.decode(frame));
+    }
+
+    @Benchmark
+    public void encodeBytes(Blackhole blackhole) {
+        blackhole.consume(Buffer.buffer(codec.encode(message)));
+    }
+
+    @Benchmark
+    public void encodeBuffer(Blackhole blackhole) {
+        Buffer buffer = Buffer.buffer(256);
+        codec.encode(message, buffer);
+        blackhole.consume(buffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(IotTcpBinaryDeviceMessageCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,106 @@
+package cn.iocoder.yudao.module.iot.gateway.codec.tcp;
+
+import cn.hutool.core.map.MapUtil;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceMessageMethodEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import io.vertx.core.buffer.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link IotTcpBinaryDeviceMessageCodec} 和 {@link IotTcpBinaryFrameParser} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotTcpBinaryDeviceMessageCodecTest {
+
+    private final IotTcpBinaryDeviceMessageCodec codec = new IotTcpBinaryDeviceMessageCodec();
+
+    @Test
+    public void testEncodeDecode_request() {
+        // 准备参数
+        IotDeviceMessage message = IotDeviceMessage.requestOf("1024",
+                IotDeviceMessageMethodEnum.PROPERTY_POST.getMethod(), MapUtil.of("temperature", 25));
+
+        // 调用
+        IotDeviceMessage result = codec.decode(codec.encode(message));
+        // 断言
+        assertEquals("1024", result.getRequestId());
+        // 断言：常见的方法名，复用常量
+        assertSame(IotDeviceMessageMethodEnum.PROPERTY_POST.getMethod(), result.getMethod());
+        assertEquals(25, ((Map<?, ?>) result.getParams()).get("temperature"));
+        assertNull(result.getCode());
+    }
+
+    @Test
+    public void testEncodeDecode_reply() {
+        // 准备参数
+        IotDeviceMessage message = IotDeviceMessage.replyOf("2048", "custom.method",
+                MapUtil.of("success", true), 401, "认证失败");
+
+        // 调用
+        IotDeviceMessage result = codec.decode(codec.encode(message));
+        // 断言
+        assertEquals("2048", result.getRequestId());
+        assertEquals("custom.method", result.getMethod());
+        assertEquals(401, result.getCode());
+        assertEquals("认证失败", result.getMsg());
+        assertEquals(true, ((Map<?, ?>) result.getData()).get("success"));
+    }
+
+    @Test
+    public void testEncode_appendBuffer() {
+        // 准备参数
+        IotDeviceMessage message = IotDeviceMessage.requestOf("1024", "auth", MapUtil.of("username", "test"));
+        Buffer buffer = Buffer.buffer().appendString("head");
+
+        // 调用：追加写入，与 byte[] 编码结果一致
+        codec.encode(message, buffer);
+        // 断言
+        assertArrayEquals(codec.encode(message), buffer.getBytes(4, buffer.length()));
+        assertEquals("test", ((Map<?, ?>) codec.decode(buffer.slice(4, buffer.length())).getParams()).get("username"));
+    }
+
+    @Test
+    public void testFrameParser_splitAndCoalesced() {
+        // 准备参数：3 条消息，拼接后按照 3 字节一段切分，模拟半包、粘包
+        Buffer stream = Buffer.buffer();
+        for (int i = 0; i < 3; i++) {
+            stream.appendBytes(codec.encode(IotDeviceMessage.requestOf(String.valueOf(i),
+                    IotDeviceMessageMethodEnum.PROPERTY_POST.getMethod(), MapUtil.of("index", i))));
+        }
+        List<IotDeviceMessage> messages = new ArrayList<>();
+        IotTcpBinaryFrameParser parser = new IotTcpBinaryFrameParser(1024, frame -> messages.add(codec.decode(frame)));
+
+        // 调用
+        for (int i = 0; i < stream.length(); i += 3) {
+            parser.handle(stream.getBuffer(i, Math.min(i + 3, stream.length())));
+        }
+        // 调用：一次读取包含全部消息
+        parser.handle(stream);
+
+        // 断言
+        assertEquals(6, messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals(String.valueOf(i % 3), messages.get(i).getRequestId());
+        }
+    }
+
+    @Test
+    public void testFrameParser_invalid() {
+        IotTcpBinaryFrameParser parser = new IotTcpBinaryFrameParser(64, frame -> fail("不应该回调"));
+        // 调用，并断言：魔术字错误
+        assertThrows(IllegalArgumentException.class, () -> parser.handle(Buffer.buffer("{\"method\":\"auth\"}")));
+        // 调用，并断言：消息长度超过限制
+        Buffer buffer = Buffer.buffer().appendByte((byte) 0x7E).appendByte((byte) 0x01).appendByte((byte) 0x01)
+                .appendInt(65);
+        assertThrows(IllegalArgumentException.class, () -> new IotTcpBinaryFrameParser(64,
+                frame -> fail("不应该回调")).handle(buffer));
+    }
+
+}
@@ -0,0 +1,96 @@
+package cn.iocoder.yudao.module.iot.gateway.service.device;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link IotDeviceBatchLoader} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotDeviceBatchLoaderTest {
+
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    private IotDeviceBatchLoader<Long, String> loader;
+
+    @AfterEach
+    public void tearDown() {
+        if (loader != null) {
+            loader.close();
+        }
+    }
+
+    @Test
+    public void testLoad_mergeBatch() {
+        // 准备参数：等待时间足够长，保证合并成一批
+        loader = new IotDeviceBatchLoader<>("test", 100, Duration.ofMillis(50), this::loadBatch);
+
+        // 调用
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            futures.add(loader.load(id));
+        }
+        // 相同 key 共享同一个结果
+        assertSame(futures.get(0), loader.load(1L));
+
+        // 断言：一次批量加载；奇数存在，偶数不存在
+        for (int i = 0; i < futures.size(); i++) {
+            long id = i + 1;
+            assertEquals(id % 2 == 1 ? "device-" + id : null, futures.get(i).join());
+        }
+        assertEquals(1, batches.size());
+        assertEquals(10, batches.get(0).size());
+    }
+
+    @Test
+    public void testLoad_batchSize() {
+        // 准备参数：达到批量大小时，立即加载
+        loader = new IotDeviceBatchLoader<>("test", 4, Duration.ofSeconds(1), this::loadBatch);
+
+        // 调用
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            futures.add(loader.load(id));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        // 断言：全部加载，且每批不超过批量大小
+        assertEquals(8, batches.stream().mapToInt(List::size).sum());
+        batches.forEach(batch -> assertTrue(batch.size() <= 4));
+    }
+
+    @Test
+    public void testLoad_exception() {
+        // 准备参数
+        loader = new IotDeviceBatchLoader<>("test", 100, Duration.ofMillis(1), ids -> {
+            throw new IllegalStateException("RPC 失败");
+        });
+
+        // 调用，并断言
+        CompletableFuture<String> future = loader.load(1L);
+        CompletionException ex = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        // 失败后不会保留结果，再次加载时重新发起
+        assertNotSame(future, loader.load(1L));
+    }
+
+    private Map<Long, String> loadBatch(List<Long> ids) {
+        batches.add(new ArrayList<>(ids));
+        Map<Long, String> result = new HashMap<>();
+        ids.stream().filter(id -> id % 2 == 1).forEach(id -> result.put(id, "device-" + id));
+        return result;
+    }
+
+}
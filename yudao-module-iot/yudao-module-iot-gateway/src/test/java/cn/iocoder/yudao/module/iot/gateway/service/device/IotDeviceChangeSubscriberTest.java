@@ -0,0 +1,86 @@
+package cn.iocoder.yudao.module.iot.gateway.service.device;
+
+import cn.iocoder.yudao.module.iot.core.util.IotDeviceMessageUtils;
+import cn.iocoder.yudao.module.iot.gateway.config.IotGatewayProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * {@link IotDeviceChangeSubscriber} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotDeviceChangeSubscriberTest {
+
+    @Test
+    public void testBuildServerId_sameHost() {
+        // 准备参数：同一台机器上的两个网关，HTTP 监听不同的端口
+        IotGatewayProperties.ProtocolProperties protocol01 = buildProtocol(8092, 1883);
+        IotGatewayProperties.ProtocolProperties protocol02 = buildProtocol(8093, 1884);
+
+        // 调用
+        String serverId01 = IotDeviceChangeSubscriber.buildServerId(buildProperties(protocol01));
+        String serverId02 = IotDeviceChangeSubscriber.buildServerId(buildProperties(protocol02));
+        // 断言：网关编号不同，从而使用不同的 Group，各自接收到广播
+        assertNotEquals(serverId01, serverId02);
+        assertEquals(IotDeviceMessageUtils.generateServerId(8092), serverId01);
+    }
+
+    @Test
+    public void testBuildServerId_httpDisabled() {
+        // 准备参数：未开启 HTTP 协议
+        IotGatewayProperties.ProtocolProperties protocol = buildProtocol(8092, 1884);
+        protocol.getHttp().setEnabled(false);
+
+        // 调用，并断言：使用 MQTT 的监听端口
+        assertEquals(IotDeviceMessageUtils.generateServerId(1884),
+                IotDeviceChangeSubscriber.buildServerId(buildProperties(protocol)));
+    }
+
+    @Test
+    public void testBuildServerId_configured() {
+        // 准备参数：配置了网关编号
+        IotGatewayProperties properties = buildProperties(buildProtocol(8092, 1883));
+        properties.setServerId("gateway-0");
+
+        // 调用，并断言：优先使用配置的网关编号
+        assertEquals("gateway-0", IotDeviceChangeSubscriber.buildServerId(properties));
+    }
+
+    @Test
+    public void testBuildServerId_noProtocol() {
+        // 准备参数：未开启任何协议
+        IotGatewayProperties.ProtocolProperties protocol = buildProtocol(8092, 1883);
+        protocol.getHttp().setEnabled(false);
+        protocol.getMqtt().setEnabled(false);
+        IotGatewayProperties properties = buildProperties(protocol);
+
+        // 调用
+        String serverId = IotDeviceChangeSubscriber.buildServerId(properties);
+        // 断言：不依赖进程编号，重启后保持不变
+        assertEquals(IotDeviceMessageUtils.generateServerId(0), serverId);
+        assertEquals(serverId, IotDeviceChangeSubscriber.buildServerId(properties));
+    }
+
+    private static IotGatewayProperties buildProperties(IotGatewayProperties.ProtocolProperties protocol) {
+        IotGatewayProperties properties = new IotGatewayProperties();
+        properties.setProtocol(protocol);
+        return properties;
+    }
+
+    private static IotGatewayProperties.ProtocolProperties buildProtocol(Integer httpPort, Integer mqttPort) {
+        IotGatewayProperties.HttpProperties http = new IotGatewayProperties.HttpProperties();
+        http.setEnabled(true);
+        http.setServerPort(httpPort);
+        IotGatewayProperties.MqttProperties mqtt = new IotGatewayProperties.MqttProperties();
+        mqtt.setEnabled(true);
+        mqtt.setPort(mqttPort);
+        IotGatewayProperties.ProtocolProperties protocol = new IotGatewayProperties.ProtocolProperties();
+        protocol.setHttp(http);
+        protocol.setMqtt(mqtt);
+        return protocol;
+    }
+
+}
@@ -0,0 +1,170 @@
+package cn.iocoder.yudao.module.iot.gateway.service.device;
+
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.iot.core.biz.IotDeviceCommonApi;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceListReqDTO;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceRespDTO;
+import cn.iocoder.yudao.module.iot.gateway.config.IotGatewayProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link IotDeviceServiceImpl} 设备缓存的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotDeviceServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private IotDeviceServiceImpl deviceService;
+
+    @Spy
+    private IotGatewayProperties gatewayProperties = new IotGatewayProperties();
+
+    @Mock
+    private IotDeviceCommonApi deviceApi;
+
+    /**
+     * 模拟 iot-biz 中的设备；key：设备编号
+     */
+    private final Map<Long, IotDeviceRespDTO> devices = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        gatewayProperties.getDeviceCache().setWarmUpEnabled(false);
+        deviceService.init();
+        // mock 方法：按照编号、或者 productKey + deviceName 批量查询
+        lenient().when(deviceApi.getDeviceList(any())).thenAnswer(invocation -> {
+            IotDeviceListReqDTO reqDTO = invocation.getArgument(0);
+            List<IotDeviceRespDTO> result = new ArrayList<>();
+            devices.values().forEach(device -> {
+                if ((reqDTO.getIds() != null && reqDTO.getIds().contains(device.getId()))
+                        || (reqDTO.getKeys() != null && reqDTO.getKeys().stream().anyMatch(key ->
+                        key.getKey().equals(device.getProductKey()) && key.getValue().equals(device.getDeviceName())))) {
+                    result.add(device);
+                }
+            });
+            return CommonResult.success(result);
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        deviceService.destroy();
+    }
+
+    @Test
+    public void testGetDeviceFromCache() {
+        // 准备参数
+        devices.put(1L, buildDevice(1L, 10L, "codec"));
+
+        // 调用：通过编号加载后，两种方式都命中缓存
+        assertEquals("codec", deviceService.getDeviceFromCache(1L).getCodecType());
+        assertEquals("codec", deviceService.getDeviceFromCache(1L).getCodecType());
+        assertEquals("codec", deviceService.getDeviceFromCache("pk", "device1").getCodecType());
+        // 断言：只调用一次 RPC
+        verify(deviceApi, times(1)).getDeviceList(any());
+    }
+
+    @Test
+    public void testGetDeviceFromCache_notExists() {
+        // 调用，并断言：不存在的设备，返回 null
+        assertNull(deviceService.getDeviceFromCache(1L));
+        assertNull(deviceService.getDeviceFromCache("pk", "device1"));
+    }
+
+    @Test
+    public void testInvalidateDeviceCache_update() {
+        // 准备参数：设备已经缓存
+        devices.put(1L, buildDevice(1L, 10L, "codec"));
+        deviceService.getDeviceFromCache(1L);
+
+        // 调用：设备更新，失效缓存
+        devices.put(1L, buildDevice(1L, 10L, "newCodec"));
+        deviceService.invalidateDeviceCache(1L, "pk", "device1");
+        // 断言：两种方式都重新加载到最新的设备
+        assertEquals("newCodec", deviceService.getDeviceFromCache(1L).getCodecType());
+        assertEquals("newCodec", deviceService.getDeviceFromCache("pk", "device1").getCodecType());
+        verify(deviceApi, times(2)).getDeviceList(any());
+    }
+
+    @Test
+    public void testInvalidateDeviceCache_delete() {
+        // 准备参数：设备已经缓存
+        devices.put(1L, buildDevice(1L, 10L, "codec"));
+        deviceService.getDeviceFromCache(1L);
+
+        // 调用：设备删除，失效缓存
+        devices.remove(1L);
+        deviceService.invalidateDeviceCache(1L, "pk", "device1");
+        // 断言
+        assertNull(deviceService.getDeviceFromCache(1L));
+        assertNull(deviceService.getDeviceFromCache("pk", "device1"));
+    }
+
+    @Test
+    public void testInvalidateDeviceCacheByProductId() {
+        // 准备参数：两个产品的设备已经缓存
+        devices.put(1L, buildDevice(1L, 10L, "codec"));
+        devices.put(2L, buildDevice(2L, 20L, "codec"));
+        deviceService.getDeviceFromCache(1L);
+        deviceService.getDeviceFromCache(2L);
+        verify(deviceApi, times(2)).getDeviceList(any());
+
+        // 调用：产品 10 的编解码类型变化
+        devices.put(1L, buildDevice(1L, 10L, "newCodec"));
+        deviceService.invalidateDeviceCacheByProductId(10L);
+        // 断言：只重新加载产品 10 的设备
+        assertEquals("newCodec", deviceService.getDeviceFromCache(1L).getCodecType());
+        assertEquals("codec", deviceService.getDeviceFromCache(2L).getCodecType());
+        verify(deviceApi, times(3)).getDeviceList(any());
+    }
+
+    @Test
+    public void testInvalidateDeviceCache_duringLoad() {
+        // 准备参数
+        devices.put(1L, buildDevice(1L, 10L, "codec"));
+        // mock 方法：加载期间，设备被更新，并收到失效消息
+        doAnswer(invocation -> {
+            IotDeviceRespDTO oldDevice = devices.get(1L);
+            devices.put(1L, buildDevice(1L, 10L, "newCodec"));
+            deviceService.invalidateDeviceCache(1L, "pk", "device1");
+            return CommonResult.success(singletonList(oldDevice));
+        }).doAnswer(invocation -> CommonResult.success(singletonList(devices.get(1L))))
+                .when(deviceApi).getDeviceList(any());
+
+        // 调用：本次加载到的是旧数据
+        assertEquals("codec", deviceService.getDeviceFromCache(1L).getCodecType());
+        // 断言：版本号已经变化，旧数据没有写入缓存，下次重新加载到最新的设备
+        assertEquals("newCodec", deviceService.getDeviceFromCache(1L).getCodecType());
+        assertEquals("newCodec", deviceService.getDeviceFromCache(1L).getCodecType());
+        verify(deviceApi, times(2)).getDeviceList(any());
+    }
+
+    private static IotDeviceRespDTO buildDevice(Long id, Long productId, String codecType) {
+        IotDeviceRespDTO device = new IotDeviceRespDTO();
+        device.setId(id);
+        device.setProductKey("pk");
+        device.setDeviceName("device" + id);
+        device.setTenantId(1L);
+        device.setProductId(productId);
+        device.setCodecType(codecType);
+        return device;
+    }
+
+}
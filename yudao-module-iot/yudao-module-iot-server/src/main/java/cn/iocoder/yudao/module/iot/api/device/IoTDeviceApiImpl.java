@@ -1,12 +1,18 @@
 package cn.iocoder.yudao.module.iot.api.device;
 
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.enums.RpcConstants;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.iot.core.biz.IotDeviceCommonApi;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceAuthReqDTO;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceGetReqDTO;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceListReqDTO;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceRespDTO;
+import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceScanReqDTO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.product.IotProductDO;
 import cn.iocoder.yudao.module.iot.service.device.IotDeviceService;
@@ -19,8 +25,11 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
 import javax.annotation.security.PermitAll;
+import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMultiMap;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 
 /**
  * IoT 设备 API 实现类
@@ -58,4 +67,48 @@ public class IoTDeviceApiImpl implements IotDeviceCommonApi {
         }));
     }
 
+    @Override
+    @PostMapping(RpcConstants.RPC_API_PREFIX + "/iot/device/list")
+    @PermitAll
+    public CommonResult<List<IotDeviceRespDTO>> getDeviceList(@RequestBody IotDeviceListReqDTO listReqDTO) {
+        Map<Long, IotDeviceDO> deviceMap = new LinkedHashMap<>();
+        TenantUtils.executeIgnore(() -> {
+            // 1. 按照编号查询
+            if (CollUtil.isNotEmpty(listReqDTO.getIds())) {
+                deviceService.getDeviceList(listReqDTO.getIds()).forEach(device -> deviceMap.put(device.getId(), device));
+            }
+            // 2. 按照 productKey + deviceName 查询，同一个产品的设备一次查询
+            if (CollUtil.isNotEmpty(listReqDTO.getKeys())) {
+                convertMultiMap(listReqDTO.getKeys(), KeyValue::getKey, KeyValue::getValue).forEach((productKey, deviceNames) ->
+                        deviceService.getDeviceListByProductKeyAndNames(productKey, deviceNames)
+                                .forEach(device -> deviceMap.put(device.getId(), device)));
+            }
+        });
+        return success(buildDeviceList(deviceMap.values()));
+    }
+
+    @Override
+    @PostMapping(RpcConstants.RPC_API_PREFIX + "/iot/device/scan")
+    @PermitAll
+    public CommonResult<List<IotDeviceRespDTO>> scanDeviceList(@RequestBody IotDeviceScanReqDTO scanReqDTO) {
+        int limit = ObjUtil.defaultIfNull(scanReqDTO.getLimit(), 1000);
+        return success(buildDeviceList(deviceService.getDeviceListByLastId(scanReqDTO.getLastId(), limit)));
+    }
+
+    private List<IotDeviceRespDTO> buildDeviceList(Collection<IotDeviceDO> devices) {
+        if (CollUtil.isEmpty(devices)) {
+            return Collections.emptyList();
+        }
+        // 同一批设备，通常属于少量产品，所以每个产品只读取一次
+        Map<Long, IotProductDO> productMap = new HashMap<>();
+        convertSet(devices, IotDeviceDO::getProductId).forEach(productId ->
+                productMap.put(productId, productService.getProductFromCache(productId)));
+        return BeanUtils.toBean(new ArrayList<>(devices), IotDeviceRespDTO.class, deviceDTO -> {
+            IotProductDO product = productMap.get(deviceDTO.getProductId());
+            if (product != null) {
+                deviceDTO.setCodecType(product.getCodecType());
+            }
+        });
+    }
+
 }
\ No newline at end of file
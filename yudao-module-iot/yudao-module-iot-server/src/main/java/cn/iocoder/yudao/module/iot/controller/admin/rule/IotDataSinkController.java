@@ -4,10 +4,12 @@ import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink.IotDataSinkDeadLetterRespVO;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink.IotDataSinkPageReqVO;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink.IotDataSinkRespVO;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink.IotDataSinkSaveReqVO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDeadLetterDO;
 import cn.iocoder.yudao.module.iot.service.rule.data.IotDataSinkService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -81,4 +83,34 @@ public class IotDataSinkController {
                 new IotDataSinkRespVO().setId(sink.getId()).setName(sink.getName())));
     }
 
+    // ========== 死信 ==========
+
+    @GetMapping("/dead-letter/list")
+    @Operation(summary = "获得数据目的的最新死信列表", description = "HTTP 数据目的多次重试后仍然发送失败的请求")
+    @Parameter(name = "count", description = "读取的数量", example = "100")
+    @PreAuthorize("@ss.hasPermission('iot:data-sink:query')")
+    public CommonResult<List<IotDataSinkDeadLetterRespVO>> getDataSinkDeadLetterList(
+            @RequestParam(value = "count", defaultValue = "100") Integer count) {
+        List<IotDataSinkDeadLetterDO> list = dataSinkService.getDataSinkDeadLetterList(count);
+        return success(BeanUtils.toBean(list, IotDataSinkDeadLetterRespVO.class));
+    }
+
+    @PostMapping("/dead-letter/replay")
+    @Operation(summary = "重放数据目的的死信", description = "重新发送请求，成功后删除死信")
+    @Parameter(name = "id", description = "死信编号", required = true)
+    @PreAuthorize("@ss.hasPermission('iot:data-sink:update')")
+    public CommonResult<Boolean> replayDataSinkDeadLetter(@RequestParam("id") String id) {
+        dataSinkService.replayDataSinkDeadLetter(id);
+        return success(true);
+    }
+
+    @DeleteMapping("/dead-letter/delete")
+    @Operation(summary = "删除数据目的的死信")
+    @Parameter(name = "id", description = "死信编号", required = true)
+    @PreAuthorize("@ss.hasPermission('iot:data-sink:delete')")
+    public CommonResult<Boolean> deleteDataSinkDeadLetter(@RequestParam("id") String id) {
+        dataSinkService.deleteDataSinkDeadLetter(id);
+        return success(true);
+    }
+
 }
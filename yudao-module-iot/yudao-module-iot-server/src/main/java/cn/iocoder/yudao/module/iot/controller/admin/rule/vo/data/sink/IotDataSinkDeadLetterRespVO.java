@@ -0,0 +1,36 @@
+package cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "管理后台 - IoT 数据流转目的的死信 Response VO")
+@Data
+public class IotDataSinkDeadLetterRespVO {
+
+    @Schema(description = "死信编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "c4ca4238a0b923820dcc509a6f75849b")
+    private String id;
+
+    @Schema(description = "请求方法", requiredMode = Schema.RequiredMode.REQUIRED, example = "POST")
+    private String method;
+
+    @Schema(description = "请求 URL", requiredMode = Schema.RequiredMode.REQUIRED, example = "https://www.iocoder.cn/sink")
+    private String url;
+
+    @Schema(description = "请求体")
+    private String body;
+
+    @Schema(description = "包含的消息数量", requiredMode = Schema.RequiredMode.REQUIRED, example = "10")
+    private Integer messageCount;
+
+    @Schema(description = "已尝试的次数", requiredMode = Schema.RequiredMode.REQUIRED, example = "4")
+    private Integer attempts;
+
+    @Schema(description = "最后一次失败的原因", example = "请求失败，状态码(503)")
+    private String error;
+
+    @Schema(description = "创建时间", requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDateTime createTime;
+
+}
@@ -0,0 +1,54 @@
+package cn.iocoder.yudao.module.iot.dal.dataobject.device;
+
+import cn.iocoder.yudao.module.iot.dal.dataobject.product.IotProductDO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * IoT 设备属性历史数据 DO
+ *
+ * 目前使用 TDengine 存储，每个设备一张子表 device_property_${deviceId}，属于超级表 product_property_${productId}
+ *
+ * @author 芋道源码
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IotDevicePropertyHistoryDO {
+
+    /**
+     * 设备编号
+     *
+     * 关联 {@link IotDeviceDO#getId()}
+     */
+    private Long deviceId;
+    /**
+     * 产品编号
+     *
+     * 关联 {@link IotProductDO#getId()}
+     */
+    private Long productId;
+
+    /**
+     * 存储时间戳
+     */
+    private Long ts;
+    /**
+     * 上报时间戳
+     */
+    private Long reportTime;
+
+    /**
+     * 属性
+     *
+     * key：属性标识符
+     * value：属性值
+     */
+    private Map<String, Object> properties;
+
+}
@@ -0,0 +1,48 @@
+package cn.iocoder.yudao.module.iot.dal.dataobject.device;
+
+import cn.iocoder.yudao.module.iot.dal.redis.device.DevicePropertyRedisDAO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * IoT 设备影子 Redis DO，即设备最新属性的快照
+ *
+ * 每次写入属性时，版本号加 1。因此，读取方可以通过版本号，判断读取到的快照是否落后于某次属性上报
+ *
+ * @see cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants#DEVICE_PROPERTY
+ * @see cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants#DEVICE_PROPERTY_VERSION
+ * @see DevicePropertyRedisDAO
+ *
+ * @author 芋道源码
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IotDeviceShadowDO {
+
+    /**
+     * 设备编号
+     */
+    private Long deviceId;
+
+    /**
+     * 版本号
+     *
+     * 从未写入过属性时，为 0
+     */
+    private Long version;
+
+    /**
+     * 属性
+     *
+     * key：属性标识符
+     * 注意：快照可能被多个线程共享，不允许修改
+     */
+    private Map<String, IotDevicePropertyDO> properties;
+
+}
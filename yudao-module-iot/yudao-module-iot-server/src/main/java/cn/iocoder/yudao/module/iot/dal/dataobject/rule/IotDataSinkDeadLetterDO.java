@@ -0,0 +1,69 @@
+package cn.iocoder.yudao.module.iot.dal.dataobject.rule;
+
+import cn.iocoder.yudao.module.iot.dal.redis.rule.DataSinkDeadLetterRedisDAO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * IoT 数据流转目的的死信 Redis DO
+ *
+ * 数据流转目的多次重试后仍然发送失败的请求，记录下来，便于排查与人工补偿
+ *
+ * @see cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants#DATA_SINK_DEAD_LETTER
+ * @see DataSinkDeadLetterRedisDAO
+ *
+ * @author 芋道源码
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IotDataSinkDeadLetterDO {
+
+    /**
+     * 编号，用于重放、删除
+     */
+    private String id;
+    /**
+     * 租户编号
+     */
+    private Long tenantId;
+    /**
+     * 请求方法
+     */
+    private String method;
+    /**
+     * 请求 URL
+     */
+    private String url;
+    /**
+     * 请求头
+     */
+    private Map<String, String> headers;
+    /**
+     * 请求体
+     */
+    private String body;
+    /**
+     * 包含的消息数量
+     */
+    private Integer messageCount;
+    /**
+     * 已尝试的次数
+     */
+    private Integer attempts;
+    /**
+     * 最后一次失败的原因
+     */
+    private String error;
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+}
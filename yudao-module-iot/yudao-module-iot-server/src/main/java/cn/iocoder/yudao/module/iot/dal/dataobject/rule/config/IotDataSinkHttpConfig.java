@@ -33,4 +33,19 @@ public class IotDataSinkHttpConfig extends IotAbstractDataSinkConfig {
      */
     private String body;
 
+    /**
+     * 批量发送的最大消息数
+     *
+     * 为空或者 1 时，每条消息发送一次请求；大于 1 时，请求体的 messages 字段为消息数组。GET 请求不支持批量发送
+     */
+    private Integer batchSize;
+    /**
+     * 最大并发请求数，为空时使用全局配置
+     */
+    private Integer maxConcurrency;
+    /**
+     * 最大重试次数，为空时使用全局配置
+     */
+    private Integer maxRetries;
+
 }
\ No newline at end of file
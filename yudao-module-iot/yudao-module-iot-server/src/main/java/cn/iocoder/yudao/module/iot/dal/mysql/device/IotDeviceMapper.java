@@ -77,6 +77,13 @@ public interface IotDeviceMapper extends BaseMapperX<IotDeviceDO> {
                 .geIfPresent(IotDeviceDO::getCreateTime, createTime));
     }
 
+    default List<IotDeviceDO> selectListByIdGt(@Nullable Long lastId, int limit) {
+        return selectList(new LambdaQueryWrapperX<IotDeviceDO>()
+                .gtIfPresent(IotDeviceDO::getId, lastId)
+                .orderByAsc(IotDeviceDO::getId)
+                .last("LIMIT " + limit));
+    }
+
     default List<IotDeviceDO> selectByProductKeyAndDeviceNames(String productKey, Collection<String> deviceNames) {
         return selectList(new LambdaQueryWrapperX<IotDeviceDO>()
                 .eq(IotDeviceDO::getProductKey, productKey)
@@ -8,6 +8,8 @@ import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaTaskDO;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.List;
+
 @Mapper
 public interface IotOtaTaskMapper extends BaseMapperX<IotOtaTaskDO> {
 
@@ -23,6 +25,10 @@ public interface IotOtaTaskMapper extends BaseMapperX<IotOtaTaskDO> {
                 .orderByDesc(IotOtaTaskDO::getId));
     }
 
+    default List<IotOtaTaskDO> selectListByStatus(Integer status) {
+        return selectList(IotOtaTaskDO::getStatus, status);
+    }
+
     default int updateByIdAndStatus(Long id, Integer whereStatus, IotOtaTaskDO updateObj) {
         return update(updateObj, new LambdaUpdateWrapper<IotOtaTaskDO>()
                 .eq(IotOtaTaskDO::getId, id)
@@ -8,6 +8,8 @@ import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaTaskRecordDO;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import org.apache.ibatis.annotations.Mapper;
 
+import javax.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -34,6 +36,16 @@ public interface IotOtaTaskRecordMapper extends BaseMapperX<IotOtaTaskRecordDO>
                .in(IotOtaTaskRecordDO::getStatus, statuses));
     }
 
+    default List<IotOtaTaskRecordDO> selectListByTaskIdAndStatusAndIdGt(Long taskId, Integer status,
+                                                                        @Nullable Long lastId, int limit) {
+        return selectList(new LambdaQueryWrapperX<IotOtaTaskRecordDO>()
+                .eq(IotOtaTaskRecordDO::getTaskId, taskId)
+                .eq(IotOtaTaskRecordDO::getStatus, status)
+                .gtIfPresent(IotOtaTaskRecordDO::getId, lastId)
+                .orderByAsc(IotOtaTaskRecordDO::getId)
+                .last("LIMIT " + limit));
+    }
+
     default Long selectCountByTaskIdAndStatus(Long taskId, Collection<Integer> statuses) {
         return selectCount(new LambdaQueryWrapperX<IotOtaTaskRecordDO>()
                 .eq(IotOtaTaskRecordDO::getTaskId, taskId)
@@ -14,10 +14,21 @@ public interface RedisKeyConstants {
      * <p>
      * KEY 格式：device_property:{deviceId}
      * HASH KEY：identifier 属性标识
-     * VALUE 数据类型：String(JSON) {@link IotDevicePropertyDO}
+     * VALUE 数据类型：二进制编码的 {@link IotDevicePropertyDO}，见 DevicePropertyRedisDAO 的 encode 方法；
+     *               开启 YudaoIotProperties.DeviceShadow 的 legacyFormat 时，为原先的 JSON 编码
      */
     String DEVICE_PROPERTY = "iot:device_property:%d";
 
+    /**
+     * 设备属性的版本号，采用 STRING 结构，每次写入 {@link #DEVICE_PROPERTY} 时递增
+     *
+     * 不放在 {@link #DEVICE_PROPERTY} 的 HASH 中，是为了未升级的节点读取 HASH 时，不会解析版本号失败
+     *
+     * KEY 格式：device_property_version:{deviceId}
+     * VALUE 数据类型：Long 版本号
+     */
+    String DEVICE_PROPERTY_VERSION = "iot:device_property_version:%d";
+
     /**
      * 设备的最后上报时间，采用 ZSET 结构
      *
@@ -26,6 +37,22 @@ public interface RedisKeyConstants {
      */
     String DEVICE_REPORT_TIMES = "iot:device_report_times";
 
+    /**
+     * 设备离线检查的游标，采用 STRING 结构
+     *
+     * KEY 格式：device_offline_check_cursor
+     * VALUE 数据类型：Long 上报时间（毫秒），小于等于该值的设备，都已经检查过
+     */
+    String DEVICE_OFFLINE_CHECK_CURSOR = "iot:device_offline_check_cursor";
+
+    /**
+     * 设备离线检查的最近一次完整检查的时间，采用 STRING 结构
+     *
+     * KEY 格式：device_offline_check_full_time
+     * VALUE 数据类型：Long 时间（毫秒）
+     */
+    String DEVICE_OFFLINE_CHECK_FULL_TIME = "iot:device_offline_check_full_time";
+
     /**
      * 设备关联的网关 serverId 缓存，采用 HASH 结构
      *
@@ -35,6 +62,23 @@ public interface RedisKeyConstants {
      */
     String DEVICE_SERVER_ID = "iot:device_server_id";
 
+    /**
+     * OTA 升级任务推送的游标
+     *
+     * KEY 格式：ota_task_rollout_cursor
+     * HASH KEY：{taskId}
+     * VALUE 数据类型：Long 升级记录编号，小于等于该编号的待推送记录，本轮已经处理过
+     */
+    String OTA_TASK_ROLLOUT_CURSOR = "iot:ota_task_rollout_cursor";
+
+    /**
+     * OTA 升级推送的限流，每个网关一个，所有节点、任务、租户共享
+     *
+     * KEY 格式：ota_rollout_rate_limiter:{serverId}
+     * VALUE 数据类型：Redisson {@link org.redisson.api.RRateLimiter}
+     */
+    String OTA_ROLLOUT_RATE_LIMITER = "iot:ota_rollout_rate_limiter:%s";
+
     /**
      * 设备信息的数据缓存，使用 Spring Cache 操作（忽略租户）
      *
@@ -60,14 +104,6 @@ public interface RedisKeyConstants {
      */
     String THING_MODEL_LIST = "iot:thing_model_list";
 
-    /**
-     * 数据流转规则的数据缓存，使用 Spring Cache 操作
-     *
-     * KEY 格式：data_rule_list_${deviceId}_${method}_${identifier}
-     * VALUE 数据类型：String 数组(JSON)，即 {@link cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataRuleDO} 列表
-     */
-    String DATA_RULE_LIST = "iot:data_rule_list";
-
     /**
      * 数据目的的数据缓存，使用 Spring Cache 操作
      *
@@ -77,11 +113,11 @@ public interface RedisKeyConstants {
     String DATA_SINK = "iot:data_sink";
 
     /**
-     * 场景联动规则的数据缓存，使用 Spring Cache 操作
-     * <p>
-     * KEY 格式：scene_rule_list_${productId}_${deviceId}
-     * VALUE 数据类型：String 数组(JSON)，即 {@link cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotSceneRuleDO} 列表
+     * 数据流转目的的死信，采用 LIST 结构，只保留最新的 deadLetterMaxSize 条
+     *
+     * KEY 格式：data_sink_dead_letter
+     * VALUE 数据类型：String(JSON)，即 {@link cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDeadLetterDO}
      */
-    String SCENE_RULE_LIST = "iot:scene_rule_list";
+    String DATA_SINK_DEAD_LETTER = "iot:data_sink_dead_letter";
 
 }
@@ -1,50 +1,289 @@
 package cn.iocoder.yudao.module.iot.dal.redis.device;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDevicePropertyDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceShadowDO;
+import cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
-import java.util.Collections;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
 
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 import static cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants.DEVICE_PROPERTY;
+import static cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants.DEVICE_PROPERTY_VERSION;
 
 /**
  * {@link IotDevicePropertyDO} 的 Redis DAO
+ *
+ * 1. 每个属性，使用紧凑的二进制编码存储，见 {@link #encode(IotDevicePropertyDO)} 方法；兼容读写原先的 JSON 编码
+ * 2. 每次写入时，通过 INCR 递增 {@link RedisKeyConstants#DEVICE_PROPERTY_VERSION} 版本号，用于判断快照是否过期
+ *
+ * @author 芋道源码
  */
 @Repository
 public class DevicePropertyRedisDAO {
 
+    /**
+     * 编码格式：二进制编码的版本
+     */
+    private static final byte FORMAT_V1 = 1;
+    /**
+     * 编码格式：原先的 JSON 编码，以 { 开头
+     */
+    private static final byte FORMAT_JSON = '{';
+
+    /**
+     * updateTime 为空时的占位值
+     */
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    // ========== 属性值的类型 ==========
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_FLOAT = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+    private static final byte TYPE_STRING = 6;
+    /**
+     * 其它类型，使用 JSON 编码
+     */
+    private static final byte TYPE_JSON = 7;
+
+    /**
+     * 头部长度：编码格式(1) + updateTime(8) + 类型(1)
+     */
+    private static final int HEADER_LENGTH = 10;
+
     @Resource
     private StringRedisTemplate stringRedisTemplate;
 
-    public Map<String, IotDevicePropertyDO> get(Long id) {
-        String redisKey = formatKey(id);
-        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(redisKey);
-        if (CollUtil.isEmpty(entries)) {
-            return Collections.emptyMap();
+    /**
+     * 批量获得设备影子，通过 pipeline 一次读取
+     *
+     * @param ids 设备编号数组
+     * @return 设备影子，与 ids 顺序一致
+     */
+    @SuppressWarnings("unchecked")
+    public List<IotDeviceShadowDO> getList(List<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return Collections.emptyList();
+        }
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            ids.forEach(id -> {
+                connection.hashCommands().hGetAll(formatKey(id));
+                connection.stringCommands().get(formatVersionKey(id));
+            });
+            return null;
+        }, RedisSerializer.byteArray());
+        // 每个设备，依次是 HGETALL、GET 的结果
+        List<IotDeviceShadowDO> shadows = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            shadows.add(buildShadow(ids.get(i), (Map<byte[], byte[]>) results.get(2 * i),
+                    parseVersion((byte[]) results.get(2 * i + 1))));
+        }
+        return shadows;
+    }
+
+    /**
+     * 批量获得设备影子的版本号，通过 MGET 一次读取
+     *
+     * @param ids 设备编号数组
+     * @return 版本号，与 ids 顺序一致
+     */
+    public List<Long> getVersionList(List<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return Collections.emptyList();
+        }
+        byte[][] keys = ids.stream().map(DevicePropertyRedisDAO::formatVersionKey).toArray(byte[][]::new);
+        List<byte[]> results = stringRedisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(keys));
+        List<Long> versions = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            versions.add(parseVersion(results != null ? results.get(i) : null));
+        }
+        return versions;
+    }
+
+    /**
+     * 写入设备的属性，只写入传入的属性，并递增版本号
+     *
+     * @param id           设备编号
+     * @param properties   属性
+     * @param legacyFormat 是否使用原先的 JSON 编码，兼容未升级的节点读取
+     * @return 写入后的版本号
+     */
+    public long putAll(Long id, Map<String, IotDevicePropertyDO> properties, boolean legacyFormat) {
+        byte[] redisKey = formatKey(id);
+        Map<byte[], byte[]> hashes = new HashMap<>(properties.size());
+        properties.forEach((identifier, property) -> hashes.put(identifier.getBytes(StandardCharsets.UTF_8),
+                legacyFormat ? JsonUtils.toJsonByte(property) : encode(property)));
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (!hashes.isEmpty()) {
+                connection.hashCommands().hMSet(redisKey, hashes);
+            }
+            connection.stringCommands().incr(formatVersionKey(id));
+            return null;
+        }, RedisSerializer.byteArray());
+        // HMSET 的状态结果不会返回，所以取最后一个
+        return (Long) CollUtil.getLast(results);
+    }
+
+    private static IotDeviceShadowDO buildShadow(Long id, Map<byte[], byte[]> entries, long version) {
+        Map<String, IotDevicePropertyDO> properties = new HashMap<>();
+        if (entries != null) {
+            entries.forEach((field, value) ->
+                    properties.put(new String(field, StandardCharsets.UTF_8), decode(value)));
         }
-        return convertMap(entries.entrySet(),
-                entry -> (String) entry.getKey(),
-                entry -> JsonUtils.parseObject((String) entry.getValue(), IotDevicePropertyDO.class));
+        return IotDeviceShadowDO.builder().deviceId(id).version(version)
+                .properties(Collections.unmodifiableMap(properties)).build();
+    }
+
+    private static long parseVersion(byte[] value) {
+        return value != null ? Long.parseLong(new String(value, StandardCharsets.US_ASCII)) : 0L;
+    }
+
+    private static byte[] formatKey(Long id) {
+        return String.format(DEVICE_PROPERTY, id).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] formatVersionKey(Long id) {
+        return String.format(DEVICE_PROPERTY_VERSION, id).getBytes(StandardCharsets.UTF_8);
     }
 
-    public void putAll(Long id, Map<String, IotDevicePropertyDO> properties) {
-        if (CollUtil.isEmpty(properties)) {
-            return;
+    // ========== 编解码 ==========
+
+    /**
+     * 编码属性
+     *
+     * 格式：编码格式(1 字节) + updateTime 毫秒(8 字节) + 值类型(1 字节) + 值(变长)。
+     * 相比 JSON 编码，省去字段名，数值使用定长二进制，解析时无需 JSON 反序列化
+     *
+     * @param property 属性
+     * @return 字节数组
+     */
+    static byte[] encode(IotDevicePropertyDO property) {
+        Object value = property.getValue();
+        byte type;
+        byte[] payload = null;
+        int payloadLength;
+        if (value == null) {
+            type = TYPE_NULL;
+            payloadLength = 0;
+        } else if (value instanceof Integer) {
+            type = TYPE_INT;
+            payloadLength = Integer.BYTES;
+        } else if (value instanceof Long) {
+            type = TYPE_LONG;
+            payloadLength = Long.BYTES;
+        } else if (value instanceof Double) {
+            type = TYPE_DOUBLE;
+            payloadLength = Double.BYTES;
+        } else if (value instanceof Float) {
+            type = TYPE_FLOAT;
+            payloadLength = Float.BYTES;
+        } else if (value instanceof Boolean) {
+            type = TYPE_BOOLEAN;
+            payloadLength = 1;
+        } else if (value instanceof String) {
+            type = TYPE_STRING;
+            payload = ((String) value).getBytes(StandardCharsets.UTF_8);
+            payloadLength = payload.length;
+        } else {
+            type = TYPE_JSON;
+            payload = JsonUtils.toJsonByte(value);
+            payloadLength = payload.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + payloadLength);
+        buffer.put(FORMAT_V1);
+        buffer.putLong(property.getUpdateTime() != null ? LocalDateTimeUtil.toEpochMilli(property.getUpdateTime())
+                : NULL_TIME);
+        buffer.put(type);
+        switch (type) {
+            case TYPE_INT:
+                buffer.putInt((Integer) value);
+                break;
+            case TYPE_LONG:
+                buffer.putLong((Long) value);
+                break;
+            case TYPE_DOUBLE:
+                buffer.putDouble((Double) value);
+                break;
+            case TYPE_FLOAT:
+                buffer.putFloat((Float) value);
+                break;
+            case TYPE_BOOLEAN:
+                buffer.put((byte) ((Boolean) value ? 1 : 0));
+                break;
+            case TYPE_STRING:
+            case TYPE_JSON:
+                buffer.put(payload);
+                break;
+            default:
+                break;
         }
-        String redisKey = formatKey(id);
-        stringRedisTemplate.opsForHash().putAll(redisKey, convertMap(properties.entrySet(),
-                Map.Entry::getKey,
-                entry -> JsonUtils.toJsonString(entry.getValue())));
+        return buffer.array();
     }
 
-    private static String formatKey(Long id) {
-        return String.format(DEVICE_PROPERTY, id);
+    /**
+     * 解码属性
+     *
+     * @param bytes 字节数组
+     * @return 属性
+     */
+    static IotDevicePropertyDO decode(byte[] bytes) {
+        // 兼容原先的 JSON 编码
+        if (bytes.length > 0 && bytes[0] == FORMAT_JSON) {
+            return JsonUtils.parseObject(bytes, IotDevicePropertyDO.class);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[0] != FORMAT_V1) {
+            throw new IllegalArgumentException("未知的设备属性编码格式: " + (bytes.length > 0 ? bytes[0] : -1));
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        long time = buffer.getLong();
+        LocalDateTime updateTime = time != NULL_TIME ? LocalDateTimeUtil.of(time) : null;
+        byte type = buffer.get();
+        Object value;
+        switch (type) {
+            case TYPE_NULL:
+                value = null;
+                break;
+            case TYPE_INT:
+                value = buffer.getInt();
+                break;
+            case TYPE_LONG:
+                value = buffer.getLong();
+                break;
+            case TYPE_DOUBLE:
+                value = buffer.getDouble();
+                break;
+            case TYPE_FLOAT:
+                value = buffer.getFloat();
+                break;
+            case TYPE_BOOLEAN:
+                value = buffer.get() != 0;
+                break;
+            case TYPE_STRING:
+                value = new String(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, StandardCharsets.UTF_8);
+                break;
+            case TYPE_JSON:
+                value = JsonUtils.parseObject(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, Object.class);
+                break;
+            default:
+                throw new IllegalArgumentException("未知的设备属性值类型: " + type);
+        }
+        return IotDevicePropertyDO.builder().value(value).updateTime(updateTime).build();
     }
 
 }
@@ -1,15 +1,18 @@
 package cn.iocoder.yudao.module.iot.dal.redis.device;
 
-import cn.hutool.core.date.LocalDateTimeUtil;
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
-import java.time.LocalDateTime;
-import java.util.Set;
-
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import java.util.*;
 
 /**
  * 设备的最后上报时间的 Redis DAO
@@ -19,18 +22,96 @@ import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.
 @Repository
 public class DeviceReportTimeRedisDAO {
 
+    /**
+     * 每条 ZADD 命令的最大设备数
+     */
+    private static final int ZADD_BATCH_SIZE = 500;
+
     @Resource
     private StringRedisTemplate stringRedisTemplate;
 
-    public void update(Long deviceId, LocalDateTime reportTime) {
-        stringRedisTemplate.opsForZSet().add(RedisKeyConstants.DEVICE_REPORT_TIMES, String.valueOf(deviceId),
-                LocalDateTimeUtil.toEpochMilli(reportTime));
+    /**
+     * 批量更新设备的最后上报时间
+     *
+     * 每 {@link #ZADD_BATCH_SIZE} 个设备一条 ZADD 命令，所有命令通过 pipeline 一次发送
+     *
+     * @param reportTimes key：设备编号；value：上报时间（毫秒）
+     */
+    public void updateBatch(Map<Long, Long> reportTimes) {
+        if (CollUtil.isEmpty(reportTimes)) {
+            return;
+        }
+        List<Set<ZSetOperations.TypedTuple<String>>> batches = new ArrayList<>();
+        Set<ZSetOperations.TypedTuple<String>> batch = new HashSet<>();
+        for (Map.Entry<Long, Long> entry : reportTimes.entrySet()) {
+            batch.add(new DefaultTypedTuple<>(String.valueOf(entry.getKey()), entry.getValue().doubleValue()));
+            if (batch.size() >= ZADD_BATCH_SIZE) {
+                batches.add(batch);
+                batch = new HashSet<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (Set<ZSetOperations.TypedTuple<String>> tuples : batches) {
+                    operations.opsForZSet().add(RedisKeyConstants.DEVICE_REPORT_TIMES, tuples);
+                }
+                return null;
+            }
+
+        });
+    }
+
+    /**
+     * 按照上报时间升序，分页获得上报时间在 [minReportTime, maxReportTime] 区间的设备
+     *
+     * @param minReportTime 最小上报时间（毫秒）
+     * @param maxReportTime 最大上报时间（毫秒）
+     * @param offset        偏移量
+     * @param count         数量
+     * @return key：设备编号；value：上报时间（毫秒）。按照上报时间升序
+     */
+    public LinkedHashMap<Long, Long> range(long minReportTime, long maxReportTime, long offset, long count) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet().rangeByScoreWithScores(
+                RedisKeyConstants.DEVICE_REPORT_TIMES, minReportTime, maxReportTime, offset, count);
+        LinkedHashMap<Long, Long> result = new LinkedHashMap<>();
+        if (tuples != null) {
+            tuples.forEach(tuple -> result.put(Long.parseLong(tuple.getValue()), tuple.getScore().longValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 获得离线检查的游标：上报时间小于等于该值的设备，都已经检查过
+     *
+     * @return 游标（毫秒），不存在时返回 null
+     */
+    public Long getOfflineCheckCursor() {
+        String value = stringRedisTemplate.opsForValue().get(RedisKeyConstants.DEVICE_OFFLINE_CHECK_CURSOR);
+        return StrUtil.isNotEmpty(value) ? Long.parseLong(value) : null;
+    }
+
+    public void updateOfflineCheckCursor(long cursor) {
+        stringRedisTemplate.opsForValue().set(RedisKeyConstants.DEVICE_OFFLINE_CHECK_CURSOR, String.valueOf(cursor));
+    }
+
+    /**
+     * 获得离线检查的最近一次完整检查的时间
+     *
+     * @return 时间（毫秒），不存在时返回 null
+     */
+    public Long getOfflineCheckFullTime() {
+        String value = stringRedisTemplate.opsForValue().get(RedisKeyConstants.DEVICE_OFFLINE_CHECK_FULL_TIME);
+        return StrUtil.isNotEmpty(value) ? Long.parseLong(value) : null;
     }
 
-    public Set<Long> range(LocalDateTime maxReportTime) {
-        Set<String> values = stringRedisTemplate.opsForZSet().rangeByScore(RedisKeyConstants.DEVICE_REPORT_TIMES,
-                0, LocalDateTimeUtil.toEpochMilli(maxReportTime));
-        return convertSet(values, Long::parseLong);
+    public void updateOfflineCheckFullTime(long time) {
+        stringRedisTemplate.opsForValue().set(RedisKeyConstants.DEVICE_OFFLINE_CHECK_FULL_TIME, String.valueOf(time));
     }
 
 }
@@ -5,6 +5,7 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
+import java.util.*;
 
 /**
  * 设备关联的网关 serverId 的 Redis DAO
@@ -28,4 +29,27 @@ public class DeviceServerIdRedisDAO {
         return value != null ? (String) value : null;
     }
 
+    /**
+     * 批量获得设备关联的 serverId，通过 HMGET 一次读取
+     *
+     * @param deviceIds 设备编号数组
+     * @return serverId 映射；不存在的设备，不会返回
+     */
+    public Map<Long, String> getMap(Collection<Long> deviceIds) {
+        if (deviceIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> ids = new ArrayList<>(deviceIds);
+        List<Object> hashKeys = new ArrayList<>(ids.size());
+        ids.forEach(id -> hashKeys.add(String.valueOf(id)));
+        List<Object> values = stringRedisTemplate.opsForHash().multiGet(RedisKeyConstants.DEVICE_SERVER_ID, hashKeys);
+        Map<Long, String> result = new HashMap<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (values.get(i) != null) {
+                result.put(ids.get(i), (String) values.get(i));
+            }
+        }
+        return result;
+    }
+
 }
\ No newline at end of file
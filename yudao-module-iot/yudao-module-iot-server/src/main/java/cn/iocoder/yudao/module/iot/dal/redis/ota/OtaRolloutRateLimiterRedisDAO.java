@@ -0,0 +1,55 @@
+package cn.iocoder.yudao.module.iot.dal.redis.ota;
+
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateLimiterConfig;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Objects;
+
+import static cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants.OTA_ROLLOUT_RATE_LIMITER;
+
+/**
+ * OTA 升级推送限流的 Redis DAO
+ *
+ * 每个网关一个 {@link RRateLimiter}，所有节点、任务、租户共享，从而保证每个网关整体的推送速率
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class OtaRolloutRateLimiterRedisDAO {
+
+    /**
+     * 限流 Key 的过期时间，避免下线的网关残留；过期后，下次推送时重新创建
+     */
+    private static final Duration TIMEOUT = Duration.ofDays(1);
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 尝试获取网关的推送配额，不阻塞
+     *
+     * @param serverId 网关编号
+     * @param permits  推送的设备数量，不能超过 rate
+     * @param rate     每个 interval 的推送数量
+     * @param interval 间隔
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(String serverId, int permits, int rate, Duration interval) {
+        RRateLimiter rateLimiter = redissonClient.getRateLimiter(String.format(OTA_ROLLOUT_RATE_LIMITER, serverId));
+        // 不存在、或者配置变化时，重新设置 rate 速率
+        RateLimiterConfig config = rateLimiter.getConfig();
+        if (config == null || config.getRateType() != RateType.OVERALL
+                || !Objects.equals(config.getRate(), (long) rate)
+                || !Objects.equals(config.getRateInterval(), interval.toMillis())) {
+            rateLimiter.setRate(RateType.OVERALL, rate, interval);
+            rateLimiter.expire(TIMEOUT);
+        }
+        return rateLimiter.tryAcquire(permits);
+    }
+
+}
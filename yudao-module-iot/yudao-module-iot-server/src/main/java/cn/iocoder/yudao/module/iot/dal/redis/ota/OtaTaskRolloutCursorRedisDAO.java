@@ -0,0 +1,36 @@
+package cn.iocoder.yudao.module.iot.dal.redis.ota;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+
+/**
+ * OTA 升级任务推送游标的 Redis DAO
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class OtaTaskRolloutCursorRedisDAO {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    public Long get(Long taskId) {
+        Object value = stringRedisTemplate.opsForHash().get(RedisKeyConstants.OTA_TASK_ROLLOUT_CURSOR,
+                String.valueOf(taskId));
+        return value != null && StrUtil.isNotEmpty((String) value) ? Long.parseLong((String) value) : null;
+    }
+
+    public void update(Long taskId, Long cursor) {
+        stringRedisTemplate.opsForHash().put(RedisKeyConstants.OTA_TASK_ROLLOUT_CURSOR,
+                String.valueOf(taskId), String.valueOf(cursor));
+    }
+
+    public void delete(Long taskId) {
+        stringRedisTemplate.opsForHash().delete(RedisKeyConstants.OTA_TASK_ROLLOUT_CURSOR, String.valueOf(taskId));
+    }
+
+}
@@ -0,0 +1,88 @@
+package cn.iocoder.yudao.module.iot.dal.redis.rule;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDeadLetterDO;
+import cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * {@link IotDataSinkDeadLetterDO} 的 Redis DAO
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class DataSinkDeadLetterRedisDAO {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private YudaoIotProperties iotProperties;
+
+    /**
+     * 添加死信；超过最大数量时，淘汰最早的死信
+     *
+     * @param deadLetter 死信
+     */
+    public void add(IotDataSinkDeadLetterDO deadLetter) {
+        String value = JsonUtils.toJsonString(deadLetter);
+        long maxSize = iotProperties.getDataSinkHttp().getDeadLetterMaxSize();
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                operations.opsForList().leftPush(RedisKeyConstants.DATA_SINK_DEAD_LETTER, value);
+                operations.opsForList().trim(RedisKeyConstants.DATA_SINK_DEAD_LETTER, 0, maxSize - 1);
+                return null;
+            }
+
+        });
+    }
+
+    /**
+     * 获得最新的死信列表
+     *
+     * @param count 数量
+     * @return 死信列表，按照时间倒序
+     */
+    public List<IotDataSinkDeadLetterDO> getList(int count) {
+        List<String> values = stringRedisTemplate.opsForList().range(RedisKeyConstants.DATA_SINK_DEAD_LETTER,
+                0, count - 1);
+        return convertList(values, value -> JsonUtils.parseObject(value, IotDataSinkDeadLetterDO.class));
+    }
+
+    /**
+     * 删除指定编号的死信
+     *
+     * 死信的数量有上限（deadLetterMaxSize），所以遍历查找后，通过 LREM 删除
+     *
+     * @param id 编号
+     * @return 是否删除成功
+     */
+    public boolean delete(String id) {
+        List<String> values = stringRedisTemplate.opsForList().range(RedisKeyConstants.DATA_SINK_DEAD_LETTER, 0, -1);
+        if (values == null) {
+            return false;
+        }
+        for (String value : values) {
+            IotDataSinkDeadLetterDO deadLetter = JsonUtils.parseObject(value, IotDataSinkDeadLetterDO.class);
+            if (deadLetter != null && id.equals(deadLetter.getId())) {
+                Long count = stringRedisTemplate.opsForList().remove(RedisKeyConstants.DATA_SINK_DEAD_LETTER, 1, value);
+                return count != null && count > 0;
+            }
+        }
+        return false;
+    }
+
+}
@@ -1,7 +1,9 @@
 package cn.iocoder.yudao.module.iot.dal.tdengine;
 
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.module.iot.controller.admin.device.vo.message.IotDeviceMessagePageReqVO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceMessageDO;
+import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineTsSequencer;
 import cn.iocoder.yudao.module.iot.framework.tdengine.core.annotation.TDengineDS;
 import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -41,6 +43,25 @@ public interface IotDeviceMessageMapper {
      */
     void insert(IotDeviceMessageDO message);
 
+    /**
+     * 批量插入设备消息数据
+     *
+     * 按照子表（设备）分组，拼接为一条多表 INSERT 语句；如果子表不存在，会自动创建子表
+     *
+     * @param messages    设备消息数据，ts 不允许为空
+     * @param tsSequencer 子表的时间戳分配器
+     */
+    default void insertBatch(Collection<IotDeviceMessageDO> messages, TDengineTsSequencer tsSequencer) {
+        Map<Long, List<IotDeviceMessageDO>> deviceMessages = CollectionUtils.convertMultiMap(
+                messages, IotDeviceMessageDO::getDeviceId);
+        // 同一子表内，ts 相同的行会相互覆盖，所以需要保证递增，包括跨批次
+        deviceMessages.forEach((deviceId, list) -> list.forEach(message ->
+                message.setTs(tsSequencer.next(deviceId, message.getTs()))));
+        insertBatch0(deviceMessages);
+    }
+
+    void insertBatch0(@Param("deviceMessages") Map<Long, List<IotDeviceMessageDO>> deviceMessages);
+
     /**
      * 获得设备消息分页
      *
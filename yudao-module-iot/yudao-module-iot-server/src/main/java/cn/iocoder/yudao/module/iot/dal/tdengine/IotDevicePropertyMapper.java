@@ -3,16 +3,20 @@ package cn.iocoder.yudao.module.iot.dal.tdengine;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.module.iot.controller.admin.device.vo.property.IotDevicePropertyHistoryListReqVO;
 import cn.iocoder.yudao.module.iot.controller.admin.device.vo.property.IotDevicePropertyRespVO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDevicePropertyHistoryDO;
 import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineTableField;
+import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineTsSequencer;
 import cn.iocoder.yudao.module.iot.framework.tdengine.core.annotation.TDengineDS;
 import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -83,6 +87,28 @@ public interface IotDevicePropertyMapper {
                 @Param("properties") Map<String, Object> properties,
                 @Param("reportTime") Long reportTime);
 
+    /**
+     * 批量插入设备属性数据
+     *
+     * 拼接为一条多表 INSERT 语句，同一设备的行相邻；如果子表不存在，会自动创建子表
+     *
+     * @param histories   设备属性数据，ts 不允许为空
+     * @param tsSequencer 子表的时间戳分配器
+     */
+    default void insertBatch(Collection<IotDevicePropertyHistoryDO> histories, TDengineTsSequencer tsSequencer) {
+        Map<Long, List<IotDevicePropertyHistoryDO>> deviceHistories = CollectionUtils.convertMultiMap(
+                histories, IotDevicePropertyHistoryDO::getDeviceId);
+        // 同一子表内，ts 相同的行会相互覆盖，所以需要保证递增，包括跨批次
+        List<IotDevicePropertyHistoryDO> list = new ArrayList<>(histories.size());
+        deviceHistories.forEach((deviceId, deviceList) -> deviceList.forEach(history -> {
+            history.setTs(tsSequencer.next(deviceId, history.getTs()));
+            list.add(history);
+        }));
+        insertBatch0(list);
+    }
+
+    void insertBatch0(@Param("histories") List<IotDevicePropertyHistoryDO> histories);
+
     List<IotDevicePropertyRespVO> selectListByHistory(@Param("reqVO") IotDevicePropertyHistoryListReqVO reqVO);
 
 }
@@ -0,0 +1,22 @@
+package cn.iocoder.yudao.module.iot.framework.iot.config;
+
+import io.vertx.core.Vertx;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * IoT 模块的 Vert.x 配置类
+ *
+ * 整个模块共享一个 {@link Vertx} 实例，避免每个组件各自创建 EventLoop 线程池
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+public class IotVertxConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public Vertx iotVertx() {
+        return Vertx.vertx();
+    }
+
+}
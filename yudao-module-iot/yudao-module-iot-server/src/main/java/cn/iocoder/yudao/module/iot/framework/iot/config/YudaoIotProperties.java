@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.iot.framework.iot.config;
 
 import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
@@ -11,6 +12,7 @@ import java.time.Duration;
  * @author 芋道源码
  */
 @Component
+@ConfigurationProperties(prefix = "yudao.iot")
 @Data
 public class YudaoIotProperties {
 
@@ -25,4 +27,172 @@ public class YudaoIotProperties {
      */
     private double keepAliveFactor = 1.5D;
 
+    /**
+     * 设备在线状态的配置
+     */
+    private DeviceOnline deviceOnline = new DeviceOnline();
+
+    /**
+     * 设备影子的配置
+     */
+    private DeviceShadow deviceShadow = new DeviceShadow();
+
+    /**
+     * HTTP 数据流转目的的配置
+     */
+    private DataSinkHttp dataSinkHttp = new DataSinkHttp();
+
+    /**
+     * TDengine 批量写入的配置
+     */
+    private TDengineWriter tdengineWriter = new TDengineWriter();
+
+    /**
+     * 场景联动的配置
+     */
+    private SceneRule sceneRule = new SceneRule();
+
+    /**
+     * OTA 升级推送的配置
+     */
+    private OtaRollout otaRollout = new OtaRollout();
+
+    @Data
+    public static class DeviceOnline {
+
+        /**
+         * 设备上报时间的合并写入间隔
+         *
+         * 间隔内同一个设备的多次上报，只写入一次 Redis；需要远小于 keepAliveTime
+         */
+        private Duration reportTimeFlushInterval = Duration.ofSeconds(5);
+        /**
+         * 离线检查时，每次从 Redis 读取的设备数
+         */
+        private int offlineCheckBatchSize = 1000;
+        /**
+         * 离线检查时，完整检查的间隔
+         *
+         * 增量检查只检查游标之后的设备，游标之前仍然在线的设备（例如说离线消息处理失败、上报时间延迟写入），
+         * 需要每隔该间隔，从头完整检查一轮
+         */
+        private Duration offlineCheckFullInterval = Duration.ofHours(1);
+
+    }
+
+    @Data
+    public static class DeviceShadow {
+
+        /**
+         * 本地缓存的最大设备数，超过后按照 LRU 淘汰
+         */
+        private long cacheMaximumSize = 10000;
+        /**
+         * 是否使用原先的 JSON 编码写入设备属性，用于滚动升级时，兼容未升级的节点读取
+         *
+         * 迁移开关，默认关闭：从原先的版本滚动升级时，先配置 yudao.iot.device-shadow.legacy-format = true 发布，
+         * 全部节点升级后，再移除该配置发布。开启时，未升级的节点写入属性不会递增版本号，所以不使用本地缓存
+         */
+        private boolean legacyFormat = false;
+
+    }
+
+    @Data
+    public static class DataSinkHttp {
+
+        /**
+         * 所有 HTTP 数据流转目的共享的连接池大小（每个 host）
+         */
+        private int maxPoolSize = 50;
+        /**
+         * 请求超时时间
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+        /**
+         * 每个数据流转目的的队列容量；队列满时，消息直接进入死信，不阻塞规则的执行
+         */
+        private int queueCapacity = 10000;
+        /**
+         * 默认的每个数据流转目的的最大并发请求数；数据流转目的未配置时使用
+         */
+        private int maxConcurrency = 8;
+        /**
+         * 默认的最大重试次数；数据流转目的未配置时使用
+         */
+        private int maxRetries = 3;
+        /**
+         * 首次重试的间隔，之后每次翻倍
+         */
+        private Duration retryBackoff = Duration.ofSeconds(1);
+        /**
+         * 关闭数据流转目的时，等待剩余消息发送的最长时间；超过后，剩余的消息写入死信
+         */
+        private Duration closeTimeout = Duration.ofSeconds(5);
+        /**
+         * 死信的最大保留数量
+         */
+        private long deadLetterMaxSize = 10000;
+
+    }
+
+    @Data
+    public static class TDengineWriter {
+
+        /**
+         * 每批的最大条数
+         *
+         * 注意，需要考虑 TDengine 单条 SQL 的长度限制（maxSQLLength）
+         */
+        private int batchSize = 200;
+        /**
+         * 队列容量
+         */
+        private int queueCapacity = 50000;
+        /**
+         * 攒批的最长等待时间
+         */
+        private Duration linger = Duration.ofMillis(200);
+        /**
+         * 队列满时，入队的最长等待时间；超过后由调用线程直接写入
+         */
+        private Duration offerTimeout = Duration.ofMillis(100);
+
+    }
+
+    @Data
+    public static class SceneRule {
+
+        /**
+         * 执行场景联动的分区数
+         *
+         * 同一个设备的消息，总是由同一个分区按照顺序执行
+         */
+        private int partitions = Runtime.getRuntime().availableProcessors();
+        /**
+         * 每个分区的队列容量；队列满时，消息总线的消费线程阻塞等待
+         */
+        private int queueCapacity = 10000;
+
+    }
+
+    @Data
+    public static class OtaRollout {
+
+        /**
+         * 每次读取的待推送升级记录数量
+         */
+        private int pageSize = 500;
+        /**
+         * 每个网关 serverId 每一波推送的设备数量
+         */
+        private int waveSize = 100;
+        /**
+         * 每一波推送的间隔；即每个网关每秒推送 waveSize / waveInterval 个设备
+         *
+         * 通过每个网关一个的 Redis 限流实现，所有节点、任务、租户共享；为 0 时，不限流
+         */
+        private Duration waveInterval = Duration.ofSeconds(1);
+
+    }
+
 }
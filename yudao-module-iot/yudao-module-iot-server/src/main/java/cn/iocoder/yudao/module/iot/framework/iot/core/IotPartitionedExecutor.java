@@ -0,0 +1,121 @@
+package cn.iocoder.yudao.module.iot.framework.iot.core;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按照 key 分区的执行器
+ *
+ * 1. 每个分区是一个单线程、有界队列的线程池，相同 key（例如说设备编号）的任务，总是提交到同一个分区，从而按照提交顺序执行
+ * 2. 分区的队列满时，提交方阻塞等待，形成背压；不使用 CallerRuns 策略，避免同一个 key 的任务乱序
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class IotPartitionedExecutor {
+
+    /**
+     * 队列满时，阻塞等待入队
+     */
+    private static final RejectedExecutionHandler BLOCKING_POLICY = (task, executor) -> {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("执行器已关闭");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("等待入队时被中断", ex);
+        }
+    };
+
+    private final String name;
+    private final ThreadPoolExecutor[] partitions;
+
+    /**
+     * @param name          名字，用于线程名
+     * @param partitions    分区数
+     * @param queueCapacity 每个分区的队列容量
+     */
+    public IotPartitionedExecutor(String name, int partitions, int queueCapacity) {
+        Assert.isTrue(partitions > 0, "partitions({}) 需要大于 0", partitions);
+        Assert.isTrue(queueCapacity > 0, "queueCapacity({}) 需要大于 0", queueCapacity);
+        this.name = name;
+        this.partitions = new ThreadPoolExecutor[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), new NamedThreadFactory(name + "-" + i + "-", false),
+                    BLOCKING_POLICY);
+        }
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param key  分区的 key；相同 key 的任务按照提交顺序执行
+     * @param task 任务
+     */
+    public void execute(Object key, Runnable task) {
+        partitions[partition(key)].execute(() -> {
+            try {
+                task.run();
+            } catch (Exception ex) {
+                log.error("[execute][executor({}) key({}) 执行任务异常]", name, key, ex);
+            }
+        });
+    }
+
+    private int partition(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        // 打散 hashCode，避免 Long 等 key 的低位分布不均
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % partitions.length;
+    }
+
+    /**
+     * 获得所有分区中，等待执行的任务数
+     *
+     * @return 任务数
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (ThreadPoolExecutor partition : partitions) {
+            size += partition.getQueue().size();
+        }
+        return size;
+    }
+
+    /**
+     * 关闭执行器，并等待已提交的任务执行完成
+     *
+     * @param timeout 等待的最长时间
+     */
+    public void shutdown(Duration timeout) {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (ThreadPoolExecutor partition : partitions) {
+            try {
+                if (!partition.awaitTermination(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                    log.error("[shutdown][executor({}) 关闭超时，剩余 {} 个任务未执行]", name, partition.getQueue().size());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package cn.iocoder.yudao.module.iot.framework.tdengine.config;
+
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceMessageDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDevicePropertyHistoryDO;
+import cn.iocoder.yudao.module.iot.dal.tdengine.IotDeviceMessageMapper;
+import cn.iocoder.yudao.module.iot.dal.tdengine.IotDevicePropertyMapper;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineBatchWriter;
+import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineTsSequencer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * TDengine 批量写入的 Configuration
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+public class TDengineWriterConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public TDengineBatchWriter<IotDeviceMessageDO> deviceMessageWriter(IotDeviceMessageMapper deviceMessageMapper,
+                                                                       YudaoIotProperties iotProperties,
+                                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        YudaoIotProperties.TDengineWriter properties = iotProperties.getTdengineWriter();
+        // 批量写入、调用线程直接写入，共享同一个时间戳分配器
+        TDengineTsSequencer tsSequencer = new TDengineTsSequencer();
+        return new TDengineBatchWriter<>("device_message", properties.getBatchSize(), properties.getQueueCapacity(),
+                properties.getLinger(), properties.getOfferTimeout(),
+                rows -> deviceMessageMapper.insertBatch(rows, tsSequencer), meterRegistry.getIfAvailable());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public TDengineBatchWriter<IotDevicePropertyHistoryDO> devicePropertyWriter(IotDevicePropertyMapper devicePropertyMapper,
+                                                                                YudaoIotProperties iotProperties,
+                                                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        YudaoIotProperties.TDengineWriter properties = iotProperties.getTdengineWriter();
+        // 批量写入、调用线程直接写入，共享同一个时间戳分配器
+        TDengineTsSequencer tsSequencer = new TDengineTsSequencer();
+        return new TDengineBatchWriter<>("device_property", properties.getBatchSize(), properties.getQueueCapacity(),
+                properties.getLinger(), properties.getOfferTimeout(),
+                rows -> devicePropertyMapper.insertBatch(rows, tsSequencer), meterRegistry.getIfAvailable());
+    }
+
+}
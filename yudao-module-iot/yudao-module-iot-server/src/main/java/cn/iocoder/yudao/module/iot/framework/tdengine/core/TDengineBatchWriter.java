@@ -0,0 +1,215 @@
+package cn.iocoder.yudao.module.iot.framework.tdengine.core;
+
+import cn.hutool.core.lang.Assert;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * TDengine 的批量写入器（write-behind）
+ *
+ * 1. 调用 {@link #add(Object)} 时，只是放入有界队列；由后台线程攒批，满 batchSize 条或者达到 linger 时间时，
+ *    调用 writer 执行一次多表 INSERT，避免 TDengine 逐条解析单行 INSERT
+ * 2. 队列满时，先阻塞等待 offerTimeout；仍然满时，由调用线程直接写入，形成背压，不会丢数据
+ * 3. 批量写入失败时，逐条重试，避免个别行（例如说子表的字段不匹配）导致整批丢失
+ * 4. 如果存在 {@link MeterRegistry}，则统计写入耗时、批大小、队列长度、背压次数
+ *
+ * 注意：按照子表分组，由 writer 自己实现，例如说 IotDeviceMessageMapper 的 insertBatch 方法
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class TDengineBatchWriter<T> {
+
+    private static final String METRIC_PREFIX = "yudao.iot.tdengine.writer";
+
+    /**
+     * 关闭时，等待剩余数据写入的最长时间
+     */
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String name;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Duration offerTimeout;
+    private final Consumer<List<T>> writer;
+
+    private final BlockingQueue<T> queue;
+    private final Thread flushThread;
+    private volatile boolean running = true;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter callerRunsCounter;
+
+    /**
+     * @param name          名字，用于线程名、指标的 tag
+     * @param batchSize     每批的最大条数
+     * @param capacity      队列容量
+     * @param linger        攒批的最长等待时间
+     * @param offerTimeout  队列满时，入队的最长等待时间
+     * @param writer        批量写入的实现
+     * @param meterRegistry 指标注册器，允许为空
+     */
+    public TDengineBatchWriter(String name, int batchSize, int capacity, Duration linger, Duration offerTimeout,
+                               Consumer<List<T>> writer, MeterRegistry meterRegistry) {
+        Assert.isTrue(batchSize > 0, "batchSize({}) 需要大于 0", batchSize);
+        Assert.isTrue(capacity >= batchSize, "capacity({}) 不能小于 batchSize({})", capacity, batchSize);
+        this.name = name;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.offerTimeout = offerTimeout;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        // 指标
+        if (meterRegistry != null) {
+            this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush").tag("name", name).register(meterRegistry);
+            this.batchSizeSummary = DistributionSummary.builder(METRIC_PREFIX + ".batch.size").tag("name", name)
+                    .register(meterRegistry);
+            this.callerRunsCounter = Counter.builder(METRIC_PREFIX + ".caller.runs").tag("name", name)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".queue.depth", queue, BlockingQueue::size).tag("name", name)
+                    .register(meterRegistry);
+        } else {
+            this.flushTimer = null;
+            this.batchSizeSummary = null;
+            this.callerRunsCounter = null;
+        }
+        // 启动后台线程
+        this.flushThread = new Thread(this::runFlushLoop, "tdengine-writer-" + name);
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    /**
+     * 添加一条待写入的数据
+     *
+     * @param row 数据
+     */
+    public void add(T row) {
+        if (running) {
+            try {
+                if (queue.offer(row, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 队列已满，或者已经关闭，由调用线程直接写入
+        if (callerRunsCounter != null) {
+            callerRunsCounter.increment();
+        }
+        flush(Collections.singletonList(row));
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public void shutdown() {
+        shutdown(SHUTDOWN_TIMEOUT);
+    }
+
+    /**
+     * 关闭写入器，并写入队列中剩余的数据
+     *
+     * @param timeout 等待的最长时间
+     */
+    public void shutdown(Duration timeout) {
+        // 不中断后台线程，避免中断正在执行的 JDBC 写入；后台线程最多等待 linger 时间后，即可感知到关闭
+        running = false;
+        try {
+            flushThread.join(timeout.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.error("[shutdown][writer({}) 关闭超时，剩余 {} 条数据未写入]", name, queue.size());
+        }
+    }
+
+    private void runFlushLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException ex) {
+                log.warn("[runFlushLoop][writer({}) 被中断]", name);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    /**
+     * 攒一批数据：满 batchSize 条，或者从第一条开始达到 linger 时间
+     */
+    private void collect(List<T> batch) throws InterruptedException {
+        if (!running) {
+            queue.drainTo(batch, batchSize);
+            return;
+        }
+        T first = queue.poll(lingerNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<T> batch) {
+        long startTime = System.nanoTime();
+        try {
+            writer.accept(batch);
+        } catch (Exception ex) {
+            if (batch.size() == 1) {
+                log.error("[flush][writer({}) 写入数据({}) 失败]", name, batch.get(0), ex);
+                return;
+            }
+            // 批量写入失败时，逐条重试，尽量减少数据丢失
+            log.error("[flush][writer({}) 批量写入 {} 条失败，逐条重试]", name, batch.size(), ex);
+            for (T row : batch) {
+                try {
+                    writer.accept(Collections.singletonList(row));
+                } catch (Exception ex2) {
+                    log.error("[flush][writer({}) 写入数据({}) 失败]", name, row, ex2);
+                }
+            }
+        } finally {
+            if (flushTimer != null) {
+                flushTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+                batchSizeSummary.record(batch.size());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package cn.iocoder.yudao.module.iot.framework.tdengine.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * TDengine 子表的时间戳分配器
+ *
+ * TDengine 同一子表内，ts 相同的行会相互覆盖。同一毫秒的多条数据，可能分在不同批次，
+ * 或者由 {@link TDengineBatchWriter} 的调用线程直接写入，所以需要跨批次、跨线程记录每个子表最后写入的 ts，保证严格递增
+ *
+ * 长时间没有写入的子表会被淘汰，之后的 ts 一般已经大于淘汰前的 ts，不会覆盖
+ *
+ * @author 芋道源码
+ */
+public class TDengineTsSequencer {
+
+    /**
+     * 记录的子表的最大数量
+     */
+    private static final long MAXIMUM_SIZE = 100_000L;
+    /**
+     * 子表多久没有写入后淘汰
+     */
+    private static final Duration EXPIRE_AFTER_ACCESS = Duration.ofMinutes(10);
+
+    /**
+     * 子表最后写入的 ts
+     *
+     * key：子表的编号，例如说设备编号
+     */
+    private final Cache<Long, Long> lastTsCache = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS)
+            .build();
+
+    /**
+     * 分配子表的下一个 ts
+     *
+     * @param tableId 子表的编号
+     * @param ts      期望的 ts
+     * @return 实际的 ts；不大于该子表最后写入的 ts 时，返回最后写入的 ts + 1
+     */
+    public long next(Long tableId, long ts) {
+        // asMap 的 merge 是原子的，保证并发写入同一子表时，ts 也不重复
+        return lastTsCache.asMap().merge(tableId, ts, (lastTs, newTs) -> newTs > lastTs ? newTs : lastTs + 1);
+    }
+
+}
@@ -1,8 +1,9 @@
 package cn.iocoder.yudao.module.iot.job.device;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
-import cn.iocoder.yudao.framework.tenant.core.job.TenantJob;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.iot.core.enums.IotDeviceStateEnum;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
@@ -16,15 +17,18 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Resource;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * IoT 设备离线检查 Job
  *
  * 检测逻辑：设备最后一条 {@link IotDeviceMessage} 消息超过一定时间，则认为设备离线
  *
+ * 增量检查：设备的最后上报时间，存储在按照上报时间排序的 ZSET 中，并记录游标（已经检查到的上报时间）。
+ * 每次只检查 (游标, 超时时间] 区间内的设备，并分页读取，因此耗时与新超时的设备数相关，与在线的设备数无关。
+ * 游标之前仍然在线的设备（例如说离线消息处理失败、上报时间延迟写入），通过每隔 offlineCheckFullInterval 的完整检查兜底。
+ * 另外，因为 ZSET 不区分租户，所以不按照租户执行，而是按照设备所属的租户，发送离线消息
+ *
  * @see <a href="https://help.aliyun.com/zh/iot/support/faq-about-device-status#98f7056b2957y">阿里云 IoT —— 设备离线分析</a>
  * @author 芋道源码
  */
@@ -42,27 +46,80 @@ public class IotDeviceOfflineCheckJob {
     private IotDeviceMessageService deviceMessageService;
 
     @XxlJob("deviceOfflineCheckJob")
-    @TenantJob // 多租户
     public String execute(String param) {
-        // 1.1 获得在线设备列表
-        List<IotDeviceDO> devices = deviceService.getDeviceListByState(IotDeviceStateEnum.ONLINE.getState());
-        if (CollUtil.isEmpty(devices)) {
-            return JsonUtils.toJsonString(Collections.emptyList());
-        }
-        // 1.2 获取超时的设备集合
-        Set<Long> timeoutDeviceIds = devicePropertyService.getDeviceIdListByReportTime(getTimeoutTime());
+        long maxReportTime = LocalDateTimeUtil.toEpochMilli(getTimeoutTime());
+        long minReportTime = getMinReportTime();
+        int batchSize = iotProperties.getDeviceOnline().getOfflineCheckBatchSize();
 
-        // 2. 下线设备
         List<String[]> offlineDevices = CollUtil.newArrayList();
-        for (IotDeviceDO device : devices) {
-            if (!timeoutDeviceIds.contains(device.getId())) {
+        while (minReportTime <= maxReportTime) {
+            // 1. 分页读取超时的设备
+            LinkedHashMap<Long, Long> reportTimes = devicePropertyService.getDeviceReportTimeList(
+                    minReportTime, maxReportTime, 0, batchSize);
+            long nextCursor;
+            if (reportTimes.size() < batchSize) {
+                // 情况一：最后一页
+                offlineDevices(reportTimes.keySet(), offlineDevices);
+                nextCursor = maxReportTime;
+            } else {
+                long firstReportTime = CollUtil.getFirst(reportTimes.values());
+                long lastReportTime = CollUtil.getLast(reportTimes.values());
+                if (firstReportTime < lastReportTime) {
+                    // 情况二：只处理上报时间小于 lastReportTime 的设备，等于 lastReportTime 的设备可能有下一页，由下一轮处理
+                    List<Long> deviceIds = new ArrayList<>(reportTimes.size());
+                    reportTimes.forEach((deviceId, reportTime) -> {
+                        if (reportTime < lastReportTime) {
+                            deviceIds.add(deviceId);
+                        }
+                    });
+                    offlineDevices(deviceIds, offlineDevices);
+                    nextCursor = lastReportTime - 1;
+                } else {
+                    // 情况三：整页的上报时间相同，则按照偏移量，分页处理该时间的全部设备
+                    offlineDevices(reportTimes.keySet(), offlineDevices);
+                    for (int offset = batchSize; reportTimes.size() >= batchSize; offset += batchSize) {
+                        reportTimes = devicePropertyService.getDeviceReportTimeList(
+                                lastReportTime, lastReportTime, offset, batchSize);
+                        offlineDevices(reportTimes.keySet(), offlineDevices);
+                    }
+                    nextCursor = lastReportTime;
+                }
+            }
+
+            // 2. 每页处理完成后，更新游标；处理失败时，下次从该页重新处理
+            devicePropertyService.updateDeviceOfflineCheckCursor(nextCursor);
+            minReportTime = nextCursor + 1;
+        }
+        return JsonUtils.toJsonString(offlineDevices);
+    }
+
+    /**
+     * 获得本次检查的最小上报时间：游标之后；到达完整检查的间隔时，从头检查
+     */
+    private long getMinReportTime() {
+        Long cursor = devicePropertyService.getDeviceOfflineCheckCursor();
+        long now = System.currentTimeMillis();
+        Long fullTime = devicePropertyService.getDeviceOfflineCheckFullTime();
+        if (cursor == null || fullTime == null
+                || now - fullTime >= iotProperties.getDeviceOnline().getOfflineCheckFullInterval().toMillis()) {
+            devicePropertyService.updateDeviceOfflineCheckFullTime(now);
+            return 0;
+        }
+        return cursor + 1;
+    }
+
+    private void offlineDevices(Collection<Long> deviceIds, List<String[]> offlineDevices) {
+        for (Long deviceId : deviceIds) {
+            // 已删除、已离线的设备，无需处理
+            IotDeviceDO device = deviceService.getDeviceFromCache(deviceId);
+            if (device == null || !Objects.equals(device.getState(), IotDeviceStateEnum.ONLINE.getState())) {
                 continue;
             }
             offlineDevices.add(new String[]{device.getProductKey(), device.getDeviceName()});
             // 为什么不直接更新状态呢？因为通过 IotDeviceMessage 可以经过一系列的处理，例如说记录日志等等
-            deviceMessageService.sendDeviceMessage(IotDeviceMessage.buildStateOffline().setDeviceId(device.getId()));
+            TenantUtils.execute(device.getTenantId(), () ->
+                    deviceMessageService.sendDeviceMessage(IotDeviceMessage.buildStateOffline(), device));
         }
-        return JsonUtils.toJsonString(offlineDevices);
     }
 
     private LocalDateTime getTimeoutTime() {
@@ -0,0 +1,35 @@
+package cn.iocoder.yudao.module.iot.mq.consumer.rule;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.iot.mq.message.rule.IotDataRuleRefreshMessage;
+import cn.iocoder.yudao.module.iot.service.rule.data.IotDataRuleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link IotDataRuleRefreshMessage} 的消费者，刷新本节点的数据流转规则索引
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class IotDataRuleRefreshConsumer extends AbstractRedisChannelMessageListener<IotDataRuleRefreshMessage> {
+
+    @Resource
+    private IotDataRuleService dataRuleService;
+
+    @Override
+    public void onMessage(IotDataRuleRefreshMessage message) {
+        log.info("[onMessage][收到数据流转规则刷新消息({})]", message);
+        if (message.getTenantId() == null) {
+            TenantUtils.executeIgnore(() -> dataRuleService.refreshDataRuleIndex(message.getRuleId(), message.getSinkId()));
+            return;
+        }
+        TenantUtils.execute(message.getTenantId(),
+                () -> dataRuleService.refreshDataRuleIndex(message.getRuleId(), message.getSinkId()));
+    }
+
+}
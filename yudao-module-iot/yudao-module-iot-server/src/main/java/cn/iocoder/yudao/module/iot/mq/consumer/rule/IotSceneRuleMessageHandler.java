@@ -3,34 +3,58 @@ package cn.iocoder.yudao.module.iot.mq.consumer.rule;
 import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageBus;
 import cn.iocoder.yudao.module.iot.core.messagebus.core.IotMessageSubscriber;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import cn.iocoder.yudao.module.iot.framework.iot.core.IotPartitionedExecutor;
 import cn.iocoder.yudao.module.iot.service.rule.scene.IotSceneRuleService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
+import java.time.Duration;
 
-// TODO @puhui999：后面重构哈
 /**
  * 针对 {@link IotDeviceMessage} 的消费者，处理规则场景
  *
+ * 场景联动的匹配、执行，提交到 {@link IotPartitionedExecutor} 按照设备分区执行：
+ * 1. 不阻塞消息总线的消费线程
+ * 2. 同一个设备的消息，按照顺序执行
+ *
  * @author 芋道源码
  */
 @Component
 @Slf4j
 public class IotSceneRuleMessageHandler implements IotMessageSubscriber<IotDeviceMessage> {
 
+    /**
+     * 关闭时，等待剩余消息执行的最长时间
+     */
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
     @Resource
     private IotSceneRuleService sceneRuleService;
 
     @Resource
     private IotMessageBus messageBus;
 
+    @Resource
+    private YudaoIotProperties iotProperties;
+
+    private IotPartitionedExecutor executor;
+
     @PostConstruct
     public void init() {
+        YudaoIotProperties.SceneRule properties = iotProperties.getSceneRule();
+        executor = new IotPartitionedExecutor("iot-scene-rule", properties.getPartitions(), properties.getQueueCapacity());
         messageBus.register(this);
     }
 
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown(SHUTDOWN_TIMEOUT);
+    }
+
     @Override
     public String getTopic() {
         return IotDeviceMessage.MESSAGE_BUS_DEVICE_MESSAGE_TOPIC;
@@ -43,11 +67,8 @@ public class IotSceneRuleMessageHandler implements IotMessageSubscriber<IotDevic
 
     @Override
     public void onMessage(IotDeviceMessage message) {
-        if (true) {
-            return;
-        }
-        log.info("[onMessage][消息内容({})]", message);
-        sceneRuleService.executeSceneRuleByDevice(message);
+        log.debug("[onMessage][消息内容({})]", message);
+        executor.execute(message.getDeviceId(), () -> sceneRuleService.executeSceneRuleByDevice(message));
     }
 
 }
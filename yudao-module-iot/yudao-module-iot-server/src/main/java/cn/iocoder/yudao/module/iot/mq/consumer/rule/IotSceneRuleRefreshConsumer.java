@@ -0,0 +1,35 @@
+package cn.iocoder.yudao.module.iot.mq.consumer.rule;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.iot.mq.message.rule.IotSceneRuleRefreshMessage;
+import cn.iocoder.yudao.module.iot.service.rule.scene.IotSceneRuleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link IotSceneRuleRefreshMessage} 的消费者，刷新本节点的场景联动索引
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class IotSceneRuleRefreshConsumer extends AbstractRedisChannelMessageListener<IotSceneRuleRefreshMessage> {
+
+    @Resource
+    private IotSceneRuleService sceneRuleService;
+
+    @Override
+    public void onMessage(IotSceneRuleRefreshMessage message) {
+        log.info("[onMessage][收到场景联动刷新消息({})]", message);
+        if (message.getTenantId() == null) {
+            TenantUtils.executeIgnore(() -> sceneRuleService.refreshSceneRuleIndex(message.getSceneRuleId()));
+            return;
+        }
+        TenantUtils.execute(message.getTenantId(),
+                () -> sceneRuleService.refreshSceneRuleIndex(message.getSceneRuleId()));
+    }
+
+}
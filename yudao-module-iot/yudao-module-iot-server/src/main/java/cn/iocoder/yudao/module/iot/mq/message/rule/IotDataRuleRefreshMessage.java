@@ -0,0 +1,32 @@
+package cn.iocoder.yudao.module.iot.mq.message.rule;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 数据流转规则变更的广播消息，用于刷新各个 iot-server 节点的 IotDataRuleIndex 索引
+ *
+ * 1. ruleId 不为空：规则新增、修改、删除
+ * 2. sinkId 不为空：数据目的修改、删除
+ * 3. 都为空：重新加载全部
+ *
+ * @author 芋道源码
+ */
+@Data
+public class IotDataRuleRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 租户编号
+     */
+    private Long tenantId;
+
+    /**
+     * 数据流转规则编号
+     */
+    private Long ruleId;
+    /**
+     * 数据目的编号
+     */
+    private Long sinkId;
+
+}
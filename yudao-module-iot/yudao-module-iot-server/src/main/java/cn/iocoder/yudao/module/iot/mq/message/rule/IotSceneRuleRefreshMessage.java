@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.iot.mq.message.rule;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 场景联动变更的广播消息，用于刷新各个 iot-server 节点的 IotSceneRuleIndex 索引
+ *
+ * 1. sceneRuleId 不为空：场景联动新增、修改、删除
+ * 2. 为空：重新加载全部
+ *
+ * @author 芋道源码
+ */
+@Data
+public class IotSceneRuleRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 租户编号
+     */
+    private Long tenantId;
+
+    /**
+     * 场景联动编号
+     */
+    private Long sceneRuleId;
+
+}
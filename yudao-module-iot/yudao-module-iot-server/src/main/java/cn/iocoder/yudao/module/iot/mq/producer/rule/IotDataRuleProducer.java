@@ -0,0 +1,40 @@
+package cn.iocoder.yudao.module.iot.mq.producer.rule;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.module.iot.mq.message.rule.IotDataRuleRefreshMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 数据流转规则相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class IotDataRuleProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link IotDataRuleRefreshMessage} 消息，刷新各个节点的数据流转规则索引
+     *
+     * @param ruleId 数据流转规则编号
+     * @param sinkId 数据目的编号
+     */
+    public void sendDataRuleRefreshMessage(Long ruleId, Long sinkId) {
+        try {
+            IotDataRuleRefreshMessage message = new IotDataRuleRefreshMessage();
+            message.setTenantId(TenantContextHolder.getTenantId()).setRuleId(ruleId).setSinkId(sinkId);
+            redisMQTemplate.send(message);
+        } catch (Exception ex) {
+            // 广播失败时，各个节点的索引，依赖定时刷新兜底
+            log.error("[sendDataRuleRefreshMessage][ruleId({}) sinkId({}) 广播失败]", ruleId, sinkId, ex);
+        }
+    }
+
+}
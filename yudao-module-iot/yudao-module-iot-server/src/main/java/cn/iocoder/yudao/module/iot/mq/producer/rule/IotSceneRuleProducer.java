@@ -0,0 +1,39 @@
+package cn.iocoder.yudao.module.iot.mq.producer.rule;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.module.iot.mq.message.rule.IotSceneRuleRefreshMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 场景联动相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class IotSceneRuleProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link IotSceneRuleRefreshMessage} 消息，刷新各个节点的场景联动索引
+     *
+     * @param sceneRuleId 场景联动编号
+     */
+    public void sendSceneRuleRefreshMessage(Long sceneRuleId) {
+        try {
+            IotSceneRuleRefreshMessage message = new IotSceneRuleRefreshMessage();
+            message.setTenantId(TenantContextHolder.getTenantId()).setSceneRuleId(sceneRuleId);
+            redisMQTemplate.send(message);
+        } catch (Exception ex) {
+            // 广播失败时，各个节点的索引，依赖定时刷新兜底
+            log.error("[sendSceneRuleRefreshMessage][sceneRuleId({}) 广播失败]", sceneRuleId, ex);
+        }
+    }
+
+}
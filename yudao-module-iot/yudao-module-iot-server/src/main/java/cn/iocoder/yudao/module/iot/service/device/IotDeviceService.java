@@ -253,6 +253,17 @@ public interface IotDeviceService {
      */
     List<IotDeviceDO> getDeviceList(Collection<Long> ids);
 
+    /**
+     * 按照设备编号升序，获得编号大于 lastId 的设备列表
+     *
+     * 注意：忽略租户，用于网关分批加载全部设备
+     *
+     * @param lastId 上一批的最后一个设备编号；为空时，从头开始
+     * @param limit  数量
+     * @return 设备列表
+     */
+    List<IotDeviceDO> getDeviceListByLastId(@Nullable Long lastId, int limit);
+
     /**
      * 获得设备 Map
      *
@@ -14,6 +14,8 @@ import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.iot.controller.admin.device.vo.device.*;
 import cn.iocoder.yudao.module.iot.core.biz.dto.IotDeviceAuthReqDTO;
 import cn.iocoder.yudao.module.iot.core.enums.IotDeviceStateEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceChangeMessage;
+import cn.iocoder.yudao.module.iot.core.mq.producer.IotDeviceMessageProducer;
 import cn.iocoder.yudao.module.iot.core.util.IotDeviceAuthUtils;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceGroupDO;
@@ -29,6 +31,8 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Nullable;
@@ -61,6 +65,9 @@ public class IotDeviceServiceImpl implements IotDeviceService {
     @Lazy // 延迟加载，解决循环依赖
     private IotDeviceGroupService deviceGroupService;
 
+    @Resource
+    private IotDeviceMessageProducer deviceMessageProducer;
+
     @Override
     public Long createDevice(IotDeviceSaveReqVO createReqVO) {
         // 1.1 校验产品是否存在
@@ -179,6 +186,7 @@ public class IotDeviceServiceImpl implements IotDeviceService {
 
         // 3. 清空对应缓存
         deleteDeviceCache(device);
+        sendDeviceChangeMessage(Collections.singletonList(device));
     }
 
     @Override
@@ -204,6 +212,7 @@ public class IotDeviceServiceImpl implements IotDeviceService {
 
         // 3. 清空对应缓存
         deleteDeviceCache(devices);
+        sendDeviceChangeMessage(devices);
     }
 
     @Override
@@ -413,6 +422,31 @@ public class IotDeviceServiceImpl implements IotDeviceService {
         devices.forEach(this::deleteDeviceCache);
     }
 
+    /**
+     * 发送设备变更消息，通知网关失效本地缓存
+     *
+     * 只有网关缓存的字段（productKey、deviceName、productId 等）变化、或者设备删除时，才需要发送；
+     * 如果在事务中，则在事务提交后发送，避免网关重新加载到未提交的数据
+     *
+     * @param devices 设备列表
+     */
+    private void sendDeviceChangeMessage(List<IotDeviceDO> devices) {
+        Runnable task = () -> devices.forEach(device -> deviceMessageProducer.sendDeviceChangeMessage(
+                IotDeviceChangeMessage.ofDevice(device.getId(), device.getProductKey(), device.getDeviceName())));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+
+        });
+    }
+
     @SuppressWarnings("unused")
     @Caching(evict = {
         @CacheEvict(value = RedisKeyConstants.DEVICE, key = "#device.id"),
@@ -486,6 +520,12 @@ public class IotDeviceServiceImpl implements IotDeviceService {
         return deviceMapper.selectByIds(ids);
     }
 
+    @Override
+    @TenantIgnore // 忽略租户信息，网关需要加载全部租户的设备
+    public List<IotDeviceDO> getDeviceListByLastId(@Nullable Long lastId, int limit) {
+        return deviceMapper.selectListByIdGt(lastId, limit);
+    }
+
     @Override
     public void updateDeviceFirmware(Long deviceId, Long firmwareId) {
         // 1. 校验设备是否存在
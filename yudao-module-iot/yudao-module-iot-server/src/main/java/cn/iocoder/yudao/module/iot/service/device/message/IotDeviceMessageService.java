@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.iot.service.device.message;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.iot.controller.admin.device.vo.message.IotDeviceMessagePageReqVO;
 import cn.iocoder.yudao.module.iot.controller.admin.statistics.vo.IotStatisticsDeviceMessageReqVO;
@@ -45,6 +46,14 @@ public interface IotDeviceMessageService {
      */
     IotDeviceMessage sendDeviceMessage(IotDeviceMessage message);
 
+    /**
+     * 批量发送下行消息到同一个网关，通过一次批量发布到消息总线
+     *
+     * @param serverId       网关 serverId
+     * @param deviceMessages 设备与消息（“codec（编解码）字段” 部分字段）的列表，消息必须是下行消息
+     */
+    void sendDeviceMessageList(String serverId, List<KeyValue<IotDeviceDO, IotDeviceMessage>> deviceMessages);
+
     /**
      * 处理设备上行的消息，包括如下步骤：
      *
@@ -1,10 +1,11 @@
 package cn.iocoder.yudao.module.iot.service.device.message;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.exception.ServiceException;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils;
@@ -20,6 +21,7 @@ import cn.iocoder.yudao.module.iot.core.util.IotDeviceMessageUtils;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceMessageDO;
 import cn.iocoder.yudao.module.iot.dal.tdengine.IotDeviceMessageMapper;
+import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineBatchWriter;
 import cn.iocoder.yudao.module.iot.service.device.IotDeviceService;
 import cn.iocoder.yudao.module.iot.service.device.property.IotDevicePropertyService;
 import cn.iocoder.yudao.module.iot.service.ota.IotOtaTaskRecordService;
@@ -28,13 +30,13 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.google.common.base.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -62,6 +64,8 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
 
     @Resource
     private IotDeviceMessageMapper deviceMessageMapper;
+    @Resource
+    private TDengineBatchWriter<IotDeviceMessageDO> deviceMessageWriter;
 
     @Resource
     private IotDeviceMessageProducer deviceMessageProducer;
@@ -77,9 +81,16 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
         log.info("[defineDeviceMessageStable][设备消息超级表不存在，创建成功]");
     }
 
-    @Async
+    /**
+     * 记录设备消息日志
+     *
+     * 交给 {@link TDengineBatchWriter} 攒批写入，所以无需 @Async 异步
+     *
+     * @param message 设备消息
+     */
     void createDeviceLogAsync(IotDeviceMessage message) {
         IotDeviceMessageDO messageDO = BeanUtils.toBean(message, IotDeviceMessageDO.class)
+                .setTs(System.currentTimeMillis())
                 .setUpstream(IotDeviceMessageUtils.isUpstreamMessage(message))
                 .setReply(IotDeviceMessageUtils.isReplyMessage(message))
                 .setIdentifier(IotDeviceMessageUtils.getIdentifier(message));
@@ -89,7 +100,7 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
         if (messageDO.getData() != null) {
             messageDO.setData(JsonUtils.toJsonString(messageDO.getData()));
         }
-        deviceMessageMapper.insert(messageDO);
+        deviceMessageWriter.add(messageDO);
     }
 
     @Override
@@ -104,6 +115,21 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
         return sendDeviceMessage(message, device, null);
     }
 
+    @Override
+    public void sendDeviceMessageList(String serverId, List<KeyValue<IotDeviceDO, IotDeviceMessage>> deviceMessages) {
+        if (CollUtil.isEmpty(deviceMessages)) {
+            return;
+        }
+        // 1. 补充信息
+        List<IotDeviceMessage> messages = convertList(deviceMessages, deviceMessage -> {
+            appendDeviceMessage(deviceMessage.getValue(), deviceMessage.getKey());
+            return deviceMessage.getValue();
+        });
+
+        // 2. 发送下行消息
+        sendDownstreamDeviceMessageList(serverId, messages);
+    }
+
     private IotDeviceMessage sendDeviceMessage(IotDeviceMessage message, IotDeviceDO device, String serverId) {
         // 1. 补充信息
         appendDeviceMessage(message, device);
@@ -129,12 +155,28 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
                 throw exception(DEVICE_DOWNSTREAM_FAILED_SERVER_ID_NULL);
             }
         }
-        deviceMessageProducer.sendDeviceMessageToGateway(serverId, message);
-        // 特殊：记录消息日志。原因：上行消息，消费时，已经会记录；下行消息，因为消费在 Gateway 端，所以需要在这里记录
-        getSelf().createDeviceLogAsync(message);
+        sendDownstreamDeviceMessageList(serverId, Collections.singletonList(message));
         return message;
     }
 
+    /**
+     * 发送下行消息到指定网关，并记录消息日志
+     *
+     * @param serverId 网关 serverId
+     * @param messages 下行消息列表
+     */
+    private void sendDownstreamDeviceMessageList(String serverId, List<IotDeviceMessage> messages) {
+        messages.forEach(message -> Assert.isFalse(IotDeviceMessageUtils.isUpstreamMessage(message),
+                "消息({}) 不是下行消息", message.getMethod()));
+        if (messages.size() == 1) {
+            deviceMessageProducer.sendDeviceMessageToGateway(serverId, messages.get(0));
+        } else {
+            deviceMessageProducer.sendDeviceMessageListToGateway(serverId, messages);
+        }
+        // 特殊：记录消息日志。原因：上行消息，消费时，已经会记录；下行消息，因为消费在 Gateway 端，所以需要在这里记录
+        messages.forEach(this::createDeviceLogAsync);
+    }
+
     /**
      * 补充消息的后端字段
      *
@@ -166,7 +208,7 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
         }
 
         // 2. 记录消息
-        getSelf().createDeviceLogAsync(message);
+        createDeviceLogAsync(message);
 
         // 3. 回复消息。前提：非 _reply 消息，并且非禁用回复的消息
         if (IotDeviceMessageUtils.isReplyMessage(message)
@@ -264,8 +306,4 @@ public class IotDeviceMessageServiceImpl implements IotDeviceMessageService {
         });
     }
 
-    private IotDeviceMessageServiceImpl getSelf() {
-        return SpringUtil.getBean(getClass());
-    }
-
 }
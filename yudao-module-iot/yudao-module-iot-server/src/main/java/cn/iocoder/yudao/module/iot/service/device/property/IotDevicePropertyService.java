@@ -5,12 +5,14 @@ import cn.iocoder.yudao.module.iot.controller.admin.device.vo.property.IotDevice
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDevicePropertyDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceShadowDO;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * IoT 设备【属性】数据 Service 接口
@@ -44,6 +46,22 @@ public interface IotDevicePropertyService {
      */
     Map<String, IotDevicePropertyDO> getLatestDeviceProperties(Long deviceId);
 
+    /**
+     * 获得设备影子，即设备最新属性的快照
+     *
+     * @param deviceId 设备编号
+     * @return 设备影子
+     */
+    IotDeviceShadowDO getDeviceShadow(Long deviceId);
+
+    /**
+     * 批量获得设备影子，只需要一次 Redis 读取版本号、一次 Redis 读取未命中的设备
+     *
+     * @param deviceIds 设备编号数组
+     * @return 设备影子；key：设备编号
+     */
+    Map<Long, IotDeviceShadowDO> getDeviceShadowMap(Collection<Long> deviceIds);
+
     /**
      * 获得设备属性历史数据
      *
@@ -55,16 +73,50 @@ public interface IotDevicePropertyService {
     // ========== 设备时间相关操作 ==========
 
     /**
-     * 获得最后上报时间小于指定时间的设备编号集合
+     * 按照上报时间升序，分页获得上报时间在 [minReportTime, maxReportTime] 区间的设备
+     *
+     * @param minReportTime 最小上报时间（毫秒）
+     * @param maxReportTime 最大上报时间（毫秒）
+     * @param offset        偏移量
+     * @param count         数量
+     * @return key：设备编号；value：上报时间（毫秒）。按照上报时间升序
+     */
+    LinkedHashMap<Long, Long> getDeviceReportTimeList(long minReportTime, long maxReportTime, int offset, int count);
+
+    /**
+     * 获得设备离线检查的游标：上报时间小于等于该值的设备，都已经检查过
+     *
+     * @return 游标（毫秒），不存在时返回 null
+     */
+    Long getDeviceOfflineCheckCursor();
+
+    /**
+     * 更新设备离线检查的游标
+     *
+     * @param cursor 游标（毫秒）
+     */
+    void updateDeviceOfflineCheckCursor(long cursor);
+
+    /**
+     * 获得设备离线检查的最近一次完整检查的时间
      *
-     * @param maxReportTime 最大上报时间
-     * @return 设备编号集合
+     * @return 时间（毫秒），不存在时返回 null
      */
-    Set<Long> getDeviceIdListByReportTime(LocalDateTime maxReportTime);
+    Long getDeviceOfflineCheckFullTime();
+
+    /**
+     * 更新设备离线检查的最近一次完整检查的时间
+     *
+     * @param time 时间（毫秒）
+     */
+    void updateDeviceOfflineCheckFullTime(long time);
 
     /**
      * 更新设备上报时间
      *
+     * 合并写入：先记录在内存中，每隔 reportTimeFlushInterval 批量写入 Redis 一次，
+     * 因此同一个设备在间隔内的多次上报，只写入一次
+     *
      * @param id 设备编号
      * @param reportTime 上报时间
      */
@@ -86,4 +138,12 @@ public interface IotDevicePropertyService {
      */
     String getDeviceServerId(Long id);
 
+    /**
+     * 批量获得设备关联的网关服务 serverId
+     *
+     * @param ids 设备编号数组
+     * @return 网关 serverId 映射；未关联的设备，不会返回
+     */
+    Map<Long, String> getDeviceServerIdMap(Collection<Long> ids);
+
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package cn.iocoder.yudao.module.iot.service.device.property;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.ObjUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.common.util.object.ObjectUtils;
@@ -11,6 +13,8 @@ import cn.iocoder.yudao.module.iot.controller.admin.device.vo.property.IotDevice
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDevicePropertyDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDevicePropertyHistoryDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceShadowDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.product.IotProductDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.thingmodel.IotThingModelDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.thingmodel.model.dataType.ThingModelDateOrTextDataSpecs;
@@ -20,17 +24,27 @@ import cn.iocoder.yudao.module.iot.dal.redis.device.DeviceServerIdRedisDAO;
 import cn.iocoder.yudao.module.iot.dal.tdengine.IotDevicePropertyMapper;
 import cn.iocoder.yudao.module.iot.enums.thingmodel.IotDataSpecsDataTypeEnum;
 import cn.iocoder.yudao.module.iot.enums.thingmodel.IotThingModelTypeEnum;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineBatchWriter;
 import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineTableField;
 import cn.iocoder.yudao.module.iot.service.product.IotProductService;
 import cn.iocoder.yudao.module.iot.service.thingmodel.IotThingModelService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 
@@ -75,6 +89,43 @@ public class IotDevicePropertyServiceImpl implements IotDevicePropertyService {
 
     @Resource
     private IotDevicePropertyMapper devicePropertyMapper;
+    @Resource
+    private TDengineBatchWriter<IotDevicePropertyHistoryDO> devicePropertyWriter;
+
+    @Resource
+    private YudaoIotProperties iotProperties;
+
+    /**
+     * 待写入 Redis 的设备上报时间
+     *
+     * key：设备编号；value：上报时间（毫秒）
+     */
+    private final ConcurrentMap<Long, Long> pendingReportTimes = new ConcurrentHashMap<>();
+    private ScheduledExecutorService reportTimeFlushExecutor;
+
+    /**
+     * 设备影子的本地缓存，按照 LRU 淘汰
+     *
+     * 读取时，先通过版本号校验是否最新，从而避免读取全部属性；写入时，合并到缓存中
+     */
+    private Cache<Long, IotDeviceShadowDO> deviceShadowCache;
+
+    @PostConstruct
+    public void init() {
+        deviceShadowCache = CacheBuilder.newBuilder()
+                .maximumSize(iotProperties.getDeviceShadow().getCacheMaximumSize()).build();
+        long interval = iotProperties.getDeviceOnline().getReportTimeFlushInterval().toMillis();
+        reportTimeFlushExecutor = Executors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory("iot-device-report-time-flush-", true));
+        reportTimeFlushExecutor.scheduleWithFixedDelay(this::flushDeviceReportTime,
+                interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        reportTimeFlushExecutor.shutdown();
+        flushDeviceReportTime();
+    }
 
     // ========== 设备属性相关操作 ==========
 
@@ -154,18 +205,89 @@ public class IotDevicePropertyServiceImpl implements IotDevicePropertyService {
             return;
         }
 
-        // 2.1 保存设备属性【数据】
-        devicePropertyMapper.insert(device, properties, LocalDateTimeUtil.toEpochMilli(message.getReportTime()));
+        // 2.1 保存设备属性【数据】：交给 TDengineBatchWriter 攒批写入
+        devicePropertyWriter.add(IotDevicePropertyHistoryDO.builder()
+                .deviceId(device.getId()).productId(device.getProductId())
+                .ts(System.currentTimeMillis()).reportTime(LocalDateTimeUtil.toEpochMilli(message.getReportTime()))
+                .properties(properties).build());
 
         // 2.2 保存设备属性【日志】
         Map<String, IotDevicePropertyDO> properties2 = convertMap(properties.entrySet(), Map.Entry::getKey, entry ->
                 IotDevicePropertyDO.builder().value(entry.getValue()).updateTime(message.getReportTime()).build());
-        deviceDataRedisDAO.putAll(device.getId(), properties2);
+        updateDeviceShadow(device.getId(), properties2);
+    }
+
+    /**
+     * 更新设备影子：只写入变化的属性，并更新本地缓存
+     *
+     * @param deviceId   设备编号
+     * @param properties 属性
+     */
+    private void updateDeviceShadow(Long deviceId, Map<String, IotDevicePropertyDO> properties) {
+        // 1. 过滤未变化的属性，例如说消息重复投递时
+        IotDeviceShadowDO cachedShadow = deviceShadowCache.getIfPresent(deviceId);
+        if (cachedShadow != null) {
+            properties = MapUtil.filter(properties, entry ->
+                    ObjUtil.notEqual(entry.getValue(), cachedShadow.getProperties().get(entry.getKey())));
+            if (CollUtil.isEmpty(properties)) {
+                return;
+            }
+        }
+
+        // 2. 写入 Redis
+        long version = deviceDataRedisDAO.putAll(deviceId, properties,
+                iotProperties.getDeviceShadow().isLegacyFormat());
+
+        // 3. 更新本地缓存：缓存是上一个版本时，直接合并；否则，说明其它节点（线程）也写入了，则失效缓存，下次读取时重新加载
+        if (cachedShadow != null && cachedShadow.getVersion() == version - 1) {
+            Map<String, IotDevicePropertyDO> newProperties = new HashMap<>(cachedShadow.getProperties());
+            newProperties.putAll(properties);
+            deviceShadowCache.put(deviceId, IotDeviceShadowDO.builder().deviceId(deviceId).version(version)
+                    .properties(Collections.unmodifiableMap(newProperties)).build());
+        } else {
+            deviceShadowCache.invalidate(deviceId);
+        }
     }
 
     @Override
     public Map<String, IotDevicePropertyDO> getLatestDeviceProperties(Long deviceId) {
-        return deviceDataRedisDAO.get(deviceId);
+        return getDeviceShadow(deviceId).getProperties();
+    }
+
+    @Override
+    public IotDeviceShadowDO getDeviceShadow(Long deviceId) {
+        return getDeviceShadowMap(Collections.singleton(deviceId)).get(deviceId);
+    }
+
+    @Override
+    public Map<Long, IotDeviceShadowDO> getDeviceShadowMap(Collection<Long> deviceIds) {
+        if (CollUtil.isEmpty(deviceIds)) {
+            return Collections.emptyMap();
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(deviceIds));
+        // 情况一：兼容原先的编码时，未升级的节点写入属性不会递增版本号，所以直接读取 Redis
+        if (iotProperties.getDeviceShadow().isLegacyFormat()) {
+            return convertMap(deviceDataRedisDAO.getList(ids), IotDeviceShadowDO::getDeviceId);
+        }
+
+        // 情况二：批量读取版本号，校验本地缓存是否最新
+        List<Long> versions = deviceDataRedisDAO.getVersionList(ids);
+        Map<Long, IotDeviceShadowDO> result = new HashMap<>(ids.size());
+        List<Long> missIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            IotDeviceShadowDO shadow = deviceShadowCache.getIfPresent(ids.get(i));
+            if (shadow != null && shadow.getVersion().equals(versions.get(i))) {
+                result.put(ids.get(i), shadow);
+            } else {
+                missIds.add(ids.get(i));
+            }
+        }
+        // 未命中、或者已过期的设备，批量读取 Redis，并放入本地缓存
+        for (IotDeviceShadowDO shadow : deviceDataRedisDAO.getList(missIds)) {
+            deviceShadowCache.put(shadow.getDeviceId(), shadow);
+            result.put(shadow.getDeviceId(), shadow);
+        }
+        return result;
     }
 
     @Override
@@ -183,14 +305,58 @@ public class IotDevicePropertyServiceImpl implements IotDevicePropertyService {
     // ========== 设备时间相关操作 ==========
 
     @Override
-    public Set<Long> getDeviceIdListByReportTime(LocalDateTime maxReportTime) {
-        return deviceReportTimeRedisDAO.range(maxReportTime);
+    public LinkedHashMap<Long, Long> getDeviceReportTimeList(long minReportTime, long maxReportTime,
+                                                             int offset, int count) {
+        return deviceReportTimeRedisDAO.range(minReportTime, maxReportTime, offset, count);
+    }
+
+    @Override
+    public Long getDeviceOfflineCheckCursor() {
+        return deviceReportTimeRedisDAO.getOfflineCheckCursor();
+    }
+
+    @Override
+    public void updateDeviceOfflineCheckCursor(long cursor) {
+        deviceReportTimeRedisDAO.updateOfflineCheckCursor(cursor);
+    }
+
+    @Override
+    public Long getDeviceOfflineCheckFullTime() {
+        return deviceReportTimeRedisDAO.getOfflineCheckFullTime();
+    }
+
+    @Override
+    public void updateDeviceOfflineCheckFullTime(long time) {
+        deviceReportTimeRedisDAO.updateOfflineCheckFullTime(time);
     }
 
     @Override
-    @Async
     public void updateDeviceReportTimeAsync(Long id, LocalDateTime reportTime) {
-        deviceReportTimeRedisDAO.update(id, reportTime);
+        pendingReportTimes.merge(id, LocalDateTimeUtil.toEpochMilli(reportTime), Math::max);
+    }
+
+    /**
+     * 将内存中的设备上报时间，批量写入 Redis
+     */
+    private void flushDeviceReportTime() {
+        if (pendingReportTimes.isEmpty()) {
+            return;
+        }
+        // 逐个 remove，保证读取到的是最新值；之后的上报，由下一次写入
+        Map<Long, Long> reportTimes = new HashMap<>(pendingReportTimes.size());
+        for (Long id : pendingReportTimes.keySet()) {
+            Long reportTime = pendingReportTimes.remove(id);
+            if (reportTime != null) {
+                reportTimes.put(id, reportTime);
+            }
+        }
+        try {
+            deviceReportTimeRedisDAO.updateBatch(reportTimes);
+        } catch (Exception e) {
+            log.error("[flushDeviceReportTime][写入 {} 个设备的上报时间失败]", reportTimes.size(), e);
+            // 放回，等待下一次写入
+            reportTimes.forEach((id, reportTime) -> pendingReportTimes.merge(id, reportTime, Math::max));
+        }
     }
 
     @Override
@@ -206,4 +372,9 @@ public class IotDevicePropertyServiceImpl implements IotDevicePropertyService {
         return deviceServerIdRedisDAO.get(id);
     }
 
+    @Override
+    public Map<Long, String> getDeviceServerIdMap(Collection<Long> ids) {
+        return deviceServerIdRedisDAO.getMap(ids);
+    }
+
 }
\ No newline at end of file
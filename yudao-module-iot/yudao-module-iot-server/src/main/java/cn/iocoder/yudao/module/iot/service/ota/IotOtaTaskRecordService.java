@@ -4,7 +4,6 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.iot.controller.admin.ota.vo.task.record.IotOtaTaskRecordPageReqVO;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
-import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaFirmwareDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaTaskRecordDO;
 
 import javax.validation.Valid;
@@ -83,14 +82,14 @@ public interface IotOtaTaskRecordService {
     void cancelOtaTaskRecord(Long id);
 
     /**
-     * 推送 OTA 升级任务记录
+     * 分波次推送进行中的 OTA 升级任务
      *
-     * @param record   任务记录
-     * @param fireware 固件信息
-     * @param device   设备信息
-     * @return 是否推送成功
+     * 1. 按照记录编号分页读取待推送的记录，通过 Redis 游标断点续推
+     * 2. 按照网关 serverId 分组，每一波每个网关最多推送 waveSize 个设备，波次之间间隔 waveInterval
+     *
+     * @return 推送成功的记录数量
      */
-    boolean pushOtaTaskRecord(IotOtaTaskRecordDO record, IotOtaFirmwareDO fireware, IotDeviceDO device);
+    int rolloutOtaTaskRecords();
 
     /**
      * 更新 OTA 升级记录进度
@@ -4,17 +4,26 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.convert.Convert;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.thread.ThreadUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.iot.controller.admin.ota.vo.task.record.IotOtaTaskRecordPageReqVO;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceStateEnum;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaFirmwareDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaTaskDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaTaskRecordDO;
 import cn.iocoder.yudao.module.iot.dal.mysql.ota.IotOtaTaskRecordMapper;
+import cn.iocoder.yudao.module.iot.dal.redis.ota.OtaRolloutRateLimiterRedisDAO;
+import cn.iocoder.yudao.module.iot.dal.redis.ota.OtaTaskRolloutCursorRedisDAO;
 import cn.iocoder.yudao.module.iot.enums.ota.IotOtaTaskRecordStatusEnum;
+import cn.iocoder.yudao.module.iot.enums.ota.IotOtaTaskStatusEnum;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
 import cn.iocoder.yudao.module.iot.service.device.IotDeviceService;
 import cn.iocoder.yudao.module.iot.service.device.message.IotDeviceMessageService;
+import cn.iocoder.yudao.module.iot.service.device.property.IotDevicePropertyService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,6 +55,16 @@ public class IotOtaTaskRecordServiceImpl implements IotOtaTaskRecordService {
     private IotDeviceMessageService deviceMessageService;
     @Resource
     private IotDeviceService deviceService;
+    @Resource
+    private IotDevicePropertyService devicePropertyService;
+
+    @Resource
+    private OtaTaskRolloutCursorRedisDAO otaTaskRolloutCursorRedisDAO;
+    @Resource
+    private OtaRolloutRateLimiterRedisDAO otaRolloutRateLimiterRedisDAO;
+
+    @Resource
+    private YudaoIotProperties iotProperties;
 
     @Override
     public void createOtaTaskRecordList(List<IotDeviceDO> devices, Long firmwareId, Long taskId) {
@@ -130,26 +149,145 @@ public class IotOtaTaskRecordServiceImpl implements IotOtaTaskRecordService {
     }
 
     @Override
-    public boolean pushOtaTaskRecord(IotOtaTaskRecordDO record, IotOtaFirmwareDO fireware, IotDeviceDO device) {
+    public int rolloutOtaTaskRecords() {
+        List<IotOtaTaskDO> tasks = otaTaskService.getOtaTaskListByStatus(IotOtaTaskStatusEnum.IN_PROGRESS.getStatus());
+        int successCount = 0;
+        for (IotOtaTaskDO task : tasks) {
+            try {
+                successCount += rolloutOtaTaskRecords(task);
+            } catch (Exception ex) {
+                log.error("[rolloutOtaTaskRecords][推送 OTA 升级任务({}) 失败]", task.getId(), ex);
+            }
+        }
+        return successCount;
+    }
+
+    private int rolloutOtaTaskRecords(IotOtaTaskDO task) {
+        IotOtaFirmwareDO firmware = otaFirmwareService.getOtaFirmware(task.getFirmwareId());
+        if (firmware == null) {
+            log.warn("[rolloutOtaTaskRecords][任务({}) 的固件({}) 不存在]", task.getId(), task.getFirmwareId());
+            return 0;
+        }
+        YudaoIotProperties.OtaRollout properties = iotProperties.getOtaRollout();
+        int successCount = 0;
+        // 从上次中断的位置继续推送
+        Long lastId = otaTaskRolloutCursorRedisDAO.get(task.getId());
+        while (true) {
+            // 1. 分页读取待推送的记录
+            List<IotOtaTaskRecordDO> records = otaTaskRecordMapper.selectListByTaskIdAndStatusAndIdGt(
+                    task.getId(), IotOtaTaskRecordStatusEnum.PENDING.getStatus(), lastId, properties.getPageSize());
+            if (CollUtil.isNotEmpty(records)) {
+                successCount += rolloutOtaTaskRecords(records, firmware, properties);
+                lastId = CollUtil.getLast(records).getId();
+                otaTaskRolloutCursorRedisDAO.update(task.getId(), lastId);
+            }
+            // 2. 本轮已经读取完，重置游标。跳过的离线设备，下一轮重新推送
+            if (records.size() < properties.getPageSize()) {
+                otaTaskRolloutCursorRedisDAO.delete(task.getId());
+                return successCount;
+            }
+        }
+    }
+
+    private int rolloutOtaTaskRecords(List<IotOtaTaskRecordDO> records, IotOtaFirmwareDO firmware,
+                                      YudaoIotProperties.OtaRollout properties) {
+        // 1.1 批量获得在线的设备
+        Map<Long, IotDeviceDO> deviceMap = deviceService.getDeviceMap(
+                convertSet(records, IotOtaTaskRecordDO::getDeviceId));
+        deviceMap.values().removeIf(device -> IotDeviceStateEnum.isNotOnline(device.getState()));
+        // 1.2 批量获得设备连接的网关，并按照网关分组
+        Map<Long, String> serverIdMap = devicePropertyService.getDeviceServerIdMap(deviceMap.keySet());
+        Map<String, List<IotOtaTaskRecordDO>> serverRecordsMap = new LinkedHashMap<>();
+        List<Long> noServerIds = new ArrayList<>();
+        records.forEach(record -> {
+            if (!deviceMap.containsKey(record.getDeviceId())) {
+                return;
+            }
+            String serverId = serverIdMap.get(record.getDeviceId());
+            if (StrUtil.isEmpty(serverId)) {
+                noServerIds.add(record.getId());
+                return;
+            }
+            serverRecordsMap.computeIfAbsent(serverId, key -> new ArrayList<>()).add(record);
+        });
+        // 1.3 在线但未连接网关的设备，标记推送失败，下一轮重新推送
+        if (CollUtil.isNotEmpty(noServerIds)) {
+            otaTaskRecordMapper.updateListByIdAndStatus(noServerIds,
+                    Collections.singleton(IotOtaTaskRecordStatusEnum.PENDING.getStatus()),
+                    IotOtaTaskRecordDO.builder().description(StrUtil.format("推送失败，错误信息({})",
+                            DEVICE_DOWNSTREAM_FAILED_SERVER_ID_NULL.getMsg())).build());
+        }
+
+        // 2. 分波次推送：每一波，每个网关最多推送 waveSize 个设备。
+        // 速率由每个网关共享的限流控制，因此跨页、跨任务、跨租户（@TenantJob 并行执行）、跨节点都生效
+        int successCount = 0;
+        while (!serverRecordsMap.isEmpty()) {
+            boolean pushed = false;
+            Iterator<Map.Entry<String, List<IotOtaTaskRecordDO>>> iterator = serverRecordsMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, List<IotOtaTaskRecordDO>> entry = iterator.next();
+                List<IotOtaTaskRecordDO> serverRecords = entry.getValue();
+                int waveSize = Math.min(properties.getWaveSize(), serverRecords.size());
+                if (!tryAcquireOtaRollout(entry.getKey(), waveSize, properties)) {
+                    continue;
+                }
+                List<IotOtaTaskRecordDO> waveRecords = serverRecords.subList(0, waveSize);
+                successCount += pushOtaTaskRecordList(entry.getKey(), new ArrayList<>(waveRecords), firmware, deviceMap);
+                waveRecords.clear();
+                if (serverRecords.isEmpty()) {
+                    iterator.remove();
+                }
+                pushed = true;
+            }
+            // 所有网关都没有配额时，等待一会再重试
+            if (!pushed) {
+                ThreadUtil.sleep(Math.max(properties.getWaveInterval().toMillis() / 10, 10L));
+            }
+        }
+        return successCount;
+    }
+
+    /**
+     * 尝试获取网关的推送配额：每个 waveInterval 最多推送 waveSize 个设备
+     *
+     * @param serverId   网关编号
+     * @param permits    推送的设备数量
+     * @param properties 推送配置
+     * @return 是否获取成功
+     */
+    private boolean tryAcquireOtaRollout(String serverId, int permits, YudaoIotProperties.OtaRollout properties) {
+        // 未配置间隔时，不限流
+        if (properties.getWaveInterval().isZero()) {
+            return true;
+        }
+        return otaRolloutRateLimiterRedisDAO.tryAcquire(serverId, permits, properties.getWaveSize(),
+                properties.getWaveInterval());
+    }
+
+    private int pushOtaTaskRecordList(String serverId, List<IotOtaTaskRecordDO> records, IotOtaFirmwareDO firmware,
+                                      Map<Long, IotDeviceDO> deviceMap) {
+        Collection<Long> ids = convertList(records, IotOtaTaskRecordDO::getId);
         try {
-            // 1. 推送 OTA 任务记录
-            IotDeviceMessage message = IotDeviceMessage.buildOtaUpgrade(
-                    fireware.getVersion(), fireware.getFileUrl(), fireware.getFileSize(),
-                    fireware.getFileDigestAlgorithm(), fireware.getFileDigestValue());
-            deviceMessageService.sendDeviceMessage(message, device);
-
-            // 2. 更新 OTA 升级记录状态为进行中
-            int updateCount = otaTaskRecordMapper.updateByIdAndStatus(
-                    record.getId(), IotOtaTaskRecordStatusEnum.PENDING.getStatus(),
+            // 1. 批量推送 OTA 升级消息
+            List<KeyValue<IotDeviceDO, IotDeviceMessage>> deviceMessages = convertList(records, record ->
+                    new KeyValue<>(deviceMap.get(record.getDeviceId()), IotDeviceMessage.buildOtaUpgrade(
+                            firmware.getVersion(), firmware.getFileUrl(), firmware.getFileSize(),
+                            firmware.getFileDigestAlgorithm(), firmware.getFileDigestValue())));
+            deviceMessageService.sendDeviceMessageList(serverId, deviceMessages);
+
+            // 2. 批量更新 OTA 升级记录状态为已推送
+            otaTaskRecordMapper.updateListByIdAndStatus(ids,
+                    Collections.singleton(IotOtaTaskRecordStatusEnum.PENDING.getStatus()),
                     IotOtaTaskRecordDO.builder().status(IotOtaTaskRecordStatusEnum.PUSHED.getStatus())
-                            .description(StrUtil.format("已推送，设备消息编号({})", message.getId())).build());
-            Assert.isTrue(updateCount == 1, "更新设备记录({})状态失败", record.getId());
-            return true;
+                            .description(StrUtil.format("已推送，网关({})", serverId)).build());
+            return records.size();
         } catch (Exception ex) {
-            log.error("[pushOtaTaskRecord][推送 OTA 任务记录({}) 失败]", record.getId(), ex);
-            otaTaskRecordMapper.updateById(IotOtaTaskRecordDO.builder().id(record.getId())
-                    .description(StrUtil.format("推送失败，错误信息({})", ex.getMessage())).build());
-            return false;
+            log.error("[pushOtaTaskRecordList][推送 OTA 任务记录({}) 到网关({}) 失败]", ids, serverId, ex);
+            otaTaskRecordMapper.updateListByIdAndStatus(ids,
+                    Collections.singleton(IotOtaTaskRecordStatusEnum.PENDING.getStatus()),
+                    IotOtaTaskRecordDO.builder()
+                            .description(StrUtil.format("推送失败，错误信息({})", ex.getMessage())).build());
+            return 0;
         }
     }
 
@@ -6,6 +6,7 @@ import cn.iocoder.yudao.module.iot.controller.admin.ota.vo.task.IotOtaTaskPageRe
 import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaTaskDO;
 
 import javax.validation.Valid;
+import java.util.List;
 
 /**
  * IoT OTA 升级任务 Service 接口
@@ -45,6 +46,14 @@ public interface IotOtaTaskService {
      */
     PageResult<IotOtaTaskDO> getOtaTaskPage(@Valid IotOtaTaskPageReqVO pageReqVO);
 
+    /**
+     * 根据状态，获取 OTA 升级任务列表
+     *
+     * @param status 升级任务状态
+     * @return 升级任务列表
+     */
+    List<IotOtaTaskDO> getOtaTaskListByStatus(Integer status);
+
     /**
      * 更新 OTA 任务状态为已结束
      *
@@ -102,6 +102,11 @@ public class IotOtaTaskServiceImpl implements IotOtaTaskService {
         return otaTaskMapper.selectPage(pageReqVO);
     }
 
+    @Override
+    public List<IotOtaTaskDO> getOtaTaskListByStatus(Integer status) {
+        return otaTaskMapper.selectListByStatus(status);
+    }
+
     @Override
     public void updateOtaTaskStatusEnd(Long taskId) {
         int updateCount = otaTaskMapper.updateByIdAndStatus(taskId, IotOtaTaskStatusEnum.IN_PROGRESS.getStatus(),
@@ -1,11 +1,14 @@
 package cn.iocoder.yudao.module.iot.service.product;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ObjUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
 import cn.iocoder.yudao.module.iot.controller.admin.product.vo.product.IotProductPageReqVO;
 import cn.iocoder.yudao.module.iot.controller.admin.product.vo.product.IotProductSaveReqVO;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceChangeMessage;
+import cn.iocoder.yudao.module.iot.core.mq.producer.IotDeviceMessageProducer;
 import cn.iocoder.yudao.module.iot.dal.dataobject.product.IotProductDO;
 import cn.iocoder.yudao.module.iot.dal.mysql.product.IotProductMapper;
 import cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants;
@@ -44,6 +47,9 @@ public class IotProductServiceImpl implements IotProductService {
     @Resource
     private IotDeviceService deviceService;
 
+    @Resource
+    private IotDeviceMessageProducer deviceMessageProducer;
+
     @Override
     public Long createProduct(IotProductSaveReqVO createReqVO) {
         // 1. 校验 ProductKey
@@ -70,6 +76,11 @@ public class IotProductServiceImpl implements IotProductService {
         // 2. 更新
         IotProductDO updateObj = BeanUtils.toBean(updateReqVO, IotProductDO.class);
         productMapper.updateById(updateObj);
+
+        // 3. 编解码器等变化时，通知网关失效该产品下设备的缓存
+        if (updateObj.getCodecType() != null && ObjUtil.notEqual(iotProductDO.getCodecType(), updateObj.getCodecType())) {
+            deviceMessageProducer.sendDeviceChangeMessage(IotDeviceChangeMessage.ofProduct(updateObj.getId()));
+        }
     }
 
     @Override
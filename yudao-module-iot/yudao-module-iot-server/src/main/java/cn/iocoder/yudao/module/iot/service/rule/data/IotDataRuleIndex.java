@@ -0,0 +1,327 @@
+package cn.iocoder.yudao.module.iot.service.rule.data;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataRuleDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * IoT 数据流转规则的内存索引，不可变
+ *
+ * 1. 指定设备的数据源，按照 device → method → identifier 建立索引；
+ *    {@link IotDeviceDO#DEVICE_ID_ALL} 全部设备的数据源，按照 product → method → identifier 建立索引
+ * 2. 设备的索引，会合并所属产品的索引；identifier 的索引，会合并不限 identifier 的规则。
+ *    所以匹配一条消息，只需要若干次 HashMap 查找，并且不创建对象
+ * 3. 规则、数据目的变更时，通过 {@link #withRule}、{@link #withSink} 构建新的索引进行替换（copy-on-write），
+ *    只需要查询变更的数据，读取方不需要加锁
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public final class IotDataRuleIndex {
+
+    public static final IotDataRuleIndex EMPTY = new IotDataRuleIndex(Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * 开启的规则
+     *
+     * key：规则编号
+     */
+    private final Map<Long, IotDataRuleDO> rules;
+    /**
+     * 规则引用的数据目的
+     *
+     * key：数据目的编号
+     */
+    private final Map<Long, IotDataSinkDO> sinks;
+
+    /**
+     * 指定设备的索引
+     *
+     * key：设备编号
+     */
+    private final Map<Long, MethodIndex> deviceIndexes;
+    /**
+     * 全部设备的索引
+     *
+     * key：产品编号
+     */
+    private final Map<Long, MethodIndex> productIndexes;
+
+    private IotDataRuleIndex(Map<Long, IotDataRuleDO> rules, Map<Long, IotDataSinkDO> sinks) {
+        this.rules = rules;
+        this.sinks = sinks;
+        // 1. 按照设备、产品，分别构建
+        Map<Long, MethodIndexBuilder> deviceBuilders = new HashMap<>();
+        Map<Long, MethodIndexBuilder> productBuilders = new HashMap<>();
+        Map<Long, Long> deviceProductIds = new HashMap<>();
+        for (IotDataRuleDO rule : rules.values()) {
+            Rule compiledRule = compileRule(rule, sinks);
+            for (IotDataRuleDO.SourceConfig config : CollUtil.emptyIfNull(rule.getSourceConfigs())) {
+                MethodIndexBuilder builder;
+                if (Objects.equals(config.getDeviceId(), IotDeviceDO.DEVICE_ID_ALL)) {
+                    builder = productBuilders.computeIfAbsent(config.getProductId(), key -> new MethodIndexBuilder());
+                } else {
+                    builder = deviceBuilders.computeIfAbsent(config.getDeviceId(), key -> new MethodIndexBuilder());
+                    deviceProductIds.putIfAbsent(config.getDeviceId(), config.getProductId());
+                }
+                builder.add(config.getMethod(), config.getIdentifier(), compiledRule);
+            }
+        }
+        // 2. 设备的索引，合并所属产品的索引
+        deviceBuilders.forEach((deviceId, builder) -> {
+            MethodIndexBuilder productBuilder = productBuilders.get(deviceProductIds.get(deviceId));
+            if (productBuilder != null) {
+                builder.addAll(productBuilder);
+            }
+        });
+        this.deviceIndexes = buildIndexes(deviceBuilders);
+        this.productIndexes = buildIndexes(productBuilders);
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param rules 规则列表，会过滤掉未开启的规则
+     * @param sinks 数据目的列表
+     * @return 索引
+     */
+    public static IotDataRuleIndex of(Collection<IotDataRuleDO> rules, Collection<IotDataSinkDO> sinks) {
+        Map<Long, IotDataRuleDO> ruleMap = new HashMap<>();
+        CollUtil.emptyIfNull(rules).forEach(rule -> {
+            if (CommonStatusEnum.isEnable(rule.getStatus())) {
+                ruleMap.put(rule.getId(), rule);
+            }
+        });
+        Map<Long, IotDataSinkDO> sinkMap = new HashMap<>();
+        CollUtil.emptyIfNull(sinks).forEach(sink -> sinkMap.put(sink.getId(), sink));
+        return new IotDataRuleIndex(ruleMap, sinkMap);
+    }
+
+    /**
+     * 基于规则的变更，构建新的索引
+     *
+     * @param ruleId    规则编号
+     * @param rule      规则；为空或者未开启时，表示移除
+     * @param ruleSinks 规则引用的数据目的
+     * @return 新的索引
+     */
+    public IotDataRuleIndex withRule(Long ruleId, IotDataRuleDO rule, Collection<IotDataSinkDO> ruleSinks) {
+        Map<Long, IotDataRuleDO> newRules = new HashMap<>(rules);
+        Map<Long, IotDataSinkDO> newSinks = new HashMap<>(sinks);
+        if (rule == null || !CommonStatusEnum.isEnable(rule.getStatus())) {
+            if (newRules.remove(ruleId) == null) {
+                return this;
+            }
+        } else {
+            newRules.put(ruleId, rule);
+            CollUtil.emptyIfNull(ruleSinks).forEach(sink -> newSinks.put(sink.getId(), sink));
+        }
+        return new IotDataRuleIndex(newRules, newSinks);
+    }
+
+    /**
+     * 基于数据目的的变更，构建新的索引
+     *
+     * @param sinkId 数据目的编号
+     * @param sink   数据目的；为空时，表示移除
+     * @return 新的索引；如果没有规则引用该数据目的，则返回自身
+     */
+    public IotDataRuleIndex withSink(Long sinkId, IotDataSinkDO sink) {
+        boolean referenced = rules.values().stream()
+                .anyMatch(rule -> CollUtil.contains(rule.getSinkIds(), sinkId));
+        if (!referenced) {
+            return this;
+        }
+        Map<Long, IotDataSinkDO> newSinks = new HashMap<>(sinks);
+        if (sink == null) {
+            newSinks.remove(sinkId);
+        } else {
+            newSinks.put(sinkId, sink);
+        }
+        return new IotDataRuleIndex(rules, newSinks);
+    }
+
+    /**
+     * 是否存在指定设备的索引
+     *
+     * 存在时，{@link #matchDevice} 的结果已经合并了所属产品的规则，无需再调用 {@link #matchProduct}
+     *
+     * @param deviceId 设备编号
+     * @return 是否存在
+     */
+    public boolean containsDevice(Long deviceId) {
+        return deviceIndexes.containsKey(deviceId);
+    }
+
+    /**
+     * 是否存在全部设备（按照产品）的规则
+     *
+     * @return 是否存在
+     */
+    public boolean hasProductRules() {
+        return !productIndexes.isEmpty();
+    }
+
+    public List<Rule> matchDevice(Long deviceId, String method, String identifier) {
+        return match(deviceIndexes.get(deviceId), method, identifier);
+    }
+
+    public List<Rule> matchProduct(Long productId, String method, String identifier) {
+        return match(productIndexes.get(productId), method, identifier);
+    }
+
+    private static List<Rule> match(MethodIndex methodIndex, String method, String identifier) {
+        if (methodIndex == null) {
+            return Collections.emptyList();
+        }
+        IdentifierIndex identifierIndex = methodIndex.get(method);
+        return identifierIndex != null ? identifierIndex.get(identifier) : Collections.emptyList();
+    }
+
+    private static Rule compileRule(IotDataRuleDO rule, Map<Long, IotDataSinkDO> sinks) {
+        List<IotDataSinkDO> ruleSinks = new ArrayList<>();
+        for (Long sinkId : CollUtil.emptyIfNull(rule.getSinkIds())) {
+            IotDataSinkDO sink = sinks.get(sinkId);
+            if (sink == null) {
+                log.error("[compileRule][规则({}) 对应的数据目的({}) 不存在]", rule.getId(), sinkId);
+                continue;
+            }
+            if (CommonStatusEnum.isDisable(sink.getStatus())) {
+                log.info("[compileRule][规则({}) 对应的数据目的({}) 状态为禁用]", rule.getId(), sinkId);
+                continue;
+            }
+            ruleSinks.add(sink);
+        }
+        return new Rule(rule.getId(), Collections.unmodifiableList(ruleSinks));
+    }
+
+    private static Map<Long, MethodIndex> buildIndexes(Map<Long, MethodIndexBuilder> builders) {
+        if (builders.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, MethodIndex> indexes = new HashMap<>(builders.size() * 2);
+        builders.forEach((key, builder) -> indexes.put(key, builder.build()));
+        return indexes;
+    }
+
+    /**
+     * 编译后的规则
+     */
+    public static final class Rule {
+
+        /**
+         * 规则编号
+         */
+        private final Long id;
+        /**
+         * 开启的数据目的列表
+         */
+        private final List<IotDataSinkDO> sinks;
+
+        Rule(Long id, List<IotDataSinkDO> sinks) {
+            this.id = id;
+            this.sinks = sinks;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public List<IotDataSinkDO> getSinks() {
+            return sinks;
+        }
+
+    }
+
+    /**
+     * method → identifier 的索引
+     */
+    private static final class MethodIndex {
+
+        private final Map<String, IdentifierIndex> identifierIndexes;
+
+        MethodIndex(Map<String, IdentifierIndex> identifierIndexes) {
+            this.identifierIndexes = identifierIndexes;
+        }
+
+        IdentifierIndex get(String method) {
+            return identifierIndexes.get(method);
+        }
+
+    }
+
+    /**
+     * identifier → 规则列表的索引
+     */
+    private static final class IdentifierIndex {
+
+        /**
+         * 不限 identifier 的规则
+         */
+        private final List<Rule> anyRules;
+        /**
+         * 指定 identifier 的规则，已合并 {@link #anyRules}
+         */
+        private final Map<String, List<Rule>> identifierRules;
+
+        IdentifierIndex(List<Rule> anyRules, Map<String, List<Rule>> identifierRules) {
+            this.anyRules = anyRules;
+            this.identifierRules = identifierRules;
+        }
+
+        List<Rule> get(String identifier) {
+            if (identifier == null) {
+                return anyRules;
+            }
+            return identifierRules.getOrDefault(identifier, anyRules);
+        }
+
+    }
+
+    private static final class MethodIndexBuilder {
+
+        /**
+         * key1：method
+         * key2：identifier；空字符串表示不限 identifier
+         */
+        private final Map<String, Map<String, Set<Rule>>> rules = new HashMap<>();
+
+        void add(String method, String identifier, Rule rule) {
+            rules.computeIfAbsent(method, key -> new HashMap<>())
+                    .computeIfAbsent(StrUtil.emptyIfNull(identifier), key -> new LinkedHashSet<>())
+                    .add(rule);
+        }
+
+        void addAll(MethodIndexBuilder other) {
+            other.rules.forEach((method, identifierRules) -> identifierRules.forEach((identifier, rules) ->
+                    rules.forEach(rule -> add(method, identifier, rule))));
+        }
+
+        MethodIndex build() {
+            Map<String, IdentifierIndex> identifierIndexes = new HashMap<>(rules.size() * 2);
+            rules.forEach((method, identifierRules) -> {
+                Set<Rule> anySet = identifierRules.getOrDefault(StrUtil.EMPTY, Collections.emptySet());
+                List<Rule> anyRules = Collections.unmodifiableList(new ArrayList<>(anySet));
+                Map<String, List<Rule>> identifierMap = new HashMap<>(identifierRules.size() * 2);
+                identifierRules.forEach((identifier, set) -> {
+                    if (StrUtil.isEmpty(identifier)) {
+                        return;
+                    }
+                    Set<Rule> merged = new LinkedHashSet<>(anySet);
+                    merged.addAll(set);
+                    identifierMap.put(identifier, Collections.unmodifiableList(new ArrayList<>(merged)));
+                });
+                identifierIndexes.put(method, new IdentifierIndex(anyRules, identifierMap));
+            });
+            return new MethodIndex(identifierIndexes);
+        }
+
+    }
+
+}
@@ -62,6 +62,16 @@ public interface IotDataRuleService {
      */
     List<IotDataRuleDO> getDataRuleListBySinkId(Long sinkId);
 
+    /**
+     * 刷新当前租户的数据流转规则索引
+     *
+     * 由 IotDataRuleRefreshMessage 广播消息触发，只查询变更的规则或数据目的，在原索引的基础上构建新索引
+     *
+     * @param ruleId 数据流转规则编号
+     * @param sinkId 数据目的编号；ruleId、sinkId 都为空时，重新加载全部
+     */
+    void refreshDataRuleIndex(Long ruleId, Long sinkId);
+
     /**
      * 执行数据流转规则
      *
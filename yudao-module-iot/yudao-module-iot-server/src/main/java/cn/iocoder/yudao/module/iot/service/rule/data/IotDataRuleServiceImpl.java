@@ -6,8 +6,8 @@ import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
-import cn.iocoder.yudao.framework.common.util.object.ObjectUtils;
-import cn.iocoder.yudao.framework.common.util.spring.SpringUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.rule.IotDataRulePageReqVO;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.rule.IotDataRuleSaveReqVO;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
@@ -16,21 +16,24 @@ import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataRuleDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
 import cn.iocoder.yudao.module.iot.dal.mysql.rule.IotDataRuleMapper;
-import cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants;
+import cn.iocoder.yudao.module.iot.mq.producer.rule.IotDataRuleProducer;
 import cn.iocoder.yudao.module.iot.service.device.IotDeviceService;
 import cn.iocoder.yudao.module.iot.service.product.IotProductService;
 import cn.iocoder.yudao.module.iot.service.rule.data.action.IotDataRuleAction;
 import cn.iocoder.yudao.module.iot.service.thingmodel.IotThingModelService;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.Duration;
 import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.cache.CacheUtils.buildAsyncReloadingCache;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.module.iot.enums.ErrorCodeConstants.DATA_RULE_NOT_EXISTS;
 
@@ -44,6 +47,32 @@ import static cn.iocoder.yudao.module.iot.enums.ErrorCodeConstants.DATA_RULE_NOT
 @Slf4j
 public class IotDataRuleServiceImpl implements IotDataRuleService {
 
+    /**
+     * 未开启多租户时，{@link #dataRuleIndexCache} 使用的 key
+     */
+    private static final Long TENANT_ID_NONE = 0L;
+
+    /**
+     * 数据流转规则索引的缓存
+     *
+     * key：租户编号
+     *
+     * 规则、数据目的变更时，通过 IotDataRuleRefreshMessage 广播消息，增量刷新；这里的定时刷新，只是避免广播消息丢失时，索引一直不更新
+     */
+    private final LoadingCache<Long, IotDataRuleIndex> dataRuleIndexCache = buildAsyncReloadingCache(Duration.ofMinutes(5L),
+            new CacheLoader<Long, IotDataRuleIndex>() {
+
+                @Override
+                public IotDataRuleIndex load(Long tenantId) {
+                    // 异步刷新时，不在原线程中执行，所以需要设置租户
+                    if (TENANT_ID_NONE.equals(tenantId)) {
+                        return TenantUtils.executeIgnore(() -> loadDataRuleIndex());
+                    }
+                    return TenantUtils.execute(tenantId, () -> loadDataRuleIndex());
+                }
+
+            });
+
     @Resource
     private IotDataRuleMapper dataRuleMapper;
 
@@ -59,19 +88,23 @@ public class IotDataRuleServiceImpl implements IotDataRuleService {
     @Resource
     private List<IotDataRuleAction> dataRuleActions;
 
+    @Resource
+    private IotDataRuleProducer dataRuleProducer;
+
     @Override
-    @CacheEvict(value = RedisKeyConstants.DATA_RULE_LIST, allEntries = true)
     public Long createDataRule(IotDataRuleSaveReqVO createReqVO) {
         // 校验数据源配置和数据目的
         validateDataRuleConfig(createReqVO);
         // 新增
         IotDataRuleDO dataRule = BeanUtils.toBean(createReqVO, IotDataRuleDO.class);
         dataRuleMapper.insert(dataRule);
+
+        // 广播刷新数据流转规则索引
+        dataRuleProducer.sendDataRuleRefreshMessage(dataRule.getId(), null);
         return dataRule.getId();
     }
 
     @Override
-    @CacheEvict(value = RedisKeyConstants.DATA_RULE_LIST, allEntries = true)
     public void updateDataRule(IotDataRuleSaveReqVO updateReqVO) {
         // 校验存在
         validateDataRuleExists(updateReqVO.getId());
@@ -81,15 +114,20 @@ public class IotDataRuleServiceImpl implements IotDataRuleService {
         // 更新
         IotDataRuleDO updateObj = BeanUtils.toBean(updateReqVO, IotDataRuleDO.class);
         dataRuleMapper.updateById(updateObj);
+
+        // 广播刷新数据流转规则索引
+        dataRuleProducer.sendDataRuleRefreshMessage(updateReqVO.getId(), null);
     }
 
     @Override
-    @CacheEvict(value = RedisKeyConstants.DATA_RULE_LIST, allEntries = true)
     public void deleteDataRule(Long id) {
         // 校验存在
         validateDataRuleExists(id);
         // 删除
         dataRuleMapper.deleteById(id);
+
+        // 广播刷新数据流转规则索引
+        dataRuleProducer.sendDataRuleRefreshMessage(id, null);
     }
 
     private void validateDataRuleExists(Long id) {
@@ -162,23 +200,52 @@ public class IotDataRuleServiceImpl implements IotDataRuleService {
         return dataRuleMapper.selectListBySinkId(sinkId);
     }
 
-    @Cacheable(value = RedisKeyConstants.DATA_RULE_LIST,
-               key = "#deviceId + '_' + #method + '_' + (#identifier ?: '')")
-    public List<IotDataRuleDO> getDataRuleListByConditionFromCache(Long deviceId, String method, String identifier) {
-        // 1. 查询所有开启的数据流转规则
+    // ========== 数据流转规则索引 ==========
+
+    /**
+     * 从数据库加载当前租户的数据流转规则索引
+     *
+     * @return 索引
+     */
+    private IotDataRuleIndex loadDataRuleIndex() {
         List<IotDataRuleDO> rules = dataRuleMapper.selectListByStatus(CommonStatusEnum.ENABLE.getStatus());
-        // 2. 内存里过滤匹配的规则
-        List<IotDataRuleDO> matchedRules = new ArrayList<>();
-        for (IotDataRuleDO rule : rules) {
-            IotDataRuleDO.SourceConfig found = CollUtil.findOne(rule.getSourceConfigs(),
-                    config -> ObjectUtils.equalsAny(config.getDeviceId(), deviceId, IotDeviceDO.DEVICE_ID_ALL)
-                            && Objects.equals(config.getMethod(), method)
-                            && (StrUtil.isEmpty(config.getIdentifier()) || ObjUtil.equal(config.getIdentifier(), identifier)));
-            if (found != null) {
-                matchedRules.add(new IotDataRuleDO().setId(rule.getId()).setSinkIds(rule.getSinkIds()));
-            }
+        Set<Long> sinkIds = new HashSet<>();
+        rules.forEach(rule -> sinkIds.addAll(CollUtil.emptyIfNull(rule.getSinkIds())));
+        return IotDataRuleIndex.of(rules, dataSinkService.getDataSinkList(sinkIds));
+    }
+
+    @SneakyThrows
+    private IotDataRuleIndex getDataRuleIndex() {
+        return dataRuleIndexCache.get(getTenantKey());
+    }
+
+    private static Long getTenantKey() {
+        return ObjUtil.defaultIfNull(TenantContextHolder.getTenantId(), TENANT_ID_NONE);
+    }
+
+    @Override
+    public void refreshDataRuleIndex(Long ruleId, Long sinkId) {
+        Long tenantKey = getTenantKey();
+        // 情况一：本节点未加载过，无需刷新，使用时会加载最新的
+        if (dataRuleIndexCache.getIfPresent(tenantKey) == null) {
+            return;
         }
-        return matchedRules;
+        // 情况二：重新加载全部
+        if (ruleId == null && sinkId == null) {
+            dataRuleIndexCache.put(tenantKey, loadDataRuleIndex());
+            return;
+        }
+        // 情况三：规则变更，只查询该规则及其数据目的。注意：在 computeIfPresent 外查询，避免持有锁时访问 DB
+        if (ruleId != null) {
+            IotDataRuleDO rule = dataRuleMapper.selectById(ruleId);
+            List<IotDataSinkDO> sinks = rule != null ? dataSinkService.getDataSinkList(rule.getSinkIds())
+                    : Collections.emptyList();
+            dataRuleIndexCache.asMap().computeIfPresent(tenantKey, (key, index) -> index.withRule(ruleId, rule, sinks));
+            return;
+        }
+        // 情况四：数据目的变更，只查询该数据目的
+        IotDataSinkDO sink = dataSinkService.getDataSink(sinkId);
+        dataRuleIndexCache.asMap().computeIfPresent(tenantKey, (key, index) -> index.withSink(sinkId, sink));
     }
 
     @Override
@@ -188,7 +255,7 @@ public class IotDataRuleServiceImpl implements IotDataRuleService {
             Long deviceId = message.getDeviceId();
             String method = message.getMethod();
             String identifier = IotDeviceMessageUtils.getIdentifier(message);
-            List<IotDataRuleDO> rules = getSelf().getDataRuleListByConditionFromCache(deviceId, method, identifier);
+            List<IotDataRuleIndex.Rule> rules = matchDataRules(deviceId, method, identifier);
             if (CollUtil.isEmpty(rules)) {
                 log.debug("[executeDataRule][设备({}) 方法({}) 标识符({}) 没有匹配的数据流转规则]",
                         deviceId, method, identifier);
@@ -204,30 +271,44 @@ public class IotDataRuleServiceImpl implements IotDataRuleService {
         }
     }
 
+    /**
+     * 基于索引，匹配数据流转规则
+     *
+     * @param deviceId   设备编号
+     * @param method     消息方法
+     * @param identifier 标识符
+     * @return 匹配的规则
+     */
+    private List<IotDataRuleIndex.Rule> matchDataRules(Long deviceId, String method, String identifier) {
+        IotDataRuleIndex index = getDataRuleIndex();
+        // 情况一：存在指定设备的规则，已经合并了所属产品的规则
+        if (index.containsDevice(deviceId)) {
+            return index.matchDevice(deviceId, method, identifier);
+        }
+        // 情况二：全部设备的规则，需要设备所属的产品
+        if (!index.hasProductRules()) {
+            return Collections.emptyList();
+        }
+        IotDeviceDO device = deviceService.getDeviceFromCache(deviceId);
+        return device != null ? index.matchProduct(device.getProductId(), method, identifier)
+                : Collections.emptyList();
+    }
+
     /**
      * 为指定规则的所有数据目的执行数据流转
      *
+     * 数据目的已经在构建索引时过滤，只包含存在并且开启的
+     *
      * @param message 设备消息
      * @param rule    数据流转规则
      */
-    private void executeDataRule(IotDeviceMessage message, IotDataRuleDO rule) {
-        rule.getSinkIds().forEach(sinkId -> {
+    private void executeDataRule(IotDeviceMessage message, IotDataRuleIndex.Rule rule) {
+        rule.getSinks().forEach(dataSink -> {
             try {
-                // 获取数据目的配置
-                IotDataSinkDO dataSink = dataSinkService.getDataSinkFromCache(sinkId);
-                if (dataSink == null) {
-                    log.error("[executeDataRule][规则({}) 对应的数据目的({}) 不存在]", rule.getId(), sinkId);
-                    return;
-                }
-                if (CommonStatusEnum.isDisable(dataSink.getStatus())) {
-                    log.info("[executeDataRule][规则({}) 对应的数据目的({}) 状态为禁用]", rule.getId(), sinkId);
-                    return;
-                }
-
                 // 执行数据桥接操作
                 executeDataRuleAction(message, dataSink);
             } catch (Exception e) {
-                log.error("[executeDataRule][规则({}) 数据目的({}) 执行异常]", rule.getId(), sinkId, e);
+                log.error("[executeDataRule][规则({}) 数据目的({}) 执行异常]", rule.getId(), dataSink.getId(), e);
             }
         });
     }
@@ -252,8 +333,4 @@ public class IotDataRuleServiceImpl implements IotDataRuleService {
         });
     }
 
-    private IotDataRuleServiceImpl getSelf() {
-        return SpringUtils.getBean(IotDataRuleServiceImpl.class);
-    }
-
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink.IotDataSinkPageReqVO;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink.IotDataSinkSaveReqVO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDeadLetterDO;
 
 import javax.validation.Valid;
 import java.util.Collection;
@@ -62,6 +63,14 @@ public interface IotDataSinkService {
      */
     PageResult<IotDataSinkDO> getDataSinkPage(IotDataSinkPageReqVO pageReqVO);
 
+    /**
+     * 获得数据流转目的列表
+     *
+     * @param ids 编号数组
+     * @return 数据流转目的列表
+     */
+    List<IotDataSinkDO> getDataSinkList(Collection<Long> ids);
+
     /**
      * 获取数据流转目的列表
      *
@@ -77,4 +86,28 @@ public interface IotDataSinkService {
      */
     void validateDataSinksExist(Collection<Long> ids);
 
+    // ========== 死信相关操作 ==========
+
+    /**
+     * 获得当前租户最新的死信列表
+     *
+     * @param count 读取的死信数量，过滤租户前
+     * @return 死信列表，按照时间倒序
+     */
+    List<IotDataSinkDeadLetterDO> getDataSinkDeadLetterList(Integer count);
+
+    /**
+     * 重放死信：重新发送请求，成功后删除死信
+     *
+     * @param id 死信编号
+     */
+    void replayDataSinkDeadLetter(String id);
+
+    /**
+     * 删除死信
+     *
+     * @param id 死信编号
+     */
+    void deleteDataSinkDeadLetter(String id);
+
 }
@@ -1,13 +1,22 @@
 package cn.iocoder.yudao.module.iot.service.rule.data;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.hutool.core.util.ObjUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink.IotDataSinkPageReqVO;
 import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.data.sink.IotDataSinkSaveReqVO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDeadLetterDO;
 import cn.iocoder.yudao.module.iot.dal.mysql.rule.IotDataSinkMapper;
 import cn.iocoder.yudao.module.iot.dal.redis.RedisKeyConstants;
+import cn.iocoder.yudao.module.iot.dal.redis.rule.DataSinkDeadLetterRedisDAO;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import cn.iocoder.yudao.module.iot.mq.producer.rule.IotDataRuleProducer;
+import cn.iocoder.yudao.module.iot.service.rule.data.action.IotHttpDataSinkAction;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -15,11 +24,13 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
-import static cn.iocoder.yudao.module.iot.enums.ErrorCodeConstants.DATA_SINK_DELETE_FAIL_USED_BY_RULE;
-import static cn.iocoder.yudao.module.iot.enums.ErrorCodeConstants.DATA_SINK_NOT_EXISTS;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.findFirst;
+import static cn.iocoder.yudao.module.iot.enums.ErrorCodeConstants.*;
 
 /**
  * IoT 数据流转目的 Service 实现类
@@ -28,6 +39,7 @@ import static cn.iocoder.yudao.module.iot.enums.ErrorCodeConstants.DATA_SINK_NOT
  */
 @Service
 @Validated
+@Slf4j
 public class IotDataSinkServiceImpl implements IotDataSinkService {
 
     @Resource
@@ -37,6 +49,17 @@ public class IotDataSinkServiceImpl implements IotDataSinkService {
     @Lazy // 延迟，避免循环依赖报错
     private IotDataRuleService dataRuleService;
 
+    @Resource
+    private IotDataRuleProducer dataRuleProducer;
+
+    @Resource
+    private DataSinkDeadLetterRedisDAO deadLetterRedisDAO;
+    @Resource
+    private IotHttpDataSinkAction httpDataSinkAction;
+
+    @Resource
+    private YudaoIotProperties iotProperties;
+
     @Override
     public Long createDataSink(IotDataSinkSaveReqVO createReqVO) {
         IotDataSinkDO dataBridge = BeanUtils.toBean(createReqVO, IotDataSinkDO.class);
@@ -51,6 +74,9 @@ public class IotDataSinkServiceImpl implements IotDataSinkService {
         // 更新
         IotDataSinkDO updateObj = BeanUtils.toBean(updateReqVO, IotDataSinkDO.class);
         dataSinkMapper.updateById(updateObj);
+
+        // 广播刷新数据流转规则索引
+        dataRuleProducer.sendDataRuleRefreshMessage(null, updateReqVO.getId());
     }
 
     @Override
@@ -63,6 +89,9 @@ public class IotDataSinkServiceImpl implements IotDataSinkService {
         }
         // 删除
         dataSinkMapper.deleteById(id);
+
+        // 广播刷新数据流转规则索引
+        dataRuleProducer.sendDataRuleRefreshMessage(null, id);
     }
 
     private void validateDataBridgeExists(Long id) {
@@ -87,6 +116,14 @@ public class IotDataSinkServiceImpl implements IotDataSinkService {
         return dataSinkMapper.selectPage(pageReqVO);
     }
 
+    @Override
+    public List<IotDataSinkDO> getDataSinkList(Collection<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return Collections.emptyList();
+        }
+        return dataSinkMapper.selectByIds(ids);
+    }
+
     @Override
     public List<IotDataSinkDO> getDataSinkListByStatus(Integer status) {
         return dataSinkMapper.selectListByStatus(status);
@@ -103,4 +140,47 @@ public class IotDataSinkServiceImpl implements IotDataSinkService {
         }
     }
 
+    // ========== 死信相关操作 ==========
+
+    @Override
+    public List<IotDataSinkDeadLetterDO> getDataSinkDeadLetterList(Integer count) {
+        List<IotDataSinkDeadLetterDO> list = deadLetterRedisDAO.getList(count);
+        Long tenantId = TenantContextHolder.getTenantId();
+        return tenantId != null ? filterList(list, deadLetter -> ObjUtil.equal(deadLetter.getTenantId(), tenantId))
+                : list;
+    }
+
+    @Override
+    public void replayDataSinkDeadLetter(String id) {
+        // 校验存在
+        IotDataSinkDeadLetterDO deadLetter = validateDeadLetterExists(id);
+        // 重新发送
+        try {
+            httpDataSinkAction.replay(deadLetter);
+        } catch (Exception e) {
+            log.error("[replayDataSinkDeadLetter][死信({}) 重放失败]", deadLetter, e);
+            throw exception(DATA_SINK_DEAD_LETTER_REPLAY_FAIL, ExceptionUtil.getRootCauseMessage(e));
+        }
+        // 发送成功，删除死信
+        deadLetterRedisDAO.delete(id);
+    }
+
+    @Override
+    public void deleteDataSinkDeadLetter(String id) {
+        // 校验存在
+        validateDeadLetterExists(id);
+        // 删除
+        deadLetterRedisDAO.delete(id);
+    }
+
+    private IotDataSinkDeadLetterDO validateDeadLetterExists(String id) {
+        int maxSize = (int) iotProperties.getDataSinkHttp().getDeadLetterMaxSize();
+        IotDataSinkDeadLetterDO deadLetter = findFirst(getDataSinkDeadLetterList(maxSize),
+                item -> ObjUtil.equal(item.getId(), id));
+        if (deadLetter == null) {
+            throw exception(DATA_SINK_DEAD_LETTER_NOT_EXISTS);
+        }
+        return deadLetter;
+    }
+
 }
@@ -79,6 +79,13 @@ public abstract class IotDataRuleCacheableAction<Config, Producer> implements Io
         return PRODUCER_CACHE.get(config);
     }
 
+    /**
+     * 关闭全部生产者，例如说应用关闭时
+     */
+    protected void closeProducers() {
+        PRODUCER_CACHE.invalidateAll();
+    }
+
     /**
      * 初始化生产者
      *
@@ -2,35 +2,88 @@ package cn.iocoder.yudao.module.iot.service.rule.data.action;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
-import cn.iocoder.yudao.framework.common.util.http.HttpUtils;
-import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
-import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDeadLetterDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.config.IotDataSinkHttpConfig;
+import cn.iocoder.yudao.module.iot.dal.redis.rule.DataSinkDeadLetterRedisDAO;
 import cn.iocoder.yudao.module.iot.enums.rule.IotDataSinkTypeEnum;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import cn.iocoder.yudao.module.iot.service.rule.data.action.http.IotHttpDataSinkClient;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils.HEADER_TENANT_ID;
 
 /**
  * HTTP 的 {@link IotDataRuleAction} 实现类
  *
+ * 所有配置共享 IoT 模块的 {@link Vertx}，以及一个带连接池的 {@link HttpClient}；每个配置一个 {@link IotHttpDataSinkClient}，
+ * 负责请求模板的预处理、异步发送、合并批量、失败重试等，不阻塞规则的执行线程
+ *
  * @author HUIHUI
  */
 @Component
 @Slf4j
-public class IotHttpDataSinkAction implements IotDataRuleAction {
+public class IotHttpDataSinkAction extends
+        IotDataRuleCacheableAction<IotDataSinkHttpConfig, IotHttpDataSinkClient> {
+
+    @Resource
+    private YudaoIotProperties iotProperties;
 
     @Resource
-    private RestTemplate restTemplate;
+    private DataSinkDeadLetterRedisDAO deadLetterRedisDAO;
+
+    @Resource
+    private Vertx vertx;
+
+    private HttpClient httpClient;
+
+    /**
+     * 关闭中的客户端，应用关闭时等待它们发送完剩余的消息
+     */
+    private final Set<Future<Void>> closingFutures = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        YudaoIotProperties.DataSinkHttp properties = iotProperties.getDataSinkHttp();
+        httpClient = vertx.createHttpClient(new HttpClientOptions()
+                .setMaxPoolSize(properties.getMaxPoolSize())
+                .setKeepAlive(true)
+                .setConnectTimeout((int) properties.getTimeout().toMillis()));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        // 先关闭全部客户端，等待剩余的消息发送完成（或超时写入死信），再关闭 HttpClient
+        closeProducers();
+        long timeoutMillis = iotProperties.getDataSinkHttp().getCloseTimeout().toMillis() + 1000L;
+        try {
+            Future.join(new ArrayList<>(closingFutures)).toCompletionStage().toCompletableFuture()
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("[destroy][等待 {} 个客户端关闭失败]", closingFutures.size(), e);
+        }
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
 
     @Override
     public Integer getType() {
@@ -38,55 +91,59 @@ public class IotHttpDataSinkAction implements IotDataRuleAction {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public void execute(IotDeviceMessage message, IotDataSinkDO dataSink) {
-        IotDataSinkHttpConfig config = (IotDataSinkHttpConfig) dataSink.getConfig();
-        Assert.notNull(config, "配置({})不能为空", dataSink.getId());
-        String url = null;
-        HttpMethod method = HttpMethod.valueOf(config.getMethod().toUpperCase());
-        HttpEntity<String> requestEntity = null;
-        ResponseEntity<String> responseEntity = null;
-        try {
-            // 1.1 构建 Header
-            HttpHeaders headers = new HttpHeaders();
-            if (CollUtil.isNotEmpty(config.getHeaders())) {
-                config.getHeaders().putAll(config.getHeaders());
-            }
-            headers.add(HEADER_TENANT_ID, message.getTenantId().toString());
-            // 1.2 构建 URL
-            UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(config.getUrl());
-            if (CollUtil.isNotEmpty(config.getQuery())) {
-                config.getQuery().forEach(uriBuilder::queryParam);
-            }
-            // 1.3 构建请求体
-            if (method == HttpMethod.GET) {
-                uriBuilder.queryParam("message", HttpUtils.encodeUtf8(JsonUtils.toJsonString(message)));
-                url = uriBuilder.build().toUriString();
-                requestEntity = new HttpEntity<>(headers);
-            } else {
-                url = uriBuilder.build().toUriString();
-                Map<String, Object> requestBody = JsonUtils.parseObject(config.getBody(), Map.class);
-                if (requestBody == null) {
-                    requestBody = new HashMap<>();
-                }
-                requestBody.put("message", message);
-                headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE);
-                requestEntity = new HttpEntity<>(JsonUtils.toJsonString(requestBody), headers);
-            }
-
-            // 2. 发送请求
-            responseEntity = restTemplate.exchange(url, method, requestEntity, String.class);
-            if (responseEntity.getStatusCode().is2xxSuccessful()) {
-                log.info("[execute][message({}) config({}) url({}) method({}) requestEntity({}) 请求成功({})]",
-                        message, config, url, method, requestEntity, responseEntity);
-            } else {
-                log.error("[execute][message({}) config({}) url({}) method({}) requestEntity({}) 请求失败({})]",
-                        message, config, url, method, requestEntity, responseEntity);
-            }
-        } catch (Exception e) {
-            log.error("[execute][message({}) config({}) url({}) method({}) requestEntity({}) 请求异常({})]",
-                    message, config, url, method, requestEntity, responseEntity, e);
+    protected IotHttpDataSinkClient initProducer(IotDataSinkHttpConfig config) {
+        Assert.notBlank(config.getUrl(), "HTTP 地址不能为空");
+        Assert.notBlank(config.getMethod(), "HTTP 请求方法不能为空");
+        return new IotHttpDataSinkClient(vertx, httpClient, config, iotProperties.getDataSinkHttp(),
+                deadLetterRedisDAO::add);
+    }
+
+    @Override
+    protected void closeProducer(IotHttpDataSinkClient producer) {
+        if (producer != null) {
+            Future<Void> future = producer.close();
+            closingFutures.add(future);
+            future.onComplete(v -> closingFutures.remove(future));
+        }
+    }
+
+    @Override
+    protected void execute(IotDeviceMessage message, IotDataSinkHttpConfig config) throws Exception {
+        if (getProducer(config).trySend(message)) {
+            return;
+        }
+        // 客户端刚好因为缓存过期被关闭，此时缓存中已经移除，获取新创建的客户端重新发送
+        getProducer(config).send(message);
+    }
+
+    /**
+     * 重放死信，同步等待请求完成
+     *
+     * @param deadLetter 死信
+     * @throws Exception 请求失败时
+     */
+    public void replay(IotDataSinkDeadLetterDO deadLetter) throws Exception {
+        RequestOptions options = new RequestOptions().setMethod(HttpMethod.valueOf(deadLetter.getMethod()))
+                .setAbsoluteURI(deadLetter.getUrl())
+                .setIdleTimeout(iotProperties.getDataSinkHttp().getTimeout().toMillis());
+        if (CollUtil.isNotEmpty(deadLetter.getHeaders())) {
+            deadLetter.getHeaders().forEach(options::putHeader);
+        }
+        if (deadLetter.getTenantId() != null) {
+            options.putHeader(HEADER_TENANT_ID, deadLetter.getTenantId().toString());
         }
+        Buffer body = deadLetter.getBody() != null ? Buffer.buffer(deadLetter.getBody(), StandardCharsets.UTF_8.name()) : null;
+        httpClient.request(options)
+                .compose(httpRequest -> body != null ? httpRequest.send(body) : httpRequest.send())
+                .compose(response -> response.body().compose(responseBody -> {
+                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                        return Future.<Void>succeededFuture();
+                    }
+                    return Future.<Void>failedFuture(StrUtil.format("请求失败，状态码({}) 响应({})",
+                            response.statusCode(), responseBody.toString(StandardCharsets.UTF_8)));
+                }))
+                .toCompletionStage().toCompletableFuture()
+                .get(iotProperties.getDataSinkHttp().getTimeout().toMillis() * 2, TimeUnit.MILLISECONDS);
     }
 
-}
\ No newline at end of file
+}
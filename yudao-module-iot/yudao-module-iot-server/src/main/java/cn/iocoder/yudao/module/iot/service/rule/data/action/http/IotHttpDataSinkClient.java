@@ -0,0 +1,341 @@
+package cn.iocoder.yudao.module.iot.service.rule.data.action.http;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.ObjUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.http.HttpUtils;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDeadLetterDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.config.IotDataSinkHttpConfig;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils.HEADER_TENANT_ID;
+
+/**
+ * IoT HTTP 数据流转目的的客户端，每个 {@link IotDataSinkHttpConfig} 一个实例
+ *
+ * 1. 非阻塞：{@link #trySend(IotDeviceMessage)} 只是放入有界队列，由 Vert.x 的 {@link HttpClient} 异步发送；
+ *    队列满时直接进入死信，因此数据流转目的的延迟，不会影响规则的执行
+ * 2. 模板预处理：URL、请求头、请求体模板，在创建时解析一次
+ * 3. 并发限制：同时进行中的请求数，不超过 maxConcurrency；超过时，消息在队列中等待，并在下次发送时合并成一批
+ * 4. 失败重试：按照 retryBackoff 指数退避重试 maxRetries 次；仍然失败时，写入死信
+ * 5. 优雅关闭：{@link #close()} 后，在 closeTimeout 内继续发送剩余的消息；超时后，剩余的消息写入死信
+ *
+ * 注意：除 {@link #send(IotDeviceMessage)}、{@link #trySend(IotDeviceMessage)} 外，都在同一个 Vert.x {@link Context} 中执行，因此无需加锁
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class IotHttpDataSinkClient {
+
+    /**
+     * 重试间隔的最大值
+     */
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 60_000L;
+
+    private final Vertx vertx;
+    private final Context context;
+    private final HttpClient httpClient;
+    private final Consumer<IotDataSinkDeadLetterDO> deadLetterHandler;
+
+    // ========== 请求模板 ==========
+
+    private final HttpMethod method;
+    private final String url;
+    private final MultiMap headers;
+    private final Map<String, Object> bodyTemplate;
+    private final long timeoutMillis;
+
+    // ========== 发送控制 ==========
+
+    private final int batchSize;
+    private final int maxConcurrency;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final long closeTimeoutMillis;
+
+    private final BlockingQueue<IotDeviceMessage> queue;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    /**
+     * 关闭完成的 Promise：剩余的消息全部发送，或者超时后写入死信
+     */
+    private final Promise<Void> closePromise = Promise.promise();
+
+    /**
+     * 等待重试的请求；只在 context 中访问
+     */
+    private final Deque<Request> retryQueue = new ArrayDeque<>();
+    /**
+     * 进行中的请求数；只在 context 中访问
+     */
+    private int inFlight;
+    /**
+     * 等待重试定时器的请求数；只在 context 中访问
+     */
+    private int pendingRetries;
+    /**
+     * 关闭是否已经超时；超时后，不再发送，直接写入死信。只在 context 中访问
+     */
+    private boolean closeExpired;
+
+    @SuppressWarnings("unchecked")
+    public IotHttpDataSinkClient(Vertx vertx, HttpClient httpClient, IotDataSinkHttpConfig config,
+                                 YudaoIotProperties.DataSinkHttp properties,
+                                 Consumer<IotDataSinkDeadLetterDO> deadLetterHandler) {
+        this.vertx = vertx;
+        this.context = vertx.getOrCreateContext();
+        this.httpClient = httpClient;
+        this.deadLetterHandler = deadLetterHandler;
+        // 请求模板
+        this.method = HttpMethod.valueOf(config.getMethod().toUpperCase());
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(config.getUrl());
+        if (CollUtil.isNotEmpty(config.getQuery())) {
+            config.getQuery().forEach(uriBuilder::queryParam);
+        }
+        this.url = uriBuilder.build().toUriString();
+        this.headers = MultiMap.caseInsensitiveMultiMap();
+        if (CollUtil.isNotEmpty(config.getHeaders())) {
+            this.headers.addAll(config.getHeaders());
+        }
+        if (method != HttpMethod.GET) {
+            this.headers.set(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+        }
+        Map<String, Object> body = StrUtil.isNotBlank(config.getBody()) ? JsonUtils.parseObject(config.getBody(), Map.class) : null;
+        this.bodyTemplate = body != null ? body : Collections.emptyMap();
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        // 发送控制
+        this.batchSize = method == HttpMethod.GET ? 1 : Math.max(ObjUtil.defaultIfNull(config.getBatchSize(), 1), 1);
+        this.maxConcurrency = Math.max(ObjUtil.defaultIfNull(config.getMaxConcurrency(), properties.getMaxConcurrency()), 1);
+        this.maxRetries = Math.max(ObjUtil.defaultIfNull(config.getMaxRetries(), properties.getMaxRetries()), 0);
+        this.retryBackoffMillis = properties.getRetryBackoff().toMillis();
+        this.closeTimeoutMillis = properties.getCloseTimeout().toMillis();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    /**
+     * 发送消息，不阻塞调用线程；客户端已关闭时，写入死信
+     *
+     * @param message 消息
+     */
+    public void send(IotDeviceMessage message) {
+        if (!trySend(message)) {
+            deadLetter(buildRequest(Collections.singletonList(message)), "客户端已关闭");
+        }
+    }
+
+    /**
+     * 尝试发送消息，不阻塞调用线程
+     *
+     * @param message 消息
+     * @return 客户端已关闭时，返回 false，由调用方决定是否使用新的客户端重新发送；否则，返回 true
+     */
+    public boolean trySend(IotDeviceMessage message) {
+        if (closed) {
+            return false;
+        }
+        if (!queue.offer(message)) {
+            // 队列已满，直接写入死信
+            deadLetter(buildRequest(Collections.singletonList(message)), "队列已满");
+            return true;
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            context.runOnContext(v -> {
+                drainScheduled.set(false);
+                drain();
+            });
+        }
+        return true;
+    }
+
+    /**
+     * 关闭客户端，不再接收新的消息
+     *
+     * 队列中剩余的消息、等待重试的请求，在 closeTimeout 内继续发送；超时后，仍未发送的写入死信
+     *
+     * @return 关闭完成的 Future
+     */
+    public Future<Void> close() {
+        if (closed) {
+            return closePromise.future();
+        }
+        closed = true;
+        context.runOnContext(v -> {
+            drain();
+            vertx.setTimer(closeTimeoutMillis, id -> expireClose());
+        });
+        return closePromise.future();
+    }
+
+    /**
+     * 关闭超时：剩余的消息、等待重试的请求，写入死信
+     */
+    private void expireClose() {
+        closeExpired = true;
+        int count = queue.size() + retryQueue.size();
+        if (count > 0) {
+            log.warn("[expireClose][url({}) 关闭超时，剩余 {} 个请求写入死信]", url, count);
+        }
+        for (Request request; (request = retryQueue.poll()) != null; ) {
+            deadLetter(request, "客户端关闭超时");
+        }
+        for (IotDeviceMessage message; (message = queue.poll()) != null; ) {
+            deadLetter(buildRequest(Collections.singletonList(message)), "客户端关闭超时");
+        }
+        closePromise.tryComplete();
+    }
+
+    /**
+     * 关闭时，剩余的消息全部发送完成，则提前完成关闭
+     */
+    private void tryCompleteClose() {
+        if (closed && inFlight == 0 && pendingRetries == 0 && retryQueue.isEmpty() && queue.isEmpty()) {
+            closePromise.tryComplete();
+        }
+    }
+
+    /**
+     * 在并发限制内，发送等待重试的请求、队列中的消息
+     */
+    private void drain() {
+        while (inFlight < maxConcurrency && !closeExpired) {
+            Request request = retryQueue.poll();
+            if (request == null) {
+                List<IotDeviceMessage> messages = new ArrayList<>(batchSize);
+                queue.drainTo(messages, batchSize);
+                if (messages.isEmpty()) {
+                    break;
+                }
+                request = buildRequest(messages);
+            }
+            execute(request);
+        }
+        tryCompleteClose();
+    }
+
+    private Request buildRequest(List<IotDeviceMessage> messages) {
+        IotDeviceMessage first = messages.get(0);
+        if (method == HttpMethod.GET) {
+            String uri = url + (url.contains("?") ? "&" : "?") + "message="
+                    + HttpUtils.encodeUtf8(JsonUtils.toJsonString(first));
+            return new Request(uri, null, first.getTenantId(), 1);
+        }
+        Map<String, Object> requestBody = new HashMap<>(bodyTemplate);
+        if (batchSize > 1) {
+            requestBody.put("messages", messages);
+        } else {
+            requestBody.put("message", first);
+        }
+        return new Request(url, Buffer.buffer(JsonUtils.toJsonByte(requestBody)), first.getTenantId(), messages.size());
+    }
+
+    private void execute(Request request) {
+        inFlight++;
+        request.attempts++;
+        RequestOptions options = new RequestOptions().setMethod(method).setAbsoluteURI(request.uri)
+                .setHeaders(MultiMap.caseInsensitiveMultiMap().addAll(headers))
+                .setIdleTimeout(timeoutMillis);
+        if (request.tenantId != null) {
+            options.putHeader(HEADER_TENANT_ID, request.tenantId.toString());
+        }
+        httpClient.request(options)
+                .compose(httpRequest -> request.body != null ? httpRequest.send(request.body) : httpRequest.send())
+                .compose(response -> response.body().compose(body -> {
+                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                        return Future.succeededFuture();
+                    }
+                    return Future.failedFuture(StrUtil.format("请求失败，状态码({}) 响应({})",
+                            response.statusCode(), body.toString(StandardCharsets.UTF_8)));
+                }))
+                .onComplete(result -> {
+                    inFlight--;
+                    if (result.succeeded()) {
+                        log.debug("[execute][url({}) 发送 {} 条消息成功]", url, request.messageCount);
+                    } else {
+                        handleFailure(request, result.cause());
+                    }
+                    drain();
+                });
+    }
+
+    private void handleFailure(Request request, Throwable cause) {
+        if (request.attempts > maxRetries || closeExpired) {
+            log.error("[handleFailure][url({}) 发送 {} 条消息失败，已尝试 {} 次，写入死信]",
+                    url, request.messageCount, request.attempts, cause);
+            deadLetter(request, cause.getMessage());
+            return;
+        }
+        long delay = Math.min(retryBackoffMillis << (request.attempts - 1), MAX_RETRY_BACKOFF_MILLIS);
+        log.warn("[handleFailure][url({}) 发送 {} 条消息失败({})，{} ms 后第 {} 次重试]",
+                url, request.messageCount, cause.getMessage(), delay, request.attempts);
+        pendingRetries++;
+        vertx.setTimer(delay, id -> {
+            pendingRetries--;
+            if (closeExpired) {
+                deadLetter(request, "客户端关闭超时");
+                tryCompleteClose();
+                return;
+            }
+            retryQueue.add(request);
+            drain();
+        });
+    }
+
+    private void deadLetter(Request request, String error) {
+        Map<String, String> deadLetterHeaders = new HashMap<>();
+        headers.forEach(deadLetterHeaders::put);
+        IotDataSinkDeadLetterDO deadLetter = IotDataSinkDeadLetterDO.builder().id(IdUtil.fastSimpleUUID())
+                .tenantId(request.tenantId).method(method.name()).url(request.uri).headers(deadLetterHeaders)
+                .body(request.body != null ? request.body.toString(StandardCharsets.UTF_8) : null)
+                .messageCount(request.messageCount).attempts(request.attempts).error(error)
+                .createTime(LocalDateTime.now()).build();
+        // 写入死信是阻塞操作，不能在 EventLoop 中执行
+        vertx.executeBlocking(() -> {
+            deadLetterHandler.accept(deadLetter);
+            return null;
+        }, false).onFailure(ex -> log.error("[deadLetter][死信({}) 写入失败]", deadLetter, ex));
+    }
+
+    /**
+     * 待发送的请求
+     */
+    private static final class Request {
+
+        private final String uri;
+        private final Buffer body;
+        private final Long tenantId;
+        private final int messageCount;
+        private int attempts;
+
+        private Request(String uri, Buffer body, Long tenantId, int messageCount) {
+            this.uri = uri;
+            this.body = body;
+            this.tenantId = tenantId;
+            this.messageCount = messageCount;
+        }
+
+    }
+
+}
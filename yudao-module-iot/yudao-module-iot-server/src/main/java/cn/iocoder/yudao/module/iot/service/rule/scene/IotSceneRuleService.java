@@ -81,13 +81,13 @@ public interface IotSceneRuleService {
     List<IotSceneRuleDO> getSceneRuleListByStatus(Integer status);
 
     /**
-     * 【缓存】获得指定设备的场景列表
+     * 刷新本节点的场景联动索引
      *
-     * @param productId 产品 ID
-     * @param deviceId  设备 ID
-     * @return 场景列表
+     * 由 IotSceneRuleRefreshMessage 广播消息触发，需要在对应的租户上下文中调用
+     *
+     * @param id 场景联动编号；为空时，重新加载全部
      */
-    List<IotSceneRuleDO> getSceneRuleListByProductIdAndDeviceIdFromCache(Long productId, Long deviceId);
+    void refreshSceneRuleIndex(Long id);
 
     /**
      * 基于 {@link IotSceneRuleTriggerTypeEnum} 场景，执行规则场景
@@ -0,0 +1,110 @@
+package cn.iocoder.yudao.module.iot.service.rule.scene.evaluator;
+
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotSceneRuleDO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 编译后的场景联动触发器，由 {@link IotSceneRuleCompiler} 创建
+ *
+ * 触发器本身的条件、各个条件分组，都已经编译成 {@link Predicate}，匹配时不再解析配置
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public final class IotSceneRuleCompiledTrigger {
+
+    /**
+     * 所属的场景联动
+     */
+    private final IotSceneRuleDO sceneRule;
+    /**
+     * 触发器配置，用于日志
+     */
+    private final IotSceneRuleDO.Trigger trigger;
+
+    /**
+     * 消息方法
+     */
+    private final String method;
+    /**
+     * 索引的标识符；为 null 时，表示不按照标识符索引
+     */
+    private final String identifier;
+
+    /**
+     * 触发器本身的条件
+     */
+    private final Predicate<IotDeviceMessage> triggerPredicate;
+    /**
+     * 条件分组：分组与分组之间是“或”的关系，条件与条件之间是“且”的关系；为空时，表示无附加条件
+     */
+    private final List<List<Predicate<IotDeviceMessage>>> conditionGroups;
+
+    IotSceneRuleCompiledTrigger(IotSceneRuleDO sceneRule, IotSceneRuleDO.Trigger trigger,
+                                String method, String identifier,
+                                Predicate<IotDeviceMessage> triggerPredicate,
+                                List<List<Predicate<IotDeviceMessage>>> conditionGroups) {
+        this.sceneRule = sceneRule;
+        this.trigger = trigger;
+        this.method = method;
+        this.identifier = identifier;
+        this.triggerPredicate = triggerPredicate;
+        this.conditionGroups = conditionGroups;
+    }
+
+    /**
+     * 判断消息是否匹配该触发器，包括条件分组
+     *
+     * @param message 设备消息
+     * @return 是否匹配
+     */
+    public boolean matches(IotDeviceMessage message) {
+        try {
+            if (!triggerPredicate.test(message)) {
+                return false;
+            }
+            if (conditionGroups.isEmpty()) {
+                return true;
+            }
+            for (List<Predicate<IotDeviceMessage>> conditionGroup : conditionGroups) {
+                if (matchesAll(conditionGroup, message)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            log.error("[matches][规则场景编号({}) 的触发器({}) 匹配消息({}) 异常]", sceneRule.getId(), trigger, message, e);
+            return false;
+        }
+    }
+
+    private static boolean matchesAll(List<Predicate<IotDeviceMessage>> conditions, IotDeviceMessage message) {
+        for (Predicate<IotDeviceMessage> condition : conditions) {
+            if (!condition.test(message)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public IotSceneRuleDO getSceneRule() {
+        return sceneRule;
+    }
+
+    public IotSceneRuleDO.Trigger getTrigger() {
+        return trigger;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+}
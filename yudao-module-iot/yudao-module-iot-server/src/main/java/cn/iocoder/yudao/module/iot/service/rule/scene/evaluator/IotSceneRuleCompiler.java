@@ -0,0 +1,308 @@
+package cn.iocoder.yudao.module.iot.service.rule.scene.evaluator;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.text.CharPool;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceMessageMethodEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.core.util.IotDeviceMessageUtils;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotSceneRuleDO;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleConditionOperatorEnum;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleConditionTypeEnum;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleTriggerTypeEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 场景联动的编译器：将 {@link IotSceneRuleDO} 的触发器、条件分组，编译成 {@link IotSceneRuleCompiledTrigger}
+ *
+ * 配置的校验、操作符和参数值的解析，只在编译时执行一次，匹配消息时只执行编译后的条件。
+ * 配置无效的触发器会被忽略，配置无效的条件视为不满足
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public final class IotSceneRuleCompiler {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter TIME_FORMATTER_SHORT = DateTimeFormatter.ofPattern("HH:mm");
+
+    /**
+     * 时间戳使用的时区
+     */
+    private static final ZoneOffset ZONE_OFFSET = ZoneOffset.of("+8");
+
+    private static final Predicate<IotDeviceMessage> NEVER = message -> false;
+
+    private IotSceneRuleCompiler() {
+    }
+
+    /**
+     * 编译场景联动中，由设备消息触发的触发器
+     *
+     * 注意：{@link IotSceneRuleTriggerTypeEnum#TIMER} 定时触发器不依赖设备消息，由 IotSceneRuleTimerHandler 调度，所以不会编译
+     *
+     * @param sceneRule 场景联动
+     * @return 编译后的触发器列表
+     */
+    public static List<IotSceneRuleCompiledTrigger> compile(IotSceneRuleDO sceneRule) {
+        if (CollUtil.isEmpty(sceneRule.getTriggers())) {
+            return Collections.emptyList();
+        }
+        List<IotSceneRuleCompiledTrigger> result = new ArrayList<>(sceneRule.getTriggers().size());
+        for (IotSceneRuleDO.Trigger trigger : sceneRule.getTriggers()) {
+            try {
+                IotSceneRuleCompiledTrigger compiledTrigger = compileTrigger(sceneRule, trigger);
+                if (compiledTrigger != null) {
+                    result.add(compiledTrigger);
+                }
+            } catch (Exception e) {
+                log.error("[compile][规则场景编号({}) 的触发器({}) 编译异常]", sceneRule.getId(), trigger, e);
+            }
+        }
+        return result;
+    }
+
+    private static IotSceneRuleCompiledTrigger compileTrigger(IotSceneRuleDO sceneRule, IotSceneRuleDO.Trigger trigger) {
+        IotSceneRuleTriggerTypeEnum triggerType = trigger != null ? IotSceneRuleTriggerTypeEnum.typeOf(trigger.getType()) : null;
+        if (triggerType == null) {
+            log.warn("[compileTrigger][规则场景编号({}) 的触发器({}) 类型无效]", sceneRule.getId(), trigger);
+            return null;
+        }
+        if (triggerType == IotSceneRuleTriggerTypeEnum.TIMER) {
+            return null;
+        }
+        if (trigger.getProductId() == null || trigger.getDeviceId() == null) {
+            log.warn("[compileTrigger][规则场景编号({}) 的触发器({}) 缺少产品或设备]", sceneRule.getId(), trigger);
+            return null;
+        }
+
+        // 1. 编译触发器本身的条件
+        String method;
+        String identifier = null;
+        Predicate<IotDeviceMessage> triggerPredicate;
+        switch (triggerType) {
+            case DEVICE_STATE_UPDATE: {
+                method = IotDeviceMessageMethodEnum.STATE_UPDATE.getMethod();
+                // 状态更新消息的 identifier，实际是 params.state 状态值
+                triggerPredicate = compileStatePredicate(trigger.getOperator(), trigger.getValue());
+                break;
+            }
+            case DEVICE_PROPERTY_POST: {
+                method = IotDeviceMessageMethodEnum.PROPERTY_POST.getMethod();
+                // 一条属性上报消息包含多个属性，所以不按照 identifier 索引，而是提取属性值判断
+                triggerPredicate = compilePropertyPredicate(trigger.getIdentifier(), trigger.getOperator(),
+                        trigger.getValue(), false);
+                break;
+            }
+            case DEVICE_EVENT_POST: {
+                method = IotDeviceMessageMethodEnum.EVENT_POST.getMethod();
+                identifier = trigger.getIdentifier();
+                triggerPredicate = StrUtil.isNotBlank(identifier)
+                        ? compileEventPredicate(trigger.getOperator(), trigger.getValue()) : null;
+                break;
+            }
+            case DEVICE_SERVICE_INVOKE: {
+                method = IotDeviceMessageMethodEnum.SERVICE_INVOKE.getMethod();
+                identifier = trigger.getIdentifier();
+                // 服务调用触发器，只需要匹配服务标识符即可
+                triggerPredicate = StrUtil.isNotBlank(identifier) ? message -> true : null;
+                break;
+            }
+            default:
+                log.warn("[compileTrigger][规则场景编号({}) 的触发器类型({}) 不支持]", sceneRule.getId(), triggerType);
+                return null;
+        }
+        if (triggerPredicate == null) {
+            log.warn("[compileTrigger][规则场景编号({}) 的触发器({}) 配置无效]", sceneRule.getId(), trigger);
+            return null;
+        }
+
+        // 2. 编译条件分组
+        List<List<Predicate<IotDeviceMessage>>> conditionGroups = new ArrayList<>();
+        for (List<IotSceneRuleDO.TriggerCondition> conditionGroup : CollUtil.emptyIfNull(trigger.getConditionGroups())) {
+            if (CollUtil.isEmpty(conditionGroup)) {
+                continue;
+            }
+            List<Predicate<IotDeviceMessage>> conditions = new ArrayList<>(conditionGroup.size());
+            for (IotSceneRuleDO.TriggerCondition condition : conditionGroup) {
+                Predicate<IotDeviceMessage> predicate = compileCondition(condition);
+                if (predicate == null) {
+                    log.warn("[compileTrigger][规则场景编号({}) 的条件({}) 配置无效，视为不满足]", sceneRule.getId(), condition);
+                    predicate = NEVER;
+                }
+                conditions.add(predicate);
+            }
+            conditionGroups.add(conditions);
+        }
+        return new IotSceneRuleCompiledTrigger(sceneRule, trigger, method, identifier, triggerPredicate, conditionGroups);
+    }
+
+    private static Predicate<IotDeviceMessage> compileCondition(IotSceneRuleDO.TriggerCondition condition) {
+        IotSceneRuleConditionTypeEnum conditionType = condition != null ? IotSceneRuleConditionTypeEnum.typeOf(condition.getType()) : null;
+        if (conditionType == null) {
+            return null;
+        }
+        switch (conditionType) {
+            case DEVICE_STATE:
+                return compileStatePredicate(condition.getOperator(), condition.getParam());
+            case DEVICE_PROPERTY:
+                return compilePropertyPredicate(condition.getIdentifier(), condition.getOperator(),
+                        condition.getParam(), true);
+            case CURRENT_TIME:
+                return compileCurrentTimePredicate(condition.getOperator(), condition.getParam());
+            default:
+                return null;
+        }
+    }
+
+    // ========== 设备相关 ==========
+
+    private static Predicate<IotDeviceMessage> compileStatePredicate(String operator, String value) {
+        IotSceneRuleValuePredicate valuePredicate = compileValuePredicate(operator, value);
+        if (valuePredicate == null) {
+            return null;
+        }
+        return message -> {
+            String state = IotDeviceMessageUtils.getIdentifier(message);
+            return state != null && valuePredicate.test(state);
+        };
+    }
+
+    /**
+     * 编译属性条件
+     *
+     * @param identifier        属性标识符
+     * @param operator          操作符
+     * @param value             参数值
+     * @param checkIdentifier   消息存在 identifier 时（例如说事件上报），是否要求与属性标识符一致
+     * @return 条件
+     */
+    private static Predicate<IotDeviceMessage> compilePropertyPredicate(String identifier, String operator, String value,
+                                                                        boolean checkIdentifier) {
+        IotSceneRuleValuePredicate valuePredicate = compileValuePredicate(operator, value);
+        if (StrUtil.isBlank(identifier) || valuePredicate == null) {
+            return null;
+        }
+        return message -> {
+            // 单值的 params 无法对应到属性标识符，所以只从 Map 类型的 params 中提取属性值
+            if (!(message.getParams() instanceof Map)) {
+                return false;
+            }
+            if (checkIdentifier) {
+                String messageIdentifier = IotDeviceMessageUtils.getIdentifier(message);
+                if (messageIdentifier != null && !identifier.equals(messageIdentifier)) {
+                    return false;
+                }
+            }
+            Object propertyValue = IotDeviceMessageUtils.extractPropertyValue(message, identifier);
+            return propertyValue != null && valuePredicate.test(propertyValue);
+        };
+    }
+
+    private static Predicate<IotDeviceMessage> compileEventPredicate(String operator, String value) {
+        // 事件触发器，通常不需要检查操作符和值，只要事件发生即匹配
+        if (StrUtil.isBlank(operator) || StrUtil.isBlank(value)) {
+            return message -> true;
+        }
+        IotSceneRuleValuePredicate valuePredicate = IotSceneRuleValuePredicate.of(operator, value);
+        if (valuePredicate == null) {
+            return NEVER;
+        }
+        return message -> message.getData() != null && valuePredicate.test(message.getData());
+    }
+
+    private static IotSceneRuleValuePredicate compileValuePredicate(String operator, String value) {
+        if (StrUtil.isBlank(operator) || StrUtil.isBlank(value)) {
+            return null;
+        }
+        return IotSceneRuleValuePredicate.of(operator, value);
+    }
+
+    // ========== 时间相关 ==========
+
+    private static Predicate<IotDeviceMessage> compileCurrentTimePredicate(String operator, String param) {
+        IotSceneRuleConditionOperatorEnum operatorEnum = IotSceneRuleConditionOperatorEnum.operatorOf(operator);
+        if (operatorEnum == null || StrUtil.isBlank(param)) {
+            return null;
+        }
+        try {
+            switch (operatorEnum) {
+                case DATE_TIME_GREATER_THAN: {
+                    long target = Long.parseLong(param.trim());
+                    return message -> currentTimestamp() > target;
+                }
+                case DATE_TIME_LESS_THAN: {
+                    long target = Long.parseLong(param.trim());
+                    return message -> currentTimestamp() < target;
+                }
+                case DATE_TIME_BETWEEN: {
+                    List<String> range = splitRange(param);
+                    long start = Long.parseLong(range.get(0));
+                    long end = Long.parseLong(range.get(1));
+                    return message -> {
+                        long now = currentTimestamp();
+                        return now >= start && now <= end;
+                    };
+                }
+                case TIME_GREATER_THAN: {
+                    LocalTime target = parseTime(param.trim());
+                    return message -> LocalTime.now().isAfter(target);
+                }
+                case TIME_LESS_THAN: {
+                    LocalTime target = parseTime(param.trim());
+                    return message -> LocalTime.now().isBefore(target);
+                }
+                case TIME_BETWEEN: {
+                    List<String> range = splitRange(param);
+                    LocalTime start = parseTime(range.get(0));
+                    LocalTime end = parseTime(range.get(1));
+                    return message -> {
+                        LocalTime now = LocalTime.now();
+                        return !now.isBefore(start) && !now.isAfter(end);
+                    };
+                }
+                default:
+                    return null;
+            }
+        } catch (Exception e) {
+            log.warn("[compileCurrentTimePredicate][operator({}) param({}) 解析失败]", operator, param, e);
+            return null;
+        }
+    }
+
+    private static long currentTimestamp() {
+        return LocalDateTime.now().toEpochSecond(ZONE_OFFSET);
+    }
+
+    private static List<String> splitRange(String param) {
+        List<String> range = StrUtil.splitTrim(param, CharPool.COMMA);
+        if (range.size() != 2) {
+            throw new IllegalArgumentException("区间参数格式错误: " + param);
+        }
+        return range;
+    }
+
+    /**
+     * 解析时间字符串，支持 HH:mm 和 HH:mm:ss 两种格式
+     */
+    private static LocalTime parseTime(String time) {
+        if (time.length() == 5) {
+            return LocalTime.parse(time, TIME_FORMATTER_SHORT);
+        }
+        if (time.length() == 8) {
+            return LocalTime.parse(time, TIME_FORMATTER);
+        }
+        throw new IllegalArgumentException("时间格式无效: " + time);
+    }
+
+}
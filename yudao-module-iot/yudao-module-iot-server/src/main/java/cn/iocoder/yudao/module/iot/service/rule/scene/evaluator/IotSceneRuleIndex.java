@@ -0,0 +1,170 @@
+package cn.iocoder.yudao.module.iot.service.rule.scene.evaluator;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.core.util.IotDeviceMessageUtils;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotSceneRuleDO;
+
+import java.util.*;
+
+/**
+ * IoT 场景联动的内存索引，不可变
+ *
+ * 1. 开启的场景联动，通过 {@link IotSceneRuleCompiler} 编译成触发器
+ * 2. 指定设备的触发器，按照 device → method → identifier 建立索引；
+ *    {@link IotDeviceDO#DEVICE_ID_ALL} 全部设备的触发器，按照 product → method → identifier 建立索引
+ * 3. 场景联动变更时，通过 {@link #withRule} 构建新的索引进行替换（copy-on-write），只需要编译变更的场景联动
+ *
+ * @author 芋道源码
+ */
+public final class IotSceneRuleIndex {
+
+    public static final IotSceneRuleIndex EMPTY = new IotSceneRuleIndex(Collections.emptyMap());
+
+    /**
+     * 不按照 identifier 索引时，使用的 key
+     */
+    private static final String IDENTIFIER_ANY = StrUtil.EMPTY;
+
+    /**
+     * 编译后的触发器
+     *
+     * key：场景联动编号
+     */
+    private final Map<Long, List<IotSceneRuleCompiledTrigger>> ruleTriggers;
+
+    /**
+     * 指定设备的索引
+     *
+     * key1：设备编号
+     * key2：消息方法
+     * key3：标识符
+     */
+    private final Map<Long, Map<String, Map<String, List<IotSceneRuleCompiledTrigger>>>> deviceIndexes;
+    /**
+     * 全部设备的索引
+     *
+     * key1：产品编号
+     * key2：消息方法
+     * key3：标识符
+     */
+    private final Map<Long, Map<String, Map<String, List<IotSceneRuleCompiledTrigger>>>> productIndexes;
+
+    private IotSceneRuleIndex(Map<Long, List<IotSceneRuleCompiledTrigger>> ruleTriggers) {
+        this.ruleTriggers = ruleTriggers;
+        this.deviceIndexes = new HashMap<>();
+        this.productIndexes = new HashMap<>();
+        ruleTriggers.values().forEach(triggers -> triggers.forEach(trigger -> {
+            IotSceneRuleDO.Trigger config = trigger.getTrigger();
+            if (IotDeviceDO.DEVICE_ID_ALL.equals(config.getDeviceId())) {
+                addTrigger(productIndexes, config.getProductId(), trigger);
+            } else {
+                addTrigger(deviceIndexes, config.getDeviceId(), trigger);
+            }
+        }));
+    }
+
+    private static void addTrigger(Map<Long, Map<String, Map<String, List<IotSceneRuleCompiledTrigger>>>> indexes,
+                                   Long key, IotSceneRuleCompiledTrigger trigger) {
+        indexes.computeIfAbsent(key, k -> new HashMap<>())
+                .computeIfAbsent(trigger.getMethod(), k -> new HashMap<>())
+                .computeIfAbsent(StrUtil.blankToDefault(trigger.getIdentifier(), IDENTIFIER_ANY), k -> new ArrayList<>())
+                .add(trigger);
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param sceneRules 场景联动列表，会过滤掉未开启的
+     * @return 索引
+     */
+    public static IotSceneRuleIndex of(Collection<IotSceneRuleDO> sceneRules) {
+        Map<Long, List<IotSceneRuleCompiledTrigger>> ruleTriggers = new HashMap<>();
+        CollUtil.emptyIfNull(sceneRules).forEach(sceneRule -> {
+            if (CommonStatusEnum.isEnable(sceneRule.getStatus())) {
+                ruleTriggers.put(sceneRule.getId(), IotSceneRuleCompiler.compile(sceneRule));
+            }
+        });
+        return new IotSceneRuleIndex(ruleTriggers);
+    }
+
+    /**
+     * 基于场景联动的变更，构建新的索引
+     *
+     * @param sceneRuleId 场景联动编号
+     * @param sceneRule   场景联动；为空或者未开启时，表示移除
+     * @return 新的索引
+     */
+    public IotSceneRuleIndex withRule(Long sceneRuleId, IotSceneRuleDO sceneRule) {
+        Map<Long, List<IotSceneRuleCompiledTrigger>> newRuleTriggers = new HashMap<>(ruleTriggers);
+        if (sceneRule == null || !CommonStatusEnum.isEnable(sceneRule.getStatus())) {
+            if (newRuleTriggers.remove(sceneRuleId) == null) {
+                return this;
+            }
+        } else {
+            newRuleTriggers.put(sceneRuleId, IotSceneRuleCompiler.compile(sceneRule));
+        }
+        return new IotSceneRuleIndex(newRuleTriggers);
+    }
+
+    public boolean isEmpty() {
+        return deviceIndexes.isEmpty() && productIndexes.isEmpty();
+    }
+
+    /**
+     * 匹配设备消息，获得满足条件的场景联动
+     *
+     * 一个场景联动的多个触发器之间，是“或”的关系，所以同一个场景联动只返回一次
+     *
+     * @param message   设备消息
+     * @param productId 设备所属的产品编号
+     * @return 场景联动列表
+     */
+    public List<IotSceneRuleDO> match(IotDeviceMessage message, Long productId) {
+        String method = message.getMethod();
+        Map<String, List<IotSceneRuleCompiledTrigger>> deviceIndex = getMethodIndex(deviceIndexes, message.getDeviceId(), method);
+        Map<String, List<IotSceneRuleCompiledTrigger>> productIndex = getMethodIndex(productIndexes, productId, method);
+        if (deviceIndex == null && productIndex == null) {
+            return Collections.emptyList();
+        }
+        String identifier = IotDeviceMessageUtils.getIdentifier(message);
+        Map<Long, IotSceneRuleDO> matched = new LinkedHashMap<>();
+        match(deviceIndex, identifier, message, matched);
+        match(productIndex, identifier, message, matched);
+        return matched.isEmpty() ? Collections.emptyList() : new ArrayList<>(matched.values());
+    }
+
+    private static Map<String, List<IotSceneRuleCompiledTrigger>> getMethodIndex(
+            Map<Long, Map<String, Map<String, List<IotSceneRuleCompiledTrigger>>>> indexes, Long key, String method) {
+        Map<String, Map<String, List<IotSceneRuleCompiledTrigger>>> methodIndexes = indexes.get(key);
+        return methodIndexes != null ? methodIndexes.get(method) : null;
+    }
+
+    private static void match(Map<String, List<IotSceneRuleCompiledTrigger>> identifierIndex, String identifier,
+                              IotDeviceMessage message, Map<Long, IotSceneRuleDO> matched) {
+        if (identifierIndex == null) {
+            return;
+        }
+        match(identifierIndex.get(IDENTIFIER_ANY), message, matched);
+        if (StrUtil.isNotEmpty(identifier)) {
+            match(identifierIndex.get(identifier), message, matched);
+        }
+    }
+
+    private static void match(List<IotSceneRuleCompiledTrigger> triggers, IotDeviceMessage message,
+                              Map<Long, IotSceneRuleDO> matched) {
+        if (triggers == null) {
+            return;
+        }
+        for (IotSceneRuleCompiledTrigger trigger : triggers) {
+            IotSceneRuleDO sceneRule = trigger.getSceneRule();
+            if (!matched.containsKey(sceneRule.getId()) && trigger.matches(message)) {
+                matched.put(sceneRule.getId(), sceneRule);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package cn.iocoder.yudao.module.iot.service.rule.scene.evaluator;
+
+import cn.hutool.core.text.CharPool;
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.number.NumberUtils;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleConditionOperatorEnum;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 预编译的值比较条件：操作符 + 参数值
+ *
+ * 1. 操作符、参数值在编译时解析一次，而不是每条消息都解析
+ * 2. 直接比较，不构建、计算 Spring 表达式
+ * 3. 数字比较使用 double，源值是 {@link Number} 时不转换为字符串
+ *
+ * @author 芋道源码
+ */
+public final class IotSceneRuleValuePredicate {
+
+    private final IotSceneRuleConditionOperatorEnum operator;
+    /**
+     * 参数值
+     */
+    private final String value;
+    /**
+     * 参数值，按照逗号分隔
+     */
+    private final List<String> values;
+    /**
+     * 参数值，按照逗号分隔后，转换成的数字；不全是数字时为 null
+     */
+    private final double[] numberValues;
+
+    private IotSceneRuleValuePredicate(IotSceneRuleConditionOperatorEnum operator, String value) {
+        this.operator = operator;
+        this.value = value;
+        this.values = StrUtil.isNotBlank(value) ? StrUtil.splitTrim(value, CharPool.COMMA) : Collections.emptyList();
+        this.numberValues = isNumericOperator(operator) && !values.isEmpty() && NumberUtils.isAllNumber(values)
+                ? values.stream().mapToDouble(NumberUtil::parseDouble).toArray() : null;
+    }
+
+    /**
+     * 编译值比较条件
+     *
+     * @param operator 操作符
+     * @param value    参数值
+     * @return 条件；操作符无效时，返回 null
+     */
+    public static IotSceneRuleValuePredicate of(String operator, String value) {
+        IotSceneRuleConditionOperatorEnum operatorEnum = IotSceneRuleConditionOperatorEnum.operatorOf(operator);
+        return operatorEnum != null ? new IotSceneRuleValuePredicate(operatorEnum, value) : null;
+    }
+
+    /**
+     * 判断源值是否满足条件
+     *
+     * @param source 源值（来自消息）
+     * @return 是否满足
+     */
+    public boolean test(Object source) {
+        // 情况一：数字比较
+        if (numberValues != null) {
+            if (source instanceof Number) {
+                return compareNumber(((Number) source).doubleValue());
+            }
+            String str = StrUtil.toStringOrNull(source);
+            if (NumberUtil.isNumber(str)) {
+                return compareNumber(NumberUtil.parseDouble(str));
+            }
+        }
+        // 情况二：字符串比较
+        return compareString(StrUtil.toStringOrNull(source));
+    }
+
+    private boolean compareNumber(double source) {
+        switch (operator) {
+            case GREATER_THAN:
+                return source > numberValues[0];
+            case GREATER_THAN_OR_EQUALS:
+                return source >= numberValues[0];
+            case LESS_THAN:
+                return source < numberValues[0];
+            case LESS_THAN_OR_EQUALS:
+                return source <= numberValues[0];
+            case BETWEEN:
+                return numberValues.length >= 2 && source >= numberValues[0] && source <= numberValues[1];
+            case NOT_BETWEEN:
+                return numberValues.length >= 2 && (source < numberValues[0] || source > numberValues[1]);
+            default:
+                return false;
+        }
+    }
+
+    private boolean compareString(String source) {
+        switch (operator) {
+            case EQUALS:
+                return source != null && source.equals(value);
+            case NOT_EQUALS:
+                return source == null || !source.equals(value);
+            case GREATER_THAN:
+                return source != null && value != null && source.compareTo(value) > 0;
+            case GREATER_THAN_OR_EQUALS:
+                return source != null && value != null && source.compareTo(value) >= 0;
+            case LESS_THAN:
+                return source != null && value != null && source.compareTo(value) < 0;
+            case LESS_THAN_OR_EQUALS:
+                return source != null && value != null && source.compareTo(value) <= 0;
+            case IN:
+                return values.contains(source);
+            case NOT_IN:
+                return !values.contains(source);
+            case BETWEEN:
+                return source != null && values.size() >= 2
+                        && source.compareTo(values.get(0)) >= 0 && source.compareTo(values.get(1)) <= 0;
+            case NOT_BETWEEN:
+                return source != null && values.size() >= 2
+                        && (source.compareTo(values.get(0)) < 0 || source.compareTo(values.get(1)) > 0);
+            case LIKE:
+                return source != null && value != null && source.contains(value);
+            case NOT_NULL:
+                return StrUtil.isNotEmpty(source);
+            default:
+                // 时间相关的操作符，只用于 CURRENT_TIME 条件，不用于值比较
+                return false;
+        }
+    }
+
+    private static boolean isNumericOperator(IotSceneRuleConditionOperatorEnum operator) {
+        switch (operator) {
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUALS:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUALS:
+            case BETWEEN:
+            case NOT_BETWEEN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public IotSceneRuleConditionOperatorEnum getOperator() {
+        return operator;
+    }
+
+}
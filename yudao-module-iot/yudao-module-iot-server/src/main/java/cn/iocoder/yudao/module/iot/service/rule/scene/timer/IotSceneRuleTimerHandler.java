@@ -9,6 +9,7 @@ import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleTriggerTypeEnum;
 import cn.iocoder.yudao.module.iot.framework.job.core.IotSchedulerManager;
 import cn.iocoder.yudao.module.iot.job.rule.IotSceneRuleJob;
 import lombok.extern.slf4j.Slf4j;
+import org.quartz.CronExpression;
 import org.quartz.SchedulerException;
 import org.springframework.stereotype.Component;
 
@@ -122,6 +123,11 @@ public class IotSceneRuleTimerHandler {
             log.error("[registerSingleTimerTrigger][场景规则({}) 定时触发器缺少 CRON 表达式]", sceneRule.getId());
             return;
         }
+        if (!CronExpression.isValidExpression(trigger.getCronExpression())) {
+            log.error("[registerSingleTimerTrigger][场景规则({}) 定时触发器 CRON 表达式({}) 格式无效]",
+                    sceneRule.getId(), trigger.getCronExpression());
+            return;
+        }
 
         try {
             // 2.1 构建任务名称和数据
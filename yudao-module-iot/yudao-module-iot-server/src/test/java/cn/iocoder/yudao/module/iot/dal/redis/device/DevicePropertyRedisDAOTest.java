@@ -0,0 +1,148 @@
+package cn.iocoder.yudao.module.iot.dal.redis.device;
+
+import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDevicePropertyDO;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link DevicePropertyRedisDAO} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class DevicePropertyRedisDAOTest {
+
+    @Test
+    public void testEncodeDecode() {
+        LocalDateTime updateTime = LocalDateTime.of(2025, 1, 1, 12, 30, 45, 123_000_000);
+        for (Object value : Arrays.asList(null, 25, 1234567890123L, 25.5D, 1.5F, true, "在线", "")) {
+            // 调用
+            IotDevicePropertyDO property = DevicePropertyRedisDAO.decode(DevicePropertyRedisDAO.encode(
+                    IotDevicePropertyDO.builder().value(value).updateTime(updateTime).build()));
+            // 断言：值的类型不变
+            assertEquals(value, property.getValue());
+            assertEquals(updateTime, property.getUpdateTime());
+        }
+    }
+
+    @Test
+    public void testEncodeDecode_json() {
+        // 调用
+        IotDevicePropertyDO property = DevicePropertyRedisDAO.decode(DevicePropertyRedisDAO.encode(
+                IotDevicePropertyDO.builder().value(MapUtil.of("lat", 30)).build()));
+        // 断言
+        assertEquals(30, ((Map<?, ?>) property.getValue()).get("lat"));
+        assertNull(property.getUpdateTime());
+    }
+
+    @Test
+    public void testEncode_smallerThanJson() {
+        IotDevicePropertyDO property = IotDevicePropertyDO.builder().value(25.5D).updateTime(LocalDateTime.now()).build();
+        assertTrue(DevicePropertyRedisDAO.encode(property).length < JsonUtils.toJsonByte(property).length);
+    }
+
+    @Test
+    public void testDecode_legacyJson() {
+        // 准备参数：原先的 JSON 编码
+        byte[] bytes = JsonUtils.toJsonByte(IotDevicePropertyDO.builder().value(25)
+                .updateTime(LocalDateTime.of(2025, 1, 1, 0, 0)).build());
+
+        // 调用
+        IotDevicePropertyDO property = DevicePropertyRedisDAO.decode(bytes);
+        // 断言
+        assertEquals(25, property.getValue());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), property.getUpdateTime());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPutAll_legacyFormat() {
+        // 准备参数
+        LocalDateTime updateTime = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Map<String, IotDevicePropertyDO> properties = Collections.singletonMap("temperature",
+                IotDevicePropertyDO.builder().value(25).updateTime(updateTime).build());
+        // mock 方法：pipeline 中执行的 HMSET、INCR
+        RedisHashCommands hashCommands = mock(RedisHashCommands.class);
+        RedisConnection connection = mockConnection(hashCommands, mock(RedisStringCommands.class));
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class), any())).thenAnswer(invocation -> {
+            ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection);
+            return Collections.singletonList(2L);
+        });
+        DevicePropertyRedisDAO dao = buildDAO(stringRedisTemplate);
+
+        for (boolean legacyFormat : Arrays.asList(true, false)) {
+            // 调用
+            long version = dao.putAll(1L, properties, legacyFormat);
+            // 断言
+            assertEquals(2L, version);
+            ArgumentCaptor<Map<byte[], byte[]>> hashesCaptor = ArgumentCaptor.forClass(Map.class);
+            verify(hashCommands, atLeastOnce()).hMSet(eq("iot:device_property:1".getBytes(StandardCharsets.UTF_8)),
+                    hashesCaptor.capture());
+            byte[] bytes = hashesCaptor.getValue().values().iterator().next();
+            if (legacyFormat) {
+                // 断言：开启时，写入原先的 JSON 编码，未升级的节点可以读取
+                IotDevicePropertyDO property = JsonUtils.parseObject(bytes, IotDevicePropertyDO.class);
+                assertEquals(25, property.getValue());
+                assertEquals(updateTime, property.getUpdateTime());
+            } else {
+                // 断言：关闭时，写入二进制编码
+                assertEquals(1, bytes[0]);
+            }
+            // 断言：两种编码，都可以读取
+            assertEquals(25, DevicePropertyRedisDAO.decode(bytes).getValue());
+        }
+    }
+
+    @Test
+    public void testGetVersionList() {
+        // mock 方法：一次 MGET 读取
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(stringCommands.mGet(any(byte[][].class))).thenReturn(Arrays.asList(
+                "3".getBytes(StandardCharsets.US_ASCII), null));
+        RedisConnection connection = mockConnection(mock(RedisHashCommands.class), stringCommands);
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        when(stringRedisTemplate.execute(any(RedisCallback.class))).thenAnswer(invocation ->
+                ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+        DevicePropertyRedisDAO dao = buildDAO(stringRedisTemplate);
+
+        // 调用
+        List<Long> versions = dao.getVersionList(Arrays.asList(1L, 2L));
+        // 断言：未写入过属性的设备，版本号为 0
+        assertEquals(Arrays.asList(3L, 0L), versions);
+        verify(stringCommands).mGet(any(byte[][].class));
+        verify(stringRedisTemplate, never()).executePipelined(any(RedisCallback.class), any());
+    }
+
+    private static RedisConnection mockConnection(RedisHashCommands hashCommands, RedisStringCommands stringCommands) {
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        return connection;
+    }
+
+    private static DevicePropertyRedisDAO buildDAO(StringRedisTemplate stringRedisTemplate) {
+        DevicePropertyRedisDAO dao = new DevicePropertyRedisDAO();
+        ReflectUtil.setFieldValue(dao, "stringRedisTemplate", stringRedisTemplate);
+        return dao;
+    }
+
+}
@@ -0,0 +1,120 @@
+package cn.iocoder.yudao.module.iot.framework.tdengine.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TDengineBatchWriter} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TDengineBatchWriterTest {
+
+    @Test
+    public void testAdd_flushByBatchSize() throws InterruptedException {
+        // 准备参数
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        TDengineBatchWriter<Integer> writer = new TDengineBatchWriter<>("test", 5, 100,
+                Duration.ofSeconds(10), Duration.ofMillis(100), batch -> {
+                    batches.add(new ArrayList<>(batch));
+                    latch.countDown();
+                }, null);
+
+        // 调用
+        for (int i = 0; i < 10; i++) {
+            writer.add(i);
+        }
+        // 断言：linger 很长，只能是满 batchSize 触发写入
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, batches.size());
+        assertEquals(5, batches.get(0).size());
+        assertEquals(5, batches.get(1).size());
+        writer.shutdown();
+    }
+
+    @Test
+    public void testAdd_flushByLinger() throws InterruptedException {
+        // 准备参数
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Integer> rows = new CopyOnWriteArrayList<>();
+        TDengineBatchWriter<Integer> writer = new TDengineBatchWriter<>("test", 100, 100,
+                Duration.ofMillis(50), Duration.ofMillis(100), batch -> {
+                    rows.addAll(batch);
+                    latch.countDown();
+                }, null);
+
+        // 调用
+        writer.add(1);
+        writer.add(2);
+        // 断言：未满 batchSize，达到 linger 后写入
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, rows.size());
+        writer.shutdown();
+    }
+
+    @Test
+    public void testFlush_retryOneByOne() {
+        // 准备参数：包含 3 的批次写入失败
+        List<Integer> rows = new CopyOnWriteArrayList<>();
+        TDengineBatchWriter<Integer> writer = new TDengineBatchWriter<>("test", 10, 10,
+                Duration.ofMillis(50), Duration.ofMillis(100), batch -> {
+                    if (batch.contains(3)) {
+                        throw new IllegalStateException("模拟写入失败");
+                    }
+                    rows.addAll(batch);
+                }, null);
+
+        // 调用
+        for (int i = 1; i <= 5; i++) {
+            writer.add(i);
+        }
+        writer.shutdown();
+        // 断言：除了 3 之外，逐条重试成功
+        Collections.sort(rows);
+        assertEquals(Arrays.asList(1, 2, 4, 5), rows);
+    }
+
+    @Test
+    public void testAdd_callerRunsWhenFull() {
+        // 准备参数：写入阻塞，使队列被填满
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<Integer> callerRows = new CopyOnWriteArrayList<>();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TDengineBatchWriter<Integer> writer = new TDengineBatchWriter<>("test", 1, 1,
+                Duration.ofMillis(10), Duration.ofMillis(10), batch -> {
+                    if (Thread.currentThread().getName().startsWith("tdengine-writer-")) {
+                        try {
+                            blocker.await();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return;
+                    }
+                    callerRows.addAll(batch);
+                }, meterRegistry);
+
+        // 调用：第 1 条被后台线程取走并阻塞，第 2 条占满队列，之后的由调用线程写入
+        for (int i = 0; i < 5; i++) {
+            writer.add(i);
+        }
+        // 断言
+        assertFalse(callerRows.isEmpty());
+        assertEquals(callerRows.size(), meterRegistry.get("yudao.iot.tdengine.writer.caller.runs")
+                .counter().count(), 0.001);
+        blocker.countDown();
+        writer.shutdown();
+    }
+
+}
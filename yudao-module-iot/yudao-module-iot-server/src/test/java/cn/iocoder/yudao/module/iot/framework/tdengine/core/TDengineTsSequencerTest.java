@@ -0,0 +1,63 @@
+package cn.iocoder.yudao.module.iot.framework.tdengine.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TDengineTsSequencer} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TDengineTsSequencerTest {
+
+    @Test
+    public void testNext_acrossBatches() {
+        // 准备参数
+        TDengineTsSequencer sequencer = new TDengineTsSequencer();
+
+        // 调用，并断言：第一批
+        assertEquals(1000L, sequencer.next(1L, 1000L));
+        assertEquals(1001L, sequencer.next(1L, 1000L));
+        // 调用，并断言：第二批，同一毫秒的数据，继续递增
+        assertEquals(1002L, sequencer.next(1L, 1000L));
+        assertEquals(1003L, sequencer.next(1L, 1001L));
+        // 调用，并断言：更大的 ts，直接使用
+        assertEquals(2000L, sequencer.next(1L, 2000L));
+        // 调用，并断言：不同子表，相互独立
+        assertEquals(1000L, sequencer.next(2L, 1000L));
+    }
+
+    @Test
+    public void testNext_concurrent() throws InterruptedException {
+        // 准备参数：模拟后台线程、调用线程并发写入同一子表
+        TDengineTsSequencer sequencer = new TDengineTsSequencer();
+        Set<Long> tsSet = ConcurrentHashMap.newKeySet();
+        int threads = 4;
+        int count = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+
+        // 调用
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < count; j++) {
+                    tsSet.add(sequencer.next(1L, 1000L));
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        // 断言：ts 不重复
+        assertEquals(threads * count, tsSet.size());
+    }
+
+}
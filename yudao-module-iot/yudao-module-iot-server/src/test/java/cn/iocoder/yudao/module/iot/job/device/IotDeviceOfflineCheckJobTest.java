@@ -0,0 +1,123 @@
+package cn.iocoder.yudao.module.iot.job.device;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceStateEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import cn.iocoder.yudao.module.iot.service.device.IotDeviceService;
+import cn.iocoder.yudao.module.iot.service.device.message.IotDeviceMessageService;
+import cn.iocoder.yudao.module.iot.service.device.property.IotDevicePropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link IotDeviceOfflineCheckJob} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotDeviceOfflineCheckJobTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private IotDeviceOfflineCheckJob job;
+
+    @Spy
+    private YudaoIotProperties iotProperties = new YudaoIotProperties();
+
+    @Mock
+    private IotDeviceService deviceService;
+    @Mock
+    private IotDevicePropertyService devicePropertyService;
+    @Mock
+    private IotDeviceMessageService deviceMessageService;
+
+    /**
+     * 模拟 ZSET 中的数据，按照上报时间升序：{设备编号, 上报时间}
+     */
+    private final List<long[]> reportTimes = Arrays.asList(
+            new long[]{1L, 100L}, new long[]{2L, 100L}, new long[]{3L, 200L}, new long[]{4L, 300L});
+
+    @BeforeEach
+    public void setUp() {
+        iotProperties.getDeviceOnline().setOfflineCheckBatchSize(2);
+        // 模拟 ZRANGEBYSCORE ... LIMIT offset count
+        when(devicePropertyService.getDeviceReportTimeList(anyLong(), anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            long min = invocation.getArgument(0);
+            long max = invocation.getArgument(1);
+            int offset = invocation.getArgument(2);
+            int count = invocation.getArgument(3);
+            LinkedHashMap<Long, Long> result = new LinkedHashMap<>();
+            reportTimes.stream().filter(item -> item[1] >= min && item[1] <= max)
+                    .skip(offset).limit(count).forEach(item -> result.put(item[0], item[1]));
+            return result;
+        });
+        // 设备 3 已经离线
+        for (long id = 1; id <= 4; id++) {
+            Integer state = id == 3 ? IotDeviceStateEnum.OFFLINE.getState() : IotDeviceStateEnum.ONLINE.getState();
+            lenient().when(deviceService.getDeviceFromCache(id)).thenReturn(new IotDeviceDO().setId(id).setState(state));
+        }
+    }
+
+    @Test
+    public void testExecute() {
+        // 调用
+        job.execute(null);
+
+        // 断言：在线的设备，发送离线消息
+        ArgumentCaptor<IotDeviceDO> deviceCaptor = ArgumentCaptor.forClass(IotDeviceDO.class);
+        verify(deviceMessageService, times(3)).sendDeviceMessage(any(IotDeviceMessage.class), deviceCaptor.capture());
+        assertEquals(Arrays.asList(1L, 2L, 4L), Arrays.asList(deviceCaptor.getAllValues().stream()
+                .map(IotDeviceDO::getId).toArray()));
+        // 断言：每页更新游标，相同上报时间的设备不会跨页
+        verify(devicePropertyService).updateDeviceOfflineCheckCursor(eq(100L));
+        verify(devicePropertyService).updateDeviceOfflineCheckCursor(eq(299L));
+        // 断言：没有游标时，即完整检查
+        verify(devicePropertyService).updateDeviceOfflineCheckFullTime(anyLong());
+    }
+
+    @Test
+    public void testExecute_cursor() {
+        // 准备参数：上报时间小于等于 200 的设备，已经检查过；刚完整检查过
+        when(devicePropertyService.getDeviceOfflineCheckCursor()).thenReturn(200L);
+        when(devicePropertyService.getDeviceOfflineCheckFullTime()).thenReturn(System.currentTimeMillis());
+
+        // 调用
+        job.execute(null);
+
+        // 断言：只检查设备 4
+        verify(deviceMessageService).sendDeviceMessage(any(IotDeviceMessage.class),
+                argThat((IotDeviceDO device) -> device.getId() == 4L));
+        verify(deviceService, never()).getDeviceFromCache(eq(1L));
+        verify(devicePropertyService, never()).updateDeviceOfflineCheckFullTime(anyLong());
+    }
+
+    @Test
+    public void testExecute_fullCheck() {
+        // 准备参数：全部设备都已经检查过，但距离上次完整检查已经超过间隔
+        long now = System.currentTimeMillis();
+        when(devicePropertyService.getDeviceOfflineCheckCursor()).thenReturn(300L);
+        when(devicePropertyService.getDeviceOfflineCheckFullTime()).thenReturn(
+                now - iotProperties.getDeviceOnline().getOfflineCheckFullInterval().toMillis());
+
+        // 调用
+        job.execute(null);
+
+        // 断言：从头检查，游标之前仍然在线的设备，也发送离线消息
+        verify(deviceMessageService, times(3)).sendDeviceMessage(any(IotDeviceMessage.class), any(IotDeviceDO.class));
+        verify(devicePropertyService).getDeviceReportTimeList(eq(0L), anyLong(), eq(0), eq(2));
+        verify(devicePropertyService).updateDeviceOfflineCheckFullTime(longThat(time -> time >= now));
+    }
+
+}
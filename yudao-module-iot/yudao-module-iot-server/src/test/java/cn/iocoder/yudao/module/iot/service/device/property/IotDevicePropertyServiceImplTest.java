@@ -0,0 +1,132 @@
+package cn.iocoder.yudao.module.iot.service.device.property;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDevicePropertyHistoryDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceShadowDO;
+import cn.iocoder.yudao.module.iot.dal.redis.device.DevicePropertyRedisDAO;
+import cn.iocoder.yudao.module.iot.dal.redis.device.DeviceReportTimeRedisDAO;
+import cn.iocoder.yudao.module.iot.dal.redis.device.DeviceServerIdRedisDAO;
+import cn.iocoder.yudao.module.iot.dal.tdengine.IotDevicePropertyMapper;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import cn.iocoder.yudao.module.iot.framework.tdengine.core.TDengineBatchWriter;
+import cn.iocoder.yudao.module.iot.service.product.IotProductService;
+import cn.iocoder.yudao.module.iot.service.thingmodel.IotThingModelService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link IotDevicePropertyServiceImpl} 设备影子的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotDevicePropertyServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private IotDevicePropertyServiceImpl devicePropertyService;
+
+    @Spy
+    private YudaoIotProperties iotProperties = new YudaoIotProperties();
+
+    @Mock
+    private IotThingModelService thingModelService;
+    @Mock
+    private IotProductService productService;
+    @Mock
+    private DevicePropertyRedisDAO deviceDataRedisDAO;
+    @Mock
+    private DeviceReportTimeRedisDAO deviceReportTimeRedisDAO;
+    @Mock
+    private DeviceServerIdRedisDAO deviceServerIdRedisDAO;
+    @Mock
+    private IotDevicePropertyMapper devicePropertyMapper;
+    @Mock
+    private TDengineBatchWriter<IotDevicePropertyHistoryDO> devicePropertyWriter;
+
+    @BeforeEach
+    public void setUp() {
+        devicePropertyService.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        devicePropertyService.destroy();
+    }
+
+    @Test
+    public void testLegacyFormat_default() {
+        // 断言：迁移开关默认关闭，只在滚动升级期间开启
+        assertFalse(new YudaoIotProperties().getDeviceShadow().isLegacyFormat());
+    }
+
+    @Test
+    public void testGetDeviceShadowMap_empty() {
+        // 调用
+        Map<Long, IotDeviceShadowDO> result = devicePropertyService.getDeviceShadowMap(Collections.emptyList());
+        // 断言
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(deviceDataRedisDAO);
+    }
+
+    @Test
+    public void testGetDeviceShadowMap_cache() {
+        // mock 方法：第一次读取，全部未命中
+        IotDeviceShadowDO shadow1 = buildShadow(1L, 1L);
+        IotDeviceShadowDO shadow2 = buildShadow(2L, 2L);
+        when(deviceDataRedisDAO.getVersionList(eq(Arrays.asList(1L, 2L))))
+                .thenReturn(Arrays.asList(1L, 2L), Arrays.asList(1L, 3L));
+        when(deviceDataRedisDAO.getList(eq(Arrays.asList(1L, 2L)))).thenReturn(Arrays.asList(shadow1, shadow2));
+
+        // 调用：重复的设备编号，只读取一次
+        Map<Long, IotDeviceShadowDO> result = devicePropertyService.getDeviceShadowMap(Arrays.asList(1L, 2L, 1L));
+        // 断言
+        assertEquals(2, result.size());
+        assertSame(shadow1, result.get(1L));
+        assertSame(shadow2, result.get(2L));
+
+        // mock 方法：第二次读取，设备 2 的版本号已经递增
+        IotDeviceShadowDO newShadow2 = buildShadow(2L, 3L);
+        when(deviceDataRedisDAO.getList(eq(singletonList(2L)))).thenReturn(singletonList(newShadow2));
+        // 调用
+        result = devicePropertyService.getDeviceShadowMap(Arrays.asList(1L, 2L));
+        // 断言：设备 1 命中本地缓存，只重新读取设备 2
+        assertSame(shadow1, result.get(1L));
+        assertSame(newShadow2, result.get(2L));
+        verify(deviceDataRedisDAO, times(2)).getVersionList(anyList());
+        verify(deviceDataRedisDAO, times(1)).getList(eq(Arrays.asList(1L, 2L)));
+        verify(deviceDataRedisDAO, times(1)).getList(eq(singletonList(2L)));
+    }
+
+    @Test
+    public void testGetDeviceShadowMap_legacyFormat() {
+        // 准备参数：滚动升级期间，开启迁移开关
+        iotProperties.getDeviceShadow().setLegacyFormat(true);
+        // mock 方法
+        IotDeviceShadowDO shadow = buildShadow(1L, 0L);
+        when(deviceDataRedisDAO.getList(eq(singletonList(1L)))).thenReturn(singletonList(shadow));
+
+        // 调用：连续读取两次
+        assertSame(shadow, devicePropertyService.getDeviceShadow(1L));
+        assertSame(shadow, devicePropertyService.getDeviceShadow(1L));
+        // 断言：未升级的节点写入不会递增版本号，所以每次都读取 Redis，不使用本地缓存
+        verify(deviceDataRedisDAO, times(2)).getList(eq(singletonList(1L)));
+        verify(deviceDataRedisDAO, never()).getVersionList(anyList());
+    }
+
+    private static IotDeviceShadowDO buildShadow(Long deviceId, Long version) {
+        return IotDeviceShadowDO.builder().deviceId(deviceId).version(version)
+                .properties(Collections.emptyMap()).build();
+    }
+
+}
@@ -0,0 +1,211 @@
+package cn.iocoder.yudao.module.iot.service.ota;
+
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceStateEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaFirmwareDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaTaskDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.ota.IotOtaTaskRecordDO;
+import cn.iocoder.yudao.module.iot.dal.mysql.ota.IotOtaTaskRecordMapper;
+import cn.iocoder.yudao.module.iot.dal.redis.ota.OtaRolloutRateLimiterRedisDAO;
+import cn.iocoder.yudao.module.iot.dal.redis.ota.OtaTaskRolloutCursorRedisDAO;
+import cn.iocoder.yudao.module.iot.enums.ota.IotOtaTaskRecordStatusEnum;
+import cn.iocoder.yudao.module.iot.enums.ota.IotOtaTaskStatusEnum;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import cn.iocoder.yudao.module.iot.service.device.IotDeviceService;
+import cn.iocoder.yudao.module.iot.service.device.message.IotDeviceMessageService;
+import cn.iocoder.yudao.module.iot.service.device.property.IotDevicePropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link IotOtaTaskRecordServiceImpl} 的分波次推送的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotOtaTaskRecordServiceImplTest extends BaseMockitoUnitTest {
+
+    private static final Long TASK_ID = 1L;
+
+    @InjectMocks
+    private IotOtaTaskRecordServiceImpl otaTaskRecordService;
+
+    @Spy
+    private YudaoIotProperties iotProperties = new YudaoIotProperties();
+
+    @Mock
+    private IotOtaTaskRecordMapper otaTaskRecordMapper;
+    @Mock
+    private IotOtaFirmwareService otaFirmwareService;
+    @Mock
+    private IotOtaTaskService otaTaskService;
+    @Mock
+    private IotDeviceMessageService deviceMessageService;
+    @Mock
+    private IotDeviceService deviceService;
+    @Mock
+    private IotDevicePropertyService devicePropertyService;
+    @Mock
+    private OtaTaskRolloutCursorRedisDAO otaTaskRolloutCursorRedisDAO;
+    @Mock
+    private OtaRolloutRateLimiterRedisDAO otaRolloutRateLimiterRedisDAO;
+
+    /**
+     * 待推送的记录：记录 i 对应设备 10 + i
+     */
+    private final List<IotOtaTaskRecordDO> records = new ArrayList<>();
+    /**
+     * 设备连接的网关：设备 14 离线，设备 15 在线但未连接网关
+     */
+    private final Map<Long, String> serverIdMap = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        iotProperties.getOtaRollout().setPageSize(3);
+        iotProperties.getOtaRollout().setWaveSize(1);
+        iotProperties.getOtaRollout().setWaveInterval(Duration.ZERO);
+        for (long id = 1; id <= 5; id++) {
+            records.add(IotOtaTaskRecordDO.builder().id(id).taskId(TASK_ID).firmwareId(100L).deviceId(10 + id)
+                    .status(IotOtaTaskRecordStatusEnum.PENDING.getStatus()).build());
+        }
+        serverIdMap.put(11L, "gateway-a");
+        serverIdMap.put(12L, "gateway-a");
+        serverIdMap.put(13L, "gateway-b");
+        serverIdMap.put(14L, "gateway-b");
+
+        // mock 任务、固件
+        when(otaTaskService.getOtaTaskListByStatus(eq(IotOtaTaskStatusEnum.IN_PROGRESS.getStatus())))
+                .thenReturn(singletonList(IotOtaTaskDO.builder().id(TASK_ID).firmwareId(100L).build()));
+        when(otaFirmwareService.getOtaFirmware(eq(100L))).thenReturn(IotOtaFirmwareDO.builder().id(100L)
+                .version("2.0.0").fileUrl("https://www.iocoder.cn/firmware.bin").fileSize(1024L)
+                .fileDigestAlgorithm("MD5").fileDigestValue("abc").build());
+        // 模拟 SELECT ... WHERE id > lastId ORDER BY id LIMIT pageSize
+        when(otaTaskRecordMapper.selectListByTaskIdAndStatusAndIdGt(eq(TASK_ID),
+                eq(IotOtaTaskRecordStatusEnum.PENDING.getStatus()), any(), anyInt())).thenAnswer(invocation -> {
+            Long lastId = invocation.getArgument(2);
+            int limit = invocation.getArgument(3);
+            return records.stream().filter(record -> lastId == null || record.getId() > lastId)
+                    .limit(limit).collect(Collectors.toList());
+        });
+        // mock 设备、网关
+        when(deviceService.getDeviceMap(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> new IotDeviceDO().setId(id)
+                    .setState(id == 14L ? IotDeviceStateEnum.OFFLINE.getState() : IotDeviceStateEnum.ONLINE.getState())));
+        });
+        when(devicePropertyService.getDeviceServerIdMap(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            Map<Long, String> result = new HashMap<>();
+            ids.stream().filter(serverIdMap::containsKey).forEach(id -> result.put(id, serverIdMap.get(id)));
+            return result;
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRolloutOtaTaskRecords() {
+        // 调用
+        int successCount = otaTaskRecordService.rolloutOtaTaskRecords();
+
+        // 断言：设备 11、12、13 推送成功
+        assertEquals(3, successCount);
+        // 断言：每一波每个网关最多推送 1 个设备，按照网关分组批量发送
+        ArgumentCaptor<String> serverIdCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<KeyValue<IotDeviceDO, IotDeviceMessage>>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(deviceMessageService, times(3)).sendDeviceMessageList(serverIdCaptor.capture(), messagesCaptor.capture());
+        assertEquals(asList("gateway-a", "gateway-b", "gateway-a"), serverIdCaptor.getAllValues());
+        assertEquals(asList(11L, 13L, 12L), messagesCaptor.getAllValues().stream()
+                .map(deviceMessages -> deviceMessages.get(0).getKey().getId()).collect(Collectors.toList()));
+        // 断言：推送成功的记录，更新为已推送
+        verify(otaTaskRecordMapper, times(3)).updateListByIdAndStatus(anyCollection(),
+                eq(Collections.singleton(IotOtaTaskRecordStatusEnum.PENDING.getStatus())),
+                argThat(record -> IotOtaTaskRecordStatusEnum.PUSHED.getStatus().equals(record.getStatus())));
+        // 断言：在线但未连接网关的设备 15，标记推送失败，状态保持待推送
+        verify(otaTaskRecordMapper).updateListByIdAndStatus(eq(singletonList(5L)),
+                eq(Collections.singleton(IotOtaTaskRecordStatusEnum.PENDING.getStatus())),
+                argThat(record -> record.getStatus() == null && record.getDescription().startsWith("推送失败")));
+        // 断言：每页更新游标，读取完后重置游标
+        verify(otaTaskRolloutCursorRedisDAO).update(eq(TASK_ID), eq(3L));
+        verify(otaTaskRolloutCursorRedisDAO).delete(eq(TASK_ID));
+        // 断言：未配置间隔时，不限流
+        verifyNoInteractions(otaRolloutRateLimiterRedisDAO);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRolloutOtaTaskRecords_rateLimit() {
+        // 准备参数：每个网关每秒推送 1 个设备
+        iotProperties.getOtaRollout().setWaveInterval(Duration.ofSeconds(1));
+        // mock 方法：网关 gateway-a 的配额，第一次已经被其它节点（任务、租户）用完
+        when(otaRolloutRateLimiterRedisDAO.tryAcquire(eq("gateway-a"), eq(1), eq(1), eq(Duration.ofSeconds(1))))
+                .thenReturn(false, true);
+        when(otaRolloutRateLimiterRedisDAO.tryAcquire(eq("gateway-b"), eq(1), eq(1), eq(Duration.ofSeconds(1))))
+                .thenReturn(true);
+
+        // 调用
+        int successCount = otaTaskRecordService.rolloutOtaTaskRecords();
+
+        // 断言：gateway-a 获取到配额后，才推送
+        assertEquals(3, successCount);
+        ArgumentCaptor<String> serverIdCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<KeyValue<IotDeviceDO, IotDeviceMessage>>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(deviceMessageService, times(3)).sendDeviceMessageList(serverIdCaptor.capture(), messagesCaptor.capture());
+        assertEquals(asList("gateway-b", "gateway-a", "gateway-a"), serverIdCaptor.getAllValues());
+        assertEquals(asList(13L, 11L, 12L), messagesCaptor.getAllValues().stream()
+                .map(deviceMessages -> deviceMessages.get(0).getKey().getId()).collect(Collectors.toList()));
+        // 断言：每次推送前，都通过网关共享的限流获取配额
+        verify(otaRolloutRateLimiterRedisDAO, times(3)).tryAcquire(eq("gateway-a"), eq(1), eq(1),
+                eq(Duration.ofSeconds(1)));
+        verify(otaRolloutRateLimiterRedisDAO, times(1)).tryAcquire(eq("gateway-b"), eq(1), eq(1),
+                eq(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    public void testRolloutOtaTaskRecords_cursor() {
+        // 准备参数：记录 1 ~ 3 已经推送过
+        when(otaTaskRolloutCursorRedisDAO.get(eq(TASK_ID))).thenReturn(3L);
+
+        // 调用
+        int successCount = otaTaskRecordService.rolloutOtaTaskRecords();
+
+        // 断言：从记录 4 继续推送，设备 14 离线、设备 15 未连接网关，都不发送
+        assertEquals(0, successCount);
+        verify(otaTaskRecordMapper).selectListByTaskIdAndStatusAndIdGt(eq(TASK_ID),
+                eq(IotOtaTaskRecordStatusEnum.PENDING.getStatus()), eq(3L), eq(3));
+        verify(deviceMessageService, never()).sendDeviceMessageList(anyString(), anyList());
+        verify(otaTaskRolloutCursorRedisDAO).delete(eq(TASK_ID));
+    }
+
+    @Test
+    public void testRolloutOtaTaskRecords_sendFail() {
+        // mock 方法：网关 gateway-a 发送失败
+        doThrow(new RuntimeException("网关异常")).when(deviceMessageService)
+                .sendDeviceMessageList(eq("gateway-a"), anyList());
+
+        // 调用
+        int successCount = otaTaskRecordService.rolloutOtaTaskRecords();
+
+        // 断言：只有设备 13 推送成功，失败的记录只更新描述
+        assertEquals(1, successCount);
+        verify(otaTaskRecordMapper, times(2)).updateListByIdAndStatus(anyCollection(),
+                eq(Collections.singleton(IotOtaTaskRecordStatusEnum.PENDING.getStatus())),
+                argThat(record -> record.getStatus() == null && record.getDescription().contains("网关异常")));
+    }
+
+}
@@ -1,24 +1,26 @@
 package cn.iocoder.yudao.module.iot.service.rule.action.databridge;
 
+import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.util.ReflectUtil;
 import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceMessageMethodEnum;
 import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.config.*;
+import cn.iocoder.yudao.module.iot.dal.redis.rule.DataSinkDeadLetterRedisDAO;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
 import cn.iocoder.yudao.module.iot.service.rule.data.action.*;
+import io.vertx.core.Vertx;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import java.time.LocalDateTime;
 
 /**
  * {@link IotDataRuleAction} 实现类的单元测试
@@ -31,20 +33,21 @@ public class IotDataBridgeExecuteTest extends BaseMockitoUnitTest {
 
     private IotDeviceMessage message;
 
+    @Spy
+    private YudaoIotProperties iotProperties = new YudaoIotProperties();
     @Mock
-    private RestTemplate restTemplate;
+    private DataSinkDeadLetterRedisDAO deadLetterRedisDAO;
 
     @InjectMocks
     private IotHttpDataSinkAction httpDataBridgeExecute;
 
     @BeforeEach
     public void setUp() {
-        // TODO @芋艿：@puhui999：需要调整下；
         // 创建共享的测试消息
-        //message = IotDeviceMessage.builder().messageId("TEST-001").reportTime(LocalDateTime.now())
-        //        .productKey("testProduct").deviceName("testDevice")
-        //        .type("property").identifier("temperature").data("{\"value\": 60}")
-        //        .build();
+        message = IotDeviceMessage.builder().id("TEST-001").reportTime(LocalDateTime.now())
+                .deviceId(1L).tenantId(1L).method(IotDeviceMessageMethodEnum.PROPERTY_POST.getMethod())
+                .params(MapUtil.of("temperature", 60))
+                .build();
     }
 
     @Test
@@ -120,18 +123,23 @@ public class IotDataBridgeExecuteTest extends BaseMockitoUnitTest {
 
     @Test
     public void testHttpDataBridge() throws Exception {
-        // 1. 配置 RestTemplate mock 返回成功响应
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(new ResponseEntity<>("Success", HttpStatus.OK));
+        // 1. 初始化执行器：使用独立的 Vert.x 实例，真实发送 HTTP 请求
+        Vertx vertx = Vertx.vertx();
+        ReflectUtil.setFieldValue(httpDataBridgeExecute, "vertx", vertx);
+        httpDataBridgeExecute.init();
 
         // 2. 创建配置
         IotDataSinkHttpConfig config = new IotDataSinkHttpConfig()
                 .setUrl("https://doc.iocoder.cn/").setMethod(HttpMethod.GET.name());
 
-        // 3. 执行测试
-        log.info("[testHttpDataBridge][执行HTTP数据桥接测试]");
-        httpDataBridgeExecute.execute(message, new IotDataSinkDO()
-                .setType(httpDataBridgeExecute.getType()).setConfig(config));
+        // 3. 执行测试并验证缓存：消息异步发送，等待发送完成
+        try {
+            executeAndVerifyCache(httpDataBridgeExecute, config, "Http");
+            Thread.sleep(3000L);
+        } finally {
+            httpDataBridgeExecute.destroy();
+            vertx.close();
+        }
     }
 
     /**
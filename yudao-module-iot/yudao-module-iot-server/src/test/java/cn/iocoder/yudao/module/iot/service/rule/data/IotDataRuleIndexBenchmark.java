@@ -0,0 +1,146 @@
+package cn.iocoder.yudao.module.iot.service.rule.data;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ObjUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.framework.common.util.object.ObjectUtils;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataRuleDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IotDataRuleIndex} 规则匹配的基准测试
+ *
+ * 使用 10000 条规则、1000000 条消息，对比基于索引的匹配，与原先逐条规则、逐个数据源配置线性扫描的性能。
+ * 线性扫描太慢，只使用前 {@link #LINEAR_MESSAGES} 条消息；结果按照单条消息统计，可以直接对比。
+ * 通过 {@link #main(String[])} 运行，不参与单元测试
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class IotDataRuleIndexBenchmark {
+
+    private static final int RULES = 10000;
+    private static final int MESSAGES = 1000000;
+    private static final int LINEAR_MESSAGES = 10000;
+
+    private static final int PRODUCTS = 100;
+    private static final int DEVICES_PER_PRODUCT = 20;
+
+    private static final String[] METHODS = {"thing.property.post", "thing.event.post", "thing.state.update"};
+    private static final String[] IDENTIFIERS = {"temperature", "humidity", "voltage", "current", "alarm"};
+
+    private List<IotDataRuleDO> rules;
+    private IotDataRuleIndex index;
+    /**
+     * 设备所属的产品，模拟 IotDeviceService 的 getDeviceFromCache 方法
+     */
+    private Map<Long, Long> deviceProductIds;
+
+    private Long[] deviceIds;
+    private String[] methods;
+    private String[] identifiers;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1024);
+        // 1. 规则：90% 指定设备，10% 全部设备
+        rules = new ArrayList<>(RULES);
+        List<IotDataSinkDO> sinks = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            sinks.add(new IotDataSinkDO().setId(i).setStatus(CommonStatusEnum.ENABLE.getStatus()));
+        }
+        for (int i = 0; i < RULES; i++) {
+            long productId = random.nextInt(PRODUCTS) + 1;
+            long deviceId = random.nextInt(10) == 0 ? IotDeviceDO.DEVICE_ID_ALL
+                    : productId * 1000 + random.nextInt(DEVICES_PER_PRODUCT);
+            String identifier = random.nextBoolean() ? null : IDENTIFIERS[random.nextInt(IDENTIFIERS.length)];
+            IotDataRuleDO.SourceConfig config = new IotDataRuleDO.SourceConfig().setProductId(productId)
+                    .setDeviceId(deviceId).setMethod(METHODS[random.nextInt(METHODS.length)]).setIdentifier(identifier);
+            rules.add(new IotDataRuleDO().setId((long) i + 1).setStatus(CommonStatusEnum.ENABLE.getStatus())
+                    .setSourceConfigs(Collections.singletonList(config))
+                    .setSinkIds(Collections.singletonList((long) random.nextInt(10) + 1)));
+        }
+        index = IotDataRuleIndex.of(rules, sinks);
+        deviceProductIds = new HashMap<>();
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            // 每个产品多出的 5 个设备，没有指定设备的规则，只能匹配全部设备的规则
+            for (int j = 0; j < DEVICES_PER_PRODUCT + 5; j++) {
+                deviceProductIds.put(productId * 1000 + j, productId);
+            }
+        }
+
+        // 2. 消息
+        Long[] allDeviceIds = deviceProductIds.keySet().toArray(new Long[0]);
+        deviceIds = new Long[MESSAGES];
+        methods = new String[MESSAGES];
+        identifiers = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            deviceIds[i] = allDeviceIds[random.nextInt(allDeviceIds.length)];
+            methods[i] = METHODS[random.nextInt(METHODS.length)];
+            identifiers[i] = IDENTIFIERS[random.nextInt(IDENTIFIERS.length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void index(Blackhole blackhole) {
+        for (int i = 0; i < MESSAGES; i++) {
+            Long deviceId = deviceIds[i];
+            List<IotDataRuleIndex.Rule> matched;
+            if (index.containsDevice(deviceId)) {
+                matched = index.matchDevice(deviceId, methods[i], identifiers[i]);
+            } else {
+                matched = index.matchProduct(deviceProductIds.get(deviceId), methods[i], identifiers[i]);
+            }
+            blackhole.consume(matched);
+        }
+    }
+
+    /**
+     * 原先的实现：每条消息，逐条规则、逐个数据源配置匹配
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINEAR_MESSAGES)
+    public void linearScan(Blackhole blackhole) {
+        for (int i = 0; i < LINEAR_MESSAGES; i++) {
+            Long deviceId = deviceIds[i];
+            String method = methods[i];
+            String identifier = identifiers[i];
+            List<IotDataRuleDO> matched = new ArrayList<>();
+            for (IotDataRuleDO rule : rules) {
+                IotDataRuleDO.SourceConfig found = CollUtil.findOne(rule.getSourceConfigs(),
+                        config -> ObjectUtils.equalsAny(config.getDeviceId(), deviceId, IotDeviceDO.DEVICE_ID_ALL)
+                                && Objects.equals(config.getMethod(), method)
+                                && (StrUtil.isEmpty(config.getIdentifier()) || ObjUtil.equal(config.getIdentifier(), identifier)));
+                if (found != null) {
+                    matched.add(rule);
+                }
+            }
+            blackhole.consume(matched);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(IotDataRuleIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
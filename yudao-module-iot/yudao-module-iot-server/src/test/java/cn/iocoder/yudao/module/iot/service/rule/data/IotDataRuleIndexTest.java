@@ -0,0 +1,145 @@
+package cn.iocoder.yudao.module.iot.service.rule.data;
+
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataRuleDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link IotDataRuleIndex} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotDataRuleIndexTest {
+
+    private static final String METHOD_PROPERTY_POST = "thing.property.post";
+    private static final String METHOD_EVENT_POST = "thing.event.post";
+
+    @Test
+    public void testMatchDevice_identifier() {
+        // 准备参数：规则 1 不限 identifier，规则 2 指定 identifier
+        IotDataRuleDO rule01 = buildRule(1L, Collections.singletonList(11L),
+                buildSourceConfig(100L, 1000L, METHOD_PROPERTY_POST, null));
+        IotDataRuleDO rule02 = buildRule(2L, Collections.singletonList(11L),
+                buildSourceConfig(100L, 1000L, METHOD_PROPERTY_POST, "temperature"));
+        IotDataRuleIndex index = IotDataRuleIndex.of(Arrays.asList(rule01, rule02),
+                Collections.singletonList(buildSink(11L, CommonStatusEnum.ENABLE.getStatus())));
+
+        // 调用，并断言
+        assertTrue(index.containsDevice(1000L));
+        assertEquals(Arrays.asList(1L, 2L), getRuleIds(index.matchDevice(1000L, METHOD_PROPERTY_POST, "temperature")));
+        assertEquals(Collections.singletonList(1L), getRuleIds(index.matchDevice(1000L, METHOD_PROPERTY_POST, "humidity")));
+        assertEquals(Collections.singletonList(1L), getRuleIds(index.matchDevice(1000L, METHOD_PROPERTY_POST, null)));
+        assertTrue(index.matchDevice(1000L, METHOD_EVENT_POST, null).isEmpty());
+        assertTrue(index.matchDevice(2000L, METHOD_PROPERTY_POST, null).isEmpty());
+    }
+
+    @Test
+    public void testMatchDevice_mergeProduct() {
+        // 准备参数：规则 1 指定设备，规则 2 全部设备
+        IotDataRuleDO rule01 = buildRule(1L, Collections.singletonList(11L),
+                buildSourceConfig(100L, 1000L, METHOD_PROPERTY_POST, null));
+        IotDataRuleDO rule02 = buildRule(2L, Collections.singletonList(11L),
+                buildSourceConfig(100L, IotDeviceDO.DEVICE_ID_ALL, METHOD_PROPERTY_POST, null));
+        IotDataRuleIndex index = IotDataRuleIndex.of(Arrays.asList(rule01, rule02),
+                Collections.singletonList(buildSink(11L, CommonStatusEnum.ENABLE.getStatus())));
+
+        // 调用，并断言：指定设备的索引，合并了所属产品的规则
+        assertTrue(index.hasProductRules());
+        assertEquals(Arrays.asList(1L, 2L), getRuleIds(index.matchDevice(1000L, METHOD_PROPERTY_POST, null)));
+        // 调用，并断言：同产品的其它设备，只匹配全部设备的规则；其它产品不匹配
+        assertFalse(index.containsDevice(1001L));
+        assertEquals(Collections.singletonList(2L), getRuleIds(index.matchProduct(100L, METHOD_PROPERTY_POST, null)));
+        assertTrue(index.matchProduct(200L, METHOD_PROPERTY_POST, null).isEmpty());
+    }
+
+    @Test
+    public void testOf_filterDisabled() {
+        // 准备参数：规则 2 禁用；数据目的 12 禁用，数据目的 13 不存在
+        IotDataRuleDO rule01 = buildRule(1L, Arrays.asList(11L, 12L, 13L),
+                buildSourceConfig(100L, 1000L, METHOD_PROPERTY_POST, null));
+        IotDataRuleDO rule02 = buildRule(2L, Collections.singletonList(11L),
+                buildSourceConfig(100L, 1000L, METHOD_PROPERTY_POST, null))
+                .setStatus(CommonStatusEnum.DISABLE.getStatus());
+        IotDataRuleIndex index = IotDataRuleIndex.of(Arrays.asList(rule01, rule02), Arrays.asList(
+                buildSink(11L, CommonStatusEnum.ENABLE.getStatus()), buildSink(12L, CommonStatusEnum.DISABLE.getStatus())));
+
+        // 调用
+        List<IotDataRuleIndex.Rule> rules = index.matchDevice(1000L, METHOD_PROPERTY_POST, null);
+        // 断言
+        assertEquals(1, rules.size());
+        assertEquals(1L, rules.get(0).getId());
+        assertEquals(Collections.singletonList(11L), convertList(rules.get(0).getSinks(), IotDataSinkDO::getId));
+    }
+
+    @Test
+    public void testWithRule() {
+        // 准备参数
+        IotDataRuleDO rule01 = buildRule(1L, Collections.singletonList(11L),
+                buildSourceConfig(100L, 1000L, METHOD_PROPERTY_POST, null));
+        IotDataRuleIndex index = IotDataRuleIndex.of(Collections.singletonList(rule01),
+                Collections.singletonList(buildSink(11L, CommonStatusEnum.ENABLE.getStatus())));
+
+        // 调用：新增规则 2，引用新的数据目的 12
+        IotDataRuleDO rule02 = buildRule(2L, Collections.singletonList(12L),
+                buildSourceConfig(100L, 1000L, METHOD_PROPERTY_POST, null));
+        IotDataRuleIndex newIndex = index.withRule(2L, rule02,
+                Collections.singletonList(buildSink(12L, CommonStatusEnum.ENABLE.getStatus())));
+        // 断言：原索引不变
+        assertEquals(Collections.singletonList(1L), getRuleIds(index.matchDevice(1000L, METHOD_PROPERTY_POST, null)));
+        assertEquals(Arrays.asList(1L, 2L), getRuleIds(newIndex.matchDevice(1000L, METHOD_PROPERTY_POST, null)));
+
+        // 调用：删除规则 1
+        IotDataRuleIndex removedIndex = newIndex.withRule(1L, null, null);
+        // 断言
+        assertEquals(Collections.singletonList(2L), getRuleIds(removedIndex.matchDevice(1000L, METHOD_PROPERTY_POST, null)));
+        // 调用，并断言：删除不存在的规则，返回自身
+        assertSame(removedIndex, removedIndex.withRule(3L, null, null));
+    }
+
+    @Test
+    public void testWithSink() {
+        // 准备参数
+        IotDataRuleDO rule01 = buildRule(1L, Collections.singletonList(11L),
+                buildSourceConfig(100L, 1000L, METHOD_PROPERTY_POST, null));
+        IotDataRuleIndex index = IotDataRuleIndex.of(Collections.singletonList(rule01),
+                Collections.singletonList(buildSink(11L, CommonStatusEnum.ENABLE.getStatus())));
+
+        // 调用：禁用数据目的 11
+        IotDataRuleIndex newIndex = index.withSink(11L, buildSink(11L, CommonStatusEnum.DISABLE.getStatus()));
+        // 断言：规则仍然匹配，但是没有可执行的数据目的
+        List<IotDataRuleIndex.Rule> rules = newIndex.matchDevice(1000L, METHOD_PROPERTY_POST, null);
+        assertEquals(1, rules.size());
+        assertTrue(rules.get(0).getSinks().isEmpty());
+        // 调用，并断言：没有规则引用的数据目的，返回自身
+        assertSame(newIndex, newIndex.withSink(99L, null));
+    }
+
+    private static List<Long> getRuleIds(List<IotDataRuleIndex.Rule> rules) {
+        return convertList(rules, IotDataRuleIndex.Rule::getId);
+    }
+
+    private static IotDataRuleDO buildRule(Long id, List<Long> sinkIds, IotDataRuleDO.SourceConfig... sourceConfigs) {
+        return new IotDataRuleDO().setId(id).setStatus(CommonStatusEnum.ENABLE.getStatus())
+                .setSourceConfigs(Arrays.asList(sourceConfigs)).setSinkIds(sinkIds);
+    }
+
+    private static IotDataRuleDO.SourceConfig buildSourceConfig(Long productId, Long deviceId,
+                                                                String method, String identifier) {
+        return new IotDataRuleDO.SourceConfig().setProductId(productId).setDeviceId(deviceId)
+                .setMethod(method).setIdentifier(identifier);
+    }
+
+    private static IotDataSinkDO buildSink(Long id, Integer status) {
+        return new IotDataSinkDO().setId(id).setStatus(status);
+    }
+
+}
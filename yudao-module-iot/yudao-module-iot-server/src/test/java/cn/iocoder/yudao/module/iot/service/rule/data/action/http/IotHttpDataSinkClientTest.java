@@ -0,0 +1,269 @@
+package cn.iocoder.yudao.module.iot.service.rule.data.action.http;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotDataSinkDeadLetterDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.config.IotDataSinkHttpConfig;
+import cn.iocoder.yudao.module.iot.framework.iot.config.YudaoIotProperties;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link IotHttpDataSinkClient} 的单元测试
+ *
+ * 使用本地的 Vert.x {@link HttpServer} 作为数据流转目的
+ *
+ * @author 芋道源码
+ */
+public class IotHttpDataSinkClientTest {
+
+    private Vertx vertx;
+    private HttpClient httpClient;
+    private HttpServer httpServer;
+    /**
+     * 本地 HTTP 服务的请求处理器，每个测试单独设置
+     */
+    private volatile Handler<HttpServerRequest> requestHandler;
+
+    private YudaoIotProperties.DataSinkHttp properties;
+    private final List<IotDataSinkDeadLetterDO> deadLetters = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        httpClient = vertx.createHttpClient();
+        httpServer = vertx.createHttpServer().requestHandler(request -> requestHandler.handle(request))
+                .listen(0).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        properties = new YudaoIotProperties.DataSinkHttp();
+        properties.setRetryBackoff(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testSend_batch() throws Exception {
+        // 准备参数：每批 3 条，并发 1
+        IotHttpDataSinkClient client = createClient(new IotDataSinkHttpConfig().setBatchSize(3).setMaxConcurrency(1));
+        // mock 方法：第一个请求，等待其它消息进入队列后，再响应
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        CountDownLatch firstReceived = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch allReceived = new CountDownLatch(2);
+        requestHandler = request -> request.body().onSuccess(body -> {
+            bodies.add(body.toString());
+            if (bodies.size() == 1) {
+                firstReceived.countDown();
+                vertx.executeBlocking(() -> releaseFirst.await(5, TimeUnit.SECONDS), false)
+                        .onComplete(v -> request.response().end());
+            } else {
+                request.response().end();
+            }
+            allReceived.countDown();
+        });
+
+        // 调用
+        client.send(buildMessage(1L));
+        assertTrue(firstReceived.await(5, TimeUnit.SECONDS));
+        client.send(buildMessage(2L));
+        client.send(buildMessage(3L));
+        client.send(buildMessage(4L));
+        releaseFirst.countDown();
+        // 断言：第一个请求进行中时，后续的 3 条消息合并成一批
+        assertTrue(allReceived.await(5, TimeUnit.SECONDS));
+        assertEquals(1, getMessages(bodies.get(0)).size());
+        assertEquals(3, getMessages(bodies.get(1)).size());
+        assertTrue(deadLetters.isEmpty());
+    }
+
+    @Test
+    public void testSend_retry() throws Exception {
+        // 准备参数：最多重试 3 次
+        IotHttpDataSinkClient client = createClient(new IotDataSinkHttpConfig().setMaxRetries(3));
+        // mock 方法：前 2 次失败，第 3 次成功
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch succeeded = new CountDownLatch(1);
+        requestHandler = request -> request.body().onSuccess(body -> {
+            if (count.incrementAndGet() <= 2) {
+                request.response().setStatusCode(500).end("error");
+                return;
+            }
+            request.response().end();
+            succeeded.countDown();
+        });
+
+        // 调用
+        client.send(buildMessage(1L));
+        // 断言
+        assertTrue(succeeded.await(5, TimeUnit.SECONDS));
+        assertEquals(3, count.get());
+        assertTrue(deadLetters.isEmpty());
+    }
+
+    @Test
+    public void testSend_deadLetter() throws Exception {
+        // 准备参数：最多重试 1 次
+        IotHttpDataSinkClient client = createClient(new IotDataSinkHttpConfig().setMaxRetries(1));
+        // mock 方法：总是失败
+        AtomicInteger count = new AtomicInteger();
+        requestHandler = request -> {
+            count.incrementAndGet();
+            request.response().setStatusCode(503).end("unavailable");
+        };
+
+        // 调用
+        client.send(buildMessage(1L));
+        // 断言：尝试 2 次后，写入死信
+        IotDataSinkDeadLetterDO deadLetter = awaitDeadLetter();
+        assertEquals(2, count.get());
+        assertNotNull(deadLetter.getId());
+        assertEquals(2, deadLetter.getAttempts());
+        assertEquals(1, deadLetter.getMessageCount());
+        assertEquals(1L, deadLetter.getTenantId());
+        assertEquals("POST", deadLetter.getMethod());
+        assertTrue(deadLetter.getError().contains("503"));
+        assertEquals("application/json;charset=UTF-8", deadLetter.getHeaders().get("content-type"));
+    }
+
+    @Test
+    public void testSend_queueFull() throws Exception {
+        // 准备参数：队列容量 1，并发 1
+        properties.setQueueCapacity(1);
+        IotHttpDataSinkClient client = createClient(new IotDataSinkHttpConfig().setMaxConcurrency(1));
+        // mock 方法：请求一直不响应
+        CountDownLatch firstReceived = new CountDownLatch(1);
+        requestHandler = request -> firstReceived.countDown();
+
+        // 调用：第 1 条进行中，第 2 条在队列中，第 3 条队列已满
+        client.send(buildMessage(1L));
+        assertTrue(firstReceived.await(5, TimeUnit.SECONDS));
+        client.send(buildMessage(2L));
+        client.send(buildMessage(3L));
+        // 断言
+        IotDataSinkDeadLetterDO deadLetter = awaitDeadLetter();
+        assertEquals("队列已满", deadLetter.getError());
+        assertEquals(0, deadLetter.getAttempts());
+        assertEquals(3L, getMessage(deadLetter.getBody()).get("deviceId"));
+    }
+
+    @Test
+    public void testTrySend_closed() throws Exception {
+        // 准备参数
+        IotHttpDataSinkClient client = createClient(new IotDataSinkHttpConfig());
+        client.close();
+
+        // 调用，并断言：trySend 不写入死信，交给调用方使用新的客户端重试
+        assertFalse(client.trySend(buildMessage(1L)));
+        assertTrue(deadLetters.isEmpty());
+        // 调用，并断言：send 写入死信
+        client.send(buildMessage(2L));
+        assertEquals("客户端已关闭", awaitDeadLetter().getError());
+    }
+
+    @Test
+    public void testClose_drain() throws Exception {
+        // 准备参数：并发 1
+        IotHttpDataSinkClient client = createClient(new IotDataSinkHttpConfig().setMaxConcurrency(1));
+        // mock 方法：第一个请求，等待关闭后，再响应
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        CountDownLatch firstReceived = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        requestHandler = request -> request.body().onSuccess(body -> {
+            bodies.add(body.toString());
+            if (bodies.size() == 1) {
+                firstReceived.countDown();
+                vertx.executeBlocking(() -> releaseFirst.await(5, TimeUnit.SECONDS), false)
+                        .onComplete(v -> request.response().end());
+            } else {
+                request.response().end();
+            }
+        });
+        client.send(buildMessage(1L));
+        assertTrue(firstReceived.await(5, TimeUnit.SECONDS));
+        client.send(buildMessage(2L));
+        client.send(buildMessage(3L));
+
+        // 调用：队列中还有 2 条消息时关闭
+        Future<Void> closeFuture = client.close();
+        assertFalse(closeFuture.isComplete());
+        releaseFirst.countDown();
+        // 断言：剩余的消息继续发送，发送完成后关闭完成
+        closeFuture.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(3, bodies.size());
+        assertTrue(deadLetters.isEmpty());
+    }
+
+    @Test
+    public void testClose_timeout() throws Exception {
+        // 准备参数：并发 1，关闭最多等待 100 ms
+        properties.setCloseTimeout(Duration.ofMillis(100));
+        IotHttpDataSinkClient client = createClient(new IotDataSinkHttpConfig().setMaxConcurrency(1));
+        // mock 方法：请求一直不响应
+        CountDownLatch firstReceived = new CountDownLatch(1);
+        requestHandler = request -> firstReceived.countDown();
+        client.send(buildMessage(1L));
+        assertTrue(firstReceived.await(5, TimeUnit.SECONDS));
+        client.send(buildMessage(2L));
+
+        // 调用
+        client.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        // 断言：超时后，队列中剩余的消息写入死信，不会被丢弃
+        IotDataSinkDeadLetterDO deadLetter = awaitDeadLetter();
+        assertEquals("客户端关闭超时", deadLetter.getError());
+        assertEquals(2L, getMessage(deadLetter.getBody()).get("deviceId"));
+    }
+
+    // ========== 辅助方法 ==========
+
+    private IotHttpDataSinkClient createClient(IotDataSinkHttpConfig config) {
+        config.setUrl("http://127.0.0.1:" + httpServer.actualPort() + "/sink").setMethod("POST");
+        return new IotHttpDataSinkClient(vertx, httpClient, config, properties, deadLetters::add);
+    }
+
+    private IotDataSinkDeadLetterDO awaitDeadLetter() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (deadLetters.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(1, deadLetters.size());
+        return deadLetters.get(0);
+    }
+
+    private static IotDeviceMessage buildMessage(Long deviceId) {
+        return IotDeviceMessage.builder().id("MSG-" + deviceId).deviceId(deviceId).tenantId(1L)
+                .method("thing.property.post").build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getMessages(String body) {
+        return (List<Map<String, Object>>) JsonUtils.parseObject(body, Map.class).get("messages");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMessage(String body) {
+        Map<String, Object> message = (Map<String, Object>) JsonUtils.parseObject(body, Map.class).get("message");
+        // 数字反序列化为 Integer，统一转换成 Long 便于比较
+        message.put("deviceId", ((Number) message.get("deviceId")).longValue());
+        return message;
+    }
+
+}
@@ -6,9 +6,10 @@ import cn.iocoder.yudao.module.iot.controller.admin.rule.vo.scene.IotSceneRuleSa
 import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotSceneRuleDO;
 import cn.iocoder.yudao.module.iot.dal.mysql.rule.IotSceneRuleMapper;
 import cn.iocoder.yudao.module.iot.framework.job.core.IotSchedulerManager;
+import cn.iocoder.yudao.module.iot.mq.producer.rule.IotSceneRuleProducer;
 import cn.iocoder.yudao.module.iot.service.device.IotDeviceService;
-import cn.iocoder.yudao.module.iot.service.product.IotProductService;
 import cn.iocoder.yudao.module.iot.service.rule.scene.action.IotSceneRuleAction;
+import cn.iocoder.yudao.module.iot.service.rule.scene.timer.IotSceneRuleTimerHandler;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -44,10 +45,13 @@ public class IotSceneRuleServiceSimpleTest extends BaseMockitoUnitTest {
     private IotSchedulerManager schedulerManager;
 
     @Mock
-    private IotProductService productService;
+    private IotDeviceService deviceService;
 
     @Mock
-    private IotDeviceService deviceService;
+    private IotSceneRuleTimerHandler timerHandler;
+
+    @Mock
+    private IotSceneRuleProducer sceneRuleProducer;
 
     @Test
     public void testCreateScene_Rule_success() {
@@ -73,6 +77,7 @@ public class IotSceneRuleServiceSimpleTest extends BaseMockitoUnitTest {
         // 断言
         assertEquals(expectedId, sceneRuleId);
         verify(sceneRuleMapper, times(1)).insert(any(IotSceneRuleDO.class));
+        verify(sceneRuleProducer).sendSceneRuleRefreshMessage(eq(expectedId));
     }
 
     @Test
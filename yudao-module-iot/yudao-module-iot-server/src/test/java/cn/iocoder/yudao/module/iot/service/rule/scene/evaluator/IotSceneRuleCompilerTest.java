@@ -0,0 +1,684 @@
+package cn.iocoder.yudao.module.iot.service.rule.scene.evaluator;
+
+import cn.hutool.core.map.MapUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceMessageMethodEnum;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceStateEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotSceneRuleDO;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleConditionOperatorEnum;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleConditionTypeEnum;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleTriggerTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static cn.hutool.core.util.RandomUtil.randomBoolean;
+import static cn.hutool.core.util.RandomUtil.randomDouble;
+import static cn.hutool.core.util.RandomUtil.randomInt;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomString;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link IotSceneRuleCompiler} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotSceneRuleCompilerTest {
+
+    // ========== 触发器 ==========
+
+    @Test
+    public void testCompile_stateUpdate() {
+        // 准备参数：设备上线
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.EQUALS.getOperator(), IotDeviceStateEnum.ONLINE.getState().toString());
+
+        // 调用
+        IotSceneRuleCompiledTrigger compiledTrigger = compileOne(trigger);
+        // 断言
+        assertEquals(IotDeviceMessageMethodEnum.STATE_UPDATE.getMethod(), compiledTrigger.getMethod());
+        assertTrue(compiledTrigger.matches(buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+        assertFalse(compiledTrigger.matches(buildStateMessage(IotDeviceStateEnum.OFFLINE.getState())));
+    }
+
+    @Test
+    public void testCompile_propertyPost() {
+        // 准备参数：温度在 20~30 之间
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "temperature",
+                IotSceneRuleConditionOperatorEnum.BETWEEN.getOperator(), "20,30");
+
+        // 调用
+        IotSceneRuleCompiledTrigger compiledTrigger = compileOne(trigger);
+        // 断言：属性值从 params 中提取，支持数字和数字字符串
+        assertNull(compiledTrigger.getIdentifier());
+        assertTrue(compiledTrigger.matches(buildPropertyMessage(MapUtil.of("temperature", 25))));
+        assertTrue(compiledTrigger.matches(buildPropertyMessage(MapUtil.of("temperature", "30"))));
+        assertFalse(compiledTrigger.matches(buildPropertyMessage(MapUtil.of("temperature", 31.5))));
+        // 断言：消息中没有该属性
+        assertFalse(compiledTrigger.matches(buildPropertyMessage(MapUtil.of("humidity", 25))));
+    }
+
+    @Test
+    public void testCompile_eventPost() {
+        // 准备参数：未配置操作符，只要事件发生即匹配
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_EVENT_POST, "alarm", null, null);
+
+        // 调用
+        IotSceneRuleCompiledTrigger compiledTrigger = compileOne(trigger);
+        // 断言
+        assertEquals("alarm", compiledTrigger.getIdentifier());
+        assertTrue(compiledTrigger.matches(buildMessage(IotDeviceMessageMethodEnum.EVENT_POST.getMethod(),
+                MapUtil.of("identifier", "alarm"))));
+    }
+
+    @Test
+    public void testCompile_serviceInvoke() {
+        // 准备参数
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_SERVICE_INVOKE, "reboot", null, null);
+
+        // 调用
+        IotSceneRuleCompiledTrigger compiledTrigger = compileOne(trigger);
+        // 断言：只按照服务标识符索引，不再额外判断
+        assertEquals(IotDeviceMessageMethodEnum.SERVICE_INVOKE.getMethod(), compiledTrigger.getMethod());
+        assertEquals("reboot", compiledTrigger.getIdentifier());
+        assertTrue(compiledTrigger.matches(buildMessage(IotDeviceMessageMethodEnum.SERVICE_INVOKE.getMethod(),
+                MapUtil.of("identifier", "reboot"))));
+    }
+
+    @Test
+    public void testCompile_ignoreInvalid() {
+        // 准备参数：缺少操作符的属性触发器、缺少标识符的服务调用触发器、无效的类型
+        IotSceneRuleDO.Trigger propertyTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                "temperature", null, "30");
+        IotSceneRuleDO.Trigger serviceTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_SERVICE_INVOKE,
+                null, null, null);
+        IotSceneRuleDO.Trigger unknownTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                "temperature", IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "30").setType(-1);
+
+        // 调用
+        List<IotSceneRuleCompiledTrigger> compiledTriggers = IotSceneRuleCompiler.compile(
+                buildRule(propertyTrigger, serviceTrigger, unknownTrigger));
+        // 断言
+        assertTrue(compiledTriggers.isEmpty());
+    }
+
+    // ========== 条件 ==========
+
+    @Test
+    public void testCompile_conditionDeviceState() {
+        // 准备参数：设备状态 IN 在线、离线
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.NOT_NULL.getOperator(), "-");
+        trigger.setConditionGroups(Collections.singletonList(Collections.singletonList(
+                buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_STATE, null,
+                        IotSceneRuleConditionOperatorEnum.IN.getOperator(),
+                        IotDeviceStateEnum.ONLINE.getState() + "," + IotDeviceStateEnum.OFFLINE.getState()))));
+
+        // 调用
+        IotSceneRuleCompiledTrigger compiledTrigger = compileOne(trigger);
+        // 断言
+        assertTrue(compiledTrigger.matches(buildStateMessage(IotDeviceStateEnum.OFFLINE.getState())));
+        assertFalse(compiledTrigger.matches(buildStateMessage(IotDeviceStateEnum.INACTIVE.getState())));
+    }
+
+    @Test
+    public void testCompile_conditionDeviceProperty() {
+        // 准备参数：温度上报，且湿度 >= 60，且位置包含 "room"
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "temperature",
+                IotSceneRuleConditionOperatorEnum.NOT_NULL.getOperator(), "-");
+        trigger.setConditionGroups(Collections.singletonList(Arrays.asList(
+                buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_PROPERTY, "humidity",
+                        IotSceneRuleConditionOperatorEnum.GREATER_THAN_OR_EQUALS.getOperator(), "60"),
+                buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_PROPERTY, "location",
+                        IotSceneRuleConditionOperatorEnum.LIKE.getOperator(), "room"))));
+
+        // 调用
+        IotSceneRuleCompiledTrigger compiledTrigger = compileOne(trigger);
+        // 断言：同一分组的条件，需要全部满足
+        assertTrue(compiledTrigger.matches(buildPropertyMessage(MapUtil.<String, Object>builder()
+                .put("temperature", 25).put("humidity", 60).put("location", "room-01").build())));
+        assertFalse(compiledTrigger.matches(buildPropertyMessage(MapUtil.<String, Object>builder()
+                .put("temperature", 25).put("humidity", 59.9).put("location", "room-01").build())));
+        assertFalse(compiledTrigger.matches(buildPropertyMessage(MapUtil.<String, Object>builder()
+                .put("temperature", 25).put("humidity", 80).put("location", "hall").build())));
+    }
+
+    @Test
+    public void testCompile_conditionCurrentTime() {
+        // 准备参数：当前时间在 [1 小时前, 1 小时后] 之间
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.of("+8"));
+        IotSceneRuleDO.Trigger matchTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "temperature",
+                IotSceneRuleConditionOperatorEnum.NOT_NULL.getOperator(), "-");
+        matchTrigger.setConditionGroups(Collections.singletonList(Collections.singletonList(
+                buildCondition(IotSceneRuleConditionTypeEnum.CURRENT_TIME, null,
+                        IotSceneRuleConditionOperatorEnum.DATE_TIME_BETWEEN.getOperator(), (now - 3600) + "," + (now + 3600)))));
+        // 准备参数：当前时间晚于 1 小时后
+        IotSceneRuleDO.Trigger notMatchTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "temperature",
+                IotSceneRuleConditionOperatorEnum.NOT_NULL.getOperator(), "-");
+        notMatchTrigger.setConditionGroups(Collections.singletonList(Collections.singletonList(
+                buildCondition(IotSceneRuleConditionTypeEnum.CURRENT_TIME, null,
+                        IotSceneRuleConditionOperatorEnum.DATE_TIME_GREATER_THAN.getOperator(), String.valueOf(now + 3600)))));
+        IotDeviceMessage message = buildPropertyMessage(MapUtil.of("temperature", 25));
+
+        // 调用，并断言
+        assertTrue(compileOne(matchTrigger).matches(message));
+        assertFalse(compileOne(notMatchTrigger).matches(message));
+    }
+
+    @Test
+    public void testCompile_conditionInvalid() {
+        // 准备参数：时间格式无效的条件
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "temperature",
+                IotSceneRuleConditionOperatorEnum.NOT_NULL.getOperator(), "-");
+        trigger.setConditionGroups(Collections.singletonList(Collections.singletonList(
+                buildCondition(IotSceneRuleConditionTypeEnum.CURRENT_TIME, null,
+                        IotSceneRuleConditionOperatorEnum.TIME_BETWEEN.getOperator(), "9 点,18 点"))));
+
+        // 调用
+        IotSceneRuleCompiledTrigger compiledTrigger = compileOne(trigger);
+        // 断言：触发器仍然编译，但条件视为不满足
+        assertFalse(compiledTrigger.matches(buildPropertyMessage(MapUtil.of("temperature", 25))));
+    }
+
+    // ========== 触发器：设备状态更新 ==========
+
+    @Test
+    public void testMatch_stateUpdate_equals() {
+        // 准备参数
+        IotSceneRuleDO.Trigger onlineTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.EQUALS.getOperator(), IotDeviceStateEnum.ONLINE.getState().toString());
+        IotSceneRuleDO.Trigger offlineTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.EQUALS.getOperator(), IotDeviceStateEnum.OFFLINE.getState().toString());
+
+        // 调用，并断言
+        assertTrue(isMatched(onlineTrigger, buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+        assertTrue(isMatched(offlineTrigger, buildStateMessage(IotDeviceStateEnum.OFFLINE.getState())));
+        assertFalse(isMatched(offlineTrigger, buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+    }
+
+    @Test
+    public void testMatch_stateUpdate_operators() {
+        // 准备参数：离线（2） > 在线（1）；在线 != 离线
+        IotSceneRuleDO.Trigger greaterThanTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), IotDeviceStateEnum.ONLINE.getState().toString());
+        IotSceneRuleDO.Trigger notEqualsTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.NOT_EQUALS.getOperator(), IotDeviceStateEnum.OFFLINE.getState().toString());
+
+        // 调用，并断言
+        assertTrue(isMatched(greaterThanTrigger, buildStateMessage(IotDeviceStateEnum.OFFLINE.getState())));
+        assertFalse(isMatched(greaterThanTrigger, buildStateMessage(IotDeviceStateEnum.INACTIVE.getState())));
+        assertTrue(isMatched(notEqualsTrigger, buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+        assertFalse(isMatched(notEqualsTrigger, buildStateMessage(IotDeviceStateEnum.OFFLINE.getState())));
+    }
+
+    @Test
+    public void testMatch_stateUpdate_invalid() {
+        // 准备参数
+        String online = IotDeviceStateEnum.ONLINE.getState().toString();
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.EQUALS.getOperator(), online);
+        IotDeviceMessage message = buildStateMessage(IotDeviceStateEnum.ONLINE.getState());
+
+        // 调用，并断言：消息方法不匹配
+        assertFalse(isMatched(trigger, buildPropertyMessage(MapUtil.of("state", IotDeviceStateEnum.ONLINE.getState()))));
+        // 调用，并断言：消息的 params 为空
+        assertFalse(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.STATE_UPDATE.getMethod(), null)));
+        // 调用，并断言：触发器缺少操作符、值
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null, null, online), message));
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.EQUALS.getOperator(), null), message));
+        // 调用，并断言：触发器为空、类型为空
+        assertFalse(isMatched(null, message));
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_STATE_UPDATE, null,
+                IotSceneRuleConditionOperatorEnum.EQUALS.getOperator(), online).setType(null), message));
+    }
+
+    // ========== 触发器：属性上报 ==========
+
+    @Test
+    public void testMatch_propertyPost_operators() {
+        // 准备参数
+        IotDeviceMessage message = buildPropertyMessage(MapUtil.<String, Object>builder()
+                .put("temperature", 25.5).put("humidity", 15.0).put("count", 42)
+                .put("mode", "auto").put(randomString(), randomString()).build());
+
+        // 调用，并断言：数字比较
+        assertTrue(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "temperature",
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "20"), message));
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "humidity",
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "20"), message));
+        assertTrue(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "humidity",
+                IotSceneRuleConditionOperatorEnum.LESS_THAN.getOperator(), "20"), message));
+        assertTrue(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "count",
+                IotSceneRuleConditionOperatorEnum.EQUALS.getOperator(), "42"), message));
+        // 调用，并断言：字符串比较
+        assertTrue(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "mode",
+                IotSceneRuleConditionOperatorEnum.NOT_EQUALS.getOperator(), "manual"), message));
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "mode",
+                IotSceneRuleConditionOperatorEnum.NOT_EQUALS.getOperator(), "auto"), message));
+    }
+
+    @Test
+    public void testMatch_propertyPost_invalid() {
+        // 准备参数
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, "temperature",
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), String.valueOf(randomInt()));
+        Map<String, Object> params = MapUtil.of("temperature", 25.5);
+
+        // 调用，并断言：属性不存在
+        assertFalse(isMatched(trigger, buildPropertyMessage(MapUtil.of(randomString(), randomDouble()))));
+        // 调用，并断言：消息方法不匹配
+        assertFalse(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.STATE_UPDATE.getMethod(), params)));
+        // 调用，并断言：消息的 params 为空、不是 Map 类型
+        assertFalse(isMatched(trigger, buildPropertyMessage(null)));
+        assertFalse(isMatched(trigger, buildPropertyMessage(randomString())));
+        // 调用，并断言：触发器缺少标识符
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, null,
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "20"), buildPropertyMessage(params)));
+    }
+
+    // ========== 触发器：事件上报 ==========
+
+    @Test
+    public void testMatch_eventPost() {
+        // 准备参数
+        String identifier = randomString();
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_EVENT_POST, identifier, null, null);
+
+        // 调用，并断言：不同的事件值，只要事件发生即匹配
+        assertTrue(isMatched(trigger, buildEventMessage(identifier, MapUtil.<String, Object>builder()
+                .put("level", randomString()).put("message", randomString()).build())));
+        assertTrue(isMatched(trigger, buildEventMessage(identifier, MapUtil.<String, Object>builder()
+                .put("code", randomInt()).put("timestamp", System.currentTimeMillis()).build())));
+        assertTrue(isMatched(trigger, buildEventMessage(identifier, MapUtil.<String, Object>builder()
+                .put("type", randomString()).put("components", new String[]{randomString(), randomString()}).build())));
+        assertTrue(isMatched(trigger, buildEventMessage(identifier, Collections.emptyMap())));
+    }
+
+    @Test
+    public void testMatch_eventPost_invalid() {
+        // 准备参数
+        String identifier = randomString().toUpperCase();
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_EVENT_POST, identifier, null, null);
+        Map<String, Object> value = MapUtil.of("level", randomString());
+
+        // 调用，并断言：标识符不匹配，且区分大小写
+        assertFalse(isMatched(trigger, buildEventMessage(randomString(), value)));
+        assertFalse(isMatched(trigger, buildEventMessage(identifier.toLowerCase(), value)));
+        // 调用，并断言：消息方法不匹配
+        assertFalse(isMatched(trigger, buildPropertyMessage(MapUtil.<String, Object>builder()
+                .put("identifier", identifier).put("value", value).build())));
+        // 调用，并断言：消息的 params 为空、不是 Map 类型、缺少 identifier
+        assertFalse(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.EVENT_POST.getMethod(), null)));
+        assertFalse(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.EVENT_POST.getMethod(), randomString())));
+        assertFalse(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.EVENT_POST.getMethod(),
+                MapUtil.of("value", value))));
+        // 调用，并断言：触发器缺少标识符、类型为空
+        IotDeviceMessage message = buildEventMessage(identifier, value);
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_EVENT_POST, null, null, null), message));
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_EVENT_POST, identifier, null, null)
+                .setType(null), message));
+    }
+
+    // ========== 触发器：服务调用 ==========
+
+    @Test
+    public void testMatch_serviceInvoke() {
+        // 准备参数
+        String identifier = randomString();
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_SERVICE_INVOKE, identifier, null, null);
+
+        // 调用，并断言：不同的输入参数，只要服务标识符一致即匹配
+        assertTrue(isMatched(trigger, buildServiceMessage(identifier, MapUtil.of("mode", randomString()))));
+        assertTrue(isMatched(trigger, buildServiceMessage(identifier, MapUtil.<String, Object>builder()
+                .put("interval", randomInt()).put("enabled", randomBoolean()).put("threshold", randomDouble()).build())));
+        assertTrue(isMatched(trigger, buildServiceMessage(identifier, MapUtil.<String, Object>builder()
+                .put("sensors", new String[]{randomString(), randomString()})
+                .put("config", MapUtil.of("level", randomString())).build())));
+        assertTrue(isMatched(trigger, buildServiceMessage(identifier, Collections.emptyMap())));
+        assertTrue(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.SERVICE_INVOKE.getMethod(),
+                MapUtil.of("identifier", identifier))));
+    }
+
+    @Test
+    public void testMatch_serviceInvoke_invalid() {
+        // 准备参数
+        String identifier = randomString().toUpperCase();
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_SERVICE_INVOKE, identifier, null, null);
+        Map<String, Object> inputData = MapUtil.of("mode", randomString());
+
+        // 调用，并断言：标识符不匹配，且区分大小写
+        assertFalse(isMatched(trigger, buildServiceMessage(randomString(), inputData)));
+        assertFalse(isMatched(trigger, buildServiceMessage(identifier.toLowerCase(), inputData)));
+        // 调用，并断言：消息方法不匹配
+        assertFalse(isMatched(trigger, buildPropertyMessage(MapUtil.<String, Object>builder()
+                .put("identifier", identifier).put("inputData", inputData).build())));
+        // 调用，并断言：消息的 params 为空、不是 Map 类型、缺少 identifier
+        assertFalse(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.SERVICE_INVOKE.getMethod(), null)));
+        assertFalse(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.SERVICE_INVOKE.getMethod(), randomString())));
+        assertFalse(isMatched(trigger, buildMessage(IotDeviceMessageMethodEnum.SERVICE_INVOKE.getMethod(),
+                MapUtil.of("inputData", inputData))));
+        // 调用，并断言：触发器为空、类型为空
+        IotDeviceMessage message = buildServiceMessage(identifier, inputData);
+        assertFalse(isMatched(null, message));
+        assertFalse(isMatched(buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_SERVICE_INVOKE, identifier, null, null)
+                .setType(null), message));
+    }
+
+    // ========== 触发器：定时触发 ==========
+
+    @Test
+    public void testCompile_timer() {
+        // 准备参数：定时触发器由 IotSceneRuleTimerHandler 调度，参见 IotSceneRuleTimerHandlerTest
+        IotSceneRuleDO.Trigger trigger = new IotSceneRuleDO.Trigger()
+                .setType(IotSceneRuleTriggerTypeEnum.TIMER.getType()).setCronExpression("0 * * * * ?");
+
+        // 调用
+        List<IotSceneRuleCompiledTrigger> compiledTriggers = IotSceneRuleCompiler.compile(buildRule(trigger));
+        // 断言：不依赖设备消息，所以不编译
+        assertTrue(compiledTriggers.isEmpty());
+    }
+
+    // ========== 条件：设备属性 ==========
+
+    @Test
+    public void testMatchCondition_property_operators() {
+        // 准备参数
+        IotDeviceMessage message = buildPropertyMessage(MapUtil.<String, Object>builder()
+                .put("temperature", 25.5).put("humidity", 75).put("pressure", 1010.5).put("voltage", 12.0)
+                .put("current", 2.5).put("status", "active").put("mode", "auto").put("enabled", true).build());
+
+        // 调用，并断言：满足
+        assertTrue(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.EQUALS, "25.5"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("humidity", IotSceneRuleConditionOperatorEnum.GREATER_THAN, "70"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("pressure", IotSceneRuleConditionOperatorEnum.LESS_THAN, "1020"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("voltage", IotSceneRuleConditionOperatorEnum.GREATER_THAN_OR_EQUALS, "12.0"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("current", IotSceneRuleConditionOperatorEnum.LESS_THAN_OR_EQUALS, "3.0"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("status", IotSceneRuleConditionOperatorEnum.NOT_EQUALS, "inactive"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("mode", IotSceneRuleConditionOperatorEnum.EQUALS, "auto"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("enabled", IotSceneRuleConditionOperatorEnum.EQUALS, "true"), message));
+        // 调用，并断言：不满足
+        assertFalse(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.GREATER_THAN, "30"), message));
+        assertFalse(matchesCondition(buildPropertyCondition("humidity", IotSceneRuleConditionOperatorEnum.LESS_THAN_OR_EQUALS, "74.9"), message));
+    }
+
+    @Test
+    public void testMatchCondition_property_inAndBetween() {
+        // 准备参数
+        IotDeviceMessage message = buildPropertyMessage(MapUtil.<String, Object>builder()
+                .put("temperature", 25).put("mode", "auto").put("location", "room-01").put("remark", "").build());
+
+        // 调用，并断言：IN、NOT_IN
+        assertTrue(matchesCondition(buildPropertyCondition("mode", IotSceneRuleConditionOperatorEnum.IN, "auto, manual"), message));
+        assertFalse(matchesCondition(buildPropertyCondition("mode", IotSceneRuleConditionOperatorEnum.IN, "manual,off"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("mode", IotSceneRuleConditionOperatorEnum.NOT_IN, "manual,off"), message));
+        assertFalse(matchesCondition(buildPropertyCondition("mode", IotSceneRuleConditionOperatorEnum.NOT_IN, "auto,off"), message));
+        // 调用，并断言：BETWEEN、NOT_BETWEEN，边界值包含在区间内
+        assertTrue(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.BETWEEN, "20,30"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.BETWEEN, "25,30"), message));
+        assertFalse(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.BETWEEN, "26,30"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.NOT_BETWEEN, "26,30"), message));
+        assertFalse(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.NOT_BETWEEN, "20,25"), message));
+        // 调用，并断言：区间参数不完整
+        assertFalse(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.BETWEEN, "20"), message));
+        // 调用，并断言：数字比较，而不是字符串比较（字符串比较时 "100" < "25"）
+        assertTrue(matchesCondition(buildPropertyCondition("temperature", IotSceneRuleConditionOperatorEnum.LESS_THAN, "100"), message));
+        // 调用，并断言：LIKE、NOT_NULL
+        assertTrue(matchesCondition(buildPropertyCondition("location", IotSceneRuleConditionOperatorEnum.LIKE, "room"), message));
+        assertFalse(matchesCondition(buildPropertyCondition("location", IotSceneRuleConditionOperatorEnum.LIKE, "hall"), message));
+        assertTrue(matchesCondition(buildPropertyCondition("location", IotSceneRuleConditionOperatorEnum.NOT_NULL, "-"), message));
+        assertFalse(matchesCondition(buildPropertyCondition("remark", IotSceneRuleConditionOperatorEnum.NOT_NULL, "-"), message));
+    }
+
+    @Test
+    public void testMatchCondition_property_messageStructure() {
+        // 准备参数
+        IotSceneRuleDO.TriggerCondition condition = buildPropertyCondition("temperature",
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN, "20");
+
+        // 调用，并断言：params.properties[identifier]
+        assertTrue(matchesCondition(condition, buildPropertyMessage(
+                MapUtil.of("properties", MapUtil.of("temperature", 25.5)))));
+        // 调用，并断言：事件上报的 params.identifier + params.value
+        assertTrue(matchesCondition(condition, buildMessage(IotDeviceMessageMethodEnum.EVENT_POST.getMethod(),
+                MapUtil.<String, Object>builder().put("identifier", "temperature").put("value", 25.5).build())));
+        // 调用，并断言：事件上报的 params.identifier + params[identifier]，但标识符不一致
+        assertFalse(matchesCondition(buildPropertyCondition("humidity", IotSceneRuleConditionOperatorEnum.EQUALS, "25.5"),
+                buildMessage(IotDeviceMessageMethodEnum.EVENT_POST.getMethod(), MapUtil.<String, Object>builder()
+                        .put("identifier", "temperature").put("temperature", 25.5).build())));
+        // 调用，并断言：params 直接是属性值，无法对应到属性标识符
+        assertFalse(matchesCondition(condition, buildPropertyMessage(25.5)));
+        // 调用，并断言：params 为空
+        assertFalse(matchesCondition(condition, buildPropertyMessage(null)));
+    }
+
+    @Test
+    public void testMatchCondition_property_invalid() {
+        // 准备参数
+        IotDeviceMessage message = buildPropertyMessage(MapUtil.of("temperature", 25.5));
+
+        // 调用，并断言：缺少标识符、操作符、参数
+        assertFalse(matchesCondition(buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_PROPERTY, null,
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "20"), message));
+        assertFalse(matchesCondition(buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_PROPERTY, "temperature",
+                null, "20"), message));
+        assertFalse(matchesCondition(buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_PROPERTY, "temperature",
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), null), message));
+        // 调用，并断言：条件为空、类型为空
+        assertFalse(matchesCondition(null, message));
+        assertFalse(matchesCondition(new IotSceneRuleDO.TriggerCondition(), message));
+        // 调用，并断言：消息为空
+        assertFalse(compileOne(buildConditionTrigger(buildPropertyCondition("temperature",
+                IotSceneRuleConditionOperatorEnum.GREATER_THAN, "20"))).matches(null));
+    }
+
+    // ========== 条件：设备状态 ==========
+
+    @Test
+    public void testMatchCondition_state_operators() {
+        // 准备参数
+        String inactive = IotDeviceStateEnum.INACTIVE.getState().toString();
+        String online = IotDeviceStateEnum.ONLINE.getState().toString();
+        String offline = IotDeviceStateEnum.OFFLINE.getState().toString();
+
+        // 调用，并断言：EQUALS
+        assertTrue(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.EQUALS, online),
+                buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+        assertTrue(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.EQUALS, offline),
+                buildStateMessage(IotDeviceStateEnum.OFFLINE.getState())));
+        assertTrue(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.EQUALS, inactive),
+                buildStateMessage(IotDeviceStateEnum.INACTIVE.getState())));
+        assertFalse(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.EQUALS, offline),
+                buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+        // 调用，并断言：NOT_EQUALS、大小比较
+        assertTrue(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.NOT_EQUALS, offline),
+                buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+        assertTrue(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.GREATER_THAN, online),
+                buildStateMessage(IotDeviceStateEnum.OFFLINE.getState())));
+        assertTrue(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.LESS_THAN, online),
+                buildStateMessage(IotDeviceStateEnum.INACTIVE.getState())));
+        assertTrue(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.GREATER_THAN_OR_EQUALS, online),
+                buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+        assertTrue(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.LESS_THAN_OR_EQUALS, offline),
+                buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+        // 调用，并断言：NOT_IN
+        assertFalse(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.NOT_IN, online + "," + offline),
+                buildStateMessage(IotDeviceStateEnum.ONLINE.getState())));
+    }
+
+    @Test
+    public void testMatchCondition_state_invalid() {
+        // 准备参数
+        String online = IotDeviceStateEnum.ONLINE.getState().toString();
+        IotDeviceMessage message = buildStateMessage(IotDeviceStateEnum.ONLINE.getState());
+
+        // 调用，并断言：缺少操作符、参数；无效的操作符、参数
+        assertFalse(matchesCondition(buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_STATE, null, null, online), message));
+        assertFalse(matchesCondition(buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_STATE, null,
+                IotSceneRuleConditionOperatorEnum.EQUALS.getOperator(), null), message));
+        assertFalse(matchesCondition(buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_STATE, null,
+                randomString(), online), message));
+        assertFalse(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.EQUALS, randomString()), message));
+        // 调用，并断言：消息的 params 为空
+        assertFalse(matchesCondition(buildStateCondition(IotSceneRuleConditionOperatorEnum.EQUALS, online),
+                buildMessage(IotDeviceMessageMethodEnum.STATE_UPDATE.getMethod(), null)));
+    }
+
+    // ========== 条件：当前时间 ==========
+
+    @Test
+    public void testMatchCondition_currentTime_dateTime() {
+        // 准备参数
+        long now = LocalDateTime.now().toEpochSecond(ZoneOffset.of("+8"));
+        IotDeviceMessage message = buildPropertyMessage(MapUtil.of("temperature", 25));
+
+        // 调用，并断言：DATE_TIME_GREATER_THAN
+        assertTrue(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.DATE_TIME_GREATER_THAN,
+                String.valueOf(now - 3600)), message));
+        assertFalse(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.DATE_TIME_GREATER_THAN,
+                String.valueOf(now + 3600)), message));
+        // 调用，并断言：DATE_TIME_LESS_THAN
+        assertTrue(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.DATE_TIME_LESS_THAN,
+                String.valueOf(now + 3600)), message));
+        assertFalse(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.DATE_TIME_LESS_THAN,
+                String.valueOf(now - 3600)), message));
+        // 调用，并断言：DATE_TIME_BETWEEN
+        assertTrue(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.DATE_TIME_BETWEEN,
+                (now - 3600) + "," + (now + 3600)), message));
+        assertFalse(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.DATE_TIME_BETWEEN,
+                (now + 3600) + "," + (now + 7200)), message));
+    }
+
+    @Test
+    public void testMatchCondition_currentTime_time() {
+        // 准备参数
+        IotDeviceMessage message = buildPropertyMessage(MapUtil.of("temperature", 25));
+
+        // 调用，并断言：TIME_BETWEEN 全天
+        assertTrue(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.TIME_BETWEEN,
+                "00:00:00,23:59:59"), message));
+        // 调用，并断言：TIME_GREATER_THAN、TIME_LESS_THAN，结果取决于当前时间
+        boolean afterSix = LocalTime.now().isAfter(LocalTime.of(6, 0));
+        assertEquals(afterSix, matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.TIME_GREATER_THAN,
+                "06:00:00"), message));
+        assertEquals(!afterSix, matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.TIME_LESS_THAN,
+                "06:00"), message));
+        // 调用，并断言：TIME_BETWEEN 工作时间，结果取决于当前时间
+        LocalTime now = LocalTime.now();
+        boolean workingHours = !now.isBefore(LocalTime.of(9, 0)) && !now.isAfter(LocalTime.of(17, 0));
+        assertEquals(workingHours, matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.TIME_BETWEEN,
+                "09:00:00,17:00:00"), message));
+    }
+
+    @Test
+    public void testMatchCondition_currentTime_invalid() {
+        // 准备参数
+        IotDeviceMessage message = buildPropertyMessage(MapUtil.of("temperature", 25));
+
+        // 调用，并断言：无效的操作符
+        assertFalse(matchesCondition(buildCondition(IotSceneRuleConditionTypeEnum.CURRENT_TIME, null,
+                randomString(), "12:00:00"), message));
+        // 调用，并断言：时间、时间戳格式无效
+        assertFalse(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.TIME_GREATER_THAN,
+                randomString()), message));
+        assertFalse(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.DATE_TIME_GREATER_THAN,
+                randomString()), message));
+        // 调用，并断言：区间缺少结束时间
+        assertFalse(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.TIME_BETWEEN,
+                "09:00:00"), message));
+        // 调用，并断言：值比较的操作符，不用于当前时间条件
+        assertFalse(matchesCondition(buildTimeCondition(IotSceneRuleConditionOperatorEnum.GREATER_THAN,
+                "0"), message));
+    }
+
+    // ========== 辅助方法 ==========
+
+    /**
+     * 通过 {@link IotSceneRuleIndex} 匹配消息，包括消息方法、标识符的索引
+     */
+    private static boolean isMatched(IotSceneRuleDO.Trigger trigger, IotDeviceMessage message) {
+        IotSceneRuleIndex index = IotSceneRuleIndex.of(Collections.singletonList(buildRule(trigger)));
+        return !index.match(message, 100L).isEmpty();
+    }
+
+    /**
+     * 匹配单个条件：触发器本身总是满足，只判断条件
+     */
+    private static boolean matchesCondition(IotSceneRuleDO.TriggerCondition condition, IotDeviceMessage message) {
+        return compileOne(buildConditionTrigger(condition)).matches(message);
+    }
+
+    private static IotSceneRuleDO.Trigger buildConditionTrigger(IotSceneRuleDO.TriggerCondition condition) {
+        return buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_SERVICE_INVOKE, "reboot", null, null)
+                .setConditionGroups(Collections.singletonList(Collections.singletonList(condition)));
+    }
+
+    private static IotSceneRuleCompiledTrigger compileOne(IotSceneRuleDO.Trigger trigger) {
+        List<IotSceneRuleCompiledTrigger> compiledTriggers = IotSceneRuleCompiler.compile(buildRule(trigger));
+        assertEquals(1, compiledTriggers.size());
+        return compiledTriggers.get(0);
+    }
+
+    private static IotSceneRuleDO buildRule(IotSceneRuleDO.Trigger... triggers) {
+        return new IotSceneRuleDO().setId(1L).setStatus(CommonStatusEnum.ENABLE.getStatus())
+                .setTriggers(Arrays.asList(triggers)).setActions(Collections.emptyList());
+    }
+
+    private static IotSceneRuleDO.Trigger buildTrigger(IotSceneRuleTriggerTypeEnum type, String identifier,
+                                                       String operator, String value) {
+        return new IotSceneRuleDO.Trigger().setType(type.getType()).setProductId(100L).setDeviceId(1000L)
+                .setIdentifier(identifier).setOperator(operator).setValue(value);
+    }
+
+    private static IotSceneRuleDO.TriggerCondition buildCondition(IotSceneRuleConditionTypeEnum type, String identifier,
+                                                                  String operator, String param) {
+        return new IotSceneRuleDO.TriggerCondition().setType(type.getType())
+                .setIdentifier(identifier).setOperator(operator).setParam(param);
+    }
+
+    private static IotSceneRuleDO.TriggerCondition buildPropertyCondition(String identifier,
+                                                                          IotSceneRuleConditionOperatorEnum operator,
+                                                                          String param) {
+        return buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_PROPERTY, identifier, operator.getOperator(), param);
+    }
+
+    private static IotSceneRuleDO.TriggerCondition buildStateCondition(IotSceneRuleConditionOperatorEnum operator,
+                                                                       String param) {
+        return buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_STATE, null, operator.getOperator(), param);
+    }
+
+    private static IotSceneRuleDO.TriggerCondition buildTimeCondition(IotSceneRuleConditionOperatorEnum operator,
+                                                                      String param) {
+        return buildCondition(IotSceneRuleConditionTypeEnum.CURRENT_TIME, null, operator.getOperator(), param);
+    }
+
+    private static IotDeviceMessage buildStateMessage(Integer state) {
+        return buildMessage(IotDeviceMessageMethodEnum.STATE_UPDATE.getMethod(), MapUtil.of("state", state));
+    }
+
+    private static IotDeviceMessage buildPropertyMessage(Object params) {
+        return buildMessage(IotDeviceMessageMethodEnum.PROPERTY_POST.getMethod(), params);
+    }
+
+    private static IotDeviceMessage buildEventMessage(String identifier, Object value) {
+        return buildMessage(IotDeviceMessageMethodEnum.EVENT_POST.getMethod(), MapUtil.<String, Object>builder()
+                .put("identifier", identifier).put("value", value).build());
+    }
+
+    private static IotDeviceMessage buildServiceMessage(String identifier, Object inputData) {
+        return buildMessage(IotDeviceMessageMethodEnum.SERVICE_INVOKE.getMethod(), MapUtil.<String, Object>builder()
+                .put("identifier", identifier).put("inputData", inputData).build());
+    }
+
+    private static IotDeviceMessage buildMessage(String method, Object params) {
+        return IotDeviceMessage.builder().deviceId(1000L).method(method).params(params).build();
+    }
+
+}
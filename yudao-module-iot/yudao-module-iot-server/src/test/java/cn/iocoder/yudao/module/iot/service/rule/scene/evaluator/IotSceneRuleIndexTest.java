@@ -0,0 +1,182 @@
+package cn.iocoder.yudao.module.iot.service.rule.scene.evaluator;
+
+import cn.hutool.core.map.MapUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.iot.core.enums.IotDeviceMessageMethodEnum;
+import cn.iocoder.yudao.module.iot.core.mq.message.IotDeviceMessage;
+import cn.iocoder.yudao.module.iot.dal.dataobject.device.IotDeviceDO;
+import cn.iocoder.yudao.module.iot.dal.dataobject.rule.IotSceneRuleDO;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleConditionOperatorEnum;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleConditionTypeEnum;
+import cn.iocoder.yudao.module.iot.enums.rule.IotSceneRuleTriggerTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link IotSceneRuleIndex} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class IotSceneRuleIndexTest {
+
+    @Test
+    public void testMatch_propertyPost() {
+        // 准备参数：温度 > 30
+        IotSceneRuleDO rule = buildRule(1L, buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                100L, 1000L, "temperature", IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "30"));
+        IotSceneRuleIndex index = IotSceneRuleIndex.of(Collections.singletonList(rule));
+
+        // 调用，并断言：满足
+        assertEquals(Collections.singletonList(1L), getRuleIds(index.match(
+                buildPropertyMessage(1000L, MapUtil.of("temperature", 35)), 100L)));
+        // 调用，并断言：不满足
+        assertTrue(index.match(buildPropertyMessage(1000L, MapUtil.of("temperature", 25)), 100L).isEmpty());
+        // 调用，并断言：其它设备
+        assertTrue(index.match(buildPropertyMessage(1001L, MapUtil.of("temperature", 35)), 100L).isEmpty());
+    }
+
+    @Test
+    public void testMatch_deviceIdAll() {
+        // 准备参数：产品 100 的全部设备
+        IotSceneRuleDO rule = buildRule(1L, buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                100L, IotDeviceDO.DEVICE_ID_ALL, "temperature", IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "30"));
+        IotSceneRuleIndex index = IotSceneRuleIndex.of(Collections.singletonList(rule));
+        IotDeviceMessage message = buildPropertyMessage(1001L, MapUtil.of("temperature", 35));
+
+        // 调用，并断言：同产品的设备匹配，其它产品的设备不匹配
+        assertEquals(Collections.singletonList(1L), getRuleIds(index.match(message, 100L)));
+        assertTrue(index.match(message, 200L).isEmpty());
+    }
+
+    @Test
+    public void testMatch_eventPostIdentifier() {
+        // 准备参数
+        IotSceneRuleDO rule = buildRule(1L, buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_EVENT_POST,
+                100L, 1000L, "alarm", null, null));
+        IotSceneRuleIndex index = IotSceneRuleIndex.of(Collections.singletonList(rule));
+
+        // 调用，并断言
+        assertEquals(Collections.singletonList(1L), getRuleIds(index.match(buildMessage(1000L,
+                IotDeviceMessageMethodEnum.EVENT_POST.getMethod(), MapUtil.of("identifier", "alarm")), 100L)));
+        assertTrue(index.match(buildMessage(1000L,
+                IotDeviceMessageMethodEnum.EVENT_POST.getMethod(), MapUtil.of("identifier", "fault")), 100L).isEmpty());
+    }
+
+    @Test
+    public void testMatch_conditionGroups() {
+        // 准备参数：温度上报，且（湿度 < 50 或 湿度在 90~100 之间）
+        IotSceneRuleDO.Trigger trigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                100L, 1000L, "temperature", IotSceneRuleConditionOperatorEnum.NOT_NULL.getOperator(), "-");
+        trigger.setConditionGroups(Arrays.asList(
+                Collections.singletonList(buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_PROPERTY,
+                        "humidity", IotSceneRuleConditionOperatorEnum.LESS_THAN.getOperator(), "50")),
+                Collections.singletonList(buildCondition(IotSceneRuleConditionTypeEnum.DEVICE_PROPERTY,
+                        "humidity", IotSceneRuleConditionOperatorEnum.BETWEEN.getOperator(), "90,100"))));
+        IotSceneRuleIndex index = IotSceneRuleIndex.of(Collections.singletonList(buildRule(1L, trigger)));
+
+        // 调用，并断言：满足第一组
+        assertEquals(1, index.match(buildPropertyMessage(1000L,
+                MapUtil.builder().put("temperature", (Object) 20).put("humidity", 40).build()), 100L).size());
+        // 调用，并断言：满足第二组
+        assertEquals(1, index.match(buildPropertyMessage(1000L,
+                MapUtil.builder().put("temperature", (Object) 20).put("humidity", 95).build()), 100L).size());
+        // 调用，并断言：都不满足
+        assertTrue(index.match(buildPropertyMessage(1000L,
+                MapUtil.builder().put("temperature", (Object) 20).put("humidity", 60).build()), 100L).isEmpty());
+    }
+
+    @Test
+    public void testMatch_distinctRule() {
+        // 准备参数：同一个场景联动的两个触发器，都会匹配
+        IotSceneRuleDO rule = buildRule(1L,
+                buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, 100L, 1000L, "temperature",
+                        IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "30"),
+                buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST, 100L, IotDeviceDO.DEVICE_ID_ALL, "temperature",
+                        IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "20"));
+        IotSceneRuleIndex index = IotSceneRuleIndex.of(Collections.singletonList(rule));
+
+        // 调用，并断言：只返回一次
+        assertEquals(Collections.singletonList(1L), getRuleIds(index.match(
+                buildPropertyMessage(1000L, MapUtil.of("temperature", 35)), 100L)));
+    }
+
+    @Test
+    public void testWithRule() {
+        // 准备参数
+        IotSceneRuleDO rule01 = buildRule(1L, buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                100L, 1000L, "temperature", IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "30"));
+        IotSceneRuleIndex index = IotSceneRuleIndex.of(Collections.singletonList(rule01));
+        IotDeviceMessage message = buildPropertyMessage(1000L, MapUtil.of("temperature", 35));
+
+        // 调用：新增规则 2
+        IotSceneRuleDO rule02 = buildRule(2L, buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                100L, 1000L, "temperature", IotSceneRuleConditionOperatorEnum.LESS_THAN.getOperator(), "40"));
+        IotSceneRuleIndex newIndex = index.withRule(2L, rule02);
+        // 断言：原索引不变
+        assertEquals(Collections.singletonList(1L), getRuleIds(index.match(message, 100L)));
+        assertEquals(Arrays.asList(1L, 2L), getRuleIds(newIndex.match(message, 100L)));
+
+        // 调用：禁用规则 1、删除规则 2
+        newIndex = newIndex.withRule(1L, rule01.setStatus(CommonStatusEnum.DISABLE.getStatus())).withRule(2L, null);
+        // 断言
+        assertTrue(newIndex.isEmpty());
+        // 调用，并断言：移除不存在的规则，返回原索引
+        assertSame(newIndex, newIndex.withRule(3L, null));
+    }
+
+    @Test
+    public void testOf_ignoreInvalid() {
+        // 准备参数：定时触发器、缺少设备的触发器、禁用的规则
+        IotSceneRuleDO.Trigger timerTrigger = new IotSceneRuleDO.Trigger()
+                .setType(IotSceneRuleTriggerTypeEnum.TIMER.getType()).setCronExpression("0 0 * * * ?");
+        IotSceneRuleDO.Trigger invalidTrigger = buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                100L, null, "temperature", IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "30");
+        IotSceneRuleDO disabledRule = buildRule(2L, buildTrigger(IotSceneRuleTriggerTypeEnum.DEVICE_PROPERTY_POST,
+                100L, 1000L, "temperature", IotSceneRuleConditionOperatorEnum.GREATER_THAN.getOperator(), "30"))
+                .setStatus(CommonStatusEnum.DISABLE.getStatus());
+
+        // 调用
+        IotSceneRuleIndex index = IotSceneRuleIndex.of(Arrays.asList(
+                buildRule(1L, timerTrigger, invalidTrigger), disabledRule));
+        // 断言
+        assertTrue(index.isEmpty());
+    }
+
+    // ========== 辅助方法 ==========
+
+    private static IotSceneRuleDO buildRule(Long id, IotSceneRuleDO.Trigger... triggers) {
+        return new IotSceneRuleDO().setId(id).setStatus(CommonStatusEnum.ENABLE.getStatus())
+                .setTriggers(Arrays.asList(triggers)).setActions(Collections.emptyList());
+    }
+
+    private static IotSceneRuleDO.Trigger buildTrigger(IotSceneRuleTriggerTypeEnum type, Long productId, Long deviceId,
+                                                       String identifier, String operator, String value) {
+        return new IotSceneRuleDO.Trigger().setType(type.getType()).setProductId(productId).setDeviceId(deviceId)
+                .setIdentifier(identifier).setOperator(operator).setValue(value);
+    }
+
+    private static IotSceneRuleDO.TriggerCondition buildCondition(IotSceneRuleConditionTypeEnum type, String identifier,
+                                                                  String operator, String param) {
+        return new IotSceneRuleDO.TriggerCondition().setType(type.getType())
+                .setIdentifier(identifier).setOperator(operator).setParam(param);
+    }
+
+    private static IotDeviceMessage buildPropertyMessage(Long deviceId, Object params) {
+        return buildMessage(deviceId, IotDeviceMessageMethodEnum.PROPERTY_POST.getMethod(), params);
+    }
+
+    private static IotDeviceMessage buildMessage(Long deviceId, String method, Object params) {
+        return IotDeviceMessage.builder().deviceId(deviceId).method(method).params(params).build();
+    }
+
+    private static List<Long> getRuleIds(List<IotSceneRuleDO> rules) {
+        return convertList(rules, IotSceneRuleDO::getId);
+    }
+
+}
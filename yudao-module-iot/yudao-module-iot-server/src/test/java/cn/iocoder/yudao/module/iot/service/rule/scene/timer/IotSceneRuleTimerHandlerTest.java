@@ -13,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.quartz.SchedulerException;
 
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -99,6 +100,54 @@ public class IotSceneRuleTimerHandlerTest {
         verify(schedulerManager, never()).addOrUpdateJob(any(), any(), any(), any());
     }
 
+    @Test
+    public void testRegisterTimerTriggers_validCronExpressions() throws SchedulerException {
+        // 准备参数：每分钟、每秒、工作日、工作日 9-17 点、每月第三个星期五、指定日期
+        String[] cronExpressions = {"0 * * * * ?", "* * * * * ?", "0 0 9 ? * MON-FRI",
+                "0 0 9-17 * * MON-FRI", "0 15 10 ? * 6#3", "0 0 0 1 1 ? 2025"};
+
+        for (int i = 0; i < cronExpressions.length; i++) {
+            // 调用
+            long sceneRuleId = 10L + i;
+            timerHandler.registerTimerTriggers(buildTimerRule(sceneRuleId, cronExpressions[i]));
+
+            // 验证
+            verify(schedulerManager, times(1)).addOrUpdateJob(
+                    eq(IotSceneRuleJob.class),
+                    eq("iot_scene_rule_timer_" + sceneRuleId),
+                    eq(cronExpressions[i]),
+                    eq(IotSceneRuleJob.buildJobDataMap(sceneRuleId))
+            );
+        }
+    }
+
+    @Test
+    public void testRegisterTimerTriggers_invalidCronExpressions() throws SchedulerException {
+        // 准备参数：随机字符串、缺少字段、包含无效字符、null
+        String[] cronExpressions = {randomString(), "0 0 12 * *", "0 0 12 * * @ #", null};
+
+        // 调用
+        for (int i = 0; i < cronExpressions.length; i++) {
+            timerHandler.registerTimerTriggers(buildTimerRule(20L + i, cronExpressions[i]));
+        }
+
+        // 验证 - 不应该调用调度器
+        verify(schedulerManager, never()).addOrUpdateJob(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testRegisterTimerTriggers_nullTriggerType() throws SchedulerException {
+        // 准备参数 - 触发器类型为空
+        IotSceneRuleDO sceneRule = buildTimerRule(30L, "0 0 12 * * ?");
+        sceneRule.getTriggers().get(0).setType(null);
+
+        // 调用
+        timerHandler.registerTimerTriggers(sceneRule);
+
+        // 验证 - 不应该调用调度器
+        verify(schedulerManager, never()).addOrUpdateJob(any(), any(), any(), any());
+    }
+
     @Test
     public void testUnregisterTimerTriggers_success() throws SchedulerException {
         // 准备参数
@@ -123,4 +172,15 @@ public class IotSceneRuleTimerHandlerTest {
         verify(schedulerManager, times(1)).pauseJob("iot_scene_rule_timer_" + sceneRuleId);
     }
 
+    private static IotSceneRuleDO buildTimerRule(Long sceneRuleId, String cronExpression) {
+        IotSceneRuleDO sceneRule = new IotSceneRuleDO();
+        sceneRule.setId(sceneRuleId);
+        sceneRule.setStatus(0); // 0 表示启用
+        IotSceneRuleDO.Trigger timerTrigger = new IotSceneRuleDO.Trigger();
+        timerTrigger.setType(IotSceneRuleTriggerTypeEnum.TIMER.getType());
+        timerTrigger.setCronExpression(cronExpression);
+        sceneRule.setTriggers(ListUtil.toList(timerTrigger));
+        return sceneRule;
+    }
+
 }
@@ -55,4 +55,8 @@ public interface ProductSkuApi {
     @Operation(summary = "更新 SKU 库存（增加 or 减少）")
     CommonResult<Boolean> updateSkuStock(@RequestBody @Valid ProductSkuUpdateStockReqDTO updateStockReqDTO);
 
+    @PostMapping(PREFIX + "/update-stock-batch")
+    @Operation(summary = "批量更新 SKU 库存（增加 or 减少）") // key 为 SKU 编号；value 为正数时增加库存，为负数时扣减库存
+    CommonResult<Boolean> updateSkuStockBatch(@RequestBody Map<Long, Integer> stockIncrCounts);
+
 }
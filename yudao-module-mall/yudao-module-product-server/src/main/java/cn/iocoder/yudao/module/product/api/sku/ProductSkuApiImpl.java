@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 import javax.annotation.Resource;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 
@@ -53,4 +54,10 @@ public class ProductSkuApiImpl implements ProductSkuApi {
         return success(true);
     }
 
+    @Override
+    public CommonResult<Boolean> updateSkuStockBatch(Map<Long, Integer> stockIncrCounts) {
+        productSkuService.updateSkuStockBatch(stockIncrCounts);
+        return success(true);
+    }
+
 }
@@ -14,6 +14,7 @@ import cn.iocoder.yudao.module.product.service.sku.ProductSkuService;
 import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -66,6 +67,19 @@ public class ProductSpuController {
         return success(true);
     }
 
+    @PutMapping("/update-sku-stock-bucket")
+    @Operation(summary = "更新商品 SKU 的库存分桶数量", description = "用于热门商品：库存拆分到多个分桶，减少下单时的行锁竞争")
+    @Parameters({
+            @Parameter(name = "skuId", description = "SKU 编号", required = true, example = "1024"),
+            @Parameter(name = "bucketCount", description = "分桶数量，小于等于 1 时关闭", required = true, example = "8")
+    })
+    @PreAuthorize("@ss.hasPermission('product:spu:update')")
+    public CommonResult<Boolean> updateSkuStockBucket(@RequestParam("skuId") Long skuId,
+                                                      @RequestParam("bucketCount") Integer bucketCount) {
+        productSkuService.updateSkuStockBucketCount(skuId, bucketCount);
+        return success(true);
+    }
+
     @DeleteMapping("/delete")
     @Operation(summary = "删除商品 SPU")
     @Parameter(name = "id", description = "编号", required = true, example = "1024")
@@ -0,0 +1,47 @@
+package cn.iocoder.yudao.module.product.dal.dataobject.sku;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * 商品 SKU 库存分桶 DO
+ *
+ * 热门 SKU 的库存拆分到多个分桶中，下单时随机选择一个分桶扣减，避免所有下单都竞争 SKU 这一行的行锁。
+ * 开启分桶后，{@link ProductSkuDO#getStock()}、{@link ProductSkuDO#getSalesCount()} 由分桶汇总，异步更新
+ *
+ * @author 芋道源码
+ */
+@TableName("product_sku_stock_bucket")
+@KeySequence("product_sku_stock_bucket_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSkuStockBucketDO extends BaseDO {
+
+    /**
+     * 编号，自增
+     */
+    @TableId
+    private Long id;
+    /**
+     * SKU 编号
+     *
+     * 关联 {@link ProductSkuDO#getId()}
+     */
+    private Long skuId;
+    /**
+     * 库存
+     */
+    private Integer stock;
+    /**
+     * 销量
+     */
+    private Integer salesCount;
+
+}
@@ -63,4 +63,17 @@ public interface ProductSkuMapper extends BaseMapperX<ProductSkuDO> {
         return update(null, updateWrapper);
     }
 
+    /**
+     * 基于库存分桶，汇总更新 SKU 库存、销量
+     *
+     * @param id 编号
+     */
+    default void updateStockBySkuStockBucket(Long id) {
+        String bucketSql = " FROM product_sku_stock_bucket WHERE sku_id = " + id + " AND deleted = 0";
+        update(null, new LambdaUpdateWrapper<ProductSkuDO>()
+                .setSql(" stock = (SELECT COALESCE(SUM(stock), 0)" + bucketSql + ")"
+                        + ", sales_count = (SELECT COALESCE(SUM(sales_count), 0)" + bucketSql + ")")
+                .eq(ProductSkuDO::getId, id));
+    }
+
 }
@@ -0,0 +1,75 @@
+package cn.iocoder.yudao.module.product.dal.mysql.sku;
+
+import cn.hutool.core.lang.Assert;
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuStockBucketDO;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface ProductSkuStockBucketMapper extends BaseMapperX<ProductSkuStockBucketDO> {
+
+    default List<ProductSkuStockBucketDO> selectListBySkuId(Long skuId) {
+        return selectList(ProductSkuStockBucketDO::getSkuId, skuId);
+    }
+
+    default List<ProductSkuStockBucketDO> selectListBySkuId(Collection<Long> skuIds) {
+        return selectList(ProductSkuStockBucketDO::getSkuId, skuIds);
+    }
+
+    /**
+     * 查询 SKU 的分桶，并加锁
+     *
+     * @param skuId SKU 编号
+     * @return 分桶列表，按照编号升序，保证加锁顺序一致
+     */
+    default List<ProductSkuStockBucketDO> selectListBySkuIdForUpdate(Long skuId) {
+        return selectList(new LambdaQueryWrapperX<ProductSkuStockBucketDO>()
+                .eq(ProductSkuStockBucketDO::getSkuId, skuId)
+                .orderByAsc(ProductSkuStockBucketDO::getId)
+                .last("FOR UPDATE"));
+    }
+
+    default void deleteBySkuId(Long skuId) {
+        delete(new LambdaQueryWrapperX<ProductSkuStockBucketDO>().eq(ProductSkuStockBucketDO::getSkuId, skuId));
+    }
+
+    default void deleteBySkuId(Collection<Long> skuIds) {
+        delete(new LambdaQueryWrapperX<ProductSkuStockBucketDO>().in(ProductSkuStockBucketDO::getSkuId, skuIds));
+    }
+
+    /**
+     * 更新分桶库存（增加）、销量（减少）
+     *
+     * @param id        编号
+     * @param incrCount 增加库存（正数）
+     */
+    default void updateStockIncr(Long id, int incrCount) {
+        Assert.isTrue(incrCount > 0);
+        update(null, new LambdaUpdateWrapper<ProductSkuStockBucketDO>()
+                .setSql(" stock = stock + " + incrCount
+                        + ", sales_count = sales_count - " + incrCount)
+                .eq(ProductSkuStockBucketDO::getId, id));
+    }
+
+    /**
+     * 更新分桶库存（减少）、销量（增加）
+     *
+     * @param id        编号
+     * @param decrCount 减少库存（正数）
+     * @return 更新条数；库存不足时为 0
+     */
+    default int updateStockDecr(Long id, int decrCount) {
+        Assert.isTrue(decrCount > 0);
+        return update(null, new LambdaUpdateWrapper<ProductSkuStockBucketDO>()
+                .setSql(" stock = stock - " + decrCount
+                        + ", sales_count = sales_count + " + decrCount)
+                .eq(ProductSkuStockBucketDO::getId, id)
+                .ge(ProductSkuStockBucketDO::getStock, decrCount));
+    }
+
+}
@@ -4,8 +4,11 @@ import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuUpdateStockReqDTO;
 import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSkuSaveReqVO;
 import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
 
+import org.springframework.scheduling.annotation.Async;
+
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 商品 SKU Service 接口
@@ -78,6 +81,34 @@ public interface ProductSkuService {
      */
     void updateSkuStock(ProductSkuUpdateStockReqDTO updateStockReqDTO);
 
+    /**
+     * 批量更新 SKU 库存（增量）
+     * <p>
+     * 如果更新的库存不足，会抛出异常。开启库存分桶的 SKU，扣减分桶库存，SKU、SPU 的汇总库存异步更新
+     *
+     * @param stockIncrCounts SKU 库存变化，key 为 SKU 编号；value 为正数时增加库存，为负数时扣减库存
+     */
+    void updateSkuStockBatch(Map<Long, Integer> stockIncrCounts);
+
+    /**
+     * 更新 SKU 的库存分桶数量
+     * <p>
+     * 已有的分桶会先合并，再按照新的数量拆分。建议在开售前设置
+     *
+     * @param id          SKU 编号
+     * @param bucketCount 分桶数量；小于等于 1 时，关闭库存分桶
+     */
+    void updateSkuStockBucketCount(Long id, Integer bucketCount);
+
+    /**
+     * 【异步】基于库存分桶，汇总更新 SKU 的库存，并更新 SPU 的库存
+     *
+     * @param ids                SKU 编号数组
+     * @param spuStockIncrCounts SPU 库存变化，key 为 SPU 编号
+     */
+    @Async
+    void updateSkuStockFromBucketAsync(Collection<Long> ids, Map<Long, Integer> spuStockIncrCounts);
+
     /**
      * 获得商品 SKU 集合
      *
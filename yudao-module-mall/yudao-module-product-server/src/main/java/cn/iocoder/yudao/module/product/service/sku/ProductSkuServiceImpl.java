@@ -3,6 +3,8 @@ package cn.iocoder.yudao.module.product.service.sku;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.RandomUtil;
+import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuUpdateStockReqDTO;
 import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSkuSaveReqVO;
@@ -10,13 +12,18 @@ import cn.iocoder.yudao.module.product.convert.sku.ProductSkuConvert;
 import cn.iocoder.yudao.module.product.dal.dataobject.property.ProductPropertyDO;
 import cn.iocoder.yudao.module.product.dal.dataobject.property.ProductPropertyValueDO;
 import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuStockBucketDO;
 import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuStockBucketMapper;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyService;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyValueService;
 import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
@@ -24,8 +31,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.*;
 
 /**
@@ -39,6 +45,8 @@ public class ProductSkuServiceImpl implements ProductSkuService {
 
     @Resource
     private ProductSkuMapper productSkuMapper;
+    @Resource
+    private ProductSkuStockBucketMapper productSkuStockBucketMapper;
 
     @Resource
     @Lazy // 循环依赖，避免报错
@@ -246,21 +254,46 @@ public class ProductSkuServiceImpl implements ProductSkuService {
         }
         if (CollUtil.isNotEmpty(updateSkus)) {
             updateSkus.forEach(sku -> productSkuMapper.updateById(sku));
+            // 开启库存分桶的 SKU，按照新的库存重新拆分
+            Map<Long, List<ProductSkuStockBucketDO>> bucketsMap = convertMultiMap(
+                    productSkuStockBucketMapper.selectListBySkuId(convertSet(updateSkus, ProductSkuDO::getId)),
+                    ProductSkuStockBucketDO::getSkuId);
+            bucketsMap.forEach((skuId, buckets) -> resetSkuStockBucket(skuId,
+                    findFirst(updateSkus, sku -> sku.getId().equals(skuId)).getStock(), buckets.size()));
         }
         if (CollUtil.isNotEmpty(existsSkuMap)) {
             productSkuMapper.deleteByIds(existsSkuMap.values());
+            productSkuStockBucketMapper.deleteBySkuId(existsSkuMap.values());
         }
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
+    @Transactional(rollbackFor = Exception.class, isolation = Isolation.READ_COMMITTED)
     public void updateSkuStock(ProductSkuUpdateStockReqDTO updateStockReqDTO) {
-        // 更新 SKU 库存
-        updateStockReqDTO.getItems().forEach(item -> {
-            if (item.getIncrCount() > 0) {
-                productSkuMapper.updateStockIncr(item.getId(), item.getIncrCount());
-            } else if (item.getIncrCount() < 0) {
-                int updateStockIncr = productSkuMapper.updateStockDecr(item.getId(), item.getIncrCount());
+        updateSkuStockBatch(convertMap(updateStockReqDTO.getItems(), ProductSkuUpdateStockReqDTO.Item::getId,
+                ProductSkuUpdateStockReqDTO.Item::getIncrCount, Integer::sum));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class, isolation = Isolation.READ_COMMITTED)
+    public void updateSkuStockBatch(Map<Long, Integer> stockIncrCounts) {
+        // 按照 SKU 编号排序，保证多个 SKU 的加锁顺序一致，避免死锁
+        // 使用 READ COMMITTED 隔离级别：1. 分桶的非加锁读，读到最新提交的库存；2. 库存不足而未更新的分桶，不保留行锁，
+        // 避免和按照编号顺序加锁的多分桶扣减，形成死锁
+        Map<Long, Integer> sortedStockIncrCounts = new TreeMap<>(stockIncrCounts);
+
+        // 更新 SKU 库存：开启分桶的，更新分桶库存；未开启的，更新 SKU 库存
+        Map<Long, List<ProductSkuStockBucketDO>> bucketsMap = convertMultiMap(
+                productSkuStockBucketMapper.selectListBySkuId(sortedStockIncrCounts.keySet()),
+                ProductSkuStockBucketDO::getSkuId);
+        sortedStockIncrCounts.forEach((id, incrCount) -> {
+            List<ProductSkuStockBucketDO> buckets = bucketsMap.get(id);
+            if (CollUtil.isNotEmpty(buckets)) {
+                updateSkuStockByBucket(id, buckets, incrCount);
+            } else if (incrCount > 0) {
+                productSkuMapper.updateStockIncr(id, incrCount);
+            } else if (incrCount < 0) {
+                int updateStockIncr = productSkuMapper.updateStockDecr(id, incrCount);
                 if (updateStockIncr == 0) {
                     throw exception(SKU_STOCK_NOT_ENOUGH);
                 }
@@ -268,11 +301,127 @@ public class ProductSkuServiceImpl implements ProductSkuService {
         });
 
         // 更新 SPU 库存
-        List<ProductSkuDO> skus = productSkuMapper.selectByIds(
-                convertSet(updateStockReqDTO.getItems(), ProductSkuUpdateStockReqDTO.Item::getId));
-        Map<Long, Integer> spuStockIncrCounts = ProductSkuConvert.INSTANCE.convertSpuStockMap(
-                updateStockReqDTO.getItems(), skus);
+        List<ProductSkuDO> skus = productSkuMapper.selectByIds(sortedStockIncrCounts.keySet());
+        Map<Long, Integer> spuStockIncrCounts = convertMap(skus, ProductSkuDO::getSpuId,
+                sku -> sortedStockIncrCounts.get(sku.getId()), Integer::sum);
+        if (bucketsMap.isEmpty()) {
+            productSpuService.updateSpuStock(spuStockIncrCounts);
+            return;
+        }
+        // 开启分桶时，SKU、SPU 的汇总库存在事务提交后异步更新，不占用下单事务的行锁
+        Set<Long> bucketSkuIds = bucketsMap.keySet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                getSelf().updateSkuStockFromBucketAsync(bucketSkuIds, spuStockIncrCounts);
+            }
+
+        });
+    }
+
+    /**
+     * 更新开启分桶的 SKU 库存
+     *
+     * @param id        SKU 编号
+     * @param buckets   SKU 的分桶
+     * @param incrCount 库存变化；正数时增加库存，负数时扣减库存
+     */
+    private void updateSkuStockByBucket(Long id, List<ProductSkuStockBucketDO> buckets, int incrCount) {
+        // 情况一：增加库存，随机选择一个分桶
+        if (incrCount > 0) {
+            productSkuStockBucketMapper.updateStockIncr(RandomUtil.randomEle(buckets).getId(), incrCount);
+            return;
+        }
+        if (incrCount == 0) {
+            return;
+        }
+        // 情况二：扣减库存，根据非加锁读到的分桶库存，从随机的分桶开始，选择一个库存充足的分桶，只对它加锁扣减
+        int decrCount = -incrCount;
+        int start = RandomUtil.randomInt(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            ProductSkuStockBucketDO bucket = buckets.get((start + i) % buckets.size());
+            if (bucket.getStock() >= decrCount) {
+                if (productSkuStockBucketMapper.updateStockDecr(bucket.getId(), decrCount) > 0) {
+                    return;
+                }
+                break;
+            }
+        }
+        // 情况三：选中的分桶被并发扣减，或者没有单个分桶的库存充足，按照编号顺序加锁后从多个分桶合计扣减。一般发生在库存即将售罄时
+        int remainCount = decrCount;
+        for (ProductSkuStockBucketDO bucket : productSkuStockBucketMapper.selectListBySkuIdForUpdate(id)) {
+            int count = Math.min(bucket.getStock(), remainCount);
+            if (count <= 0) {
+                continue;
+            }
+            productSkuStockBucketMapper.updateStockDecr(bucket.getId(), count);
+            remainCount -= count;
+            if (remainCount == 0) {
+                return;
+            }
+        }
+        throw exception(SKU_STOCK_NOT_ENOUGH);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void updateSkuStockBucketCount(Long id, Integer bucketCount) {
+        validateSkuExists(id);
+        resetSkuStockBucket(id, null, bucketCount);
+    }
+
+    /**
+     * 重置 SKU 的库存分桶：合并已有的分桶，再按照数量重新拆分
+     *
+     * @param id          SKU 编号
+     * @param stock       新的库存；为空时，使用当前的库存
+     * @param bucketCount 分桶数量；小于等于 1 时，关闭库存分桶
+     */
+    private void resetSkuStockBucket(Long id, Integer stock, Integer bucketCount) {
+        // 1. 合并已有的分桶
+        ProductSkuDO sku = productSkuMapper.selectById(id);
+        List<ProductSkuStockBucketDO> buckets = productSkuStockBucketMapper.selectListBySkuIdForUpdate(id);
+        int salesCount = sku.getSalesCount();
+        if (CollUtil.isNotEmpty(buckets)) {
+            salesCount = getSumValue(buckets, ProductSkuStockBucketDO::getSalesCount, Integer::sum);
+            if (stock == null) {
+                stock = getSumValue(buckets, ProductSkuStockBucketDO::getStock, Integer::sum);
+            }
+            productSkuStockBucketMapper.deleteBySkuId(id);
+        }
+        if (stock == null) {
+            stock = sku.getStock();
+        }
+
+        // 2. 拆分到新的分桶：库存平均分配，销量记录在第一个分桶
+        if (bucketCount != null && bucketCount > 1) {
+            List<ProductSkuStockBucketDO> newBuckets = new ArrayList<>(bucketCount);
+            for (int i = 0; i < bucketCount; i++) {
+                newBuckets.add(ProductSkuStockBucketDO.builder().skuId(id)
+                        .stock(stock / bucketCount + (i < stock % bucketCount ? 1 : 0))
+                        .salesCount(i == 0 ? salesCount : 0).build());
+            }
+            productSkuStockBucketMapper.insertBatch(newBuckets);
+        }
+
+        // 3. 更新 SKU 的汇总库存、销量
+        productSkuMapper.updateById(new ProductSkuDO().setId(id).setStock(stock).setSalesCount(salesCount));
+    }
+
+    @Override
+    public void updateSkuStockFromBucketAsync(Collection<Long> ids, Map<Long, Integer> spuStockIncrCounts) {
+        ids.forEach(productSkuMapper::updateStockBySkuStockBucket);
         productSpuService.updateSpuStock(spuStockIncrCounts);
     }
 
+    /**
+     * 获得自身的代理对象，解决 AOP 生效问题
+     *
+     * @return 自己
+     */
+    private ProductSkuServiceImpl getSelf() {
+        return SpringUtil.getBean(getClass());
+    }
+
 }
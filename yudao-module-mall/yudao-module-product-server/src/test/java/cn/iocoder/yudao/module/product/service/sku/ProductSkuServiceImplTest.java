@@ -0,0 +1,196 @@
+package cn.iocoder.yudao.module.product.service.sku;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuStockBucketDO;
+import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuStockBucketMapper;
+import cn.iocoder.yudao.module.product.service.property.ProductPropertyService;
+import cn.iocoder.yudao.module.product.service.property.ProductPropertyValueService;
+import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.getSumValue;
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
+import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.SKU_STOCK_NOT_ENOUGH;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * {@link ProductSkuServiceImpl} 的库存更新的单元测试类
+ *
+ * @author 芋道源码
+ */
+@Import(ProductSkuServiceImpl.class)
+public class ProductSkuServiceImplTest extends BaseDbUnitTest {
+
+    @Resource
+    private ProductSkuServiceImpl productSkuService;
+
+    @Resource
+    private ProductSkuMapper productSkuMapper;
+    @Resource
+    private ProductSkuStockBucketMapper productSkuStockBucketMapper;
+
+    @MockBean
+    private ProductSpuService productSpuService;
+    @MockBean
+    private ProductPropertyService productPropertyService;
+    @MockBean
+    private ProductPropertyValueService productPropertyValueService;
+
+    @Test
+    public void testUpdateSkuStockBatch_success() {
+        // mock 数据
+        ProductSkuDO sku01 = insertSku(1L, 10);
+        ProductSkuDO sku02 = insertSku(1L, 10);
+        ProductSkuDO sku03 = insertSku(2L, 10);
+        // 准备参数
+        Map<Long, Integer> stockIncrCounts = new HashMap<>();
+        stockIncrCounts.put(sku01.getId(), -3);
+        stockIncrCounts.put(sku02.getId(), 2);
+        stockIncrCounts.put(sku03.getId(), -1);
+
+        // 调用
+        productSkuService.updateSkuStockBatch(stockIncrCounts);
+        // 断言：SKU 库存、销量
+        assertSku(sku01.getId(), 7, 3);
+        assertSku(sku02.getId(), 12, -2);
+        assertSku(sku03.getId(), 9, 1);
+        // 断言：SPU 库存按照 SPU 汇总
+        Map<Long, Integer> spuStockIncrCounts = new HashMap<>();
+        spuStockIncrCounts.put(1L, -1);
+        spuStockIncrCounts.put(2L, -1);
+        verify(productSpuService).updateSpuStock(eq(spuStockIncrCounts));
+    }
+
+    @Test
+    public void testUpdateSkuStockBatch_notEnough() {
+        // mock 数据
+        ProductSkuDO sku01 = insertSku(1L, 10);
+        ProductSkuDO sku02 = insertSku(1L, 1);
+        // 准备参数
+        Map<Long, Integer> stockIncrCounts = new HashMap<>();
+        stockIncrCounts.put(sku01.getId(), -3);
+        stockIncrCounts.put(sku02.getId(), -3);
+
+        // 调用，并断言异常
+        assertServiceException(() -> productSkuService.updateSkuStockBatch(stockIncrCounts), SKU_STOCK_NOT_ENOUGH);
+        // 断言：事务回滚
+        assertSku(sku01.getId(), 10, 0);
+        assertSku(sku02.getId(), 1, 0);
+    }
+
+    @Test
+    public void testUpdateSkuStockBatch_bucket() {
+        // mock 数据
+        ProductSkuDO sku = insertSku(1L, 10);
+        insertBuckets(sku.getId(), 4, 3, 3);
+
+        // 调用
+        productSkuService.updateSkuStockBatch(singletonMap(sku.getId(), -3));
+        // 断言：从单个库存充足的分桶扣减
+        List<ProductSkuStockBucketDO> buckets = productSkuStockBucketMapper.selectListBySkuId(sku.getId());
+        assertEquals(7, getSumValue(buckets, ProductSkuStockBucketDO::getStock, Integer::sum));
+        assertEquals(1, buckets.stream().filter(bucket -> bucket.getSalesCount() == 3).count());
+        // 断言：事务提交后，SKU、SPU 的汇总库存更新
+        assertSku(sku.getId(), 7, 3);
+        verify(productSpuService).updateSpuStock(eq(singletonMap(1L, -3)));
+    }
+
+    @Test
+    public void testUpdateSkuStockBatch_bucketMulti() {
+        // mock 数据
+        ProductSkuDO sku = insertSku(1L, 6);
+        insertBuckets(sku.getId(), 2, 2, 2);
+
+        // 调用
+        productSkuService.updateSkuStockBatch(singletonMap(sku.getId(), -5));
+        // 断言：没有单个分桶的库存充足，按照编号顺序从多个分桶扣减
+        List<ProductSkuStockBucketDO> buckets = productSkuStockBucketMapper.selectListBySkuIdForUpdate(sku.getId());
+        assertEquals(Arrays.asList(0, 0, 1), convertList(buckets, ProductSkuStockBucketDO::getStock));
+        assertEquals(Arrays.asList(2, 2, 1), convertList(buckets, ProductSkuStockBucketDO::getSalesCount));
+        assertSku(sku.getId(), 1, 5);
+    }
+
+    @Test
+    public void testUpdateSkuStockBatch_bucketNotEnough() {
+        // mock 数据
+        ProductSkuDO sku = insertSku(1L, 2);
+        insertBuckets(sku.getId(), 1, 1);
+
+        // 调用，并断言异常
+        assertServiceException(() -> productSkuService.updateSkuStockBatch(singletonMap(sku.getId(), -3)),
+                SKU_STOCK_NOT_ENOUGH);
+        // 断言：事务回滚
+        List<ProductSkuStockBucketDO> buckets = productSkuStockBucketMapper.selectListBySkuId(sku.getId());
+        assertEquals(Arrays.asList(1, 1), convertList(buckets, ProductSkuStockBucketDO::getStock));
+    }
+
+    @Test
+    public void testUpdateSkuStockBatch_bucketIncr() {
+        // mock 数据
+        ProductSkuDO sku = insertSku(1L, 4);
+        insertBuckets(sku.getId(), 2, 2);
+
+        // 调用
+        productSkuService.updateSkuStockBatch(singletonMap(sku.getId(), 3));
+        // 断言：归还到其中一个分桶
+        List<ProductSkuStockBucketDO> buckets = productSkuStockBucketMapper.selectListBySkuId(sku.getId());
+        assertEquals(7, getSumValue(buckets, ProductSkuStockBucketDO::getStock, Integer::sum));
+        assertSku(sku.getId(), 7, -3);
+    }
+
+    @Test
+    public void testUpdateSkuStockBucketCount() {
+        // mock 数据
+        ProductSkuDO sku = insertSku(1L, 10);
+        productSkuMapper.updateById(new ProductSkuDO().setId(sku.getId()).setSalesCount(5));
+
+        // 调用：开启分桶
+        productSkuService.updateSkuStockBucketCount(sku.getId(), 3);
+        // 断言：库存平均分配，销量记录在第一个分桶
+        List<ProductSkuStockBucketDO> buckets = productSkuStockBucketMapper.selectListBySkuIdForUpdate(sku.getId());
+        assertEquals(Arrays.asList(4, 3, 3), convertList(buckets, ProductSkuStockBucketDO::getStock));
+        assertEquals(Arrays.asList(5, 0, 0), convertList(buckets, ProductSkuStockBucketDO::getSalesCount));
+
+        // 调用：关闭分桶
+        productSkuService.updateSkuStockBucketCount(sku.getId(), 1);
+        // 断言：分桶合并回 SKU
+        assertTrue(productSkuStockBucketMapper.selectListBySkuId(sku.getId()).isEmpty());
+        assertSku(sku.getId(), 10, 5);
+    }
+
+    private ProductSkuDO insertSku(Long spuId, Integer stock) {
+        ProductSkuDO sku = randomPojo(ProductSkuDO.class, o -> o.setSpuId(spuId)
+                .setProperties(null).setStock(stock).setSalesCount(0));
+        productSkuMapper.insert(sku);
+        return sku;
+    }
+
+    private void insertBuckets(Long skuId, Integer... stocks) {
+        for (Integer stock : stocks) {
+            productSkuStockBucketMapper.insert(ProductSkuStockBucketDO.builder()
+                    .skuId(skuId).stock(stock).salesCount(0).build());
+        }
+    }
+
+    private void assertSku(Long id, int stock, int salesCount) {
+        ProductSkuDO sku = productSkuMapper.selectById(id);
+        assertEquals(stock, sku.getStock());
+        assertEquals(salesCount, sku.getSalesCount());
+    }
+
+}
@@ -10,8 +10,8 @@ CREATE TABLE IF NOT EXISTS `product_sku` (
     `stock` int DEFAULT NULL COMMENT '库存',
     `weight` double DEFAULT NULL COMMENT '商品重量，单位：kg 千克',
     `volume` double DEFAULT NULL COMMENT '商品体积，单位：m^3 平米',
-    `sub_commission_first_price` int DEFAULT NULL COMMENT '一级分销的佣金，单位：分',
-    `sub_commission_second_price` int DEFAULT NULL COMMENT '二级分销的佣金，单位：分',
+    `first_brokerage_price` int DEFAULT NULL COMMENT '一级分销的佣金，单位：分',
+    `second_brokerage_price` int DEFAULT NULL COMMENT '二级分销的佣金，单位：分',
     `sales_count` int DEFAULT NULL COMMENT '商品销量',
     "creator" varchar(64) DEFAULT '',
     "create_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -22,6 +22,20 @@ CREATE TABLE IF NOT EXISTS `product_sku` (
     PRIMARY KEY("id")
 ) COMMENT '商品sku';
 
+CREATE TABLE IF NOT EXISTS `product_sku_stock_bucket` (
+    `id` bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    `sku_id` bigint NOT NULL COMMENT 'SKU 编号',
+    `stock` int NOT NULL DEFAULT '0' COMMENT '库存',
+    `sales_count` int NOT NULL DEFAULT '0' COMMENT '销量',
+    "creator" varchar(64) DEFAULT '',
+    "create_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater" varchar(64) DEFAULT '',
+    "update_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "deleted" bit NOT NULL DEFAULT FALSE,
+    "tenant_id" bigint not null default  '0',
+    PRIMARY KEY("id")
+) COMMENT '商品 SKU 库存分桶';
+
 CREATE TABLE IF NOT EXISTS `product_spu` (
     `id` bigint NOT NULL AUTO_INCREMENT COMMENT '商品 SPU 编号，自增',
     `name` varchar(128) NOT NULL COMMENT '商品名称',
@@ -126,32 +140,34 @@ CREATE TABLE IF NOT EXISTS `product_property_value` (
     PRIMARY KEY("id")
 ) COMMENT '规格值';
 
-DROP TABLE IF EXISTS `product_comment` (
+CREATE TABLE IF NOT EXISTS `product_comment` (
     `id` bigint NOT NULL AUTO_INCREMENT COMMENT '评论编号，主键自增',
     `user_id` bigint DEFAULT NULL COMMENT '评价人的用户编号关联 MemberUserDO 的 id 编号',
     `user_nickname` varchar(255) DEFAULT NULL COMMENT '评价人名称',
-    `user_avatar` varchar(1024) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '评价人头像',
-    `anonymous` bit(1) DEFAULT NULL COMMENT '是否匿名',
+    `user_avatar` varchar(1024) DEFAULT NULL COMMENT '评价人头像',
+    `anonymous` bit DEFAULT NULL COMMENT '是否匿名',
     `order_id` bigint DEFAULT NULL COMMENT '交易订单编号关联 TradeOrderDO 的 id 编号',
     `order_item_id` bigint DEFAULT NULL COMMENT '交易订单项编号关联 TradeOrderItemDO 的 id 编号',
     `spu_id` bigint DEFAULT NULL COMMENT '商品 SPU 编号关联 ProductSpuDO 的 id',
     `spu_name` varchar(255) DEFAULT NULL COMMENT '商品 SPU 名称',
     `sku_id` bigint DEFAULT NULL COMMENT '商品 SKU 编号关联 ProductSkuDO 的 id 编号',
-    `visible` bit(1) DEFAULT NULL COMMENT '是否可见true:显示false:隐藏',
+    `sku_pic_url` varchar(256) DEFAULT NULL COMMENT '商品 SKU 图片地址',
+    `sku_properties` varchar(512) DEFAULT NULL COMMENT '属性数组，JSON 格式',
+    `visible` bit DEFAULT NULL COMMENT '是否可见true:显示false:隐藏',
     `scores` tinyint DEFAULT NULL COMMENT '评分星级1-5分',
     `description_scores` tinyint DEFAULT NULL COMMENT '描述星级1-5 星',
     `benefit_scores` tinyint DEFAULT NULL COMMENT '服务星级1-5 星',
-    `content` varchar(1024) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '评论内容',
+    `content` varchar(1024) DEFAULT NULL COMMENT '评论内容',
     `pic_urls` varchar(4096) DEFAULT NULL COMMENT '评论图片地址数组',
-    `reply_status` bit(1) DEFAULT NULL COMMENT '商家是否回复',
+    `reply_status` bit DEFAULT NULL COMMENT '商家是否回复',
     `reply_user_id` bigint DEFAULT NULL COMMENT '回复管理员编号关联 AdminUserDO 的 id 编号',
-    `reply_content` varchar(1024) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci DEFAULT NULL COMMENT '商家回复内容',
+    `reply_content` varchar(1024) DEFAULT NULL COMMENT '商家回复内容',
     `reply_time` datetime DEFAULT NULL COMMENT '商家回复时间',
-    `creator` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT '' COMMENT '创建者',
-    `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    `updater` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci DEFAULT '' COMMENT '更新者',
-    `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
-    `deleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '是否删除',
-    `tenant_id` bigint NOT NULL DEFAULT '0' COMMENT '租户编号',
-    PRIMARY KEY (`id`) USING BTREE
-) ENGINE = InnoDB AUTO_INCREMENT = 26 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_bin COMMENT = '商品评论';
\ No newline at end of file
+    "creator" varchar(64) DEFAULT '',
+    "create_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater" varchar(64) DEFAULT '',
+    "update_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "deleted" bit NOT NULL DEFAULT FALSE,
+    "tenant_id" bigint not null default  '0',
+    PRIMARY KEY("id")
+) COMMENT '商品评论';
\ No newline at end of file
@@ -24,10 +24,12 @@ public interface SeckillActivityApi {
             @Parameter(name = "id", description = "活动编号", required = true, example = "1"),
             @Parameter(name = "skuId", description = "SKU 编号", required = true, example = "2"),
             @Parameter(name = "count", description = "数量", required = true, example = "3"),
+            @Parameter(name = "orderNo", description = "订单号", required = true, example = "o20240101000000001"),
     })
     CommonResult<Boolean> updateSeckillStockDecr(@RequestParam("id") Long id,
                                                  @RequestParam("skuId") Long skuId,
-                                                 @RequestParam("count")Integer count);
+                                                 @RequestParam("count") Integer count,
+                                                 @RequestParam("orderNo") String orderNo);
 
     @PutMapping(PREFIX + "/update-stock-incr")
     @Operation(summary = "更新秒杀库存（增加）")
@@ -35,10 +37,12 @@ public interface SeckillActivityApi {
             @Parameter(name = "id", description = "活动编号", required = true, example = "1"),
             @Parameter(name = "skuId", description = "SKU 编号", required = true, example = "2"),
             @Parameter(name = "count", description = "数量", required = true, example = "3"),
+            @Parameter(name = "orderNo", description = "订单号", required = true, example = "o20240101000000001"),
     })
     CommonResult<Boolean> updateSeckillStockIncr(@RequestParam("id") Long id,
                                                  @RequestParam("skuId") Long skuId,
-                                                 @RequestParam("count")Integer count);
+                                                 @RequestParam("count") Integer count,
+                                                 @RequestParam("orderNo") String orderNo);
 
     @GetMapping(PREFIX + "/validate-join")
     @Operation(summary = "【下单前】校验是否参与秒杀活动") // 如果校验失败，则抛出业务异常
@@ -35,6 +35,9 @@ public interface ErrorCodeConstants {
     ErrorCode COUPON_STATUS_NOT_UNUSED = new ErrorCode(1_013_005_002, "优惠劵不处于待使用状态");
     ErrorCode COUPON_VALID_TIME_NOT_NOW = new ErrorCode(1_013_005_003, "优惠券不在使用时间范围内");
     ErrorCode COUPON_STATUS_NOT_USED = new ErrorCode(1_013_005_004, "优惠劵不是已使用状态");
+    ErrorCode COUPON_ISSUE_TASK_NOT_EXISTS = new ErrorCode(1_013_005_005, "优惠劵发放任务不存在");
+    ErrorCode COUPON_ISSUE_TASK_CANNOT_RESUME = new ErrorCode(1_013_005_006, "优惠劵发放任务不处于剩余数量不足或发放失败状态，无法继续发放");
+    ErrorCode COUPON_ISSUE_TASK_TEMPLATE_RUNNING = new ErrorCode(1_013_005_007, "该优惠劵模板存在发放中的任务，请等待任务结束");
 
     // ========== 满减送活动 1-013-006-000 ==========
     ErrorCode REWARD_ACTIVITY_NOT_EXISTS = new ErrorCode(1_013_006_000, "满减送活动不存在");
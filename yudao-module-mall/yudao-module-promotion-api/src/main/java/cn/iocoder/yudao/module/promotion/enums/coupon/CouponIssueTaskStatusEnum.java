@@ -0,0 +1,54 @@
+package cn.iocoder.yudao.module.promotion.enums.coupon;
+
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.framework.common.core.ArrayValuable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * 优惠劵批量发放任务的状态枚举
+ *
+ * @author 芋道源码
+ */
+@AllArgsConstructor
+@Getter
+public enum CouponIssueTaskStatusEnum implements ArrayValuable<Integer> {
+
+    RUNNING(10, "发放中"),
+    SUCCESS(20, "发放完成"),
+    NOT_ENOUGH(30, "剩余数量不足"), // 增加优惠劵模板的发放数量后，可以继续发放
+    FAILED(40, "发放失败"); // 可以继续发放，从断点处开始
+
+    public static final Integer[] ARRAYS = Arrays.stream(values()).map(CouponIssueTaskStatusEnum::getStatus).toArray(Integer[]::new);
+
+    /**
+     * 值
+     */
+    private final Integer status;
+    /**
+     * 名字
+     */
+    private final String name;
+
+    @Override
+    public Integer[] array() {
+        return ARRAYS;
+    }
+
+    public static boolean isRunning(Integer status) {
+        return ObjUtil.equal(RUNNING.status, status);
+    }
+
+    /**
+     * 是否可以继续发放
+     *
+     * @param status 状态
+     * @return 是否
+     */
+    public static boolean canResume(Integer status) {
+        return ObjUtil.equal(NOT_ENOUGH.status, status) || ObjUtil.equal(FAILED.status, status);
+    }
+
+}
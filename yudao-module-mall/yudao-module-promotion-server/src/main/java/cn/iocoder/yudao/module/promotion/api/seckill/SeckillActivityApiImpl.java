@@ -23,14 +23,14 @@ public class SeckillActivityApiImpl implements SeckillActivityApi {
     private SeckillActivityService activityService;
 
     @Override
-    public CommonResult<Boolean> updateSeckillStockDecr(Long id, Long skuId, Integer count) {
-        activityService.updateSeckillStockDecr(id, skuId, count);
+    public CommonResult<Boolean> updateSeckillStockDecr(Long id, Long skuId, Integer count, String orderNo) {
+        activityService.updateSeckillStockDecr(id, skuId, count, orderNo);
         return success(true);
     }
 
     @Override
-    public CommonResult<Boolean> updateSeckillStockIncr(Long id, Long skuId, Integer count) {
-        activityService.updateSeckillStockIncr(id, skuId, count);
+    public CommonResult<Boolean> updateSeckillStockIncr(Long id, Long skuId, Integer count, String orderNo) {
+        activityService.updateSeckillStockIncr(id, skuId, count, orderNo);
         return success(true);
     }
 
@@ -4,14 +4,19 @@ import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.MapUtils;
+import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
 import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
+import cn.iocoder.yudao.module.promotion.controller.admin.coupon.vo.coupon.CouponIssueTaskCreateReqVO;
+import cn.iocoder.yudao.module.promotion.controller.admin.coupon.vo.coupon.CouponIssueTaskRespVO;
 import cn.iocoder.yudao.module.promotion.controller.admin.coupon.vo.coupon.CouponPageItemRespVO;
 import cn.iocoder.yudao.module.promotion.controller.admin.coupon.vo.coupon.CouponPageReqVO;
 import cn.iocoder.yudao.module.promotion.controller.admin.coupon.vo.coupon.CouponSendReqVO;
 import cn.iocoder.yudao.module.promotion.convert.coupon.CouponConvert;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponDO;
+import cn.iocoder.yudao.module.promotion.service.coupon.CouponIssueService;
 import cn.iocoder.yudao.module.promotion.service.coupon.CouponService;
+import cn.iocoder.yudao.module.promotion.service.coupon.bo.CouponIssueTaskBO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -35,6 +40,8 @@ public class CouponController {
     @Resource
     private CouponService couponService;
     @Resource
+    private CouponIssueService couponIssueService;
+    @Resource
     private MemberUserApi memberUserApi;
 
     @DeleteMapping("/delete")
@@ -71,4 +78,31 @@ public class CouponController {
         return success(true);
     }
 
+    // ========== 批量发放 ==========
+
+    @PostMapping("/issue-task/create")
+    @Operation(summary = "创建优惠劵批量发放任务", description = "给全部会员用户发送优惠劵，异步分块发放")
+    @PreAuthorize("@ss.hasPermission('promotion:coupon:send')")
+    public CommonResult<Long> createCouponIssueTask(@Valid @RequestBody CouponIssueTaskCreateReqVO reqVO) {
+        return success(couponIssueService.createCouponIssueTask(reqVO.getTemplateId()));
+    }
+
+    @PutMapping("/issue-task/resume")
+    @Operation(summary = "继续优惠劵批量发放任务", description = "从断点处继续发放剩余数量不足、发放失败的任务")
+    @Parameter(name = "id", description = "任务编号", required = true)
+    @PreAuthorize("@ss.hasPermission('promotion:coupon:send')")
+    public CommonResult<Boolean> resumeCouponIssueTask(@RequestParam("id") Long id) {
+        couponIssueService.resumeCouponIssueTask(id);
+        return success(true);
+    }
+
+    @GetMapping("/issue-task/get")
+    @Operation(summary = "获得优惠劵批量发放任务", description = "用于查询发放进度")
+    @Parameter(name = "id", description = "任务编号", required = true)
+    @PreAuthorize("@ss.hasPermission('promotion:coupon:query')")
+    public CommonResult<CouponIssueTaskRespVO> getCouponIssueTask(@RequestParam("id") Long id) {
+        CouponIssueTaskBO task = couponIssueService.getCouponIssueTask(id);
+        return success(BeanUtils.toBean(task, CouponIssueTaskRespVO.class));
+    }
+
 }
@@ -0,0 +1,16 @@
+package cn.iocoder.yudao.module.promotion.controller.admin.coupon.vo.coupon;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+@Schema(description = "管理后台 - 优惠劵批量发放任务创建 Request VO")
+@Data
+public class CouponIssueTaskCreateReqVO {
+
+    @Schema(description = "优惠劵模板编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "1024")
+    @NotNull(message = "优惠劵模板编号不能为空")
+    private Long templateId;
+
+}
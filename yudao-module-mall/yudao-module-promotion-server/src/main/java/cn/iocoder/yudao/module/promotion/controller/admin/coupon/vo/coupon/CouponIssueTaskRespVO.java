@@ -0,0 +1,42 @@
+package cn.iocoder.yudao.module.promotion.controller.admin.coupon.vo.coupon;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "管理后台 - 优惠劵批量发放任务 Response VO")
+@Data
+public class CouponIssueTaskRespVO {
+
+    @Schema(description = "任务编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "1")
+    private Long id;
+
+    @Schema(description = "优惠劵模板编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "1024")
+    private Long templateId;
+
+    @Schema(description = "状态，参见 CouponIssueTaskStatusEnum 枚举", requiredMode = Schema.RequiredMode.REQUIRED, example = "10")
+    private Integer status;
+
+    @Schema(description = "断点，已经处理完成的最大用户编号", requiredMode = Schema.RequiredMode.REQUIRED, example = "2048")
+    private Long cursor;
+
+    @Schema(description = "已处理的用户数量", requiredMode = Schema.RequiredMode.REQUIRED, example = "1000")
+    private Integer userCount;
+
+    @Schema(description = "已发放的优惠劵数量", requiredMode = Schema.RequiredMode.REQUIRED, example = "998")
+    private Integer issueCount;
+
+    @Schema(description = "失败原因", example = "当前剩余数量不够领取")
+    private String errorMsg;
+
+    @Schema(description = "开始时间", requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDateTime startTime;
+
+    @Schema(description = "最后更新时间", requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDateTime updateTime;
+
+    @Schema(description = "结束时间")
+    private LocalDateTime endTime;
+
+}
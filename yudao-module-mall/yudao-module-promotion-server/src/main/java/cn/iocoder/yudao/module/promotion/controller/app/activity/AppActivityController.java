@@ -6,9 +6,8 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.bargain.BargainActivityD
 import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationActivityDO;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
-import cn.iocoder.yudao.module.promotion.service.bargain.BargainActivityService;
-import cn.iocoder.yudao.module.promotion.service.combination.CombinationActivityService;
-import cn.iocoder.yudao.module.promotion.service.seckill.SeckillActivityService;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndex;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndexService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,7 +19,11 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
 import javax.annotation.security.PermitAll;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
@@ -32,37 +35,55 @@ import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 public class AppActivityController {
 
     @Resource
-    private CombinationActivityService combinationActivityService;
-    @Resource
-    private SeckillActivityService seckillActivityService;
-    @Resource
-    private BargainActivityService bargainActivityService;
+    private PromotionActivityIndexService activityIndexService;
 
     @GetMapping("/list-by-spu-id")
     @Operation(summary = "获得单个商品，进行中的拼团、秒杀、砍价活动信息", description = "每种活动，只返回一个")
     @Parameter(name = "spuId", description = "商品编号", required = true)
     @PermitAll
     public CommonResult<List<AppActivityRespVO>> getActivityListBySpuId(@RequestParam("spuId") Long spuId) {
+        return success(buildActivityList(Collections.singletonList(spuId)));
+    }
+
+    @GetMapping("/list-by-spu-ids")
+    @Operation(summary = "获得多个商品，进行中的拼团、秒杀、砍价活动信息", description = "每个商品的每种活动，只返回一个")
+    @Parameter(name = "spuIds", description = "商品编号数组", required = true)
+    @PermitAll
+    public CommonResult<List<AppActivityRespVO>> getActivityListBySpuIds(@RequestParam("spuIds") List<Long> spuIds) {
+        return success(buildActivityList(spuIds));
+    }
+
+    /**
+     * 通过营销活动索引，获得商品进行中的拼团、秒杀、砍价活动，无需查询 DB
+     *
+     * @param spuIds 商品编号数组
+     * @return 活动列表
+     */
+    private List<AppActivityRespVO> buildActivityList(Collection<Long> spuIds) {
+        PromotionActivityIndex index = activityIndexService.getActivityIndex();
+        LocalDateTime now = LocalDateTime.now();
         List<AppActivityRespVO> activityVOList = new ArrayList<>();
-        // 1. 拼团活动
-        CombinationActivityDO combinationActivity = combinationActivityService.getMatchCombinationActivityBySpuId(spuId);
-        if (combinationActivity != null) {
-            activityVOList.add(new AppActivityRespVO(combinationActivity.getId(), PromotionTypeEnum.COMBINATION_ACTIVITY.getType(),
-                    combinationActivity.getName(), combinationActivity.getSpuId(), combinationActivity.getStartTime(), combinationActivity.getEndTime()));
-        }
-        // 2. 秒杀活动
-        SeckillActivityDO seckillActivity = seckillActivityService.getMatchSeckillActivityBySpuId(spuId);
-        if (seckillActivity != null) {
-            activityVOList.add(new AppActivityRespVO(seckillActivity.getId(), PromotionTypeEnum.SECKILL_ACTIVITY.getType(),
-                    seckillActivity.getName(), seckillActivity.getSpuId(), seckillActivity.getStartTime(), seckillActivity.getEndTime()));
-        }
-        // 3. 砍价活动
-        BargainActivityDO bargainActivity = bargainActivityService.getMatchBargainActivityBySpuId(spuId);
-        if (bargainActivity != null) {
-            activityVOList.add(new AppActivityRespVO(bargainActivity.getId(), PromotionTypeEnum.BARGAIN_ACTIVITY.getType(),
-                    bargainActivity.getName(), bargainActivity.getSpuId(), bargainActivity.getStartTime(), bargainActivity.getEndTime()));
+        for (Long spuId : new LinkedHashSet<>(spuIds)) {
+            // 1. 拼团活动
+            CombinationActivityDO combinationActivity = index.getCombinationActivity(spuId, now);
+            if (combinationActivity != null) {
+                activityVOList.add(new AppActivityRespVO(combinationActivity.getId(), PromotionTypeEnum.COMBINATION_ACTIVITY.getType(),
+                        combinationActivity.getName(), combinationActivity.getSpuId(), combinationActivity.getStartTime(), combinationActivity.getEndTime()));
+            }
+            // 2. 秒杀活动
+            SeckillActivityDO seckillActivity = index.getSeckillActivity(spuId, now);
+            if (seckillActivity != null) {
+                activityVOList.add(new AppActivityRespVO(seckillActivity.getId(), PromotionTypeEnum.SECKILL_ACTIVITY.getType(),
+                        seckillActivity.getName(), seckillActivity.getSpuId(), seckillActivity.getStartTime(), seckillActivity.getEndTime()));
+            }
+            // 3. 砍价活动
+            BargainActivityDO bargainActivity = index.getBargainActivity(spuId, now);
+            if (bargainActivity != null) {
+                activityVOList.add(new AppActivityRespVO(bargainActivity.getId(), PromotionTypeEnum.BARGAIN_ACTIVITY.getType(),
+                        bargainActivity.getName(), bargainActivity.getSpuId(), bargainActivity.getStartTime(), bargainActivity.getEndTime()));
+            }
         }
-        return success(activityVOList);
+        return activityVOList;
     }
 
 }
@@ -69,6 +69,12 @@ public class CouponDO extends BaseDO {
      * 枚举 {@link CouponTakeTypeEnum}
      */
     private Integer takeType;
+    /**
+     * 批量发放任务编号
+     *
+     * 通过批量发放任务领取时，记录任务编号，用于断点续发时，跳过本任务已经发放过的用户
+     */
+    private Long issueTaskId;
     // ========== 领取情况 END ==========
 
     // ========== 使用规则 BEGIN ==========
@@ -92,4 +92,10 @@ public interface BargainActivityMapper extends BaseMapperX<BargainActivityDO> {
                 .gt(BargainActivityDO::getEndTime, now)); // 开始时间 < now < 结束时间，也就是说获取指定时间段的活动
     }
 
+    default List<BargainActivityDO> selectListByStatusAndEndTimeGt(Integer status, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<BargainActivityDO>()
+                .eq(BargainActivityDO::getStatus, status)
+                .gt(BargainActivityDO::getEndTime, endTime));
+    }
+
 }
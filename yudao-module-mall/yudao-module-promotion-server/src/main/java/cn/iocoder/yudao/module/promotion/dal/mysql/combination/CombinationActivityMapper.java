@@ -44,4 +44,10 @@ public interface CombinationActivityMapper extends BaseMapperX<CombinationActivi
                 .gt(CombinationActivityDO::getEndTime, now)); // 开始时间 < now < 结束时间，也就是说获取指定时间段的活动
     }
 
-}
\ No newline at end of file
+    default List<CombinationActivityDO> selectListByStatusAndEndTimeGt(Integer status, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<CombinationActivityDO>()
+                .eq(CombinationActivityDO::getStatus, status)
+                .gt(CombinationActivityDO::getEndTime, endTime));
+    }
+
+}
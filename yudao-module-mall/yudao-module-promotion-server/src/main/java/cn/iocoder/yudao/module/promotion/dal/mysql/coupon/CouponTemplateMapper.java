@@ -52,6 +52,20 @@ public interface CouponTemplateMapper extends BaseMapperX<CouponTemplateDO> {
         return update(updateWrapper);
     }
 
+    /**
+     * 查询优惠劵模板，并加锁
+     *
+     * 使用当前读，读取最新提交的 take_count；调用方需要在事务中执行
+     *
+     * @param id 优惠劵模板编号
+     * @return 优惠劵模板
+     */
+    default CouponTemplateDO selectByIdForUpdate(Long id) {
+        return selectOne(new LambdaQueryWrapperX<CouponTemplateDO>()
+                .eq(CouponTemplateDO::getId, id)
+                .last("FOR UPDATE"));
+    }
+
     default List<CouponTemplateDO> selectListByTakeType(Integer takeType) {
         return selectList(CouponTemplateDO::getTakeType, takeType, CouponTemplateDO::getStatus, CommonStatusEnum.ENABLE.getStatus());
     }
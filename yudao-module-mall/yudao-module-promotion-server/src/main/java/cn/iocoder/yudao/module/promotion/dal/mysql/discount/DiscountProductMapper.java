@@ -44,4 +44,10 @@ public interface DiscountProductMapper extends BaseMapperX<DiscountProductDO> {
                 .gt(DiscountProductDO::getActivityEndTime, now));
     }
 
+    default List<DiscountProductDO> selectListByActivityStatusAndActivityEndTimeGt(Integer status, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<DiscountProductDO>()
+                .eq(DiscountProductDO::getActivityStatus, status)
+                .gt(DiscountProductDO::getActivityEndTime, endTime));
+    }
+
 }
@@ -50,4 +50,10 @@ public interface RewardActivityMapper extends BaseMapperX<RewardActivityDO> {
         );
     }
 
+    default List<RewardActivityDO> selectListByStatusAndEndTimeGt(Integer status, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<RewardActivityDO>()
+                .eq(RewardActivityDO::getStatus, status)
+                .gt(RewardActivityDO::getEndTime, endTime));
+    }
+
 }
@@ -1,6 +1,5 @@
 package cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity;
 
-import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.ObjectUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
@@ -37,32 +36,22 @@ public interface SeckillActivityMapper extends BaseMapperX<SeckillActivityDO> {
     }
 
     /**
-     * 更新活动库存(减少)
+     * 同步 Redis 中的活动库存变化。库存是否充足，已经在 Redis 预扣时校验
      *
-     * @param id    活动编号
-     * @param count 扣减的库存数量(正数)
-     * @return 影响的行数
+     * @param id        活动编号
+     * @param decrCount 扣减的库存数量；为负数时，表示增加库存
      */
-    default int updateStockDecr(Long id, int count) {
-        Assert.isTrue(count > 0);
-        return update(null, new LambdaUpdateWrapper<SeckillActivityDO>()
+    default void updateStockSync(Long id, int decrCount) {
+        update(null, new LambdaUpdateWrapper<SeckillActivityDO>()
                 .eq(SeckillActivityDO::getId, id)
-                .ge(SeckillActivityDO::getStock, count)
-                .setSql("stock = stock - " + count));
+                .setSql(decrCount >= 0 ? "stock = stock - " + decrCount : "stock = stock + " + (-decrCount)));
     }
 
-    /**
-     * 更新活动库存（增加）
-     *
-     * @param id    活动编号
-     * @param count 增加的库存数量(正数)
-     * @return 影响的行数
-     */
-    default int updateStockIncr(Long id, int count) {
-        Assert.isTrue(count > 0);
-        return update(null, new LambdaUpdateWrapper<SeckillActivityDO>()
-                .eq(SeckillActivityDO::getId, id)
-                .setSql("stock = stock + " + count));
+    default List<SeckillActivityDO> selectListByStatusAndNow(Integer status, LocalDateTime dateTime) {
+        return selectList(new LambdaQueryWrapperX<SeckillActivityDO>()
+                .eq(SeckillActivityDO::getStatus, status)
+                .lt(SeckillActivityDO::getStartTime, dateTime)
+                .gt(SeckillActivityDO::getEndTime, dateTime));
     }
 
     default PageResult<SeckillActivityDO> selectPage(AppSeckillActivityPageReqVO pageReqVO, Integer status, LocalDateTime dateTime) {
@@ -82,4 +71,10 @@ public interface SeckillActivityMapper extends BaseMapperX<SeckillActivityDO> {
                 .gt(SeckillActivityDO::getEndTime, now)); // 开始时间 < now < 结束时间，也就是说获取指定时间段的活动
     }
 
+    default List<SeckillActivityDO> selectListByStatusAndEndTimeGt(Integer status, LocalDateTime endTime) {
+        return selectList(new LambdaQueryWrapperX<SeckillActivityDO>()
+                .eq(SeckillActivityDO::getStatus, status)
+                .gt(SeckillActivityDO::getEndTime, endTime));
+    }
+
 }
@@ -1,6 +1,5 @@
 package cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity;
 
-import cn.hutool.core.lang.Assert;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillProductDO;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
@@ -31,32 +30,17 @@ public interface SeckillProductMapper extends BaseMapperX<SeckillProductDO> {
     }
 
     /**
-     * 更新活动库存（减少）
+     * 同步 Redis 中的活动库存变化。库存是否充足，已经在 Redis 预扣时校验
      *
-     * @param id    活动编号
-     * @param count 扣减的库存数量(减少库存)
-     * @return 影响的行数
+     * @param activityId 活动编号
+     * @param skuId      SKU 编号
+     * @param decrCount  扣减的库存数量；为负数时，表示增加库存
      */
-    default int updateStockDecr(Long id, int count) {
-        Assert.isTrue(count > 0);
-        return update(null, new LambdaUpdateWrapper<SeckillProductDO>()
-                .eq(SeckillProductDO::getId, id)
-                .ge(SeckillProductDO::getStock, count)
-                .setSql("stock = stock - " + count));
-    }
-
-    /**
-     * 更新活动库存（增加）
-     *
-     * @param id    活动编号
-     * @param count 需要增加的库存（增加库存）
-     * @return 影响的行数
-     */
-    default int updateStockIncr(Long id, int count) {
-        Assert.isTrue(count > 0);
-        return update(null, new LambdaUpdateWrapper<SeckillProductDO>()
-                .eq(SeckillProductDO::getId, id)
-                .setSql("stock = stock + " + count));
+    default void updateStockSync(Long activityId, Long skuId, int decrCount) {
+        update(null, new LambdaUpdateWrapper<SeckillProductDO>()
+                .eq(SeckillProductDO::getActivityId, activityId)
+                .eq(SeckillProductDO::getSkuId, skuId)
+                .setSql(decrCount >= 0 ? "stock = stock - " + decrCount : "stock = stock + " + (-decrCount)));
     }
 
 }
@@ -0,0 +1,104 @@
+package cn.iocoder.yudao.module.promotion.dal.redis;
+
+/**
+ * 营销 Redis Key 枚举类
+ *
+ * @author 芋道源码
+ */
+public interface RedisKeyConstants {
+
+    /**
+     * 秒杀活动库存的缓存
+     *
+     * KEY 格式：promotion:seckill_stock:{activityId}
+     * VALUE 数据格式：HASH，field 为 activity 时是活动库存，为 skuId 时是商品库存
+     *
+     * 注意：{activityId} 是 Redis Cluster 的 hash tag，保证同一个活动的 Key 在同一个 slot，Lua 脚本才能同时操作。
+     * 库存相关的 Lua 脚本，只允许操作带有相同 hash tag 的 Key
+     */
+    String SECKILL_STOCK = "promotion:seckill_stock:{%d}";
+
+    /**
+     * 秒杀活动库存的订单预扣记录，保证同一个订单只扣减、归还一次
+     *
+     * KEY 格式：promotion:seckill_stock_order:{activityId}
+     * VALUE 数据格式：HASH，field 为订单号，value 为扣减数量；已归还时为 -1
+     * 过期时间：最后一次预扣、归还后 30 天，需要覆盖订单取消、售后的时间范围
+     */
+    String SECKILL_STOCK_ORDER = "promotion:seckill_stock_order:{%d}";
+
+    /**
+     * 秒杀活动库存的待同步变化，由 Job 批量同步到 DB
+     *
+     * KEY 格式：promotion:seckill_stock_delta:{activityId}
+     * VALUE 数据格式：HASH，field 为 skuId，value 为待扣减的库存；为负数时，表示待归还的库存
+     */
+    String SECKILL_STOCK_DELTA = "promotion:seckill_stock_delta:{%d}";
+
+    /**
+     * 秒杀活动库存的同步中变化，同步到 DB 成功后删除
+     *
+     * KEY 格式：promotion:seckill_stock_delta_syncing:{activityId}
+     * VALUE 数据格式：同 {@link #SECKILL_STOCK_DELTA}
+     */
+    String SECKILL_STOCK_DELTA_SYNCING = "promotion:seckill_stock_delta_syncing:{%d}";
+
+    /**
+     * 存在待同步库存变化的秒杀活动
+     *
+     * KEY 格式：promotion:seckill_stock_dirty
+     * VALUE 数据格式：SET，秒杀活动编号
+     *
+     * 注意：该 Key 被所有活动共享，与活动的 Key 不在同一个 slot，所以不能在 Lua 脚本中操作
+     */
+    String SECKILL_STOCK_DIRTY = "promotion:seckill_stock_dirty";
+
+    /**
+     * 秒杀活动库存的加载、同步锁，避免加载时读到同步前的 DB 库存
+     *
+     * KEY 格式：promotion:seckill_stock_lock:{activityId}
+     * VALUE 数据格式：HASH，Redisson 分布式锁
+     */
+    String SECKILL_STOCK_LOCK = "promotion:seckill_stock_lock:%d";
+
+    /**
+     * 优惠劵批量发放任务的编号自增
+     *
+     * KEY 格式：promotion:coupon_issue_task_id
+     * VALUE 数据格式：String，最大的任务编号
+     */
+    String COUPON_ISSUE_TASK_ID = "promotion:coupon_issue_task_id";
+
+    /**
+     * 优惠劵批量发放任务，包括进度和断点
+     *
+     * KEY 格式：promotion:coupon_issue_task:{id}
+     * VALUE 数据格式：String，JSON 格式的 CouponIssueTaskBO
+     */
+    String COUPON_ISSUE_TASK = "promotion:coupon_issue_task:%d";
+
+    /**
+     * 发放中的优惠劵批量发放任务，由 Job 兜底续发中断的任务
+     *
+     * KEY 格式：promotion:coupon_issue_task_running
+     * VALUE 数据格式：SET，任务编号
+     */
+    String COUPON_ISSUE_TASK_RUNNING = "promotion:coupon_issue_task_running";
+
+    /**
+     * 优惠劵批量发放任务的执行锁，保证一个任务同时只在一个节点执行
+     *
+     * KEY 格式：promotion:coupon_issue_task_lock:{id}
+     * VALUE 数据格式：HASH，Redisson 分布式锁
+     */
+    String COUPON_ISSUE_TASK_LOCK = "promotion:coupon_issue_task_lock:%d";
+
+    /**
+     * 优惠劵模板发放中的批量发放任务，保证一个模板同时只有一个任务发放
+     *
+     * KEY 格式：promotion:coupon_issue_task_template:{templateId}
+     * VALUE 数据格式：String，任务编号
+     */
+    String COUPON_ISSUE_TASK_TEMPLATE = "promotion:coupon_issue_task_template:%d";
+
+}
@@ -0,0 +1,130 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.coupon;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponIssueTaskStatusEnum;
+import cn.iocoder.yudao.module.promotion.service.coupon.bo.CouponIssueTaskBO;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants.*;
+
+/**
+ * 优惠劵批量发放任务的 Redis DAO
+ *
+ * 任务只在发放期间需要，结束后保留一段时间用于查询进度，所以没有落 DB
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class CouponIssueTaskRedisDAO {
+
+    /**
+     * 任务结束后，保留的时间
+     */
+    private static final Duration FINISHED_EXPIRE = Duration.ofDays(7);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 生成任务编号
+     *
+     * @return 任务编号
+     */
+    public Long generateId() {
+        return stringRedisTemplate.opsForValue().increment(COUPON_ISSUE_TASK_ID);
+    }
+
+    public CouponIssueTaskBO get(Long id) {
+        String value = stringRedisTemplate.opsForValue().get(formatKey(COUPON_ISSUE_TASK, id));
+        return JsonUtils.parseObject(value, CouponIssueTaskBO.class);
+    }
+
+    /**
+     * 占用优惠劵模板，标记任务为模板发放中的任务
+     *
+     * @param templateId 优惠劵模板编号
+     * @param id         任务编号
+     * @return 是否占用成功；模板已经被其它发放中的任务占用时，返回 false
+     */
+    public boolean setTemplateIfAbsent(Long templateId, Long id) {
+        String key = formatKey(COUPON_ISSUE_TASK_TEMPLATE, templateId);
+        if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(id)))) {
+            return true;
+        }
+        return String.valueOf(id).equals(stringRedisTemplate.opsForValue().get(key));
+    }
+
+    /**
+     * 保存任务；发放中的任务，加入发放中的集合；结束的任务，移出集合，释放占用的优惠劵模板，并设置过期时间
+     *
+     * @param task 任务
+     */
+    public void set(CouponIssueTaskBO task) {
+        String key = formatKey(COUPON_ISSUE_TASK, task.getId());
+        if (CouponIssueTaskStatusEnum.isRunning(task.getStatus())) {
+            stringRedisTemplate.opsForValue().set(key, JsonUtils.toJsonString(task));
+            stringRedisTemplate.opsForSet().add(COUPON_ISSUE_TASK_RUNNING, String.valueOf(task.getId()));
+        } else {
+            stringRedisTemplate.opsForValue().set(key, JsonUtils.toJsonString(task), FINISHED_EXPIRE);
+            stringRedisTemplate.opsForSet().remove(COUPON_ISSUE_TASK_RUNNING, String.valueOf(task.getId()));
+            // 只释放自己占用的模板；占用期间其它任务无法写入，所以先读后删是安全的
+            String templateKey = formatKey(COUPON_ISSUE_TASK_TEMPLATE, task.getTemplateId());
+            if (String.valueOf(task.getId()).equals(stringRedisTemplate.opsForValue().get(templateKey))) {
+                stringRedisTemplate.delete(templateKey);
+            }
+        }
+    }
+
+    /**
+     * 获得发放中的任务编号
+     *
+     * @return 任务编号
+     */
+    public Set<Long> getRunningIds() {
+        Set<String> members = stringRedisTemplate.opsForSet().members(COUPON_ISSUE_TASK_RUNNING);
+        if (CollUtil.isEmpty(members)) {
+            return Collections.emptySet();
+        }
+        return convertSet(members, Long::valueOf);
+    }
+
+    /**
+     * 尝试获得任务的执行锁，并执行逻辑；锁被其它线程、节点持有时，不执行
+     *
+     * 锁依赖 Redisson 的看门狗续期，所以任务执行多久都不会过期；节点宕机后，锁自动释放，由 Job 兜底续发
+     *
+     * @param id       任务编号
+     * @param runnable 执行逻辑
+     * @return 是否执行
+     */
+    public boolean tryLock(Long id, Runnable runnable) {
+        RLock lock = redissonClient.getLock(formatKey(COUPON_ISSUE_TASK_LOCK, id));
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            runnable.run();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String formatKey(String format, Long id) {
+        return String.format(format, id);
+    }
+
+}
@@ -0,0 +1,233 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.seckill;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants.*;
+
+/**
+ * 秒杀活动库存的 Redis DAO
+ *
+ * 下单时，通过 Lua 脚本原子预扣 Redis 中的库存，并累计待同步的库存变化；再由 Job 批量同步到 DB
+ *
+ * Lua 脚本只操作同一个活动的 Key（带有相同的 hash tag），兼容 Redis Cluster；
+ * 所有活动共享的 {@link cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants#SECKILL_STOCK_DIRTY}，在脚本执行后单独记录
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class SeckillStockRedisDAO {
+
+    /**
+     * 预扣结果：成功
+     */
+    public static final long RESERVE_SUCCESS = 1L;
+    /**
+     * 预扣结果：库存不足
+     */
+    public static final long RESERVE_STOCK_NOT_ENOUGH = 0L;
+    /**
+     * 预扣结果：库存未加载
+     */
+    public static final long RESERVE_NOT_LOADED = -1L;
+
+    /**
+     * 订单预扣记录的过期时间：需要覆盖订单取消、售后的时间范围
+     */
+    private static final Duration ORDER_EXPIRE = Duration.ofDays(30);
+
+    private static final RedisScript<Long> RESERVE_SCRIPT = buildScript("seckill_stock_reserve.lua", Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = buildScript("seckill_stock_release.lua", Long.class);
+    private static final RedisScript<Long> LOAD_SCRIPT = buildScript("seckill_stock_load.lua", Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SYNC_TAKE_SCRIPT = buildScript("seckill_stock_sync_take.lua", List.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 预扣库存
+     *
+     * @param activityId 活动编号
+     * @param skuId      SKU 编号
+     * @param count      数量
+     * @param orderNo    订单号
+     * @return 预扣结果，见 RESERVE_ 开头的常量
+     */
+    public long reserve(Long activityId, Long skuId, Integer count, String orderNo) {
+        Long result = stringRedisTemplate.execute(RESERVE_SCRIPT, buildOrderKeys(activityId),
+                String.valueOf(skuId), String.valueOf(count), orderNo, String.valueOf(ORDER_EXPIRE.getSeconds()));
+        if (result != null && result == RESERVE_SUCCESS) {
+            addSyncActivityId(activityId);
+        }
+        return result != null ? result : RESERVE_NOT_LOADED;
+    }
+
+    /**
+     * 归还库存
+     *
+     * @param activityId 活动编号
+     * @param skuId      SKU 编号
+     * @param count      数量
+     * @param orderNo    订单号
+     * @return 是否归还；已经归还过，或者未预扣时，返回 false
+     */
+    public boolean release(Long activityId, Long skuId, Integer count, String orderNo) {
+        Long result = stringRedisTemplate.execute(RELEASE_SCRIPT, buildOrderKeys(activityId),
+                String.valueOf(skuId), String.valueOf(count), orderNo, String.valueOf(ORDER_EXPIRE.getSeconds()));
+        if (result == null || result != 1L) {
+            return false;
+        }
+        addSyncActivityId(activityId);
+        return true;
+    }
+
+    /**
+     * 加载库存；已经加载时，不覆盖
+     *
+     * @param activityId    活动编号
+     * @param activityStock DB 中的活动库存
+     * @param skuStocks     DB 中的商品库存，key 为 SKU 编号
+     * @param expire        过期时间
+     */
+    public void load(Long activityId, Integer activityStock, Map<Long, Integer> skuStocks, Duration expire) {
+        List<String> args = new ArrayList<>(skuStocks.size() * 2 + 2);
+        args.add(String.valueOf(expire.getSeconds()));
+        args.add(String.valueOf(activityStock));
+        skuStocks.forEach((skuId, stock) -> {
+            args.add(String.valueOf(skuId));
+            args.add(String.valueOf(stock));
+        });
+        stringRedisTemplate.execute(LOAD_SCRIPT, Arrays.asList(formatKey(SECKILL_STOCK, activityId),
+                        formatKey(SECKILL_STOCK_DELTA, activityId), formatKey(SECKILL_STOCK_DELTA_SYNCING, activityId)),
+                args.toArray());
+    }
+
+    /**
+     * 判断库存是否已经加载
+     *
+     * @param activityId 活动编号
+     * @return 是否已经加载
+     */
+    public boolean exists(Long activityId) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(formatKey(SECKILL_STOCK, activityId)));
+    }
+
+    /**
+     * 获得活动的库存锁，并执行逻辑
+     *
+     * 加载库存时，读取 DB 库存和执行加载脚本之间，如果完成了一次同步，会把同步前的 DB 库存加载到 Redis，导致超卖。
+     * 所以加载、同步都需要持有该锁
+     *
+     * @param activityId 活动编号
+     * @param supplier   执行逻辑
+     * @return 执行结果
+     */
+    public <T> T lock(Long activityId, Supplier<T> supplier) {
+        RLock lock = redissonClient.getLock(formatKey(SECKILL_STOCK_LOCK, activityId));
+        lock.lock();
+        try {
+            return supplier.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 删除库存，下次预扣时重新加载
+     *
+     * @param activityId 活动编号
+     */
+    public void delete(Long activityId) {
+        stringRedisTemplate.delete(formatKey(SECKILL_STOCK, activityId));
+    }
+
+    /**
+     * 获得存在待同步库存变化的活动编号
+     *
+     * @return 活动编号
+     */
+    public Set<Long> getSyncActivityIds() {
+        Set<String> members = stringRedisTemplate.opsForSet().members(SECKILL_STOCK_DIRTY);
+        if (CollUtil.isEmpty(members)) {
+            return Collections.emptySet();
+        }
+        Set<Long> activityIds = new HashSet<>(members.size());
+        members.forEach(member -> activityIds.add(Long.valueOf(member)));
+        return activityIds;
+    }
+
+    /**
+     * 取出待同步到 DB 的库存变化；同步成功后，需要调用 {@link #completeSync(Long)} 确认
+     *
+     * 上次同步未确认时，返回上次的库存变化，保证不丢失
+     *
+     * @param activityId 活动编号
+     * @return 库存变化，key 为 SKU 编号，value 为扣减的库存；为负数时，表示归还的库存
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, Integer> takeSync(Long activityId) {
+        String deltaKey = formatKey(SECKILL_STOCK_DELTA, activityId);
+        List<Object> result = stringRedisTemplate.execute(SYNC_TAKE_SCRIPT,
+                Arrays.asList(deltaKey, formatKey(SECKILL_STOCK_DELTA_SYNCING, activityId)));
+        if (CollUtil.isEmpty(result)) {
+            // 没有待同步的变化，移除活动编号。移除后再检查一次，避免并发预扣新产生的变化被遗漏
+            stringRedisTemplate.opsForSet().remove(SECKILL_STOCK_DIRTY, String.valueOf(activityId));
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(deltaKey))) {
+                addSyncActivityId(activityId);
+            }
+            return Collections.emptyMap();
+        }
+        Map<Long, Integer> deltas = new HashMap<>(result.size() / 2);
+        for (int i = 0; i + 1 < result.size(); i += 2) {
+            deltas.put(Convert.toLong(result.get(i)), Convert.toInt(result.get(i + 1)));
+        }
+        return deltas;
+    }
+
+    /**
+     * 确认库存变化已经同步到 DB
+     *
+     * @param activityId 活动编号
+     */
+    public void completeSync(Long activityId) {
+        stringRedisTemplate.delete(formatKey(SECKILL_STOCK_DELTA_SYNCING, activityId));
+    }
+
+    private void addSyncActivityId(Long activityId) {
+        stringRedisTemplate.opsForSet().add(SECKILL_STOCK_DIRTY, String.valueOf(activityId));
+    }
+
+    private static List<String> buildOrderKeys(Long activityId) {
+        return Arrays.asList(formatKey(SECKILL_STOCK, activityId), formatKey(SECKILL_STOCK_ORDER, activityId),
+                formatKey(SECKILL_STOCK_DELTA, activityId));
+    }
+
+    private static String formatKey(String format, Long activityId) {
+        return String.format(format, activityId);
+    }
+
+    private static <T> RedisScript<T> buildScript(String name, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("lua/seckill/" + name)));
+        script.setResultType(resultType);
+        return script;
+    }
+
+}
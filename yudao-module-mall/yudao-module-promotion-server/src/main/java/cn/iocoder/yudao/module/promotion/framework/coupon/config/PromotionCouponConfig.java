@@ -0,0 +1,14 @@
+package cn.iocoder.yudao.module.promotion.framework.coupon.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 优惠劵的配置类
+ *
+ * @author 芋道源码
+ */
+@Configuration
+@EnableConfigurationProperties(PromotionCouponProperties.class)
+public class PromotionCouponConfig {
+}
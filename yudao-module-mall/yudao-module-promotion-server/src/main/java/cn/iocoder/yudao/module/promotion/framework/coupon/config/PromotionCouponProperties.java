@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.promotion.framework.coupon.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 优惠劵的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.promotion.coupon")
+@Data
+@Validated
+public class PromotionCouponProperties {
+
+    /**
+     * 批量发放时，每个分块的用户数量，也是每个事务插入的优惠劵数量
+     */
+    @NotNull(message = "批量发放的分块大小不能为空")
+    @Min(value = 1, message = "批量发放的分块大小不能小于 1")
+    private Integer issueChunkSize = 500;
+
+    /**
+     * 批量发放时，每个任务并行发放的分块数量
+     */
+    @NotNull(message = "批量发放的分块并行数不能为空")
+    @Min(value = 1, message = "批量发放的分块并行数不能小于 1")
+    private Integer issueChunkParallelism = 4;
+
+}
@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.promotion.job.coupon;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.promotion.service.coupon.CouponIssueService;
+import com.xxl.job.core.handler.annotation.XxlJob;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 优惠劵批量发放任务 Job：续发节点重启、宕机导致中断的任务，从断点处继续发放
+ *
+ * 任务自己记录了租户编号，所以忽略多租户，一次续发全部
+ *
+ * @author 芋道源码
+ */
+@Component
+public class CouponIssueTaskJob {
+
+    @Resource
+    private CouponIssueService couponIssueService;
+
+    @XxlJob("couponIssueTaskJob")
+    public String execute() {
+        int count = TenantUtils.executeIgnore(() -> couponIssueService.resumeRunningCouponIssueTasks());
+        return StrUtil.format("续发优惠劵批量发放任务 {} 个", count);
+    }
+
+}
@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.promotion.job.seckill;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.promotion.service.seckill.SeckillActivityService;
+import com.xxl.job.core.handler.annotation.XxlJob;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 秒杀库存同步 Job：将 Redis 中预扣的秒杀库存，批量同步到 DB
+ *
+ * 库存变化是按照活动编号记录的，不区分租户，所以忽略多租户，一次同步全部
+ *
+ * @author 芋道源码
+ */
+@Component
+public class SeckillStockSyncJob {
+
+    @Resource
+    private SeckillActivityService seckillActivityService;
+
+    @XxlJob("seckillStockSyncJob")
+    public String execute() {
+        int count = TenantUtils.executeIgnore(() -> seckillActivityService.syncSeckillStock());
+        return StrUtil.format("同步秒杀活动库存 {} 个", count);
+    }
+
+}
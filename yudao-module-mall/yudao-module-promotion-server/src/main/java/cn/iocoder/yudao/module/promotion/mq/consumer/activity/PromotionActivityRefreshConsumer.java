@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.module.promotion.mq.consumer.activity;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.promotion.mq.message.activity.PromotionActivityRefreshMessage;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link PromotionActivityRefreshMessage} 的消费者，刷新本节点的营销活动索引
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class PromotionActivityRefreshConsumer extends AbstractRedisChannelMessageListener<PromotionActivityRefreshMessage> {
+
+    @Resource
+    private PromotionActivityIndexService activityIndexService;
+
+    @Override
+    public void onMessage(PromotionActivityRefreshMessage message) {
+        log.info("[onMessage][收到营销活动刷新消息({})]", message);
+        if (message.getTenantId() == null) {
+            TenantUtils.executeIgnore(() -> activityIndexService.refreshActivityIndex());
+            return;
+        }
+        TenantUtils.execute(message.getTenantId(), () -> activityIndexService.refreshActivityIndex());
+    }
+
+}
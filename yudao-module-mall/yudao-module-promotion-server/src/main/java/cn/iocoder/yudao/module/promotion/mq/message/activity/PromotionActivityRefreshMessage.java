@@ -0,0 +1,21 @@
+package cn.iocoder.yudao.module.promotion.mq.message.activity;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 营销活动变更的广播消息，用于刷新各个 promotion-server 节点的 PromotionActivityIndex 索引
+ *
+ * 限时折扣、满减送、秒杀、拼团、砍价活动的新增、修改、关闭、删除时发送
+ *
+ * @author 芋道源码
+ */
+@Data
+public class PromotionActivityRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 租户编号
+     */
+    private Long tenantId;
+
+}
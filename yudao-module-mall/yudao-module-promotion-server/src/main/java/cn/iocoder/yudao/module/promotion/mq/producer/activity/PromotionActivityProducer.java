@@ -0,0 +1,56 @@
+package cn.iocoder.yudao.module.promotion.mq.producer.activity;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.module.promotion.mq.message.activity.PromotionActivityRefreshMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Resource;
+
+/**
+ * 营销活动相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class PromotionActivityProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link PromotionActivityRefreshMessage} 消息，刷新各个节点的营销活动索引
+     *
+     * 存在事务时，在事务提交后发送，避免其它节点刷新时读取到未提交的数据
+     */
+    public void sendActivityRefreshMessage() {
+        PromotionActivityRefreshMessage message = new PromotionActivityRefreshMessage();
+        message.setTenantId(TenantContextHolder.getTenantId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                send(message);
+            }
+
+        });
+    }
+
+    private void send(PromotionActivityRefreshMessage message) {
+        try {
+            redisMQTemplate.send(message);
+        } catch (Exception ex) {
+            // 广播失败时，各个节点的索引，依赖定时刷新兜底
+            log.error("[send][租户({}) 营销活动刷新广播失败]", message.getTenantId(), ex);
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+package cn.iocoder.yudao.module.promotion.service.activity;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.bargain.BargainActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 营销活动的内存索引，不可变
+ *
+ * 1. 只包含开启、并且未结束的活动；未开始的活动也会包含，匹配时再按照 now 判断是否在活动时间内，
+ *    所以活动开始、结束时，无需刷新索引
+ * 2. 限时折扣按照 skuId 建立索引；满减送按照 productScope 分别按照 spuId、categoryId 建立索引；
+ *    秒杀、拼团、砍价按照 spuId 建立索引。所以匹配一个商品，只需要若干次 HashMap 查找
+ * 3. 活动变更时，重新构建新的索引进行替换（copy-on-write），读取方不需要加锁
+ *
+ * @author 芋道源码
+ */
+public final class PromotionActivityIndex {
+
+    public static final PromotionActivityIndex EMPTY = of(null, null, null, null, null);
+
+    /**
+     * 限时折扣商品
+     *
+     * key：SKU 编号
+     */
+    private final Map<Long, List<DiscountProductDO>> discountProducts;
+    /**
+     * 全部商品的满减送活动
+     */
+    private final List<RewardActivityDO> allRewardActivities;
+    /**
+     * 指定商品的满减送活动
+     *
+     * key：SPU 编号
+     */
+    private final Map<Long, List<RewardActivityDO>> spuRewardActivities;
+    /**
+     * 指定品类的满减送活动
+     *
+     * key：分类编号
+     */
+    private final Map<Long, List<RewardActivityDO>> categoryRewardActivities;
+    /**
+     * 秒杀活动
+     *
+     * key：SPU 编号
+     */
+    private final Map<Long, List<SeckillActivityDO>> seckillActivities;
+    /**
+     * 拼团活动
+     *
+     * key：SPU 编号
+     */
+    private final Map<Long, List<CombinationActivityDO>> combinationActivities;
+    /**
+     * 砍价活动
+     *
+     * key：SPU 编号
+     */
+    private final Map<Long, List<BargainActivityDO>> bargainActivities;
+
+    private PromotionActivityIndex(Collection<DiscountProductDO> discountProducts,
+                                   Collection<RewardActivityDO> rewardActivities,
+                                   Collection<SeckillActivityDO> seckillActivities,
+                                   Collection<CombinationActivityDO> combinationActivities,
+                                   Collection<BargainActivityDO> bargainActivities) {
+        this.discountProducts = buildIndex(discountProducts, DiscountProductDO::getSkuId);
+        // 满减送：按照编号倒序，和 DB 查询保持一致，优先匹配最新的活动
+        List<RewardActivityDO> sortedRewardActivities = new ArrayList<>(CollUtil.emptyIfNull(rewardActivities));
+        sortedRewardActivities.sort(Comparator.comparing(RewardActivityDO::getId).reversed());
+        List<RewardActivityDO> allActivities = new ArrayList<>();
+        Map<Long, List<RewardActivityDO>> spuActivities = new HashMap<>();
+        Map<Long, List<RewardActivityDO>> categoryActivities = new HashMap<>();
+        for (RewardActivityDO activity : sortedRewardActivities) {
+            if (PromotionProductScopeEnum.isAll(activity.getProductScope())) {
+                allActivities.add(activity);
+            } else if (PromotionProductScopeEnum.isSpu(activity.getProductScope())) {
+                CollUtil.emptyIfNull(activity.getProductScopeValues()).forEach(spuId ->
+                        spuActivities.computeIfAbsent(spuId, key -> new ArrayList<>()).add(activity));
+            } else if (PromotionProductScopeEnum.isCategory(activity.getProductScope())) {
+                CollUtil.emptyIfNull(activity.getProductScopeValues()).forEach(categoryId ->
+                        categoryActivities.computeIfAbsent(categoryId, key -> new ArrayList<>()).add(activity));
+            }
+        }
+        this.allRewardActivities = Collections.unmodifiableList(allActivities);
+        this.spuRewardActivities = spuActivities;
+        this.categoryRewardActivities = categoryActivities;
+        this.seckillActivities = buildIndex(seckillActivities, SeckillActivityDO::getSpuId);
+        this.combinationActivities = buildIndex(combinationActivities, CombinationActivityDO::getSpuId);
+        this.bargainActivities = buildIndex(bargainActivities, BargainActivityDO::getSpuId);
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param discountProducts      限时折扣商品列表
+     * @param rewardActivities      满减送活动列表
+     * @param seckillActivities     秒杀活动列表
+     * @param combinationActivities 拼团活动列表
+     * @param bargainActivities     砍价活动列表
+     * @return 索引
+     */
+    public static PromotionActivityIndex of(Collection<DiscountProductDO> discountProducts,
+                                            Collection<RewardActivityDO> rewardActivities,
+                                            Collection<SeckillActivityDO> seckillActivities,
+                                            Collection<CombinationActivityDO> combinationActivities,
+                                            Collection<BargainActivityDO> bargainActivities) {
+        return new PromotionActivityIndex(discountProducts, rewardActivities,
+                seckillActivities, combinationActivities, bargainActivities);
+    }
+
+    /**
+     * 获得进行中的限时折扣商品
+     *
+     * @param skuIds SKU 编号数组
+     * @param now    当前时间
+     * @return 限时折扣商品列表
+     */
+    public List<DiscountProductDO> getDiscountProductList(Collection<Long> skuIds, LocalDateTime now) {
+        List<DiscountProductDO> result = new ArrayList<>();
+        for (Long skuId : CollUtil.emptyIfNull(skuIds)) {
+            for (DiscountProductDO product : discountProducts.getOrDefault(skuId, Collections.emptyList())) {
+                if (isActive(product.getActivityStartTime(), product.getActivityEndTime(), now)) {
+                    result.add(product);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获得商品匹配的、进行中的满减送活动
+     *
+     * @param spuId      SPU 编号
+     * @param categoryId 分类编号，允许为空
+     * @param now        当前时间
+     * @return 满减送活动列表，按照编号倒序
+     */
+    public List<RewardActivityDO> getRewardActivityList(Long spuId, Long categoryId, LocalDateTime now) {
+        List<RewardActivityDO> result = new ArrayList<>();
+        addActiveRewardActivities(result, allRewardActivities, now);
+        addActiveRewardActivities(result, spuRewardActivities.get(spuId), now);
+        if (categoryId != null) {
+            addActiveRewardActivities(result, categoryRewardActivities.get(categoryId), now);
+        }
+        if (result.size() > 1) {
+            result.sort(Comparator.comparing(RewardActivityDO::getId).reversed());
+        }
+        return result;
+    }
+
+    private static void addActiveRewardActivities(List<RewardActivityDO> result,
+                                                  List<RewardActivityDO> activities, LocalDateTime now) {
+        if (activities == null) {
+            return;
+        }
+        for (RewardActivityDO activity : activities) {
+            if (isActive(activity.getStartTime(), activity.getEndTime(), now)) {
+                result.add(activity);
+            }
+        }
+    }
+
+    /**
+     * 获得商品进行中的秒杀活动
+     *
+     * @param spuId SPU 编号
+     * @param now   当前时间
+     * @return 秒杀活动
+     */
+    public SeckillActivityDO getSeckillActivity(Long spuId, LocalDateTime now) {
+        return CollUtil.findOne(seckillActivities.get(spuId),
+                activity -> isActive(activity.getStartTime(), activity.getEndTime(), now));
+    }
+
+    /**
+     * 获得商品进行中的拼团活动
+     *
+     * @param spuId SPU 编号
+     * @param now   当前时间
+     * @return 拼团活动
+     */
+    public CombinationActivityDO getCombinationActivity(Long spuId, LocalDateTime now) {
+        return CollUtil.findOne(combinationActivities.get(spuId),
+                activity -> isActive(activity.getStartTime(), activity.getEndTime(), now));
+    }
+
+    /**
+     * 获得商品进行中的砍价活动
+     *
+     * @param spuId SPU 编号
+     * @param now   当前时间
+     * @return 砍价活动
+     */
+    public BargainActivityDO getBargainActivity(Long spuId, LocalDateTime now) {
+        return CollUtil.findOne(bargainActivities.get(spuId),
+                activity -> isActive(activity.getStartTime(), activity.getEndTime(), now));
+    }
+
+    /**
+     * 是否在活动时间内：开始时间 < now < 结束时间，和 DB 查询保持一致
+     */
+    private static boolean isActive(LocalDateTime startTime, LocalDateTime endTime, LocalDateTime now) {
+        return startTime != null && endTime != null
+                && startTime.isBefore(now) && endTime.isAfter(now);
+    }
+
+    private static <T> Map<Long, List<T>> buildIndex(Collection<T> list, Function<T, Long> keyFunc) {
+        if (CollUtil.isEmpty(list)) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<T>> index = new HashMap<>();
+        list.forEach(item -> index.computeIfAbsent(keyFunc.apply(item), key -> new ArrayList<>()).add(item));
+        return index;
+    }
+
+}
@@ -0,0 +1,26 @@
+package cn.iocoder.yudao.module.promotion.service.activity;
+
+/**
+ * 营销活动索引 Service 接口
+ *
+ * 商品列表、详情的价格计算，需要频繁匹配商品参与的营销活动，通过本地的 {@link PromotionActivityIndex} 索引匹配，避免查询 DB
+ *
+ * @author 芋道源码
+ */
+public interface PromotionActivityIndexService {
+
+    /**
+     * 获得当前租户的营销活动索引
+     *
+     * @return 索引
+     */
+    PromotionActivityIndex getActivityIndex();
+
+    /**
+     * 刷新当前租户的营销活动索引
+     *
+     * 由 PromotionActivityRefreshMessage 广播消息触发
+     */
+    void refreshActivityIndex();
+
+}
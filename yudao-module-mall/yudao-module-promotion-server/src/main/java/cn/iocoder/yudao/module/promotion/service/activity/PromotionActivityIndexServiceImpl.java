@@ -0,0 +1,110 @@
+package cn.iocoder.yudao.module.promotion.service.activity;
+
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.promotion.dal.mysql.bargain.BargainActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountProductMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.reward.RewardActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillActivityMapper;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static cn.iocoder.yudao.framework.common.util.cache.CacheUtils.buildAsyncReloadingCache;
+
+/**
+ * 营销活动索引 Service 实现类
+ *
+ * @author 芋道源码
+ */
+@Service
+@Slf4j
+public class PromotionActivityIndexServiceImpl implements PromotionActivityIndexService {
+
+    /**
+     * 未开启多租户时，{@link #activityIndexCache} 使用的 key
+     */
+    private static final Long TENANT_ID_NONE = 0L;
+
+    /**
+     * 营销活动索引的缓存
+     *
+     * key：租户编号
+     *
+     * 活动变更时，通过 PromotionActivityRefreshMessage 广播消息刷新；这里的定时刷新，只是避免广播消息丢失时，索引一直不更新
+     */
+    private final LoadingCache<Long, PromotionActivityIndex> activityIndexCache = buildAsyncReloadingCache(Duration.ofMinutes(5L),
+            new CacheLoader<Long, PromotionActivityIndex>() {
+
+                @Override
+                public PromotionActivityIndex load(Long tenantId) {
+                    // 异步刷新时，不在原线程中执行，所以需要设置租户
+                    if (TENANT_ID_NONE.equals(tenantId)) {
+                        return TenantUtils.executeIgnore(() -> loadActivityIndex());
+                    }
+                    return TenantUtils.execute(tenantId, () -> loadActivityIndex());
+                }
+
+            });
+
+    @Resource
+    private DiscountProductMapper discountProductMapper;
+    @Resource
+    private RewardActivityMapper rewardActivityMapper;
+    @Resource
+    private SeckillActivityMapper seckillActivityMapper;
+    @Resource
+    private CombinationActivityMapper combinationActivityMapper;
+    @Resource
+    private BargainActivityMapper bargainActivityMapper;
+
+    @Override
+    @SneakyThrows
+    public PromotionActivityIndex getActivityIndex() {
+        return activityIndexCache.get(getTenantKey());
+    }
+
+    @Override
+    public void refreshActivityIndex() {
+        Long tenantKey = getTenantKey();
+        // 本节点未加载过，无需刷新，使用时会加载最新的
+        if (activityIndexCache.getIfPresent(tenantKey) == null) {
+            return;
+        }
+        activityIndexCache.put(tenantKey, loadActivityIndex());
+    }
+
+    /**
+     * 加载开启、并且未结束的营销活动，构建索引
+     *
+     * @return 索引
+     */
+    private PromotionActivityIndex loadActivityIndex() {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Integer status = CommonStatusEnum.ENABLE.getStatus();
+        PromotionActivityIndex index = PromotionActivityIndex.of(
+                discountProductMapper.selectListByActivityStatusAndActivityEndTimeGt(status, now),
+                rewardActivityMapper.selectListByStatusAndEndTimeGt(status, now),
+                seckillActivityMapper.selectListByStatusAndEndTimeGt(status, now),
+                combinationActivityMapper.selectListByStatusAndEndTimeGt(status, now),
+                bargainActivityMapper.selectListByStatusAndEndTimeGt(status, now));
+        log.info("[loadActivityIndex][租户({}) 加载营销活动索引完成，耗时 {} ms]",
+                TenantContextHolder.getTenantId(), System.currentTimeMillis() - startTime);
+        return index;
+    }
+
+    private static Long getTenantKey() {
+        return ObjUtil.defaultIfNull(TenantContextHolder.getTenantId(), TENANT_ID_NONE);
+    }
+
+}
@@ -13,6 +13,7 @@ import cn.iocoder.yudao.module.promotion.controller.admin.bargain.vo.activity.Ba
 import cn.iocoder.yudao.module.promotion.convert.bargain.BargainActivityConvert;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.bargain.BargainActivityDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.bargain.BargainActivityMapper;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -42,6 +43,9 @@ public class BargainActivityServiceImpl implements BargainActivityService {
     @Resource
     private ProductSkuApi productSkuApi;
 
+    @Resource
+    private PromotionActivityProducer activityProducer;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createBargainActivity(BargainActivityCreateReqVO createReqVO) {
@@ -55,6 +59,8 @@ public class BargainActivityServiceImpl implements BargainActivityService {
                 .setTotalStock(createReqVO.getStock())
                 .setStatus(CommonStatusEnum.ENABLE.getStatus());
         bargainActivityMapper.insert(activityDO);
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
         return activityDO.getId();
     }
 
@@ -78,6 +84,9 @@ public class BargainActivityServiceImpl implements BargainActivityService {
             updateObj.setTotalStock(updateObj.getStock());
         }
         bargainActivityMapper.updateById(updateObj);
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     @Override
@@ -104,6 +113,9 @@ public class BargainActivityServiceImpl implements BargainActivityService {
 
         bargainActivityMapper.updateById(new BargainActivityDO().setId(id)
                 .setStatus(CommonStatusEnum.DISABLE.getStatus()));
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     private void validateBargainConflict(Long spuId, Long activityId) {
@@ -137,6 +149,9 @@ public class BargainActivityServiceImpl implements BargainActivityService {
 
         // 删除
         bargainActivityMapper.deleteById(id);
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     private BargainActivityDO validateBargainActivityExists(Long id) {
@@ -19,6 +19,7 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationA
 import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationProductDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationActivityMapper;
 import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationProductMapper;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -55,6 +56,9 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
     @Resource
     private ProductSkuApi productSkuApi;
 
+    @Resource
+    private PromotionActivityProducer activityProducer;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createCombinationActivity(CombinationActivityCreateReqVO createReqVO) {
@@ -70,6 +74,8 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
         // 插入商品
         List<CombinationProductDO> products = CombinationActivityConvert.INSTANCE.convertList(createReqVO.getProducts(), activity);
         combinationProductMapper.insertBatch(products);
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
         return activity.getId();
     }
 
@@ -134,6 +140,9 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
         combinationActivityMapper.updateById(updateObj);
         // 更新商品
         updateCombinationProduct(updateObj, updateReqVO.getProducts());
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     @Override
@@ -148,6 +157,9 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
         // 关闭活动
         combinationActivityMapper.updateById(new CombinationActivityDO().setId(id)
                 .setStatus(CommonStatusEnum.DISABLE.getStatus()));
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     /**
@@ -192,6 +204,9 @@ public class CombinationActivityServiceImpl implements CombinationActivityServic
 
         // 删除
         combinationActivityMapper.deleteById(id);
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     @Override
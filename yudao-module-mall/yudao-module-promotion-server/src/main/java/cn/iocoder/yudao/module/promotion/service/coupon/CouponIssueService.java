@@ -0,0 +1,47 @@
+package cn.iocoder.yudao.module.promotion.service.coupon;
+
+import cn.iocoder.yudao.module.promotion.service.coupon.bo.CouponIssueTaskBO;
+
+/**
+ * 优惠劵批量发放 Service 接口
+ *
+ * 给全部会员用户发送优惠劵，例如说全员推送、新人活动补发等。按照用户编号游标分块，每个分块在独立的事务中发放，
+ * 多个分块并行执行；每个分块完成后记录断点，中断后可以从断点处继续发放
+ *
+ * @author 芋道源码
+ */
+public interface CouponIssueService {
+
+    /**
+     * 创建批量发放任务，并异步执行
+     *
+     * @param templateId 优惠劵模板编号
+     * @return 任务编号
+     */
+    Long createCouponIssueTask(Long templateId);
+
+    /**
+     * 继续发放剩余数量不足、发放失败的任务，从断点处开始
+     *
+     * @param id 任务编号
+     */
+    void resumeCouponIssueTask(Long id);
+
+    /**
+     * 获得批量发放任务，包括发放进度
+     *
+     * @param id 任务编号
+     * @return 任务
+     */
+    CouponIssueTaskBO getCouponIssueTask(Long id);
+
+    /**
+     * 续发发放中的任务，兜底节点重启、宕机导致中断的任务
+     *
+     * 正在其它节点执行的任务，会被跳过
+     *
+     * @return 提交的任务数量
+     */
+    int resumeRunningCouponIssueTasks();
+
+}
@@ -0,0 +1,307 @@
+package cn.iocoder.yudao.module.promotion.service.coupon;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponTemplateDO;
+import cn.iocoder.yudao.module.promotion.dal.redis.coupon.CouponIssueTaskRedisDAO;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponIssueTaskStatusEnum;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTakeTypeEnum;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTemplateValidityTypeEnum;
+import cn.iocoder.yudao.module.promotion.framework.coupon.config.PromotionCouponProperties;
+import cn.iocoder.yudao.module.promotion.service.coupon.bo.CouponIssueTaskBO;
+import com.alibaba.ttl.threadpool.TtlExecutors;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.promotion.enums.ErrorCodeConstants.*;
+
+/**
+ * 优惠劵批量发放 Service 实现类
+ *
+ * 每个任务由一个任务线程执行：按照用户编号游标，从 member 拉取用户，拆成分块提交到分块线程池并行发放；
+ * 再按照顺序等待分块完成，推进断点。所以断点之前的用户都已经处理完成，断点之后的分块即使已经完成，续发时也会重新执行，
+ * 由 {@link CouponService#takeCouponByIssueTask} 跳过本任务已经发放过的用户，保证不会重复发放
+ *
+ * @author 芋道源码
+ */
+@Service
+@Validated
+@Slf4j
+public class CouponIssueServiceImpl implements CouponIssueService {
+
+    /**
+     * 任务线程池的大小，即同时执行的任务数量
+     */
+    private static final int TASK_EXECUTOR_POOL_SIZE = 2;
+    private static final int TASK_EXECUTOR_QUEUE_CAPACITY = 100;
+
+    @Resource
+    private CouponIssueTaskRedisDAO couponIssueTaskRedisDAO;
+
+    @Resource
+    private CouponService couponService;
+    @Resource
+    private CouponTemplateService couponTemplateService;
+
+    @Resource
+    private MemberUserApi memberUserApi;
+
+    @Resource
+    private PromotionCouponProperties couponProperties;
+
+    /**
+     * 任务线程池：拉取用户、推进断点
+     */
+    private ExecutorService taskExecutor;
+    /**
+     * 分块线程池：发放优惠劵
+     *
+     * 每个任务进行中的分块不超过 issueChunkParallelism 个，正常情况下不会排队；
+     * 队列满时，由任务线程自己执行，同时也减缓了用户的拉取
+     */
+    private ExecutorService chunkExecutor;
+
+    @PostConstruct
+    public void init() {
+        taskExecutor = TtlExecutors.getTtlExecutorService(new ThreadPoolExecutor(
+                TASK_EXECUTOR_POOL_SIZE, TASK_EXECUTOR_POOL_SIZE, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(TASK_EXECUTOR_QUEUE_CAPACITY),
+                ThreadUtil.newNamedThreadFactory("coupon-issue-task-", true)));
+        int chunkPoolSize = TASK_EXECUTOR_POOL_SIZE * couponProperties.getIssueChunkParallelism();
+        chunkExecutor = TtlExecutors.getTtlExecutorService(new ThreadPoolExecutor(
+                chunkPoolSize, chunkPoolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(chunkPoolSize),
+                ThreadUtil.newNamedThreadFactory("coupon-issue-chunk-", true),
+                (runnable, executor) -> {
+                    // 和 CallerRunsPolicy 不同，线程池关闭时抛出异常，避免任务被丢弃后，任务线程一直等待分块完成
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("分块线程池已经关闭");
+                    }
+                    runnable.run();
+                }));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        // 未完成的任务保持发放中的状态，由其它节点的 Job 续发
+        taskExecutor.shutdown();
+        chunkExecutor.shutdown();
+    }
+
+    @Override
+    public Long createCouponIssueTask(Long templateId) {
+        // 校验优惠劵模板
+        validateCouponTemplateCanIssue(couponTemplateService.getCouponTemplate(templateId));
+
+        // 创建任务
+        LocalDateTime now = LocalDateTime.now();
+        CouponIssueTaskBO task = new CouponIssueTaskBO().setId(couponIssueTaskRedisDAO.generateId())
+                .setTenantId(TenantContextHolder.getTenantId()).setTemplateId(templateId)
+                .setStatus(CouponIssueTaskStatusEnum.RUNNING.getStatus())
+                .setCursor(0L).setUserCount(0).setIssueCount(0)
+                .setStartTime(now).setUpdateTime(now);
+        validateCouponTemplateNotRunning(templateId, task.getId());
+        couponIssueTaskRedisDAO.set(task);
+
+        // 异步执行
+        submitCouponIssueTask(task.getId());
+        return task.getId();
+    }
+
+    @Override
+    public void resumeCouponIssueTask(Long id) {
+        // 校验任务
+        CouponIssueTaskBO task = validateCouponIssueTaskExists(id);
+        if (!CouponIssueTaskStatusEnum.canResume(task.getStatus())) {
+            throw exception(COUPON_ISSUE_TASK_CANNOT_RESUME);
+        }
+        validateCouponTemplateCanIssue(couponTemplateService.getCouponTemplate(task.getTemplateId()));
+        validateCouponTemplateNotRunning(task.getTemplateId(), id);
+
+        // 更新为发放中，并异步执行
+        task.setStatus(CouponIssueTaskStatusEnum.RUNNING.getStatus()).setErrorMsg(null)
+                .setUpdateTime(LocalDateTime.now()).setEndTime(null);
+        couponIssueTaskRedisDAO.set(task);
+        submitCouponIssueTask(id);
+    }
+
+    @Override
+    public CouponIssueTaskBO getCouponIssueTask(Long id) {
+        CouponIssueTaskBO task = couponIssueTaskRedisDAO.get(id);
+        // 任务不落 DB，所以需要手动校验租户
+        if (task == null || ObjUtil.notEqual(task.getTenantId(), TenantContextHolder.getTenantId())) {
+            return null;
+        }
+        return task;
+    }
+
+    @Override
+    public int resumeRunningCouponIssueTasks() {
+        Set<Long> ids = couponIssueTaskRedisDAO.getRunningIds();
+        ids.forEach(this::submitCouponIssueTask);
+        return ids.size();
+    }
+
+    private CouponIssueTaskBO validateCouponIssueTaskExists(Long id) {
+        CouponIssueTaskBO task = getCouponIssueTask(id);
+        if (task == null) {
+            throw exception(COUPON_ISSUE_TASK_NOT_EXISTS);
+        }
+        return task;
+    }
+
+    private void validateCouponTemplateCanIssue(CouponTemplateDO template) {
+        if (template == null) {
+            throw exception(COUPON_TEMPLATE_NOT_EXISTS);
+        }
+        // 批量发放属于管理员发放
+        if (ObjUtil.notEqual(template.getTakeType(), CouponTakeTypeEnum.ADMIN.getType())) {
+            throw exception(COUPON_TEMPLATE_CANNOT_TAKE);
+        }
+        if (CouponTemplateValidityTypeEnum.DATE.getType().equals(template.getValidityType())
+                && LocalDateTimeUtils.beforeNow(template.getValidEndTime())) {
+            throw exception(COUPON_TEMPLATE_EXPIRED);
+        }
+    }
+
+    private void validateCouponTemplateNotRunning(Long templateId, Long id) {
+        // 同一个模板的任务并发发放时，会争抢模板的剩余数量，所以同时只允许一个任务发放
+        if (!couponIssueTaskRedisDAO.setTemplateIfAbsent(templateId, id)) {
+            throw exception(COUPON_ISSUE_TASK_TEMPLATE_RUNNING);
+        }
+    }
+
+    private void submitCouponIssueTask(Long id) {
+        try {
+            taskExecutor.execute(() -> executeCouponIssueTask(id));
+        } catch (RejectedExecutionException ex) {
+            log.warn("[submitCouponIssueTask][task({}) 线程池已满，等待 Job 续发]", id);
+        }
+    }
+
+    private void executeCouponIssueTask(Long id) {
+        boolean executed = couponIssueTaskRedisDAO.tryLock(id, () -> {
+            // 加锁后重新读取，任务可能已经被其它节点执行完成
+            CouponIssueTaskBO task = couponIssueTaskRedisDAO.get(id);
+            if (task == null || !CouponIssueTaskStatusEnum.isRunning(task.getStatus())) {
+                return;
+            }
+            if (task.getTenantId() != null) {
+                TenantUtils.execute(task.getTenantId(), () -> executeCouponIssueTask(task));
+            } else {
+                TenantUtils.executeIgnore(() -> executeCouponIssueTask(task));
+            }
+        });
+        if (!executed) {
+            log.debug("[executeCouponIssueTask][task({}) 正在其它线程或节点执行，跳过]", id);
+        }
+    }
+
+    private void executeCouponIssueTask(CouponIssueTaskBO task) {
+        log.info("[executeCouponIssueTask][task({}) 开始发放，断点({})]", task.getId(), task.getCursor());
+        CouponTemplateDO template = couponTemplateService.getCouponTemplate(task.getTemplateId());
+        int chunkSize = couponProperties.getIssueChunkSize();
+        int chunkParallelism = couponProperties.getIssueChunkParallelism();
+        Deque<CouponIssueChunk> chunks = new ArrayDeque<>(chunkParallelism);
+        Long fetchCursor = task.getCursor();
+        boolean fetchEnd = false;
+        try {
+            validateCouponTemplateCanIssue(template);
+            while (true) {
+                // 1. 按照游标拉取下一批用户，提交并行发放
+                while (!fetchEnd && chunks.size() < chunkParallelism) {
+                    List<Long> userIds = memberUserApi.getUserIdListByIdGt(fetchCursor, chunkSize).getCheckedData();
+                    if (CollUtil.isEmpty(userIds)) {
+                        fetchEnd = true;
+                        break;
+                    }
+                    fetchCursor = CollUtil.getLast(userIds);
+                    fetchEnd = userIds.size() < chunkSize;
+                    chunks.add(new CouponIssueChunk(fetchCursor, userIds.size(), CompletableFuture.supplyAsync(
+                            () -> couponService.takeCouponByIssueTask(template, userIds, task.getId()), chunkExecutor)));
+                }
+                CouponIssueChunk chunk = chunks.poll();
+                if (chunk == null) {
+                    break;
+                }
+
+                // 2. 按照顺序等待分块完成，推进断点
+                int issueCount = join(chunk.future);
+                task.setCursor(chunk.lastUserId).setUserCount(task.getUserCount() + chunk.userCount)
+                        .setIssueCount(task.getIssueCount() + issueCount).setUpdateTime(LocalDateTime.now());
+                couponIssueTaskRedisDAO.set(task);
+            }
+            task.setStatus(CouponIssueTaskStatusEnum.SUCCESS.getStatus());
+        } catch (Throwable ex) {
+            if (ex instanceof ServiceException
+                    && ObjUtil.equal(((ServiceException) ex).getCode(), COUPON_TEMPLATE_NOT_ENOUGH.getCode())) {
+                task.setStatus(CouponIssueTaskStatusEnum.NOT_ENOUGH.getStatus());
+            } else {
+                log.error("[executeCouponIssueTask][task({}) 发放失败，断点({})]", task.getId(), task.getCursor(), ex);
+                task.setStatus(CouponIssueTaskStatusEnum.FAILED.getStatus());
+            }
+            task.setErrorMsg(ex.getMessage());
+            // 等待进行中的分块结束，避免和续发的任务并发执行
+            chunks.forEach(chunk -> chunk.future.handle((result, e) -> null).join());
+        }
+
+        // 3. 结束任务
+        LocalDateTime now = LocalDateTime.now();
+        task.setUpdateTime(now).setEndTime(now);
+        couponIssueTaskRedisDAO.set(task);
+        log.info("[executeCouponIssueTask][task({}) 发放结束，状态({}) 处理用户({}) 发放优惠劵({})]",
+                task.getId(), task.getStatus(), task.getUserCount(), task.getIssueCount());
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            // 抛出原始异常，例如说 ServiceException
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 进行中的分块
+     */
+    @AllArgsConstructor
+    private static class CouponIssueChunk {
+
+        /**
+         * 分块的最大用户编号，分块完成后作为断点
+         */
+        private final Long lastUserId;
+        /**
+         * 分块的用户数量
+         */
+        private final int userCount;
+        /**
+         * 发放结果：发放数量
+         */
+        private final CompletableFuture<Integer> future;
+
+    }
+
+}
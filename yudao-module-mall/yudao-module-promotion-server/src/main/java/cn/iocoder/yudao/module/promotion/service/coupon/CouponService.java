@@ -95,6 +95,19 @@ public interface CouponService {
      */
     void takeCouponByRegister(Long userId);
 
+    /**
+     * 【批量发放】给一批用户发送优惠劵，作为批量发放任务的一个分块，在独立的事务中执行
+     *
+     * 1. 跳过达到领取上限的用户，以及本任务已经发放过的用户，保证断点续发时重复执行的分块不会重复发放
+     * 2. 原子领取优惠劵模板的剩余数量，剩余数量不足时，只发放给前面的用户；领取在独立的短事务中提交，本事务回滚时归还
+     *
+     * @param template    优惠劵模板
+     * @param userIds     用户编号列表
+     * @param issueTaskId 批量发放任务编号，记录到发放的优惠劵上
+     * @return 发放数量
+     */
+    int takeCouponByIssueTask(CouponTemplateDO template, Collection<Long> userIds, Long issueTaskId);
+
     /**
      * 过期优惠券
      *
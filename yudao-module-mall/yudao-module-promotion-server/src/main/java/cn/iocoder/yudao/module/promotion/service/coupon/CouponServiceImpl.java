@@ -3,6 +3,7 @@ package cn.iocoder.yudao.module.promotion.service.coupon;
 import cn.hutool.core.collection.CollStreamUtil;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.thread.ThreadUtil;
 import cn.hutool.core.util.ObjUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
@@ -23,6 +24,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
@@ -46,6 +49,15 @@ import static java.util.Arrays.asList;
 @Validated
 public class CouponServiceImpl implements CouponService {
 
+    /**
+     * 批量发放回滚时，归还优惠劵模板领取数量的重试次数
+     */
+    private static final int ISSUE_REFUND_RETRY_COUNT = 3;
+    /**
+     * 批量发放回滚时，归还优惠劵模板领取数量的重试间隔，单位：毫秒。第 N 次重试，等待 N 倍的间隔
+     */
+    private static final long ISSUE_REFUND_RETRY_INTERVAL = 100L;
+
     @Resource
     private CouponTemplateService couponTemplateService;
 
@@ -220,6 +232,76 @@ public class CouponServiceImpl implements CouponService {
         }
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int takeCouponByIssueTask(CouponTemplateDO template, Collection<Long> userIds, Long issueTaskId) {
+        // 1. 过滤掉达到领取限制的用户、本次任务已经发放过的用户
+        Set<Long> takeUserIds = new LinkedHashSet<>(userIds);
+        List<CouponDO> alreadyTakeCoupons = couponMapper.selectListByTemplateIdAndUserId(template.getId(), takeUserIds);
+        if (CollUtil.isNotEmpty(alreadyTakeCoupons)) {
+            Set<Long> issuedUserIds = convertSet(alreadyTakeCoupons, CouponDO::getUserId,
+                    coupon -> ObjUtil.equal(coupon.getIssueTaskId(), issueTaskId));
+            Map<Long, Integer> userTakeCountMap = CollStreamUtil.groupBy(alreadyTakeCoupons, CouponDO::getUserId, Collectors.summingInt(c -> 1));
+            takeUserIds.removeIf(userId -> issuedUserIds.contains(userId)
+                    || (template.getTakeLimitCount() > 0 && MapUtil.getInt(userTakeCountMap, userId, 0) >= template.getTakeLimitCount()));
+        }
+        if (CollUtil.isEmpty(takeUserIds)) {
+            return 0;
+        }
+
+        // 2.1 原子领取优惠劵模板的剩余数量：在独立的短事务中提交，避免模板行锁持有到批量插入结束
+        int takeCount = couponTemplateService.takeCouponTemplateCount(template.getId(), takeUserIds.size());
+        if (takeCount <= 0) {
+            throw exception(COUPON_TEMPLATE_NOT_ENOUGH);
+        }
+        // 2.2 批量保存失败、事务回滚时，归还领取的数量
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    refundCouponTemplateTakeCount(template.getId(), takeCount, issueTaskId);
+                }
+            }
+
+        });
+
+        // 3. 批量保存优惠劵
+        List<CouponDO> couponList = convertList(CollUtil.sub(new ArrayList<>(takeUserIds), 0, takeCount),
+                userId -> CouponConvert.INSTANCE.convert(template, userId).setIssueTaskId(issueTaskId));
+        couponMapper.insertBatch(couponList);
+        return couponList.size();
+    }
+
+    /**
+     * 归还批量发放领取的优惠劵模板数量，失败时重试
+     *
+     * 领取已经在独立的事务中提交，归还失败会导致模板的剩余数量偏少，所以重试仍然失败时，打印 error 日志，便于人工修正
+     *
+     * @param templateId  优惠劵模板编号
+     * @param count       归还数量
+     * @param issueTaskId 批量发放任务编号
+     */
+    private void refundCouponTemplateTakeCount(Long templateId, int count, Long issueTaskId) {
+        log.warn("[refundCouponTemplateTakeCount][task({}) 批量发放回滚，归还模板({}) 的领取数量({})]",
+                issueTaskId, templateId, count);
+        for (int i = 1; ; i++) {
+            try {
+                couponTemplateService.updateCouponTemplateTakeCount(templateId, -count);
+                return;
+            } catch (Exception ex) {
+                if (i >= ISSUE_REFUND_RETRY_COUNT) {
+                    log.error("[refundCouponTemplateTakeCount][task({}) 归还模板({}) 的领取数量({}) 失败，需要人工修正]",
+                            issueTaskId, templateId, count, ex);
+                    return;
+                }
+                log.warn("[refundCouponTemplateTakeCount][task({}) 归还模板({}) 的领取数量({}) 第 {} 次失败，稍后重试]",
+                        issueTaskId, templateId, count, i, ex);
+                ThreadUtil.sleep(ISSUE_REFUND_RETRY_INTERVAL * i);
+            }
+        }
+    }
+
     @Override
     public int expireCoupon() {
         // 1. 查询待过期的优惠券
@@ -72,6 +72,17 @@ public interface CouponTemplateService {
      */
     void updateCouponTemplateTakeCount(Long id, int incrCount);
 
+    /**
+     * 原子领取优惠劵模板的剩余数量；剩余数量不足时，只领取剩余的部分
+     *
+     * 在独立的事务中执行并提交，调用方的事务回滚时，需要自行归还领取的数量
+     *
+     * @param id    优惠劵模板编号
+     * @param count 期望领取的数量
+     * @return 实际领取的数量；为 0 时，表示已经领完
+     */
+    int takeCouponTemplateCount(Long id, int count);
+
     /**
      * 获得指定领取方式的优惠券模板
      *
@@ -14,6 +14,8 @@ import cn.iocoder.yudao.module.promotion.dal.mysql.coupon.CouponTemplateMapper;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
 import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTakeTypeEnum;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
@@ -121,6 +123,25 @@ public class CouponTemplateServiceImpl implements CouponTemplateService {
         }
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRES_NEW)
+    public int takeCouponTemplateCount(Long id, int count) {
+        // 1. 加锁读取最新的领取数量；在独立的短事务中执行，避免行锁持有到调用方的事务结束
+        CouponTemplateDO template = couponTemplateMapper.selectByIdForUpdate(id);
+        if (template == null) {
+            throw exception(COUPON_TEMPLATE_NOT_EXISTS);
+        }
+        // 2. 剩余数量不足时，只领取剩余的部分
+        if (ObjUtil.notEqual(template.getTotalCount(), CouponTemplateDO.TOTAL_COUNT_MAX)) {
+            count = Math.min(count, template.getTotalCount() - template.getTakeCount());
+        }
+        if (count <= 0) {
+            return 0;
+        }
+        couponTemplateMapper.updateTakeCount(id, count);
+        return count;
+    }
+
     @Override
     public List<CouponTemplateDO> getCouponTemplateListByTakeType(CouponTakeTypeEnum takeType) {
         return couponTemplateMapper.selectListByTakeType(takeType.getType());
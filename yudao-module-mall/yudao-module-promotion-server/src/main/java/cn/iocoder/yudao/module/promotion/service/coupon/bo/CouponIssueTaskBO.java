@@ -0,0 +1,71 @@
+package cn.iocoder.yudao.module.promotion.service.coupon.bo;
+
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponIssueTaskStatusEnum;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 优惠劵批量发放任务 BO
+ *
+ * 按照用户编号升序，分块给全部会员用户发送优惠劵；每个分块完成后，记录断点 {@link #cursor}，中断后从断点处继续发放
+ *
+ * @author 芋道源码
+ */
+@Data
+public class CouponIssueTaskBO {
+
+    /**
+     * 任务编号
+     */
+    private Long id;
+    /**
+     * 租户编号
+     */
+    private Long tenantId;
+    /**
+     * 优惠劵模板编号
+     */
+    private Long templateId;
+    /**
+     * 状态
+     *
+     * 枚举 {@link CouponIssueTaskStatusEnum}
+     */
+    private Integer status;
+
+    /**
+     * 断点：已经处理完成的最大用户编号
+     *
+     * 小于等于它的用户，都已经处理完成
+     */
+    private Long cursor;
+    /**
+     * 已处理的用户数量
+     */
+    private Integer userCount;
+    /**
+     * 已发放的优惠劵数量
+     *
+     * 注意，不包括达到领取上限、已经领取过的用户
+     */
+    private Integer issueCount;
+    /**
+     * 失败原因
+     */
+    private String errorMsg;
+
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startTime;
+    /**
+     * 最后更新时间
+     */
+    private LocalDateTime updateTime;
+    /**
+     * 结束时间
+     */
+    private LocalDateTime endTime;
+
+}
@@ -17,11 +17,14 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountActivit
 import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountActivityMapper;
 import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountProductMapper;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndexService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +53,11 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
     @Resource
     private ProductSkuApi productSkuApi;
 
+    @Resource
+    private PromotionActivityIndexService activityIndexService;
+    @Resource
+    private PromotionActivityProducer activityProducer;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createDiscountActivity(DiscountActivityCreateReqVO createReqVO) {
@@ -68,6 +76,8 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
                         .setActivityName(discountActivity.getName()).setActivityStatus(discountActivity.getStatus())
                         .setActivityStartTime(createReqVO.getStartTime()).setActivityEndTime(createReqVO.getEndTime()));
         discountProductMapper.insertBatch(discountProducts);
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
         // 返回
         return discountActivity.getId();
     }
@@ -90,6 +100,9 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         discountActivityMapper.updateById(updateObj);
         // 更新商品
         updateDiscountProduct(updateObj, updateReqVO.getProducts());
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     private void updateDiscountProduct(DiscountActivityDO activity, List<DiscountActivityCreateReqVO.Product> products) {
@@ -179,6 +192,9 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         // 更新活动商品状态
         discountProductMapper.updateByActivityId(new DiscountProductDO().setActivityId(id).setActivityStatus(
                 CommonStatusEnum.DISABLE.getStatus()));
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     @Override
@@ -193,6 +209,9 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         discountActivityMapper.deleteById(id);
         // 删除活动商品
         discountProductMapper.deleteByActivityId(id);
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     private DiscountActivityDO validateDiscountActivityExists(Long id) {
@@ -231,7 +250,7 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         if (CollUtil.isEmpty(skuIds)) {
             return CollUtil.newArrayList();
         }
-        return discountProductMapper.selectListBySkuIdsAndStatusAndNow(skuIds, CommonStatusEnum.ENABLE.getStatus());
+        return activityIndexService.getActivityIndex().getDiscountProductList(skuIds, LocalDateTime.now());
     }
 
 }
@@ -16,10 +16,14 @@ import cn.iocoder.yudao.module.promotion.controller.admin.reward.vo.RewardActivi
 import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.reward.RewardActivityMapper;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndex;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndexService;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static cn.hutool.core.collection.CollUtil.intersectionDistinct;
@@ -44,6 +48,11 @@ public class RewardActivityServiceImpl implements RewardActivityService {
     @Resource
     private ProductSpuApi productSpuApi;
 
+    @Resource
+    private PromotionActivityIndexService activityIndexService;
+    @Resource
+    private PromotionActivityProducer activityProducer;
+
     @Override
     public Long createRewardActivity(RewardActivityCreateReqVO createReqVO) {
         // 1.1 校验商品范围
@@ -55,6 +64,8 @@ public class RewardActivityServiceImpl implements RewardActivityService {
         RewardActivityDO rewardActivity = BeanUtils.toBean(createReqVO, RewardActivityDO.class)
                 .setStatus(CommonStatusEnum.ENABLE.getStatus());
         rewardActivityMapper.insert(rewardActivity);
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
         // 返回
         return rewardActivity.getId();
     }
@@ -74,6 +85,9 @@ public class RewardActivityServiceImpl implements RewardActivityService {
         // 2. 更新
         RewardActivityDO updateObj = BeanUtils.toBean(updateReqVO, RewardActivityDO.class);
         rewardActivityMapper.updateById(updateObj);
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     @Override
@@ -86,6 +100,9 @@ public class RewardActivityServiceImpl implements RewardActivityService {
 
         // 更新
         rewardActivityMapper.updateById(new RewardActivityDO().setId(id).setStatus(CommonStatusEnum.DISABLE.getStatus()));
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     @Override
@@ -98,6 +115,9 @@ public class RewardActivityServiceImpl implements RewardActivityService {
 
         // 删除
         rewardActivityMapper.deleteById(id);
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     private RewardActivityDO validateRewardActivityExists(Long id) {
@@ -194,46 +214,41 @@ public class RewardActivityServiceImpl implements RewardActivityService {
 
     @Override
     public List<RewardActivityMatchRespDTO> getMatchRewardActivityListBySpuIds(Collection<Long> spuIds) {
-        // 1. 查询商品分类
+        if (CollUtil.isEmpty(spuIds)) {
+            return Collections.emptyList();
+        }
+        // 1. 查询商品：不存在、已删除的商品，不匹配活动，否则会匹配到全部商品的活动
         List<ProductSpuRespDTO> spuList = productSpuApi.getSpuList(spuIds).getCheckedData();
         if (CollUtil.isEmpty(spuList)) {
             return Collections.emptyList();
         }
         Map<Long, ProductSpuRespDTO> spuMap = convertMap(spuList, ProductSpuRespDTO::getId);
 
-        // 2. 查询出指定 spuId 的 spu 参加的活动
-        List<RewardActivityDO> activityList = rewardActivityMapper.selectListBySpuIdAndStatusAndNow(
-                spuIds, convertSet(spuList, ProductSpuRespDTO::getCategoryId), CommonStatusEnum.ENABLE.getStatus());
-        if (CollUtil.isEmpty(activityList)) {
-            return Collections.emptyList();
-        }
-
-        // 3. 转换成 Response DTO
-        return convertList(activityList, activity -> {
-            RewardActivityMatchRespDTO activityDTO = BeanUtils.toBean(activity, RewardActivityMatchRespDTO.class);
-            // 3.1 设置对应匹配的 spuIds
-            activityDTO.setSpuIds(new ArrayList<>());
-            for (Long spuId : spuIds) {
-                if (PromotionProductScopeEnum.isAll(activityDTO.getProductScope())) {
-                    activityDTO.getSpuIds().add(spuId);
-                } else if (PromotionProductScopeEnum.isSpu(activityDTO.getProductScope())) {
-                    if (CollUtil.contains(activityDTO.getProductScopeValues(), spuId)) {
-                        activityDTO.getSpuIds().add(spuId);
-                    }
-                } else if (PromotionProductScopeEnum.isCategory(activityDTO.getProductScope())) {
-                    ProductSpuRespDTO spu = spuMap.get(spuId);
-                    if (spu != null && CollUtil.contains(activityDTO.getProductScopeValues(), spu.getCategoryId())) {
-                        activityDTO.getSpuIds().add(spuId);
-                    }
-                }
+        // 2. 通过索引，匹配每个 spuId 参加的活动；按照活动编号倒序，和原先的 DB 查询保持一致
+        PromotionActivityIndex index = activityIndexService.getActivityIndex();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, RewardActivityMatchRespDTO> activityDTOMap = new TreeMap<>(Comparator.reverseOrder());
+        for (Long spuId : new LinkedHashSet<>(spuIds)) {
+            ProductSpuRespDTO spu = spuMap.get(spuId);
+            if (spu == null) {
+                continue;
+            }
+            for (RewardActivityDO activity : index.getRewardActivityList(spuId, spu.getCategoryId(), now)) {
+                activityDTOMap.computeIfAbsent(activity.getId(), id -> buildRewardActivityMatchRespDTO(activity))
+                        .getSpuIds().add(spuId);
             }
+        }
+        return new ArrayList<>(activityDTOMap.values());
+    }
 
-            // 3.2 设置每个 Rule 的描述
-            activityDTO.setRules(convertList(activity.getRules(), rule ->
-                    BeanUtils.toBean(rule, RewardActivityMatchRespDTO.Rule.class)
-                            .setDescription(getRewardActivityRuleDescription(activityDTO.getConditionType(), rule))));
-            return activityDTO;
-        });
+    private RewardActivityMatchRespDTO buildRewardActivityMatchRespDTO(RewardActivityDO activity) {
+        RewardActivityMatchRespDTO activityDTO = BeanUtils.toBean(activity, RewardActivityMatchRespDTO.class);
+        activityDTO.setSpuIds(new ArrayList<>());
+        // 设置每个 Rule 的描述
+        activityDTO.setRules(convertList(activity.getRules(), rule ->
+                BeanUtils.toBean(rule, RewardActivityMatchRespDTO.Rule.class)
+                        .setDescription(getRewardActivityRuleDescription(activityDTO.getConditionType(), rule))));
+        return activityDTO;
     }
 
 }
@@ -38,20 +38,33 @@ public interface SeckillActivityService {
     /**
      * 更新秒杀库存（减少）
      *
-     * @param id    活动编号
-     * @param skuId sku 编号
-     * @param count 数量（正数）
+     * 在 Redis 中原子预扣，同一个订单只扣减一次；再由 {@link #syncSeckillStock()} 批量同步到 DB
+     *
+     * @param id      活动编号
+     * @param skuId   sku 编号
+     * @param count   数量（正数）
+     * @param orderNo 订单号
      */
-    void updateSeckillStockDecr(Long id, Long skuId, Integer count);
+    void updateSeckillStockDecr(Long id, Long skuId, Integer count, String orderNo);
 
     /**
      * 更新秒杀库存（增加）
      *
-     * @param id    活动编号
-     * @param skuId sku 编号
-     * @param count 数量（正数）
+     * 在 Redis 中归还，同一个订单只归还一次；再由 {@link #syncSeckillStock()} 批量同步到 DB
+     *
+     * @param id      活动编号
+     * @param skuId   sku 编号
+     * @param count   数量（正数）
+     * @param orderNo 订单号
+     */
+    void updateSeckillStockIncr(Long id, Long skuId, Integer count, String orderNo);
+
+    /**
+     * 同步秒杀库存：预加载进行中活动的库存到 Redis，并将 Redis 中的库存变化批量同步到 DB
+     *
+     * @return 同步的活动数量
      */
-    void updateSeckillStockIncr(Long id, Long skuId, Integer count);
+    int syncSeckillStock();
 
     /**
      * 关闭秒杀活动
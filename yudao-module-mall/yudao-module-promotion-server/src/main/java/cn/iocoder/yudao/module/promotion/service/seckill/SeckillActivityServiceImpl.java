@@ -1,7 +1,9 @@
 package cn.iocoder.yudao.module.promotion.service.seckill;
 
 import cn.hutool.core.collection.CollectionUtil;
+import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils;
@@ -21,15 +23,22 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillConfigDO;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillProductDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillActivityMapper;
 import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillProductMapper;
+import cn.iocoder.yudao.module.promotion.dal.redis.seckill.SeckillStockRedisDAO;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import static cn.hutool.core.collection.CollUtil.isNotEmpty;
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
@@ -47,12 +56,20 @@ import static java.util.Collections.singletonList;
  */
 @Service
 @Validated
+@Slf4j
 public class SeckillActivityServiceImpl implements SeckillActivityService {
 
+    /**
+     * Redis 中活动库存的最小过期时间
+     */
+    private static final Duration SECKILL_STOCK_MIN_EXPIRE = Duration.ofHours(1);
+
     @Resource
     private SeckillActivityMapper seckillActivityMapper;
     @Resource
     private SeckillProductMapper seckillProductMapper;
+    @Resource
+    private SeckillStockRedisDAO seckillStockRedisDAO;
 
     @Resource
     private SeckillConfigService seckillConfigService;
@@ -62,6 +79,9 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
     @Resource
     private ProductSkuApi productSkuApi;
 
+    @Resource
+    private PromotionActivityProducer activityProducer;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createSeckillActivity(SeckillActivityCreateReqVO createReqVO) {
@@ -79,6 +99,8 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         // 2.2 插入商品
         List<SeckillProductDO> products = SeckillActivityConvert.INSTANCE.convertList(createReqVO.getProducts(), activity);
         seckillProductMapper.insertBatch(products);
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
         return activity.getId();
     }
 
@@ -153,43 +175,131 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         seckillActivityMapper.updateById(updateObj);
         // 2.2 更新商品
         updateSeckillProduct(updateObj, updateReqVO.getProducts());
+        // 2.3 库存可能变化，删除 Redis 中的活动库存
+        deleteSeckillStockAfterCommit(updateObj.getId());
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void updateSeckillStockDecr(Long id, Long skuId, Integer count) {
-        // 1.1 校验活动库存是否充足
-        SeckillActivityDO seckillActivity = validateSeckillActivityExists(id);
-        if (count > seckillActivity.getStock()) {
-            throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
+    public void updateSeckillStockDecr(Long id, Long skuId, Integer count, String orderNo) {
+        // 1. 在 Redis 中预扣库存
+        long result = seckillStockRedisDAO.reserve(id, skuId, count, orderNo);
+        // 2. 库存未加载时，从 DB 加载后重试
+        if (result == SeckillStockRedisDAO.RESERVE_NOT_LOADED) {
+            validateSeckillActivityExists(id);
+            loadSeckillStock(id);
+            result = seckillStockRedisDAO.reserve(id, skuId, count, orderNo);
         }
-        // 1.2 校验商品库存是否充足
-        SeckillProductDO product = seckillProductMapper.selectByActivityIdAndSkuId(id, skuId);
-        if (product == null || count > product.getStock()) {
+        if (result != SeckillStockRedisDAO.RESERVE_SUCCESS) {
             throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
         }
+    }
 
-        // 2.1 更新活动商品库存
-        int updateCount = seckillProductMapper.updateStockDecr(product.getId(), count);
-        if (updateCount == 0) {
-            throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
+    @Override
+    public void updateSeckillStockIncr(Long id, Long skuId, Integer count, String orderNo) {
+        if (!seckillStockRedisDAO.release(id, skuId, count, orderNo)) {
+            log.warn("[updateSeckillStockIncr][活动({}) 订单({}) 的库存已经归还过，或者未预扣]", id, orderNo);
         }
+    }
 
-        // 2.2 更新活动库存
-        updateCount = seckillActivityMapper.updateStockDecr(seckillActivity.getId(), count);
-        if (updateCount == 0) {
-            throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
+    @Override
+    public int syncSeckillStock() {
+        // 1. 预加载进行中活动的库存，避免活动开始时集中加载
+        List<SeckillActivityDO> activities = seckillActivityMapper.selectListByStatusAndNow(
+                CommonStatusEnum.ENABLE.getStatus(), LocalDateTime.now());
+        activities.forEach(activity -> loadSeckillStock(activity.getId()));
+
+        // 2. 将 Redis 中的库存变化，批量同步到 DB。持有库存锁，避免同时加载到同步前的 DB 库存
+        int count = 0;
+        for (Long activityId : seckillStockRedisDAO.getSyncActivityIds()) {
+            try {
+                boolean synced = seckillStockRedisDAO.lock(activityId, () -> {
+                    Map<Long, Integer> skuDecrCounts = seckillStockRedisDAO.takeSync(activityId);
+                    if (skuDecrCounts.isEmpty()) {
+                        return false;
+                    }
+                    getSelf().syncSeckillStock(activityId, skuDecrCounts);
+                    seckillStockRedisDAO.completeSync(activityId);
+                    return true;
+                });
+                if (synced) {
+                    count++;
+                }
+            } catch (Exception ex) {
+                // 同步失败时，库存变化保留在 Redis 中，下次重试
+                log.error("[syncSeckillStock][活动({}) 同步库存失败]", activityId, ex);
+            }
         }
+        return count;
     }
 
-    @Override
+    /**
+     * 将活动的库存变化同步到 DB
+     *
+     * @param activityId    活动编号
+     * @param skuDecrCounts 库存变化，key 为 SKU 编号，value 为扣减的库存；为负数时，表示归还的库存
+     */
     @Transactional(rollbackFor = Exception.class)
-    public void updateSeckillStockIncr(Long id, Long skuId, Integer count) {
-        SeckillProductDO product = seckillProductMapper.selectByActivityIdAndSkuId(id, skuId);
-        // 更新活动商品库存
-        seckillProductMapper.updateStockIncr(product.getId(), count);
-        // 更新活动库存
-        seckillActivityMapper.updateStockIncr(id, count);
+    public void syncSeckillStock(Long activityId, Map<Long, Integer> skuDecrCounts) {
+        skuDecrCounts.forEach((skuId, decrCount) -> {
+            if (decrCount != 0) {
+                seckillProductMapper.updateStockSync(activityId, skuId, decrCount);
+            }
+        });
+        int decrCount = getSumValue(skuDecrCounts.values(), Function.identity(), Integer::sum);
+        if (decrCount != 0) {
+            seckillActivityMapper.updateStockSync(activityId, decrCount);
+        }
+    }
+
+    /**
+     * 加载活动的库存到 Redis；已经加载时，不覆盖
+     *
+     * 持有库存锁，在锁内读取 DB 库存，保证读到的是最近一次同步后的库存
+     *
+     * @param activityId 活动编号
+     */
+    private void loadSeckillStock(Long activityId) {
+        if (seckillStockRedisDAO.exists(activityId)) {
+            return;
+        }
+        seckillStockRedisDAO.lock(activityId, () -> {
+            SeckillActivityDO activity = seckillActivityMapper.selectById(activityId);
+            if (activity == null || seckillStockRedisDAO.exists(activityId)) {
+                return false;
+            }
+            List<SeckillProductDO> products = seckillProductMapper.selectListByActivityId(activityId);
+            // 过期时间：活动结束后 1 天，避免活动期间过期后重新加载
+            Duration expire = LocalDateTimeUtil.between(LocalDateTime.now(), activity.getEndTime()).plusDays(1);
+            if (expire.compareTo(SECKILL_STOCK_MIN_EXPIRE) < 0) {
+                expire = SECKILL_STOCK_MIN_EXPIRE;
+            }
+            seckillStockRedisDAO.load(activityId, activity.getStock(),
+                    convertMap(products, SeckillProductDO::getSkuId, SeckillProductDO::getStock), expire);
+            return true;
+        });
+    }
+
+    /**
+     * 事务提交后，删除 Redis 中的活动库存，下次预扣时按照 DB 重新加载
+     *
+     * @param activityId 活动编号
+     */
+    private void deleteSeckillStockAfterCommit(Long activityId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seckillStockRedisDAO.delete(activityId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                seckillStockRedisDAO.delete(activityId);
+            }
+
+        });
     }
 
     /**
@@ -233,6 +343,9 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         // 更新
         SeckillActivityDO updateObj = new SeckillActivityDO().setId(id).setStatus(CommonStatusEnum.DISABLE.getStatus());
         seckillActivityMapper.updateById(updateObj);
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     @Override
@@ -249,6 +362,11 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         // 删除活动商品
         List<SeckillProductDO> products = seckillProductMapper.selectListByActivityId(id);
         seckillProductMapper.deleteByIds(convertSet(products, SeckillProductDO::getId));
+        // 删除 Redis 中的活动库存
+        deleteSeckillStockAfterCommit(id);
+
+        // 广播刷新营销活动索引
+        activityProducer.sendActivityRefreshMessage();
     }
 
     private SeckillActivityDO validateSeckillActivityExists(Long id) {
@@ -335,4 +453,13 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         return seckillActivityMapper.selectList(SeckillActivityDO::getId, ids);
     }
 
+    /**
+     * 获得自身的代理对象，解决 AOP 生效问题
+     *
+     * @return 自己
+     */
+    private SeckillActivityServiceImpl getSelf() {
+        return SpringUtil.getBean(getClass());
+    }
+
 }
@@ -0,0 +1,17 @@
+-- 秒杀库存加载：已经加载时不覆盖；扣除尚未同步到 DB 的库存变化
+-- KEYS: 1 库存 2 待同步变化 3 同步中变化
+-- ARGV: 1 过期秒数 2 活动库存 3.. skuId、商品库存依次排列
+-- 返回：1 加载；0 已经加载
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+local activityStock = tonumber(ARGV[2])
+for i = 3, #ARGV, 2 do
+    local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[i]) or '0')
+            + tonumber(redis.call('HGET', KEYS[3], ARGV[i]) or '0')
+    redis.call('HSET', KEYS[1], ARGV[i], tonumber(ARGV[i + 1]) - pending)
+    activityStock = activityStock - pending
+end
+redis.call('HSET', KEYS[1], 'activity', activityStock)
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return 1
@@ -0,0 +1,21 @@
+-- 秒杀库存归还：同一个订单只归还一次
+-- KEYS: 1 库存 2 订单预扣记录 3 待同步变化
+-- ARGV: 1 skuId 2 数量 3 订单号 4 订单预扣记录的过期秒数
+-- 返回：1 成功；0 已经归还过，或者未预扣
+local reserved = redis.call('HGET', KEYS[2], ARGV[3])
+if reserved == '-1' then
+    return 0
+end
+-- 未预扣时，也标记为已归还，避免迟到的预扣再扣减库存
+redis.call('HSET', KEYS[2], ARGV[3], -1)
+redis.call('EXPIRE', KEYS[2], ARGV[4])
+if not reserved then
+    return 0
+end
+local count = tonumber(ARGV[2])
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    redis.call('HINCRBY', KEYS[1], 'activity', count)
+    redis.call('HINCRBY', KEYS[1], ARGV[1], count)
+end
+redis.call('HINCRBY', KEYS[3], ARGV[1], -count)
+return 1
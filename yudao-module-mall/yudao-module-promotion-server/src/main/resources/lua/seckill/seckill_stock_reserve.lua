@@ -0,0 +1,27 @@
+-- 秒杀库存预扣：同一个订单只扣减一次
+-- KEYS: 1 库存 2 订单预扣记录 3 待同步变化
+-- ARGV: 1 skuId 2 数量 3 订单号 4 订单预扣记录的过期秒数
+-- 返回：1 成功；0 库存不足；-1 库存未加载
+local reserved = redis.call('HGET', KEYS[2], ARGV[3])
+if reserved then
+    -- 已经归还过时，不再预扣，按照库存不足处理
+    if reserved == '-1' then
+        return 0
+    end
+    return 1
+end
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -1
+end
+local count = tonumber(ARGV[2])
+local activityStock = tonumber(redis.call('HGET', KEYS[1], 'activity') or '0')
+local skuStock = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0')
+if activityStock < count or skuStock < count then
+    return 0
+end
+redis.call('HINCRBY', KEYS[1], 'activity', -count)
+redis.call('HINCRBY', KEYS[1], ARGV[1], -count)
+redis.call('HSET', KEYS[2], ARGV[3], count)
+redis.call('EXPIRE', KEYS[2], ARGV[4])
+redis.call('HINCRBY', KEYS[3], ARGV[1], count)
+return 1
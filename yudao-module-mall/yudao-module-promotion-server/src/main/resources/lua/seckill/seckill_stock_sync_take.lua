@@ -0,0 +1,10 @@
+-- 取出待同步到 DB 的库存变化。上次同步未完成时，先重新同步上次的
+-- KEYS: 1 待同步变化 2 同步中变化
+-- 返回：同步中变化的 HGETALL 结果；为空时，表示没有待同步的变化
+if redis.call('EXISTS', KEYS[2]) == 0 then
+    if redis.call('EXISTS', KEYS[1]) == 0 then
+        return {}
+    end
+    redis.call('RENAME', KEYS[1], KEYS[2])
+end
+return redis.call('HGETALL', KEYS[2])
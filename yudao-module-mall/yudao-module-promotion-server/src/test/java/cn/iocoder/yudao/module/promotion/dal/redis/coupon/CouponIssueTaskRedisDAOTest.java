@@ -0,0 +1,71 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.coupon;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponIssueTaskStatusEnum;
+import cn.iocoder.yudao.module.promotion.service.coupon.bo.CouponIssueTaskBO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+
+import static cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link CouponIssueTaskRedisDAO} 的单元测试
+ *
+ * @author 芋道源码
+ */
+@Import(CouponIssueTaskRedisDAO.class)
+public class CouponIssueTaskRedisDAOTest extends BaseRedisUnitTest {
+
+    private static final Long TEMPLATE_ID = 1L;
+
+    @Resource
+    private CouponIssueTaskRedisDAO couponIssueTaskRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(Arrays.asList(String.format(COUPON_ISSUE_TASK_TEMPLATE, TEMPLATE_ID),
+                String.format(COUPON_ISSUE_TASK, 10L), String.format(COUPON_ISSUE_TASK, 11L), COUPON_ISSUE_TASK_RUNNING));
+    }
+
+    @Test
+    public void testSetTemplateIfAbsent() {
+        // 调用，并断言：任务 10 占用模板；重复占用成功
+        assertTrue(couponIssueTaskRedisDAO.setTemplateIfAbsent(TEMPLATE_ID, 10L));
+        assertTrue(couponIssueTaskRedisDAO.setTemplateIfAbsent(TEMPLATE_ID, 10L));
+        // 调用，并断言：任务 11 占用失败
+        assertFalse(couponIssueTaskRedisDAO.setTemplateIfAbsent(TEMPLATE_ID, 11L));
+    }
+
+    @Test
+    public void testSet_releaseTemplate() {
+        // 准备参数：任务 10 占用模板，发放中
+        assertTrue(couponIssueTaskRedisDAO.setTemplateIfAbsent(TEMPLATE_ID, 10L));
+        couponIssueTaskRedisDAO.set(buildTask(10L, CouponIssueTaskStatusEnum.RUNNING));
+        assertEquals(1, couponIssueTaskRedisDAO.getRunningIds().size());
+
+        // 调用：任务 11 结束，不释放任务 10 占用的模板
+        couponIssueTaskRedisDAO.set(buildTask(11L, CouponIssueTaskStatusEnum.FAILED));
+        // 断言
+        assertFalse(couponIssueTaskRedisDAO.setTemplateIfAbsent(TEMPLATE_ID, 11L));
+
+        // 调用：任务 10 结束，释放模板
+        couponIssueTaskRedisDAO.set(buildTask(10L, CouponIssueTaskStatusEnum.SUCCESS));
+        // 断言
+        assertTrue(couponIssueTaskRedisDAO.getRunningIds().isEmpty());
+        assertTrue(couponIssueTaskRedisDAO.setTemplateIfAbsent(TEMPLATE_ID, 11L));
+    }
+
+    private static CouponIssueTaskBO buildTask(Long id, CouponIssueTaskStatusEnum status) {
+        return new CouponIssueTaskBO().setId(id).setTemplateId(TEMPLATE_ID).setStatus(status.getStatus());
+    }
+
+}
@@ -0,0 +1,194 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.seckill;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link SeckillStockRedisDAO} 的 Lua 脚本的单元测试
+ *
+ * @author 芋道源码
+ */
+@Import(SeckillStockRedisDAO.class)
+public class SeckillStockRedisDAOTest extends BaseRedisUnitTest {
+
+    private static final Long ACTIVITY_ID = 1L;
+    private static final Long SKU_ID = 100L;
+
+    @Resource
+    private SeckillStockRedisDAO seckillStockRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(Arrays.asList(String.format(SECKILL_STOCK, ACTIVITY_ID),
+                String.format(SECKILL_STOCK_ORDER, ACTIVITY_ID), String.format(SECKILL_STOCK_DELTA, ACTIVITY_ID),
+                String.format(SECKILL_STOCK_DELTA_SYNCING, ACTIVITY_ID), SECKILL_STOCK_DIRTY));
+    }
+
+    @Test
+    public void testReserve_notLoaded() {
+        // 调用，并断言
+        assertEquals(SeckillStockRedisDAO.RESERVE_NOT_LOADED, seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 1, "o1"));
+    }
+
+    @Test
+    public void testReserve() {
+        // 准备参数
+        load(10, 5);
+
+        // 调用，并断言：成功
+        assertEquals(SeckillStockRedisDAO.RESERVE_SUCCESS, seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 3, "o1"));
+        assertStock(7, 2);
+        // 调用，并断言：同一个订单，只扣减一次
+        assertEquals(SeckillStockRedisDAO.RESERVE_SUCCESS, seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 3, "o1"));
+        assertStock(7, 2);
+        // 调用，并断言：库存不足
+        assertEquals(SeckillStockRedisDAO.RESERVE_STOCK_NOT_ENOUGH, seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 3, "o2"));
+        assertStock(7, 2);
+        // 断言：记录待同步的活动
+        assertEquals(Collections.singleton(ACTIVITY_ID), seckillStockRedisDAO.getSyncActivityIds());
+        // 断言：订单预扣记录有过期时间
+        Long expire = stringRedisTemplate.getExpire(String.format(SECKILL_STOCK_ORDER, ACTIVITY_ID));
+        assertNotNull(expire);
+        assertTrue(expire > 0);
+    }
+
+    @Test
+    public void testReserve_notDirtyWhenFailed() {
+        // 准备参数
+        load(1, 1);
+
+        // 调用，并断言：库存不足时，不记录待同步的活动
+        assertEquals(SeckillStockRedisDAO.RESERVE_STOCK_NOT_ENOUGH, seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 3, "o1"));
+        assertTrue(seckillStockRedisDAO.getSyncActivityIds().isEmpty());
+    }
+
+    @Test
+    public void testKeys_sameHashTag() {
+        // 断言：Lua 脚本操作的 Key，使用相同的 hash tag，保证在 Redis Cluster 的同一个 slot
+        String hashTag = "{" + ACTIVITY_ID + "}";
+        assertTrue(String.format(SECKILL_STOCK, ACTIVITY_ID).endsWith(hashTag));
+        assertTrue(String.format(SECKILL_STOCK_ORDER, ACTIVITY_ID).endsWith(hashTag));
+        assertTrue(String.format(SECKILL_STOCK_DELTA, ACTIVITY_ID).endsWith(hashTag));
+        assertTrue(String.format(SECKILL_STOCK_DELTA_SYNCING, ACTIVITY_ID).endsWith(hashTag));
+    }
+
+    @Test
+    public void testRelease() {
+        // 准备参数
+        load(10, 5);
+        seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 3, "o1");
+
+        // 调用，并断言：归还成功
+        assertTrue(seckillStockRedisDAO.release(ACTIVITY_ID, SKU_ID, 3, "o1"));
+        assertStock(10, 5);
+        // 调用，并断言：同一个订单，只归还一次
+        assertFalse(seckillStockRedisDAO.release(ACTIVITY_ID, SKU_ID, 3, "o1"));
+        assertStock(10, 5);
+        // 断言：扣减、归还抵消
+        assertEquals(0, seckillStockRedisDAO.takeSync(ACTIVITY_ID).get(SKU_ID));
+    }
+
+    @Test
+    public void testRelease_notReserved() {
+        // 准备参数
+        load(10, 5);
+
+        // 调用，并断言：未预扣时，不归还库存
+        assertFalse(seckillStockRedisDAO.release(ACTIVITY_ID, SKU_ID, 3, "o1"));
+        assertStock(10, 5);
+        // 调用，并断言：迟到的预扣，不再扣减库存
+        assertEquals(SeckillStockRedisDAO.RESERVE_STOCK_NOT_ENOUGH, seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 3, "o1"));
+        assertStock(10, 5);
+    }
+
+    @Test
+    public void testTakeSync() {
+        // 准备参数
+        load(10, 5);
+        seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 2, "o1");
+
+        // 调用，并断言：取出待同步的变化
+        assertEquals(2, seckillStockRedisDAO.takeSync(ACTIVITY_ID).get(SKU_ID));
+        // 调用，并断言：未确认时，新的变化不合并，重新返回上次的变化
+        seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 1, "o2");
+        assertEquals(2, seckillStockRedisDAO.takeSync(ACTIVITY_ID).get(SKU_ID));
+        // 调用，并断言：确认后，返回新的变化
+        seckillStockRedisDAO.completeSync(ACTIVITY_ID);
+        assertEquals(1, seckillStockRedisDAO.takeSync(ACTIVITY_ID).get(SKU_ID));
+        // 调用，并断言：没有变化时，移出待同步的活动
+        seckillStockRedisDAO.completeSync(ACTIVITY_ID);
+        assertTrue(seckillStockRedisDAO.takeSync(ACTIVITY_ID).isEmpty());
+        assertTrue(seckillStockRedisDAO.getSyncActivityIds().isEmpty());
+    }
+
+    @Test
+    public void testTakeSync_keepDirtyWhenPending() {
+        // 准备参数：待同步的活动中，没有该活动；但是存在待同步的变化（模拟脚本执行后、记录活动编号前）
+        stringRedisTemplate.opsForHash().put(String.format(SECKILL_STOCK_DELTA, ACTIVITY_ID),
+                String.valueOf(SKU_ID), "1");
+
+        // 调用，并断言：取出待同步的变化
+        assertEquals(1, seckillStockRedisDAO.takeSync(ACTIVITY_ID).get(SKU_ID));
+        seckillStockRedisDAO.completeSync(ACTIVITY_ID);
+        // 调用，并断言：没有变化时，移出待同步的活动
+        assertTrue(seckillStockRedisDAO.takeSync(ACTIVITY_ID).isEmpty());
+        assertTrue(seckillStockRedisDAO.getSyncActivityIds().isEmpty());
+    }
+
+    @Test
+    public void testLoad_pending() {
+        // 准备参数：预扣 2 个，同步中；再预扣 1 个，待同步
+        load(10, 5);
+        seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 2, "o1");
+        seckillStockRedisDAO.takeSync(ACTIVITY_ID);
+        seckillStockRedisDAO.reserve(ACTIVITY_ID, SKU_ID, 1, "o2");
+        seckillStockRedisDAO.delete(ACTIVITY_ID);
+        assertFalse(seckillStockRedisDAO.exists(ACTIVITY_ID));
+
+        // 调用：DB 中的库存，还未同步
+        load(10, 5);
+        // 断言：扣除未同步的变化
+        assertTrue(seckillStockRedisDAO.exists(ACTIVITY_ID));
+        assertStock(7, 2);
+
+        // 调用：已经加载时，不覆盖
+        load(100, 50);
+        // 断言
+        assertStock(7, 2);
+    }
+
+    @Test
+    public void testLock() {
+        // 调用，并断言：返回执行结果
+        assertEquals("ok", seckillStockRedisDAO.lock(ACTIVITY_ID, () -> "ok"));
+        // 调用，并断言：锁已经释放，可以再次获得
+        assertEquals(Boolean.TRUE, seckillStockRedisDAO.lock(ACTIVITY_ID, () -> true));
+    }
+
+    private void load(Integer activityStock, Integer skuStock) {
+        seckillStockRedisDAO.load(ACTIVITY_ID, activityStock, Collections.singletonMap(SKU_ID, skuStock),
+                Duration.ofHours(1));
+    }
+
+    private void assertStock(int activityStock, int skuStock) {
+        Map<Object, Object> stock = stringRedisTemplate.opsForHash().entries(String.format(SECKILL_STOCK, ACTIVITY_ID));
+        assertEquals(String.valueOf(activityStock), stock.get("activity"));
+        assertEquals(String.valueOf(skuStock), stock.get(String.valueOf(SKU_ID)));
+    }
+
+}
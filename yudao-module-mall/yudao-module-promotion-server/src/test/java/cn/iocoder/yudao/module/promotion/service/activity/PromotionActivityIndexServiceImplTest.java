@@ -0,0 +1,122 @@
+package cn.iocoder.yudao.module.promotion.service.activity;
+
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.mysql.bargain.BargainActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.combination.CombinationActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountProductMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.reward.RewardActivityMapper;
+import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillActivityMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link PromotionActivityIndexServiceImpl} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class PromotionActivityIndexServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private PromotionActivityIndexServiceImpl activityIndexService;
+
+    @Mock
+    private DiscountProductMapper discountProductMapper;
+    @Mock
+    private RewardActivityMapper rewardActivityMapper;
+    @Mock
+    private SeckillActivityMapper seckillActivityMapper;
+    @Mock
+    private CombinationActivityMapper combinationActivityMapper;
+    @Mock
+    private BargainActivityMapper bargainActivityMapper;
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testGetActivityIndex_cached() {
+        // mock 方法
+        SeckillActivityDO seckill = buildSeckillActivity(1L, 100L);
+        when(seckillActivityMapper.selectListByStatusAndEndTimeGt(eq(CommonStatusEnum.ENABLE.getStatus()), any()))
+                .thenReturn(Collections.singletonList(seckill));
+
+        // 调用：多次获取
+        PromotionActivityIndex index = activityIndexService.getActivityIndex();
+        assertSame(index, activityIndexService.getActivityIndex());
+        // 断言：只加载一次
+        assertSame(seckill, index.getSeckillActivity(100L, LocalDateTime.now()));
+        verify(seckillActivityMapper, times(1)).selectListByStatusAndEndTimeGt(any(), any());
+        verify(discountProductMapper, times(1)).selectListByActivityStatusAndActivityEndTimeGt(any(), any());
+        verify(rewardActivityMapper, times(1)).selectListByStatusAndEndTimeGt(any(), any());
+        verify(combinationActivityMapper, times(1)).selectListByStatusAndEndTimeGt(any(), any());
+        verify(bargainActivityMapper, times(1)).selectListByStatusAndEndTimeGt(any(), any());
+    }
+
+    @Test
+    public void testGetActivityIndex_tenant() {
+        // mock 方法：不同租户，加载不同的活动
+        SeckillActivityDO seckill01 = buildSeckillActivity(1L, 100L);
+        SeckillActivityDO seckill02 = buildSeckillActivity(2L, 100L);
+        when(seckillActivityMapper.selectListByStatusAndEndTimeGt(eq(CommonStatusEnum.ENABLE.getStatus()), any()))
+                .thenReturn(Collections.singletonList(seckill01), Collections.singletonList(seckill02));
+
+        // 调用
+        TenantContextHolder.setTenantId(1L);
+        PromotionActivityIndex index01 = activityIndexService.getActivityIndex();
+        TenantContextHolder.setTenantId(2L);
+        PromotionActivityIndex index02 = activityIndexService.getActivityIndex();
+        // 断言：按照租户分别缓存
+        assertSame(seckill01, index01.getSeckillActivity(100L, LocalDateTime.now()));
+        assertSame(seckill02, index02.getSeckillActivity(100L, LocalDateTime.now()));
+        TenantContextHolder.setTenantId(1L);
+        assertSame(index01, activityIndexService.getActivityIndex());
+        verify(seckillActivityMapper, times(2)).selectListByStatusAndEndTimeGt(any(), any());
+    }
+
+    @Test
+    public void testRefreshActivityIndex_notLoaded() {
+        // 调用：本节点未加载过
+        activityIndexService.refreshActivityIndex();
+        // 断言：不加载，使用时再加载
+        verifyNoInteractions(seckillActivityMapper);
+    }
+
+    @Test
+    public void testRefreshActivityIndex() {
+        // mock 方法：刷新前后，活动不同
+        SeckillActivityDO seckill01 = buildSeckillActivity(1L, 100L);
+        SeckillActivityDO seckill02 = buildSeckillActivity(2L, 100L);
+        when(seckillActivityMapper.selectListByStatusAndEndTimeGt(eq(CommonStatusEnum.ENABLE.getStatus()), any()))
+                .thenReturn(Collections.singletonList(seckill01), Collections.singletonList(seckill02));
+        PromotionActivityIndex index = activityIndexService.getActivityIndex();
+
+        // 调用
+        activityIndexService.refreshActivityIndex();
+        // 断言：替换为新的索引
+        PromotionActivityIndex newIndex = activityIndexService.getActivityIndex();
+        assertNotSame(index, newIndex);
+        assertSame(seckill01, index.getSeckillActivity(100L, LocalDateTime.now()));
+        assertSame(seckill02, newIndex.getSeckillActivity(100L, LocalDateTime.now()));
+    }
+
+    private static SeckillActivityDO buildSeckillActivity(Long id, Long spuId) {
+        return new SeckillActivityDO().setId(id).setSpuId(spuId)
+                .setStartTime(LocalDateTime.now().minusDays(1)).setEndTime(LocalDateTime.now().plusDays(1));
+    }
+
+}
@@ -0,0 +1,115 @@
+package cn.iocoder.yudao.module.promotion.service.activity;
+
+import cn.iocoder.yudao.module.promotion.dal.dataobject.bargain.BargainActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.combination.CombinationActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link PromotionActivityIndex} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class PromotionActivityIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private static final LocalDateTime PAST = NOW.minusDays(1);
+    private static final LocalDateTime FUTURE = NOW.plusDays(1);
+
+    @Test
+    public void testEmpty() {
+        // 断言：没有活动时，都匹配不到
+        assertTrue(PromotionActivityIndex.EMPTY.getDiscountProductList(asList(1L, 2L), NOW).isEmpty());
+        assertTrue(PromotionActivityIndex.EMPTY.getRewardActivityList(1L, 1L, NOW).isEmpty());
+        assertNull(PromotionActivityIndex.EMPTY.getSeckillActivity(1L, NOW));
+        assertNull(PromotionActivityIndex.EMPTY.getCombinationActivity(1L, NOW));
+        assertNull(PromotionActivityIndex.EMPTY.getBargainActivity(1L, NOW));
+    }
+
+    @Test
+    public void testGetDiscountProductList() {
+        // 准备参数
+        DiscountProductDO active = new DiscountProductDO().setId(1L).setSkuId(10L)
+                .setActivityStartTime(PAST).setActivityEndTime(FUTURE);
+        DiscountProductDO notStarted = new DiscountProductDO().setId(2L).setSkuId(10L)
+                .setActivityStartTime(FUTURE).setActivityEndTime(FUTURE.plusDays(1));
+        DiscountProductDO other = new DiscountProductDO().setId(3L).setSkuId(20L)
+                .setActivityStartTime(PAST).setActivityEndTime(FUTURE);
+        PromotionActivityIndex index = PromotionActivityIndex.of(asList(active, notStarted, other),
+                null, null, null, null);
+
+        // 调用，并断言：只匹配指定 SKU、并且进行中的
+        assertEquals(singletonList(active), index.getDiscountProductList(singletonList(10L), NOW));
+        assertEquals(asList(active, other), index.getDiscountProductList(asList(10L, 20L, 30L), NOW));
+        // 调用，并断言：时间变化后，无需刷新索引，按照新的时间匹配
+        assertEquals(singletonList(notStarted), index.getDiscountProductList(singletonList(10L), FUTURE.plusHours(1)));
+        // 调用，并断言：空参数
+        assertTrue(index.getDiscountProductList(null, NOW).isEmpty());
+    }
+
+    @Test
+    public void testGetRewardActivityList() {
+        // 准备参数
+        RewardActivityDO all = buildRewardActivity(1L, PromotionProductScopeEnum.ALL.getScope(), null);
+        RewardActivityDO spu = buildRewardActivity(2L, PromotionProductScopeEnum.SPU.getScope(), asList(100L, 101L));
+        RewardActivityDO category = buildRewardActivity(3L, PromotionProductScopeEnum.CATEGORY.getScope(),
+                singletonList(200L));
+        RewardActivityDO ended = buildRewardActivity(4L, PromotionProductScopeEnum.SPU.getScope(), singletonList(100L))
+                .setStartTime(PAST.minusDays(1)).setEndTime(PAST);
+        PromotionActivityIndex index = PromotionActivityIndex.of(null, asList(all, spu, category, ended),
+                null, null, null);
+
+        // 调用，并断言：指定商品、指定品类、全部商品都匹配，按照编号倒序
+        assertEquals(asList(3L, 2L, 1L), getIds(index.getRewardActivityList(100L, 200L, NOW)));
+        // 调用，并断言：没有分类时，不匹配指定品类的活动
+        assertEquals(asList(2L, 1L), getIds(index.getRewardActivityList(101L, null, NOW)));
+        // 调用，并断言：其它商品，只匹配全部商品的活动
+        assertEquals(singletonList(1L), getIds(index.getRewardActivityList(102L, 201L, NOW)));
+    }
+
+    @Test
+    public void testGetSpuActivity() {
+        // 准备参数
+        SeckillActivityDO seckillEnded = new SeckillActivityDO().setId(1L).setSpuId(100L)
+                .setStartTime(PAST.minusDays(1)).setEndTime(PAST);
+        SeckillActivityDO seckill = new SeckillActivityDO().setId(2L).setSpuId(100L)
+                .setStartTime(PAST).setEndTime(FUTURE);
+        CombinationActivityDO combination = new CombinationActivityDO().setId(3L).setSpuId(100L)
+                .setStartTime(PAST).setEndTime(FUTURE);
+        BargainActivityDO bargain = new BargainActivityDO().setId(4L).setSpuId(101L)
+                .setStartTime(PAST).setEndTime(FUTURE);
+        PromotionActivityIndex index = PromotionActivityIndex.of(null, null, asList(seckillEnded, seckill),
+                singletonList(combination), singletonList(bargain));
+
+        // 调用，并断言：只匹配进行中的
+        assertSame(seckill, index.getSeckillActivity(100L, NOW));
+        assertSame(combination, index.getCombinationActivity(100L, NOW));
+        assertNull(index.getBargainActivity(100L, NOW));
+        assertSame(bargain, index.getBargainActivity(101L, NOW));
+        // 调用，并断言：活动结束后，不再匹配
+        assertNull(index.getSeckillActivity(100L, FUTURE.plusHours(1)));
+    }
+
+    private static RewardActivityDO buildRewardActivity(Long id, Integer productScope, List<Long> productScopeValues) {
+        return new RewardActivityDO().setId(id).setProductScope(productScope)
+                .setProductScopeValues(productScopeValues != null ? productScopeValues : Collections.emptyList())
+                .setStartTime(PAST).setEndTime(FUTURE);
+    }
+
+    private static List<Long> getIds(List<RewardActivityDO> activities) {
+        return convertList(activities, RewardActivityDO::getId);
+    }
+
+}
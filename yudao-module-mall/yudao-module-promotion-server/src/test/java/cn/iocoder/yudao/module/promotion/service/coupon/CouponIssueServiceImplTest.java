@@ -0,0 +1,176 @@
+package cn.iocoder.yudao.module.promotion.service.coupon;
+
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponTemplateDO;
+import cn.iocoder.yudao.module.promotion.dal.redis.coupon.CouponIssueTaskRedisDAO;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponIssueTaskStatusEnum;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTakeTypeEnum;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTemplateValidityTypeEnum;
+import cn.iocoder.yudao.module.promotion.framework.coupon.config.PromotionCouponProperties;
+import cn.iocoder.yudao.module.promotion.service.coupon.bo.CouponIssueTaskBO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.module.promotion.enums.ErrorCodeConstants.COUPON_TEMPLATE_NOT_ENOUGH;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link CouponIssueServiceImpl} 的单元测试
+ *
+ * 分块大小为 2、并行数为 2，覆盖断点续发、分块中途剩余数量不足、部分分块失败的情况
+ *
+ * @author 芋道源码
+ */
+public class CouponIssueServiceImplTest extends BaseMockitoUnitTest {
+
+    private static final Long TASK_ID = 10L;
+    private static final Long TEMPLATE_ID = 20L;
+
+    @InjectMocks
+    private CouponIssueServiceImpl couponIssueService;
+
+    @Mock
+    private CouponIssueTaskRedisDAO couponIssueTaskRedisDAO;
+    @Mock
+    private CouponService couponService;
+    @Mock
+    private CouponTemplateService couponTemplateService;
+    @Mock
+    private MemberUserApi memberUserApi;
+    @Spy
+    private PromotionCouponProperties couponProperties = new PromotionCouponProperties()
+            .setIssueChunkSize(2).setIssueChunkParallelism(2);
+
+    private final CouponTemplateDO template = new CouponTemplateDO().setId(TEMPLATE_ID)
+            .setTakeType(CouponTakeTypeEnum.ADMIN.getType())
+            .setValidityType(CouponTemplateValidityTypeEnum.TERM.getType());
+
+    /**
+     * 任务执行结束
+     */
+    private final CountDownLatch executed = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() {
+        couponIssueService.init();
+        // 获得执行锁后，直接执行
+        when(couponIssueTaskRedisDAO.tryLock(eq(TASK_ID), any())).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            executed.countDown();
+            return true;
+        });
+        when(couponTemplateService.getCouponTemplate(eq(TEMPLATE_ID))).thenReturn(template);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        couponIssueService.destroy();
+    }
+
+    @Test
+    public void testResumeCouponIssueTask_fromCursor() throws InterruptedException {
+        // 准备参数：上次发放失败，断点为 4
+        CouponIssueTaskBO task = buildTask(CouponIssueTaskStatusEnum.FAILED.getStatus(), 4L, 4, 4);
+        // mock 方法
+        when(couponIssueTaskRedisDAO.get(eq(TASK_ID))).thenReturn(task);
+        when(couponIssueTaskRedisDAO.setTemplateIfAbsent(eq(TEMPLATE_ID), eq(TASK_ID))).thenReturn(true);
+        mockUserIdList(4L, asList(5L, 6L));
+        mockUserIdList(6L, Collections.singletonList(7L));
+        when(couponService.takeCouponByIssueTask(same(template), eq(asList(5L, 6L)), eq(TASK_ID))).thenReturn(2);
+        when(couponService.takeCouponByIssueTask(same(template), eq(Collections.singletonList(7L)), eq(TASK_ID)))
+                .thenReturn(1);
+
+        // 调用
+        couponIssueService.resumeCouponIssueTask(TASK_ID);
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        // 断言：从断点处继续发放，不重新拉取断点之前的用户
+        verify(memberUserApi, never()).getUserIdListByIdGt(eq(0L), any());
+        assertTask(task, CouponIssueTaskStatusEnum.SUCCESS.getStatus(), 7L, 7, 7);
+        assertNull(task.getErrorMsg());
+    }
+
+    @Test
+    public void testExecuteCouponIssueTask_notEnough() throws InterruptedException {
+        // 准备参数
+        CouponIssueTaskBO task = buildTask(CouponIssueTaskStatusEnum.RUNNING.getStatus(), 0L, 0, 0);
+        // mock 方法：第 2 个分块中途剩余数量不足，只发放了 1 张；第 3 个分块没有剩余数量
+        when(couponIssueTaskRedisDAO.getRunningIds()).thenReturn(Collections.singleton(TASK_ID));
+        when(couponIssueTaskRedisDAO.get(eq(TASK_ID))).thenReturn(task);
+        mockUserIdList(0L, asList(1L, 2L));
+        mockUserIdList(2L, asList(3L, 4L));
+        mockUserIdList(4L, Collections.singletonList(5L));
+        when(couponService.takeCouponByIssueTask(same(template), eq(asList(1L, 2L)), eq(TASK_ID))).thenReturn(2);
+        when(couponService.takeCouponByIssueTask(same(template), eq(asList(3L, 4L)), eq(TASK_ID))).thenReturn(1);
+        when(couponService.takeCouponByIssueTask(same(template), eq(Collections.singletonList(5L)), eq(TASK_ID)))
+                .thenThrow(exception(COUPON_TEMPLATE_NOT_ENOUGH));
+
+        // 调用
+        assertEquals(1, couponIssueService.resumeRunningCouponIssueTasks());
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        // 断言：断点停在最后一个完成的分块，可以增加模板数量后继续发放
+        assertTask(task, CouponIssueTaskStatusEnum.NOT_ENOUGH.getStatus(), 4L, 4, 3);
+        assertNotNull(task.getErrorMsg());
+    }
+
+    @Test
+    public void testExecuteCouponIssueTask_chunkFailed() throws InterruptedException {
+        // 准备参数
+        CouponIssueTaskBO task = buildTask(CouponIssueTaskStatusEnum.RUNNING.getStatus(), 0L, 0, 0);
+        // mock 方法：第 2 个分块失败，之后的第 3 个分块成功
+        when(couponIssueTaskRedisDAO.getRunningIds()).thenReturn(Collections.singleton(TASK_ID));
+        when(couponIssueTaskRedisDAO.get(eq(TASK_ID))).thenReturn(task);
+        mockUserIdList(0L, asList(1L, 2L));
+        mockUserIdList(2L, asList(3L, 4L));
+        mockUserIdList(4L, asList(5L, 6L));
+        when(couponService.takeCouponByIssueTask(same(template), eq(asList(1L, 2L)), eq(TASK_ID))).thenReturn(2);
+        when(couponService.takeCouponByIssueTask(same(template), eq(asList(3L, 4L)), eq(TASK_ID)))
+                .thenThrow(new IllegalStateException("模拟 DB 异常"));
+        when(couponService.takeCouponByIssueTask(same(template), eq(asList(5L, 6L)), eq(TASK_ID))).thenReturn(2);
+
+        // 调用
+        couponIssueService.resumeRunningCouponIssueTasks();
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        // 断言：断点不越过失败的分块，续发时重新执行失败的分块、以及之后已经完成的分块
+        assertTask(task, CouponIssueTaskStatusEnum.FAILED.getStatus(), 2L, 2, 2);
+        assertEquals("模拟 DB 异常", task.getErrorMsg());
+        // 断言：等待进行中的分块结束后，才结束任务
+        verify(couponService).takeCouponByIssueTask(same(template), eq(asList(5L, 6L)), eq(TASK_ID));
+    }
+
+    private CouponIssueTaskBO buildTask(Integer status, Long cursor, Integer userCount, Integer issueCount) {
+        return new CouponIssueTaskBO().setId(TASK_ID).setTemplateId(TEMPLATE_ID).setStatus(status)
+                .setCursor(cursor).setUserCount(userCount).setIssueCount(issueCount)
+                .setStartTime(LocalDateTime.now());
+    }
+
+    private void mockUserIdList(Long cursor, List<Long> userIds) {
+        when(memberUserApi.getUserIdListByIdGt(eq(cursor), eq(2))).thenReturn(CommonResult.success(userIds));
+    }
+
+    private static void assertTask(CouponIssueTaskBO task, Integer status, Long cursor,
+                                   Integer userCount, Integer issueCount) {
+        assertEquals(status, task.getStatus());
+        assertEquals(cursor, task.getCursor());
+        assertEquals(userCount, task.getUserCount());
+        assertEquals(issueCount, task.getIssueCount());
+        assertNotNull(task.getEndTime());
+    }
+
+}
@@ -0,0 +1,114 @@
+package cn.iocoder.yudao.module.promotion.service.coupon;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.coupon.CouponTemplateDO;
+import cn.iocoder.yudao.module.promotion.dal.mysql.coupon.CouponMapper;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTakeTypeEnum;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponTemplateValidityTypeEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link CouponServiceImpl} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class CouponServiceImplTest extends BaseMockitoUnitTest {
+
+    private static final Long TASK_ID = 10L;
+
+    @InjectMocks
+    private CouponServiceImpl couponService;
+
+    @Mock
+    private CouponTemplateService couponTemplateService;
+    @Mock
+    private CouponMapper couponMapper;
+
+    private final CouponTemplateDO template = new CouponTemplateDO().setId(20L).setName("优惠劵")
+            .setTakeType(CouponTakeTypeEnum.ADMIN.getType()).setTakeLimitCount(-1)
+            .setValidityType(CouponTemplateValidityTypeEnum.TERM.getType()).setFixedStartTerm(0).setFixedEndTerm(7);
+
+    @BeforeEach
+    public void setUp() {
+        // 模拟事务中执行，可以注册事务同步
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void testTakeCouponByIssueTask_skipIssued() {
+        // mock 方法：用户 1 已经在本任务中领取；用户 2 之前手动领取过，不影响本任务发放
+        when(couponMapper.selectListByTemplateIdAndUserId(eq(template.getId()), eq(new LinkedHashSet<>(asList(1L, 2L, 3L)))))
+                .thenReturn(asList(new CouponDO().setUserId(1L).setIssueTaskId(TASK_ID),
+                        new CouponDO().setUserId(2L)));
+        when(couponTemplateService.takeCouponTemplateCount(eq(template.getId()), eq(2))).thenReturn(2);
+
+        // 调用
+        int count = couponService.takeCouponByIssueTask(template, asList(1L, 2L, 3L), TASK_ID);
+        // 断言：跳过本任务已经发放过的用户，并记录任务编号
+        assertEquals(2, count);
+        List<CouponDO> coupons = captureInsertBatch();
+        assertEquals(asList(2L, 3L), convertList(coupons, CouponDO::getUserId));
+        coupons.forEach(coupon -> assertEquals(TASK_ID, coupon.getIssueTaskId()));
+    }
+
+    @Test
+    public void testTakeCouponByIssueTask_rollbackRefundRetry() {
+        // mock 方法
+        when(couponTemplateService.takeCouponTemplateCount(eq(template.getId()), eq(2))).thenReturn(2);
+        // mock 方法：第一次归还失败
+        doThrow(new IllegalStateException("模拟 DB 异常")).doNothing()
+                .when(couponTemplateService).updateCouponTemplateTakeCount(eq(template.getId()), eq(-2));
+        couponService.takeCouponByIssueTask(template, asList(1L, 2L), TASK_ID);
+
+        // 调用：事务回滚
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        // 断言：重试后归还成功
+        verify(couponTemplateService, times(2)).updateCouponTemplateTakeCount(eq(template.getId()), eq(-2));
+    }
+
+    @Test
+    public void testTakeCouponByIssueTask_committed() {
+        // mock 方法
+        when(couponTemplateService.takeCouponTemplateCount(eq(template.getId()), eq(2))).thenReturn(2);
+        couponService.takeCouponByIssueTask(template, asList(1L, 2L), TASK_ID);
+
+        // 调用：事务提交
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        // 断言：不归还
+        verify(couponTemplateService, never()).updateCouponTemplateTakeCount(any(), anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CouponDO> captureInsertBatch() {
+        ArgumentCaptor<Collection<CouponDO>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(couponMapper).insertBatch(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+}
@@ -0,0 +1,91 @@
+package cn.iocoder.yudao.module.promotion.service.reward;
+
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.product.api.spu.ProductSpuApi;
+import cn.iocoder.yudao.module.product.api.spu.dto.ProductSpuRespDTO;
+import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndex;
+import cn.iocoder.yudao.module.promotion.service.activity.PromotionActivityIndexService;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link RewardActivityServiceImpl} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class RewardActivityServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private RewardActivityServiceImpl rewardActivityService;
+
+    @Mock
+    private ProductSpuApi productSpuApi;
+    @Mock
+    private PromotionActivityIndexService activityIndexService;
+
+    @Test
+    public void testGetMatchRewardActivityListBySpuIds() {
+        // mock 方法：全部商品、指定品类的活动
+        RewardActivityDO all = buildRewardActivity(1L, PromotionProductScopeEnum.ALL.getScope(), Collections.emptyList());
+        RewardActivityDO category = buildRewardActivity(2L, PromotionProductScopeEnum.CATEGORY.getScope(),
+                singletonList(200L));
+        when(activityIndexService.getActivityIndex()).thenReturn(PromotionActivityIndex.of(null,
+                asList(all, category), null, null, null));
+        // mock 方法：商品 102 不存在
+        when(productSpuApi.getSpuList(any())).thenReturn(CommonResult.success(asList(
+                new ProductSpuRespDTO().setId(100L).setCategoryId(200L),
+                new ProductSpuRespDTO().setId(101L).setCategoryId(201L))));
+
+        // 调用
+        List<RewardActivityMatchRespDTO> list = rewardActivityService.getMatchRewardActivityListBySpuIds(
+                asList(100L, 101L, 102L));
+        // 断言：按照活动编号倒序；不存在的商品，不匹配全部商品的活动
+        assertEquals(2, list.size());
+        assertEquals(2L, list.get(0).getId());
+        assertEquals(singletonList(100L), list.get(0).getSpuIds());
+        assertEquals(1L, list.get(1).getId());
+        assertEquals(asList(100L, 101L), list.get(1).getSpuIds());
+    }
+
+    @Test
+    public void testGetMatchRewardActivityListBySpuIds_spuNotExists() {
+        // mock 方法：商品都不存在
+        when(productSpuApi.getSpuList(any())).thenReturn(CommonResult.success(Collections.emptyList()));
+
+        // 调用
+        List<RewardActivityMatchRespDTO> list = rewardActivityService.getMatchRewardActivityListBySpuIds(
+                singletonList(100L));
+        // 断言：不匹配活动，也无需获取索引
+        assertTrue(list.isEmpty());
+        verifyNoInteractions(activityIndexService);
+    }
+
+    @Test
+    public void testGetMatchRewardActivityListBySpuIds_empty() {
+        // 调用，并断言
+        assertTrue(rewardActivityService.getMatchRewardActivityListBySpuIds(Collections.emptyList()).isEmpty());
+        verifyNoInteractions(productSpuApi, activityIndexService);
+    }
+
+    private static RewardActivityDO buildRewardActivity(Long id, Integer productScope, List<Long> productScopeValues) {
+        return new RewardActivityDO().setId(id).setName("满减送" + id).setProductScope(productScope)
+                .setProductScopeValues(productScopeValues).setRules(Collections.emptyList())
+                .setStartTime(LocalDateTime.now().minusDays(1)).setEndTime(LocalDateTime.now().plusDays(1));
+    }
+
+}
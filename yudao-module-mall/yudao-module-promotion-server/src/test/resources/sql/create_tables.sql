@@ -57,6 +57,7 @@ CREATE TABLE IF NOT EXISTS "promotion_coupon"
     "status"               int      NOT NULL,
     "user_id"              bigint   NOT NULL,
     "take_type"            int      NOT NULL,
+    "issue_task_id"        bigint,
     "useprice"             int      NOT NULL,
     "valid_start_time"     datetime NOT NULL,
     "valid_end_time"       datetime NOT NULL,
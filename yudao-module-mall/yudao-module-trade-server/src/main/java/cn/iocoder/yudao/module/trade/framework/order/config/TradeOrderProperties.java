@@ -53,4 +53,16 @@ public class TradeOrderProperties {
     @NotNull(message = "是否同步订单状态到微信小程序不能为空")
     private Boolean statusSyncToWxaEnable;
 
+    /**
+     * 价格计算的预取线程数
+     */
+    @NotNull(message = "价格计算的预取线程数不能为空")
+    private Integer priceCalculatePoolSize = 16;
+
+    /**
+     * 价格计算的预取队列大小；队列满时，在调用线程同步加载
+     */
+    @NotNull(message = "价格计算的预取队列大小不能为空")
+    private Integer priceCalculateQueueCapacity = 16;
+
 }
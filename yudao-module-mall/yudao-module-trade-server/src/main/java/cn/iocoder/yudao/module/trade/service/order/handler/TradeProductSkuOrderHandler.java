@@ -2,7 +2,6 @@ package cn.iocoder.yudao.module.trade.service.order.handler;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.module.product.api.sku.ProductSkuApi;
-import cn.iocoder.yudao.module.trade.convert.order.TradeOrderConvert;
 import cn.iocoder.yudao.module.trade.dal.dataobject.order.TradeOrderDO;
 import cn.iocoder.yudao.module.trade.dal.dataobject.order.TradeOrderItemDO;
 import org.springframework.stereotype.Component;
@@ -10,7 +9,8 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Resource;
 import java.util.List;
 
-import static java.util.Collections.singletonList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
+import static java.util.Collections.singletonMap;
 
 /**
  * 商品 SKU 库存的 {@link TradeOrderHandler} 实现类
@@ -25,7 +25,8 @@ public class TradeProductSkuOrderHandler implements TradeOrderHandler {
 
     @Override
     public void beforeOrderCreate(TradeOrderDO order, List<TradeOrderItemDO> orderItems) {
-        productSkuApi.updateSkuStock(TradeOrderConvert.INSTANCE.convertNegative(orderItems)).checkError();
+        productSkuApi.updateSkuStockBatch(convertMap(orderItems, TradeOrderItemDO::getSkuId,
+                orderItem -> -orderItem.getCount(), Integer::sum)).checkError();
     }
 
     @Override
@@ -35,12 +36,13 @@ public class TradeProductSkuOrderHandler implements TradeOrderHandler {
         if (CollUtil.isEmpty(orderItems)) {
             return;
         }
-        productSkuApi.updateSkuStock(TradeOrderConvert.INSTANCE.convert(orderItems)).checkError();
+        productSkuApi.updateSkuStockBatch(convertMap(orderItems, TradeOrderItemDO::getSkuId,
+                TradeOrderItemDO::getCount, Integer::sum)).checkError();
     }
 
     @Override
     public void afterCancelOrderItem(TradeOrderDO order, TradeOrderItemDO orderItem) {
-        productSkuApi.updateSkuStock(TradeOrderConvert.INSTANCE.convert(singletonList(orderItem))).checkError();
+        productSkuApi.updateSkuStockBatch(singletonMap(orderItem.getSkuId(), orderItem.getCount())).checkError();
     }
 
 }
@@ -7,6 +7,8 @@ import cn.iocoder.yudao.module.trade.dal.dataobject.order.TradeOrderDO;
 import cn.iocoder.yudao.module.trade.dal.dataobject.order.TradeOrderItemDO;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Resource;
 import java.util.List;
@@ -30,9 +32,25 @@ public class TradeSeckillOrderHandler implements TradeOrderHandler {
         // 明确校验一下
         Assert.isTrue(orderItems.size() == 1, "秒杀时，只允许选择一个商品");
 
+        // 秒杀库存在 Redis 中扣减，不会随订单事务回滚，所以需要在回滚时归还
+        // 特殊：在扣减前注册，避免扣减成功但 RPC 响应失败时，漏归还；归还按照订单号幂等，未扣减时也可以安全调用
+        TradeOrderItemDO orderItem = orderItems.get(0);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        afterCancelOrderItem(order, orderItem);
+                    }
+                }
+
+            });
+        }
+
         // 扣减秒杀活动的库存
         seckillActivityApi.updateSeckillStockDecr(order.getSeckillActivityId(),
-                orderItems.get(0).getSkuId(), orderItems.get(0).getCount()).checkError();
+                orderItem.getSkuId(), orderItem.getCount(), order.getNo()).checkError();
     }
 
     @Override
@@ -58,7 +76,7 @@ public class TradeSeckillOrderHandler implements TradeOrderHandler {
         }
         // 恢复秒杀活动的库存
         seckillActivityApi.updateSeckillStockIncr(order.getSeckillActivityId(),
-                orderItem.getSkuId(), orderItem.getCount()).checkError();
+                orderItem.getSkuId(), orderItem.getCount(), order.getNo()).checkError();
     }
 
 }
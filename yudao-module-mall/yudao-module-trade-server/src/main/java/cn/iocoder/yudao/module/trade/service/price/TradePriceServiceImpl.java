@@ -1,30 +1,51 @@
 package cn.iocoder.yudao.module.trade.service.price;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.ThreadUtil;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.module.member.api.address.MemberAddressApi;
+import cn.iocoder.yudao.module.member.api.config.MemberConfigApi;
 import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
 import cn.iocoder.yudao.module.product.api.sku.ProductSkuApi;
 import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuRespDTO;
 import cn.iocoder.yudao.module.product.api.spu.ProductSpuApi;
 import cn.iocoder.yudao.module.product.api.spu.dto.ProductSpuRespDTO;
+import cn.iocoder.yudao.module.promotion.api.coupon.CouponApi;
 import cn.iocoder.yudao.module.promotion.api.discount.DiscountActivityApi;
 import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
 import cn.iocoder.yudao.module.promotion.api.reward.RewardActivityApi;
 import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.enums.coupon.CouponStatusEnum;
 import cn.iocoder.yudao.module.trade.controller.app.order.vo.AppTradeProductSettlementRespVO;
+import cn.iocoder.yudao.module.trade.enums.delivery.DeliveryTypeEnum;
+import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
+import cn.iocoder.yudao.module.trade.framework.order.config.TradeOrderProperties;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateContext;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
 import cn.iocoder.yudao.module.trade.service.price.calculator.TradeDiscountActivityPriceCalculator;
 import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculator;
 import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculatorHelper;
+import com.alibaba.ttl.threadpool.TtlExecutors;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.toolkit.trace.ActiveSpan;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 import org.springframework.validation.annotation.Validated;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
@@ -50,6 +71,14 @@ public class TradePriceServiceImpl implements TradePriceService {
     private DiscountActivityApi discountActivityApi;
     @Resource
     private RewardActivityApi rewardActivityApi;
+    @Resource
+    private CouponApi couponApi;
+    @Resource
+    private MemberUserApi memberUserApi;
+    @Resource
+    private MemberConfigApi memberConfigApi;
+    @Resource
+    private MemberAddressApi memberAddressApi;
 
     @Resource
     private List<TradePriceCalculator> priceCalculators;
@@ -57,6 +86,33 @@ public class TradePriceServiceImpl implements TradePriceService {
     @Resource
     private TradeDiscountActivityPriceCalculator discountActivityPriceCalculator;
 
+    @Resource
+    private TradeOrderProperties tradeOrderProperties;
+
+    /**
+     * 价格计算的预取线程池
+     *
+     * 使用 TTL 包装，保证租户、登录用户等上下文，可以传递给 Feign 调用
+     */
+    private ExecutorService contextExecutor;
+
+    @PostConstruct
+    public void init() {
+        // 核心线程数等于最大线程数：ThreadPoolExecutor 只在队列满时才创建超过核心数的线程，所以两者不同时，最大线程数不生效
+        // 队列满时，拒绝执行，由 TradePriceCalculateContext 在调用线程同步加载
+        int poolSize = tradeOrderProperties.getPriceCalculatePoolSize();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(tradeOrderProperties.getPriceCalculateQueueCapacity()),
+                ThreadUtil.newNamedThreadFactory("trade-price-calculate-", true));
+        executor.allowCoreThreadTimeOut(true);
+        contextExecutor = TtlExecutors.getTtlExecutorService(executor);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        contextExecutor.shutdown();
+    }
+
     @Override
     public TradePriceCalculateRespBO calculateOrderPrice(TradePriceCalculateReqBO calculateReqBO) {
         // 1.1 获得商品 SKU 数组
@@ -67,7 +123,14 @@ public class TradePriceServiceImpl implements TradePriceService {
         // 2.1 计算价格
         TradePriceCalculateRespBO calculateRespBO = TradePriceCalculatorHelper
                 .buildCalculateResp(calculateReqBO, spuList, skuList);
-        priceCalculators.forEach(calculator -> calculator.calculate(calculateReqBO, calculateRespBO));
+        TradePriceCalculateContext context = buildCalculateContext(calculateReqBO, calculateRespBO);
+        calculateReqBO.setContext(context);
+        priceCalculators.forEach(calculator -> {
+            long startTime = System.currentTimeMillis();
+            calculator.calculate(calculateReqBO, calculateRespBO);
+            context.addCost(ClassUtils.getUserClass(calculator).getSimpleName(), System.currentTimeMillis() - startTime);
+        });
+        traceCalculateCosts(context);
         // 2.2  如果最终支付金额小于等于 0，则抛出业务异常
         if (calculateReqBO.getPointActivityId() == null // 积分订单，允许支付金额为 0
                 && calculateRespBO.getPrice().getPayPrice() <= 0) {
@@ -78,6 +141,64 @@ public class TradePriceServiceImpl implements TradePriceService {
         return calculateRespBO;
     }
 
+    /**
+     * 创建价格计算的上下文：注册各个计算器需要的远程数据，并根据订单预取需要的部分
+     *
+     * 每个 API 在一次价格计算中只调用一次，并行加载
+     *
+     * @param param  价格计算请求
+     * @param result 价格计算结果
+     * @return 上下文
+     */
+    private TradePriceCalculateContext buildCalculateContext(TradePriceCalculateReqBO param,
+                                                             TradePriceCalculateRespBO result) {
+        // 1. 注册加载函数
+        TradePriceCalculateContext context = new TradePriceCalculateContext(contextExecutor);
+        context.register(TradePriceCalculateContext.USER,
+                        () -> memberUserApi.getUser(param.getUserId()).getCheckedData())
+                .register(TradePriceCalculateContext.MEMBER_LEVEL,
+                        () -> discountActivityPriceCalculator.getMemberLevel(context.getUser()))
+                .register(TradePriceCalculateContext.MEMBER_CONFIG,
+                        () -> memberConfigApi.getConfig().getCheckedData())
+                .register(TradePriceCalculateContext.ADDRESS,
+                        () -> memberAddressApi.getAddress(param.getAddressId(), param.getUserId()).getCheckedData())
+                .register(TradePriceCalculateContext.COUPON_LIST,
+                        () -> couponApi.getCouponListByUserId(param.getUserId(), CouponStatusEnum.UNUSED.getStatus()).getCheckedData())
+                .register(TradePriceCalculateContext.DISCOUNT_PRODUCT_LIST,
+                        () -> discountActivityApi.getMatchDiscountProductListBySkuIds(
+                                convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSkuId)).getCheckedData())
+                .register(TradePriceCalculateContext.REWARD_ACTIVITY_LIST,
+                        () -> rewardActivityApi.getMatchRewardActivityListBySpuIds(
+                                convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSpuId)).getCheckedData());
+
+        // 2. 预取：未预取的数据，在计算器首次获取时同步加载，所以这里的条件只影响性能，不影响正确性
+        context.prefetch(TradePriceCalculateContext.MEMBER_CONFIG);
+        CompletableFuture<Object> userFuture = context.prefetch(TradePriceCalculateContext.USER);
+        if (Objects.equals(result.getType(), TradeOrderTypeEnum.NORMAL.getType())) {
+            // 会员等级依赖会员用户，加载完用户后再预取
+            userFuture.thenRun(() -> context.prefetch(TradePriceCalculateContext.MEMBER_LEVEL));
+            context.prefetch(TradePriceCalculateContext.COUPON_LIST);
+            context.prefetch(TradePriceCalculateContext.DISCOUNT_PRODUCT_LIST);
+            context.prefetch(TradePriceCalculateContext.REWARD_ACTIVITY_LIST);
+        }
+        if (Objects.equals(param.getDeliveryType(), DeliveryTypeEnum.EXPRESS.getType())
+                && param.getAddressId() != null) {
+            context.prefetch(TradePriceCalculateContext.ADDRESS);
+        }
+        return context;
+    }
+
+    /**
+     * 记录价格计算的耗时明细：写入链路追踪的 Span，便于定位慢的计算器、远程调用
+     *
+     * @param context 上下文
+     */
+    private void traceCalculateCosts(TradePriceCalculateContext context) {
+        Map<String, Long> costs = context.getCosts();
+        costs.forEach((name, cost) -> ActiveSpan.tag("price." + name, String.valueOf(cost)));
+        log.debug("[traceCalculateCosts][价格计算耗时明细({})]", costs);
+    }
+
     private List<ProductSkuRespDTO> checkSkuList(TradePriceCalculateReqBO reqBO) {
         // 获得商品 SKU 数组
         Map<Long, Integer> skuIdCountMap = convertMap(reqBO.getItems(),
@@ -0,0 +1,191 @@
+package cn.iocoder.yudao.module.trade.service.price.bo;
+
+import cn.iocoder.yudao.module.member.api.address.dto.MemberAddressRespDTO;
+import cn.iocoder.yudao.module.member.api.config.dto.MemberConfigRespDTO;
+import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
+import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
+import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponRespDTO;
+import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
+import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
+import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculator;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 价格计算的上下文：一次价格计算中，多个 {@link TradePriceCalculator} 共享的远程数据
+ *
+ * 1. 记忆：同一个 key 只加载一次，例如说会员用户，原先被限时折扣、积分抵扣等多个计算器重复查询
+ * 2. 预取：计算前，通过 {@link #prefetch(String)} 在独立的线程池中并行加载；未预取的 key，在首次获取时同步加载
+ *
+ * @author 芋道源码
+ */
+public class TradePriceCalculateContext {
+
+    public static final String USER = "user";
+    public static final String MEMBER_LEVEL = "memberLevel";
+    public static final String MEMBER_CONFIG = "memberConfig";
+    public static final String ADDRESS = "address";
+    public static final String COUPON_LIST = "couponList";
+    public static final String DISCOUNT_PRODUCT_LIST = "discountProductList";
+    public static final String REWARD_ACTIVITY_LIST = "rewardActivityList";
+
+    /**
+     * 预取的执行器
+     */
+    private final Executor executor;
+    /**
+     * 加载函数，key 为数据的 key
+     */
+    private final Map<String, Supplier<?>> loaders = new ConcurrentHashMap<>();
+    /**
+     * 加载结果，key 为数据的 key
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> futures = new ConcurrentHashMap<>();
+    /**
+     * 耗时明细，单位：毫秒。key 为数据的 key、或者计算器的名字
+     */
+    private final Map<String, Long> costs = new LinkedHashMap<>();
+
+    public TradePriceCalculateContext(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 注册数据的加载函数
+     *
+     * @param key    数据的 key
+     * @param loader 加载函数
+     * @return 上下文
+     */
+    public TradePriceCalculateContext register(String key, Supplier<?> loader) {
+        loaders.put(key, loader);
+        return this;
+    }
+
+    /**
+     * 异步预取数据；已经加载（中）时，直接返回
+     *
+     * @param key 数据的 key
+     * @return 加载结果
+     */
+    public CompletableFuture<Object> prefetch(String key) {
+        CompletableFuture<Object> future = futures.get(key);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<Object> newFuture = new CompletableFuture<>();
+        future = futures.putIfAbsent(key, newFuture);
+        if (future != null) {
+            return future;
+        }
+        try {
+            executor.execute(() -> load(key, newFuture));
+        } catch (RejectedExecutionException ex) {
+            // 线程池已满，在当前线程同步加载
+            load(key, newFuture);
+        }
+        return newFuture;
+    }
+
+    /**
+     * 获得数据；未加载时，在当前线程同步加载
+     *
+     * @param key 数据的 key
+     * @return 数据
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        CompletableFuture<Object> future = futures.get(key);
+        if (future == null) {
+            CompletableFuture<Object> newFuture = new CompletableFuture<>();
+            future = futures.putIfAbsent(key, newFuture);
+            if (future == null) {
+                future = newFuture;
+                load(key, newFuture);
+            }
+        }
+        try {
+            return (T) future.join();
+        } catch (CompletionException ex) {
+            // 抛出原始异常，例如说 ServiceException，保持和同步调用一致
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private void load(String key, CompletableFuture<Object> future) {
+        Supplier<?> loader = loaders.get(key);
+        if (loader == null) {
+            future.completeExceptionally(new IllegalArgumentException(String.format("价格计算的数据(%s) 未注册", key)));
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            future.complete(loader.get());
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+        } finally {
+            addCost(key, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * 记录耗时
+     *
+     * @param name 名字
+     * @param cost 耗时，单位：毫秒
+     */
+    public void addCost(String name, long cost) {
+        synchronized (costs) {
+            costs.merge(name, cost, Long::sum);
+        }
+    }
+
+    /**
+     * 获得耗时明细
+     *
+     * @return 耗时明细，单位：毫秒
+     */
+    public Map<String, Long> getCosts() {
+        synchronized (costs) {
+            return new LinkedHashMap<>(costs);
+        }
+    }
+
+    // ========== 数据 ==========
+
+    public MemberUserRespDTO getUser() {
+        return get(USER);
+    }
+
+    public MemberLevelRespDTO getMemberLevel() {
+        return get(MEMBER_LEVEL);
+    }
+
+    public MemberConfigRespDTO getMemberConfig() {
+        return get(MEMBER_CONFIG);
+    }
+
+    public MemberAddressRespDTO getAddress() {
+        return get(ADDRESS);
+    }
+
+    public List<CouponRespDTO> getCouponList() {
+        return get(COUPON_LIST);
+    }
+
+    public List<DiscountProductRespDTO> getDiscountProductList() {
+        return get(DISCOUNT_PRODUCT_LIST);
+    }
+
+    public List<RewardActivityMatchRespDTO> getRewardActivityList() {
+        return get(REWARD_ACTIVITY_LIST);
+    }
+
+}
@@ -2,6 +2,8 @@ package cn.iocoder.yudao.module.trade.service.price.bo;
 
 import cn.iocoder.yudao.module.trade.enums.delivery.DeliveryTypeEnum;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -90,6 +92,15 @@ public class TradePriceCalculateReqBO {
      */
     private Long pointActivityId;
 
+    /**
+     * 价格计算的上下文
+     *
+     * 由 TradePriceServiceImpl 计算前创建，各个计算器通过它获取共享的远程数据
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TradePriceCalculateContext context;
+
     /**
      * 商品 SKU
      */
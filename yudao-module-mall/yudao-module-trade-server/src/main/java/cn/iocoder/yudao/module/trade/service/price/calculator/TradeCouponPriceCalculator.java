@@ -9,15 +9,13 @@ import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
-import cn.iocoder.yudao.module.promotion.enums.coupon.CouponStatusEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import cn.iocoder.yudao.module.promotion.api.coupon.CouponApi;
 
-import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -36,9 +34,6 @@ import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCU
 @Order(TradePriceCalculator.ORDER_COUPON)
 public class TradeCouponPriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private CouponApi couponApi;
-
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 只有【普通】订单，才允许使用优惠劵
@@ -50,7 +45,7 @@ public class TradeCouponPriceCalculator implements TradePriceCalculator {
         }
 
         // 1.1 加载用户的优惠劵列表
-        List<CouponRespDTO> coupons = couponApi.getCouponListByUserId(param.getUserId(), CouponStatusEnum.UNUSED.getStatus()).getCheckedData();
+        List<CouponRespDTO> coupons = new ArrayList<>(param.getContext().getCouponList());
         coupons.removeIf(coupon -> LocalDateTimeUtils.beforeNow(coupon.getValidEndTime()));
         // 1.2 计算优惠劵的使用条件
         result.setCoupons(calculateCoupons(coupons, result));
@@ -5,7 +5,6 @@ import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
-import cn.iocoder.yudao.module.member.api.address.MemberAddressApi;
 import cn.iocoder.yudao.module.member.api.address.dto.MemberAddressRespDTO;
 import cn.iocoder.yudao.module.trade.dal.dataobject.config.TradeConfigDO;
 import cn.iocoder.yudao.module.trade.dal.dataobject.delivery.DeliveryPickUpStoreDO;
@@ -41,9 +40,6 @@ import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.*;
 @Slf4j
 public class TradeDeliveryPriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private MemberAddressApi addressApi;
-
     @Resource
     private DeliveryPickUpStoreService deliveryPickUpStoreService;
     @Resource
@@ -87,7 +83,7 @@ public class TradeDeliveryPriceCalculator implements TradePriceCalculator {
             // 价格计算时，如果为空就不算~最终下单，会校验该字段不允许空
             return;
         }
-        MemberAddressRespDTO address = addressApi.getAddress(param.getAddressId(), param.getUserId()).getCheckedData();
+        MemberAddressRespDTO address = param.getContext().getAddress();
         Assert.notNull(address, "收件人({})的地址，不能为空", param.getUserId());
 
         // 情况一：全局包邮
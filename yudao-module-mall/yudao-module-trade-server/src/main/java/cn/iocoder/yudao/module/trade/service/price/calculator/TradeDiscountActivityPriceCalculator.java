@@ -7,7 +7,6 @@ import cn.iocoder.yudao.module.member.api.level.MemberLevelApi;
 import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
 import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
 import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
-import cn.iocoder.yudao.module.promotion.api.discount.DiscountActivityApi;
 import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
@@ -22,7 +21,6 @@ import java.util.List;
 import java.util.Map;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.framework.common.util.number.MoneyUtils.calculateRatePrice;
 import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculatorHelper.formatPrice;
 
@@ -37,8 +35,6 @@ import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceC
 @Order(TradePriceCalculator.ORDER_DISCOUNT_ACTIVITY)
 public class TradeDiscountActivityPriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private DiscountActivityApi discountActivityApi;
     @Resource
     private MemberLevelApi memberLevelApi;
     @Resource
@@ -52,11 +48,10 @@ public class TradeDiscountActivityPriceCalculator implements TradePriceCalculato
         }
 
         // 1.1 获得 SKU 对应的限时折扣活动
-        List<DiscountProductRespDTO> discountProducts = discountActivityApi.getMatchDiscountProductListBySkuIds(
-                convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSkuId)).getCheckedData();
+        List<DiscountProductRespDTO> discountProducts = param.getContext().getDiscountProductList();
         Map<Long, DiscountProductRespDTO> discountProductMap = convertMap(discountProducts, DiscountProductRespDTO::getSkuId);
         // 1.2 获得会员等级
-        MemberLevelRespDTO level = getMemberLevel(param.getUserId());
+        MemberLevelRespDTO level = param.getContext().getMemberLevel();
 
         // 2. 计算每个 SKU 的优惠金额
         result.getItems().forEach(orderItem -> {
@@ -103,7 +98,16 @@ public class TradeDiscountActivityPriceCalculator implements TradePriceCalculato
      * @return 用户等级
      */
     public MemberLevelRespDTO getMemberLevel(Long userId) {
-        MemberUserRespDTO user = memberUserApi.getUser(userId).getCheckedData();
+        return getMemberLevel(memberUserApi.getUser(userId).getCheckedData());
+    }
+
+    /**
+     * 获得用户的等级
+     *
+     * @param user 用户
+     * @return 用户等级
+     */
+    public MemberLevelRespDTO getMemberLevel(MemberUserRespDTO user) {
         if (user == null || user.getLevelId() == null || user.getLevelId() <= 0) {
             return null;
         }
@@ -3,7 +3,6 @@ package cn.iocoder.yudao.module.trade.service.price.calculator;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
 import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
 import cn.iocoder.yudao.module.promotion.api.point.PointActivityApi;
 import cn.iocoder.yudao.module.promotion.api.point.dto.PointValidateJoinRespDTO;
@@ -33,8 +32,6 @@ public class TradePointActivityPriceCalculator implements TradePriceCalculator {
 
     @Resource
     private PointActivityApi pointActivityApi;
-    @Resource
-    private MemberUserApi memberUserApi;
 
     @Resource
     private TradeOrderQueryService tradeOrderQueryService;
@@ -46,7 +43,7 @@ public class TradePointActivityPriceCalculator implements TradePriceCalculator {
             return;
         }
         // 1.2 初始化积分
-        MemberUserRespDTO user = memberUserApi.getUser(param.getUserId()).getCheckedData();
+        MemberUserRespDTO user = param.getContext().getUser();
         result.setTotalPoint(user.getPoint()).setUsePoint(0);
 
         // 1.3 校验用户积分余额
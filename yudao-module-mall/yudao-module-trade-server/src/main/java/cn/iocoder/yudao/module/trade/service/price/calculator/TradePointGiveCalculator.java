@@ -2,7 +2,6 @@ package cn.iocoder.yudao.module.trade.service.price.calculator;
 
 import cn.hutool.core.util.BooleanUtil;
 import cn.iocoder.yudao.framework.common.util.number.MoneyUtils;
-import cn.iocoder.yudao.module.member.api.config.MemberConfigApi;
 import cn.iocoder.yudao.module.member.api.config.dto.MemberConfigRespDTO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
@@ -10,7 +9,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.Resource;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,13 +24,10 @@ import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.
 @Slf4j
 public class TradePointGiveCalculator implements TradePriceCalculator {
 
-    @Resource
-    private MemberConfigApi memberConfigApi;
-
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 1.1 校验积分功能是否开启
-        int givePointPerYuan = Optional.ofNullable(memberConfigApi.getConfig().getCheckedData())
+        int givePointPerYuan = Optional.ofNullable(param.getContext().getMemberConfig())
                 .filter(config -> BooleanUtil.isTrue(config.getPointTradeDeductEnable()))
                 .map(MemberConfigRespDTO::getPointTradeGivePoint)
                 .orElse(0);
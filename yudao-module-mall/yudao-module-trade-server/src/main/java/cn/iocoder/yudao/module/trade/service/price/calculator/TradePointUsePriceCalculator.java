@@ -3,9 +3,7 @@ package cn.iocoder.yudao.module.trade.service.price.calculator;
 import cn.hutool.core.util.BooleanUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.iocoder.yudao.module.member.api.config.MemberConfigApi;
 import cn.iocoder.yudao.module.member.api.config.dto.MemberConfigRespDTO;
-import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
 import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderTypeEnum;
@@ -15,7 +13,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.Resource;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
@@ -32,11 +29,6 @@ import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCU
 @Slf4j
 public class TradePointUsePriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private MemberConfigApi memberConfigApi;
-    @Resource
-    private MemberUserApi memberUserApi;
-
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 判断订单类型是否不为积分商城活动
@@ -44,7 +36,7 @@ public class TradePointUsePriceCalculator implements TradePriceCalculator {
             return;
         }
         // 0. 初始化积分
-        MemberUserRespDTO user = memberUserApi.getUser(param.getUserId()).getCheckedData();
+        MemberUserRespDTO user = param.getContext().getUser();
         result.setTotalPoint(user.getPoint()).setUsePoint(0);
 
         // 1.1 校验是否使用积分
@@ -52,7 +44,7 @@ public class TradePointUsePriceCalculator implements TradePriceCalculator {
             return;
         }
         // 1.2 校验积分抵扣是否开启
-        MemberConfigRespDTO config = memberConfigApi.getConfig().getCheckedData();
+        MemberConfigRespDTO config = param.getContext().getMemberConfig();
         if (!isDeductPointEnable(config)) {
             return;
         }
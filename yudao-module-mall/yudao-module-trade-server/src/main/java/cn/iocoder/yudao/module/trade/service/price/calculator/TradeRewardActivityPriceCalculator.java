@@ -3,7 +3,6 @@ package cn.iocoder.yudao.module.trade.service.price.calculator;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.iocoder.yudao.module.promotion.api.reward.RewardActivityApi;
 import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionConditionTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
@@ -13,11 +12,9 @@ import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.Resource;
 import java.util.List;
 import java.util.Map;
 
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
 import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculatorHelper.formatPrice;
 
@@ -32,9 +29,6 @@ import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceC
 @Order(TradePriceCalculator.ORDER_REWARD_ACTIVITY)
 public class TradeRewardActivityPriceCalculator implements TradePriceCalculator {
 
-    @Resource
-    private RewardActivityApi rewardActivityApi;
-
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 0. 只有【普通】订单，才计算该优惠
@@ -42,8 +36,7 @@ public class TradeRewardActivityPriceCalculator implements TradePriceCalculator
             return;
         }
         // 获得 SKU 对应的满减送活动
-        List<RewardActivityMatchRespDTO> rewardActivities = rewardActivityApi.getMatchRewardActivityListBySpuIds(
-                convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSpuId)).getCheckedData();
+        List<RewardActivityMatchRespDTO> rewardActivities = param.getContext().getRewardActivityList();
         if (CollUtil.isEmpty(rewardActivities)) {
             return;
         }
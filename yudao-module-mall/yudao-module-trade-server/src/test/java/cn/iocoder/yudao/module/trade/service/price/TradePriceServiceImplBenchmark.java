@@ -0,0 +1,197 @@
+package cn.iocoder.yudao.module.trade.service.price;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.module.member.api.address.MemberAddressApi;
+import cn.iocoder.yudao.module.member.api.config.MemberConfigApi;
+import cn.iocoder.yudao.module.member.api.config.dto.MemberConfigRespDTO;
+import cn.iocoder.yudao.module.member.api.level.MemberLevelApi;
+import cn.iocoder.yudao.module.member.api.level.dto.MemberLevelRespDTO;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
+import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
+import cn.iocoder.yudao.module.product.api.sku.ProductSkuApi;
+import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuRespDTO;
+import cn.iocoder.yudao.module.product.api.spu.ProductSpuApi;
+import cn.iocoder.yudao.module.product.api.spu.dto.ProductSpuRespDTO;
+import cn.iocoder.yudao.module.promotion.api.coupon.CouponApi;
+import cn.iocoder.yudao.module.promotion.api.coupon.dto.CouponRespDTO;
+import cn.iocoder.yudao.module.promotion.api.discount.DiscountActivityApi;
+import cn.iocoder.yudao.module.promotion.api.discount.dto.DiscountProductRespDTO;
+import cn.iocoder.yudao.module.promotion.api.reward.RewardActivityApi;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import cn.iocoder.yudao.module.trade.framework.order.config.TradeOrderProperties;
+import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
+import cn.iocoder.yudao.module.trade.service.price.calculator.*;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link TradePriceServiceImpl#calculateOrderPrice(TradePriceCalculateReqBO)} 的基准测试
+ *
+ * 使用真实的价格计算器，商品、会员、营销等远程 API 通过 Mockito 模拟，每次调用固定耗时 {@link #REMOTE_LATENCY_MILLIS} 毫秒。
+ * 对比价格计算上下文并行预取，与原先逐个计算器串行调用远程 API 的耗时。
+ * 通过 {@link #main(String[])} 运行，不参与单元测试
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TradePriceServiceImplBenchmark {
+
+    /**
+     * 远程 API 的单次耗时，模拟 Feign 调用的网络开销
+     */
+    private static final long REMOTE_LATENCY_MILLIS = 5;
+
+    private static final Long USER_ID = 1L;
+    private static final int SKUS = 10;
+
+    private TradePriceServiceImpl prefetchService;
+    private TradePriceServiceImpl serialService;
+
+    @Setup
+    public void setUp() {
+        // 1. 预取：使用默认的预取线程池
+        prefetchService = buildService();
+        prefetchService.init();
+        // 2. 串行：已经关闭的线程池拒绝所有任务，上下文在调用线程同步加载，等价于原先的串行调用
+        serialService = buildService();
+        ExecutorService rejectedExecutor = Executors.newSingleThreadExecutor();
+        rejectedExecutor.shutdown();
+        ReflectUtil.setFieldValue(serialService, "contextExecutor", rejectedExecutor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        prefetchService.destroy();
+    }
+
+    @Benchmark
+    public Object prefetch() {
+        return prefetchService.calculateOrderPrice(buildReqBO());
+    }
+
+    @Benchmark
+    public Object serial() {
+        return serialService.calculateOrderPrice(buildReqBO());
+    }
+
+    private static TradePriceServiceImpl buildService() {
+        // 1.1 商品 API
+        List<ProductSkuRespDTO> skus = new ArrayList<>(SKUS);
+        List<ProductSpuRespDTO> spus = new ArrayList<>(SKUS);
+        List<DiscountProductRespDTO> discountProducts = new ArrayList<>(SKUS);
+        for (long i = 1; i <= SKUS; i++) {
+            skus.add(new ProductSkuRespDTO().setId(i).setSpuId(i).setPrice(10000).setStock(100));
+            spus.add(new ProductSpuRespDTO().setId(i).setName("商品" + i).setCategoryId(1L)
+                    .setDeliveryTypes(Collections.singletonList(1)).setGiveIntegral(0));
+            // 一半的商品，参与限时折扣
+            if (i % 2 == 0) {
+                discountProducts.add(new DiscountProductRespDTO().setId(i).setSpuId(i).setSkuId(i)
+                        .setDiscountType(PromotionDiscountTypeEnum.PRICE.getType()).setDiscountPrice(1000)
+                        .setActivityId(1L).setActivityName("限时折扣"));
+            }
+        }
+        ProductSkuApi productSkuApi = mock(ProductSkuApi.class);
+        when(productSkuApi.getSkuList(any())).thenAnswer(remote(skus));
+        ProductSpuApi productSpuApi = mock(ProductSpuApi.class);
+        when(productSpuApi.validateSpuList(any())).thenAnswer(remote(spus));
+        // 1.2 会员 API：会员等级依赖会员用户，需要先加载用户
+        MemberUserApi memberUserApi = mock(MemberUserApi.class);
+        when(memberUserApi.getUser(anyLong())).thenAnswer(remote(
+                new MemberUserRespDTO().setId(USER_ID).setLevelId(1L).setPoint(1000)));
+        MemberLevelApi memberLevelApi = mock(MemberLevelApi.class);
+        when(memberLevelApi.getMemberLevel(anyLong())).thenAnswer(remote(new MemberLevelRespDTO().setId(1L)
+                .setName("黄金会员").setDiscountPercent(95).setStatus(CommonStatusEnum.ENABLE.getStatus())));
+        MemberConfigApi memberConfigApi = mock(MemberConfigApi.class);
+        when(memberConfigApi.getConfig()).thenAnswer(remote(new MemberConfigRespDTO().setPointTradeDeductEnable(true)
+                .setPointTradeDeductUnitPrice(1).setPointTradeDeductMaxPrice(100).setPointTradeGivePoint(1)));
+        // 1.3 营销 API
+        DiscountActivityApi discountActivityApi = mock(DiscountActivityApi.class);
+        when(discountActivityApi.getMatchDiscountProductListBySkuIds(any())).thenAnswer(remote(discountProducts));
+        RewardActivityApi rewardActivityApi = mock(RewardActivityApi.class);
+        when(rewardActivityApi.getMatchRewardActivityListBySpuIds(any())).thenAnswer(remote(Collections.emptyList()));
+        CouponApi couponApi = mock(CouponApi.class);
+        when(couponApi.getCouponListByUserId(anyLong(), any())).thenAnswer(remote(Arrays.asList(
+                buildCoupon(1L, 5000, 500), buildCoupon(2L, 50000, 3000), buildCoupon(3L, 1000000, 10000))));
+
+        // 2.1 价格计算器：订单不使用优惠劵、不选择配送方式，与 @Order 的顺序一致
+        TradeDiscountActivityPriceCalculator discountActivityPriceCalculator = new TradeDiscountActivityPriceCalculator();
+        ReflectUtil.setFieldValue(discountActivityPriceCalculator, "memberLevelApi", memberLevelApi);
+        ReflectUtil.setFieldValue(discountActivityPriceCalculator, "memberUserApi", memberUserApi);
+        List<TradePriceCalculator> priceCalculators = Arrays.asList(discountActivityPriceCalculator,
+                new TradeRewardActivityPriceCalculator(), new TradeCouponPriceCalculator(),
+                new TradePointUsePriceCalculator(), new TradePointGiveCalculator());
+        // 2.2 价格计算 Service
+        TradePriceServiceImpl service = new TradePriceServiceImpl();
+        ReflectUtil.setFieldValue(service, "productSkuApi", productSkuApi);
+        ReflectUtil.setFieldValue(service, "productSpuApi", productSpuApi);
+        ReflectUtil.setFieldValue(service, "discountActivityApi", discountActivityApi);
+        ReflectUtil.setFieldValue(service, "rewardActivityApi", rewardActivityApi);
+        ReflectUtil.setFieldValue(service, "couponApi", couponApi);
+        ReflectUtil.setFieldValue(service, "memberUserApi", memberUserApi);
+        ReflectUtil.setFieldValue(service, "memberConfigApi", memberConfigApi);
+        ReflectUtil.setFieldValue(service, "memberAddressApi", mock(MemberAddressApi.class));
+        ReflectUtil.setFieldValue(service, "priceCalculators", priceCalculators);
+        ReflectUtil.setFieldValue(service, "discountActivityPriceCalculator", discountActivityPriceCalculator);
+        ReflectUtil.setFieldValue(service, "tradeOrderProperties", new TradeOrderProperties());
+        return service;
+    }
+
+    private static CouponRespDTO buildCoupon(Long id, Integer usePrice, Integer discountPrice) {
+        return new CouponRespDTO().setId(id).setName("优惠劵" + id).setUsePrice(usePrice)
+                .setValidStartTime(LocalDateTime.now().minusDays(1)).setValidEndTime(LocalDateTime.now().plusDays(30))
+                .setProductScope(PromotionProductScopeEnum.ALL.getScope())
+                .setDiscountType(PromotionDiscountTypeEnum.PRICE.getType()).setDiscountPrice(discountPrice);
+    }
+
+    private static TradePriceCalculateReqBO buildReqBO() {
+        List<TradePriceCalculateReqBO.Item> items = new ArrayList<>(SKUS);
+        for (long i = 1; i <= SKUS; i++) {
+            items.add(new TradePriceCalculateReqBO.Item().setSkuId(i).setCount(1).setSelected(true));
+        }
+        return new TradePriceCalculateReqBO().setUserId(USER_ID).setPointStatus(true).setItems(items);
+    }
+
+    /**
+     * 模拟远程调用：等待 {@link #REMOTE_LATENCY_MILLIS} 毫秒后，返回数据
+     */
+    private static <T> Answer<CommonResult<T>> remote(T data) {
+        return invocation -> {
+            Thread.sleep(REMOTE_LATENCY_MILLIS);
+            return CommonResult.success(data);
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TradePriceServiceImplBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
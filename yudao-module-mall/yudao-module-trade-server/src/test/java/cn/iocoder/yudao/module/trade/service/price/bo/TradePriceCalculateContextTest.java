@@ -0,0 +1,128 @@
+package cn.iocoder.yudao.module.trade.service.price.bo;
+
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link TradePriceCalculateContext} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TradePriceCalculateContextTest extends BaseMockitoUnitTest {
+
+    @Mock
+    private Supplier<Object> userLoader;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGet_memoised() {
+        // mock 方法
+        MemberUserRespDTO user = new MemberUserRespDTO().setId(1L);
+        when(userLoader.get()).thenReturn(user);
+        TradePriceCalculateContext context = new TradePriceCalculateContext(executor)
+                .register(TradePriceCalculateContext.USER, userLoader);
+
+        // 调用：预取后，多次获取
+        CompletableFuture<Object> future = context.prefetch(TradePriceCalculateContext.USER);
+        assertSame(future, context.prefetch(TradePriceCalculateContext.USER));
+        assertSame(user, context.getUser());
+        assertSame(user, context.getUser());
+        // 断言：只加载一次，并记录耗时
+        verify(userLoader, times(1)).get();
+        assertTrue(context.getCosts().containsKey(TradePriceCalculateContext.USER));
+    }
+
+    @Test
+    public void testGet_notPrefetched() {
+        // mock 方法
+        AtomicReference<Thread> loadThread = new AtomicReference<>();
+        when(userLoader.get()).thenAnswer(invocation -> {
+            loadThread.set(Thread.currentThread());
+            return null;
+        });
+        TradePriceCalculateContext context = new TradePriceCalculateContext(executor)
+                .register(TradePriceCalculateContext.USER, userLoader);
+
+        // 调用：未预取时，在当前线程同步加载；结果为 null 时，同样只加载一次
+        assertNull(context.getUser());
+        assertNull(context.getUser());
+        // 断言
+        assertSame(Thread.currentThread(), loadThread.get());
+        verify(userLoader, times(1)).get();
+    }
+
+    @Test
+    public void testGet_exception() {
+        // mock 方法
+        ServiceException exception = new ServiceException(1_011_000_000, "用户不存在");
+        when(userLoader.get()).thenThrow(exception);
+        TradePriceCalculateContext context = new TradePriceCalculateContext(executor)
+                .register(TradePriceCalculateContext.USER, userLoader);
+
+        // 调用：在线程池中加载失败
+        context.prefetch(TradePriceCalculateContext.USER);
+        // 断言：抛出原始异常，而不是 CompletionException
+        assertSame(exception, assertThrows(ServiceException.class, context::getUser));
+        // 断言：失败的结果同样记忆，不重复加载
+        assertSame(exception, assertThrows(ServiceException.class, context::getUser));
+        verify(userLoader, times(1)).get();
+    }
+
+    @Test
+    public void testPrefetch_rejected() {
+        // mock 方法：线程池已满
+        AtomicReference<Thread> loadThread = new AtomicReference<>();
+        MemberUserRespDTO user = new MemberUserRespDTO().setId(1L);
+        when(userLoader.get()).thenAnswer(invocation -> {
+            loadThread.set(Thread.currentThread());
+            return user;
+        });
+        TradePriceCalculateContext context = new TradePriceCalculateContext(command -> {
+            throw new RejectedExecutionException();
+        }).register(TradePriceCalculateContext.USER, userLoader);
+
+        // 调用
+        CompletableFuture<Object> future = context.prefetch(TradePriceCalculateContext.USER);
+        // 断言：在当前线程同步加载完成
+        assertTrue(future.isDone());
+        assertSame(Thread.currentThread(), loadThread.get());
+        assertSame(user, context.getUser());
+        verify(userLoader, times(1)).get();
+    }
+
+    @Test
+    public void testGet_notRegistered() {
+        // 准备参数
+        TradePriceCalculateContext context = new TradePriceCalculateContext(executor);
+
+        // 调用，并断言异常
+        assertThrows(IllegalArgumentException.class, context::getAddress);
+    }
+
+}
@@ -5,6 +5,7 @@ import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
 import cn.iocoder.yudao.module.member.enums.ApiConstants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -48,6 +49,15 @@ public interface MemberUserApi {
     @Parameter(name = "nickname", description = "用户昵称，模糊匹配", required = true, example = "土豆")
     CommonResult<List<MemberUserRespDTO>> getUserListByNickname(@RequestParam("nickname") String nickname);
 
+    @GetMapping(PREFIX + "/list-id-by-id-gt")
+    @Operation(summary = "按照编号升序，获得编号大于 id 的用户编号们", description = "用于按照游标遍历全部用户")
+    @Parameters({
+            @Parameter(name = "id", description = "用户编号游标，不包含", required = true, example = "0"),
+            @Parameter(name = "limit", description = "数量", required = true, example = "500")
+    })
+    CommonResult<List<Long>> getUserIdListByIdGt(@RequestParam("id") Long id,
+                                                 @RequestParam("limit") Integer limit);
+
     @GetMapping(PREFIX + "/get-by-mobile")
     @Operation(summary = "基于手机号，精准匹配用户")
     @Parameter(name = "mobile", description = "基于手机号，精准匹配用户", required = true, example = "1560")
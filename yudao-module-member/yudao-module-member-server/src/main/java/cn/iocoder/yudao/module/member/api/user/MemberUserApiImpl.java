@@ -44,6 +44,11 @@ public class MemberUserApiImpl implements MemberUserApi {
         return success(MemberUserConvert.INSTANCE.convertList2(userService.getUserListByNickname(nickname)));
     }
 
+    @Override
+    public CommonResult<List<Long>> getUserIdListByIdGt(Long id, Integer limit) {
+        return success(userService.getUserIdListByIdGt(id, limit));
+    }
+
     @Override
     public CommonResult<MemberUserRespDTO> getUserByMobile(String mobile) {
         return success(MemberUserConvert.INSTANCE.convert2(userService.getUserByMobile(mobile)));
@@ -31,6 +31,14 @@ public interface MemberUserMapper extends BaseMapperX<MemberUserDO> {
                 .likeIfPresent(MemberUserDO::getNickname, nickname));
     }
 
+    default List<MemberUserDO> selectIdListByIdGt(Long id, Integer limit) {
+        return selectList(new LambdaQueryWrapperX<MemberUserDO>()
+                .select(MemberUserDO::getId)
+                .gt(MemberUserDO::getId, id)
+                .orderByAsc(MemberUserDO::getId)
+                .last("LIMIT " + limit));
+    }
+
     default PageResult<MemberUserDO> selectPage(MemberUserPageReqVO reqVO) {
         // 处理 tagIds 过滤条件
         String tagIdSql = "";
@@ -82,6 +82,17 @@ public interface MemberUserService {
      */
     List<MemberUserDO> getUserList(Collection<Long> ids);
 
+    /**
+     * 按照编号升序，获得编号大于 id 的用户编号们
+     *
+     * 用于按照游标（keyset）遍历全部用户，避免深分页
+     *
+     * @param id    用户编号游标，不包含
+     * @param limit 数量
+     * @return 用户编号数组
+     */
+    List<Long> getUserIdListByIdGt(Long id, Integer limit);
+
     /**
      * 【会员】修改基本信息
      *
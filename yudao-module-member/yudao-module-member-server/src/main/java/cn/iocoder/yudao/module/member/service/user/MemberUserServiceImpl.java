@@ -36,6 +36,7 @@ import java.util.Collection;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 import static cn.iocoder.yudao.framework.common.util.servlet.ServletUtils.getClientIP;
 import static cn.iocoder.yudao.module.member.enums.ErrorCodeConstants.*;
 
@@ -140,6 +141,11 @@ public class MemberUserServiceImpl implements MemberUserService {
         return memberUserMapper.selectByIds(ids);
     }
 
+    @Override
+    public List<Long> getUserIdListByIdGt(Long id, Integer limit) {
+        return convertList(memberUserMapper.selectIdListByIdGt(id, limit), MemberUserDO::getId);
+    }
+
     @Override
     public void updateUser(Long userId, AppMemberUserUpdateReqVO reqVO) {
         MemberUserDO updateObj = BeanUtils.toBean(reqVO, MemberUserDO.class).setId(userId);
@@ -4,6 +4,7 @@ import cn.iocoder.yudao.framework.common.biz.system.logger.dto.OperateLogCreateR
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogRespDTO;
 import cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO;
@@ -13,6 +14,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 
@@ -30,6 +32,13 @@ public class OperateLogApiImpl implements OperateLogApi {
         return success(true);
     }
 
+    @Override
+    @TenantIgnore // 批量创建时，日志可能属于不同租户，由 createReqDTO 的 tenantId 决定
+    public CommonResult<Boolean> createOperateLogBatch(List<OperateLogCreateReqDTO> createReqDTOs) {
+        operateLogService.createOperateLogBatch(createReqDTOs);
+        return success(true);
+    }
+
     @Override
     public CommonResult<PageResult<OperateLogRespDTO>> getOperateLogPage(OperateLogPageReqDTO pageReqDTO) {
         PageResult<OperateLogDO> operateLogPage = operateLogService.getOperateLogPage(pageReqDTO);
@@ -6,6 +6,7 @@ import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.excel.core.listener.ExcelBatchReadListener;
 import cn.iocoder.yudao.framework.excel.core.util.ExcelUtils;
 import cn.iocoder.yudao.module.system.controller.admin.user.vo.user.*;
 import cn.iocoder.yudao.module.system.convert.user.UserConvert;
@@ -27,13 +28,17 @@ import javax.annotation.Resource;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.USER_IMPORT_LIST_IS_EMPTY;
 
 @Tag(name = "管理后台 - 用户")
 @RestController
@@ -174,8 +179,21 @@ public class UserController {
     @PreAuthorize("@ss.hasPermission('system:user:import')")
     public CommonResult<UserImportRespVO> importExcel(@RequestParam("file") MultipartFile file,
                                                       @RequestParam(value = "updateSupport", required = false, defaultValue = "false") Boolean updateSupport) throws Exception {
-        List<UserImportExcelVO> list = ExcelUtils.read(file, UserImportExcelVO.class);
-        return success(userService.importUserList(list, updateSupport));
+        // 分批读取并导入，避免大文件一次性加载到内存
+        UserImportRespVO respVO = UserImportRespVO.builder().createUsernames(new ArrayList<>())
+                .updateUsernames(new ArrayList<>()).failureUsernames(new LinkedHashMap<>()).build();
+        ExcelBatchReadListener<UserImportExcelVO> result = ExcelUtils.read(file, UserImportExcelVO.class,
+                ExcelUtils.READ_BATCH_SIZE, list -> {
+                    UserImportRespVO batchRespVO = userService.importUserList(list, updateSupport);
+                    respVO.getCreateUsernames().addAll(batchRespVO.getCreateUsernames());
+                    respVO.getUpdateUsernames().addAll(batchRespVO.getUpdateUsernames());
+                    respVO.getFailureUsernames().putAll(batchRespVO.getFailureUsernames());
+                });
+        if (result.getTotal() == 0) {
+            throw exception(USER_IMPORT_LIST_IS_EMPTY);
+        }
+        respVO.setFailureRows(result.getErrors());
+        return success(respVO);
     }
 
 }
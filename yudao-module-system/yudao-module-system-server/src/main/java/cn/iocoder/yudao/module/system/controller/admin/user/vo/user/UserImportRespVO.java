@@ -21,4 +21,7 @@ public class UserImportRespVO {
     @Schema(description = "导入失败的用户集合，key 为用户名，value 为失败原因", requiredMode = Schema.RequiredMode.REQUIRED)
     private Map<String, String> failureUsernames;
 
+    @Schema(description = "格式校验失败的行集合，key 为 Excel 行号，value 为失败原因")
+    private Map<Integer, String> failureRows;
+
 }
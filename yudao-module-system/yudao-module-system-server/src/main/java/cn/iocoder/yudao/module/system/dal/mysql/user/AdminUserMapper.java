@@ -17,6 +17,18 @@ public interface AdminUserMapper extends BaseMapperX<AdminUserDO> {
         return selectOne(AdminUserDO::getUsername, username);
     }
 
+    default List<AdminUserDO> selectListByUsernames(Collection<String> usernames) {
+        return selectList(AdminUserDO::getUsername, usernames);
+    }
+
+    default List<AdminUserDO> selectListByEmails(Collection<String> emails) {
+        return selectList(AdminUserDO::getEmail, emails);
+    }
+
+    default List<AdminUserDO> selectListByMobiles(Collection<String> mobiles) {
+        return selectList(AdminUserDO::getMobile, mobiles);
+    }
+
     default AdminUserDO selectByEmail(String email) {
         return selectOne(AdminUserDO::getEmail, email);
     }
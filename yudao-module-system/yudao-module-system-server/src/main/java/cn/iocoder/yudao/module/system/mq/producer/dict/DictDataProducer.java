@@ -0,0 +1,45 @@
+package cn.iocoder.yudao.module.system.mq.producer.dict;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.dict.core.mq.redis.DictDataRefreshMessage;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Collection;
+
+/**
+ * 字典数据相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class DictDataProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link DictDataRefreshMessage} 消息，刷新各个服务本地缓存的字典数据
+     *
+     * @param dictTypes 字典类型数组
+     */
+    public void sendDictDataRefreshMessage(Collection<String> dictTypes) {
+        if (CollUtil.isEmpty(dictTypes)) {
+            return;
+        }
+        dictTypes.forEach(dictType -> {
+            try {
+                DictDataRefreshMessage message = new DictDataRefreshMessage();
+                message.setDictType(dictType);
+                redisMQTemplate.send(message);
+            } catch (Exception ex) {
+                // 广播失败时，各个服务本地缓存的字典数据，依赖定时刷新兜底
+                log.error("[sendDictDataRefreshMessage][dictType({}) 广播失败]", dictType, ex);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,43 @@
+package cn.iocoder.yudao.module.system.mq.producer.oauth2;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.security.core.mq.redis.OAuth2AccessTokenRemoveMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Collection;
+
+/**
+ * OAuth2 令牌相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class OAuth2TokenProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link OAuth2AccessTokenRemoveMessage} 消息，失效各个服务本地缓存的访问令牌
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    public void sendAccessTokenRemoveMessage(Collection<String> accessTokens) {
+        if (CollUtil.isEmpty(accessTokens)) {
+            return;
+        }
+        try {
+            OAuth2AccessTokenRemoveMessage message = new OAuth2AccessTokenRemoveMessage();
+            message.setAccessTokens(accessTokens);
+            redisMQTemplate.send(message);
+        } catch (Exception ex) {
+            // 广播失败时，各个服务本地缓存的访问令牌，依赖过期时间兜底
+            log.error("[sendAccessTokenRemoveMessage][accessTokens 数量({}) 广播失败]", accessTokens.size(), ex);
+        }
+    }
+
+}
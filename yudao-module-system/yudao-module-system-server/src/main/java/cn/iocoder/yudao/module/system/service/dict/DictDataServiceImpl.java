@@ -4,12 +4,14 @@ import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.framework.common.util.collection.SetUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.module.system.controller.admin.dict.vo.data.DictDataPageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.dict.vo.data.DictDataSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dict.DictDataDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dict.DictTypeDO;
 import cn.iocoder.yudao.module.system.dal.mysql.dict.DictDataMapper;
+import cn.iocoder.yudao.module.system.mq.producer.dict.DictDataProducer;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,7 @@ import java.util.Map;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+import static java.util.Collections.singleton;
 
 /**
  * 字典数据 Service 实现类
@@ -45,6 +48,9 @@ public class DictDataServiceImpl implements DictDataService {
     @Resource
     private DictDataMapper dictDataMapper;
 
+    @Resource
+    private DictDataProducer dictDataProducer;
+
     @Override
     public List<DictDataDO> getDictDataList(Integer status, String dictType) {
         List<DictDataDO> list = dictDataMapper.selectListByStatusAndDictType(status, dictType);
@@ -72,13 +78,16 @@ public class DictDataServiceImpl implements DictDataService {
         // 插入字典类型
         DictDataDO dictData = BeanUtils.toBean(createReqVO, DictDataDO.class);
         dictDataMapper.insert(dictData);
+
+        // 广播刷新本地缓存
+        dictDataProducer.sendDictDataRefreshMessage(singleton(dictData.getDictType()));
         return dictData.getId();
     }
 
     @Override
     public void updateDictData(DictDataSaveReqVO updateReqVO) {
         // 校验自己存在
-        validateDictDataExists(updateReqVO.getId());
+        DictDataDO oldDictData = validateDictDataExists(updateReqVO.getId());
         // 校验字典类型有效
         validateDictTypeExists(updateReqVO.getDictType());
         // 校验字典数据的值的唯一性
@@ -87,20 +96,30 @@ public class DictDataServiceImpl implements DictDataService {
         // 更新字典类型
         DictDataDO updateObj = BeanUtils.toBean(updateReqVO, DictDataDO.class);
         dictDataMapper.updateById(updateObj);
+
+        // 广播刷新本地缓存。如果字典类型发生变化，新老字典类型都需要刷新
+        dictDataProducer.sendDictDataRefreshMessage(SetUtils.asSet(oldDictData.getDictType(), updateObj.getDictType()));
     }
 
     @Override
     public void deleteDictData(Long id) {
         // 校验是否存在
-        validateDictDataExists(id);
+        DictDataDO dictData = validateDictDataExists(id);
 
         // 删除字典数据
         dictDataMapper.deleteById(id);
+
+        // 广播刷新本地缓存
+        dictDataProducer.sendDictDataRefreshMessage(singleton(dictData.getDictType()));
     }
 
     @Override
     public void deleteDictDataList(List<Long> ids) {
+        List<DictDataDO> dictDataList = dictDataMapper.selectByIds(ids);
         dictDataMapper.deleteByIds(ids);
+
+        // 广播刷新本地缓存
+        dictDataProducer.sendDictDataRefreshMessage(CollectionUtils.convertSet(dictDataList, DictDataDO::getDictType));
     }
 
     @Override
@@ -124,14 +143,15 @@ public class DictDataServiceImpl implements DictDataService {
     }
 
     @VisibleForTesting
-    public void validateDictDataExists(Long id) {
+    public DictDataDO validateDictDataExists(Long id) {
         if (id == null) {
-            return;
+            return null;
         }
         DictDataDO dictData = dictDataMapper.selectById(id);
         if (dictData == null) {
             throw exception(DICT_DATA_NOT_EXISTS);
         }
+        return dictData;
     }
 
     @VisibleForTesting
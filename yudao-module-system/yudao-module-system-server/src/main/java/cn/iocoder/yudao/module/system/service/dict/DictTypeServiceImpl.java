@@ -2,12 +2,14 @@ package cn.iocoder.yudao.module.system.service.dict;
 
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.collection.SetUtils;
 import cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.module.system.controller.admin.dict.vo.type.DictTypePageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.dict.vo.type.DictTypeSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dict.DictTypeDO;
 import cn.iocoder.yudao.module.system.dal.mysql.dict.DictTypeMapper;
+import cn.iocoder.yudao.module.system.mq.producer.dict.DictDataProducer;
 import com.google.common.annotations.VisibleForTesting;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +18,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static java.util.Collections.singleton;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 
 /**
@@ -32,6 +36,9 @@ public class DictTypeServiceImpl implements DictTypeService {
     @Resource
     private DictTypeMapper dictTypeMapper;
 
+    @Resource
+    private DictDataProducer dictDataProducer;
+
     @Override
     public PageResult<DictTypeDO> getDictTypePage(DictTypePageReqVO pageReqVO) {
         return dictTypeMapper.selectPage(pageReqVO);
@@ -64,7 +71,7 @@ public class DictTypeServiceImpl implements DictTypeService {
     @Override
     public void updateDictType(DictTypeSaveReqVO updateReqVO) {
         // 校验自己存在
-        validateDictTypeExists(updateReqVO.getId());
+        DictTypeDO oldDictType = validateDictTypeExists(updateReqVO.getId());
         // 校验字典类型的名字的唯一性
         validateDictTypeNameUnique(updateReqVO.getId(), updateReqVO.getName());
         // 校验字典类型的类型的唯一性
@@ -73,6 +80,9 @@ public class DictTypeServiceImpl implements DictTypeService {
         // 更新字典类型
         DictTypeDO updateObj = BeanUtils.toBean(updateReqVO, DictTypeDO.class);
         dictTypeMapper.updateById(updateObj);
+
+        // 广播刷新本地缓存。如果字典类型发生变化，新老字典类型都需要刷新
+        dictDataProducer.sendDictDataRefreshMessage(SetUtils.asSet(oldDictType.getType(), updateObj.getType()));
     }
 
     @Override
@@ -85,6 +95,9 @@ public class DictTypeServiceImpl implements DictTypeService {
         }
         // 删除字典类型
         dictTypeMapper.updateToDelete(id, LocalDateTime.now());
+
+        // 广播刷新本地缓存
+        dictDataProducer.sendDictDataRefreshMessage(singleton(dictType.getType()));
     }
 
     @Override
@@ -100,6 +113,9 @@ public class DictTypeServiceImpl implements DictTypeService {
         // 2. 批量删除字典类型
         LocalDateTime now = LocalDateTime.now();
         ids.forEach(id -> dictTypeMapper.updateToDelete(id, now));
+
+        // 3. 广播刷新本地缓存
+        dictDataProducer.sendDictDataRefreshMessage(convertSet(dictTypes, DictTypeDO::getType));
     }
 
     @Override
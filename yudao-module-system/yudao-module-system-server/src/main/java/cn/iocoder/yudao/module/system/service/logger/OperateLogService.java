@@ -6,6 +6,8 @@ import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
 import cn.iocoder.yudao.module.system.controller.admin.logger.vo.operatelog.OperateLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO;
 
+import java.util.List;
+
 /**
  * 操作日志 Service 接口
  *
@@ -20,6 +22,15 @@ public interface OperateLogService {
      */
     void createOperateLog(OperateLogCreateReqDTO createReqDTO);
 
+    /**
+     * 批量记录操作日志
+     *
+     * 按照 {@link OperateLogCreateReqDTO#getTenantId()} 租户分组，批量插入
+     *
+     * @param createReqDTOs 创建请求列表
+     */
+    void createOperateLogBatch(List<OperateLogCreateReqDTO> createReqDTOs);
+
     /**
      * 获得操作日志分页列表
      *
@@ -3,6 +3,7 @@ package cn.iocoder.yudao.module.system.service.logger;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.common.biz.system.logger.dto.OperateLogCreateReqDTO;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
 import cn.iocoder.yudao.module.system.controller.admin.logger.vo.operatelog.OperateLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO;
@@ -12,6 +13,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 操作日志 Service 实现类
@@ -32,6 +37,28 @@ public class OperateLogServiceImpl implements OperateLogService {
         operateLogMapper.insert(log);
     }
 
+    @Override
+    public void createOperateLogBatch(List<OperateLogCreateReqDTO> createReqDTOs) {
+        // 按照租户分组
+        Map<Long, List<OperateLogDO>> tenantLogs = new HashMap<>();
+        createReqDTOs.forEach(createReqDTO -> tenantLogs.computeIfAbsent(createReqDTO.getTenantId(), key -> new ArrayList<>())
+                .add(BeanUtils.toBean(createReqDTO, OperateLogDO.class)));
+        // 逐个租户，批量插入
+        tenantLogs.forEach((tenantId, logs) -> {
+            try {
+                if (tenantId != null) {
+                    TenantUtils.execute(tenantId, () -> operateLogMapper.insertBatch(logs));
+                } else {
+                    // 极端情况下，没有租户时，此时忽略租户上下文，避免插入失败！
+                    TenantUtils.executeIgnore(() -> operateLogMapper.insertBatch(logs));
+                }
+            } catch (Exception ex) {
+                // 兜底处理，避免某个租户插入失败，影响其它租户
+                log.error("[createOperateLogBatch][租户({}) 记录 {} 条时发生异常]", tenantId, logs.size(), ex);
+            }
+        });
+    }
+
     @Override
     public PageResult<OperateLogDO> getOperateLogPage(OperateLogPageReqVO pageReqVO) {
         return operateLogMapper.selectPage(pageReqVO);
@@ -21,6 +21,7 @@ import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
 import cn.iocoder.yudao.module.system.dal.mysql.oauth2.OAuth2AccessTokenMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.oauth2.OAuth2RefreshTokenMapper;
 import cn.iocoder.yudao.module.system.dal.redis.oauth2.OAuth2AccessTokenRedisDAO;
+import cn.iocoder.yudao.module.system.mq.producer.oauth2.OAuth2TokenProducer;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -31,6 +32,7 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception0;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
@@ -51,6 +53,9 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
     @Resource
     private OAuth2AccessTokenRedisDAO oauth2AccessTokenRedisDAO;
 
+    @Resource
+    private OAuth2TokenProducer oauth2TokenProducer;
+
     @Resource
     private OAuth2ClientService oauth2ClientService;
     @Resource
@@ -86,7 +91,9 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
         List<OAuth2AccessTokenDO> accessTokenDOs = oauth2AccessTokenMapper.selectListByRefreshToken(refreshToken);
         if (CollUtil.isNotEmpty(accessTokenDOs)) {
             oauth2AccessTokenMapper.deleteByIds(convertSet(accessTokenDOs, OAuth2AccessTokenDO::getId));
-            oauth2AccessTokenRedisDAO.deleteList(convertSet(accessTokenDOs, OAuth2AccessTokenDO::getAccessToken));
+            Set<String> accessTokens = convertSet(accessTokenDOs, OAuth2AccessTokenDO::getAccessToken);
+            oauth2AccessTokenRedisDAO.deleteList(accessTokens);
+            oauth2TokenProducer.sendAccessTokenRemoveMessage(accessTokens);
         }
 
         // 已过期的情况下，删除刷新令牌
@@ -148,6 +155,7 @@ public class OAuth2TokenServiceImpl implements OAuth2TokenService {
         }
         oauth2AccessTokenMapper.deleteById(accessTokenDO.getId());
         oauth2AccessTokenRedisDAO.delete(accessToken);
+        oauth2TokenProducer.sendAccessTokenRemoveMessage(Collections.singleton(accessToken));
         // 删除刷新令牌
         oauth2RefreshTokenMapper.deleteByRefreshToken(accessTokenDO.getRefreshToken());
         return accessTokenDO;
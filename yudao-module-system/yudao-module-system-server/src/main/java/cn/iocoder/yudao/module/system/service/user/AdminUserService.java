@@ -191,6 +191,8 @@ public interface AdminUserService {
     /**
      * 批量导入用户
      *
+     * 大文件导入时，由 Controller 分批读取 Excel 后多次调用，每次调用是一个独立的事务
+     *
      * @param importUsers     导入用户列表
      * @param isUpdateSupport 是否支持更新
      * @return 导入结果
@@ -469,47 +469,126 @@ public class AdminUserServiceImpl implements AdminUserService {
             throw exception(USER_IMPORT_INIT_PASSWORD);
         }
 
-        // 2. 遍历，逐个创建 or 更新
+        // 2.1 批量加载校验所需的数据，避免逐行查询数据库
         UserImportRespVO respVO = UserImportRespVO.builder().createUsernames(new ArrayList<>())
                 .updateUsernames(new ArrayList<>()).failureUsernames(new LinkedHashMap<>()).build();
-        importUsers.forEach(importUser -> {
-            // 2.1.1 校验字段是否符合要求
+        // 关闭数据权限，避免因为没有数据权限，查询不到数据，进而导致唯一校验不正确
+        Map<String, AdminUserDO> existUsers = DataPermissionUtils.executeIgnore(() -> convertMap(
+                userMapper.selectListByUsernames(convertSet(importUsers, UserImportExcelVO::getUsername)),
+                AdminUserDO::getUsername));
+        Map<String, String> mobileUsernames = DataPermissionUtils.executeIgnore(() -> convertMap(
+                userMapper.selectListByMobiles(convertSet(importUsers, UserImportExcelVO::getMobile,
+                        user -> StrUtil.isNotBlank(user.getMobile()))),
+                AdminUserDO::getMobile, AdminUserDO::getUsername, (v1, v2) -> v1));
+        Map<String, String> emailUsernames = DataPermissionUtils.executeIgnore(() -> convertMap(
+                userMapper.selectListByEmails(convertSet(importUsers, UserImportExcelVO::getEmail,
+                        user -> StrUtil.isNotBlank(user.getEmail()))),
+                AdminUserDO::getEmail, AdminUserDO::getUsername, (v1, v2) -> v1));
+        Map<Long, String> deptErrors = validateImportDeptList(importUsers);
+
+        // 2.2 遍历，逐个校验 or 更新；需要创建的用户，最后批量插入
+        List<AdminUserDO> createUsers = new ArrayList<>();
+        String encodedPassword = null; // 初始密码相同，只加密一次
+        for (UserImportExcelVO importUser : importUsers) {
+            // 2.2.1 校验字段是否符合要求
             try {
                 ValidationUtils.validate(BeanUtils.toBean(importUser, UserSaveReqVO.class).setPassword(initPassword));
             } catch (ConstraintViolationException ex){
                 respVO.getFailureUsernames().put(importUser.getUsername(), ex.getMessage());
-                return;
+                continue;
             }
-            // 2.1.2 校验，判断是否有不符合的原因
-            try {
-                validateUserForCreateOrUpdate(null, null, importUser.getMobile(), importUser.getEmail(),
-                        importUser.getDeptId(), null);
-            } catch (ServiceException ex) {
-                respVO.getFailureUsernames().put(importUser.getUsername(), ex.getMessage());
-                return;
+            // 2.2.2 校验，判断是否有不符合的原因：手机、邮箱被其它用户（包括本批次之前的行）占用，或部门不可用
+            String username = importUser.getUsername();
+            if (!isOwnedByOrFree(mobileUsernames, importUser.getMobile(), username)) {
+                respVO.getFailureUsernames().put(username, USER_MOBILE_EXISTS.getMsg());
+                continue;
+            }
+            if (!isOwnedByOrFree(emailUsernames, importUser.getEmail(), username)) {
+                respVO.getFailureUsernames().put(username, USER_EMAIL_EXISTS.getMsg());
+                continue;
+            }
+            if (deptErrors.containsKey(importUser.getDeptId())) {
+                respVO.getFailureUsernames().put(username, deptErrors.get(importUser.getDeptId()));
+                continue;
             }
 
-            // 2.2.1 判断如果不存在，在进行插入
-            AdminUserDO existUser = userMapper.selectByUsername(importUser.getUsername());
+            // 2.3.1 判断如果不存在，在进行插入
+            AdminUserDO existUser = existUsers.get(username);
             if (existUser == null) {
-                userMapper.insert(BeanUtils.toBean(importUser, AdminUserDO.class)
-                        .setPassword(encodePassword(initPassword)).setPostIds(new HashSet<>())); // 设置默认密码及空岗位编号数组
-                respVO.getCreateUsernames().add(importUser.getUsername());
-                return;
+                if (encodedPassword == null) {
+                    encodedPassword = encodePassword(initPassword);
+                }
+                AdminUserDO createUser = BeanUtils.toBean(importUser, AdminUserDO.class)
+                        .setPassword(encodedPassword).setPostIds(new HashSet<>()); // 设置默认密码及空岗位编号数组
+                createUsers.add(createUser);
+                existUsers.put(username, createUser); // 本批次内重复的用户名，按照已存在处理
+                occupy(mobileUsernames, importUser.getMobile(), username);
+                occupy(emailUsernames, importUser.getEmail(), username);
+                respVO.getCreateUsernames().add(username);
+                continue;
             }
-            // 2.2.2 如果存在，判断是否允许更新
-            if (!isUpdateSupport) {
-                respVO.getFailureUsernames().put(importUser.getUsername(), USER_USERNAME_EXISTS.getMsg());
-                return;
+            // 2.3.2 如果存在，判断是否允许更新
+            if (!isUpdateSupport || existUser.getId() == null) {
+                respVO.getFailureUsernames().put(username, USER_USERNAME_EXISTS.getMsg());
+                continue;
             }
-            AdminUserDO updateUser = BeanUtils.toBean(importUser, AdminUserDO.class);
-            updateUser.setId(existUser.getId());
-            userMapper.updateById(updateUser);
-            respVO.getUpdateUsernames().add(importUser.getUsername());
-        });
+            try {
+                AdminUserDO updateUser = BeanUtils.toBean(importUser, AdminUserDO.class);
+                updateUser.setId(existUser.getId());
+                userMapper.updateById(updateUser);
+            } catch (ServiceException ex) {
+                respVO.getFailureUsernames().put(username, ex.getMessage());
+                continue;
+            }
+            occupy(mobileUsernames, importUser.getMobile(), username);
+            occupy(emailUsernames, importUser.getEmail(), username);
+            respVO.getUpdateUsernames().add(username);
+        }
+
+        // 3. 批量插入
+        if (CollUtil.isNotEmpty(createUsers)) {
+            userMapper.insertBatch(createUsers);
+        }
         return respVO;
     }
 
+    /**
+     * 批量校验导入用户的部门，返回校验失败的部门及其原因
+     *
+     * 先整体校验一次；不通过时，再逐个部门校验，定位具体失败的部门。部门数量远小于用户数量，不会逐行查询
+     */
+    private Map<Long, String> validateImportDeptList(List<UserImportExcelVO> importUsers) {
+        Set<Long> deptIds = convertSet(importUsers, UserImportExcelVO::getDeptId, user -> user.getDeptId() != null);
+        try {
+            deptService.validateDeptList(deptIds);
+            return Collections.emptyMap();
+        } catch (ServiceException ignored) {
+        }
+        Map<Long, String> deptErrors = new HashMap<>();
+        deptIds.forEach(deptId -> {
+            try {
+                deptService.validateDeptList(Collections.singleton(deptId));
+            } catch (ServiceException ex) {
+                deptErrors.put(deptId, ex.getMessage());
+            }
+        });
+        return deptErrors;
+    }
+
+    private static boolean isOwnedByOrFree(Map<String, String> usernames, String key, String username) {
+        if (StrUtil.isBlank(key)) {
+            return true;
+        }
+        String owner = usernames.get(key);
+        return owner == null || owner.equals(username);
+    }
+
+    private static void occupy(Map<String, String> usernames, String key, String username) {
+        if (StrUtil.isNotBlank(key)) {
+            usernames.put(key, username);
+        }
+    }
+
     @Override
     public List<AdminUserDO> getUserListByStatus(Integer status) {
         return userMapper.selectListByStatus(status);
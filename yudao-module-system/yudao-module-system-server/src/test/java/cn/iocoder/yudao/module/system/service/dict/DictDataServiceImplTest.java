@@ -9,6 +9,7 @@ import cn.iocoder.yudao.module.system.controller.admin.dict.vo.data.DictDataSave
 import cn.iocoder.yudao.module.system.dal.dataobject.dict.DictDataDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dict.DictTypeDO;
 import cn.iocoder.yudao.module.system.dal.mysql.dict.DictDataMapper;
+import cn.iocoder.yudao.module.system.mq.producer.dict.DictDataProducer;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
@@ -37,6 +38,8 @@ public class DictDataServiceImplTest extends BaseDbUnitTest {
     private DictDataMapper dictDataMapper;
     @MockBean
     private DictTypeService dictTypeService;
+    @MockBean
+    private DictDataProducer dictDataProducer;
 
     @Test
     public void testGetDictDataList() {
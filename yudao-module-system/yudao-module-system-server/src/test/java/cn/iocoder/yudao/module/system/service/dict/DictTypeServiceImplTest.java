@@ -8,6 +8,7 @@ import cn.iocoder.yudao.module.system.controller.admin.dict.vo.type.DictTypePage
 import cn.iocoder.yudao.module.system.controller.admin.dict.vo.type.DictTypeSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dict.DictTypeDO;
 import cn.iocoder.yudao.module.system.dal.mysql.dict.DictTypeMapper;
+import cn.iocoder.yudao.module.system.mq.producer.dict.DictDataProducer;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
@@ -17,6 +18,7 @@ import java.util.List;
 import java.util.function.Consumer;
 
 import static cn.hutool.core.util.RandomUtil.randomEle;
+import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.buildBetweenTime;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.buildTime;
 import static cn.iocoder.yudao.framework.common.util.object.ObjectUtils.cloneIgnoreId;
@@ -24,8 +26,10 @@ import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEq
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+import static java.util.Collections.singleton;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Import(DictTypeServiceImpl.class)
@@ -38,6 +42,8 @@ public class DictTypeServiceImplTest extends BaseDbUnitTest {
     private DictTypeMapper dictTypeMapper;
     @MockBean
     private DictDataService dictDataService;
+    @MockBean
+    private DictDataProducer dictDataProducer;
 
     @Test
     public void testGetDictTypePage() {
@@ -134,6 +140,8 @@ public class DictTypeServiceImplTest extends BaseDbUnitTest {
         // 校验是否更新正确
         DictTypeDO dictType = dictTypeMapper.selectById(reqVO.getId()); // 获取最新的
         assertPojoEquals(reqVO, dictType);
+        // 校验广播刷新了新老字典类型
+        verify(dictDataProducer).sendDictDataRefreshMessage(eq(asSet(dbDictType.getType(), reqVO.getType())));
     }
 
     @Test
@@ -148,6 +156,8 @@ public class DictTypeServiceImplTest extends BaseDbUnitTest {
         dictTypeService.deleteDictType(id);
         // 校验数据不存在了
         assertNull(dictTypeMapper.selectById(id));
+        // 校验广播刷新了字典类型
+        verify(dictDataProducer).sendDictDataRefreshMessage(eq(singleton(dbDictType.getType())));
     }
 
     @Test
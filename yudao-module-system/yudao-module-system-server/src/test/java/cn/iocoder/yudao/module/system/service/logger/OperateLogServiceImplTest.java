@@ -12,7 +12,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.List;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.findFirst;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.buildBetweenTime;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.buildTime;
 import static cn.iocoder.yudao.framework.common.util.object.ObjectUtils.cloneIgnoreId;
@@ -39,6 +42,21 @@ public class OperateLogServiceImplTest extends BaseDbUnitTest {
         assertPojoEquals(reqVO, operateLogDO);
     }
 
+    @Test
+    public void testCreateOperateLogBatch() {
+        // 准备参数：一个有租户，一个无租户
+        OperateLogCreateReqDTO reqDTO01 = RandomUtils.randomPojo(OperateLogCreateReqDTO.class);
+        OperateLogCreateReqDTO reqDTO02 = RandomUtils.randomPojo(OperateLogCreateReqDTO.class, o -> o.setTenantId(null));
+
+        // 调用
+        operateLogServiceImpl.createOperateLogBatch(Arrays.asList(reqDTO01, reqDTO02));
+        // 断言
+        List<OperateLogDO> operateLogs = operateLogMapper.selectList();
+        assertEquals(2, operateLogs.size());
+        assertPojoEquals(reqDTO01, findFirst(operateLogs, o -> o.getTraceId().equals(reqDTO01.getTraceId())));
+        assertPojoEquals(reqDTO02, findFirst(operateLogs, o -> o.getTraceId().equals(reqDTO02.getTraceId())));
+    }
+
     @Test
     public void testGetOperateLogPage_vo() {
         // 构造操作日志
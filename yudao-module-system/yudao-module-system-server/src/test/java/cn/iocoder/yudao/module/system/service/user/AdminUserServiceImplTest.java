@@ -525,6 +525,49 @@ public class AdminUserServiceImplTest extends BaseDbUnitTest {
         assertEquals(0, respVO.getFailureUsernames().size());
     }
 
+    /**
+     * 情况五，同一批次中，校验通过与不通过的混合导入
+     */
+    @Test
+    public void testImportUserList_05() {
+        // mock 数据
+        AdminUserDO dbUser = randomAdminUserDO(o -> o.setMobile(randomMobile()).setEmail(randomEmail()));
+        userMapper.insert(dbUser);
+        // 准备参数
+        UserImportExcelVO validUser = randomImportUser();
+        UserImportExcelVO mobileExistsUser = randomImportUser(o -> o.setMobile(dbUser.getMobile())); // 手机与数据库重复
+        UserImportExcelVO emailExistsUser = randomImportUser(o -> o.setEmail(validUser.getEmail())); // 邮箱与本批次重复
+        UserImportExcelVO invalidUser = randomImportUser(o -> o.setEmail("not-an-email")); // 字段校验不通过
+        UserImportExcelVO deptDisableUser = randomImportUser(); // 部门被禁用
+        // mock deptService 的方法
+        doAnswer(invocation -> {
+            Collection<Long> deptIds = invocation.getArgument(0);
+            if (deptIds.contains(deptDisableUser.getDeptId())) {
+                throw new ServiceException(DEPT_NOT_ENABLE);
+            }
+            return null;
+        }).when(deptService).validateDeptList(any());
+        // mock passwordEncoder 的方法
+        when(passwordEncoder.encode(eq("yudaoyuanma"))).thenReturn("java");
+
+        // 调用
+        UserImportRespVO respVO = userService.importUserList(newArrayList(validUser, mobileExistsUser,
+                emailExistsUser, invalidUser, deptDisableUser), true);
+        // 断言
+        assertEquals(singletonList(validUser.getUsername()), respVO.getCreateUsernames());
+        assertEquals(0, respVO.getUpdateUsernames().size());
+        assertEquals(4, respVO.getFailureUsernames().size());
+        assertEquals(USER_MOBILE_EXISTS.getMsg(), respVO.getFailureUsernames().get(mobileExistsUser.getUsername()));
+        assertEquals(USER_EMAIL_EXISTS.getMsg(), respVO.getFailureUsernames().get(emailExistsUser.getUsername()));
+        assertNotNull(respVO.getFailureUsernames().get(invalidUser.getUsername()));
+        assertEquals(DEPT_NOT_ENABLE.getMsg(), respVO.getFailureUsernames().get(deptDisableUser.getUsername()));
+        // 断言数据库：只插入了校验通过的用户
+        AdminUserDO user = userMapper.selectByUsername(validUser.getUsername());
+        assertPojoEquals(validUser, user);
+        assertNull(userMapper.selectByUsername(mobileExistsUser.getUsername()));
+        assertNull(userMapper.selectByUsername(emailExistsUser.getUsername()));
+    }
+
     @Test
     public void testValidateUserExists_notExists() {
         assertServiceException(() -> userService.validateUserExists(randomLongId()), USER_NOT_EXISTS);
@@ -752,6 +795,17 @@ public class AdminUserServiceImplTest extends BaseDbUnitTest {
 
     // ========== 随机对象 ==========
 
+    @SafeVarargs
+    private static UserImportExcelVO randomImportUser(Consumer<UserImportExcelVO>... consumers) {
+        Consumer<UserImportExcelVO> consumer = (o) -> {
+            o.setStatus(randomEle(CommonStatusEnum.values()).getStatus()); // 保证 status 的范围
+            o.setSex(randomEle(SexEnum.values()).getSex()); // 保证 sex 的范围
+            o.setEmail(randomEmail());
+            o.setMobile(randomMobile());
+        };
+        return randomPojo(UserImportExcelVO.class, ArrayUtils.append(consumer, consumers));
+    }
+
     @SafeVarargs
     private static AdminUserDO randomAdminUserDO(Consumer<AdminUserDO>... consumers) {
         Consumer<AdminUserDO> consumer = (o) -> {